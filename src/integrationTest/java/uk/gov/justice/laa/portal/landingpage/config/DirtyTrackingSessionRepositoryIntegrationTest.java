@@ -0,0 +1,150 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository.JdbcSession;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.laa.portal.landingpage.repository.BaseRepositoryTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two session repositories against the same Postgres database, as two instances of the
+ * service behind the load balancer would, and checks that neither loses the other's changes.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DirtyTrackingSessionRepositoryIntegrationTest extends BaseRepositoryTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DirtyTrackingSessionRepository<JdbcSession> instanceA;
+    private DirtyTrackingSessionRepository<JdbcSession> instanceB;
+    private final List<String> sessionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        instanceA = newInstance();
+        instanceB = newInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionIds.forEach(instanceA::deleteById);
+    }
+
+    private DirtyTrackingSessionRepository<JdbcSession> newInstance() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        JdbcIndexedSessionRepository sessionRepository = new JdbcIndexedSessionRepository(jdbcTemplate, transactionTemplate);
+        MeteredSessionConversionService conversionService = new MeteredSessionConversionService(meterRegistry,
+                getClass().getClassLoader());
+        sessionRepository.setConversionService(conversionService);
+        return new DirtyTrackingSessionRepository<>(sessionRepository, conversionService, Duration.ofSeconds(60),
+                meterRegistry);
+    }
+
+    private String createSession() {
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession session = instanceA.createSession();
+        session.setAttribute("journey", "step-1");
+        session.setAttribute("filter", "all");
+        instanceA.save(session);
+        sessionIds.add(session.getId());
+        return session.getId();
+    }
+
+    @Test
+    void interleavedRequestsOnTwoInstancesKeepEachOthersChanges() {
+        String id = createSession();
+
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession onA = instanceA.findById(id);
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession onB = instanceB.findById(id);
+        onA.setAttribute("journey", "step-2");
+        onA.setAttribute("filter", onA.getAttribute("filter"));
+        onB.setAttribute("filter", "active");
+        onB.setAttribute("journey", onB.getAttribute("journey"));
+        instanceA.save(onA);
+        instanceB.save(onB);
+
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession reloaded = instanceA.findById(id);
+        assertThat(reloaded.<String>getAttribute("journey")).isEqualTo("step-2");
+        assertThat(reloaded.<String>getAttribute("filter")).isEqualTo("active");
+    }
+
+    @Test
+    void concurrentRequestsOnTwoInstancesKeepEveryChange() throws Exception {
+        String id = createSession();
+        int requests = 20;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                DirtyTrackingSessionRepository<JdbcSession> instance = i % 2 == 0 ? instanceA : instanceB;
+                String answer = "answer-" + i;
+                results.add(executor.submit(() -> {
+                    DirtyTrackingSessionRepository<JdbcSession>.TrackedSession session = instance.findById(id);
+                    session.setAttribute("journey", session.getAttribute("journey"));
+                    session.setAttribute(answer, answer);
+                    session.setLastAccessedTime(Instant.now());
+                    instance.save(session);
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession reloaded = instanceB.findById(id);
+        assertThat(reloaded.<String>getAttribute("journey")).isEqualTo("step-1");
+        for (int i = 0; i < requests; i++) {
+            assertThat(reloaded.<String>getAttribute("answer-" + i)).isEqualTo("answer-" + i);
+        }
+        assertThat(meterRegistry.get(DirtyTrackingSessionRepository.WRITES_AVOIDED_METRIC)
+                .tag("write", DirtyTrackingSessionRepository.ATTRIBUTE).counter().count()).isEqualTo(requests);
+    }
+
+    @Test
+    void readOnlyRequestsWithinTheGranularityDoNotTouchTheSessionRow() {
+        String id = createSession();
+        Instant lastAccessed = lastAccessTime(id);
+
+        DirtyTrackingSessionRepository<JdbcSession>.TrackedSession onB = instanceB.findById(id);
+        onB.getAttribute("journey");
+        onB.setLastAccessedTime(lastAccessed.plusSeconds(30));
+        instanceB.save(onB);
+
+        assertThat(lastAccessTime(id)).isEqualTo(lastAccessed);
+        assertThat(meterRegistry.get(DirtyTrackingSessionRepository.WRITES_AVOIDED_METRIC)
+                .tag("write", DirtyTrackingSessionRepository.LAST_ACCESS).counter().count()).isEqualTo(1);
+    }
+
+    private Instant lastAccessTime(String sessionId) {
+        Long millis = jdbcTemplate.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?",
+                Long.class, sessionId);
+        return Instant.ofEpochMilli(millis);
+    }
+}
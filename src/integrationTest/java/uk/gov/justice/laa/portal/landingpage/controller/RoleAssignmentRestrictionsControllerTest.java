@@ -14,9 +14,7 @@ import uk.gov.justice.laa.portal.landingpage.service.RoleAssignmentService;
 import uk.gov.justice.laa.portal.landingpage.viewmodel.AppRoleViewModel;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -125,16 +123,8 @@ class RoleAssignmentRestrictionsControllerTest extends BaseIntegrationTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/admin/silas-administration/role/assignRestrictions/check-answers"));
 
-        @SuppressWarnings("unchecked") List<AppRoleViewModel> stored = (List<AppRoleViewModel>) session.getAttribute("appRoleSelections");
         assertThat(session.getAttribute("assignableAppRoleId")).isEqualTo(targetId);
-        assertThat(stored).hasSize(3);
-        Map<String, Boolean> sel = new HashMap<>();
-        for (AppRoleViewModel vm : stored) {
-            sel.put(vm.getId(), vm.isSelected());
-        }
-        assertThat(sel.get(dtoA.getId())).isTrue();
-        assertThat(sel.get(dtoB.getId())).isFalse();
-        assertThat(sel.get(dtoC.getId())).isTrue();
+        assertThat(session.getAttribute("appRoleSelections")).isEqualTo(List.of(dtoA.getId(), dtoC.getId()));
     }
 
     @Test
@@ -147,14 +137,9 @@ class RoleAssignmentRestrictionsControllerTest extends BaseIntegrationTest {
 
     @Test
     void getCheckAnswers_withSession_populatesModelAndFiltersSelf() throws Exception {
-        List<AppRoleViewModel> vms = new ArrayList<>();
-        vms.add(vm(dtoA, true));
-        vms.add(vm(dtoB, false));
-        vms.add(vm(targetDto, true));
-
         MockHttpSession session = new MockHttpSession();
         session.setAttribute("assignableAppRoleId", targetId);
-        session.setAttribute("appRoleSelections", vms);
+        session.setAttribute("appRoleSelections", new ArrayList<>(List.of(dtoA.getId(), targetId)));
 
         given(appRoleService.findById(targetId)).willReturn(Optional.of(targetDto));
         given(appRoleService.getAssigningRolesFor(targetId)).willReturn(List.of(dtoB));
@@ -173,15 +158,10 @@ class RoleAssignmentRestrictionsControllerTest extends BaseIntegrationTest {
 
     @Test
     void postCheckAnswers_withSession_callsService_filtersSelf_clearsSession_andShowsConfirmation() throws Exception {
-        List<AppRoleViewModel> vms = new ArrayList<>();
-        vms.add(vm(dtoA, true));
-        vms.add(vm(dtoA, true));
-        vms.add(vm(dtoB, true));
-        vms.add(vm(targetDto, true));
-
         MockHttpSession session = new MockHttpSession();
         session.setAttribute("assignableAppRoleId", targetId);
-        session.setAttribute("appRoleSelections", vms);
+        session.setAttribute("appRoleSelections",
+                new ArrayList<>(List.of(dtoA.getId(), dtoA.getId(), dtoB.getId(), targetId)));
 
         mockMvc.perform(post("/admin/silas-administration/role/assignRestrictions/check-answers")
                         .with(csrf()).with(defaultOauth2Login(silasAdminUser)).session(session))
@@ -205,12 +185,4 @@ class RoleAssignmentRestrictionsControllerTest extends BaseIntegrationTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/silas-administration/role"));
     }
-
-    private AppRoleViewModel vm(AppRoleDto dto, boolean selected) {
-        AppRoleViewModel vm = new AppRoleViewModel();
-        vm.setId(dto.getId());
-        vm.setName(dto.getName());
-        vm.setSelected(selected);
-        return vm;
-    }
 }
@@ -385,6 +385,7 @@ public class RoleBasedAccessEditUserOfficeTest extends RoleBasedAccessIntegratio
                 .with(userOauth2Login(loggedInUser))
                 .with(csrf())
                 .session(session)
+                .param("shownOffices", newOffice.getId().toString())
                 .param("offices", newOffice.getId().toString()))
                 .andExpect(status().is3xxRedirection())
                 .andReturn();
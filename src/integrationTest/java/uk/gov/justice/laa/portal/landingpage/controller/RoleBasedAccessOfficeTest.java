@@ -57,6 +57,7 @@ public class RoleBasedAccessOfficeTest extends RoleBasedAccessIntegrationTest {
                         .with(userOauth2Login(loggedInUser))
                         .with(csrf())
                         .session(session)
+                        .param("shownOffices", office.getId().toString())
                         .param("offices", office.getId().toString())
                         .param("id", editedUserProfile.getId().toString()))
                 .andExpect(status().is3xxRedirection())
@@ -127,6 +128,7 @@ public class RoleBasedAccessOfficeTest extends RoleBasedAccessIntegrationTest {
                         .with(userOauth2Login(loggedInUser))
                         .with(csrf())
                         .session(session)
+                        .param("shownOffices", office.getId().toString())
                         .param("offices", office.getId().toString())
                         .param("id", editedUserProfile.getId().toString()))
                 .andExpect(status().is3xxRedirection())
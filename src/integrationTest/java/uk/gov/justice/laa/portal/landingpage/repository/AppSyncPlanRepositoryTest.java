@@ -0,0 +1,136 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlan;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class AppSyncPlanRepositoryTest extends BaseRepositoryTest {
+
+    private static final String INSTANCE = "instance-1";
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private AppSyncPlanRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository.deleteAll();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    public void testClaimForApplyClaimsAPlannedPlanForTheApplyingAdmin() {
+        AppSyncPlan plan = save(AppSyncPlanStatus.PLANNED, null);
+        UUID userId = UUID.randomUUID();
+        UUID userProfileId = UUID.randomUUID();
+
+        assertThat(claim(plan, userId, userProfileId)).isEqualTo(1);
+        assertThat(claim(plan, UUID.randomUUID(), UUID.randomUUID())).isZero();
+
+        AppSyncPlan claimed = reload(plan);
+        assertThat(claimed.getStatus()).isEqualTo(AppSyncPlanStatus.APPLYING);
+        assertThat(claimed.getAppliedByUserId()).isEqualTo(userId);
+        assertThat(claimed.getAppliedByName()).isEqualTo("Admin");
+        assertThat(claimed.getAppliedByUserProfileId()).isEqualTo(userProfileId);
+        assertThat(claimed.getLockedBy()).isEqualTo(INSTANCE);
+        assertThat(claimed.getLockedUntil()).isAfter(now);
+    }
+
+    @Test
+    public void testClaimForApplyReclaimsAnApplyingPlanOnlyOnceItsLeaseHasLapsed() {
+        AppSyncPlan held = save(AppSyncPlanStatus.APPLYING, now.plusMinutes(1));
+        AppSyncPlan lapsed = save(AppSyncPlanStatus.APPLYING, now.minusMinutes(1));
+        AppSyncPlan applied = save(AppSyncPlanStatus.APPLIED, null);
+
+        assertThat(claim(held, UUID.randomUUID(), UUID.randomUUID())).isZero();
+        assertThat(claim(lapsed, UUID.randomUUID(), UUID.randomUUID())).isEqualTo(1);
+        assertThat(claim(applied, UUID.randomUUID(), UUID.randomUUID())).isZero();
+    }
+
+    @Test
+    public void testReleaseApplyRecordsTheOutcomeWithoutLosingProgress() {
+        AppSyncPlan plan = save(AppSyncPlanStatus.APPLYING, now.plusMinutes(1));
+        repository.updateAppliedChanges(plan.getId(), INSTANCE, 7, now.plusMinutes(2));
+
+        assertThat(repository.releaseApply(plan.getId(), AppSyncPlanStatus.APPLYING, INSTANCE, AppSyncPlanStatus.FAILED,
+                "boom")).isEqualTo(1);
+        assertThat(repository.releaseApply(plan.getId(), AppSyncPlanStatus.APPLYING, INSTANCE,
+                AppSyncPlanStatus.SUPERSEDED, null)).isZero();
+
+        AppSyncPlan failed = reload(plan);
+        assertThat(failed.getStatus()).isEqualTo(AppSyncPlanStatus.FAILED);
+        assertThat(failed.getLastError()).isEqualTo("boom");
+        assertThat(failed.getAppliedChanges()).isEqualTo(7);
+        assertThat(failed.getLockedUntil()).isNull();
+    }
+
+    @Test
+    public void testCompleteApplyRecordsTheOutcomeAndReleasesTheLease() {
+        AppSyncPlan plan = save(AppSyncPlanStatus.APPLYING, now.plusMinutes(1));
+
+        assertThat(repository.completeApply(plan.getId(), AppSyncPlanStatus.APPLYING, INSTANCE,
+                AppSyncPlanStatus.APPLIED, 10, "[\"error\"]", "summary", 3L, now)).isEqualTo(1);
+
+        AppSyncPlan applied = reload(plan);
+        assertThat(applied.getStatus()).isEqualTo(AppSyncPlanStatus.APPLIED);
+        assertThat(applied.getAppliedChanges()).isEqualTo(10);
+        assertThat(applied.getErrors()).isEqualTo("[\"error\"]");
+        assertThat(applied.getSummary()).isEqualTo("summary");
+        assertThat(applied.getCatalogueVersion()).isEqualTo(3L);
+        assertThat(applied.getAppliedAt()).isNotNull();
+        assertThat(applied.getLockedUntil()).isNull();
+    }
+
+    @Test
+    public void testAnInstanceWithoutTheLeaseCannotRecordProgressOrTheOutcome() {
+        AppSyncPlan plan = save(AppSyncPlanStatus.APPLYING, now.plusMinutes(1));
+
+        assertThat(repository.updateAppliedChanges(plan.getId(), "instance-2", 7, now.plusMinutes(2))).isZero();
+        assertThat(repository.completeApply(plan.getId(), AppSyncPlanStatus.APPLYING, "instance-2",
+                AppSyncPlanStatus.APPLIED, 10, "[]", "summary", 3L, now)).isZero();
+        assertThat(repository.releaseApply(plan.getId(), AppSyncPlanStatus.APPLYING, "instance-2",
+                AppSyncPlanStatus.FAILED, "boom")).isZero();
+
+        AppSyncPlan untouched = reload(plan);
+        assertThat(untouched.getStatus()).isEqualTo(AppSyncPlanStatus.APPLYING);
+        assertThat(untouched.getAppliedChanges()).isZero();
+    }
+
+    private int claim(AppSyncPlan plan, UUID userId, UUID userProfileId) {
+        return repository.claimForApply(plan.getId(), AppSyncPlanStatus.PLANNED, AppSyncPlanStatus.APPLYING, userId,
+                "Admin", userProfileId, INSTANCE, now.plusMinutes(5), now);
+    }
+
+    private AppSyncPlan reload(AppSyncPlan plan) {
+        entityManager.clear();
+        return repository.findById(plan.getId()).orElseThrow();
+    }
+
+    private AppSyncPlan save(AppSyncPlanStatus status, LocalDateTime lockedUntil) {
+        return repository.saveAndFlush(AppSyncPlan.builder()
+                .status(status)
+                .contentHash("hash")
+                .changes("[]")
+                .errors("[]")
+                .totalChanges(10)
+                .lockedUntil(lockedUntil)
+                .lockedBy(lockedUntil != null ? INSTANCE : null)
+                .createdAt(now)
+                .build());
+    }
+}
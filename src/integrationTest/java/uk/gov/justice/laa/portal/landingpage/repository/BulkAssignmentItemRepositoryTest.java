@@ -0,0 +1,106 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItem;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItemStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.Firm;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class BulkAssignmentItemRepositoryTest extends BaseRepositoryTest {
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private BulkAssignmentItemRepository repository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private BulkAssignmentJobRepository jobRepository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private EntraUserRepository entraUserRepository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private FirmRepository firmRepository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    private Firm firm;
+    private UserProfile requester;
+    private BulkAssignmentJob job;
+    private UserProfile alice;
+    private UserProfile smithy;
+    private UserProfile carol;
+    private UserProfile dan;
+
+    @BeforeEach
+    public void beforeEach() {
+        firm = firmRepository.saveAndFlush(buildFirm("Bulk Search Firm", "BULKSEARCH"));
+        Firm otherFirm = firmRepository.saveAndFlush(buildFirm("Other Bulk Search Firm", "BULKOTHER"));
+        requester = saveProfile("sam.smith@example.com", "Sam", "Smith", UserType.EXTERNAL, firm);
+        alice = saveProfile("alice@example.com", "Alice", "Smith", UserType.EXTERNAL, firm);
+        smithy = saveProfile("brown@example.com", "Smithy", "Brown", UserType.EXTERNAL, firm);
+        carol = saveProfile("smithc@example.com", "Carol", "Jones", UserType.EXTERNAL, firm);
+        dan = saveProfile("dan@example.com", "Dan", "Blacksmith", UserType.EXTERNAL, firm);
+        saveProfile("smith.internal@example.com", "Smith", "Internal", UserType.INTERNAL, null);
+        saveProfile("frank@example.com", "Frank", "Smith", UserType.EXTERNAL, otherFirm);
+        job = jobRepository.saveAndFlush(BulkAssignmentJob.builder()
+                .firmId(firm.getId())
+                .firmName(firm.getName())
+                .searchTerm("smith")
+                .addRoleIds(new UUID[0])
+                .removeRoleIds(new UUID[0])
+                .addOfficeIds(new UUID[0])
+                .removeOfficeIds(new UUID[0])
+                .requestedByUserProfileId(requester.getId())
+                .requestedByEntraOid(UUID.fromString(requester.getEntraUser().getEntraOid()))
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    public void testInsertMatchingFirmProfilesSelectsExternalFirmUsersByNameOrEmailPrefix() {
+        int inserted = repository.insertMatchingFirmProfiles(job.getId(), firm.getId(), "smith", requester.getId());
+
+        List<BulkAssignmentItem> items = repository.findPendingByJobId(job.getId(), 10);
+        assertThat(inserted).isEqualTo(3);
+        assertThat(repository.countMatchingFirmProfiles(firm.getId(), "smith", requester.getId())).isEqualTo(3);
+        assertThat(items).extracting(BulkAssignmentItem::getUserProfileId)
+                .containsExactlyInAnyOrder(alice.getId(), smithy.getId(), carol.getId());
+        assertThat(items).extracting(BulkAssignmentItem::getStatus).containsOnly(BulkAssignmentItemStatus.PENDING);
+    }
+
+    @Test
+    public void testInsertMatchingFirmProfilesWithAnEmptySearchSelectsEveryExternalFirmUserButTheRequester() {
+        int inserted = repository.insertMatchingFirmProfiles(job.getId(), firm.getId(), "", requester.getId());
+
+        assertThat(inserted).isEqualTo(4);
+        assertThat(repository.countMatchingFirmProfiles(firm.getId(), "", requester.getId())).isEqualTo(4);
+        assertThat(repository.findPendingByJobId(job.getId(), 10)).extracting(BulkAssignmentItem::getUserProfileId)
+                .containsExactlyInAnyOrder(alice.getId(), smithy.getId(), carol.getId(), dan.getId());
+    }
+
+    private UserProfile saveProfile(String email, String firstName, String lastName, UserType userType, Firm profileFirm) {
+        EntraUser entraUser = entraUserRepository.saveAndFlush(buildEntraUser(generateEntraId(), email, firstName, lastName));
+        UserProfile profile = buildLaaUserProfileWithoutRoles(entraUser, userType);
+        profile.setFirm(profileFirm);
+        return userProfileRepository.saveAndFlush(profile);
+    }
+}
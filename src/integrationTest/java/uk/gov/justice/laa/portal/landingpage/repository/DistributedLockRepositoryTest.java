@@ -0,0 +1,169 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
+import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService.LockAcquisitionException;
+import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService.LockLease;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two lock services against the Postgres used by the repository tests, standing in for two pods.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DistributedLockRepositoryTest extends BaseRepositoryTest {
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private DistributedLockRepository lockRepository;
+
+    private final ExecutorService pods = Executors.newFixedThreadPool(2);
+    private final List<DistributedLockService> started = new ArrayList<>();
+    private final String lockKey = "TEST_LOCK_" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        pods.shutdownNow();
+        started.forEach(service -> ReflectionTestUtils.invokeMethod(service, "stopHeartbeat"));
+    }
+
+    @Test
+    void onlyOnePodHoldsTheLockAtATime() throws Exception {
+        DistributedLockService podA = pod(false);
+        DistributedLockService podB = pod(false);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Long> tokens = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+
+        List<Future<Integer>> runs = new ArrayList<>();
+        for (DistributedLockService pod : List.of(podA, podB)) {
+            runs.add(pods.submit(() -> {
+                int acquired = 0;
+                while (System.nanoTime() < deadline) {
+                    try {
+                        pod.withLease(lockKey, Duration.ofMinutes(1), lease -> {
+                            if (holders.incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            tokens.add(lease.getFencingToken());
+                            sleep(20);
+                            holders.decrementAndGet();
+                            return null;
+                        });
+                        acquired++;
+                    } catch (LockAcquisitionException e) {
+                        sleep(5);
+                    }
+                }
+                return acquired;
+            }));
+        }
+
+        assertThat(runs.get(0).get(10, TimeUnit.SECONDS)).isPositive();
+        assertThat(runs.get(1).get(10, TimeUnit.SECONDS)).isPositive();
+        assertThat(overlaps).hasValue(0);
+        assertThat(tokens).isSortedAccordingTo(Long::compare).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void heartbeatKeepsTheLockPastItsLease() throws Exception {
+        DistributedLockService podA = pod(true);
+        DistributedLockService podB = pod(false);
+        CountDownLatch holding = new CountDownLatch(1);
+
+        Future<Long> longJob = pods.submit(() -> podA.withLease(lockKey, Duration.ofSeconds(3), lease -> {
+            holding.countDown();
+            sleep(6_000);
+            return lease.getFencingToken();
+        }));
+        assertThat(holding.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            assertThat(podB.tryOnceWithLock(lockKey, Duration.ofSeconds(3), () -> { })).isFalse();
+            sleep(250);
+        }
+
+        long firstToken = longJob.get(10, TimeUnit.SECONDS);
+        long secondToken = podB.withLease(lockKey, Duration.ofSeconds(3), LockLease::getFencingToken);
+        assertThat(secondToken).isGreaterThan(firstToken);
+    }
+
+    @Test
+    void podThatLostItsLeaseFindsOutAndCannotReleaseTheNewHolder() throws Exception {
+        DistributedLockService podA = pod(false);
+        DistributedLockService podB = pod(false);
+        CountDownLatch expired = new CountDownLatch(1);
+        CountDownLatch takenOver = new CountDownLatch(1);
+
+        Future<Boolean> stalled = pods.submit(() -> podA.withLease(lockKey, Duration.ofSeconds(1), lease -> {
+            expired.countDown();
+            await(takenOver);
+            podA.extendActiveLocks();
+            return lease.isHeld();
+        }));
+        assertThat(expired.await(10, TimeUnit.SECONDS)).isTrue();
+        sleep(1_500);
+
+        CountDownLatch released = new CountDownLatch(1);
+        Future<Long> takeover = pods.submit(() -> podB.withLease(lockKey, Duration.ofMinutes(1), lease -> {
+            takenOver.countDown();
+            await(released);
+            return lease.getFencingToken();
+        }));
+
+        assertThat(stalled.get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(pod(false).tryOnceWithLock(lockKey, Duration.ofMinutes(1), () -> { })).isFalse();
+        released.countDown();
+        assertThat(takeover.get(10, TimeUnit.SECONDS)).isEqualTo(2L);
+    }
+
+    private DistributedLockService pod(boolean heartbeat) {
+        DistributedLockService service = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
+        if (heartbeat) {
+            ReflectionTestUtils.setField(service, "heartbeatSeconds", 1L);
+            ReflectionTestUtils.invokeMethod(service, "startHeartbeat");
+            started.add(service);
+        }
+        return service;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -473,6 +473,64 @@ public class EntraUserRepositoryTest extends BaseRepositoryTest {
         assertThat(result).isEqualTo(1L);
     }
 
+    @Test
+    public void testUserUptakeSummaryMatchesIndividualCounts() {
+        EntraUser internal = buildEntraUser(generateEntraId(), "int@x.com", "Internal", "User");
+        EntraUser complete = buildEntraUser(generateEntraId(), "c@x.com", "Complete", "User", true);
+        complete.setEnabled(true);
+        EntraUser noRoles = buildEntraUser(generateEntraId(), "n@x.com", "No", "Roles", true);
+        noRoles.setEnabled(true);
+        EntraUser disabled = buildEntraUser(generateEntraId(), "d@x.com", "Disabled", "User");
+        disabled.setEnabled(false);
+        EntraUser incomplete = buildEntraUser(generateEntraId(), "i@x.com", "Incomplete", "User");
+        incomplete.setInvitationStatus(InvitationStatus.INVITE_SENT);
+        EntraUser pending = buildEntraUser(generateEntraId(), "p@x.com", "Pending", "User", true);
+        pending.setInvitationStatus(InvitationStatus.INVITE_SENT);
+        repository.saveAllAndFlush(List.of(internal, complete, noRoles, disabled, incomplete, pending));
+
+        Firm firmOne = buildFirm("Firm One", "F1");
+        Firm firmTwo = buildFirm("Firm Two", "F2");
+        Firm firmThree = buildFirm("Firm Three", "F3");
+        firmRepository.saveAllAndFlush(List.of(firmOne, firmTwo, firmThree));
+
+        UserProfile internalProfile = buildLaaUserProfile(internal, UserType.INTERNAL);
+        UserProfile completeProfile = buildLaaUserProfile(complete, UserType.EXTERNAL);
+        completeProfile.setFirm(firmOne);
+        UserProfile noRolesWithRole = buildLaaUserProfile(noRoles, UserType.EXTERNAL);
+        noRolesWithRole.setFirm(firmOne);
+        UserProfile noRolesWithoutRole = buildLaaUserProfileWithoutRoles(noRoles, UserType.EXTERNAL);
+        noRolesWithoutRole.setFirm(firmTwo);
+        UserProfile disabledProfile = buildLaaUserProfile(disabled, UserType.EXTERNAL);
+        disabledProfile.setFirm(firmThree);
+        UserProfile incompleteProfile = buildLaaUserProfileWithoutRoles(incomplete, UserType.EXTERNAL);
+        incompleteProfile.setFirm(firmThree);
+        UserProfile pendingProfile = buildLaaUserProfile(pending, UserType.EXTERNAL);
+        pendingProfile.setFirm(firmThree);
+        userProfileRepository.saveAllAndFlush(List.of(internalProfile, completeProfile, noRolesWithRole,
+                noRolesWithoutRole, disabledProfile, incompleteProfile, pendingProfile));
+
+        repository.refreshUserUptakeSummary();
+
+        assertThat(repository.findUserUptakeSummary())
+                .extracting(row -> List.of(row[0], String.valueOf(row[1]), String.valueOf(row[2])))
+                .containsExactly(
+                        List.of("Internal Users", "1", "null"),
+                        List.of("Total External Users", "5", "3"),
+                        List.of("Active External Users", "2", "2"),
+                        List.of("Complete External Users", "1", "1"),
+                        List.of("External Users with No Roles Assigned", "1", "1"),
+                        List.of("Disabled External Users", "1", "0"),
+                        List.of("Incomplete External Users", "1", "0"),
+                        List.of("Activation Pending External Users", "1", "1"),
+                        List.of("Total Firms with External Users", "3", "3"),
+                        List.of("Total Firms with Active External Users", "2", "2"));
+        assertThat(repository.countActiveExternalUsers()).isEqualTo(2L);
+        assertThat(repository.countExternalMultiFirmUsersWithNoRoles()).isEqualTo(1L);
+        assertThat(repository.countActivationPendingExternalMultiFirmUsers()).isEqualTo(1L);
+        assertThat(firmRepository.countFirmsWithMultiFirmExternalUsers()).isEqualTo(3L);
+        assertThat(firmRepository.countFirmsWithActiveMultiFirmExternalUsers()).isEqualTo(2L);
+    }
+
     @Test
     void shouldReturnExternalUsersWithAppInPeriod() {
         EntraUser user = buildEntraUser(generateEntraId(),
@@ -522,7 +580,7 @@ public class EntraUserRepositoryTest extends BaseRepositoryTest {
                 "CCMS PUI",
                 start,
                 end
-        );
+        ).toList();
 
         assertThat(results).hasSize(1);
 
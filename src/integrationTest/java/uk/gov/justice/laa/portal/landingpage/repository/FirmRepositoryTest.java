@@ -139,7 +139,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         userProfile.setAppRoles(Set.of(role));
         userProfileRepository.saveAndFlush(userProfile);
 
-        List<Tuple> result = repository.findRoleCountsByFirm();
+        List<Tuple> result = repository.findRoleCountsByFirm().toList();
 
         Assertions.assertThat(result)
                 .extracting(t -> tuple(
@@ -175,7 +175,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
 
         createExternalUserProfileInFirmWithRoles(firm, "role.counts.2@test.com", Set.of(internalOnlyRole));
 
-        List<Tuple> result = repository.findRoleCountsByFirm();
+        List<Tuple> result = repository.findRoleCountsByFirm().toList();
 
         Assertions.assertThat(result)
                 .extracting(t -> t.get("roleName"))
@@ -191,7 +191,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         createExternalUserProfileInFirmWithRoles(firm, "role.counts.3a@test.com", Set.of(role));
         createExternalUserProfileInFirmWithRoles(firm, "role.counts.3b@test.com", Set.of(role));
 
-        List<Tuple> result = repository.findRoleCountsByFirm();
+        List<Tuple> result = repository.findRoleCountsByFirm().toList();
 
         Assertions.assertThat(result)
                 .extracting(t -> tuple(
@@ -213,7 +213,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         // One user has more than 1 role roles - should produce 2 grouped rows (same firm, different roleName)
         createExternalUserProfileInFirmWithRoles(firm, "role.counts.4@test.com", Set.of(roleA, roleB));
 
-        List<Tuple> result = repository.findRoleCountsByFirm();
+        List<Tuple> result = repository.findRoleCountsByFirm().toList();
 
         Assertions.assertThat(result)
                 .extracting(t -> tuple(
@@ -240,7 +240,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         createExternalUserProfileInFirmWithRoles(firmA, "role.counts.5a@test.com", Set.of(roleB));
         createExternalUserProfileInFirmWithRoles(firmA, "role.counts.5a2@test.com", Set.of(roleA));
 
-        List<Tuple> result = repository.findRoleCountsByFirm();
+        List<Tuple> result = repository.findRoleCountsByFirm().toList();
 
         Assertions.assertThat(result)
                 .extracting(t -> tuple(
@@ -289,7 +289,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         user3.getUserProfiles().add(user3P1);
         userProfileRepository.saveAndFlush(user3P1);
 
-        List<Object[]> result = repository.findMultiFirmUserCountsByFirm();
+        List<Object[]> result = repository.findMultiFirmUserCountsByFirm().toList();
 
         assertThat(result)
                 .hasSize(3)
@@ -374,7 +374,7 @@ public class FirmRepositoryTest extends BaseRepositoryTest {
         user3.getUserProfiles().add(user3P1);
         userProfileRepository.saveAndFlush(user3P1);
 
-        List<Object[]> result = repository.findAllFirmExternalUserCount();
+        List<Object[]> result = repository.findAllFirmExternalUserCount().toList();
 
         assertThat(result)
                 .hasSize(3)
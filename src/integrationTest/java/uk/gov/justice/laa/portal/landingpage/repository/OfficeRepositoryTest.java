@@ -103,5 +103,28 @@ public class OfficeRepositoryTest extends BaseRepositoryTest {
         assertTrue(names.contains("B123"));
     }
 
+    @Test
+    void testSearchFirmOffices() {
+        Firm firm1 = firmRepository.saveAndFlush(buildFirm("Firm1", "Firm Code 1"));
+        Firm firm2 = firmRepository.saveAndFlush(buildFirm("Firm2", "Firm Code 2"));
+
+        Office a1 = buildOffice(firm1, "Office A1", "A1");
+        Office a2 = buildOffice(firm1, "Office A2", "A2");
+        Office b1 = buildOffice(firm1, "Office B1", "B1");
+        b1.getAddress().setPostcode("SW1A 1AA");
+        Office other = buildOffice(firm2, "Other Office", "A3");
+        repository.saveAllAndFlush(Arrays.asList(a1, a2, b1, other));
+
+        Page<Office> byCode = repository.searchFirmOffices(List.of(firm1.getId()), "a", PageRequest.of(0, 1));
+        assertEquals(2, byCode.getTotalElements());
+        Assertions.assertThat(byCode.getContent()).extracting(Office::getCode).containsExactly("A1");
+
+        Page<Office> byPostcode = repository.searchFirmOffices(List.of(firm1.getId()), "sw1", PageRequest.of(0, 10));
+        Assertions.assertThat(byPostcode.getContent()).extracting(Office::getCode).containsExactly("B1");
+
+        Page<Office> all = repository.searchFirmOffices(List.of(firm1.getId()), "", PageRequest.of(0, 10));
+        Assertions.assertThat(all.getContent()).extracting(Office::getCode).containsExactly("A1", "A2", "B1");
+    }
+
 
 }
@@ -0,0 +1,84 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class OutboxEventRepositoryTest extends BaseRepositoryTest {
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private OutboxEventRepository repository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void beforeEach() {
+        repository.deleteAll();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    public void testFindDueEventsHoldsCcmsRoleChangesBehindAnEarlierUnsentOne() {
+        UUID profileId = UUID.randomUUID();
+        OutboxEvent retrying = save(OutboxEventType.CCMS_ROLE_CHANGE, profileId, OutboxEventStatus.PENDING,
+                now.minusMinutes(10), now.plusMinutes(5));
+        OutboxEvent newer = save(OutboxEventType.CCMS_ROLE_CHANGE, profileId, OutboxEventStatus.PENDING,
+                now.minusMinutes(5), now.minusMinutes(5));
+        OutboxEvent techServices = save(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT, profileId,
+                OutboxEventStatus.PENDING, now.minusMinutes(4), now.minusMinutes(4));
+        OutboxEvent otherProfile = save(OutboxEventType.CCMS_ROLE_CHANGE, UUID.randomUUID(), OutboxEventStatus.PENDING,
+                now.minusMinutes(3), now.minusMinutes(3));
+
+        assertThat(repository.findDueEventsForUpdateSkipLocked(now, 10)).extracting(OutboxEvent::getId)
+                .containsExactly(techServices.getId(), otherProfile.getId());
+
+        retrying.setStatus(OutboxEventStatus.SENT);
+        repository.saveAndFlush(retrying);
+
+        assertThat(repository.findDueEventsForUpdateSkipLocked(now, 10)).extracting(OutboxEvent::getId)
+                .containsExactly(newer.getId(), techServices.getId(), otherProfile.getId());
+    }
+
+    @Test
+    public void testFindDueEventsReleasesCcmsRoleChangesOnceTheEarlierOneHasFailed() {
+        UUID profileId = UUID.randomUUID();
+        save(OutboxEventType.CCMS_ROLE_CHANGE, profileId, OutboxEventStatus.FAILED, now.minusMinutes(10),
+                now.minusMinutes(10));
+        OutboxEvent processing = save(OutboxEventType.CCMS_ROLE_CHANGE, profileId, OutboxEventStatus.PROCESSING,
+                now.minusMinutes(5), now.minusMinutes(5));
+        OutboxEvent newer = save(OutboxEventType.CCMS_ROLE_CHANGE, profileId, OutboxEventStatus.PENDING,
+                now.minusMinutes(2), now.minusMinutes(2));
+
+        assertThat(repository.findDueEventsForUpdateSkipLocked(now, 10)).isEmpty();
+
+        processing.setStatus(OutboxEventStatus.FAILED);
+        repository.saveAndFlush(processing);
+
+        assertThat(repository.findDueEventsForUpdateSkipLocked(now, 10)).extracting(OutboxEvent::getId)
+                .containsExactly(newer.getId());
+    }
+
+    private OutboxEvent save(OutboxEventType eventType, UUID aggregateId, OutboxEventStatus status,
+                             LocalDateTime createdAt, LocalDateTime nextAttemptAt) {
+        return repository.saveAndFlush(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .status(status)
+                .nextAttemptAt(nextAttemptAt)
+                .lockedUntil(status == OutboxEventStatus.PROCESSING ? now.plusMinutes(1) : null)
+                .createdAt(createdAt)
+                .build());
+    }
+}
@@ -16,6 +16,7 @@ import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.ReactivationRoleType;
 import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequest;
+import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequestHead;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
@@ -39,6 +40,10 @@ class UserActivationRequestRepositoryTest extends BaseRepositoryTest {
     @Autowired
     private UserActivationRequestRepository repository;
 
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private UserActivationRequestHeadRepository headRepository;
+
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     @Autowired
     private FirmRepository firmRepository;
@@ -115,6 +120,31 @@ class UserActivationRequestRepositoryTest extends BaseRepositoryTest {
             assertThat(result.get().getId()).isEqualTo(v2.getId());
         }
 
+        @Test
+        @DisplayName("Inserting a version should advance the request head and keep the first version")
+        void insertingVersion_advancesHead() {
+            EntraUser entraUser = entraUserRepository.saveAndFlush(buildEntraUser("123", "test@email.com", "First", "Last"));
+            UserProfile userProfile = buildLaaUserProfile(entraUser, UserType.EXTERNAL);
+            Firm firm1 = buildFirm("Firm1", "Firm Code 1");
+            firmRepository.saveAndFlush(firm1);
+            userProfile.setFirm(firm1);
+            userProfileRepository.saveAndFlush(userProfile);
+            Instant submittedAt = Instant.now().minus(2, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+            UserActivationRequest v1 = createAndPersistRequest(userProfile, requestId1, 1, submittedAt, ReactivationRequestStatus.IN_REVIEW);
+            UserActivationRequest v2 = createAndPersistRequest(userProfile, requestId1, 2, Instant.now(), ReactivationRequestStatus.APPROVED);
+            entityManager.clear();
+
+            UserActivationRequestHead head = headRepository.findById(requestId1).orElseThrow();
+
+            assertThat(head.getUserProfileId()).isEqualTo(userProfile.getId());
+            assertThat(head.getVersion()).isEqualTo(2);
+            assertThat(head.getStatus()).isEqualTo(ReactivationRequestStatus.APPROVED);
+            assertThat(head.getLatestVersion().getId()).isEqualTo(v2.getId());
+            assertThat(head.getFirstVersion().getId()).isEqualTo(v1.getId());
+            assertThat(head.getFirstSubmittedAt()).isEqualTo(submittedAt);
+            assertThat(repository.findMaxVersionByRequestId(requestId1)).isEqualTo(2);
+        }
+
         @Test
         @DisplayName("findFirstByUserProfileIdOrderByVersionDesc should return highest version for user profile")
         void findFirstByUserProfileIdOrderByVersionDesc_returnsHighestVersionForUser() {
@@ -279,4 +309,70 @@ class UserActivationRequestRepositoryTest extends BaseRepositoryTest {
             assertThat(page.getTotalPages()).isEqualTo(2);
         }
     }
+    @Nested
+    @DisplayName("Tests for the reactivation requests list query")
+    class LatestRequestsSearchTests {
+
+        private UUID firm2Id;
+        private UserActivationRequest req1Latest;
+        private UserActivationRequest req2Latest;
+
+        @BeforeEach
+        void setUpRequests() {
+            EntraUser entraUser1 = entraUserRepository.saveAndFlush(buildEntraUser("123", "test@email.com", "Anna", "Jones"));
+            UserProfile userProfile1 = buildLaaUserProfile(entraUser1, UserType.EXTERNAL);
+            userProfile1.setFirm(firmRepository.saveAndFlush(buildFirm("Firm1", "Firm Code 1")));
+            userProfileRepository.saveAndFlush(userProfile1);
+
+            EntraUser entraUser2 = entraUserRepository.saveAndFlush(buildEntraUser("12345", "test2@email.com", "Zoe", "Smith"));
+            UserProfile userProfile2 = buildLaaUserProfile(entraUser2, UserType.EXTERNAL);
+            Firm firm2 = firmRepository.saveAndFlush(buildFirm("Firm2", "Firm Code 2"));
+            firm2Id = firm2.getId();
+            userProfile2.setFirm(firm2);
+            userProfileRepository.saveAndFlush(userProfile2);
+
+            Instant now = Instant.now();
+            createAndPersistRequest(userProfile1, requestId1, 1, now.minus(4, ChronoUnit.HOURS), ReactivationRequestStatus.IN_REVIEW);
+            req1Latest = createAndPersistRequest(userProfile1, requestId1, 2, now.minus(3, ChronoUnit.HOURS), ReactivationRequestStatus.INFORMATION_REQUIRED);
+            req2Latest = createAndPersistRequest(userProfile2, requestId2, 1, now.minus(1, ChronoUnit.HOURS), ReactivationRequestStatus.IN_REVIEW);
+        }
+
+        @Test
+        @DisplayName("findLatestRequests should return one row per request, newest submission first by default")
+        void findLatestRequests_returnsLatestVersionPerRequest() {
+            List<Object[]> rows = repository.findLatestRequests(null, List.of(), List.of(), null, null, false, 0, 10);
+
+            assertThat(rows).extracting(row -> row[0]).containsExactly(req2Latest.getId(), req1Latest.getId());
+            Object[] req1Row = rows.get(1);
+            assertThat(req1Row[3]).isEqualTo(2);
+            assertThat(req1Row[4]).isEqualTo("INFORMATION_REQUIRED");
+            assertThat(req1Row[8]).isEqualTo("Unknown user");
+            assertThat(req1Row[10]).isEqualTo("Anna Jones");
+            assertThat(((Instant) req1Row[12])).isBefore((Instant) req1Row[13]);
+            assertThat(repository.countLatestRequests(null, List.of(), List.of(), null)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("findLatestRequests should filter on the latest version's status, search terms and firm")
+        void findLatestRequests_appliesFilters() {
+            assertThat(repository.findLatestRequests(null, List.of(ReactivationRequestStatus.IN_REVIEW), List.of(), null,
+                    null, false, 0, 10)).extracting(row -> row[0]).containsExactly(req2Latest.getId());
+            assertThat(repository.findLatestRequests("TEST2@", List.of(), List.of(), null, null, false, 0, 10))
+                    .extracting(row -> row[0]).containsExactly(req2Latest.getId());
+            assertThat(repository.findLatestRequests("%", List.of(), List.of(), null, null, false, 0, 10)).isEmpty();
+            assertThat(repository.findLatestRequests(null, List.of(), List.of(), List.of(firm2Id), null, false, 0, 10))
+                    .extracting(row -> row[0]).containsExactly(req2Latest.getId());
+            assertThat(repository.countLatestRequests(null, List.of(), List.of(ReactivationRoleType.LAA), null)).isZero();
+            assertThat(repository.countLatestRequests(null, List.of(), List.of(), List.of())).isZero();
+        }
+
+        @Test
+        @DisplayName("findLatestRequests should sort by the requested column and page the results")
+        void findLatestRequests_sortsAndPages() {
+            assertThat(repository.findLatestRequests(null, List.of(), List.of(), null, "userName", true, 0, 1))
+                    .extracting(row -> row[0]).containsExactly(req1Latest.getId());
+            assertThat(repository.findLatestRequests(null, List.of(), List.of(), null, "userName", true, 1, 1))
+                    .extracting(row -> row[0]).containsExactly(req2Latest.getId());
+        }
+    }
 }
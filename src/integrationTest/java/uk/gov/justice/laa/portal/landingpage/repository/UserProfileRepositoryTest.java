@@ -3,12 +3,14 @@ package uk.gov.justice.laa.portal.landingpage.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,13 +21,19 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.test.context.ActiveProfiles;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
 import uk.gov.justice.laa.portal.landingpage.entity.CountFirms;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.InvitationStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.Office;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfileSilasStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfileStatus;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.dto.UserSearchCriteria;
 import uk.gov.justice.laa.portal.landingpage.forms.FirmSearchForm;
@@ -47,6 +55,18 @@ public class UserProfileRepositoryTest extends BaseRepositoryTest {
     @Autowired
     private UserProfileRepository repository;
 
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private AppRepository appRepository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     public void beforeEach() {
         repository.deleteAll();
@@ -680,4 +700,166 @@ public class UserProfileRepositoryTest extends BaseRepositoryTest {
                 .isEqualTo(countFirmsResults);
 
     }
+
+    @Test
+    public void testInsertAndDeleteAppRoleAssignmentsForManyProfiles() {
+        App app = appRepository.saveAndFlush(buildLaaApp("Bulk App", generateEntraId(), generateEntraId()));
+        AppRole caseWorker = appRoleRepository.saveAndFlush(buildLaaExternalAppRole(app, "Bulk Case Worker"));
+        AppRole viewer = appRoleRepository.saveAndFlush(buildLaaExternalAppRole(app, "Bulk Viewer"));
+        AppRole untouched = appRoleRepository.saveAndFlush(buildLaaExternalAppRole(app, "Bulk Untouched"));
+        Firm firm = firmRepository.saveAndFlush(buildFirm("Bulk Role Firm", "BULKROLE"));
+        UserProfile holdsCaseWorker = saveExternalProfile("holds.role@example.com", firm);
+        holdsCaseWorker.setAppRoles(new HashSet<>(Set.of(caseWorker, untouched)));
+        repository.saveAndFlush(holdsCaseWorker);
+        UserProfile holdsNothing = saveExternalProfile("holds.nothing@example.com", firm);
+        Set<UUID> profileIds = Set.of(holdsCaseWorker.getId(), holdsNothing.getId());
+
+        int inserted = repository.insertAppRoleAssignments(profileIds, Set.of(caseWorker.getId(), viewer.getId()));
+
+        assertThat(inserted).isEqualTo(3);
+        assertThat(assignedRoleIds(holdsCaseWorker)).containsExactlyInAnyOrder(caseWorker.getId(), viewer.getId(),
+                untouched.getId());
+        assertThat(assignedRoleIds(holdsNothing)).containsExactlyInAnyOrder(caseWorker.getId(), viewer.getId());
+
+        int deleted = repository.deleteAppRoleAssignmentsIn(profileIds, Set.of(caseWorker.getId()));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(assignedRoleIds(holdsCaseWorker)).containsExactlyInAnyOrder(viewer.getId(), untouched.getId());
+        assertThat(assignedRoleIds(holdsNothing)).containsExactly(viewer.getId());
+    }
+
+    @Test
+    public void testInsertAndDeleteOfficeAssignmentsForManyProfiles() {
+        Firm firm = firmRepository.saveAndFlush(buildFirm("Bulk Office Firm", "BULKOFFICE"));
+        Office first = officeRepository.saveAndFlush(buildOffice(firm, "1 Bulk Street", "1B001B"));
+        Office second = officeRepository.saveAndFlush(buildOffice(firm, "2 Bulk Street", "2B002B"));
+        Office untouched = officeRepository.saveAndFlush(buildOffice(firm, "3 Bulk Street", "3B003B"));
+        UserProfile holdsFirst = saveExternalProfile("holds.office@example.com", firm);
+        holdsFirst.setOffices(new HashSet<>(Set.of(first, untouched)));
+        repository.saveAndFlush(holdsFirst);
+        UserProfile holdsNothing = saveExternalProfile("holds.no.office@example.com", firm);
+        Set<UUID> profileIds = Set.of(holdsFirst.getId(), holdsNothing.getId());
+
+        int inserted = repository.insertOfficeAssignments(profileIds, Set.of(first.getId(), second.getId()));
+
+        assertThat(inserted).isEqualTo(3);
+        assertThat(assignedOfficeIds(holdsFirst)).containsExactlyInAnyOrder(first.getId(), second.getId(),
+                untouched.getId());
+        assertThat(assignedOfficeIds(holdsNothing)).containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        int deleted = repository.deleteOfficeAssignmentsIn(profileIds, Set.of(first.getId()));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(assignedOfficeIds(holdsFirst)).containsExactlyInAnyOrder(second.getId(), untouched.getId());
+        assertThat(assignedOfficeIds(holdsNothing)).containsExactly(second.getId());
+    }
+
+    @Test
+    public void testRefreshAllSilasStatusesComputesTheStatusOfEveryProfile() {
+        App app = appRepository.saveAndFlush(buildLaaApp("Status App", generateEntraId(), generateEntraId()));
+        AppRole role = appRoleRepository.saveAndFlush(buildLaaExternalAppRole(app, "Status Case Worker"));
+        Firm firm = firmRepository.saveAndFlush(buildFirm("Status Firm", "STATUSFIRM"));
+        UserProfile verifiedWithRole = saveStatusProfile("verified.role@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, role);
+        UserProfile verifiedWithoutRole = saveStatusProfile("verified.norole@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, null);
+        UserProfile invitedWithRole = saveStatusProfile("invited.role@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.INVITE_SENT, UserProfileStatus.COMPLETE, role);
+        UserProfile invitedWithoutRole = saveStatusProfile("invited.norole@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.INVITE_SENT, UserProfileStatus.COMPLETE, null);
+        UserProfile invitedAndPending = saveStatusProfile("invited.pending@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.AWAITING_MFA, UserProfileStatus.PENDING, role);
+        UserProfile internalInvited = saveStatusProfile("internal.invited@example.com", UserType.INTERNAL, null,
+                InvitationStatus.INVITE_SENT, UserProfileStatus.COMPLETE, role);
+
+        assertThat(repository.refreshAllSilasStatuses()).isEqualTo(6);
+        assertThat(repository.refreshAllSilasStatuses()).isZero();
+
+        assertThat(silasStatus(verifiedWithRole)).isEqualTo(UserProfileSilasStatus.COMPLETE);
+        assertThat(silasStatus(verifiedWithoutRole)).isEqualTo(UserProfileSilasStatus.NO_ROLES_ASSIGNED);
+        assertThat(silasStatus(invitedWithRole)).isEqualTo(UserProfileSilasStatus.ACTIVATION_PENDING);
+        assertThat(silasStatus(invitedWithoutRole)).isEqualTo(UserProfileSilasStatus.INCOMPLETE);
+        assertThat(silasStatus(invitedAndPending)).isEqualTo(UserProfileSilasStatus.INCOMPLETE);
+        assertThat(silasStatus(internalInvited)).isEqualTo(UserProfileSilasStatus.COMPLETE);
+    }
+
+    @Test
+    public void testRefreshSilasStatusesChangedSinceOnlyRecomputesRecentlyChangedProfilesAndUsers() {
+        Firm firm = firmRepository.saveAndFlush(buildFirm("Changed Firm", "CHANGEDFIRM"));
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        UserProfile untouched = saveStatusProfile("untouched@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, null);
+        UserProfile profileChanged = saveStatusProfile("profile.changed@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, null);
+        UserProfile userChanged = saveStatusProfile("user.changed@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, null);
+        UserProfile profileCreated = saveStatusProfile("profile.created@example.com", UserType.EXTERNAL, firm,
+                InvitationStatus.VERIFICATION_SUCCESS, UserProfileStatus.COMPLETE, null);
+        LocalDateTime before = since.minusDays(1);
+        LocalDateTime after = since.plusMinutes(30);
+        setAuditDates("user_profile", untouched.getId(), before, before);
+        setAuditDates("entra_user", untouched.getEntraUser().getId(), before, before);
+        setAuditDates("user_profile", profileChanged.getId(), before, after);
+        setAuditDates("entra_user", profileChanged.getEntraUser().getId(), before, before);
+        setAuditDates("user_profile", userChanged.getId(), before, before);
+        setAuditDates("entra_user", userChanged.getEntraUser().getId(), before, after);
+        setAuditDates("user_profile", profileCreated.getId(), after, before);
+        setAuditDates("entra_user", profileCreated.getEntraUser().getId(), before, before);
+
+        assertThat(repository.refreshSilasStatusesChangedSince(since)).isEqualTo(3);
+
+        assertThat(silasStatus(untouched)).isEqualTo(UserProfileSilasStatus.UNKNOWN);
+        assertThat(silasStatus(profileChanged)).isEqualTo(UserProfileSilasStatus.NO_ROLES_ASSIGNED);
+        assertThat(silasStatus(userChanged)).isEqualTo(UserProfileSilasStatus.NO_ROLES_ASSIGNED);
+        assertThat(silasStatus(profileCreated)).isEqualTo(UserProfileSilasStatus.NO_ROLES_ASSIGNED);
+    }
+
+    private UserProfile saveStatusProfile(String email, UserType userType, Firm firm, InvitationStatus invitationStatus,
+                                          UserProfileStatus profileStatus, AppRole role) {
+        EntraUser entraUser = buildEntraUser(generateEntraId(), email, "Status", "User");
+        entraUser.setInvitationStatus(invitationStatus);
+        entraUserRepository.saveAndFlush(entraUser);
+        UserProfile profile = buildLaaUserProfileWithoutRoles(entraUser, userType);
+        profile.setFirm(firm);
+        profile.setUserProfileStatus(profileStatus);
+        profile.setSilasStatus(UserProfileSilasStatus.UNKNOWN);
+        if (role != null) {
+            profile.setAppRoles(new HashSet<>(Set.of(role)));
+        }
+        return repository.saveAndFlush(profile);
+    }
+
+    private void setAuditDates(String table, UUID id, LocalDateTime createdDate, LocalDateTime lastModifiedDate) {
+        entityManager.createNativeQuery("UPDATE " + table
+                        + " SET created_date = :createdDate, last_modified_date = :lastModifiedDate WHERE id = :id")
+                .setParameter("createdDate", createdDate)
+                .setParameter("lastModifiedDate", lastModifiedDate)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    private UserProfileSilasStatus silasStatus(UserProfile profile) {
+        entityManager.clear();
+        return repository.findById(profile.getId()).orElseThrow().getSilasStatus();
+    }
+
+    private UserProfile saveExternalProfile(String email, Firm firm) {
+        EntraUser entraUser = entraUserRepository.saveAndFlush(buildEntraUser(generateEntraId(), email, "Bulk", "User"));
+        UserProfile profile = buildLaaUserProfileWithoutRoles(entraUser, UserType.EXTERNAL);
+        profile.setFirm(firm);
+        return repository.saveAndFlush(profile);
+    }
+
+    private Set<UUID> assignedRoleIds(UserProfile profile) {
+        return assignedIds("SELECT app_role_id FROM user_profile_app_role WHERE user_profile_id = :id", profile);
+    }
+
+    private Set<UUID> assignedOfficeIds(UserProfile profile) {
+        return assignedIds("SELECT office_id FROM user_profile_office WHERE user_profile_id = :id", profile);
+    }
+
+    private Set<UUID> assignedIds(String sql, UserProfile profile) {
+        List<?> ids = entityManager.createNativeQuery(sql).setParameter("id", profile.getId()).getResultList();
+        return ids.stream().map(id -> UUID.fromString(id.toString())).collect(Collectors.toSet());
+    }
 }
@@ -5,6 +5,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -13,7 +14,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Configuration for async execution with isolated thread pool for PDA sync operations.
+ * Configuration for async execution with isolated thread pools for PDA sync and app sync operations.
  * This ensures that long-running sync operations don't impact the main application.
  */
 @Slf4j
@@ -21,6 +22,9 @@ import lombok.extern.slf4j.Slf4j;
 @EnableAsync
 public class AsyncConfig {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
     /**
      * Dedicated thread pool for PDA sync operations.
      * Configured with:
@@ -28,6 +32,8 @@ public class AsyncConfig {
      * - Queue to handle concurrent requests
      * - Rejection policy that throws exception to prevent queue overflow
      * - Timeout for idle threads
+     * When virtual threads are enabled the worker is a virtual thread, so the sync does not hold a
+     * platform thread while it waits on the database; the pool size still limits it to one at a time.
      */
     @Bean(name = "pdaSyncExecutor")
     public Executor pdaSyncExecutor() {
@@ -42,6 +48,9 @@ public class AsyncConfig {
 
         // Thread naming for easy identification in logs
         executor.setThreadNamePrefix("pda-sync-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("pda-sync-", 1).factory());
+        }
 
         // Timeout for idle threads
         executor.setKeepAliveSeconds(60);
@@ -62,4 +71,29 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Thread pool for applying app sync plans. Plans are applied one at a time, and a request to
+     * apply one while the queue is full is rejected rather than left waiting.
+     */
+    @Bean(name = "appSyncExecutor")
+    public Executor appSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(2);
+        executor.setThreadNamePrefix("app-sync-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("app-sync-", 1).factory());
+        }
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler((r, pool) -> {
+            log.warn("App sync task rejected - too many concurrent sync operations");
+            throw new RejectedExecutionException("Too many concurrent app sync operations. Please try again later.");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
 }
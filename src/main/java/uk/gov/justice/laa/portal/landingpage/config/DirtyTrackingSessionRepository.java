@@ -0,0 +1,270 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wraps the JDBC session repository so that saving a session at the end of a request only writes
+ * what the request actually changed.
+ *
+ * <p>An attribute that is set again with a value that serialises to the same bytes as the one
+ * stored is not written, so pages that put the same journey state back into the session cost no
+ * more than pages that only read it. Because only changed attributes are written, a request can
+ * no longer overwrite an attribute changed by a concurrent request on another instance with the
+ * stale copy it read earlier.
+ *
+ * <p>The stored bytes compared with are the ones the delegate deserialised the attribute from, as
+ * kept by its {@link MeteredSessionConversionService}, so reading an attribute does not serialise
+ * it again. They are taken when the attribute is first read, before the caller can change the
+ * value in place, and the value is only serialised if the delegate had already deserialised it.
+ *
+ * <p>The last access time is only moved on once it is at least {@code lastAccessGranularity}
+ * behind, so a busy user's session row is updated at most once per period rather than on every
+ * request. A session can therefore expire up to that period earlier than its timeout.
+ */
+public class DirtyTrackingSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<DirtyTrackingSessionRepository<S>.TrackedSession> {
+
+    static final String WRITES_METRIC = "session.writes";
+    static final String WRITES_AVOIDED_METRIC = "session.writes.avoided";
+    static final String ATTRIBUTE = "attribute";
+    static final String LAST_ACCESS = "last-access";
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final MeteredSessionConversionService conversionService;
+    private final Duration lastAccessGranularity;
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final Counter attributeWrites;
+    private final Counter attributeWritesAvoided;
+    private final Counter lastAccessWrites;
+    private final Counter lastAccessWritesAvoided;
+
+    /**
+     * @param conversionService the conversion service the delegate deserialises attributes with
+     */
+    public DirtyTrackingSessionRepository(FindByIndexNameSessionRepository<S> delegate,
+                                          MeteredSessionConversionService conversionService,
+                                          Duration lastAccessGranularity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.conversionService = conversionService;
+        this.lastAccessGranularity = lastAccessGranularity;
+        this.attributeWrites = writeCounter(WRITES_METRIC, ATTRIBUTE, "Session attributes written", meterRegistry);
+        this.attributeWritesAvoided = writeCounter(WRITES_AVOIDED_METRIC, ATTRIBUTE,
+                "Session attributes set to an unchanged value and not written", meterRegistry);
+        this.lastAccessWrites = writeCounter(WRITES_METRIC, LAST_ACCESS, "Session last access times written", meterRegistry);
+        this.lastAccessWritesAvoided = writeCounter(WRITES_AVOIDED_METRIC, LAST_ACCESS,
+                "Session last access times left within the configured granularity and not written", meterRegistry);
+    }
+
+    private static Counter writeCounter(String name, String write, String description, MeterRegistry meterRegistry) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("write", write)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TrackedSession createSession() {
+        return new TrackedSession(delegate.createSession(), true);
+    }
+
+    @Override
+    public void save(TrackedSession session) {
+        session.save();
+    }
+
+    @Override
+    public TrackedSession findById(String id) {
+        S session = delegate.findById(id);
+        return session == null ? null : new TrackedSession(session, false);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, TrackedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        Map<String, TrackedSession> sessions = new LinkedHashMap<>();
+        delegate.findByIndexNameAndIndexValue(indexName, indexValue)
+                .forEach((id, session) -> sessions.put(id, new TrackedSession(session, false)));
+        return sessions;
+    }
+
+    private byte[] serialize(Object value) {
+        return serializer.convert(value);
+    }
+
+    private byte[] bytesOf(Object storedValue) {
+        byte[] bytes = conversionService.takeBytesRead(storedValue);
+        return bytes != null ? bytes : serialize(storedValue);
+    }
+
+    /**
+     * A session loaded for one request. Attributes set on it are held here until the session is
+     * saved, then compared with the bytes they were stored as when the request first read them.
+     */
+    public final class TrackedSession implements Session {
+
+        private final S session;
+        private final Map<String, byte[]> storedBytes = new HashMap<>();
+        private final Map<String, Object> setAttributes = new HashMap<>();
+        private final Set<String> dirtyAttributes = new LinkedHashSet<>();
+        private Instant lastAccessedTime;
+        private boolean isNew;
+        private boolean changed;
+        private boolean lastAccessChanged;
+
+        TrackedSession(S session, boolean isNew) {
+            this.session = session;
+            this.isNew = isNew;
+            this.lastAccessedTime = session.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return session.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return session.changeSessionId();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            if (setAttributes.containsKey(attributeName)) {
+                return (T) setAttributes.get(attributeName);
+            }
+            T value = session.getAttribute(attributeName);
+            if (value != null && !isNew && !storedBytes.containsKey(attributeName)) {
+                // Taken before the caller can change the value in place and set it again.
+                storedBytes.put(attributeName, bytesOf(value));
+            }
+            return value;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            Set<String> names = new HashSet<>(session.getAttributeNames());
+            names.addAll(setAttributes.keySet());
+            return names;
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            if (attributeValue == null) {
+                removeAttribute(attributeName);
+                return;
+            }
+            setAttributes.put(attributeName, attributeValue);
+            dirtyAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            setAttributes.remove(attributeName);
+            dirtyAttributes.remove(attributeName);
+            storedBytes.remove(attributeName);
+            if (session.getAttributeNames().contains(attributeName)) {
+                session.removeAttribute(attributeName);
+                changed = true;
+            }
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return session.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.lastAccessedTime = lastAccessedTime;
+            if (isNew || !lastAccessedTime.isBefore(session.getLastAccessedTime().plus(lastAccessGranularity))) {
+                session.setLastAccessedTime(lastAccessedTime);
+                lastAccessChanged = true;
+            } else {
+                lastAccessWritesAvoided.increment();
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            if (!interval.equals(session.getMaxInactiveInterval())) {
+                session.setMaxInactiveInterval(interval);
+                changed = true;
+            }
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return session.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return session.isExpired();
+        }
+
+        private void save() {
+            boolean attributesChanged = writeDirtyAttributes();
+            if (isNew || changed || attributesChanged || lastAccessChanged) {
+                delegate.save(session);
+            }
+            if (lastAccessChanged) {
+                lastAccessWrites.increment();
+            }
+            isNew = false;
+            changed = false;
+            lastAccessChanged = false;
+        }
+
+        private boolean writeDirtyAttributes() {
+            boolean written = false;
+            for (String name : dirtyAttributes) {
+                Object value = setAttributes.get(name);
+                byte[] bytes = serialize(value);
+                if (Arrays.equals(bytes, storedBytesOf(name))) {
+                    attributeWritesAvoided.increment();
+                } else {
+                    session.setAttribute(name, value);
+                    attributeWrites.increment();
+                    written = true;
+                }
+                storedBytes.put(name, bytes);
+            }
+            dirtyAttributes.clear();
+            return written;
+        }
+
+        private byte[] storedBytesOf(String attributeName) {
+            byte[] bytes = storedBytes.get(attributeName);
+            if (bytes == null && !isNew) {
+                Object stored = session.getAttribute(attributeName);
+                bytes = stored == null ? null : bytesOf(stored);
+            }
+            return bytes;
+        }
+    }
+}
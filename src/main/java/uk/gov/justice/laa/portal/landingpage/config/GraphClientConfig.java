@@ -24,6 +24,9 @@ public class GraphClientConfig {
     @Value("${report.service.secret}")
     private String reportSecret;
 
+    @Value("${app.graph.base-url:}")
+    private String graphBaseUrl = "";
+
     public GraphClientConfig(TokenCredentialFactory credentialFactory) {
         this.credentialFactory = credentialFactory;
     }
@@ -33,7 +36,11 @@ public class GraphClientConfig {
     public GraphServiceClient graphServiceClient() {
         TokenCredential credential = credentialFactory.createCredential();
         String[] scopes = new String[]{"https://graph.microsoft.com/.default"};
-        return new GraphServiceClient(credential, scopes);
+        GraphServiceClient graphServiceClient = new GraphServiceClient(credential, scopes);
+        if (!graphBaseUrl.isBlank()) {
+            graphServiceClient.getRequestAdapter().setBaseUrl(graphBaseUrl);
+        }
+        return graphServiceClient;
     }
 
     @Bean
@@ -1,10 +1,42 @@
 package uk.gov.justice.laa.portal.landingpage.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+import java.time.Duration;
 
 @Configuration
 @ConditionalJdbcSession
 public class JdbcSessionConfig {
-    // JDBC session configuration
-}
 
+    /**
+     * Puts {@link DirtyTrackingSessionRepository} in front of the JDBC session repository, so that
+     * requests which leave the session as it was do not write to the session tables. Session
+     * attributes are serialised through {@link MeteredSessionConversionService}, so the size of
+     * what each request writes to the session tables can be seen per attribute type, and the
+     * wrapper can compare attributes with the bytes they were read from.
+     */
+    @Bean
+    public static BeanPostProcessor dirtyTrackingSessionRepositoryPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.session.last.access.granularity.seconds:60}") long lastAccessGranularitySeconds) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JdbcIndexedSessionRepository sessionRepository) {
+                    MeteredSessionConversionService conversionService = new MeteredSessionConversionService(
+                            meterRegistry.getObject(), JdbcSessionConfig.class.getClassLoader());
+                    sessionRepository.setConversionService(conversionService);
+                    return new DirtyTrackingSessionRepository<>(sessionRepository, conversionService,
+                            Duration.ofSeconds(lastAccessGranularitySeconds), meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts session attributes to and from the bytes stored in {@code SPRING_SESSION_ATTRIBUTES}
+ * with Java serialisation, as Spring Session does by default, and records how big each attribute
+ * is and how long it takes to convert. The metrics are tagged with the attribute's class, which is
+ * enough to tell which journey a large or slow attribute belongs to.
+ *
+ * <p>So far only the office journeys and the app and role pages keep compact, versioned state.
+ * The create user and multi-firm journeys still keep whole DTOs between steps, such as the
+ * {@code EntraUserDto}, {@code FirmDto}, {@code UserProfileDto} and {@code MultiFirmUserForm}.
+ * These metrics show whether those journeys are worth moving to compact state next.</p>
+ *
+ * <p>The bytes of the attribute last deserialised on each thread are kept until they are taken
+ * with {@link #takeBytesRead}, so that {@link DirtyTrackingSessionRepository} can compare a value
+ * set back into the session with what was stored without serialising the stored value again.</p>
+ */
+public class MeteredSessionConversionService extends GenericConversionService {
+
+    static final String SIZE_METRIC = "session.attribute.size";
+    static final String SERIALIZE_METRIC = "session.attribute.serialize";
+    static final String DESERIALIZE_METRIC = "session.attribute.deserialize";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<BytesRead> lastRead = new ThreadLocal<>();
+
+    public MeteredSessionConversionService(MeterRegistry meterRegistry, ClassLoader classLoader) {
+        this.meterRegistry = meterRegistry;
+        SerializingConverter serializer = new SerializingConverter();
+        DeserializingConverter deserializer = new DeserializingConverter(classLoader);
+        addConverter(Object.class, byte[].class, source -> serialize(serializer, source));
+        addConverter(byte[].class, Object.class, source -> deserialize(deserializer, source));
+    }
+
+    private byte[] serialize(SerializingConverter serializer, Object source) {
+        long start = System.nanoTime();
+        byte[] bytes = serializer.convert(source);
+        long elapsed = System.nanoTime() - start;
+        String type = typeOf(source);
+        Timer.builder(SERIALIZE_METRIC)
+                .description("Time taken to serialise a session attribute")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(SIZE_METRIC)
+                .description("Serialised size of a session attribute")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(bytes.length);
+        return bytes;
+    }
+
+    private Object deserialize(DeserializingConverter deserializer, byte[] source) {
+        long start = System.nanoTime();
+        Object value = deserializer.convert(source);
+        long elapsed = System.nanoTime() - start;
+        Timer.builder(DESERIALIZE_METRIC)
+                .description("Time taken to deserialise a session attribute")
+                .tag("type", typeOf(value))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        lastRead.set(new BytesRead(value, source));
+        return value;
+    }
+
+    /**
+     * The bytes {@code value} was deserialised from, provided it is the attribute this thread
+     * deserialised last, or {@code null} otherwise.
+     */
+    public byte[] takeBytesRead(Object value) {
+        BytesRead read = lastRead.get();
+        lastRead.remove();
+        return read != null && read.value() == value ? read.bytes() : null;
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String name = value.getClass().getSimpleName();
+        return name.isEmpty() ? value.getClass().getName() : name;
+    }
+
+    private record BytesRead(Object value, byte[] bytes) {
+    }
+}
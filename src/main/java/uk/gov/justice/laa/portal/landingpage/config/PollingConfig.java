@@ -1,9 +1,69 @@
 package uk.gov.justice.laa.portal.landingpage.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+/**
+ * Schedulers for the {@code @Scheduled} tasks.
+ *
+ * <p>The background workers (the outbox relay, email dispatch and the leased job workers) keep
+ * running for as long as there is work queued, so they have a scheduler of their own with a
+ * thread for each of them. The polling, reports, cache clearing and purges stay on the default
+ * scheduler, so a busy worker cannot hold them up and they cannot hold up a worker.</p>
+ */
 @Configuration
 @EnableScheduling
 public class PollingConfig {
+
+    /**
+     * The name of the scheduler the background workers run on, for {@code @Scheduled(scheduler = ...)}.
+     */
+    public static final String WORKER_SCHEDULER = "workerTaskScheduler";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
+    /**
+     * The default scheduler. Declaring the worker scheduler stops Spring Boot creating this one,
+     * so it is built here from the same {@code spring.task.scheduling} properties.
+     */
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:1}") int poolSize,
+                                       @Value("${spring.task.scheduling.simple.concurrency-limit:-1}") int concurrencyLimit) {
+        if (virtualThreads) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("scheduling-");
+            scheduler.setConcurrencyLimit(concurrencyLimit);
+            return scheduler;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
+    /**
+     * The scheduler for the background workers. Each worker runs with a fixed delay, so it needs
+     * at most one thread at a time; the pool should be at least the number of workers. When
+     * virtual threads are enabled the workers run on them, and the database pool still limits
+     * how much of their work runs at once.
+     */
+    @Bean(name = WORKER_SCHEDULER)
+    public TaskScheduler workerTaskScheduler(@Value("${app.scheduling.worker.pool.size:5}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("worker-");
+        if (virtualThreads) {
+            scheduler.setThreadFactory(Thread.ofVirtual().name("worker-", 1).factory());
+        }
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
 }
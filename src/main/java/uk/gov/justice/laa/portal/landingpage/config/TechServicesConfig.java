@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.config;
 
+import com.azure.core.credential.TokenCredential;
 import com.azure.identity.ClientSecretCredential;
 import com.azure.identity.ClientSecretCredentialBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -30,11 +31,12 @@ import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.service.DoNothingTechServicesClient;
 import uk.gov.justice.laa.portal.landingpage.service.LiveTechServicesClient;
 import uk.gov.justice.laa.portal.landingpage.service.TechServicesClient;
+import uk.gov.justice.laa.portal.landingpage.service.TechServicesUserCache;
 
 @Configuration
 public class TechServicesConfig {
 
-    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    @Value("${app.tech.services.token.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}}")
     private String jwkSetUri;
 
     @Value("${app.tech.services.req.read.timeout:30}")
@@ -44,6 +46,11 @@ public class TechServicesConfig {
     private int technicalServicesReqConnectTimeout;
 
     @Bean
+    @ConditionalOnProperty(
+            value = "app.simulation.enabled",
+            havingValue = "false",
+            matchIfMissing = true
+    )
     public ClientSecretCredential techServicesClientSecretCredential(
             @Value("${spring.security.tech.services.credentials.client-id}") String clientId,
             @Value("${spring.security.tech.services.credentials.client-secret}") String clientSecret,
@@ -98,10 +105,13 @@ public class TechServicesConfig {
             havingValue = "true",
             matchIfMissing = true
     )
-    public TechServicesClient liveTechServicesClient(ClientSecretCredential clientSecretCredential, RestClient restClient,
+    public TechServicesClient liveTechServicesClient(@Qualifier("techServicesClientSecretCredential") TokenCredential techServicesCredential,
+                                                     RestClient restClient,
                                                      EntraUserRepository entraUserRepository, CacheManager cacheManager,
-                                                     @Qualifier("tokenExpiryJwtDecoder") JwtDecoder jwtDecoder, ObjectMapper objectMapper) {
-        return new LiveTechServicesClient(clientSecretCredential, restClient, entraUserRepository, cacheManager, jwtDecoder, objectMapper);
+                                                     @Qualifier("tokenExpiryJwtDecoder") JwtDecoder jwtDecoder, ObjectMapper objectMapper,
+                                                     TechServicesUserCache techServicesUserCache) {
+        return new LiveTechServicesClient(techServicesCredential, restClient, entraUserRepository, cacheManager, jwtDecoder, objectMapper,
+                techServicesUserCache);
     }
 
     @Bean
@@ -0,0 +1,28 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics for running on virtual threads, switched on with {@code spring.threads.virtual.enabled}.
+ *
+ * <p>Spring Boot moves Tomcat request handling, {@code @Async} and {@code @Scheduled} onto virtual
+ * threads under that property. The database pool remains the real concurrency limit, so its
+ * {@code hikaricp_connections_pending} and {@code hikaricp_connections_usage} metrics show whether
+ * requests are now queueing for connections instead of for threads. The metrics here record
+ * virtual threads that pin their carrier (for example while blocked inside native code), and
+ * virtual threads that could not be started.</p>
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
@@ -1,12 +1,13 @@
 package uk.gov.justice.laa.portal.landingpage.controller;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
@@ -33,6 +34,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.AppCatalogue;
 import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
@@ -46,6 +48,7 @@ import uk.gov.justice.laa.portal.landingpage.dto.UpdateAppRoleDisplayOrderAuditE
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
 import uk.gov.justice.laa.portal.landingpage.entity.Permission;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
@@ -57,8 +60,10 @@ import uk.gov.justice.laa.portal.landingpage.forms.AppsOrderForm;
 import uk.gov.justice.laa.portal.landingpage.forms.DeleteAppRoleReasonForm;
 import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.service.AccessControlService;
+import uk.gov.justice.laa.portal.landingpage.service.AppCatalogueService;
 import uk.gov.justice.laa.portal.landingpage.service.AppRoleService;
 import uk.gov.justice.laa.portal.landingpage.service.AppService;
+import uk.gov.justice.laa.portal.landingpage.service.AppSyncService;
 import uk.gov.justice.laa.portal.landingpage.service.EventService;
 import uk.gov.justice.laa.portal.landingpage.service.LoginService;
 import uk.gov.justice.laa.portal.landingpage.service.RoleAssignmentService;
@@ -89,6 +94,8 @@ public class AdminController {
     private final AppRoleService appRoleService;
     private final AccessControlService accessControlService;
     private final RoleAssignmentService roleAssignmentService;
+    private final AppCatalogueService appCatalogueService;
+    private final AppSyncService appSyncService;
 
     /**
      * Display SiLAS Administration landing page with Admin Services tab by default
@@ -108,20 +115,19 @@ public class AdminController {
         // Clear any session details from older operations (do not store Model in session)
         clearSessionAttributes(session);
 
+        AppCatalogue catalogue = appCatalogueService.getCatalogue();
+
         // Load all admin apps data for admin-apps tab
-        model.addAttribute("adminApps", appService.getAllAuthzApps());
+        model.addAttribute("adminApps", catalogue.authzApps());
 
         // Load all apps data for apps tab
-        List<AppDto> apps = appService.getAllLaaApps();
-        model.addAttribute("apps", apps);
+        model.addAttribute("apps", catalogue.laaApps());
 
         appFilter = Optional.ofNullable(appFilter)
                 .or(() -> getObjectFromHttpSession(session, "appFilter", String.class))
                 .orElse(null);
 
-        List<AppRoleAdminDto> roles = StringUtils.hasText(appFilter)
-                ? appRoleService.getLaaAppRolesByAppName(appFilter)
-                : appRoleService.getAllLaaAppRoles();
+        List<AppRoleAdminDto> roles = catalogue.laaAppRolesFor(appFilter);
 
         if (userTypeFilter != null && !userTypeFilter.isBlank()) {
             roles = roles.stream()
@@ -129,10 +135,7 @@ public class AdminController {
                     .toList();
         }
 
-        Map<AppRoleDto, List<AppRoleDto>> roleAssignmentRestrictions = StringUtils.hasText(appFilter)
-                ? roleAssignmentService.getLaaAppRoleAssignmentRestrictionsByAppName(appFilter)
-                : roleAssignmentService.getLaaAppRoleAssignmentRestrictions();
-        model.addAttribute("roleAssignmentRestrictions", roleAssignmentRestrictions);
+        model.addAttribute("roleAssignmentRestrictions", catalogue.roleAssignmentRestrictionsFor(appFilter));
         model.addAttribute("roles", roles);
         model.addAttribute("appFilter", appFilter);
         model.addAttribute("userTypes", UserType.values());
@@ -142,38 +145,36 @@ public class AdminController {
         session.setAttribute("appFilter", appFilter);
 
         // Get distinct app names for filter dropdown
-        model.addAttribute("appNames", apps.stream()
-                .map(AppDto::getName)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList()));
+        model.addAttribute("appNames", catalogue.laaAppNames());
 
         return "silas-administration/administration";
     }
 
+    /**
+     * Plans an app sync from Tech Services and shows the changes it would make. Nothing is
+     * changed until the plan is applied.
+     */
     @GetMapping("/silas-administration/sync/apps")
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).TRIGGER_LAA_APP_SYNC)")
     public String syncLaaApps(Authentication authentication, Model model, HttpSession session) {
 
-        model.addAttribute(ModelAttributes.PAGE_TITLE, SILAS_ADMINISTRATION_TITLE);
-        model.addAttribute("activeTab", "apps");
-
         // Clear any session details from older operations (do not store Model in session)
         clearSessionAttributes(session);
 
-        // Load all admin apps data for admin-apps tab
-        model.addAttribute("adminApps", appService.getAllAuthzApps());
-
         List<AppDto> apps;
         boolean appSyncSuccessful;
         try {
             CurrentUserDto currentUserDto = loginService.getCurrentUser(authentication);
             UserProfileDto userProfile = modelMapper.map(loginService.getCurrentProfile(authentication), UserProfileDto.class);
-            AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUserDto, userProfile);
+            AppSyncResultDto syncResult = appSyncService.plan(currentUserDto, userProfile);
             apps = syncResult.getApps();
             model.addAttribute("syncErrors", syncResult.getErrors());
             appSyncSuccessful = true;
-            model.addAttribute("successMessage", "App Syncing successful");
+            if (syncResult.getStatus() == AppSyncPlanStatus.PLANNED) {
+                model.addAttribute("syncPlan", syncResult);
+            } else {
+                model.addAttribute("successMessage", "App Syncing successful");
+            }
         } catch (Exception ex) {
             // Keep the page usable when Tech Services is unreachable/erroring, instead of a full 500 error page
             log.error("App sync failed while calling Tech Services", ex);
@@ -182,6 +183,61 @@ public class AdminController {
             model.addAttribute("syncFailureMessage",
                     "App syncing failed. Please try again later or contact support if the problem continues.");
         }
+        addAppSyncPageAttributes(model, apps, appSyncSuccessful);
+        return "silas-administration/administration";
+    }
+
+    /**
+     * Starts applying a planned app sync in the background on behalf of the signed in admin and
+     * shows its progress.
+     */
+    @PostMapping("/silas-administration/sync/apps/{planId}/apply")
+    @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).TRIGGER_LAA_APP_SYNC)")
+    public String applyLaaAppSync(@PathVariable UUID planId, Authentication authentication,
+                                  RedirectAttributes redirectAttributes) {
+        CurrentUserDto currentUserDto = loginService.getCurrentUser(authentication);
+        UUID userProfileId = loginService.getCurrentProfile(authentication).getId();
+        if (appSyncService.startApply(planId, currentUserDto, userProfileId)) {
+            try {
+                appSyncService.applyPlan(planId);
+            } catch (RejectedExecutionException ex) {
+                log.warn("Could not start applying app sync plan {}", planId, ex);
+                appSyncService.cancelApply(planId);
+                redirectAttributes.addFlashAttribute("syncFailureMessage",
+                        "Another app sync is in progress. Please try again in a few minutes.");
+            }
+        }
+        return String.format("redirect:/admin/silas-administration/sync/apps/%s", planId);
+    }
+
+    @GetMapping("/silas-administration/sync/apps/{planId}")
+    @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).TRIGGER_LAA_APP_SYNC)")
+    public String showLaaAppSyncProgress(@PathVariable UUID planId, Model model) {
+        AppSyncResultDto progress = appSyncService.getPlan(planId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "App sync not found"));
+
+        switch (progress.getStatus()) {
+            case APPLIED, UNCHANGED -> {
+                model.addAttribute("successMessage", "App Syncing successful");
+                model.addAttribute("syncErrors", progress.getErrors());
+            }
+            case PLANNED -> model.addAttribute("syncPlan", progress);
+            case APPLYING -> model.addAttribute("syncProgress", progress);
+            case SUPERSEDED -> model.addAttribute("syncFailureMessage",
+                    "The apps have changed since this sync was planned. Please sync the apps again.");
+            default -> model.addAttribute("syncFailureMessage",
+                    "App syncing failed. Please try again later or contact support if the problem continues.");
+        }
+        addAppSyncPageAttributes(model, appService.getAllLaaApps(), false);
+        return "silas-administration/administration";
+    }
+
+    private void addAppSyncPageAttributes(Model model, List<AppDto> apps, boolean appSyncSuccessful) {
+        model.addAttribute(ModelAttributes.PAGE_TITLE, SILAS_ADMINISTRATION_TITLE);
+        model.addAttribute("activeTab", "apps");
+
+        // Load all admin apps data for admin-apps tab
+        model.addAttribute("adminApps", appService.getAllAuthzApps());
         model.addAttribute("apps", apps);
 
         List<AppRoleAdminDto> roles = appRoleService.getAllLaaAppRoles();
@@ -196,8 +252,6 @@ public class AdminController {
                 .distinct()
                 .sorted()
                 .collect(Collectors.toList()));
-
-        return "silas-administration/administration";
     }
 
     @GetMapping("/silas-administration/app/{appId}")
@@ -787,10 +841,13 @@ public class AdminController {
 
         UUID entraOid = loginService.getCurrentUser(authentication).getUserId();
         UUID userProfileId = loginService.getCurrentProfile(authentication).getId();
-        appRoleService.deleteAppRole(userProfileId, entraOid, appName, roleIdFromSession, reasonForm.getReason());
+        boolean queued = appRoleService.deleteAppRole(userProfileId, entraOid, appName, roleIdFromSession,
+                reasonForm.getReason()).isPresent();
 
         clearSessionAttributes(session);
 
+        model.addAttribute("roleName", roleName);
+        model.addAttribute("deletionAlreadyInProgress", !queued);
 
         return "silas-administration/delete-app-roles-confirmation";
     }
@@ -953,13 +1010,15 @@ public class AdminController {
         List<String> assigningRoleIds = assignableByRoles.stream().map(AppRoleDto::getId).toList();
         List<AppRoleDto> allAssigningRolesByAppType = appRoleService.getAllAssigningRoles(appRoleDto.getApp().getAppType());
 
-        List<AppRoleViewModel> assigningRoleViewModels = getListFromHttpSession(session, "appRoleSelections", AppRoleViewModel.class)
-                .orElse(allAssigningRolesByAppType.stream()
-                        .map(dto -> {
-                            AppRoleViewModel viewModel = modelMapper.map(dto, AppRoleViewModel.class);
-                            viewModel.setSelected(assigningRoleIds.contains(dto.getId()));
-                            return viewModel;
-                        }).sorted().toList());
+        // Show the roles already picked on this journey, if going back from the check answers page
+        List<String> selectedRoleIds = getListFromHttpSession(session, "appRoleSelections", String.class)
+                .orElse(assigningRoleIds);
+        List<AppRoleViewModel> assigningRoleViewModels = allAssigningRolesByAppType.stream()
+                .map(dto -> {
+                    AppRoleViewModel viewModel = modelMapper.map(dto, AppRoleViewModel.class);
+                    viewModel.setSelected(selectedRoleIds.contains(dto.getId()));
+                    return viewModel;
+                }).sorted().toList();
 
 
         // Load all admin apps data for admin-apps tab
@@ -978,20 +1037,14 @@ public class AdminController {
         List<AppRoleDto> allAuthzRoles = appRoleService.getAllAuthzRoles();
 
         session.setAttribute("assignableAppRoleId", appRoleId);
-        List<AppRoleViewModel> assigningRoleViewModels = allAuthzRoles.stream()
-                .map(dto -> {
-                    AppRoleViewModel vm = modelMapper.map(dto, AppRoleViewModel.class);
-                    boolean selected = rolesForm != null && rolesForm.getRoles() != null && rolesForm.getRoles().contains(dto.getId());
-                    vm.setSelected(selected);
-                    return vm;
-                })
-                .sorted(Comparator.comparing(AppRoleViewModel::getName, String.CASE_INSENSITIVE_ORDER))
+        // Keep just the ids of the roles picked, the pages that follow read the roles again
+        List<String> selectedRoleIds = allAuthzRoles.stream()
+                .map(AppRoleDto::getId)
+                .filter(id -> rolesForm != null && rolesForm.getRoles() != null && rolesForm.getRoles().contains(id))
                 .toList();
-
-        session.setAttribute("appRoleSelections", assigningRoleViewModels);
+        session.setAttribute("appRoleSelections", new ArrayList<>(selectedRoleIds));
 
         model.addAttribute("appRole", appRoleDto);
-        model.addAttribute("assigningRoleViewModels", assigningRoleViewModels);
 
         return "redirect:/admin/silas-administration/role/assignRestrictions/check-answers";
     }
@@ -1002,7 +1055,7 @@ public class AdminController {
         model.addAttribute(ModelAttributes.PAGE_TITLE, SILAS_ADMINISTRATION_TITLE);
 
         var appRoleIdOpt = getObjectFromHttpSession(session, "assignableAppRoleId", String.class);
-        var selectionOpt = getListFromHttpSession(session, "appRoleSelections", AppRoleViewModel.class);
+        var selectionOpt = getListFromHttpSession(session, "appRoleSelections", String.class);
 
         if (appRoleIdOpt.isEmpty() || selectionOpt.isEmpty()) {
             return "redirect:/silas-administration/role";
@@ -1010,14 +1063,7 @@ public class AdminController {
 
         String appRoleId = appRoleIdOpt.get();
         AppRoleDto appRoleDto = appRoleService.findById(appRoleId).orElseThrow();
-        List<AppRoleViewModel> assigningRoleViewModels = selectionOpt.get();
-
-        List<String> selectedAssigningRoleIds = assigningRoleViewModels.stream()
-                .filter(AppRoleViewModel::isSelected)
-                .map(AppRoleViewModel::getId)
-                .filter(id -> !id.equals(appRoleId))
-                .distinct()
-                .toList();
+        List<String> selectedAssigningRoleIds = withoutRole(selectionOpt.get(), appRoleId);
 
         List<AppRoleDto> originalAssigningRoles = appRoleService.getAssigningRolesFor(appRoleId);
         List<AppRoleDto> newAssigningRoles = selectedAssigningRoleIds.isEmpty()
@@ -1041,19 +1087,14 @@ public class AdminController {
         model.addAttribute(ModelAttributes.PAGE_TITLE, SILAS_ADMINISTRATION_TITLE);
 
         var appRoleIdOpt = getObjectFromHttpSession(session, "assignableAppRoleId", String.class);
-        var selectionOpt = getListFromHttpSession(session, "appRoleSelections", AppRoleViewModel.class);
+        var selectionOpt = getListFromHttpSession(session, "appRoleSelections", String.class);
 
         if (appRoleIdOpt.isEmpty() || selectionOpt.isEmpty()) {
             return "redirect:/silas-administration/role";
         }
 
         String appRoleId = appRoleIdOpt.get();
-        List<String> selectedAssigningRoleIds = selectionOpt.get().stream()
-                .filter(AppRoleViewModel::isSelected)
-                .map(AppRoleViewModel::getId)
-                .filter(id -> !id.equals(appRoleId))
-                .distinct()
-                .toList();
+        List<String> selectedAssigningRoleIds = withoutRole(selectionOpt.get(), appRoleId);
 
         CurrentUserDto currentUser = loginService.getCurrentUser(authentication);
         roleAssignmentService.updateRoleAssignmentRestrictions(currentUser, appRoleId, selectedAssigningRoleIds);
@@ -1063,6 +1104,16 @@ public class AdminController {
         return "silas-administration/edit-role-assignment-restrictions-confirmation";
     }
 
+    /**
+     * The picked assigning roles, leaving out the role being restricted as it cannot restrict itself.
+     */
+    private static List<String> withoutRole(List<String> roleIds, String appRoleId) {
+        return roleIds.stream()
+                .filter(id -> !id.equals(appRoleId))
+                .distinct()
+                .toList();
+    }
+
     private void clearSessionAttributes(HttpSession session) {
         List.of("appDetailsForm", "appDetailsFormModel", "appId", "appsOrderForm", "deleteAppRoleReasonForm",
                         "appRoleDetailsForm", "appRoleDetailsFormModel", "appFilter", "roleId", "appRolesOrderForm",
@@ -61,6 +61,7 @@ import uk.gov.justice.laa.portal.landingpage.service.ExternalUserPollingService;
 import uk.gov.justice.laa.portal.landingpage.service.FirmService;
 import uk.gov.justice.laa.portal.landingpage.service.LoginService;
 import uk.gov.justice.laa.portal.landingpage.service.TechServicesClient;
+import uk.gov.justice.laa.portal.landingpage.service.TechServicesUserCache;
 import uk.gov.justice.laa.portal.landingpage.service.UserAccountStatusService;
 import uk.gov.justice.laa.portal.landingpage.service.UserService;
 import uk.gov.justice.laa.portal.landingpage.techservices.GetUserResponse;
@@ -83,6 +84,7 @@ public class AuditController {
     private final FirmService firmService;
     private final AuthenticatedUser authenticatedUser;
     private final TechServicesClient techServicesClient;
+    private final TechServicesUserCache techServicesUserCache;
     private final UserAccountStatusService userAccountStatusService;
     private final ExternalUserPollingService externalUserPollingService;
     private final EntraUserRepository entraUserRepository;
@@ -208,7 +210,7 @@ public class AuditController {
             }
         }
 
-        TechServicesApiResponse<GetUserResponse> entraUserResponse = techServicesClient.getUser(userDetail.getEntraOid());
+        TechServicesApiResponse<GetUserResponse> entraUserResponse = techServicesUserCache.getUser(userDetail.getEntraOid(), techServicesClient::getUser);
         if (entraUserResponse.isSuccess()) {
             TechServicesUser user = entraUserResponse.getData().getUser();
 
@@ -331,7 +333,7 @@ public class AuditController {
                 userDetail = userService.getAuditUserDetailByEntraId(userId);
             }
         }
-        TechServicesApiResponse<GetUserResponse> entraUserResponse = techServicesClient.getUser(userDetail.getEntraOid());
+        TechServicesApiResponse<GetUserResponse> entraUserResponse = techServicesUserCache.getUser(userDetail.getEntraOid(), techServicesClient::getUser);
         if (entraUserResponse.isSuccess()) {
             TechServicesUser user = entraUserResponse.getData().getUser();
             String disableUserReason = formatDisableUserReason(user);
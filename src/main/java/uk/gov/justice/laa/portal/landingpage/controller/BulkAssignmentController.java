@@ -0,0 +1,147 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.forms.BulkAssignmentForm;
+import uk.gov.justice.laa.portal.landingpage.repository.projection.BulkAssignmentItemView;
+import uk.gov.justice.laa.portal.landingpage.service.BulkAssignmentService;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.OfficeService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Adding and removing roles and offices for many users of a firm at once. The change is queued
+ * as a {@link BulkAssignmentJob} and its progress and per-user results are shown on the job page.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/firmDirectory/{firmId}/bulk-assign")
+@PreAuthorize("@accessControlService.canBulkAssignFirmUsers()")
+public class BulkAssignmentController {
+
+    private static final int RESULTS_PAGE_SIZE = 50;
+    private static final int OFFICES_PAGE_SIZE = 20;
+
+    private final BulkAssignmentService bulkAssignmentService;
+    private final FirmService firmService;
+    private final OfficeService officeService;
+    private final LoginService loginService;
+
+    @GetMapping
+    public String bulkAssign(@PathVariable UUID firmId,
+                             @RequestParam(value = "search", defaultValue = "") String search,
+                             Model model, Authentication authentication) {
+        BulkAssignmentForm form = BulkAssignmentForm.builder().search(search.trim()).build();
+        addFormAttributes(firmService.getFirm(firmId), form, model, authentication);
+        return "firm-directory/bulk-assign";
+    }
+
+    @PostMapping
+    public String bulkAssignPost(@PathVariable UUID firmId,
+                                 @ModelAttribute("bulkAssignmentForm") BulkAssignmentForm form,
+                                 @RequestParam(value = "action", required = false) String action,
+                                 @RequestParam(value = "goToOfficePage", required = false) Integer goToOfficePage,
+                                 Model model, Authentication authentication) {
+        if ("officeSearch".equals(action) || goToOfficePage != null) {
+            // Searching or paging the offices keeps everything picked so far on the form
+            form.setOfficePage(goToOfficePage != null ? goToOfficePage : 1);
+            addFormAttributes(firmService.getFirm(firmId), form, model, authentication);
+            return "firm-directory/bulk-assign";
+        }
+        String search = form.getSearch() == null ? "" : form.getSearch().trim();
+        if ("search".equals(action)) {
+            return "redirect:" + UriComponentsBuilder.fromPath("/admin/firmDirectory/{firmId}/bulk-assign")
+                    .queryParam("search", search)
+                    .buildAndExpand(firmId)
+                    .encode()
+                    .toUriString();
+        }
+
+        FirmDto firm = firmService.getFirm(firmId);
+        UUID entraOid = loginService.getCurrentUser(authentication).getUserId();
+        UserProfile userProfile = loginService.getCurrentProfile(authentication);
+        Optional<BulkAssignmentJob> job;
+        try {
+            job = bulkAssignmentService.requestAssignment(firm, form, userProfile, entraOid);
+        } catch (IllegalArgumentException e) {
+            log.warn("Bulk assignment for firm {} rejected: {}", firmId, e.getMessage());
+            model.addAttribute("errorMessage", e.getMessage());
+            addFormAttributes(firm, form, model, authentication);
+            return "firm-directory/bulk-assign";
+        }
+        if (job.isEmpty()) {
+            model.addAttribute("errorMessage",
+                    "Changes for the users of " + firm.getName() + " are already being made. Try again once they have finished.");
+            addFormAttributes(firm, form, model, authentication);
+            return "firm-directory/bulk-assign";
+        }
+        return "redirect:/admin/firmDirectory/" + firmId + "/bulk-assign/" + job.get().getId();
+    }
+
+    @GetMapping("/{jobId}")
+    public String bulkAssignProgress(@PathVariable UUID firmId, @PathVariable UUID jobId,
+                                     @RequestParam(value = "page", defaultValue = "1") int page,
+                                     Model model) {
+        BulkAssignmentJob job = bulkAssignmentService.getJob(jobId)
+                .filter(found -> firmId.equals(found.getFirmId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Bulk assignment not found"));
+        Page<BulkAssignmentItemView> results = bulkAssignmentService.getResults(jobId, page, RESULTS_PAGE_SIZE);
+        model.addAttribute("job", job);
+        model.addAttribute("results", results.getContent());
+        model.addAttribute("page", Math.max(page, 1));
+        model.addAttribute("totalPages", results.getTotalPages());
+        model.addAttribute(ModelAttributes.PAGE_TITLE, "Change roles and offices - " + job.getFirmName());
+        return "firm-directory/bulk-assign-progress";
+    }
+
+    /**
+     * Adds the form, with one page of the firm's offices searched by code, postcode or city. The
+     * offices picked on other pages are kept on the form as hidden fields.
+     */
+    private void addFormAttributes(FirmDto firm, BulkAssignmentForm form, Model model, Authentication authentication) {
+        UserProfile userProfile = loginService.getCurrentProfile(authentication);
+        PaginatedOffices officePage = officeService.searchFirmOffices(List.of(firm.getId()), form.getOfficeSearch(),
+                form.getOfficePage(), OFFICES_PAGE_SIZE);
+        Set<String> shownOfficeIds = officePage.getOffices().stream()
+                .map(office -> office.getId().toString())
+                .collect(Collectors.toSet());
+        model.addAttribute("firm", firm);
+        model.addAttribute("bulkAssignmentForm", form);
+        model.addAttribute("matchingUsers", bulkAssignmentService.countMatchingUsers(firm.getId(), form.getSearch(),
+                userProfile.getId()));
+        model.addAttribute("roles", bulkAssignmentService.getAssignableRoles(firm, userProfile));
+        model.addAttribute("offices", officePage.getOffices());
+        model.addAttribute("officePage", officePage);
+        model.addAttribute("otherAddOffices", form.getAddOffices().stream()
+                .filter(id -> !shownOfficeIds.contains(id)).toList());
+        model.addAttribute("otherRemoveOffices", form.getRemoveOffices().stream()
+                .filter(id -> !shownOfficeIds.contains(id)).toList());
+        model.addAttribute(ModelAttributes.PAGE_TITLE, "Change roles and offices - " + firm.getName());
+    }
+}
@@ -106,6 +106,8 @@ public class FirmDirectoryController {
         model.addAttribute("firmOffices", paginatedOffices);
         model.addAttribute("criteria", criteria);
         model.addAttribute("showDisableAllButton", showDisableAllButton);
+        model.addAttribute("showBulkAssignButton", accessControlService.canBulkAssignFirmUsers());
+        model.addAttribute("showImportUsersButton", accessControlService.canImportFirmUsers());
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Firm Details");
 
         return "firm-directory/firm-offices";
@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.controller;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.RedirectView;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -45,12 +47,12 @@ import uk.gov.justice.laa.portal.landingpage.dto.DeleteFirmProfileAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
 import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.dto.OfficeDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
-import uk.gov.justice.laa.portal.landingpage.entity.Office;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.exception.UserAlreadyAssignedToFirmException;
@@ -60,6 +62,7 @@ import uk.gov.justice.laa.portal.landingpage.forms.MultiFirmUserForm;
 import uk.gov.justice.laa.portal.landingpage.forms.OfficesForm;
 import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.model.OfficeModel;
+import uk.gov.justice.laa.portal.landingpage.model.OfficesJourneyState;
 import uk.gov.justice.laa.portal.landingpage.model.UserRole;
 import uk.gov.justice.laa.portal.landingpage.service.AppRoleService;
 import uk.gov.justice.laa.portal.landingpage.service.AppService;
@@ -105,6 +108,8 @@ public class MultiFirmUserController {
 
     private final FirmService firmService;
 
+    private static final int OFFICES_PAGE_SIZE = 20;
+
     @GetMapping("/user/add/profile/select/internalUserFirm")
     @PreAuthorize("@accessControlService.authenticatedUserHasAnyGivenPermissions(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).DELEGATE_EXTERNAL_USER_ACCESS_INTERNAL)")
     public String selectAdminUserFirmGet(FirmSearchForm firmSearchForm, HttpSession session, Model model,
@@ -471,43 +476,18 @@ public class MultiFirmUserController {
                 ApplicationsForm.class).orElse(new ApplicationsForm());
         model.addAttribute("applicationsForm", applicationsForm);
 
-        List<AppDto> availableApps = userService.getAppsByUserType(UserType.EXTERNAL);
-
-        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
-        List<AppDto> assignableApps = availableApps.stream()
-                .filter(AppDto::isEnabled)
-                .filter(app -> roleAssignmentService.canUserAssignRolesForApp(currentUserProfile, app))
-                .toList();
-        List<String> selectedApps = applicationsForm.getApps() == null ? List.of() : applicationsForm.getApps();
-
-        assignableApps.forEach(app -> app.setSelected(selectedApps.stream()
-                .anyMatch(userApp -> userApp.equals(app.getId()))));
-
-        EntraUserDto entraUserDto = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
-        model.addAttribute("entraUser", entraUserDto);
-        model.addAttribute("apps", assignableApps);
-        model.addAttribute("groupedApps", appService.buildGroupedApps(assignableApps));
-
-        session.setAttribute("addProfileUserAppsModel", model);
+        EntraUserDto entraUserDto = addSelectAppsPageAttributes(applicationsForm.getApps(), model, session, authentication);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Add profile - Select services - " + entraUserDto.getFullName());
         return "multi-firm-user/select-user-apps";
     }
 
     @PostMapping("/user/add/profile/select/apps")
     public String selectUserAppsPost(@Valid ApplicationsForm applicationsForm, BindingResult result,
-            Model model, HttpSession session) {
+            Authentication authentication, Model model, HttpSession session) {
 
         if (result.hasErrors()) {
             log.debug("Validation errors occurred while selecting apps: {}", result.getAllErrors());
-
-            Model modelFromSession = (Model) session.getAttribute("addProfileUserAppsModel");
-            if (modelFromSession == null) {
-                return "multi-firm-user/select-user-apps";
-            }
-
-            model.addAttribute("entraUser", modelFromSession.getAttribute("entraUser"));
-            model.addAttribute("apps", modelFromSession.getAttribute("apps"));
-            model.addAttribute("groupedApps", modelFromSession.getAttribute("groupedApps"));
+            addSelectAppsPageAttributes(applicationsForm.getApps(), model, session, authentication);
             return "multi-firm-user/select-user-apps";
         }
 
@@ -519,12 +499,38 @@ public class MultiFirmUserController {
                 : new ArrayList<>();
         session.setAttribute("addProfileSelectedApps", selectedAppIds);
 
-        session.removeAttribute("addProfileUserAppsModel");
         session.removeAttribute("addUserProfileAllSelectedRoles");
 
         return "redirect:/admin/multi-firm/user/add/profile/select/roles";
     }
 
+    /**
+     * Adds the apps the current user can assign roles for, with the given ones ticked, and the
+     * user the profile is being added for.
+     *
+     * @return the user the profile is being added for
+     */
+    private EntraUserDto addSelectAppsPageAttributes(List<String> selectedApps, Model model, HttpSession session,
+                                                     Authentication authentication) {
+        List<AppDto> availableApps = userService.getAppsByUserType(UserType.EXTERNAL);
+
+        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
+        List<AppDto> assignableApps = availableApps.stream()
+                .filter(AppDto::isEnabled)
+                .filter(app -> roleAssignmentService.canUserAssignRolesForApp(currentUserProfile, app))
+                .toList();
+        List<String> ticked = selectedApps == null ? List.of() : selectedApps;
+
+        assignableApps.forEach(app -> app.setSelected(ticked.stream()
+                .anyMatch(userApp -> userApp.equals(app.getId()))));
+
+        EntraUserDto entraUserDto = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
+        model.addAttribute("entraUser", entraUserDto);
+        model.addAttribute("apps", assignableApps);
+        model.addAttribute("groupedApps", appService.buildGroupedApps(assignableApps));
+        return entraUserDto;
+    }
+
     @GetMapping("/user/add/profile/select/roles")
     public String selectUserAppRoles(@RequestParam(defaultValue = "0") Integer selectedAppIndex,
             RolesForm rolesForm,
@@ -547,15 +553,7 @@ public class MultiFirmUserController {
         List<AppRoleDto> assignableRoles = new ArrayList<>();
 
         while (currentSelectedAppIndex < selectedAppIds.size()) {
-            UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
-            String targetFirmId = (String) session.getAttribute("delegateTargetFirmId");
-            Firm targetFirm = targetFirmId != null ? firmService.getById(UUID.fromString(targetFirmId)) : currentUserProfile.getFirm();
-            FirmType targetFirmType = targetFirm != null ? targetFirm.getType() : null;
-
-            List<AppRoleDto> availableRoles = userService
-                    .getAppRolesByAppIdAndUserType(selectedAppIds.get(currentSelectedAppIndex), UserType.EXTERNAL, targetFirmType);
-            assignableRoles = roleAssignmentService.filterRoles(currentUserProfile.getAppRoles(),
-                    availableRoles.stream().map(role -> UUID.fromString(role.getId())).toList());
+            assignableRoles = getAssignableRoles(selectedAppIds.get(currentSelectedAppIndex), session, authentication);
 
             if (assignableRoles.size() != 1) {
                 break;
@@ -581,8 +579,6 @@ public class MultiFirmUserController {
         roleSelectableAppIndexes.add(currentSelectedAppIndex);
         session.setAttribute("roleSelectableAppIndexes", roleSelectableAppIndexes);
 
-        final AppDto currentApp = userService.getAppByAppId(selectedAppIds.get(currentSelectedAppIndex)).orElseThrow();
-
         @SuppressWarnings("unchecked")
         Map<Integer, List<String>> editUserAllSelectedRoles = (Map<Integer, List<String>>) session
                 .getAttribute("addUserProfileAllSelectedRoles");
@@ -597,51 +593,10 @@ public class MultiFirmUserController {
             selectedRoles = new ArrayList<>();
         }
 
-        List<AppRoleViewModel> appRoleViewModels = assignableRoles.stream()
-                .map(appRoleDto -> {
-                    AppRoleViewModel viewModel = mapper.map(appRoleDto, AppRoleViewModel.class);
-                    viewModel.setSelected(selectedRoles.contains(appRoleDto.getId()));
-                    return viewModel;
-                }).sorted().toList();
-
-        // Check if this is the CCMS app and organize roles by section
-        boolean isCcmsApp = (currentApp.getName().contains("CCMS")
-                && !currentApp.getName().contains("CCMS case transfer requests"))
-                || assignableRoles.stream().anyMatch(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()));
-
-        // Apply CCMS filtering before storing in model
-        List<AppRoleViewModel> finalRoles = appRoleViewModels;
-
-        if (isCcmsApp) {
-            // Filter to only CCMS roles for organization
-            List<AppRoleViewModel> ccmsRoles = appRoleViewModels.stream()
-                    .filter(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()))
-                    .sorted().collect(Collectors.toList());
-
-            Map<String, List<AppRoleViewModel>> organizedRoles = new HashMap<>();
-            if (!ccmsRoles.isEmpty()) {
-                // Organize CCMS roles by section dynamically
-                organizedRoles.putAll(CcmsRoleGroupsUtil.organizeCcmsRolesBySection(ccmsRoles));
-
-                // Use filtered CCMS roles for both display and session storage
-                finalRoles = ccmsRoles;
-            }
-            model.addAttribute("ccmsRolesBySection", organizedRoles);
-            model.addAttribute("isCcmsApp", true);
-        } else {
-            model.addAttribute("isCcmsApp", false);
-        }
-
-        EntraUserDto user = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
-
-        model.addAttribute("entraUser", user);
-        model.addAttribute("roles", finalRoles);
-        model.addAttribute("addProfileSelectedAppIndex", currentSelectedAppIndex);
-        model.addAttribute("addProfileCurrentApp", currentApp);
-
+        EntraUserDto user = addSelectRolesPageAttributes(selectedAppIds.get(currentSelectedAppIndex), assignableRoles,
+                selectedRoles, currentSelectedAppIndex, model, session);
         model.addAttribute("backUrl", getBackButtonUrl(session, currentSelectedAppIndex));
 
-        session.setAttribute("addProfileUserRolesModel", model);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Add profile - Select roles - " + user.getFullName());
         return "multi-firm-user/select-user-app-roles";
     }
@@ -651,27 +606,16 @@ public class MultiFirmUserController {
             @RequestParam int selectedAppIndex,
             Authentication authentication,
             Model model, HttpSession session) {
-        Model modelFromSession = (Model) session.getAttribute("addProfileUserRolesModel");
-        if (modelFromSession == null) {
+        List<String> selectedApps = getListFromHttpSession(session, "addProfileSelectedApps", String.class)
+                .orElseGet(ArrayList::new);
+        if (selectedAppIndex < 0 || selectedAppIndex >= selectedApps.size()) {
             return "redirect:/admin/multi-firm/user/add/profile/select/roles";
         }
         if (result.hasErrors()) {
             log.debug("Validation errors occurred while setting user roles: {}", result.getAllErrors());
-            @SuppressWarnings("unchecked")
-            List<AppRoleViewModel> roles = (List<AppRoleViewModel>) modelFromSession.getAttribute("roles");
-            if (roles != null) {
-                List<String> selectedRoleIds = rolesForm.getRoles() != null ? rolesForm.getRoles() : new ArrayList<>();
-                roles.forEach(role -> {
-                    if (!selectedRoleIds.contains(role.getId())) {
-                        role.setSelected(false);
-                    }
-                });
-            }
-            model.addAttribute("roles", roles);
-            model.addAttribute("entraUser", modelFromSession.getAttribute("entraUser"));
-            model.addAttribute("addProfileSelectedAppIndex",
-                    modelFromSession.getAttribute("addProfileSelectedAppIndex"));
-            model.addAttribute("addProfileCurrentApp", modelFromSession.getAttribute("addProfileCurrentApp"));
+            String appId = selectedApps.get(selectedAppIndex);
+            addSelectRolesPageAttributes(appId, getAssignableRoles(appId, session, authentication),
+                    rolesForm.getRoles() != null ? rolesForm.getRoles() : List.of(), selectedAppIndex, model, session);
 
             String rolesBackUrl = selectedAppIndex == 0
                     ? "/admin/multi-firm/user/add/profile/select/apps"
@@ -681,8 +625,6 @@ public class MultiFirmUserController {
             return "multi-firm-user/select-user-app-roles";
         }
 
-        List<String> selectedApps = getListFromHttpSession(session, "addProfileSelectedApps", String.class)
-                .orElseGet(ArrayList::new);
         @SuppressWarnings("unchecked")
         Map<Integer, List<String>> allSelectedRolesByPage = (Map<Integer, List<String>>) session
                 .getAttribute("addUserProfileAllSelectedRoles");
@@ -701,32 +643,153 @@ public class MultiFirmUserController {
             if (!roleAssignmentService.canAssignRole(editorProfile.getAppRoles(), allSelectedRoles)) {
                 return "multi-firm-user/select-user-app-roles";
             }
-            session.removeAttribute("addProfileUserRolesModel");
             return "redirect:/admin/multi-firm/user/add/profile/select/offices";
         } else {
-            modelFromSession.addAttribute("addProfileSelectedAppIndex", selectedAppIndex + 1);
             session.setAttribute("addUserProfileAllSelectedRoles", allSelectedRolesByPage);
-            session.setAttribute("addProfileUserRolesModel", modelFromSession);
             return "redirect:/admin/multi-firm/user/add/profile/select/roles?selectedAppIndex="
                     + (selectedAppIndex + 1);
         }
     }
 
+    /**
+     * The roles of the given app that the current user can assign to a profile in the target
+     * firm.
+     */
+    private List<AppRoleDto> getAssignableRoles(String appId, HttpSession session, Authentication authentication) {
+        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
+        String targetFirmId = (String) session.getAttribute("delegateTargetFirmId");
+        Firm targetFirm = targetFirmId != null ? firmService.getById(UUID.fromString(targetFirmId)) : currentUserProfile.getFirm();
+        FirmType targetFirmType = targetFirm != null ? targetFirm.getType() : null;
+
+        List<AppRoleDto> availableRoles = userService.getAppRolesByAppIdAndUserType(appId, UserType.EXTERNAL, targetFirmType);
+        return roleAssignmentService.filterRoles(currentUserProfile.getAppRoles(),
+                availableRoles.stream().map(role -> UUID.fromString(role.getId())).toList());
+    }
+
+    /**
+     * Adds the roles page for one of the selected apps, with the given roles ticked. The page is
+     * built again from the app's roles rather than kept in the session between requests.
+     *
+     * @return the user the profile is being added for
+     */
+    private EntraUserDto addSelectRolesPageAttributes(String appId, List<AppRoleDto> assignableRoles,
+                                                      Collection<String> selectedRoles, int selectedAppIndex,
+                                                      Model model, HttpSession session) {
+        final AppDto currentApp = userService.getAppByAppId(appId).orElseThrow();
+
+        List<AppRoleViewModel> appRoleViewModels = assignableRoles.stream()
+                .map(appRoleDto -> {
+                    AppRoleViewModel viewModel = mapper.map(appRoleDto, AppRoleViewModel.class);
+                    viewModel.setSelected(selectedRoles.contains(appRoleDto.getId()));
+                    return viewModel;
+                }).sorted().toList();
+
+        // Check if this is the CCMS app and organize roles by section
+        boolean isCcmsApp = (currentApp.getName().contains("CCMS")
+                && !currentApp.getName().contains("CCMS case transfer requests"))
+                || assignableRoles.stream().anyMatch(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()));
+
+        List<AppRoleViewModel> finalRoles = appRoleViewModels;
+
+        if (isCcmsApp) {
+            // Filter to only CCMS roles for organization
+            List<AppRoleViewModel> ccmsRoles = appRoleViewModels.stream()
+                    .filter(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()))
+                    .sorted().collect(Collectors.toList());
+
+            Map<String, List<AppRoleViewModel>> organizedRoles = new HashMap<>();
+            if (!ccmsRoles.isEmpty()) {
+                // Organize CCMS roles by section dynamically
+                organizedRoles.putAll(CcmsRoleGroupsUtil.organizeCcmsRolesBySection(ccmsRoles));
+                finalRoles = ccmsRoles;
+            }
+            model.addAttribute("ccmsRolesBySection", organizedRoles);
+            model.addAttribute("isCcmsApp", true);
+        } else {
+            model.addAttribute("isCcmsApp", false);
+        }
+
+        EntraUserDto user = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
+
+        model.addAttribute("entraUser", user);
+        model.addAttribute("roles", finalRoles);
+        model.addAttribute("addProfileSelectedAppIndex", selectedAppIndex);
+        model.addAttribute("addProfileCurrentApp", currentApp);
+        return user;
+    }
+
     @GetMapping("/user/add/profile/select/offices")
-    public String addProfileSelectOffices(Model model, HttpSession session, Authentication authentication) {
+    public String addProfileSelectOffices(@RequestParam(value = "search", defaultValue = "") String search,
+                                          @RequestParam(value = "page", defaultValue = "1") int page,
+                                          Model model, HttpSession session, Authentication authentication) {
         final EntraUserDto user = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
 
-        OfficesForm userOfficesForm = getObjectFromHttpSession(session, "officesForm", OfficesForm.class)
-                .orElse(OfficesForm.builder().offices(List.of()).build());
-        Set<String> userOfficeIds = new HashSet<>(userOfficesForm.getOffices());
+        OfficesJourneyState selection = getOfficeSelection(session, user);
+        session.setAttribute("officeSelection", selection);
+        addOfficePickerAttributes(model, session, authentication, user, selection, search, page);
+        return "multi-firm-user/select-user-offices";
+    }
 
-        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
+    /**
+     * Records the offices ticked on the page shown, then either moves to another page of offices
+     * or, on continue, finishes the office selection. Offices ticked on other pages are kept.
+     */
+    @PostMapping("/user/add/profile/select/offices")
+    public String addProfileSelectOfficesPost(OfficesForm officesForm, BindingResult result,
+            @RequestParam(value = "shownOffices", required = false) List<UUID> shownOffices,
+            @RequestParam(value = "search", defaultValue = "") String search,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "goToPage", required = false) Integer goToPage,
+            @RequestParam(value = "action", required = false) String action,
+            Model model, HttpSession session, Authentication authentication) {
+        final EntraUserDto user = getObjectFromHttpSession(session, "entraUser", EntraUserDto.class).orElseThrow();
+        OfficesJourneyState selection = getOfficeSelection(session, user);
+        selection.update(shownOffices, officesForm.getOffices());
+        session.setAttribute("officeSelection", selection);
+
+        if (goToPage != null || "search".equals(action)) {
+            return "redirect:" + UriComponentsBuilder.fromPath("/admin/multi-firm/user/add/profile/select/offices")
+                    .queryParam("search", search.trim())
+                    .queryParam("page", goToPage != null ? goToPage : 1)
+                    .encode()
+                    .toUriString();
+        }
 
+        if (selection.isEmpty()) {
+            log.debug("No offices selected while adding a user profile");
+            result.rejectValue("offices", "offices.required", "Office selection is required");
+            addOfficePickerAttributes(model, session, authentication, user, selection, search, page);
+            return "multi-firm-user/select-user-offices";
+        }
+
+        List<String> selectedOffices = selection.toOffices();
+        session.setAttribute("userOffices", selectedOffices);
+        session.setAttribute("officesForm", OfficesForm.builder().offices(selectedOffices).build());
+
+        return "redirect:/admin/multi-firm/user/add/profile/check-answers";
+    }
+
+    private OfficesJourneyState getOfficeSelection(HttpSession session, EntraUserDto user) {
+        return getObjectFromHttpSession(session, "officeSelection", OfficesJourneyState.class)
+                .filter(selection -> selection.isFor(user.getId()))
+                .orElseGet(() -> new OfficesJourneyState(user.getId(), false,
+                        getObjectFromHttpSession(session, "officesForm", OfficesForm.class)
+                                .map(OfficesForm::getOffices)
+                                .orElse(List.of())));
+    }
+
+    /**
+     * Adds one page of the target firm's offices, searched by code, postcode or city, with the
+     * offices already selected ticked.
+     */
+    private void addOfficePickerAttributes(Model model, HttpSession session, Authentication authentication,
+                                           EntraUserDto user, OfficesJourneyState selection, String search, int page) {
         String targetFirmId = (String) session.getAttribute("delegateTargetFirmId");
-        Firm currentUserFirm = targetFirmId != null ? firmService.getById(UUID.fromString(targetFirmId)) : currentUserProfile.getFirm();
-        Set<Office> currentUserOffices = currentUserFirm.getOffices();
+        UUID firmId = targetFirmId != null ? UUID.fromString(targetFirmId)
+                : loginService.getCurrentProfile(authentication).getFirm().getId();
+        PaginatedOffices officePage = officeService.searchFirmOffices(List.of(firmId), search, page, OFFICES_PAGE_SIZE);
 
-        final List<OfficeModel> officeData = currentUserOffices.stream()
+        final List<OfficeModel> officeData = officePage.getOffices().stream()
                 .map(office -> new OfficeModel(
                         office.getCode(),
                         office.getAddress() == null ? null :
@@ -736,57 +799,19 @@ public class MultiFirmUserController {
                                     .city(office.getAddress().getCity())
                                     .postcode(office.getAddress().getPostcode()).build(),
                         office.getId().toString(),
-                        userOfficeIds.contains(office.getId().toString())))
+                        selection.isSelected(office.getId())))
                 .collect(Collectors.toList());
 
-        boolean hasAllOffices = userOfficeIds.contains("ALL");
-
         model.addAttribute("entraUser", user);
-        model.addAttribute("officesForm", userOfficesForm);
+        if (!model.containsAttribute("officesForm")) {
+            model.addAttribute("officesForm", OfficesForm.builder().offices(selection.toOffices()).build());
+        }
         model.addAttribute("officeData", officeData);
-        model.addAttribute("hasAllOffices", hasAllOffices);
-
-        // Store the model in session to handle validation errors later
-        session.setAttribute("addProfileUserOfficesModel", model);
+        model.addAttribute("officePage", officePage);
+        model.addAttribute("search", search);
+        model.addAttribute("selectedOfficeCount", selection.getOfficeIds().size());
+        model.addAttribute("hasAllOffices", selection.isAllOffices());
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Add profile - Select offices - " + user.getFullName());
-        return "multi-firm-user/select-user-offices";
-    }
-
-    @PostMapping("/user/add/profile/select/offices")
-    public String addProfileSelectOfficesPost(@Valid OfficesForm officesForm, BindingResult result,
-            Model model, HttpSession session) {
-        if (result.hasErrors()) {
-            log.debug("Validation errors occurred while selecting user offices: {}", result.getAllErrors());
-            // If there are validation errors, return to the edit user offices page with
-            // errors
-            Model modelFromSession = (Model) session.getAttribute("addProfileUserOfficesModel");
-            if (modelFromSession == null) {
-                return "redirect:/admin/multi-firm/user/add/profile/select/offices";
-            }
-            @SuppressWarnings("unchecked")
-            List<OfficeModel> officeData = (List<OfficeModel>) modelFromSession.getAttribute("officeData");
-
-            // make sure selected offices are not selected if validation errors occur
-            if (officeData != null) {
-                List<String> selectedOfficeIds = officesForm.getOffices() != null ? officesForm.getOffices()
-                        : new ArrayList<>();
-                officeData.forEach(office -> {
-                    if (!selectedOfficeIds.contains(office.getId())) {
-                        office.setSelected(false);
-                    }
-                });
-            }
-
-            model.addAttribute("entraUser", modelFromSession.getAttribute("entraUser"));
-            model.addAttribute("officeData", modelFromSession.getAttribute("officeData"));
-            return "multi-firm-user/select-user-offices";
-        }
-
-        List<String> selectedOffices = officesForm.getOffices() != null ? officesForm.getOffices() : new ArrayList<>();
-        session.setAttribute("userOffices", selectedOffices);
-        session.setAttribute("officesForm", officesForm);
-
-        return "redirect:/admin/multi-firm/user/add/profile/check-answers";
     }
 
     @GetMapping("/user/add/profile/check-answers")
@@ -1037,9 +1062,7 @@ public class MultiFirmUserController {
     private void clearSessionAttributes(HttpSession session) {
         session.removeAttribute("addUserProfileAllSelectedRoles");
         session.removeAttribute("addProfileSelectedApps");
-        session.removeAttribute("addProfileUserAppsModel");
         session.removeAttribute("addProfileUserOfficesModel");
-        session.removeAttribute("addProfileUserRolesModel");
         session.removeAttribute("roleSelectableAppIndexes");
         session.removeAttribute("addUserProfileAllSelectedRoles");
         session.removeAttribute("entraUser");
@@ -1048,6 +1071,7 @@ public class MultiFirmUserController {
         session.removeAttribute("userOffices");
         session.removeAttribute("userProfile");
         session.removeAttribute("officesForm");
+        session.removeAttribute("officeSelection");
         session.removeAttribute("delegateTargetFirmId");
         session.removeAttribute("firmSearchForm");
         session.removeAttribute("firm");
@@ -0,0 +1,61 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.service.AccessControlService;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.OfficeService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Paginated office search for office pickers, so that a firm's offices can be browsed a page at
+ * a time rather than all rendered at once.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin")
+public class OfficeSearchController {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final LoginService loginService;
+    private final FirmService firmService;
+    private final OfficeService officeService;
+    private final AccessControlService accessControlService;
+
+    @GetMapping("/user/offices/search")
+    @ResponseBody
+    @PreAuthorize("@accessControlService.authenticatedUserHasAnyGivenPermissions(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).VIEW_EXTERNAL_USER,"
+            + "T(uk.gov.justice.laa.portal.landingpage.entity.Permission).VIEW_INTERNAL_USER)")
+    public PaginatedOffices searchOffices(Authentication authentication,
+                                          @RequestParam("firmId") UUID firmId,
+                                          @RequestParam(value = "q", defaultValue = "") String query,
+                                          @RequestParam(value = "page", defaultValue = "1") int page,
+                                          @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (!accessControlService.authenticatedUserIsInternal()) {
+            EntraUser entraUser = loginService.getCurrentEntraUser(authentication);
+            boolean ownFirm = firmService.getUserActiveAllFirms(entraUser).stream()
+                    .anyMatch(firm -> firmId.equals(firm.getId()));
+            if (!ownFirm) {
+                log.warn("User {} attempted to search the offices of firm {} outside their firms", entraUser.getId(), firmId);
+                throw new AccessDeniedException("User does not have access to the offices of this firm");
+            }
+        }
+        int validatedSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return officeService.searchFirmOffices(List.of(firmId), query, page, validatedSize);
+    }
+}
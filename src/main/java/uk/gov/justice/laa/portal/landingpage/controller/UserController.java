@@ -44,6 +44,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.RedirectView;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -61,6 +62,7 @@ import uk.gov.justice.laa.portal.landingpage.dto.DeleteUserSuccessAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
 import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.dto.OfficeDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
 import uk.gov.justice.laa.portal.landingpage.dto.UpdateUserAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.dto.UserSearchCriteria;
@@ -70,7 +72,6 @@ import uk.gov.justice.laa.portal.landingpage.entity.DeleteUserReason;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
 import uk.gov.justice.laa.portal.landingpage.entity.InvitationStatus;
-import uk.gov.justice.laa.portal.landingpage.entity.Office;
 import uk.gov.justice.laa.portal.landingpage.entity.Permission;
 import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequest;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
@@ -93,6 +94,7 @@ import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.forms.UserDetailsForm;
 import uk.gov.justice.laa.portal.landingpage.model.DeletedUser;
 import uk.gov.justice.laa.portal.landingpage.model.OfficeModel;
+import uk.gov.justice.laa.portal.landingpage.model.OfficesJourneyState;
 import uk.gov.justice.laa.portal.landingpage.model.PaginatedUsers;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
 import uk.gov.justice.laa.portal.landingpage.model.UserRole;
@@ -133,6 +135,9 @@ public class UserController {
 
     public static final String NO_OFFICES = "NO_OFFICES";
     public static final String ALL = "ALL";
+    private static final String EDIT_USER_OFFICES = "editUserOffices";
+    private static final String GRANT_ACCESS_USER_OFFICES = "grantAccessUserOffices";
+    private static final int OFFICES_PAGE_SIZE = 20;
     private final LoginService loginService;
     private final UserService userService;
     private final OfficeService officeService;
@@ -622,32 +627,33 @@ public class UserController {
     public String disableUserReasonsGet(@PathVariable String id,
                                      DisableUserReasonForm disableUserReasonForm,
                                      Model model,
-                                     HttpSession session,
                                      Authentication authentication,
                                      String referer,
                                      String profileId) {
         if (!disableUserFeatureEnabled) {
             throw new ResponseStatusException(HttpStatusCode.valueOf(404));
         }
-        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
         EntraUserDto user = userService.getEntraUserById(id).orElseThrow();
-        UserTypeReasonDisable userTypeReasonDisable = RolesUtils.isProvideAdmin(currentUserProfile.getAppRoles())
-                ? UserTypeReasonDisable.IS_USER_DISABLE
-                : UserTypeReasonDisable.DEFAULT;
-        List<DisableUserReasonViewModel> reasons = new ArrayList<>(userAccountStatusService.getDisableUserReasons(userTypeReasonDisable).stream()
-                .map(reason -> mapper.map(reason, DisableUserReasonViewModel.class))
-                .toList());
         model.addAttribute("user", user);
-        model.addAttribute("reasons", reasons);
+        model.addAttribute("reasons", getDisableUserReasons(authentication));
         model.addAttribute("disableUserReasonsForm", disableUserReasonForm);
         model.addAttribute("referer", referer);
         String cancelPath = getCancelPathFromReferer(referer, id, profileId);
         model.addAttribute("cancelPath", cancelPath);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Disable User - " + user.getFullName());
-        session.setAttribute("disableUserReasonModel", model);
         return "disable-user-reason";
     }
 
+    private List<DisableUserReasonViewModel> getDisableUserReasons(Authentication authentication) {
+        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
+        UserTypeReasonDisable userTypeReasonDisable = RolesUtils.isProvideAdmin(currentUserProfile.getAppRoles())
+                ? UserTypeReasonDisable.IS_USER_DISABLE
+                : UserTypeReasonDisable.DEFAULT;
+        return new ArrayList<>(userAccountStatusService.getDisableUserReasons(userTypeReasonDisable).stream()
+                .map(reason -> mapper.map(reason, DisableUserReasonViewModel.class))
+                .toList());
+    }
+
     private String getCancelPathFromReferer(String referer, String entraUserId, String userProfileId) {
         if ("manage".equals(referer) && userProfileId != null) {
             return String.format("/admin/users/manage/%s", userProfileId);
@@ -666,17 +672,14 @@ public class UserController {
                                      BindingResult result,
                                      Authentication authentication,
                                      Model model,
-                                     HttpSession session,
                                      String referer) {
         if (!disableUserFeatureEnabled) {
             throw new ResponseStatusException(HttpStatusCode.valueOf(404));
         }
         if (result.hasErrors()) {
             String errorMessage = buildErrorString(result);
-            Model modelFromSession = getObjectFromHttpSession(session, "disableUserReasonModel", Model.class).orElseThrow();
-            EntraUserDto user = (EntraUserDto) modelFromSession.getAttribute("user");
-            model.addAttribute("reasons", modelFromSession.getAttribute("reasons"));
-            model.addAttribute("user", user);
+            model.addAttribute("reasons", getDisableUserReasons(authentication));
+            model.addAttribute("user", userService.getEntraUserById(id).orElseThrow());
             model.addAttribute("disableUserReasonsForm", disableUserReasonForm);
             model.addAttribute("errorMessage", errorMessage);
             return "disable-user-reason";
@@ -762,8 +765,6 @@ public class UserController {
         model.addAttribute("userDetailsForm", userDetailsForm);
         model.addAttribute("user", user);
 
-        // Store the model in session to handle validation errors later
-        session.setAttribute("createUserDetailsModel", model);
         session.setAttribute("createUserFlowStage", "user/create/details");
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Add user details");
         return "add-user-details";
@@ -799,13 +800,7 @@ public class UserController {
         if (result.hasErrors()) {
             log.debug("Validation errors occurred while creating user: {}", result.getAllErrors());
 
-            Model modelFromSession = (Model) session.getAttribute("createUserDetailsModel");
-            if (modelFromSession == null) {
-                return "redirect:/admin/user/create/details";
-            }
-
-            model.addAttribute("userTypes", modelFromSession.getAttribute("userTypes"));
-            model.addAttribute("user", modelFromSession.getAttribute("user"));
+            model.addAttribute("user", user);
             return "add-user-details";
         }
 
@@ -817,9 +812,6 @@ public class UserController {
         session.setAttribute("user", user);
         session.setAttribute("isUserManager", userDetailsForm.getUserManager());
 
-        // Clear the createUserDetailsModel from session to avoid stale data
-        session.removeAttribute("createUserDetailsModel");
-
         // Check feature flag to determine next step
         return "redirect:/admin/user/create/multi-firm";
     }
@@ -1388,14 +1380,7 @@ public class UserController {
 
         while (currentSelectedAppIndex < selectedApps.size()) {
             currentAppId = selectedApps.get(currentSelectedAppIndex);
-            FirmType userFirmType = user.getFirm() != null ? user.getFirm().getType() : null;
-            roles = userService.getAppRolesByAppIdAndUserType(currentAppId,
-                    user.getUserType(), userFirmType);
-            UserProfile editorProfile = loginService.getCurrentProfile(authentication);
-            if (!roles.isEmpty()) {
-                roles = roleAssignmentService.filterRoles(editorProfile.getAppRoles(),
-                        roles.stream().map(role -> UUID.fromString(role.getId())).toList());
-            }
+            roles = getAssignableRoles(user, currentAppId, loginService.getCurrentProfile(authentication));
             userRoles = userService.getUserAppRolesByUserId(id);
 
             // Skip role selection if there is only one selectable role
@@ -1427,25 +1412,75 @@ public class UserController {
             selectedRoles = userRoles.stream().map(AppRoleDto::getId).collect(Collectors.toList());
         }
 
-        List<AppRoleViewModel> appRoleViewModels = roles.stream()
-                .map(appRoleDto -> {
-                    AppRoleViewModel viewModel = mapper.map(appRoleDto, AppRoleViewModel.class);
-                    viewModel.setSelected(selectedRoles.contains(appRoleDto.getId()));
-                    return viewModel;
-                }).sorted().toList();
+        List<AppRoleViewModel> appRoleViewModels = toAppRoleViewModels(roles, selectedRoles);
         flagEditableAppRoles(id, appRoleViewModels);
 
         // Get the current app details
         String finalCurrentAppId = currentAppId;
         AppDto currentApp = userService.getAppByAppId(currentAppId).orElseThrow(() ->
             new IllegalArgumentException("App not found with ID: " + finalCurrentAppId));
+        addAppRolesAttributes(currentApp, appRoleViewModels, model);
+
+        model.addAttribute("user", user);
+        model.addAttribute("editUserRolesSelectedAppIndex", currentSelectedAppIndex);
+        model.addAttribute("editUserRolesCurrentApp", currentApp);
+        model.addAttribute("backUrl", getBackButtonUrl(id, session, currentSelectedAppIndex));
+
+        model.addAttribute(ModelAttributes.PAGE_TITLE, "Edit user roles - " + user.getFullName());
+        if (errorMessage != null) {
+            model.addAttribute("errorMessage", errorMessage);
+        }
+        return "edit-user-roles";
+    }
 
+    private void flagEditableAppRoles(String userProfileId, List<AppRoleViewModel> editableAppRoles) {
+        if (!accessControlService.canAssignAppRoles(userProfileId)) {
+            editableAppRoles.stream()
+                    .filter(appRole -> !appRole.isSelected())
+                    .forEach(appRoleDto -> {
+                        appRoleDto.setChangeNotAllowed(true);
+                        appRoleDto.setHiddenFromSelection(true);
+                    });
+        }
+
+        if (!accessControlService.canRemoveAppRoles(userProfileId)) {
+            editableAppRoles.stream()
+                    .filter(AppRoleViewModel::isSelected)
+                    .forEach(appRoleDto -> appRoleDto.setChangeNotAllowed(true));
+        }
+
+    }
+
+    /**
+     * The roles of the given app that can be given to the user and that the editor is allowed to
+     * assign.
+     */
+    private List<AppRoleDto> getAssignableRoles(UserProfileDto user, String appId, UserProfile editorProfile) {
+        FirmType userFirmType = user.getFirm() != null ? user.getFirm().getType() : null;
+        List<AppRoleDto> roles = userService.getAppRolesByAppIdAndUserType(appId, user.getUserType(), userFirmType);
+        return roleAssignmentService.filterRoles(editorProfile.getAppRoles(),
+                roles.stream().map(role -> UUID.fromString(role.getId())).toList());
+    }
+
+    private List<AppRoleViewModel> toAppRoleViewModels(List<AppRoleDto> roles, Collection<String> selectedRoleIds) {
+        return roles.stream()
+                .map(appRoleDto -> {
+                    AppRoleViewModel viewModel = mapper.map(appRoleDto, AppRoleViewModel.class);
+                    viewModel.setSelected(selectedRoleIds.contains(appRoleDto.getId()));
+                    return viewModel;
+                }).sorted().toList();
+    }
+
+    /**
+     * Adds the roles to choose from for one app, organised by section for CCMS apps. The roles
+     * page is built again from these whenever it is shown, rather than kept in the session.
+     */
+    private void addAppRolesAttributes(AppDto currentApp, List<AppRoleViewModel> appRoleViewModels, Model model) {
         // Check if this is the CCMS app and organize roles by section
         boolean isCcmsApp = (currentApp.getName().contains("CCMS")
                 && !currentApp.getName().contains("CCMS case transfer requests"))
-                || roles.stream().anyMatch(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()));
+                || appRoleViewModels.stream().anyMatch(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()));
 
-        // Apply CCMS filtering before storing in model
         List<AppRoleViewModel> finalRoles = appRoleViewModels;
 
         if (isCcmsApp) {
@@ -1466,7 +1501,6 @@ public class UserController {
                                         Map.Entry::getKey,
                                         e -> !e.getValue().isEmpty()
                                 ));
-                // Use filtered CCMS roles for both display and session storage
                 finalRoles = ccmsRoles;
             } else {
                 // No CCMS roles found - initialize with empty maps to prevent NPE in template
@@ -1489,38 +1523,7 @@ public class UserController {
         } else {
             model.addAttribute("isCcmsApp", false);
         }
-
-        model.addAttribute("user", user);
         model.addAttribute("roles", finalRoles);
-        model.addAttribute("editUserRolesSelectedAppIndex", currentSelectedAppIndex);
-        model.addAttribute("editUserRolesCurrentApp", currentApp);
-        model.addAttribute("backUrl", getBackButtonUrl(id, session, currentSelectedAppIndex));
-
-        session.setAttribute("editProfileUserRolesModel", model);
-
-        model.addAttribute(ModelAttributes.PAGE_TITLE, "Edit user roles - " + user.getFullName());
-        if (errorMessage != null) {
-            model.addAttribute("errorMessage", errorMessage);
-        }
-        return "edit-user-roles";
-    }
-
-    private void flagEditableAppRoles(String userProfileId, List<AppRoleViewModel> editableAppRoles) {
-        if (!accessControlService.canAssignAppRoles(userProfileId)) {
-            editableAppRoles.stream()
-                    .filter(appRole -> !appRole.isSelected())
-                    .forEach(appRoleDto -> {
-                        appRoleDto.setChangeNotAllowed(true);
-                        appRoleDto.setHiddenFromSelection(true);
-                    });
-        }
-
-        if (!accessControlService.canRemoveAppRoles(userProfileId)) {
-            editableAppRoles.stream()
-                    .filter(AppRoleViewModel::isSelected)
-                    .forEach(appRoleDto -> appRoleDto.setChangeNotAllowed(true));
-        }
-
     }
 
     /**
@@ -1538,44 +1541,34 @@ public class UserController {
     public String updateUserRoles(@PathVariable String id,
             @Valid RolesForm rolesForm, BindingResult result,
             @RequestParam int selectedAppIndex,
+            Authentication authentication,
             HttpSession session, Model model) {
 
-        Model modelFromSession = (Model) session.getAttribute("editProfileUserRolesModel");
-        if (modelFromSession == null) {
+        List<String> selectedApps = getListFromHttpSession(session, "selectedApps", String.class)
+                .orElseGet(ArrayList::new);
+        if (selectedAppIndex < 0 || selectedAppIndex >= selectedApps.size()) {
             return "redirect:/admin/users/edit/" + id + "/roles?selectedAppIndex=" + selectedAppIndex;
         }
-        @SuppressWarnings("unchecked")
-        List<AppRoleViewModel> rolesFromSession = (List<AppRoleViewModel>) modelFromSession.getAttribute("roles");
-        boolean noRolesAvailable = rolesFromSession == null || rolesFromSession.isEmpty();
-        if (result.hasErrors() && !noRolesAvailable) {
+        if (result.hasErrors()) {
             final UserProfileDto user = userService.getUserProfileById(id).orElseThrow();
-            log.debug("Validation errors occurred while setting user roles: {}", result.getAllErrors());
-            List<AppRoleViewModel> roles = rolesFromSession;
-            if (roles != null) {
-                List<String> selectedRoleIds = rolesForm.getRoles() != null ? rolesForm.getRoles() : new ArrayList<>();
-                roles.forEach(role -> {
-                    if (!selectedRoleIds.contains(role.getId())) {
-                        role.setSelected(false);
-                    }
-                });
-            }
-            model.addAttribute("user", user);
-            model.addAttribute("roles", roles);
-            model.addAttribute("entraUser", modelFromSession.getAttribute("entraUser"));
-            model.addAttribute("editUserRolesSelectedAppIndex", selectedAppIndex);
-            model.addAttribute("editUserRolesCurrentApp",
-                    modelFromSession.getAttribute("editUserRolesCurrentApp"));
-
-            // Add CCMS attributes if this is a CCMS app
-            if (modelFromSession.getAttribute("isCcmsApp") != null) {
-                model.addAttribute("isCcmsApp", modelFromSession.getAttribute("isCcmsApp"));
-                model.addAttribute("ccmsRolesBySection", modelFromSession.getAttribute("ccmsRolesBySection"));
-                model.addAttribute("ccmsRoleDisplayFlags", modelFromSession.getAttribute("ccmsRoleDisplayFlags"));
-            }
+            String appId = selectedApps.get(selectedAppIndex);
+            List<AppRoleDto> roles = getAssignableRoles(user, appId, loginService.getCurrentProfile(authentication));
+            if (!roles.isEmpty()) {
+                log.debug("Validation errors occurred while setting user roles: {}", result.getAllErrors());
+                List<AppRoleViewModel> appRoleViewModels = toAppRoleViewModels(roles,
+                        rolesForm.getRoles() != null ? rolesForm.getRoles() : List.of());
+                flagEditableAppRoles(id, appRoleViewModels);
+                AppDto currentApp = userService.getAppByAppId(appId).orElseThrow(() ->
+                        new IllegalArgumentException("App not found with ID: " + appId));
+                addAppRolesAttributes(currentApp, appRoleViewModels, model);
 
-            model.addAttribute("backUrl", getBackButtonUrl(id, session, selectedAppIndex));
+                model.addAttribute("user", user);
+                model.addAttribute("editUserRolesSelectedAppIndex", selectedAppIndex);
+                model.addAttribute("editUserRolesCurrentApp", currentApp);
+                model.addAttribute("backUrl", getBackButtonUrl(id, session, selectedAppIndex));
 
-            return "edit-user-roles";
+                return "edit-user-roles";
+            }
         }
 
         model.addAttribute("backUrl", getBackButtonUrl(id, session, selectedAppIndex));
@@ -1592,8 +1585,6 @@ public class UserController {
             allSelectedRolesByPage.put(selectedAppIndex, new ArrayList<>());
         }
         session.setAttribute("editUserAllSelectedRoles", allSelectedRolesByPage);
-        List<String> selectedApps = getListFromHttpSession(session, "selectedApps", String.class)
-                .orElseGet(ArrayList::new);
         // Ensure passed in ID is a valid UUID to avoid open redirects.
         UUID uuid = UUID.fromString(id);
         if (selectedAppIndex >= selectedApps.size() - 1) {
@@ -1785,122 +1776,64 @@ public class UserController {
 
     @GetMapping("/users/edit/{id}/offices")
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).EDIT_USER_OFFICE) && @accessControlService.canEditUser(#id)")
-    public String editUserOffices(@PathVariable String id, Model model, Authentication authentication, HttpSession session) {
+    public String editUserOffices(@PathVariable String id,
+                                  @RequestParam(value = "search", defaultValue = "") String search,
+                                  @RequestParam(value = "page", defaultValue = "1") int page,
+                                  Model model, Authentication authentication, HttpSession session) {
         UserProfileDto user = userService.getUserProfileById(id).orElseThrow();
-        session.removeAttribute("editUserOfficesModel");
-        // Get user's current offices
-        List<OfficeDto> userOffices = userService.getUserOfficesByUserId(id);
-        Set<String> userOfficeIds = userOffices.stream()
-                .map(office -> office.getId().toString())
-                .collect(Collectors.toSet());
-
-        // Get user's available offices by firm
-        List<FirmDto> userFirms = firmService.getUserFirmsByUserId(id);
-        List<UUID> firmIds = userFirms.stream().map(FirmDto::getId).collect(Collectors.toList());
-        List<Office> allOffices = officeService.getOfficesByFirms(firmIds);
-
-        // Check if user has access to all offices or no office
-        // Create form object or load from session if exist
-        OfficesForm officesForm = (OfficesForm) session.getAttribute("officesForm");
-        List<String> selectedOffices = new ArrayList<>();
-        AllOfficesNoOffice result = new AllOfficesNoOffice(false, false);
-        if (officesForm == null) {
-            officesForm = new OfficesForm();
-            if (userOfficeIds.isEmpty()) {
-                if (user.isUnrestrictedOfficeAccess()) {
-                    result = new AllOfficesNoOffice(true, false);
-                    selectedOffices.add(ALL);
-                } else {
-                    result = new AllOfficesNoOffice(false, true);
-                    selectedOffices.add(NO_OFFICES);
-                }
-            } else {
-                selectedOffices.addAll(userOfficeIds);
-            }
-            officesForm.setOffices(selectedOffices);
-        } else {
-            result = verifyAllOffices(Optional.of(officesForm.getOffices()), user, userOffices);
-            if (result.hasAllOffices()) {
-                selectedOffices.add(ALL);
-            } else if (result.hasNoOffices()) {
-                selectedOffices.add(NO_OFFICES);
-            } else {
-                selectedOffices.addAll(officesForm.getOffices());
-                userOfficeIds = new HashSet<>(officesForm.getOffices());
-            }
-        }
-
-        Set<String> finalUserOfficeIds = userOfficeIds;
-        final List<OfficeModel> officeData = allOffices.stream()
-                .map(office -> new OfficeModel(
-                        office.getCode(),
-                        office.getAddress() == null ? null :
-                                new OfficeModel.Address(office.getAddress().getAddressLine1(),
-                                        office.getAddress().getAddressLine2(),
-                                        office.getAddress().getAddressLine3(),
-                                        office.getAddress().getCity(), office.getAddress().getPostcode()),
-                        office.getId().toString(),
-                        finalUserOfficeIds.contains(office.getId().toString())))
-                .collect(Collectors.toList());
-        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
-        boolean shouldShowNoOffice = shouldShowNoOfficeOption(currentUserProfile, user, session);
-        model.addAttribute("user", user);
-        model.addAttribute("officesForm", officesForm);
-        model.addAttribute("officeData", officeData);
-        model.addAttribute("hasAllOffices", result.hasAllOffices());
-        model.addAttribute("hasNoOffices", result.hasNoOffices());
-        model.addAttribute("shouldShowNoOffice", shouldShowNoOffice);
-        // Store the model in session to handle validation errors later
-        session.setAttribute("editUserOfficesModel", model);
+        // Carry on with the offices already picked on this journey, or start from the user's current offices
+        OfficesJourneyState journey = getOfficesJourney(session, EDIT_USER_OFFICES, id)
+                .orElseGet(() -> new OfficesJourneyState(id,
+                        shouldShowNoOfficeOption(loginService.getCurrentProfile(authentication), user, session),
+                        getCurrentOffices(id, user)));
+        session.setAttribute(EDIT_USER_OFFICES, journey);
+        addOfficePickerAttributes(user, journey, search, page, model);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Edit user offices - " + user.getFullName());
         return "edit-user-offices";
     }
 
     /**
-     * Update user offices
+     * Update user offices. Records the offices ticked on the page shown, then either moves to
+     * another page of offices or, on continue, finishes the office selection. Offices ticked on
+     * other pages are kept.
      *
-     * @param id          User ID
-     * @param officesForm Offices form with selected office IDs
-     * @param result      Binding result for validation errors
-     * @param model       Model for the view
-     * @param session     HttpSession to store office data
-     * @return Redirect to user management page
-     * @throws IOException If an error occurs during user office update
+     * @param id           User ID
+     * @param officesForm  Offices form with the office IDs ticked on the page shown
+     * @param result       Binding result for validation errors
+     * @param shownOffices The offices that were shown on the page
+     * @param model        Model for the view
+     * @param session      HttpSession to store office data
+     * @return Redirect to the check answers page, or to another page of offices
      */
     @PostMapping("/users/edit/{id}/offices")
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).EDIT_USER_OFFICE) && @accessControlService.canEditUser(#id)")
     public String updateUserOffices(@PathVariable String id,
-            @Valid OfficesForm officesForm, BindingResult result,
+            OfficesForm officesForm, BindingResult result,
+            @RequestParam(value = "shownOffices", required = false) List<UUID> shownOffices,
+            @RequestParam(value = "search", defaultValue = "") String search,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "goToPage", required = false) Integer goToPage,
+            @RequestParam(value = "action", required = false) String action,
             Model model, HttpSession session) {
-        if (result.hasErrors()) {
-            log.debug("Validation errors occurred while updating user offices: {}", result.getAllErrors());
-            // If there are validation errors, return to the edit user offices page with
-            // errors
-            Model modelFromSession = (Model) session.getAttribute("editUserOfficesModel");
-            if (modelFromSession == null) {
-                return "redirect:/admin/users/edit/" + id + "/offices";
-            }
-            @SuppressWarnings("unchecked")
-            List<OfficeModel> officeData = (List<OfficeModel>) modelFromSession.getAttribute("officeData");
-
-            // make sure selected offices are not selected if validation errors occur
-            if (officeData != null) {
-                List<String> selectedOfficeIds = officesForm.getOffices() != null ? officesForm.getOffices()
-                        : new ArrayList<>();
-                officeData.forEach(office -> {
-                    if (!selectedOfficeIds.contains(office.getId())) {
-                        office.setSelected(false);
-                    }
-                });
-            }
-
-            model.addAttribute("user", modelFromSession.getAttribute("user"));
-            model.addAttribute("officeData", modelFromSession.getAttribute("officeData"));
-            model.addAttribute("shouldShowNoOffice", modelFromSession.getAttribute("shouldShowNoOffice"));
+        Optional<OfficesJourneyState> journey = getOfficesJourney(session, EDIT_USER_OFFICES, id);
+        if (journey.isEmpty()) {
+            return "redirect:/admin/users/edit/" + id + "/offices";
+        }
+        OfficesJourneyState selection = journey.get();
+        selection.update(shownOffices, officesForm.getOffices());
+        session.setAttribute(EDIT_USER_OFFICES, selection);
 
+        if (goToPage != null || "search".equals(action)) {
+            return "redirect:" + getOfficesPageUrl("/admin/users/edit/{id}/offices", id, search, goToPage);
+        }
+        if (selection.isEmpty()) {
+            log.debug("No offices selected while updating user offices");
+            result.rejectValue("offices", "offices.required", "Office selection is required");
+            addOfficePickerAttributes(userService.getUserProfileById(id).orElseThrow(), selection, search, page, model);
             return "edit-user-offices";
         }
-        session.setAttribute("officesForm", officesForm);
+        selection.choose();
+        session.setAttribute(EDIT_USER_OFFICES, selection);
         return "redirect:/admin/users/edit/" + id + "/offices-check-answer";
     }
 
@@ -1908,30 +1841,19 @@ public class UserController {
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).EDIT_USER_OFFICE) && @accessControlService.canEditUser(#id)")
     public String updateUserOfficesCheck(@PathVariable String id,
             Model model, HttpSession session) {
-        OfficesForm officesForm = (OfficesForm) session.getAttribute("officesForm");
-        if (officesForm == null) {
+        Optional<List<String>> chosenOffices = getOfficesJourney(session, EDIT_USER_OFFICES, id)
+                .map(OfficesJourneyState::getOffices);
+        if (chosenOffices.isEmpty()) {
             return "redirect:/admin/journey-completed";
         }
         // Update user offices
-        List<String> selectedOffices = officesForm.getOffices() != null ? officesForm.getOffices() : new ArrayList<>();
+        List<String> selectedOffices = chosenOffices.get();
         List<OfficeModel> selectOfficesDisplay = new ArrayList<>();
         if (!(selectedOffices.contains(ALL) || selectedOffices.contains(NO_OFFICES))) {
-            Model modelFromSession = (Model) session.getAttribute("editUserOfficesModel");
-            if (modelFromSession != null) {
-                @SuppressWarnings("unchecked")
-                List<OfficeModel> officeData = (List<OfficeModel>) modelFromSession.getAttribute("officeData");
-                if (officeData != null) {
-                    List<String> selectedOfficeIds = officesForm.getOffices() != null ? officesForm.getOffices()
-                            : new ArrayList<>();
-                    for (OfficeModel office : officeData) {
-                        if (selectedOfficeIds.contains(office.getId())) {
-                            selectOfficesDisplay.add(office);
-                        }
-                    }
-                }
-            }
+            officeService.getOfficesByIds(selectedOffices).stream()
+                    .map(office -> toOfficeModel(office, true))
+                    .forEach(selectOfficesDisplay::add);
         }
-        Model modelFromSession = (Model) session.getAttribute("editUserOfficesModel");
         Comparator<String> cityOrder = Comparator
                 .comparing((String city) -> city.equals("Other cities"))
                 .thenComparing(Comparator.naturalOrder());
@@ -1952,7 +1874,7 @@ public class UserController {
                 ));
         model.addAttribute("userOffices", selectOfficesDisplay);
         model.addAttribute("officesByCity", officesByCity);
-        model.addAttribute("user", modelFromSession.getAttribute("user"));
+        model.addAttribute("user", userService.getUserProfileById(id).orElseThrow());
         model.addAttribute("hasAllOffices", selectedOffices.getFirst().equals(ALL));
         model.addAttribute("hasNoOffices", selectedOffices.getFirst().equals(NO_OFFICES));
         return "edit-user-offices-check-answer";
@@ -1963,13 +1885,14 @@ public class UserController {
     public String updateUserOfficesSubmit(@PathVariable String id,
             Authentication authentication,
             HttpSession session) throws IOException {
-        OfficesForm officesForm = (OfficesForm) session.getAttribute("officesForm");
-        if (officesForm == null) {
+        Optional<List<String>> chosenOffices = getOfficesJourney(session, EDIT_USER_OFFICES, id)
+                .map(OfficesJourneyState::getOffices);
+        if (chosenOffices.isEmpty()) {
             return "redirect:/admin/journey-completed";
         }
         // Update user offices
         UserProfileDto userProfileDto = userService.getUserProfileById(id).orElseThrow();
-        List<String> selectedOffices = officesForm.getOffices() != null ? officesForm.getOffices() : new ArrayList<>();
+        List<String> selectedOffices = chosenOffices.get();
 
         String changed = userService.updateUserOffices(id, selectedOffices);
         CurrentUserDto currentUserDto = loginService.getCurrentUser(authentication);
@@ -1980,9 +1903,8 @@ public class UserController {
                 changed, "office");
         eventService.logEvent(updateUserAuditEvent);
         notifyExternalUserRoleChange(userProfileDto, changed, "Offices");
-        // Clear the session model
-        session.removeAttribute("editUserOfficesModel");
-        session.removeAttribute("officesForm");
+        // Clear the journey state
+        session.removeAttribute(EDIT_USER_OFFICES);
         return "redirect:/admin/users/edit/" + id + "/confirmation";
     }
 
@@ -2028,8 +1950,7 @@ public class UserController {
         // Edit User Apps Form
 
         // Edit User Offices Form
-        session.removeAttribute("editUserOfficesModel");
-        session.removeAttribute("officesForm");
+        session.removeAttribute(EDIT_USER_OFFICES);
 
         // Convert to Multi-Firm Form
         session.removeAttribute("convertToMultiFirmForm");
@@ -2179,36 +2100,18 @@ public class UserController {
             return "redirect:/admin/users/manage/" + id;
         }
 
-        Set<AppDto> userAssignedApps = userService.getUserAppsByUserId(id);
-        List<AppDto> availableApps = userService.getAppsByUserType(userType);
-
-        List<AppDto> editableApps = availableApps.stream()
-                .filter(AppDto::isEnabled)
-                .filter(app -> roleAssignmentService.canUserAssignRolesForApp(editorUserProfile, app))
-                .sorted()
-                .toList();
-
-        Optional<List<String>> selectedApps = getListFromHttpSession(session, "grantAccessSelectedApps", String.class);
-        if (selectedApps.isPresent()) {
-            editableApps.forEach(app -> app.setSelected(selectedApps.get().contains(app.getId())));
-        } else {
-            editableApps.forEach(app -> {
-                app.setSelected(userAssignedApps.stream()
-                        .anyMatch(userApp -> userApp.getId().equals(app.getId())));
-            });
-        }
+        Set<String> selectedAppIds = getListFromHttpSession(session, "grantAccessSelectedApps", String.class)
+                .<Set<String>>map(HashSet::new)
+                .orElseGet(() -> userService.getUserAppsByUserId(id).stream()
+                        .map(AppDto::getId)
+                        .collect(Collectors.toSet()));
 
         session.removeAttribute("roleSelectableAppIndexes");
-        model.addAttribute("user", user);
-        model.addAttribute("apps", editableApps);
-        model.addAttribute("groupedApps", appService.buildGroupedApps(editableApps));
+        addGrantAccessAppsAttributes(user, editorUserProfile, selectedAppIds, model);
 
         // Clear role selections
-        session.removeAttribute("grantAccessUserRolesModel");
         session.removeAttribute("nonEditableRoles");
 
-        // Store the model in session to handle validation errors later
-        session.setAttribute("grantAccessUserAppsModel", model);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Grant access - Select services - " + user.getFullName());
         return "grant-access-user-apps";
     }
@@ -2221,20 +2124,9 @@ public class UserController {
             Model model, HttpSession session) {
         if (result.hasErrors()) {
             log.debug("Validation errors occurred while selecting apps: {}", result.getAllErrors());
-            // If there are validation errors, return to the apps page with errors
-            Model modelFromSession = (Model) session.getAttribute("grantAccessUserAppsModel");
-            if (modelFromSession == null) {
-                // If no model in session, redirect to apps page to repopulate
-                return "redirect:/admin/users/grant-access/" + id + "/apps";
-            }
-            // unchecked all the apps
-            List<AppDto> apps = (List<AppDto>) modelFromSession.getAttribute("apps");
-            if (apps != null) {
-                apps.forEach(app -> app.setSelected(false));
-            }
-            model.addAttribute("user", modelFromSession.getAttribute("user"));
-            model.addAttribute("apps", apps);
-            model.addAttribute("groupedApps", appService.buildGroupedApps(apps != null ? apps : List.of()));
+            // If there are validation errors, return to the apps page with none of the apps ticked
+            addGrantAccessAppsAttributes(userService.getUserProfileById(id).orElseThrow(),
+                    loginService.getCurrentProfile(authentication), Set.of(), model);
             return "grant-access-user-apps";
         }
 
@@ -2258,14 +2150,28 @@ public class UserController {
         session.setAttribute("nonEditableRoles", nonEditableRoles);
         session.setAttribute("grantAccessSelectedApps", selectedApps);
 
-        // Clear the grantAccessUserAppsModel from session to avoid stale data
-        session.removeAttribute("grantAccessUserAppsModel");
-
         // Ensure passed in ID is a valid UUID to avoid open redirects.
         UUID uuid = UUID.fromString(id);
         return "redirect:/admin/users/grant-access/" + uuid + "/roles";
     }
 
+    /**
+     * Adds the enabled apps the editor can assign roles for, with the given ones ticked.
+     */
+    private void addGrantAccessAppsAttributes(UserProfileDto user, UserProfile editorUserProfile,
+                                              Set<String> selectedAppIds, Model model) {
+        List<AppDto> editableApps = userService.getAppsByUserType(user.getUserType()).stream()
+                .filter(AppDto::isEnabled)
+                .filter(app -> roleAssignmentService.canUserAssignRolesForApp(editorUserProfile, app))
+                .sorted()
+                .toList();
+        editableApps.forEach(app -> app.setSelected(selectedAppIds.contains(app.getId())));
+
+        model.addAttribute("user", user);
+        model.addAttribute("apps", editableApps);
+        model.addAttribute("groupedApps", appService.buildGroupedApps(editableApps));
+    }
+
     /**
      * Grant Access Flow - Retrieves available roles for user and their currently
      * assigned roles.
@@ -2314,12 +2220,7 @@ public class UserController {
         List<AppRoleDto> roles = List.of();
 
         while (currentSelectedAppIndex < selectedApps.size()) {
-
-            FirmType userFirmType = user.getFirm() != null ? user.getFirm().getType() : null;
-            roles = userService.getAppRolesByAppIdAndUserType(selectedApps.get(currentSelectedAppIndex),
-                    user.getUserType(), userFirmType);
-            roles = roleAssignmentService.filterRoles(editorUserProfile.getAppRoles(),
-                    roles.stream().map(role -> UUID.fromString(role.getId())).toList());
+            roles = getAssignableRoles(user, selectedApps.get(currentSelectedAppIndex), editorUserProfile);
 
             // Skip role selection if there is only one selectable role
             if (roles.size() != 1) {
@@ -2360,70 +2261,11 @@ public class UserController {
         Set<String> selectedRoles = getSetFromHttpSession(session, "allSelectedRoles", String.class)
                 .orElseGet(() -> userRoles.stream().map(AppRoleDto::getId).collect(Collectors.toSet()));
 
-        List<AppRoleViewModel> appRoleViewModels = roles.stream()
-                .map(appRoleDto -> {
-                    AppRoleViewModel viewModel = mapper.map(appRoleDto, AppRoleViewModel.class);
-                    viewModel.setSelected(selectedRoles.contains(appRoleDto.getId()));
-                    return viewModel;
-                }).sorted().toList();
-
-        // Check if this is the CCMS app and organize roles by section
-        boolean isCcmsApp = (currentApp.getName().contains("CCMS")
-                && !currentApp.getName().contains("CCMS case transfer requests"))
-                || roles.stream().anyMatch(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()));
-
-        // Apply CCMS filtering before storing in model/session
-        List<AppRoleViewModel> finalRoles = appRoleViewModels;
-
-        if (isCcmsApp) {
-            // Filter to only CCMS roles for organization
-            List<AppRoleViewModel> ccmsRoles = appRoleViewModels.stream()
-                    .filter(role -> CcmsRoleGroupsUtil.isCcmsRole(role.getCcmsCode()))
-                    .sorted().collect(Collectors.toList());
-
-            Map<String, List<AppRoleViewModel>> organizedRoles;
-            Map<String, Boolean> organizedRoleDisplayFlags;
-
-            if (!ccmsRoles.isEmpty()) {
-                organizedRoles = CcmsRoleGroupsUtil.organizeCcmsRolesBySection(ccmsRoles);
-                organizedRoleDisplayFlags =
-                        organizedRoles.entrySet().stream()
-                                .collect(Collectors.toMap(
-                                        Map.Entry::getKey,
-                                        e -> !e.getValue().isEmpty()
-                                ));
-                // Use filtered CCMS roles for both display and session storage
-                finalRoles = ccmsRoles;
-            } else {
-                // No CCMS roles found - initialize with empty maps to prevent NPE in template
-                organizedRoles = new LinkedHashMap<>();
-                organizedRoles.put("Provider", new ArrayList<>());
-                organizedRoles.put("Chambers", new ArrayList<>());
-                organizedRoles.put("Advocate", new ArrayList<>());
-                organizedRoles.put("Other", new ArrayList<>());
-
-                organizedRoleDisplayFlags = new HashMap<>();
-                organizedRoleDisplayFlags.put("Provider", false);
-                organizedRoleDisplayFlags.put("Chambers", false);
-                organizedRoleDisplayFlags.put("Advocate", false);
-                organizedRoleDisplayFlags.put("Other", false);
-            }
-
-            model.addAttribute("ccmsRolesBySection", organizedRoles);
-            model.addAttribute("ccmsRoleDisplayFlags", organizedRoleDisplayFlags);
-            model.addAttribute("isCcmsApp", true);
-        } else {
-            model.addAttribute("isCcmsApp", false);
-        }
-
+        addAppRolesAttributes(currentApp, toAppRoleViewModels(roles, selectedRoles), model);
         model.addAttribute("user", user);
-        model.addAttribute("roles", finalRoles);
         model.addAttribute("grantAccessSelectedAppIndex", currentSelectedAppIndex);
         model.addAttribute("grantAccessCurrentApp", currentApp);
 
-        // Store the model in session to handle validation errors later and track
-        // currently selected app.
-        session.setAttribute("grantAccessUserRolesModel", model);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Grant access - Select roles - " + user.getFullName());
         return "grant-access-user-roles";
     }
@@ -2438,41 +2280,27 @@ public class UserController {
             @RequestParam int selectedAppIndex,
             Authentication authentication,
             Model model, HttpSession session) {
-        Model modelFromSession = (Model) session.getAttribute("grantAccessUserRolesModel");
-        if (modelFromSession == null) {
+        List<String> selectedApps = getListFromHttpSession(session, "grantAccessSelectedApps", String.class)
+                .orElseGet(ArrayList::new);
+        if (selectedAppIndex < 0 || selectedAppIndex >= selectedApps.size()) {
             return "redirect:/admin/users/grant-access/" + id + "/roles";
         }
         if (result.hasErrors()) {
             log.debug("Validation errors occurred while setting user roles: {}", result.getAllErrors());
             // If there are validation errors, return to the roles page with errors
-            @SuppressWarnings("unchecked")
-            List<AppRoleViewModel> roles = (List<AppRoleViewModel>) modelFromSession.getAttribute("roles");
-            if (roles != null) {
-                List<String> selectedRoleIds = rolesForm.getRoles() != null ? rolesForm.getRoles() : new ArrayList<>();
-                roles.forEach(role -> {
-                    if (!selectedRoleIds.contains(role.getId())) {
-                        role.setSelected(false);
-                    }
-                });
-            }
-            model.addAttribute("roles", roles);
-            model.addAttribute("user", modelFromSession.getAttribute("user"));
-            model.addAttribute("grantAccessSelectedAppIndex",
-                    modelFromSession.getAttribute("grantAccessSelectedAppIndex"));
-            model.addAttribute("grantAccessCurrentApp", modelFromSession.getAttribute("grantAccessCurrentApp"));
-
-            if (modelFromSession.getAttribute("isCcmsApp") != null) {
-                model.addAttribute("isCcmsApp", modelFromSession.getAttribute("isCcmsApp"));
-                model.addAttribute("ccmsRolesBySection", modelFromSession.getAttribute("ccmsRolesBySection"));
-                model.addAttribute("ccmsRoleDisplayFlags", modelFromSession.getAttribute("ccmsRoleDisplayFlags"));
-            }
+            UserProfileDto user = userService.getUserProfileById(id).orElseThrow();
+            String appId = selectedApps.get(selectedAppIndex);
+            List<AppRoleDto> roles = getAssignableRoles(user, appId, loginService.getCurrentProfile(authentication));
+            AppDto currentApp = userService.getAppByAppId(appId).orElseThrow();
+            addAppRolesAttributes(currentApp, toAppRoleViewModels(roles,
+                    rolesForm.getRoles() != null ? rolesForm.getRoles() : List.of()), model);
+            model.addAttribute("user", user);
+            model.addAttribute("grantAccessSelectedAppIndex", selectedAppIndex);
+            model.addAttribute("grantAccessCurrentApp", currentApp);
 
             return "grant-access-user-roles";
         }
 
-        UserProfileDto user = userService.getUserProfileById(id).orElse(null);
-        List<String> selectedApps = getListFromHttpSession(session, "grantAccessSelectedApps", String.class)
-                .orElseGet(ArrayList::new);
         @SuppressWarnings("unchecked")
         Map<Integer, List<String>> allSelectedRolesByPage = (Map<Integer, List<String>>) session
                 .getAttribute("grantAccessAllSelectedRoles");
@@ -2497,9 +2325,7 @@ public class UserController {
 
             return "redirect:/admin/users/grant-access/" + id + "/offices";
         } else {
-            modelFromSession.addAttribute("grantAccessSelectedAppIndex", selectedAppIndex + 1);
             session.setAttribute("grantAccessAllSelectedRoles", allSelectedRolesByPage);
-            session.setAttribute("grantAccessUserRolesModel", modelFromSession);
             // Ensure passed in ID is a valid UUID to avoid open redirects.
             UUID uuid = UUID.fromString(id);
             return "redirect:/admin/users/grant-access/" + uuid + "/roles?selectedAppIndex=" + (selectedAppIndex + 1);
@@ -2512,71 +2338,19 @@ public class UserController {
     @GetMapping("/users/grant-access/{id}/offices")
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).EDIT_USER_OFFICE)"
             + " && @accessControlService.canGrantUserAccess(#id)")
-    public String grantAccessEditUserOffices(@PathVariable String id, Model model, Authentication authentication, HttpSession session) {
-        Optional<List<String>> selectedOfficesOptional = getListFromHttpSession(session, "selectedOffices", String.class);
-        List<OfficeDto> userOffices = List.of();
-
-        if (selectedOfficesOptional.isEmpty()) {
-            userOffices = userService.getUserOfficesByUserId(id);
-        } else {
-            List<String> selectedOffices = selectedOfficesOptional.get();
-            if (!selectedOffices.isEmpty()
-                    && !(selectedOffices.contains(ALL) || selectedOffices.contains(NO_OFFICES))) {
-                userOffices = officeService.getOfficesByIds(selectedOfficesOptional.get());
-            }
-        }
-        // Get user's current offices
-        Set<String> userOfficeIds = userOffices.stream()
-                .map(office -> office.getId().toString())
-                .collect(Collectors.toSet());
-
-        // Get user's available offices by firm
-        List<FirmDto> userFirms = firmService.getUserFirmsByUserId(id);
-        List<UUID> firmIds = userFirms.stream().map(FirmDto::getId).collect(Collectors.toList());
-        List<Office> allOffices = officeService.getOfficesByFirms(firmIds);
-
-        // Check if user has access to all offices
+    public String grantAccessEditUserOffices(@PathVariable String id,
+                                             @RequestParam(value = "search", defaultValue = "") String search,
+                                             @RequestParam(value = "page", defaultValue = "1") int page,
+                                             Model model, Authentication authentication, HttpSession session) {
         UserProfileDto user = userService.getUserProfileById(id).orElseThrow();
-
-        final List<OfficeModel> officeData = allOffices.stream()
-                .map(office -> new OfficeModel(
-                        office.getCode(),
-                        office.getAddress() == null ? null :
-                                OfficeModel.Address.builder().addressLine1(office.getAddress().getAddressLine1())
-                                        .addressLine2(office.getAddress().getAddressLine2())
-                                        .addressLine3(office.getAddress().getAddressLine3())
-                                        .city(office.getAddress().getCity())
-                                        .postcode(office.getAddress().getPostcode()).build(),
-                        office.getId().toString(),
-                        userOfficeIds.contains(office.getId().toString())))
-                .collect(Collectors.toList());
-
-        // Create form object
-        OfficesForm officesForm = new OfficesForm();
-        List<String> selectedOffices = new ArrayList<>();
-
-        AllOfficesNoOffice result = verifyAllOffices(selectedOfficesOptional, user, userOffices);
-        if (result.hasAllOffices()) {
-            selectedOffices.add(ALL);
-        } else if (result.hasNoOffices()) {
-            selectedOffices.add(NO_OFFICES);
-        } else {
-            selectedOffices.addAll(userOfficeIds);
-        }
-
-        officesForm.setOffices(selectedOffices);
-        UserProfile currentUserProfile = loginService.getCurrentProfile(authentication);
-
-        boolean shouldShowNoOffice = shouldShowNoOfficeOption(currentUserProfile, user, session);
-
-        model.addAttribute("user", user);
-        model.addAttribute("officesForm", officesForm);
-        model.addAttribute("officeData", officeData);
-        model.addAttribute("hasAllOffices", result.hasAllOffices());
-        model.addAttribute("hasNoOffices", result.hasNoOffices());
-        model.addAttribute("shouldShowNoOffice", shouldShowNoOffice);
-        // Store the model in session to handle validation errors later
-        session.setAttribute("grantAccessUserOfficesModel", model);
+        // Carry on with the offices picked on this journey, or start from the user's current offices
+        OfficesJourneyState journey = getOfficesJourney(session, GRANT_ACCESS_USER_OFFICES, id)
+                .orElseGet(() -> new OfficesJourneyState(id,
+                        shouldShowNoOfficeOption(loginService.getCurrentProfile(authentication), user, session),
+                        getListFromHttpSession(session, "selectedOffices", String.class)
+                                .orElseGet(() -> getCurrentOffices(id, user))));
+        session.setAttribute(GRANT_ACCESS_USER_OFFICES, journey);
+        addOfficePickerAttributes(user, journey, search, page, model);
         model.addAttribute(ModelAttributes.PAGE_TITLE, "Grant access - Select offices - " + user.getFullName());
         return "grant-access-user-offices";
     }
@@ -2606,20 +2380,80 @@ public class UserController {
         return shouldShowNoOffice;
     }
 
-    private static AllOfficesNoOffice verifyAllOffices(Optional<List<String>> selectedOfficesOptional, UserProfileDto user, List<OfficeDto> userOffices) {
-        boolean hasNoOffices;
-        boolean hasAllOffices;
-        if (selectedOfficesOptional.isEmpty()) {
-            hasAllOffices = user.isUnrestrictedOfficeAccess() && userOffices.isEmpty();
-            hasNoOffices = !user.isUnrestrictedOfficeAccess() && userOffices.isEmpty();
-        } else {
-            hasAllOffices = selectedOfficesOptional.get().contains(ALL);
-            hasNoOffices = selectedOfficesOptional.get().contains(NO_OFFICES);
+    /**
+     * The user's current offices as they are picked on the offices page: the office ids, or
+     * {@value #ALL} or {@value #NO_OFFICES} when the user has no offices of their own.
+     */
+    private List<String> getCurrentOffices(String userProfileId, UserProfileDto user) {
+        List<String> officeIds = userService.getUserOfficesByUserId(userProfileId).stream()
+                .map(office -> office.getId().toString())
+                .toList();
+        if (!officeIds.isEmpty()) {
+            return officeIds;
         }
-        return new AllOfficesNoOffice(hasAllOffices, hasNoOffices);
+        return List.of(user.isUnrestrictedOfficeAccess() ? ALL : NO_OFFICES);
     }
 
-    private record AllOfficesNoOffice(boolean hasAllOffices, boolean hasNoOffices) {
+    /**
+     * The offices journey for the given user kept in the session, if there is one saved by this
+     * release.
+     */
+    private static Optional<OfficesJourneyState> getOfficesJourney(HttpSession session, String attribute,
+                                                                   String userProfileId) {
+        return getObjectFromHttpSession(session, attribute, OfficesJourneyState.class)
+                .filter(journey -> journey.isFor(userProfileId));
+    }
+
+    /**
+     * Adds one page of the offices of the user's firms, searched by code, postcode or city, with
+     * the offices picked so far on the journey ticked.
+     */
+    private void addOfficePickerAttributes(UserProfileDto user, OfficesJourneyState journey, String search, int page,
+                                           Model model) {
+        List<UUID> firmIds = firmService.getUserFirmsByUserId(journey.getUserId()).stream()
+                .map(FirmDto::getId)
+                .collect(Collectors.toList());
+        PaginatedOffices officePage = officeService.searchFirmOffices(firmIds, search, page, OFFICES_PAGE_SIZE);
+        List<OfficeModel> officeData = officePage.getOffices().stream()
+                .map(office -> toOfficeModel(office, journey.isSelected(office.getId())))
+                .collect(Collectors.toList());
+
+        model.addAttribute("user", user);
+        if (!model.containsAttribute("officesForm")) {
+            model.addAttribute("officesForm", OfficesForm.builder().offices(journey.toOffices()).build());
+        }
+        model.addAttribute("officeData", officeData);
+        model.addAttribute("officePage", officePage);
+        model.addAttribute("search", search);
+        model.addAttribute("selectedOfficeCount", journey.getOfficeIds().size());
+        model.addAttribute("hasAllOffices", journey.isAllOffices());
+        model.addAttribute("hasNoOffices", journey.isNoOffices());
+        model.addAttribute("shouldShowNoOffice", journey.isShowNoOffice());
+    }
+
+    private static OfficeModel toOfficeModel(OfficeDto office, boolean selected) {
+        return new OfficeModel(
+                office.getCode(),
+                office.getAddress() == null ? null :
+                        OfficeModel.Address.builder().addressLine1(office.getAddress().getAddressLine1())
+                                .addressLine2(office.getAddress().getAddressLine2())
+                                .addressLine3(office.getAddress().getAddressLine3())
+                                .city(office.getAddress().getCity())
+                                .postcode(office.getAddress().getPostcode()).build(),
+                office.getId().toString(),
+                selected);
+    }
+
+    /**
+     * The offices page to show after searching or moving between pages of offices.
+     */
+    private static String getOfficesPageUrl(String path, String userProfileId, String search, Integer goToPage) {
+        return UriComponentsBuilder.fromPath(path)
+                .queryParam("search", search.trim())
+                .queryParam("page", goToPage != null ? goToPage : 1)
+                .encode()
+                .buildAndExpand(userProfileId)
+                .toUriString();
     }
 
     /**
@@ -2629,45 +2463,35 @@ public class UserController {
     @PreAuthorize("@accessControlService.authenticatedUserHasPermission(T(uk.gov.justice.laa.portal.landingpage.entity.Permission).EDIT_USER_OFFICE)"
             + " && @accessControlService.canGrantUserAccess(#id)")
     public String grantAccessUpdateUserOffices(@PathVariable String id,
-            @Valid OfficesForm officesForm, BindingResult result,
-            Authentication authentication,
-            Model model, HttpSession session) throws IOException {
-        if (result.hasErrors()) {
-            log.debug("Validation errors occurred while updating user offices: {}", result.getAllErrors());
-            // If there are validation errors, return to the edit user offices page with
-            // errors
-            Model modelFromSession = (Model) session.getAttribute("grantAccessUserOfficesModel");
-            if (modelFromSession == null) {
-                return "redirect:/admin/users/grant-access/" + id + "/offices";
-            }
-            @SuppressWarnings("unchecked")
-            List<OfficeModel> officeData = (List<OfficeModel>) modelFromSession.getAttribute("officeData");
-
-            // make sure selected offices are not selected if validation errors occur
-            if (officeData != null) {
-                List<String> selectedOfficeIds = officesForm.getOffices() != null ? officesForm.getOffices()
-                        : new ArrayList<>();
-                officeData.forEach(office -> {
-                    if (!selectedOfficeIds.contains(office.getId())) {
-                        office.setSelected(false);
-                    }
-                });
-            }
-
-            model.addAttribute("user", modelFromSession.getAttribute("user"));
-            model.addAttribute("officeData", modelFromSession.getAttribute("officeData"));
-            model.addAttribute("shouldShowNoOffice", modelFromSession.getAttribute("shouldShowNoOffice"));
+            OfficesForm officesForm, BindingResult result,
+            @RequestParam(value = "shownOffices", required = false) List<UUID> shownOffices,
+            @RequestParam(value = "search", defaultValue = "") String search,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "goToPage", required = false) Integer goToPage,
+            @RequestParam(value = "action", required = false) String action,
+            Model model, HttpSession session) {
+        Optional<OfficesJourneyState> journey = getOfficesJourney(session, GRANT_ACCESS_USER_OFFICES, id);
+        if (journey.isEmpty()) {
+            return "redirect:/admin/users/grant-access/" + id + "/offices";
+        }
+        OfficesJourneyState selection = journey.get();
+        selection.update(shownOffices, officesForm.getOffices());
+        session.setAttribute(GRANT_ACCESS_USER_OFFICES, selection);
 
+        if (goToPage != null || "search".equals(action)) {
+            return "redirect:" + getOfficesPageUrl("/admin/users/grant-access/{id}/offices", id, search, goToPage);
+        }
+        if (selection.isEmpty()) {
+            log.debug("No offices selected while granting access");
+            result.rejectValue("offices", "offices.required", "Office selection is required");
+            addOfficePickerAttributes(userService.getUserProfileById(id).orElseThrow(), selection, search, page, model);
             return "grant-access-user-offices";
         }
 
-        // Update user offices
-        List<String> selectedOffices = officesForm.getOffices() != null ? officesForm.getOffices() : new ArrayList<>();
-
-        session.setAttribute("selectedOffices", selectedOffices);
+        session.setAttribute("selectedOffices", selection.toOffices());
 
         // Clear grant access session data
-        session.removeAttribute("grantAccessUserOfficesModel");
+        session.removeAttribute(GRANT_ACCESS_USER_OFFICES);
 
         return "redirect:/admin/users/grant-access/" + id + "/check-answers";
     }
@@ -2912,10 +2736,9 @@ public class UserController {
         }
 
         // Clear grant access session data
-        session.removeAttribute("grantAccessUserOfficesModel");
+        session.removeAttribute(GRANT_ACCESS_USER_OFFICES);
         session.removeAttribute("grantAccessSelectedApps");
         session.removeAttribute("grantAccessUserRoles");
-        session.removeAttribute("grantAccessUserRolesModel");
         session.removeAttribute("grantAccessAllSelectedRoles");
         session.removeAttribute("selectedOffices");
         session.removeAttribute("allSelectedRoles");
@@ -2967,10 +2790,8 @@ public class UserController {
         // Clear all grant access related session attributes
         session.removeAttribute("grantAccessSelectedApps");
         session.removeAttribute("grantAccessUserRoles");
-        session.removeAttribute("grantAccessUserRolesModel");
         session.removeAttribute("grantAccessAllSelectedRoles");
-        session.removeAttribute("grantAccessUserOfficesModel");
-        session.removeAttribute("grantAccessUserAppsModel");
+        session.removeAttribute(GRANT_ACCESS_USER_OFFICES);
         session.removeAttribute("selectedOffices");
         session.removeAttribute("allSelectedRoles");
         session.removeAttribute("selectedApps");
@@ -0,0 +1,155 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.UserImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Creating the users of a firm from a CSV file. The uploaded file is checked straight away and
+ * the rows that cannot be imported are shown before anything is created; once confirmed, the
+ * users are created in the background and the outcome for each row can be downloaded.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/firmDirectory/{firmId}/import-users")
+@PreAuthorize("@accessControlService.canImportFirmUsers()")
+public class UserImportController {
+
+    private static final int ROWS_PAGE_SIZE = 50;
+
+    private final UserImportService userImportService;
+    private final FirmService firmService;
+    private final LoginService loginService;
+
+    @GetMapping
+    public String importUsers(@PathVariable UUID firmId, Model model) {
+        addUploadAttributes(firmService.getFirm(firmId), model);
+        return "firm-directory/import-users";
+    }
+
+    @PostMapping
+    public String importUsersPost(@PathVariable UUID firmId, @RequestParam(value = "file", required = false) MultipartFile file,
+                                  Model model, Authentication authentication) {
+        FirmDto firm = firmService.getFirm(firmId);
+        if (file == null || file.isEmpty()) {
+            return uploadError(firm, "Select a CSV file", model);
+        }
+        String fileName = file.getOriginalFilename();
+        if (fileName == null || !fileName.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return uploadError(firm, "The selected file must be a CSV file", model);
+        }
+
+        UserImportJob job;
+        try (InputStream in = file.getInputStream()) {
+            job = userImportService.createImport(firm, fileName, in, loginService.getCurrentUser(authentication));
+        } catch (IllegalArgumentException e) {
+            log.info("User import file for firm {} rejected: {}", firmId, e.getMessage());
+            return uploadError(firm, e.getMessage(), model);
+        } catch (IOException e) {
+            log.warn("Could not read user import file for firm {}", firmId, e);
+            return uploadError(firm, "The file could not be read", model);
+        }
+        return "redirect:/admin/firmDirectory/" + firmId + "/import-users/" + job.getId();
+    }
+
+    @GetMapping("/{jobId}")
+    public String importUsersJob(@PathVariable UUID firmId, @PathVariable UUID jobId,
+                                 @RequestParam(value = "page", defaultValue = "1") int page, Model model) {
+        UserImportJob job = getFirmJob(firmId, jobId);
+        boolean preview = job.getStatus() == UserImportJobStatus.VALIDATED;
+        Page<UserImportRow> rows = userImportService.getRows(jobId, preview ? UserImportRowStatus.INVALID : null,
+                page, ROWS_PAGE_SIZE);
+        model.addAttribute("job", job);
+        model.addAttribute("preview", preview);
+        model.addAttribute("rows", rows.getContent());
+        model.addAttribute("page", Math.max(page, 1));
+        model.addAttribute("totalPages", rows.getTotalPages());
+        model.addAttribute(ModelAttributes.PAGE_TITLE, "Import users - " + job.getFirmName());
+        return "firm-directory/import-users-job";
+    }
+
+    @PostMapping("/{jobId}/confirm")
+    public String confirmImport(@PathVariable UUID firmId, @PathVariable UUID jobId,
+                                RedirectAttributes redirectAttributes) {
+        UserImportJob job = getFirmJob(firmId, jobId);
+        try {
+            if (!userImportService.confirmImport(jobId)) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Users are already being imported for "
+                        + job.getFirmName() + ". Try again once they have been created.");
+            }
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/admin/firmDirectory/" + firmId + "/import-users/" + jobId;
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public String cancelImport(@PathVariable UUID firmId, @PathVariable UUID jobId) {
+        getFirmJob(firmId, jobId);
+        userImportService.cancelImport(jobId);
+        return "redirect:/admin/firmDirectory/" + firmId;
+    }
+
+    @GetMapping(value = "/{jobId}/results", produces = "text/csv")
+    public ResponseEntity<byte[]> downloadResults(@PathVariable UUID firmId, @PathVariable UUID jobId) {
+        UserImportJob job = getFirmJob(firmId, jobId);
+        String fileName = "user-import-results_" + job.getCreatedAt().toLocalDate() + "_" + jobId + ".csv";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(userImportService.getResultsCsv(jobId));
+    }
+
+    private UserImportJob getFirmJob(UUID firmId, UUID jobId) {
+        return userImportService.getJob(jobId)
+                .filter(found -> firmId.equals(found.getFirmId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User import not found"));
+    }
+
+    private String uploadError(FirmDto firm, String errorMessage, Model model) {
+        model.addAttribute("errorMessage", errorMessage);
+        addUploadAttributes(firm, model);
+        return "firm-directory/import-users";
+    }
+
+    private void addUploadAttributes(FirmDto firm, Model model) {
+        model.addAttribute("firm", firm);
+        model.addAttribute("maxRows", userImportService.getMaxRows());
+        model.addAttribute(ModelAttributes.PAGE_TITLE, "Import users - " + firm.getName());
+    }
+}
@@ -0,0 +1,32 @@
+package uk.gov.justice.laa.portal.landingpage.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the apps, roles and role assignment restrictions shown on the SiLAS
+ * administration page. The DTOs are shared between requests and must not be modified.
+ */
+public record AppCatalogue(
+        long version,
+        List<AppDto> authzApps,
+        List<AppDto> laaApps,
+        List<String> laaAppNames,
+        List<AppRoleAdminDto> laaAppRoles,
+        Map<String, List<AppRoleAdminDto>> laaAppRolesByAppName,
+        Map<AppRoleDto, List<AppRoleDto>> roleAssignmentRestrictions,
+        Map<String, Map<AppRoleDto, List<AppRoleDto>>> roleAssignmentRestrictionsByAppName
+) {
+
+    public List<AppRoleAdminDto> laaAppRolesFor(String appName) {
+        return appName == null || appName.isBlank()
+                ? laaAppRoles
+                : laaAppRolesByAppName.getOrDefault(appName, List.of());
+    }
+
+    public Map<AppRoleDto, List<AppRoleDto>> roleAssignmentRestrictionsFor(String appName) {
+        return appName == null || appName.isBlank()
+                ? roleAssignmentRestrictions
+                : roleAssignmentRestrictionsByAppName.getOrDefault(appName, Map.of());
+    }
+}
@@ -0,0 +1,37 @@
+package uk.gov.justice.laa.portal.landingpage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One change in an app sync plan. For new and updated apps it carries the Tech Services values
+ * to apply; a deletion only needs the local app id. A change to an existing app also records a
+ * fingerprint of that app as it was when the plan was made, so that applying the plan can tell
+ * whether the app has been edited since.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppSyncChange implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private AppDto.ChangeType changeType;
+    private UUID localAppId;
+    private String entraAppId;
+    private String entraOid;
+    private String name;
+    private String url;
+    private String securityGroupOid;
+    private String securityGroupName;
+    private int ordinal;
+    private String localFingerprint;
+}
@@ -4,12 +4,15 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import lombok.Builder;
 import lombok.Data;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
 
 /**
- * DTO representing the results of an Entra app synchronization operation.
+ * DTO representing the results of an Entra app synchronization operation: the plan of changes
+ * found in Tech Services, or the progress of applying one.
  */
 @Data
 @Builder
@@ -24,6 +27,14 @@ public class AppSyncResultDto implements Serializable {
     @Builder.Default
     private List<String> errors = new ArrayList<>();
 
+    private UUID planId;
+
+    private AppSyncPlanStatus status;
+
+    private int totalChanges;
+
+    private int appliedChanges;
+
     public void addError(String error) {
         this.errors.add(error);
     }
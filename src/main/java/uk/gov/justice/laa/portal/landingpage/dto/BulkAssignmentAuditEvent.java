@@ -0,0 +1,37 @@
+package uk.gov.justice.laa.portal.landingpage.dto;
+
+import lombok.Getter;
+import uk.gov.justice.laa.portal.landingpage.entity.EventType;
+
+import java.io.Serial;
+import java.util.UUID;
+
+@Getter
+public class BulkAssignmentAuditEvent extends AuditEvent {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private final UUID jobId;
+    private final UUID firmId;
+    private final long totalUsers;
+    private final long changedUsers;
+
+    public BulkAssignmentAuditEvent(UUID userId, UUID jobId, UUID firmId, long totalUsers, long changedUsers) {
+        super();
+        this.userId = userId;
+        this.jobId = jobId;
+        this.firmId = firmId;
+        this.totalUsers = totalUsers;
+        this.changedUsers = changedUsers;
+    }
+
+    @Override
+    public EventType getEventType() {
+        return EventType.BULK_ASSIGN_FIRM_USERS;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("User (Entra OID: %s) has bulk updated the roles and offices of %s of %s users for firm id %s"
+                        + " (bulk assignment job %s)", userId, changedUsers, totalUsers, firmId, jobId);
+    }
+}
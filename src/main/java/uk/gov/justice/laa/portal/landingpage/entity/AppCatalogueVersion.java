@@ -0,0 +1,30 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Single row counter that is bumped whenever apps, roles or role assignment restrictions change,
+ * so every instance can tell when its in-memory app catalogue is out of date.
+ */
+@Entity
+@Table(name = "app_catalogue_version")
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppCatalogueVersion {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
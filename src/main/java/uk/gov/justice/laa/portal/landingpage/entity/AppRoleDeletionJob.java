@@ -0,0 +1,100 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A request to delete an app role, worked through in the background by the
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.AppRoleDeletionWorker}. The role id is
+ * not a foreign key, so the job outlives the role it deleted.
+ */
+@Entity
+@Table(
+        name = "app_role_deletion_job",
+        indexes = {
+            @Index(name = "idx_app_role_deletion_job_status_next_attempt", columnList = "status, next_attempt_at"),
+            @Index(name = "idx_app_role_deletion_job_app_role_id", columnList = "app_role_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(callSuper = true, doNotUseGetters = true)
+public class AppRoleDeletionJob extends LeasedJob {
+
+    @Column(name = "app_role_id", nullable = false)
+    @NotNull(message = "App role deletion job role id must be provided")
+    private UUID appRoleId;
+
+    @Column(name = "app_role_name", nullable = false, length = 255)
+    @NotNull(message = "App role deletion job role name must be provided")
+    private String appRoleName;
+
+    @Column(name = "app_name", nullable = false, length = 255)
+    @NotNull(message = "App role deletion job app name must be provided")
+    private String appName;
+
+    @Column(name = "requested_by_user_profile_id", nullable = false)
+    @NotNull(message = "App role deletion job requester must be provided")
+    private UUID requestedByUserProfileId;
+
+    @Column(name = "requested_by_entra_oid", nullable = false)
+    @NotNull(message = "App role deletion job requester entra oid must be provided")
+    private UUID requestedByEntraOid;
+
+    @Column(name = "reason", columnDefinition = "TEXT")
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "App role deletion job status must be provided")
+    @Builder.Default
+    private AppRoleDeletionJobStatus status = AppRoleDeletionJobStatus.PENDING;
+
+    @Column(name = "total_assignments", nullable = false)
+    @Builder.Default
+    private long totalAssignments = 0;
+
+    @Column(name = "deleted_assignments", nullable = false)
+    @Builder.Default
+    private long deletedAssignments = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "App role deletion job created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Override
+    public void markRunning() {
+        status = AppRoleDeletionJobStatus.RUNNING;
+    }
+
+    @Override
+    public void markRetrying() {
+        status = AppRoleDeletionJobStatus.PENDING;
+    }
+
+    @Override
+    public void markCompleted() {
+        status = AppRoleDeletionJobStatus.COMPLETED;
+    }
+
+    @Override
+    public void markFailed() {
+        status = AppRoleDeletionJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+public enum AppRoleDeletionJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,111 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The difference between the apps in Tech Services and the local LAA apps at the time of a sync,
+ * stored so that it can be reviewed before it is applied. {@code changes} and {@code errors}
+ * hold JSON; {@code contentHash} identifies the Tech Services content the plan was made from.
+ * While a plan is being applied {@code lockedUntil} is pushed on with each batch, so a plan left
+ * applying by an instance that stopped can be claimed again once it lapses; {@code lockedBy}
+ * names the instance holding the lease, and only that instance can record progress on the plan.
+ */
+@Entity
+@Table(
+        name = "app_sync_plan",
+        indexes = {
+            @Index(name = "idx_app_sync_plan_status_applied_at", columnList = "status, applied_at")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(doNotUseGetters = true, exclude = {"changes", "errors"})
+public class AppSyncPlan extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "App sync plan status must be provided")
+    @Builder.Default
+    private AppSyncPlanStatus status = AppSyncPlanStatus.PLANNED;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    @NotNull(message = "App sync plan content hash must be provided")
+    private String contentHash;
+
+    @Column(name = "catalogue_version", nullable = false)
+    private long catalogueVersion;
+
+    @Column(name = "changes", nullable = false, columnDefinition = "TEXT")
+    @NotNull(message = "App sync plan changes must be provided")
+    private String changes;
+
+    @Column(name = "errors", nullable = false, columnDefinition = "TEXT")
+    @NotNull(message = "App sync plan errors must be provided")
+    private String errors;
+
+    @Column(name = "total_apps", nullable = false)
+    private int totalApps;
+
+    @Column(name = "unchanged_apps", nullable = false)
+    private int unchangedApps;
+
+    @Column(name = "total_changes", nullable = false)
+    private int totalChanges;
+
+    @Column(name = "applied_changes", nullable = false)
+    private int appliedChanges;
+
+    @Column(name = "requested_by_user_id")
+    private UUID requestedByUserId;
+
+    @Column(name = "requested_by_name", length = 255)
+    private String requestedByName;
+
+    @Column(name = "requested_by_user_profile_id")
+    private UUID requestedByUserProfileId;
+
+    @Column(name = "applied_by_user_id")
+    private UUID appliedByUserId;
+
+    @Column(name = "applied_by_name", length = 255)
+    private String appliedByName;
+
+    @Column(name = "applied_by_user_profile_id")
+    private UUID appliedByUserProfileId;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "App sync plan created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
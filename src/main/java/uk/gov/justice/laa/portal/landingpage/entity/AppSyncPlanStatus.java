@@ -0,0 +1,10 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+public enum AppSyncPlanStatus {
+    PLANNED,
+    APPLYING,
+    APPLIED,
+    UNCHANGED,
+    SUPERSEDED,
+    FAILED
+}
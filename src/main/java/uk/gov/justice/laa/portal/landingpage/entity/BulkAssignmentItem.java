@@ -0,0 +1,58 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The outcome of a {@link BulkAssignmentJob} for one user profile, kept as the audit trail of
+ * what the job changed for that user.
+ */
+@Entity
+@Table(
+        name = "bulk_assignment_job_item",
+        uniqueConstraints = @UniqueConstraint(name = "uq_bulk_assignment_job_item_job_user_profile",
+                columnNames = {"job_id", "user_profile_id"}),
+        indexes = @Index(name = "idx_bulk_assignment_job_item_job_id_status", columnList = "job_id, status")
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(doNotUseGetters = true)
+public class BulkAssignmentItem extends BaseEntity {
+
+    @Column(name = "job_id", nullable = false)
+    @NotNull(message = "Bulk assignment item job must be provided")
+    private UUID jobId;
+
+    @Column(name = "user_profile_id", nullable = false)
+    @NotNull(message = "Bulk assignment item user profile must be provided")
+    private UUID userProfileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "Bulk assignment item status must be provided")
+    @Builder.Default
+    private BulkAssignmentItemStatus status = BulkAssignmentItemStatus.PENDING;
+
+    @Column(name = "detail", columnDefinition = "TEXT")
+    private String detail;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
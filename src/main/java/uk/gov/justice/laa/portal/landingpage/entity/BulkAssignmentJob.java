@@ -0,0 +1,113 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Roles and offices to add to or remove from the users of a firm that matched a search, worked
+ * through in the background by the
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.BulkAssignmentWorker}. The users are
+ * fixed when the job is requested, one {@link BulkAssignmentItem} each.
+ */
+@Entity
+@Table(
+        name = "bulk_assignment_job",
+        indexes = {
+            @Index(name = "idx_bulk_assignment_job_status_next_attempt", columnList = "status, next_attempt_at"),
+            @Index(name = "idx_bulk_assignment_job_firm_id", columnList = "firm_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(callSuper = true, doNotUseGetters = true)
+public class BulkAssignmentJob extends LeasedJob {
+
+    @Column(name = "firm_id", nullable = false)
+    @NotNull(message = "Bulk assignment job firm must be provided")
+    private UUID firmId;
+
+    @Column(name = "firm_name", nullable = false, length = 255)
+    @NotNull(message = "Bulk assignment job firm name must be provided")
+    private String firmName;
+
+    @Column(name = "search_term", length = 255)
+    private String searchTerm;
+
+    @Column(name = "add_role_ids", columnDefinition = "uuid[]")
+    private UUID[] addRoleIds;
+
+    @Column(name = "remove_role_ids", columnDefinition = "uuid[]")
+    private UUID[] removeRoleIds;
+
+    @Column(name = "add_office_ids", columnDefinition = "uuid[]")
+    private UUID[] addOfficeIds;
+
+    @Column(name = "remove_office_ids", columnDefinition = "uuid[]")
+    private UUID[] removeOfficeIds;
+
+    @Column(name = "requested_by_user_profile_id", nullable = false)
+    @NotNull(message = "Bulk assignment job requester must be provided")
+    private UUID requestedByUserProfileId;
+
+    @Column(name = "requested_by_entra_oid", nullable = false)
+    @NotNull(message = "Bulk assignment job requester entra oid must be provided")
+    private UUID requestedByEntraOid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "Bulk assignment job status must be provided")
+    @Builder.Default
+    private BulkAssignmentJobStatus status = BulkAssignmentJobStatus.PENDING;
+
+    @Column(name = "total_users", nullable = false)
+    @Builder.Default
+    private long totalUsers = 0;
+
+    @Column(name = "processed_users", nullable = false)
+    @Builder.Default
+    private long processedUsers = 0;
+
+    @Column(name = "changed_users", nullable = false)
+    @Builder.Default
+    private long changedUsers = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "Bulk assignment job created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Override
+    public void markRunning() {
+        status = BulkAssignmentJobStatus.RUNNING;
+    }
+
+    @Override
+    public void markRetrying() {
+        status = BulkAssignmentJobStatus.PENDING;
+    }
+
+    @Override
+    public void markCompleted() {
+        status = BulkAssignmentJobStatus.COMPLETED;
+    }
+
+    @Override
+    public void markFailed() {
+        status = BulkAssignmentJobStatus.FAILED;
+    }
+}
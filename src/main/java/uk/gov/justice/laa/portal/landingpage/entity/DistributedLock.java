@@ -24,4 +24,7 @@ public class DistributedLock {
 
     @Column(name = "locked_by", nullable = false)
     private String lockedBy;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
 }
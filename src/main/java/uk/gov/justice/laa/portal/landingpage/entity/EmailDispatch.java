@@ -0,0 +1,82 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "email_dispatch",
+        indexes = {
+            @Index(name = "idx_email_dispatch_status_next_attempt", columnList = "status, next_attempt_at")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(doNotUseGetters = true)
+public class EmailDispatch extends BaseEntity {
+
+    @Column(name = "template_id", nullable = false, length = 255)
+    @NotNull(message = "Email dispatch template id must be provided")
+    private String templateId;
+
+    @Column(name = "recipient", nullable = false, length = 255)
+    @NotNull(message = "Email dispatch recipient must be provided")
+    @ToString.Exclude
+    private String recipient;
+
+    @Column(name = "personalisation", columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String personalisation;
+
+    @Column(name = "reference", length = 255)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "Email dispatch status must be provided")
+    @Builder.Default
+    private EmailDispatchStatus status = EmailDispatchStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @NotNull(message = "Email dispatch next attempt time must be provided")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "notification_id")
+    private UUID notificationId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "Email dispatch created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -32,4 +32,8 @@ public class EntraLastSyncMetadata {
 
     @Column(name = "last_successful_to")
     private LocalDateTime lastSuccessfulTo;
+
+    @Column(name = "delta_link", columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String deltaLink;
 }
@@ -12,6 +12,7 @@ public enum EventType {
     SYNCHRONISE_LAA_APPS,
     CREATE_LAA_APP_ROLE,
     BULK_DISABLE_FIRM_USERS,
+    BULK_ASSIGN_FIRM_USERS,
     REACTIVATE_REQ_DELEGATE_ENABLE_USER_SUBMIT,
     REACTIVATE_REQ_DELEGATE_ENABLE_USER_APPROVED,
     REACTIVATE_REQ_DELEGATE_ENABLE_USER_REJECTED,
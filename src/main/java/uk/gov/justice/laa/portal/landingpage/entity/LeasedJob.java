@@ -0,0 +1,55 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * A background job that one instance at a time works through under a lease, as run by
+ * {@link uk.gov.justice.laa.portal.landingpage.service.LeasedJobService}. Each job type keeps its
+ * own status column and says which of its statuses the lease moves it through.
+ */
+@Getter
+@Setter
+@ToString(callSuper = true, doNotUseGetters = true)
+@SuperBuilder
+@NoArgsConstructor
+@MappedSuperclass
+public abstract class LeasedJob extends BaseEntity {
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @NotNull(message = "Job next attempt time must be provided")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public abstract void markRunning();
+
+    public abstract void markRetrying();
+
+    public abstract void markCompleted();
+
+    public abstract void markFailed();
+}
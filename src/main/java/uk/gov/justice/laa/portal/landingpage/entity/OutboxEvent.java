@@ -0,0 +1,86 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "outbox_event",
+        uniqueConstraints = @UniqueConstraint(
+                name = "unq_outbox_event_idempotency_key",
+                columnNames = {"idempotency_key"}
+        ),
+        indexes = {
+            @Index(name = "idx_outbox_event_status_next_attempt", columnList = "status, next_attempt_at"),
+            @Index(name = "idx_outbox_event_type_aggregate", columnList = "event_type, aggregate_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(doNotUseGetters = true)
+public class OutboxEvent extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 255)
+    @NotNull(message = "Outbox event type must be provided")
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    @NotNull(message = "Outbox event aggregate id must be provided")
+    private UUID aggregateId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    @NotNull(message = "Outbox event idempotency key must be provided")
+    private String idempotencyKey;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "Outbox event status must be provided")
+    @Builder.Default
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @NotNull(message = "Outbox event next attempt time must be provided")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "Outbox event created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
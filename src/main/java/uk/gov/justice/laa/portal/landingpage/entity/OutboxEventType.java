@@ -0,0 +1,20 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+/**
+ * Side effects recorded in the {@code outbox_event} table and published by the outbox relay
+ * once the transaction that produced them has committed.
+ */
+public enum OutboxEventType {
+
+    /**
+     * Push the current security group membership of an entra user to tech services.
+     * The aggregate id is the {@code entra_user.id}.
+     */
+    TECH_SERVICES_ROLE_ASSIGNMENT,
+
+    /**
+     * Publish a CCMS role change message to the SQS queue of a legacy-synced app.
+     * The aggregate id is the {@code user_profile.id}.
+     */
+    CCMS_ROLE_CHANGE
+}
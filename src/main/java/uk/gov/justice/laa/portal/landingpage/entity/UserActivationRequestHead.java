@@ -0,0 +1,67 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The first and latest versions of a user activation request, kept up to date by the
+ * {@code advance_user_activation_request_head} trigger whenever a version is inserted, so
+ * current state can be read by request id instead of searching the version history.
+ */
+@Entity
+@Immutable
+@Table(name = "user_activation_request_head")
+@Getter
+@NoArgsConstructor
+@ToString(doNotUseGetters = true)
+public class UserActivationRequestHead implements Serializable {
+
+    @Id
+    @Column(name = "request_id", nullable = false)
+    private UUID requestId;
+
+    @Column(name = "user_profile_id", nullable = false)
+    private UUID userProfileId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "first_version_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_user_act_req_head_first_version"))
+    @ToString.Exclude
+    private UserActivationRequest firstVersion;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "latest_version_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_user_act_req_head_latest_version"))
+    @ToString.Exclude
+    private UserActivationRequest latestVersion;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    private ReactivationRequestStatus status;
+
+    @Column(name = "first_submitted_at", nullable = false)
+    private Instant firstSubmittedAt;
+
+    @Column(name = "last_activity_at", nullable = false)
+    private Instant lastActivityAt;
+}
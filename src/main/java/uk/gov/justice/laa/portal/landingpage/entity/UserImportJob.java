@@ -0,0 +1,108 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Users to create for a firm from an uploaded file. The file is validated when it is uploaded
+ * and the job waits as {@code VALIDATED} until the uploader confirms it, after which the
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.UserImportWorker} creates the valid rows
+ * in the background, one {@link UserImportRow} at a time.
+ */
+@Entity
+@Table(
+        name = "user_import_job",
+        indexes = {
+            @Index(name = "idx_user_import_job_status_next_attempt", columnList = "status, next_attempt_at"),
+            @Index(name = "idx_user_import_job_firm_id", columnList = "firm_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(callSuper = true, doNotUseGetters = true)
+public class UserImportJob extends LeasedJob {
+
+    @Column(name = "firm_id", nullable = false)
+    @NotNull(message = "User import job firm must be provided")
+    private UUID firmId;
+
+    @Column(name = "firm_name", nullable = false, length = 255)
+    @NotNull(message = "User import job firm name must be provided")
+    private String firmName;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "requested_by_entra_oid", nullable = false)
+    @NotNull(message = "User import job requester entra oid must be provided")
+    private UUID requestedByEntraOid;
+
+    @Column(name = "requested_by_name", length = 255)
+    private String requestedByName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "User import job status must be provided")
+    @Builder.Default
+    private UserImportJobStatus status = UserImportJobStatus.VALIDATED;
+
+    @Column(name = "total_rows", nullable = false)
+    @Builder.Default
+    private int totalRows = 0;
+
+    @Column(name = "valid_rows", nullable = false)
+    @Builder.Default
+    private int validRows = 0;
+
+    @Column(name = "processed_rows", nullable = false)
+    @Builder.Default
+    private int processedRows = 0;
+
+    @Column(name = "created_rows", nullable = false)
+    @Builder.Default
+    private int createdRows = 0;
+
+    @Column(name = "failed_rows", nullable = false)
+    @Builder.Default
+    private int failedRows = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @NotNull(message = "User import job created date must be provided")
+    private LocalDateTime createdAt;
+
+    @Override
+    public void markRunning() {
+        status = UserImportJobStatus.RUNNING;
+    }
+
+    @Override
+    public void markRetrying() {
+        status = UserImportJobStatus.PENDING;
+    }
+
+    @Override
+    public void markCompleted() {
+        status = UserImportJobStatus.COMPLETED;
+    }
+
+    @Override
+    public void markFailed() {
+        status = UserImportJobStatus.FAILED;
+    }
+}
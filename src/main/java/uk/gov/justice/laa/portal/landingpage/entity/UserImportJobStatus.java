@@ -0,0 +1,9 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+public enum UserImportJobStatus {
+    VALIDATED,
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,72 @@
+package uk.gov.justice.laa.portal.landingpage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of an imported file, as read from the file, with why it cannot be imported or what
+ * happened when the user was created.
+ */
+@Entity
+@Table(
+        name = "user_import_row",
+        uniqueConstraints = @UniqueConstraint(name = "uq_user_import_row_job_row_number",
+                columnNames = {"job_id", "row_number"}),
+        indexes = @Index(name = "idx_user_import_row_job_id_status", columnList = "job_id, status")
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@ToString(doNotUseGetters = true)
+public class UserImportRow extends BaseEntity {
+
+    @Column(name = "job_id", nullable = false)
+    @NotNull(message = "User import row job must be provided")
+    private UUID jobId;
+
+    @Column(name = "row_number", nullable = false)
+    private int rowNumber;
+
+    @Column(name = "first_name", length = 255)
+    private String firstName;
+
+    @Column(name = "last_name", length = 255)
+    private String lastName;
+
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Column(name = "user_manager", nullable = false)
+    private boolean userManager;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 255)
+    @NotNull(message = "User import row status must be provided")
+    @Builder.Default
+    private UserImportRowStatus status = UserImportRowStatus.PENDING;
+
+    @Column(name = "detail", columnDefinition = "TEXT")
+    private String detail;
+
+    @Column(name = "entra_user_id")
+    private UUID entraUserId;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
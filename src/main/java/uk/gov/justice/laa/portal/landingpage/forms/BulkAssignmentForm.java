@@ -0,0 +1,40 @@
+package uk.gov.justice.laa.portal.landingpage.forms;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignmentForm implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String search;
+
+    @Builder.Default
+    private List<String> addRoles = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> removeRoles = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> addOffices = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> removeOffices = new ArrayList<>();
+
+    private String officeSearch;
+
+    @Builder.Default
+    private int officePage = 1;
+}
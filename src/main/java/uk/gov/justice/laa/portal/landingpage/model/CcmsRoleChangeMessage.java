@@ -0,0 +1,9 @@
+package uk.gov.justice.laa.portal.landingpage.model;
+
+/**
+ * A fully rendered CCMS role change, captured at the time of the change so that it can be
+ * published later (e.g. from the outbox) without reloading the user profile.
+ */
+public record CcmsRoleChangeMessage(String appEntraOid, String userType, String messageGroupId,
+                                    String messageBody) {
+}
@@ -0,0 +1,165 @@
+package uk.gov.justice.laa.portal.landingpage.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.Getter;
+
+/**
+ * What has been chosen so far on a journey that picks a user's offices, kept in the session
+ * between steps and between the pages of the office picker. Only the user's id and the office ids
+ * picked are kept; the user and their firm's offices are read again whenever a page needs them,
+ * so the session does not grow with the number of offices the firm has.
+ */
+@Getter
+public class OfficesJourneyState implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Changed whenever the meaning of the state changes, so that state saved by an earlier
+     * release is started again rather than misread.
+     */
+    public static final int CURRENT_VERSION = 2;
+
+    public static final String ALL = "ALL";
+    public static final String NO_OFFICES = "NO_OFFICES";
+
+    private final int version;
+    private final String userId;
+    private final boolean showNoOffice;
+    private boolean chosen;
+    private boolean allOffices;
+    private boolean noOffices;
+    private final Set<UUID> officeIds = new HashSet<>();
+
+    /**
+     * @param userId       the user whose offices are being picked
+     * @param showNoOffice whether the "no offices" option is offered
+     * @param offices      the office values to start with, such as the user's current offices
+     */
+    public OfficesJourneyState(String userId, boolean showNoOffice, Collection<String> offices) {
+        this(CURRENT_VERSION, userId, showNoOffice, offices);
+    }
+
+    OfficesJourneyState(int version, String userId, boolean showNoOffice, Collection<String> offices) {
+        this.version = version;
+        this.userId = userId;
+        this.showNoOffice = showNoOffice;
+        if (offices != null) {
+            select(offices);
+        }
+    }
+
+    /**
+     * Replaces the selection with the office values submitted on a single page of offices and
+     * marks the offices as chosen. Anything that is not an office id, {@value #ALL} or
+     * {@value #NO_OFFICES} is ignored.
+     */
+    public void setOffices(Collection<String> offices) {
+        clear();
+        if (offices != null) {
+            select(offices);
+        }
+        chosen = true;
+    }
+
+    /**
+     * Replaces the choices for the offices shown on one page of the picker with the ones ticked on
+     * it, keeping the choices made on other pages.
+     *
+     * @param shownOfficeIds the offices that were shown on the page
+     * @param ticked         the submitted office values, which may include {@value #ALL}
+     */
+    public void update(Collection<UUID> shownOfficeIds, Collection<String> ticked) {
+        if (shownOfficeIds != null) {
+            officeIds.removeAll(shownOfficeIds);
+        }
+        allOffices = false;
+        noOffices = false;
+        if (ticked != null) {
+            select(ticked);
+        }
+    }
+
+    /**
+     * Marks the current selection as the offices chosen, once the last page of the picker has
+     * been submitted.
+     */
+    public void choose() {
+        chosen = true;
+    }
+
+    public boolean isSelected(UUID officeId) {
+        return officeIds.contains(officeId);
+    }
+
+    public boolean isEmpty() {
+        return !allOffices && !noOffices && officeIds.isEmpty();
+    }
+
+    /**
+     * The selection as the office values used further on in the journey: either just
+     * {@value #ALL}, just {@value #NO_OFFICES} or the office ids.
+     */
+    public List<String> toOffices() {
+        if (allOffices) {
+            return List.of(ALL);
+        }
+        if (noOffices) {
+            return List.of(NO_OFFICES);
+        }
+        List<String> offices = new ArrayList<>(officeIds.size());
+        officeIds.forEach(id -> offices.add(id.toString()));
+        return offices;
+    }
+
+    /**
+     * The offices chosen, as {@link #toOffices()}, or {@code null} until they have been chosen.
+     */
+    public List<String> getOffices() {
+        return chosen ? toOffices() : null;
+    }
+
+    /**
+     * Whether this state was saved by the current release for the journey of the given user,
+     * rather than left over from a journey for someone else.
+     */
+    public boolean isFor(String userId) {
+        return version == CURRENT_VERSION && this.userId != null && this.userId.equals(userId);
+    }
+
+    private void clear() {
+        allOffices = false;
+        noOffices = false;
+        officeIds.clear();
+    }
+
+    private void select(Collection<String> offices) {
+        for (String office : offices) {
+            if (office == null) {
+                continue;
+            }
+            if (ALL.equals(office)) {
+                allOffices = true;
+                continue;
+            }
+            if (NO_OFFICES.equals(office)) {
+                noOffices = true;
+                continue;
+            }
+            try {
+                officeIds.add(UUID.fromString(office));
+            } catch (IllegalArgumentException e) {
+                // Not an office id, so there is nothing to select
+            }
+        }
+    }
+}
@@ -39,9 +39,9 @@ public class CcmsUsersMonthlyExtractReport {
             log.debug("Starting ccms user monthly report process...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), lease -> {
                         log.debug("Acquired lock for ccms user monthly report");
-                        ccmsUsersMonthlyExtractService.downloadCcmsUsersMonthlyExtract();
+                        ccmsUsersMonthlyExtractService.downloadCcmsUsersMonthlyExtract(lease::ensureHeld);
                         log.debug("Completed ccms user monthly report");
                         return null;
                     });
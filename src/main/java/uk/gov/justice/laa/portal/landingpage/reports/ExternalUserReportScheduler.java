@@ -39,9 +39,9 @@ public class ExternalUserReportScheduler {
             log.debug("Starting external user report process...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), lease -> {
                         log.debug("Acquired lock for external user report");
-                        externalUserReportingService.downloadExternalUserCsv();
+                        externalUserReportingService.downloadExternalUserCsv(lease::ensureHeld);
                         log.debug("Completed external user report");
                         return null;
                     });
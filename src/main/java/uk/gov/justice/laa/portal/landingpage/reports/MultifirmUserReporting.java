@@ -39,9 +39,9 @@ public class MultifirmUserReporting {
             log.debug("Starting multifirm user reporting process...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), lease -> {
                         log.debug("Acquired lock for multifirm user report");
-                        multifirmUserReportService.getMultifirmUsers();
+                        multifirmUserReportService.getMultifirmUsers(lease::ensureHeld);
                         log.debug("Completed multifirm user report");
                         return null;
                     });
@@ -39,9 +39,9 @@ public class RoleAssignmentMatrixReport {
             log.debug("Starting role assignment matrix report process...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), lease -> {
                         log.debug("Acquired lock for internal role assignment matrix report");
-                        roleAssignmentMatrixReportService.getRoleAssignmentMatrixReport();
+                        roleAssignmentMatrixReportService.getRoleAssignmentMatrixReport(lease::ensureHeld);
                         log.debug("Completed internal role assignment matrix report");
                         return null;
                     });
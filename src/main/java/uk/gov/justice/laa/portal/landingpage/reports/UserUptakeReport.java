@@ -19,6 +19,7 @@ import java.time.Duration;
 @Slf4j
 public class UserUptakeReport {
     private static final String REPORTING_LOCK_KEY = "USER_UPTAKE_REPORTING_LOCK";
+    private static final String SUMMARY_REFRESH_LOCK_KEY = "USER_UPTAKE_SUMMARY_REFRESH_LOCK";
 
     private final DistributedLockService lockService;
     private final UserUptakeReportService userUptakeReportService;
@@ -39,9 +40,9 @@ public class UserUptakeReport {
             log.debug("Starting user uptake reporting process...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(REPORTING_LOCK_KEY, Duration.ofMinutes(distributedDbLockingPeriod), lease -> {
                         log.debug("Acquired lock for user uptake report");
-                        userUptakeReportService.getUserUptakeReport();
+                        userUptakeReportService.getUserUptakeReport(lease::ensureHeld);
                         log.debug("Completed user uptake report");
                         return null;
                     });
@@ -58,4 +59,25 @@ public class UserUptakeReport {
         }
     }
 
+    /**
+     * Keeps the {@code user_uptake_summary} view current between reports. Only one instance
+     * refreshes at a time; the others skip the run rather than queue behind it.
+     */
+    @Scheduled(cron = "${user.uptake.summary.refresh.schedule}", zone = "Europe/London")
+    public void refreshSummary() {
+        try {
+            if (enableDistributedDbLocking) {
+                boolean refreshed = lockService.tryOnceWithLock(SUMMARY_REFRESH_LOCK_KEY,
+                        Duration.ofMinutes(distributedDbLockingPeriod),
+                        userUptakeReportService::refreshUserUptakeSummary);
+                if (!refreshed) {
+                    log.debug("User uptake summary is already being refreshed by another instance");
+                }
+            } else {
+                userUptakeReportService.refreshUserUptakeSummary();
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing user uptake summary", e);
+        }
+    }
 }
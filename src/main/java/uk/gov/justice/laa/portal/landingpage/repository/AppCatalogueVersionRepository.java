@@ -0,0 +1,26 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.entity.AppCatalogueVersion;
+
+import java.util.Optional;
+
+@Repository
+public interface AppCatalogueVersionRepository extends JpaRepository<AppCatalogueVersion, Integer> {
+
+    @Query("SELECT MAX(v.version) FROM AppCatalogueVersion v")
+    Optional<Long> findCurrentVersion();
+
+    /**
+     * Marks the app catalogue as changed. Joins the caller's transaction where there is one, so
+     * the new version only becomes visible once the change itself is committed.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppCatalogueVersion v SET v.version = v.version + 1")
+    int incrementVersion();
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Repository;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +18,8 @@ public interface AppRepository extends JpaRepository<App, UUID> {
 
     Optional<App> findByEntraAppId(String entraAppOid);
 
+    boolean existsByEntraAppIdIn(Collection<String> entraAppOids);
+
     List<App> findAppsByAppTypeAndEnabled(AppType appType, boolean enabled);
 
     List<App> findAppsByAppType(AppType appType);
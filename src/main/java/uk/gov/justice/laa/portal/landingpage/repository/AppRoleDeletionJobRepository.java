@@ -0,0 +1,34 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface AppRoleDeletionJobRepository extends LeasedJobRepository<AppRoleDeletionJob> {
+
+    @Override
+    @Query(value = """
+                SELECT *
+                FROM app_role_deletion_job
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'RUNNING' AND locked_until < :now)
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AppRoleDeletionJob> findDueForUpdateSkipLocked(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT j.appRoleId FROM AppRoleDeletionJob j WHERE j.status IN :statuses")
+    Set<UUID> findAppRoleIdsByStatusIn(@Param("statuses") Collection<AppRoleDeletionJobStatus> statuses);
+
+    boolean existsByAppRoleIdAndStatusIn(UUID appRoleId, Collection<AppRoleDeletionJobStatus> statuses);
+}
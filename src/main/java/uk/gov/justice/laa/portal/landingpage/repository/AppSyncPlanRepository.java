@@ -0,0 +1,96 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlan;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AppSyncPlanRepository extends JpaRepository<AppSyncPlan, UUID> {
+
+    Optional<AppSyncPlan> findFirstByStatusInOrderByAppliedAtDesc(Collection<AppSyncPlanStatus> statuses);
+
+    /**
+     * Moves every plan in one status to another, for example to supersede the plans that were
+     * never applied when a newer one is made.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.status = :to WHERE p.status = :from")
+    int updateStatus(@Param("from") AppSyncPlanStatus from, @Param("to") AppSyncPlanStatus to);
+
+    /**
+     * Moves a plan on only if it is still in the expected status, so that when two requests race
+     * to apply the same plan only one of them wins.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.status = :to WHERE p.id = :id AND p.status = :from")
+    int updateStatus(@Param("id") UUID id, @Param("from") AppSyncPlanStatus from, @Param("to") AppSyncPlanStatus to);
+
+    /**
+     * Moves a plan being applied on with the reason, if any, and releases its lease, while the
+     * given instance still holds it. Only the status columns are written, so the progress
+     * recorded by the batches is kept.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.status = :to, p.lastError = :lastError, p.lockedUntil = NULL "
+            + "WHERE p.id = :id AND p.status = :applying AND p.lockedBy = :lockedBy")
+    int releaseApply(@Param("id") UUID id, @Param("applying") AppSyncPlanStatus applying,
+                     @Param("lockedBy") String lockedBy, @Param("to") AppSyncPlanStatus to,
+                     @Param("lastError") String lastError);
+
+    /**
+     * Claims a plan for applying on behalf of an admin: one waiting to be applied, or one left
+     * applying whose lease lapsed because the instance applying it stopped.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.status = :applying, p.appliedByUserId = :userId, p.appliedByName = :name, "
+            + "p.appliedByUserProfileId = :userProfileId, p.lockedUntil = :lockedUntil, p.lockedBy = :lockedBy, "
+            + "p.lastError = NULL "
+            + "WHERE p.id = :id AND (p.status = :planned OR (p.status = :applying AND p.lockedUntil < :now))")
+    int claimForApply(@Param("id") UUID id, @Param("planned") AppSyncPlanStatus planned,
+                      @Param("applying") AppSyncPlanStatus applying, @Param("userId") UUID userId,
+                      @Param("name") String name, @Param("userProfileId") UUID userProfileId,
+                      @Param("lockedBy") String lockedBy, @Param("lockedUntil") LocalDateTime lockedUntil,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Records how many changes have been applied and renews the lease, while the given instance
+     * still holds it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.appliedChanges = :appliedChanges, p.lockedUntil = :lockedUntil "
+            + "WHERE p.id = :id AND p.lockedBy = :lockedBy")
+    int updateAppliedChanges(@Param("id") UUID id, @Param("lockedBy") String lockedBy,
+                             @Param("appliedChanges") int appliedChanges, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Records the outcome of applying a plan and releases its lease, while the given instance
+     * still holds it. The plan is not read back first, so nothing written by another instance
+     * since this one claimed the plan is overwritten.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppSyncPlan p SET p.status = :applied, p.appliedChanges = :appliedChanges, p.errors = :errors, "
+            + "p.summary = :summary, p.catalogueVersion = :catalogueVersion, p.appliedAt = :appliedAt, "
+            + "p.lockedUntil = NULL "
+            + "WHERE p.id = :id AND p.status = :applying AND p.lockedBy = :lockedBy")
+    int completeApply(@Param("id") UUID id, @Param("applying") AppSyncPlanStatus applying,
+                      @Param("lockedBy") String lockedBy, @Param("applied") AppSyncPlanStatus applied,
+                      @Param("appliedChanges") int appliedChanges, @Param("errors") String errors,
+                      @Param("summary") String summary, @Param("catalogueVersion") long catalogueVersion,
+                      @Param("appliedAt") LocalDateTime appliedAt);
+}
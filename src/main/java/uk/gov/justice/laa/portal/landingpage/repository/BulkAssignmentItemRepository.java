@@ -0,0 +1,81 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItem;
+import uk.gov.justice.laa.portal.landingpage.repository.projection.BulkAssignmentItemView;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BulkAssignmentItemRepository extends JpaRepository<BulkAssignmentItem, UUID> {
+
+    /**
+     * Adds a pending item to the job for every external profile of the firm whose user's first
+     * name, last name or email starts with {@code search}, other than the requester's own.
+     * {@code search} is expected in lower case with LIKE wildcards escaped; an empty search
+     * selects every external profile of the firm.
+     *
+     * @return the number of users selected
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO bulk_assignment_job_item (id, job_id, user_profile_id, status)
+                SELECT gen_random_uuid(), :jobId, p.id, 'PENDING'
+                FROM user_profile p
+                JOIN entra_user eu ON eu.id = p.entra_user_id
+                WHERE p.firm_id = :firmId
+                  AND p.user_type = 'EXTERNAL'
+                  AND p.id <> :excludedUserProfileId
+                  AND (:search = ''
+                       OR lower(eu.first_name) LIKE :search || '%'
+                       OR lower(eu.last_name) LIKE :search || '%'
+                       OR lower(eu.email) LIKE :search || '%')
+            """, nativeQuery = true)
+    int insertMatchingFirmProfiles(@Param("jobId") UUID jobId, @Param("firmId") UUID firmId,
+                                   @Param("search") String search,
+                                   @Param("excludedUserProfileId") UUID excludedUserProfileId);
+
+    @Query(value = """
+                SELECT COUNT(*)
+                FROM user_profile p
+                JOIN entra_user eu ON eu.id = p.entra_user_id
+                WHERE p.firm_id = :firmId
+                  AND p.user_type = 'EXTERNAL'
+                  AND p.id <> :excludedUserProfileId
+                  AND (:search = ''
+                       OR lower(eu.first_name) LIKE :search || '%'
+                       OR lower(eu.last_name) LIKE :search || '%'
+                       OR lower(eu.email) LIKE :search || '%')
+            """, nativeQuery = true)
+    long countMatchingFirmProfiles(@Param("firmId") UUID firmId, @Param("search") String search,
+                                   @Param("excludedUserProfileId") UUID excludedUserProfileId);
+
+    @Query(value = """
+                SELECT *
+                FROM bulk_assignment_job_item
+                WHERE job_id = :jobId
+                  AND status = 'PENDING'
+                ORDER BY user_profile_id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<BulkAssignmentItem> findPendingByJobId(@Param("jobId") UUID jobId, @Param("limit") int limit);
+
+    @Query(value = """
+                SELECT new uk.gov.justice.laa.portal.landingpage.repository.projection.BulkAssignmentItemView(
+                    i.userProfileId, eu.firstName, eu.lastName, eu.email, i.status, i.detail)
+                FROM BulkAssignmentItem i
+                LEFT JOIN UserProfile up ON up.id = i.userProfileId
+                LEFT JOIN up.entraUser eu
+                WHERE i.jobId = :jobId
+                ORDER BY i.status, eu.firstName, eu.lastName, i.userProfileId
+            """,
+            countQuery = "SELECT COUNT(i) FROM BulkAssignmentItem i WHERE i.jobId = :jobId")
+    Page<BulkAssignmentItemView> findViewsByJobId(@Param("jobId") UUID jobId, Pageable pageable);
+}
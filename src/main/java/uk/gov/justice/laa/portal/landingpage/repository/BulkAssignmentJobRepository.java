@@ -0,0 +1,30 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BulkAssignmentJobRepository extends LeasedJobRepository<BulkAssignmentJob> {
+
+    @Override
+    @Query(value = """
+                SELECT *
+                FROM bulk_assignment_job
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'RUNNING' AND locked_until < :now)
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<BulkAssignmentJob> findDueForUpdateSkipLocked(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    boolean existsByFirmIdAndStatusIn(UUID firmId, Collection<BulkAssignmentJobStatus> statuses);
+}
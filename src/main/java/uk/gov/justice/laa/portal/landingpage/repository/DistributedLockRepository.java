@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.repository;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -13,23 +14,53 @@ import uk.gov.justice.laa.portal.landingpage.entity.DistributedLock;
 
 public interface DistributedLockRepository extends JpaRepository<DistributedLock, String> {
 
-    @Modifying
+    /**
+     * Takes the lock if it is free or its lease has expired, incrementing its fencing token.
+     *
+     * @return the new fencing token, or empty if another holder's lease is still current
+     */
     @Query(value = """
-                INSERT INTO distributed_lock (lock_key, locked_until, locked_by)
-                VALUES (:key, :lockedUntil, :lockedBy)
+                INSERT INTO distributed_lock (lock_key, locked_until, locked_by, fencing_token)
+                VALUES (:key, :lockedUntil, :lockedBy, 1)
                 ON CONFLICT (lock_key)
                 DO UPDATE SET
                     locked_until = EXCLUDED.locked_until,
-                    locked_by = EXCLUDED.locked_by
+                    locked_by = EXCLUDED.locked_by,
+                    fencing_token = distributed_lock.fencing_token + 1
                 WHERE distributed_lock.locked_until < CURRENT_TIMESTAMP
+                RETURNING fencing_token
+            """, nativeQuery = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Optional<Long> acquireLock(@Param("key") String key,
+                               @Param("lockedUntil") LocalDateTime lockedUntil,
+                               @Param("lockedBy") String lockedBy);
+
+    /**
+     * Extends a lease, provided nobody else has acquired the lock since.
+     */
+    @Modifying
+    @Query(value = """
+                UPDATE distributed_lock
+                SET locked_until = :lockedUntil
+                WHERE lock_key = :key AND locked_by = :lockedBy AND fencing_token = :fencingToken
             """, nativeQuery = true)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    int acquireLock(@Param("key") String key,
-                    @Param("lockedUntil") LocalDateTime lockedUntil,
-                    @Param("lockedBy") String lockedBy);
+    int renewLock(@Param("key") String key,
+                  @Param("lockedUntil") LocalDateTime lockedUntil,
+                  @Param("lockedBy") String lockedBy,
+                  @Param("fencingToken") long fencingToken);
 
+    /**
+     * Ends a lease. The row is kept so the fencing token keeps increasing.
+     */
     @Modifying
-    @Query("DELETE FROM DistributedLock l WHERE l.key = :key")
+    @Query(value = """
+                UPDATE distributed_lock
+                SET locked_until = CURRENT_TIMESTAMP
+                WHERE lock_key = :key AND locked_by = :lockedBy AND fencing_token = :fencingToken
+            """, nativeQuery = true)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    void releaseLock(@Param("key") String key, @Param("lockedBy") String lockedBy);
+    void releaseLock(@Param("key") String key,
+                     @Param("lockedBy") String lockedBy,
+                     @Param("fencingToken") long fencingToken);
 }
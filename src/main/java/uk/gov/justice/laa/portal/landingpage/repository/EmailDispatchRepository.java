@@ -0,0 +1,53 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatch;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatchStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailDispatchRepository extends JpaRepository<EmailDispatch, UUID> {
+
+    /**
+     * Locks the next batch of due emails for the calling transaction, skipping rows another pod
+     * already holds. Emails left in {@code SENDING} past their lease become due again.
+     */
+    @Query(value = """
+                SELECT *
+                FROM email_dispatch
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'SENDING' AND locked_until < :now)
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailDispatch> findDueForUpdateSkipLocked(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(EmailDispatchStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EmailDispatch e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") EmailDispatchStatus status,
+                                           @Param("before") LocalDateTime before);
+
+    /**
+     * Removes who a dead-lettered email was for and what it said, keeping the template, error and
+     * timings of the failure.
+     */
+    @Modifying
+    @Query("""
+                UPDATE EmailDispatch e
+                SET e.recipient = :redacted, e.personalisation = NULL, e.reference = NULL
+                WHERE e.status = uk.gov.justice.laa.portal.landingpage.entity.EmailDispatchStatus.DEAD_LETTER
+                  AND e.processedAt < :before
+                  AND e.recipient <> :redacted
+            """)
+    int redactDeadLettersProcessedBefore(@Param("redacted") String redacted, @Param("before") LocalDateTime before);
+}
@@ -1,16 +1,23 @@
 package uk.gov.justice.laa.portal.landingpage.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 
@@ -41,8 +48,31 @@ public interface EntraUserRepository extends JpaRepository<EntraUser, UUID>, Ent
 
     Optional<EntraUser> findByEmailIgnoreCase(String email);
 
+    /**
+     * Batch version of {@link #findByEmailIgnoreCase(String)} for checking an import file. Takes
+     * and returns lower-case emails.
+     */
+    @Query("""
+            SELECT LOWER(u.email)
+            FROM EntraUser u
+            WHERE LOWER(u.email) IN :emails
+            """)
+    List<String> findExistingLowerCaseEmails(@Param("emails") Collection<String> emails);
+
     List<EntraUser> findByEntraOidIn(Set<String> entraOids);
 
+    /**
+     * Batch version of {@link #findByEntraOid(String)} for user sync, fetching profiles and their
+     * roles up front so that a page of users costs one query.
+     */
+    @Query("""
+            SELECT DISTINCT u FROM EntraUser u
+            LEFT JOIN FETCH u.userProfiles userProfile
+            LEFT JOIN FETCH userProfile.appRoles
+            WHERE u.entraOid IN :entraOids
+            """)
+    List<EntraUser> findWithProfilesByEntraOidIn(@Param("entraOids") Set<String> entraOids);
+
     /**
      * Batch fetch user profiles with firms and roles for given users
      */
@@ -301,6 +331,28 @@ public interface EntraUserRepository extends JpaRepository<EntraUser, UUID>, Ent
         """)
     long countActivationPendingExternalMultiFirmUsers();
 
+    /* ---------------- USER UPTAKE SUMMARY ---------------- */
+
+    /**
+     * Reads every uptake metric from the {@code user_uptake_summary} materialized view, as
+     * {@code [metric, total_count, multi_firm_count]} rows in report order.
+     */
+    @Query(value = """
+        SELECT metric, total_count, multi_firm_count
+        FROM user_uptake_summary
+        ORDER BY sort_order
+        """, nativeQuery = true)
+    List<Object[]> findUserUptakeSummary();
+
+    /**
+     * Recomputes the uptake summary in a single pass over user profiles. Readers keep seeing the
+     * previous contents until the refresh commits.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY user_uptake_summary", nativeQuery = true)
+    void refreshUserUptakeSummary();
+
     List<EntraUser> findEntraUserByCcmsEbsUserIsTrue();
 
     @Query("""
@@ -314,7 +366,8 @@ public interface EntraUserRepository extends JpaRepository<EntraUser, UUID>, Ent
           AND up.createdDate >= :startDate
           AND up.createdDate < :endDate
         """)
-    List<Object[]> findCcmsUsersWithAppInPeriod(
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> findCcmsUsersWithAppInPeriod(
             @Param("userType") UserType userType,
             @Param("appName") String appName,
             @Param("startDate") LocalDateTime startDate,
@@ -2,14 +2,18 @@ package uk.gov.justice.laa.portal.landingpage.repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Tuple;
 import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
@@ -83,9 +87,10 @@ public interface FirmRepository extends JpaRepository<Firm, UUID> {
         JOIN app_role r ON r.id = upar.app_role_id
         WHERE 'EXTERNAL' = ANY(r.user_type_restriction)
         GROUP BY f.id, f.name, f.code, r.name
-        ORDER BY f.name, r.name
+        ORDER BY f.name, f.id, r.name
         """, nativeQuery = true)
-    List<Tuple> findRoleCountsByFirm();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Tuple> findRoleCountsByFirm();
 
     @Query("""
             SELECT f.name, f.code, COUNT(up.id) FROM Firm f
@@ -94,7 +99,8 @@ public interface FirmRepository extends JpaRepository<Firm, UUID> {
             WHERE eu.multiFirmUser = TRUE
             GROUP BY f.id, f.name, f.code
             """)
-    List<Object[]> findMultiFirmUserCountsByFirm();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> findMultiFirmUserCountsByFirm();
 
     @Query(
             value = """
@@ -164,7 +170,8 @@ public interface FirmRepository extends JpaRepository<Firm, UUID> {
         """,
             nativeQuery = true
     )
-    List<Object[]> findAllFirmExternalUserCount();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> findAllFirmExternalUserCount();
 
     /* ---------------- TOTAL FIRMS EXTERNAL USERS ---------------- */
 
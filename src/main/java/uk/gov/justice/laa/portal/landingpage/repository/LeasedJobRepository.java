@@ -0,0 +1,33 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import uk.gov.justice.laa.portal.landingpage.entity.LeasedJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@NoRepositoryBean
+public interface LeasedJobRepository<J extends LeasedJob> extends JpaRepository<J, UUID> {
+
+    /**
+     * Locks the next due jobs for the calling transaction, skipping jobs another pod already
+     * holds. Jobs left {@code RUNNING} past their lease become due again and carry on from where
+     * they stopped. Each job type supplies the native query for its own table.
+     */
+    List<J> findDueForUpdateSkipLocked(LocalDateTime now, int limit);
+
+    /**
+     * Locks the job for the calling transaction, so checking who holds its lease and changing it
+     * cannot interleave with another pod leasing it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM #{#entityName} j WHERE j.id = :id")
+    Optional<J> findByIdForUpdate(@Param("id") UUID id);
+}
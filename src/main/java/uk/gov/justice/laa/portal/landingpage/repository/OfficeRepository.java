@@ -48,5 +48,32 @@ public interface OfficeRepository extends JpaRepository<Office, UUID> {
     )
     Page<Office> findAllByFirmId(UUID id, Pageable pageable);
 
+    /**
+     * One page of the firms' offices whose code, postcode or city starts with {@code search}, in
+     * code order. {@code search} is expected in lower case with LIKE wildcards escaped; an empty
+     * search matches every office. Backed by the {@code (firm_id, lower(...))} office indexes.
+     */
+    @Query(
+            value = """
+        SELECT * FROM office
+        WHERE firm_id IN (:firmIds)
+          AND (:search = ''
+               OR lower(code) LIKE :search || '%'
+               OR lower(post_code) LIKE :search || '%'
+               OR lower(city) LIKE :search || '%')
+        ORDER BY code, id
+        """,
+            countQuery = """
+        SELECT count(*) FROM office
+        WHERE firm_id IN (:firmIds)
+          AND (:search = ''
+               OR lower(code) LIKE :search || '%'
+               OR lower(post_code) LIKE :search || '%'
+               OR lower(city) LIKE :search || '%')
+        """,
+            nativeQuery = true
+    )
+    Page<Office> searchFirmOffices(List<UUID> firmIds, String search, Pageable pageable);
+
 
 }
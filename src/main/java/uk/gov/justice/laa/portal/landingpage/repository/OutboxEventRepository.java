@@ -0,0 +1,55 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Locks the next batch of due events for the calling transaction. Rows already locked by
+     * another relay instance are skipped rather than waited on, so several pods can drain the
+     * outbox concurrently without handing the same event out twice. Events stuck in
+     * {@code PROCESSING} past their lease (e.g. the pod died mid-publish) become due again.
+     *
+     * <p>CCMS role changes carry the roles as they were when the change was made, so they are
+     * handed out one at a time per user profile, in the order they were recorded. A change waits
+     * while an earlier one for the same profile is still pending or being published, so a retried
+     * older change can never reach CCMS after a newer one. A change parked as {@code FAILED} no
+     * longer holds the later ones back.</p>
+     */
+    @Query(value = """
+                SELECT *
+                FROM outbox_event o
+                WHERE ((o.status = 'PENDING' AND o.next_attempt_at <= :now)
+                       OR (o.status = 'PROCESSING' AND o.locked_until < :now))
+                  AND NOT (o.event_type = 'CCMS_ROLE_CHANGE' AND EXISTS (
+                           SELECT 1
+                           FROM outbox_event earlier
+                           WHERE earlier.event_type = 'CCMS_ROLE_CHANGE'
+                             AND earlier.aggregate_id = o.aggregate_id
+                             AND earlier.status IN ('PENDING', 'PROCESSING')
+                             AND (earlier.created_at, earlier.id) < (o.created_at, o.id)))
+                ORDER BY o.created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> findDueEventsForUpdateSkipLocked(@Param("now") LocalDateTime now,
+                                                       @Param("limit") int limit);
+
+    long countByStatus(OutboxEventStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") OutboxEventStatus status,
+                                           @Param("before") LocalDateTime before);
+}
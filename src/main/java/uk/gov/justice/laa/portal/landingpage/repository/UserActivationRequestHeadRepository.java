@@ -0,0 +1,24 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequestHead;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserActivationRequestHeadRepository extends JpaRepository<UserActivationRequestHead, UUID> {
+
+    /**
+     * Locks the request until the end of the transaction, so concurrent updates to the same
+     * request take turns to read the latest version and append the next one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM UserActivationRequestHead h WHERE h.requestId = :requestId")
+    Optional<UserActivationRequestHead> findByRequestIdForUpdate(@Param("requestId") UUID requestId);
+}
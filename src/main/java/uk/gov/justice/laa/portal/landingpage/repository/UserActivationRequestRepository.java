@@ -15,30 +15,38 @@ import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface UserActivationRequestRepository extends JpaRepository<UserActivationRequest, UUID> {
+public interface UserActivationRequestRepository extends JpaRepository<UserActivationRequest, UUID>,
+        UserActivationRequestRepositoryCustomSearch {
 
-    Optional<UserActivationRequest> findFirstByRequestIdOrderByVersionDesc(UUID requestId);
+    @Query("SELECT r FROM UserActivationRequestHead h JOIN h.latestVersion r WHERE h.requestId = :requestId")
+    Optional<UserActivationRequest> findFirstByRequestIdOrderByVersionDesc(@Param("requestId") UUID requestId);
 
-    Optional<UserActivationRequest> findFirstByRequestIdOrderByVersionAsc(UUID requestId);
+    @Query("SELECT r FROM UserActivationRequestHead h JOIN h.firstVersion r WHERE h.requestId = :requestId")
+    Optional<UserActivationRequest> findFirstByRequestIdOrderByVersionAsc(@Param("requestId") UUID requestId);
 
-    Optional<UserActivationRequest> findFirstByUserProfileIdOrderByCreatedAtDescVersionDesc(UUID userProfileId);
+    @Query("""
+                SELECT r
+                FROM UserActivationRequestHead h
+                JOIN h.latestVersion r
+                WHERE h.userProfileId = :userProfileId
+                ORDER BY h.lastActivityAt DESC, h.version DESC
+                LIMIT 1
+            """)
+    Optional<UserActivationRequest> findFirstByUserProfileIdOrderByCreatedAtDescVersionDesc(
+            @Param("userProfileId") UUID userProfileId);
 
     List<UserActivationRequest> findAllByRequestIdOrderByVersionAsc(UUID requestId);
 
-    @Query("SELECT COALESCE(MAX(u.version), 0) FROM UserActivationRequest u WHERE u.requestId = :requestId")
+    @Query("SELECT COALESCE(MAX(h.version), 0) FROM UserActivationRequestHead h WHERE h.requestId = :requestId")
     Integer findMaxVersionByRequestId(@Param("requestId") UUID requestId);
 
-    @Query("SELECT r FROM UserActivationRequest r WHERE r.version = 1 AND r.requestId IN :requestIds")
+    @Query("SELECT r FROM UserActivationRequestHead h JOIN h.firstVersion r WHERE h.requestId IN :requestIds")
     List<UserActivationRequest> findAllFirstVersionsByRequestIdIn(@Param("requestIds") Set<UUID> requestIds);
 
     @Query("""
                 SELECT r
-                FROM UserActivationRequest r
-                WHERE r.version = (
-                    SELECT MAX(sub.version)
-                    FROM UserActivationRequest sub
-                    WHERE sub.requestId = r.requestId
-                )
+                FROM UserActivationRequestHead h
+                JOIN h.latestVersion r
                 ORDER BY r.createdAt DESC
             """)
     List<UserActivationRequest> findAllLatestRequests();
@@ -46,14 +54,13 @@ public interface UserActivationRequestRepository extends JpaRepository<UserActiv
     @Query(value = """
                 SELECT r
                 FROM UserActivationRequest r
-                WHERE r.version = (
-                    SELECT MAX(sub.version)
-                    FROM UserActivationRequest sub
-                    WHERE sub.requestId = r.requestId
+                WHERE r.id IN (
+                    SELECT h.latestVersion.id
+                    FROM UserActivationRequestHead h
                 )
             """, countQuery = """
-                SELECT COUNT(DISTINCT r.requestId)
-                FROM UserActivationRequest r
+                SELECT COUNT(h)
+                FROM UserActivationRequestHead h
             """)
     Page<UserActivationRequest> findAllLatestRequests(Pageable pageable);
 
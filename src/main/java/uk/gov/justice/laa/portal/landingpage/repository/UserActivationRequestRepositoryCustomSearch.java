@@ -0,0 +1,35 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import uk.gov.justice.laa.portal.landingpage.entity.ReactivationRoleType;
+import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserActivationRequestRepositoryCustomSearch {
+
+    /**
+     * Counts the latest version of each request matching the filters. A null {@code firmIds}
+     * leaves the results unscoped; otherwise only requests for profiles in those firms match.
+     */
+    long countLatestRequests(String search,
+                             Collection<ReactivationRequestStatus> statuses,
+                             Collection<ReactivationRoleType> actorRoleTypes,
+                             Collection<UUID> firmIds);
+
+    /**
+     * Returns one page of the latest version of each request matching the filters, sorted by the
+     * given list column. Each row holds, in order: id, request id, user profile id, version,
+     * status, comments, actor entra oid, actor role type, actor name, actor email, user name,
+     * user email, date submitted (version 1), last activity (this version) and firm id.
+     */
+    List<Object[]> findLatestRequests(String search,
+                                      Collection<ReactivationRequestStatus> statuses,
+                                      Collection<ReactivationRoleType> actorRoleTypes,
+                                      Collection<UUID> firmIds,
+                                      String sort,
+                                      boolean ascending,
+                                      int offset,
+                                      int limit);
+}
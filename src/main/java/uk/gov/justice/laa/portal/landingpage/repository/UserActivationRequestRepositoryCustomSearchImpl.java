@@ -0,0 +1,204 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.ReactivationRoleType;
+import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class UserActivationRequestRepositoryCustomSearchImpl implements UserActivationRequestRepositoryCustomSearch {
+
+    private static final String UNKNOWN_USER_NAME = "Unknown user";
+
+    /**
+     * The columns the list can be sorted by; anything else falls back to the date submitted.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "requestId", "i.request_id::text",
+            "userProfileId", "i.user_profile_id::text",
+            "version", "i.version",
+            "requestStatus", "i.status",
+            "actorName", "LOWER(i.actor_name)",
+            "actorRoleType", actorRoleTypeDisplayName(),
+            "lastActivity", "i.last_activity",
+            "userName", "LOWER(i.user_name)",
+            "userEmail", "LOWER(i.user_email)");
+
+    private static final String DEFAULT_SORT_COLUMN = "i.submitted_at";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long countLatestRequests(String search,
+                                    Collection<ReactivationRequestStatus> statuses,
+                                    Collection<ReactivationRoleType> actorRoleTypes,
+                                    Collection<UUID> firmIds) {
+        StringBuilder countQueryStr = new StringBuilder();
+        appendCoreQueryBody(countQueryStr, "SELECT COUNT(*)", search, statuses, actorRoleTypes, firmIds);
+
+        Query countQuery = entityManager.createNativeQuery(countQueryStr.toString());
+        bindParameters(countQuery, search, statuses, actorRoleTypes, firmIds);
+        return ((Number) countQuery.getSingleResult()).longValue();
+    }
+
+    @Override
+    public List<Object[]> findLatestRequests(String search,
+                                             Collection<ReactivationRequestStatus> statuses,
+                                             Collection<ReactivationRoleType> actorRoleTypes,
+                                             Collection<UUID> firmIds,
+                                             String sort,
+                                             boolean ascending,
+                                             int offset,
+                                             int limit) {
+        StringBuilder dataQueryStr = new StringBuilder();
+        appendCoreQueryBody(dataQueryStr, "SELECT i.*", search, statuses, actorRoleTypes, firmIds);
+
+        // Nulls sort last ascending and first descending, as the in-memory comparators did
+        String direction = ascending ? "ASC" : "DESC";
+        dataQueryStr.append(" ORDER BY ")
+                .append(SORT_COLUMNS.getOrDefault(sort, DEFAULT_SORT_COLUMN)).append(' ').append(direction)
+                .append(", i.request_id ").append(direction);
+
+        Query dataQuery = entityManager.createNativeQuery(dataQueryStr.toString());
+        bindParameters(dataQuery, search, statuses, actorRoleTypes, firmIds);
+        dataQuery.setFirstResult(offset);
+        dataQuery.setMaxResults(limit);
+
+        @SuppressWarnings("unchecked") List<Object[]> results = dataQuery.getResultList();
+        return results.stream().map(UserActivationRequestRepositoryCustomSearchImpl::normaliseRow).toList();
+    }
+
+    /**
+     * Reads the latest version of each request through {@code user_activation_request_head},
+     * which also holds the date the request was first submitted, then joins the target user and
+     * the actor. Filters are applied to the latest version, so a request moves between statuses as
+     * new versions are added.
+     */
+    private void appendCoreQueryBody(StringBuilder sb, String selectClause, String search,
+                                     Collection<ReactivationRequestStatus> statuses,
+                                     Collection<ReactivationRoleType> actorRoleTypes,
+                                     Collection<UUID> firmIds) {
+        sb.append(" WITH items AS ( ")
+                .append("     SELECT l.id, l.request_id, l.user_profile_id, l.version, l.status, l.comments, ")
+                .append("            l.actor_entra_oid, l.actor_role_type, ")
+                .append(displayName("a")).append(" AS actor_name, a.email AS actor_email, ")
+                .append(displayName("u")).append(" AS user_name, u.email AS user_email, ")
+                .append("            h.first_submitted_at AS submitted_at, ")
+                .append("            l.created_at AS last_activity, up.firm_id ")
+                .append("     FROM user_activation_request_head h ")
+                .append("     JOIN user_activation_request l ON l.id = h.latest_version_id ")
+                .append("     LEFT JOIN user_profile up ON up.id = l.user_profile_id ")
+                .append("     LEFT JOIN entra_user u ON u.id = up.entra_user_id ")
+                .append("     LEFT JOIN entra_user a ON a.entra_oid = l.actor_entra_oid ")
+                .append(" ) ")
+                .append(' ').append(selectClause).append(" FROM items i WHERE TRUE ");
+
+        if (search != null && !search.isBlank()) {
+            sb.append(" AND (LOWER(i.request_id::text) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.user_profile_id::text) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.user_name) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.user_email) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.actor_name) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.actor_entra_oid) LIKE :search ESCAPE '\\' ")
+                    .append("      OR LOWER(i.comments) LIKE :search ESCAPE '\\') ");
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            sb.append(" AND i.status IN (:statuses) ");
+        }
+        if (actorRoleTypes != null && !actorRoleTypes.isEmpty()) {
+            sb.append(" AND i.actor_role_type IN (:actorRoleTypes) ");
+        }
+        if (firmIds != null) {
+            sb.append(firmIds.isEmpty() ? " AND FALSE " : " AND i.firm_id IN (:firmIds) ");
+        }
+    }
+
+    private void bindParameters(Query query, String search,
+                                Collection<ReactivationRequestStatus> statuses,
+                                Collection<ReactivationRoleType> actorRoleTypes,
+                                Collection<UUID> firmIds) {
+        if (search != null && !search.isBlank()) {
+            query.setParameter("search", "%" + escapeLike(search.trim().toLowerCase(Locale.UK)) + "%");
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            query.setParameter("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        if (actorRoleTypes != null && !actorRoleTypes.isEmpty()) {
+            query.setParameter("actorRoleTypes", actorRoleTypes.stream().map(Enum::name).toList());
+        }
+        if (firmIds != null && !firmIds.isEmpty()) {
+            query.setParameter("firmIds", firmIds);
+        }
+    }
+
+    /**
+     * First and last name as the list shows them, falling back to "Unknown user".
+     */
+    private static String displayName(String alias) {
+        return "COALESCE(NULLIF(TRIM(CONCAT_WS(' ', " + alias + ".first_name, " + alias + ".last_name)), ''), '"
+                + UNKNOWN_USER_NAME + "')";
+    }
+
+    /**
+     * Sorts role types by the label shown in the list rather than the stored enum name.
+     */
+    private static String actorRoleTypeDisplayName() {
+        StringBuilder sb = new StringBuilder("LOWER(CASE i.actor_role_type");
+        for (ReactivationRoleType roleType : ReactivationRoleType.values()) {
+            sb.append(" WHEN '").append(roleType.name()).append("' THEN '")
+                    .append(roleType.getDisplayName().replace("'", "''")).append('\'');
+        }
+        return sb.append(" END)").toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Object[] normaliseRow(Object[] row) {
+        Object[] normalised = row.clone();
+        for (int index : new int[] {0, 1, 2, 14}) {
+            normalised[index] = toUuid(row[index]);
+        }
+        normalised[12] = toInstant(row[12]);
+        normalised[13] = toInstant(row[13]);
+        return normalised;
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        return UUID.fromString(value.toString());
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value == null || value instanceof Instant) {
+            return (Instant) value;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        throw new IllegalStateException("Unexpected timestamp type: " + value.getClass());
+    }
+}
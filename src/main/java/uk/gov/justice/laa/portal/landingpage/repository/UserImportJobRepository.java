@@ -0,0 +1,35 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserImportJobRepository extends LeasedJobRepository<UserImportJob> {
+
+    /**
+     * Locks the next confirmed imports that are due for the calling transaction, skipping
+     * imports another pod already holds. Imports left {@code RUNNING} past their lease become due
+     * again and carry on with the rows still pending.
+     */
+    @Override
+    @Query(value = """
+                SELECT *
+                FROM user_import_job
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'RUNNING' AND locked_until < :now)
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UserImportJob> findDueForUpdateSkipLocked(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    boolean existsByFirmIdAndStatusIn(UUID firmId, Collection<UserImportJobStatus> statuses);
+}
@@ -0,0 +1,52 @@
+package uk.gov.justice.laa.portal.landingpage.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserImportRowRepository extends JpaRepository<UserImportRow, UUID> {
+
+    @Query(value = """
+                SELECT *
+                FROM user_import_row
+                WHERE job_id = :jobId
+                  AND status = 'PENDING'
+                ORDER BY row_number
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<UserImportRow> findPendingByJobId(@Param("jobId") UUID jobId, @Param("limit") int limit);
+
+    Page<UserImportRow> findByJobIdAndStatusOrderByRowNumber(UUID jobId, UserImportRowStatus status, Pageable pageable);
+
+    Page<UserImportRow> findByJobIdOrderByRowNumber(UUID jobId, Pageable pageable);
+
+    List<UserImportRow> findByJobIdOrderByRowNumber(UUID jobId);
+
+    /**
+     * Marks the rows of an import that were never attempted as failed, once the import has
+     * given up.
+     *
+     * @return the number of rows marked
+     */
+    @Modifying
+    @Query("""
+                UPDATE UserImportRow r
+                SET r.status = uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus.FAILED,
+                    r.detail = :detail,
+                    r.processedAt = :now
+                WHERE r.jobId = :jobId
+                  AND r.status = uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus.PENDING
+            """)
+    int failPending(@Param("jobId") UUID jobId, @Param("detail") String detail, @Param("now") LocalDateTime now);
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.repository;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +24,29 @@ import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
 
+    /**
+     * Profile {@code p} of user {@code eu} with the SiLAS status that
+     * {@code UserService#calculateSilasStatusForUserProfile} would give it.
+     */
+    String PROFILES_WITH_COMPUTED_SILAS_STATUS = """
+            SELECT p.id,
+                   CASE
+                       WHEN p.user_type <> 'INTERNAL'
+                               AND eu.invitation_status IS DISTINCT FROM 'VERIFICATION_SUCCESS' THEN
+                           CASE
+                               WHEN p.status = 'PENDING'
+                                       OR NOT EXISTS (SELECT 1 FROM user_profile_app_role r WHERE r.user_profile_id = p.id)
+                                   THEN 'INCOMPLETE'
+                               ELSE 'ACTIVATION_PENDING'
+                           END
+                       WHEN NOT EXISTS (SELECT 1 FROM user_profile_app_role r WHERE r.user_profile_id = p.id)
+                           THEN 'NO_ROLES_ASSIGNED'
+                       ELSE 'COMPLETE'
+                   END AS status
+            FROM user_profile p
+            JOIN entra_user eu ON eu.id = p.entra_user_id
+            """;
+
     @Query("""
             SELECT DISTINCT u.entraOid FROM EntraUser u
             JOIN u.userProfiles ups
@@ -188,6 +212,34 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>
     @Query(value = "DELETE FROM user_profile_app_role WHERE app_role_id = :roleId", nativeQuery = true)
     void deleteAllByAppRoleId(@Param("roleId") UUID roleId);
 
+    @Query(value = """
+                SELECT user_profile_id
+                FROM user_profile_app_role
+                WHERE app_role_id = :roleId
+                ORDER BY user_profile_id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findUserProfileIdsByAppRoleId(@Param("roleId") UUID roleId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+                DELETE FROM user_profile_app_role
+                WHERE app_role_id = :roleId
+                  AND user_profile_id IN (:userProfileIds)
+            """, nativeQuery = true)
+    int deleteAppRoleAssignments(@Param("roleId") UUID roleId,
+                                 @Param("userProfileIds") Collection<UUID> userProfileIds);
+
+    @Query("""
+            SELECT DISTINCT ups FROM UserProfile ups
+                        JOIN FETCH ups.entraUser
+                        LEFT JOIN FETCH ups.firm
+                        LEFT JOIN FETCH ups.appRoles ars
+                        LEFT JOIN FETCH ars.app
+            WHERE ups.id IN :ids
+            """)
+    List<UserProfile> findAllByIdInWithAppRoles(@Param("ids") Collection<UUID> ids);
+
     @Query(value = """
                 SELECT COUNT(*)
                 FROM user_profile_app_role
@@ -278,4 +330,112 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>
             """)
     List<UserProfile> findAllByIdInWithFirm(@Param("ids") Collection<UUID> ids);
 
+    /**
+     * Recomputes the SiLAS status of every profile, writing only those that have changed.
+     *
+     * @return the number of profiles updated
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE user_profile up SET silas_status = c.status FROM ("
+            + PROFILES_WITH_COMPUTED_SILAS_STATUS
+            + ") c WHERE up.id = c.id AND up.silas_status IS DISTINCT FROM c.status", nativeQuery = true)
+    int refreshAllSilasStatuses();
+
+    /**
+     * Recomputes the SiLAS status of profiles that were created or modified, or whose user was,
+     * after {@code since}, writing only those that have changed.
+     *
+     * @return the number of profiles updated
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE user_profile up SET silas_status = c.status FROM ("
+            + PROFILES_WITH_COMPUTED_SILAS_STATUS
+            + """
+            WHERE p.id IN (
+                SELECT id FROM user_profile
+                WHERE last_modified_date > :since OR created_date > :since
+                UNION
+                SELECT cp.id FROM user_profile cp
+                JOIN entra_user ce ON ce.id = cp.entra_user_id
+                WHERE ce.last_modified_date > :since OR ce.created_date > :since
+            )
+            ) c WHERE up.id = c.id AND up.silas_status IS DISTINCT FROM c.status
+            """, nativeQuery = true)
+    int refreshSilasStatusesChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Recomputes the SiLAS status of the given profiles, writing only those that have changed.
+     * Pending changes are flushed first, so the status reflects the users and roles just saved.
+     *
+     * @return the number of profiles updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_profile up SET silas_status = c.status FROM ("
+            + PROFILES_WITH_COMPUTED_SILAS_STATUS
+            + " WHERE p.id IN (:ids)) c WHERE up.id = c.id AND up.silas_status IS DISTINCT FROM c.status",
+            nativeQuery = true)
+    int refreshSilasStatuses(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            SELECT DISTINCT ups FROM UserProfile ups
+                        LEFT JOIN FETCH ups.offices
+            WHERE ups.id IN :ids
+            """)
+    List<UserProfile> findAllByIdInWithOffices(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Gives every role to every one of the profiles, leaving assignments that already exist.
+     *
+     * @return the number of assignments added
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO user_profile_app_role (user_profile_id, app_role_id)
+                SELECT p.id, r.id
+                FROM user_profile p
+                CROSS JOIN app_role r
+                WHERE p.id IN (:userProfileIds)
+                  AND r.id IN (:roleIds)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertAppRoleAssignments(@Param("userProfileIds") Collection<UUID> userProfileIds,
+                                 @Param("roleIds") Collection<UUID> roleIds);
+
+    @Modifying
+    @Query(value = """
+                DELETE FROM user_profile_app_role
+                WHERE user_profile_id IN (:userProfileIds)
+                  AND app_role_id IN (:roleIds)
+            """, nativeQuery = true)
+    int deleteAppRoleAssignmentsIn(@Param("userProfileIds") Collection<UUID> userProfileIds,
+                                   @Param("roleIds") Collection<UUID> roleIds);
+
+    /**
+     * Gives every office to every one of the profiles, leaving assignments that already exist.
+     *
+     * @return the number of assignments added
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO user_profile_office (user_profile_id, office_id)
+                SELECT p.id, o.id
+                FROM user_profile p
+                CROSS JOIN office o
+                WHERE p.id IN (:userProfileIds)
+                  AND o.id IN (:officeIds)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertOfficeAssignments(@Param("userProfileIds") Collection<UUID> userProfileIds,
+                                @Param("officeIds") Collection<UUID> officeIds);
+
+    @Modifying
+    @Query(value = """
+                DELETE FROM user_profile_office
+                WHERE user_profile_id IN (:userProfileIds)
+                  AND office_id IN (:officeIds)
+            """, nativeQuery = true)
+    int deleteOfficeAssignmentsIn(@Param("userProfileIds") Collection<UUID> userProfileIds,
+                                  @Param("officeIds") Collection<UUID> officeIds);
 }
@@ -0,0 +1,18 @@
+package uk.gov.justice.laa.portal.landingpage.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItemStatus;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BulkAssignmentItemView {
+    private UUID userProfileId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private BulkAssignmentItemStatus status;
+    private String detail;
+}
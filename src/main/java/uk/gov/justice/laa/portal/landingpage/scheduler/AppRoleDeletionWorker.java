@@ -0,0 +1,43 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.config.PollingConfig;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.service.AppRoleDeletionService;
+
+import java.util.UUID;
+
+/**
+ * Works through queued app role deletions one chunk of user profiles at a time, so that logins
+ * and role edits touching {@code user_profile_app_role} are not starved.
+ */
+@Component
+public class AppRoleDeletionWorker extends LeasedJobWorker<AppRoleDeletionJob> {
+
+    private final AppRoleDeletionService appRoleDeletionService;
+
+    public AppRoleDeletionWorker(AppRoleDeletionService appRoleDeletionService,
+                                 @Value("${app.role.deletion.enabled:true}") boolean deletionEnabled,
+                                 @Value("${app.role.deletion.chunk.size:500}") int chunkSize,
+                                 @Value("${app.role.deletion.chunk.pause.millis:100}") long chunkPauseMillis) {
+        super("app role deletion", appRoleDeletionService, deletionEnabled, chunkSize, chunkPauseMillis);
+        this.appRoleDeletionService = appRoleDeletionService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.role.deletion.interval:5000}", scheduler = PollingConfig.WORKER_SCHEDULER)
+    public void run() {
+        runDueJob();
+    }
+
+    @Override
+    protected int processNextChunk(UUID jobId, int chunkSize) {
+        return appRoleDeletionService.deleteNextChunk(jobId, chunkSize);
+    }
+
+    @Override
+    protected boolean complete(UUID jobId) {
+        return appRoleDeletionService.completeDeletion(jobId);
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.config.PollingConfig;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.service.BulkAssignmentService;
+
+import java.util.UUID;
+
+/**
+ * Works through queued bulk role and office assignments one chunk of users at a time, so that
+ * logins and single-user edits touching the same assignment tables are not starved.
+ */
+@Component
+public class BulkAssignmentWorker extends LeasedJobWorker<BulkAssignmentJob> {
+
+    private final BulkAssignmentService bulkAssignmentService;
+
+    public BulkAssignmentWorker(BulkAssignmentService bulkAssignmentService,
+                                @Value("${app.bulk.assignment.enabled:true}") boolean assignmentEnabled,
+                                @Value("${app.bulk.assignment.chunk.size:200}") int chunkSize,
+                                @Value("${app.bulk.assignment.chunk.pause.millis:100}") long chunkPauseMillis) {
+        super("bulk assignment", bulkAssignmentService, assignmentEnabled, chunkSize, chunkPauseMillis);
+        this.bulkAssignmentService = bulkAssignmentService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.bulk.assignment.interval:5000}", scheduler = PollingConfig.WORKER_SCHEDULER)
+    public void run() {
+        runDueJob();
+    }
+
+    @Override
+    protected int processNextChunk(UUID jobId, int chunkSize) {
+        return bulkAssignmentService.applyNextChunk(jobId, chunkSize);
+    }
+
+    @Override
+    protected boolean complete(UUID jobId) {
+        bulkAssignmentService.completeJob(jobId);
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.config.PollingConfig;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatch;
+import uk.gov.justice.laa.portal.landingpage.service.EmailDispatchService;
+import uk.gov.justice.laa.portal.landingpage.utils.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drains the email dispatch queue. Leased emails are sent on a small worker pool, with every
+ * send taking a permit from a token bucket first so that bulk operations stay inside the GOV.UK
+ * Notify rate limit. The rate is per pod, so it should be set to the Notify limit divided by the
+ * number of replicas.
+ */
+@Slf4j
+@Component
+public class EmailDispatchWorker {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final EmailDispatchService emailDispatchService;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ExecutorService workers;
+
+    @Value("${app.email.dispatch.enabled:true}")
+    private boolean dispatchEnabled;
+
+    @Value("${app.email.dispatch.batch.size:50}")
+    private int batchSize;
+
+    @Value("${app.email.dispatch.retention.days:30}")
+    private int retentionDays;
+
+    @Autowired
+    public EmailDispatchWorker(EmailDispatchService emailDispatchService,
+                               @Value("${app.email.dispatch.rate.per.second:20}") double permitsPerSecond,
+                               @Value("${app.email.dispatch.rate.burst:20}") int burst,
+                               @Value("${app.email.dispatch.workers:4}") int workerCount) {
+        this(emailDispatchService, new TokenBucketRateLimiter(permitsPerSecond, burst),
+                Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("email-dispatch-")));
+    }
+
+    EmailDispatchWorker(EmailDispatchService emailDispatchService, TokenBucketRateLimiter rateLimiter,
+                        ExecutorService workers) {
+        this.emailDispatchService = emailDispatchService;
+        this.rateLimiter = rateLimiter;
+        this.workers = workers;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.dispatch.interval:1000}", scheduler = PollingConfig.WORKER_SCHEDULER)
+    public void dispatch() {
+        if (!dispatchEnabled) {
+            log.debug("Email dispatch disabled via config");
+            return;
+        }
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<EmailDispatch> leased;
+            try {
+                leased = emailDispatchService.leaseDue(batchSize);
+            } catch (Exception e) {
+                log.error("Error leasing queued emails", e);
+                return;
+            }
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>(leased.size());
+            for (EmailDispatch email : leased) {
+                inFlight.add(CompletableFuture.runAsync(() -> send(email), workers));
+            }
+            // Wait for the batch so that no lease can expire while its email is still queued locally
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+            if (leased.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void send(EmailDispatch email) {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emailDispatchService.recordFailure(email.getId(), e);
+            return;
+        }
+        try {
+            emailDispatchService.markSent(email.getId(), emailDispatchService.send(email));
+        } catch (Exception e) {
+            emailDispatchService.recordFailure(email.getId(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.email.dispatch.purge.schedule:0 45 2 * * *}", zone = "Europe/London")
+    public void purge() {
+        if (!dispatchEnabled) {
+            return;
+        }
+        try {
+            int purged = emailDispatchService.purgeSent(Duration.ofDays(retentionDays));
+            int redacted = emailDispatchService.redactDeadLetters(Duration.ofDays(retentionDays));
+            log.info("Purged {} sent emails from the dispatch queue and redacted {} dead letters", purged, redacted);
+        } catch (Exception e) {
+            log.error("Error purging sent emails from the dispatch queue", e);
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.justice.laa.portal.landingpage.entity.LeasedJob;
+import uk.gov.justice.laa.portal.landingpage.service.LeasedJobService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leases one due job at a time from a {@link LeasedJobService} and works through it a chunk at a
+ * time, pausing between chunks so that the requests touching the same tables are not starved.
+ * Leasing uses {@code SKIP LOCKED}, so the worker can run on every pod. A failed job is handed
+ * back to the service to retry or give up on.
+ *
+ * <p>Subclasses schedule {@link #runDueJob} and say how a chunk is processed and how a job is
+ * completed.</p>
+ */
+@Slf4j
+public abstract class LeasedJobWorker<J extends LeasedJob> {
+
+    private final String jobName;
+    private final LeasedJobService<J> service;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+
+    /**
+     * @param jobName how the job type is named in log messages, e.g. {@code "bulk assignment"}
+     */
+    protected LeasedJobWorker(String jobName, LeasedJobService<J> service, boolean enabled, int chunkSize,
+                              long chunkPauseMillis) {
+        this.jobName = jobName;
+        this.service = service;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPauseMillis;
+    }
+
+    protected void runDueJob() {
+        if (!enabled) {
+            log.debug("The {} worker is disabled via config", jobName);
+            return;
+        }
+        List<J> jobs;
+        try {
+            jobs = service.leaseDue(1);
+        } catch (Exception e) {
+            log.error("Error leasing {} jobs", jobName, e);
+            return;
+        }
+        jobs.forEach(this::process);
+    }
+
+    /**
+     * @return the number of items processed; zero once there are none left
+     */
+    protected abstract int processNextChunk(UUID jobId, int chunkSize);
+
+    /**
+     * @return false if more work turned up while the job ran, in which case chunks are processed
+     *         again before completing it once more
+     */
+    protected abstract boolean complete(UUID jobId);
+
+    private void process(J job) {
+        try {
+            do {
+                while (processNextChunk(job.getId(), chunkSize) > 0) {
+                    pause();
+                }
+            } while (!complete(job.getId()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            service.recordFailure(job.getId(), e);
+        } catch (Exception e) {
+            service.recordFailure(job.getId(), e);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (chunkPauseMillis > 0) {
+            Thread.sleep(chunkPauseMillis);
+        }
+    }
+}
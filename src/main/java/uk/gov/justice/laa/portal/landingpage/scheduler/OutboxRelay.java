@@ -0,0 +1,113 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.config.PollingConfig;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventType;
+import uk.gov.justice.laa.portal.landingpage.service.OutboxService;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Drains the transactional outbox. Each run leases up to one batch of due events per round and
+ * keeps going while full batches come back, so a backlog is cleared in a single run. Leasing uses
+ * {@code SKIP LOCKED}, so the relay can run on every pod without a distributed lock.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final OutboxService outboxService;
+
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${app.outbox.relay.batch.size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention.days:7}")
+    private int retentionDays;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:2000}", scheduler = PollingConfig.WORKER_SCHEDULER)
+    public void relay() {
+        if (!relayEnabled) {
+            log.debug("Outbox relay disabled via config");
+            return;
+        }
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<OutboxEvent> events;
+            try {
+                events = outboxService.leaseDueEvents(batchSize);
+            } catch (Exception e) {
+                log.error("Error leasing outbox events", e);
+                return;
+            }
+            publishAll(events);
+            if (events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * CCMS messages for the whole lease are submitted before any result is awaited, so that the
+     * batch publisher can send them in {@code SendMessageBatch} requests rather than one by one.
+     */
+    private void publishAll(List<OutboxEvent> events) {
+        Map<OutboxEvent, CompletableFuture<Optional<String>>> ccmsInFlight = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            if (event.getEventType() == OutboxEventType.CCMS_ROLE_CHANGE) {
+                try {
+                    ccmsInFlight.put(event, outboxService.submitCcmsRoleChange(event));
+                } catch (Exception e) {
+                    outboxService.recordFailure(event.getId(), e);
+                }
+            } else {
+                publish(event);
+            }
+        }
+        ccmsInFlight.forEach((event, messageId) -> {
+            try {
+                outboxService.completeCcmsRoleChange(event, messageId.join());
+            } catch (CompletionException e) {
+                outboxService.recordFailure(event.getId(), e.getCause() instanceof Exception cause ? cause : e);
+            } catch (Exception e) {
+                outboxService.recordFailure(event.getId(), e);
+            }
+        });
+    }
+
+    private void publish(OutboxEvent event) {
+        try {
+            outboxService.publish(event);
+        } catch (Exception e) {
+            outboxService.recordFailure(event.getId(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge.schedule:0 30 2 * * *}", zone = "Europe/London")
+    public void purge() {
+        if (!relayEnabled) {
+            return;
+        }
+        try {
+            int purged = outboxService.purgeSentEvents(Duration.ofDays(retentionDays));
+            log.info("Purged {} sent outbox events", purged);
+        } catch (Exception e) {
+            log.error("Error purging sent outbox events", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.config.PollingConfig;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.service.UserImportService;
+
+import java.util.UUID;
+
+/**
+ * Creates the users of confirmed imports a few at a time, pausing between chunks so that an import
+ * of hundreds of users does not flood Tech Services with registrations.
+ */
+@Component
+public class UserImportWorker extends LeasedJobWorker<UserImportJob> {
+
+    private final UserImportService userImportService;
+
+    public UserImportWorker(UserImportService userImportService,
+                            @Value("${app.user.import.enabled:true}") boolean importEnabled,
+                            @Value("${app.user.import.chunk.size:5}") int chunkSize,
+                            @Value("${app.user.import.chunk.pause.millis:1000}") long chunkPauseMillis) {
+        super("user import", userImportService, importEnabled, chunkSize, chunkPauseMillis);
+        this.userImportService = userImportService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.user.import.interval:5000}", scheduler = PollingConfig.WORKER_SCHEDULER)
+    public void run() {
+        runDueJob();
+    }
+
+    @Override
+    protected int processNextChunk(UUID jobId, int chunkSize) {
+        return userImportService.createNextUsers(jobId, chunkSize);
+    }
+
+    @Override
+    protected boolean complete(UUID jobId) {
+        userImportService.completeJob(jobId);
+        return true;
+    }
+}
@@ -58,6 +58,12 @@ public class AccessControlService {
     @Value("${feature.flag.bulk.disable.user}")
     private boolean bulkUserDisableFeatureEnabled;
 
+    @Value("${feature.flag.bulk.assign.user}")
+    private boolean bulkUserAssignFeatureEnabled;
+
+    @Value("${feature.flag.bulk.import.user}")
+    private boolean bulkUserImportFeatureEnabled;
+
     private static final Logger log = LoggerFactory.getLogger(AccessControlService.class);
 
     public AccessControlService(UserService userService, LoginService loginService,
@@ -955,4 +961,34 @@ public class AccessControlService {
         return bulkUserDisableFeatureEnabled && authenticatedUserHasAnyGivenPermissions(Permission.BULK_DISABLE_FIRM_USERS);
     }
 
+    /**
+     * Bulk role and office changes are limited to internal users who could make each of those
+     * changes one user at a time.
+     */
+    public boolean canBulkAssignFirmUsers() {
+        if (!bulkUserAssignFeatureEnabled) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EntraUser authenticatedUser = loginService.getCurrentEntraUser(authentication);
+        return userService.isInternal(authenticatedUser.getId())
+                && userHasPermission(authenticatedUser, Permission.EDIT_EXTERNAL_USER)
+                && userHasPermission(authenticatedUser, Permission.ASSIGN_EXTERNAL_USER_ROLES)
+                && userHasPermission(authenticatedUser, Permission.REMOVE_EXTERNAL_USER_ROLES)
+                && userHasPermission(authenticatedUser, Permission.EDIT_USER_OFFICE);
+    }
+
+    /**
+     * Importing users from a file is limited to internal users who can create external users.
+     */
+    public boolean canImportFirmUsers() {
+        if (!bulkUserImportFeatureEnabled) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EntraUser authenticatedUser = loginService.getCurrentEntraUser(authentication);
+        return userService.isInternal(authenticatedUser.getId())
+                && userHasPermission(authenticatedUser, Permission.CREATE_EXTERNAL_USER);
+    }
+
 }
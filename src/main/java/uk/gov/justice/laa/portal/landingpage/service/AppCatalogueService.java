@@ -0,0 +1,102 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.justice.laa.portal.landingpage.dto.AppCatalogue;
+import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+
+/**
+ * Serves the SiLAS administration reference data from an in-memory snapshot. The snapshot is
+ * rebuilt only when the version in {@code app_catalogue_version} moves on, which the services
+ * that change apps, roles or role assignment restrictions do as part of their transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppCatalogueService {
+
+    private final AppService appService;
+    private final AppRoleService appRoleService;
+    private final RoleAssignmentService roleAssignmentService;
+    private final AppCatalogueVersionRepository appCatalogueVersionRepository;
+
+    private final AtomicReference<AppCatalogue> catalogue = new AtomicReference<>();
+
+    public AppCatalogue getCatalogue() {
+        long version = currentVersion();
+        AppCatalogue current = catalogue.get();
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        synchronized (catalogue) {
+            current = catalogue.get();
+            if (current == null || current.version() != version) {
+                current = build(version);
+                catalogue.set(current);
+            }
+            return current;
+        }
+    }
+
+    private long currentVersion() {
+        return appCatalogueVersionRepository.findCurrentVersion().orElse(0L);
+    }
+
+    /**
+     * The version is read before the data, so a change committed while building leaves the
+     * snapshot at the older version and the next request rebuilds it.
+     */
+    private AppCatalogue build(long version) {
+        log.debug("Building app catalogue for version {}", version);
+        List<AppDto> authzApps = appService.getAllAuthzApps();
+        List<AppDto> laaApps = appService.getAllLaaApps();
+        List<AppRoleAdminDto> laaAppRoles = appRoleService.getAllLaaAppRoles();
+        Map<AppRoleDto, List<AppRoleDto>> restrictions = roleAssignmentService.getLaaAppRoleAssignmentRestrictions();
+
+        Map<String, List<AppRoleAdminDto>> rolesByAppName = laaAppRoles.stream()
+                .collect(Collectors.groupingBy(AppRoleAdminDto::getParentApp, LinkedHashMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+
+        Map<String, String> appNameByRoleId = laaAppRoles.stream()
+                .collect(Collectors.toMap(AppRoleAdminDto::getId, AppRoleAdminDto::getParentApp, (a, b) -> a));
+        Map<String, Map<AppRoleDto, List<AppRoleDto>>> restrictionsByAppName = new LinkedHashMap<>();
+        Map<AppRoleDto, List<AppRoleDto>> allRestrictions = new LinkedHashMap<>();
+        restrictions.forEach((assignable, assigning) -> {
+            List<AppRoleDto> assigningRoles = List.copyOf(assigning);
+            allRestrictions.put(assignable, assigningRoles);
+            String appName = appNameByRoleId.get(assignable.getId());
+            if (appName != null) {
+                restrictionsByAppName.computeIfAbsent(appName, name -> new LinkedHashMap<>())
+                        .put(assignable, assigningRoles);
+            }
+        });
+        restrictionsByAppName.replaceAll((appName, byRole) -> Collections.unmodifiableMap(byRole));
+
+        List<String> laaAppNames = laaApps.stream()
+                .map(AppDto::getName)
+                .distinct()
+                .sorted()
+                .toList();
+
+        return new AppCatalogue(version,
+                List.copyOf(authzApps),
+                List.copyOf(laaApps),
+                laaAppNames,
+                List.copyOf(laaAppRoles),
+                Collections.unmodifiableMap(rolesByAppName),
+                Collections.unmodifiableMap(allRestrictions),
+                Collections.unmodifiableMap(restrictionsByAppName));
+    }
+}
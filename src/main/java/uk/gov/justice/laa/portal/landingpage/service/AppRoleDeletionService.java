@@ -0,0 +1,229 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.dto.DeleteAppRoleEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleDeletionJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes app roles in the background.
+ *
+ * <p>{@link #requestDeletion} only records a job. The
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.AppRoleDeletionWorker} leases due jobs
+ * and calls {@link #deleteNextChunk} until no user holds the role, each chunk in a short
+ * transaction of its own, so a widely held role never locks {@code user_profile_app_role} for
+ * long. Each chunk records the CCMS and tech services updates for the users it touched in the
+ * outbox, in the same transaction as the delete. {@link #completeDeletion} then removes the
+ * role itself. A job that fails is retried from where it stopped.</p>
+ */
+@Slf4j
+@Service
+public class AppRoleDeletionService extends LeasedJobService<AppRoleDeletionJob> {
+
+    private static final Set<AppRoleDeletionJobStatus> ACTIVE_STATUSES =
+            EnumSet.of(AppRoleDeletionJobStatus.PENDING, AppRoleDeletionJobStatus.RUNNING);
+
+    private final AppRoleDeletionJobRepository jobRepository;
+    private final AppRoleRepository appRoleRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final RoleAssignmentRepository roleAssignmentRepository;
+    private final AppCatalogueVersionRepository appCatalogueVersionRepository;
+    private final OutboxService outboxService;
+    private final EventService eventService;
+    private final MeterRegistry meterRegistry;
+
+    public AppRoleDeletionService(AppRoleDeletionJobRepository jobRepository, AppRoleRepository appRoleRepository,
+                                  UserProfileRepository userProfileRepository,
+                                  RoleAssignmentRepository roleAssignmentRepository,
+                                  AppCatalogueVersionRepository appCatalogueVersionRepository,
+                                  OutboxService outboxService, EventService eventService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.role.deletion.lease.seconds:120}") long leaseSeconds,
+                                  @Value("${app.role.deletion.max.attempts:5}") int maxAttempts,
+                                  @Value("${app.role.deletion.backoff.seconds:60}") long backoffSeconds) {
+        super("App role deletion job", "app.role.deletion", jobRepository, meterRegistry,
+                Duration.ofSeconds(leaseSeconds), maxAttempts, Duration.ofSeconds(backoffSeconds));
+        this.jobRepository = jobRepository;
+        this.appRoleRepository = appRoleRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.roleAssignmentRepository = roleAssignmentRepository;
+        this.appCatalogueVersionRepository = appCatalogueVersionRepository;
+        this.outboxService = outboxService;
+        this.eventService = eventService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues the deletion of an app role. Asking again while a deletion of the same role is
+     * still running returns nothing rather than queueing a second job. The check up front is
+     * only a shortcut: a unique index allows one active job per role, so when two requests race
+     * the one whose insert loses also returns nothing. This runs outside any transaction of the
+     * caller and the job is saved in one of its own, so that losing the race does not leave the
+     * caller's transaction marked for rollback.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AppRoleDeletionJob> requestDeletion(AppRole appRole, String appName, UUID requestedByUserProfileId,
+                                                        UUID requestedByEntraOid, String reason) {
+        if (jobRepository.existsByAppRoleIdAndStatusIn(appRole.getId(), ACTIVE_STATUSES)) {
+            log.info("Deletion of app role {} is already in progress", appRole.getId());
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        AppRoleDeletionJob job = AppRoleDeletionJob.builder()
+                .appRoleId(appRole.getId())
+                .appRoleName(appRole.getName())
+                .appName(appName)
+                .requestedByUserProfileId(requestedByUserProfileId)
+                .requestedByEntraOid(requestedByEntraOid)
+                .reason(reason == null ? null : reason.trim())
+                .totalAssignments(userProfileRepository.countUserProfilesByAppRoleId(appRole.getId()))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        AppRoleDeletionJob saved;
+        try {
+            saved = jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Deletion of app role {} was queued by another request", appRole.getId());
+            return Optional.empty();
+        }
+        log.info("Queued deletion of app role {} from app {} held by {} user profiles (job {})",
+                appRole.getName(), appName, saved.getTotalAssignments(), saved.getId());
+        return Optional.of(saved);
+    }
+
+    /**
+     * The roles with a deletion queued or running, which can no longer be given to users.
+     */
+    @Transactional(readOnly = true)
+    public Set<UUID> getRoleIdsBeingDeleted() {
+        return jobRepository.findAppRoleIdsByStatusIn(ACTIVE_STATUSES);
+    }
+
+    /**
+     * Removes the role from up to {@code chunkSize} user profiles, records one tech services
+     * update per affected user and the CCMS role changes for their profiles, and moves the
+     * job's progress and lease on.
+     *
+     * @return the number of profiles the role was removed from; zero once no profile holds it
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteNextChunk(UUID jobId, int chunkSize) {
+        AppRoleDeletionJob job = requireLease(jobId);
+        Optional<AppRole> appRole = appRoleRepository.findById(job.getAppRoleId());
+        if (appRole.isEmpty()) {
+            return 0;
+        }
+        List<UUID> userProfileIds = userProfileRepository.findUserProfileIdsByAppRoleId(job.getAppRoleId(), chunkSize);
+        if (userProfileIds.isEmpty()) {
+            return 0;
+        }
+
+        List<UserProfile> profiles = userProfileRepository.findAllByIdInWithAppRoles(userProfileIds);
+        int deleted = userProfileRepository.deleteAppRoleAssignments(job.getAppRoleId(), userProfileIds);
+        userProfileRepository.refreshSilasStatuses(userProfileIds);
+        enqueueNotifications(appRole.get(), profiles);
+
+        job.setDeletedAssignments(job.getDeletedAssignments() + deleted);
+        extendLease(job);
+        jobRepository.save(job);
+        meterRegistry.counter("app.role.deletion.assignments.deleted").increment(deleted);
+        log.debug("Removed app role {} from {} user profiles ({} of {})", job.getAppRoleName(), deleted,
+                job.getDeletedAssignments(), job.getTotalAssignments());
+        return deleted;
+    }
+
+    /**
+     * One tech services update per entra user, however many of their profiles held the role, and
+     * a CCMS role change per profile when the role is synced to CCMS.
+     */
+    private void enqueueNotifications(AppRole appRole, List<UserProfile> profiles) {
+        String appEntraOid = appRole.getApp() != null ? appRole.getApp().getEntraOid() : null;
+        boolean ccmsSynced = appRole.isLegacySync() && appEntraOid != null;
+
+        Set<UUID> entraUserIds = new LinkedHashSet<>();
+        for (UserProfile profile : profiles) {
+            entraUserIds.add(profile.getEntraUser().getId());
+            if (ccmsSynced) {
+                Set<String> oldPuiRoles = ccmsCodesForApp(profile.getAppRoles(), appEntraOid, null);
+                Set<String> newPuiRoles = ccmsCodesForApp(profile.getAppRoles(), appEntraOid, appRole.getId());
+                outboxService.enqueueCcmsRoleChanges(profile, Map.of(appEntraOid, newPuiRoles),
+                        Map.of(appEntraOid, oldPuiRoles));
+            }
+        }
+        entraUserIds.forEach(outboxService::enqueueRoleAssignmentUpdate);
+    }
+
+    private static Set<String> ccmsCodesForApp(Set<AppRole> roles, String appEntraOid, UUID excludedRoleId) {
+        if (roles == null) {
+            return Set.of();
+        }
+        return roles.stream()
+                .filter(AppRole::isLegacySync)
+                .filter(role -> role.getApp() != null && appEntraOid.equals(role.getApp().getEntraOid()))
+                .filter(role -> !role.getId().equals(excludedRoleId))
+                .map(AppRole::getCcmsCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Deletes the role once no user profile holds it, along with its role assignment
+     * restrictions and permissions, and logs the audit event for the deletion.
+     *
+     * @return false if the role was given to more users while the job ran, in which case the
+     *         caller should carry on deleting chunks
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean completeDeletion(UUID jobId) {
+        AppRoleDeletionJob job = requireLease(jobId);
+        Optional<AppRole> appRole = appRoleRepository.findById(job.getAppRoleId());
+        if (appRole.isPresent()) {
+            if (userProfileRepository.countUserProfilesByAppRoleId(job.getAppRoleId()) > 0) {
+                return false;
+            }
+            roleAssignmentRepository.deleteByRoleIdInEitherColumn(job.getAppRoleId());
+            appRoleRepository.deleteRolePermissions(job.getAppRoleId());
+            appRoleRepository.delete(appRole.get());
+            appCatalogueVersionRepository.incrementVersion();
+
+            eventService.logEvent(new DeleteAppRoleEvent(job.getRequestedByUserProfileId(),
+                    job.getRequestedByEntraOid(), job.getAppName(), job.getAppRoleName(), job.getReason()));
+        } else {
+            log.info("App role {} was already deleted when job {} completed", job.getAppRoleId(), jobId);
+        }
+
+        markCompleted(job);
+        jobRepository.save(job);
+        meterRegistry.counter("app.role.deletion.jobs.completed").increment();
+        log.info("User profile {} removed app role {} from app {} including role permissions and assignments "
+                        + "for {} user profiles (Reason: {})", job.getRequestedByUserProfileId(), job.getAppRoleName(),
+                job.getAppName(), job.getDeletedAssignments(), job.getReason());
+        return true;
+    }
+}
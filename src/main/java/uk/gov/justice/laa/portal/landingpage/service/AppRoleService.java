@@ -8,8 +8,6 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,11 +22,11 @@ import lombok.extern.slf4j.Slf4j;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
 import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
-import uk.gov.justice.laa.portal.landingpage.dto.DeleteAppRoleEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.RoleCreationAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.RoleCreationDto;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
@@ -37,9 +35,9 @@ import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.forms.AppRolesOrderForm;
 import uk.gov.justice.laa.portal.landingpage.validation.ValidationMessages;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
-import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
 @Service
@@ -52,9 +50,9 @@ public class AppRoleService {
     private final EventService eventService;
     private final LoginService loginService;
     private final ModelMapper modelMapper;
-    private final RoleAssignmentRepository roleAssignmentRepository;
     private final UserProfileRepository userProfileRepository;
-    private final EntityManager entityManager;
+    private final AppCatalogueVersionRepository appCatalogueVersionRepository;
+    private final AppRoleDeletionService appRoleDeletionService;
 
     public List<AppRoleDto> getByIds(Collection<String> ids) {
 
@@ -127,41 +125,24 @@ public class AppRoleService {
                 .build();
     }
 
-    @Transactional
-    public void deleteAppRole(UUID userProfileId, UUID entraOid, String appName, String roleId, String reason) {
+    /**
+     * Queues the deletion of an app role. The role is removed from its users in the background
+     * by {@link AppRoleDeletionService}, and the role itself is deleted once no user holds it.
+     *
+     * @return the deletion job, or empty if the role is already being deleted
+     */
+    public Optional<AppRoleDeletionJob> deleteAppRole(UUID userProfileId, UUID entraOid, String appName, String roleId,
+                                                      String reason) {
         UUID id = UUID.fromString(roleId);
         AppRole appRole = appRoleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("App role not found for id: " + roleId));
-        final String appRoleName = appRole.getName();
-
-        // Delete User profile role assignments
-        userProfileRepository.deleteAllByAppRoleId(id);
-
-        // Delete role assignments for groups
-        roleAssignmentRepository.deleteByRoleIdInEitherColumn(id);
 
-        // Delete role permissions
-        appRoleRepository.deleteRolePermissions(id);
+        Optional<AppRoleDeletionJob> job = appRoleDeletionService.requestDeletion(appRole, appName, userProfileId,
+                entraOid, reason);
 
-        entityManager.flush();
-        entityManager.clear();
-        // Delete role
-        appRoleRepository.delete(appRole);
-
-        DeleteAppRoleEvent deleteAppRoleEvent =
-                new DeleteAppRoleEvent(
-                        userProfileId,
-                        entraOid,
-                        appName,
-                        appRoleName,
-                        reason.trim()
-                );
-
-        eventService.logEvent(deleteAppRoleEvent);
-
-        log.info("User profile {} removed app role {} from app {} including role permissions and assignments (Reason: {})",
+        log.info("User profile {} requested deletion of app role {} from app {} (Reason: {})",
                 userProfileId, appRole.getName(), appName, reason);
-
+        return job;
     }
 
     public long countNoOfRoleAssignments(String roleId) {
@@ -181,7 +162,9 @@ public class AppRoleService {
                 .orElseThrow(() -> new RuntimeException(String.format("App role not found for the give app id: %s", roleDto.getId())));
         appRole.setName(roleDto.getName());
         appRole.setDescription(roleDto.getDescription());
-        return appRoleRepository.save(appRole);
+        AppRole savedRole = appRoleRepository.save(appRole);
+        appCatalogueVersionRepository.incrementVersion();
+        return savedRole;
 
     }
 
@@ -191,6 +174,7 @@ public class AppRoleService {
             AppRole appRoleEntity = getById(UUID.fromString(appRole.getAppRoleId())).orElseThrow();
             appRoleEntity.setOrdinal(appRole.getOrdinal());
         }
+        appCatalogueVersionRepository.incrementVersion();
     }
 
     public boolean isRoleNameExistsInApp(String roleName, UUID appId) {
@@ -252,6 +236,7 @@ public class AppRoleService {
                 .build();
 
         AppRole savedRole = appRoleRepository.save(appRole);
+        appCatalogueVersionRepository.incrementVersion();
 
         String userTypeRestrictionStr = String.join(", ",
             stream(savedRole.getUserTypeRestriction())
@@ -0,0 +1,819 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppSyncChange;
+import uk.gov.justice.laa.portal.landingpage.dto.AppSyncResultDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppSynchronizationAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlan;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.AppType;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppSyncPlanRepository;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetAllApplicationsResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesApiResponse;
+
+/**
+ * Synchronises the LAA apps with the applications registered in Tech Services in two steps.
+ *
+ * <p>{@link #plan} fetches the applications, works out which apps would be added, updated or
+ * disabled, flags the ones that cannot be synchronised, and stores the result as an
+ * {@link AppSyncPlan} without changing any app. {@link #applyPlan} then applies a reviewed plan in
+ * the background, a batch at a time, recording its progress on the plan while it holds the plan's
+ * lease. When the Tech Services
+ * content and the local apps are the same as at the last sync, planning stops at the content hash
+ * and there is nothing to apply.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppSyncService {
+
+    private static final Set<AppSyncPlanStatus> SYNCED_STATUSES =
+            EnumSet.of(AppSyncPlanStatus.APPLIED, AppSyncPlanStatus.UNCHANGED);
+    private static final TypeReference<List<AppSyncChange>> CHANGES_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> ERRORS_TYPE = new TypeReference<>() {
+    };
+
+    @Value("${feature.flag.enable.app.sync.from.entra}")
+    private String syncAppsFromEntra;
+
+    @Value("${feature.flag.enable.app.updates.sync.from.entra}")
+    private String syncAppUpdatesFromEntra;
+
+    @Value("${app.sync.apply.batch.size:50}")
+    private int applyBatchSize = 50;
+
+    @Value("${app.sync.apply.lease.seconds:300}")
+    private long applyLeaseSeconds = 300;
+
+    private final AppRepository appRepository;
+    private final AppSyncPlanRepository appSyncPlanRepository;
+    private final TechServicesClient techServicesClient;
+    private final ModelMapper mapper;
+    private final EventService eventService;
+    private final PlatformTransactionManager transactionManager;
+    private final AppCatalogueVersionRepository appCatalogueVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Works out what a sync would change without changing anything. The returned apps carry the
+     * change planned for each of them.
+     */
+    public AppSyncResultDto plan(CurrentUserDto currentUserDto, UserProfileDto userProfile) {
+        log.info("Planning synchronization of applications from Tech Services...");
+        List<App> localApps = Optional.ofNullable(appRepository.findAppsByAppType(AppType.LAA)).orElseGet(List::of);
+
+        if (!Boolean.parseBoolean(syncAppsFromEntra)) {
+            log.info("Synchronizing applications has been disabled. App syncing not performed.");
+            return AppSyncResultDto.builder().apps(unchanged(localApps)).build();
+        }
+
+        TechServicesApiResponse<GetAllApplicationsResponse> apiResponse = techServicesClient.getAllApplications();
+        if (!apiResponse.isSuccess()) {
+            String err = apiResponse.getError() != null ? apiResponse.getError().getMessage() : "Unknown error";
+            log.error("Error synchronizing applications from Tech Services: {}", err);
+            throw new RuntimeException(err);
+        }
+
+        List<GetAllApplicationsResponse.TechServicesApplication> remoteApps =
+                Optional.ofNullable(apiResponse.getData())
+                        .map(GetAllApplicationsResponse::getApps)
+                        .orElseGet(List::of);
+
+        String contentHash = contentHash(remoteApps);
+        long catalogueVersion = currentCatalogueVersion();
+        Optional<AppSyncPlan> lastSync = appSyncPlanRepository.findFirstByStatusInOrderByAppliedAtDesc(SYNCED_STATUSES);
+        if (lastSync.isPresent() && contentHash.equals(lastSync.get().getContentHash())
+                && lastSync.get().getCatalogueVersion() == catalogueVersion) {
+            log.info("Tech Services applications unchanged since the last sync (hash={}). Nothing to plan.", contentHash);
+            return AppSyncResultDto.builder()
+                    .apps(unchanged(localApps))
+                    .errors(new ArrayList<>(readErrors(lastSync.get())))
+                    .status(AppSyncPlanStatus.UNCHANGED)
+                    .build();
+        }
+
+        AppSyncResultDto syncResult = AppSyncResultDto.builder().build();
+        List<AppSyncChange> changes = new ArrayList<>();
+        DiffCounts counts = diff(remoteApps, localApps, changes, syncResult);
+
+        LocalDateTime now = LocalDateTime.now();
+        AppSyncPlanStatus status = changes.isEmpty() ? AppSyncPlanStatus.UNCHANGED : AppSyncPlanStatus.PLANNED;
+        // With nothing to apply the sync is already complete, so it is audited now
+        String summary = changes.isEmpty()
+                ? logSynchronization(currentUserDto, userProfile.getId(), counts.totalApps(), counts.unchangedApps(),
+                        0, 0, 0, syncResult.getErrors().size())
+                : null;
+        appSyncPlanRepository.updateStatus(AppSyncPlanStatus.PLANNED, AppSyncPlanStatus.SUPERSEDED);
+        AppSyncPlan plan = appSyncPlanRepository.save(AppSyncPlan.builder()
+                .status(status)
+                .contentHash(contentHash)
+                .catalogueVersion(catalogueVersion)
+                .changes(writeJson(changes))
+                .errors(writeJson(syncResult.getErrors()))
+                .totalApps(counts.totalApps())
+                .unchangedApps(counts.unchangedApps())
+                .totalChanges(changes.size())
+                .requestedByUserId(currentUserDto.getUserId())
+                .requestedByName(currentUserDto.getName())
+                .requestedByUserProfileId(userProfile.getId())
+                .summary(summary)
+                .createdAt(now)
+                .appliedAt(changes.isEmpty() ? now : null)
+                .build());
+
+        log.info("Planned synchronization (plan={}). Changes: {}, No changes: {}, Errors: {}",
+                plan.getId(), changes.size(), counts.unchangedApps(), syncResult.getErrors().size());
+
+        syncResult.setPlanId(plan.getId());
+        syncResult.setStatus(status);
+        syncResult.setTotalChanges(changes.size());
+        syncResult.setApps(syncResult.getApps().stream().sorted().toList());
+        return syncResult;
+    }
+
+    /**
+     * Marks a plan as being applied by the given admin, who the sync is audited against. A plan
+     * left applying by an instance that stopped can be claimed again once its lease has lapsed.
+     *
+     * @return false if the plan is not waiting to be applied, for example because it has already
+     *         been applied, a newer plan superseded it or it is still being applied
+     */
+    public boolean startApply(UUID planId, CurrentUserDto appliedBy, UUID appliedByUserProfileId) {
+        LocalDateTime now = LocalDateTime.now();
+        return appSyncPlanRepository.claimForApply(planId, AppSyncPlanStatus.PLANNED, AppSyncPlanStatus.APPLYING,
+                appliedBy.getUserId(), appliedBy.getName(), appliedByUserProfileId, instanceId, leaseFrom(now), now) == 1;
+    }
+
+    /**
+     * Hands a plan back when applying it could not be started.
+     */
+    public void cancelApply(UUID planId) {
+        appSyncPlanRepository.updateStatus(planId, AppSyncPlanStatus.APPLYING, AppSyncPlanStatus.PLANNED);
+    }
+
+    /**
+     * Applies a plan claimed by {@link #startApply}. Each batch of apps is saved in a transaction
+     * of its own together with the plan's progress; if a batch fails, its apps are saved one at a
+     * time so that one bad row cannot hold back the others. A plan claimed again after its lease
+     * lapsed carries on after the changes already applied. A plan is superseded rather than
+     * applied over newer data if any app it is still to change has been edited since it was made.
+     * Progress and the outcome are only recorded while this instance holds the plan's lease, so
+     * once another instance has claimed the plan this one stops.
+     */
+    @Async("appSyncExecutor")
+    public void applyPlan(UUID planId) {
+        AppSyncPlan plan = appSyncPlanRepository.findById(planId).orElse(null);
+        if (plan == null || plan.getStatus() != AppSyncPlanStatus.APPLYING) {
+            log.warn("App sync plan {} is not waiting to be applied", planId);
+            return;
+        }
+        try {
+            apply(plan);
+        } catch (RuntimeException e) {
+            log.error("Failed to apply app sync plan {}", planId, e);
+            // The plan read at the start is out of date by now, so only the outcome is written
+            appSyncPlanRepository.releaseApply(planId, AppSyncPlanStatus.APPLYING, instanceId, AppSyncPlanStatus.FAILED,
+                    String.valueOf(e.getMessage()));
+        }
+    }
+
+    public Optional<AppSyncResultDto> getPlan(UUID planId) {
+        return appSyncPlanRepository.findById(planId)
+                .map(plan -> {
+                    List<String> errors = new ArrayList<>(readErrors(plan));
+                    if (plan.getLastError() != null) {
+                        errors.add(plan.getLastError());
+                    }
+                    // Offer a plan whose applying stopped part way to be applied again
+                    boolean stalled = isStalled(plan, LocalDateTime.now());
+                    if (stalled) {
+                        errors.add("Applying this sync stopped before it finished. Apply it again to carry on.");
+                    }
+                    return AppSyncResultDto.builder()
+                            .planId(plan.getId())
+                            .status(stalled ? AppSyncPlanStatus.PLANNED : plan.getStatus())
+                            .totalChanges(plan.getTotalChanges())
+                            .appliedChanges(plan.getAppliedChanges())
+                            .errors(errors)
+                            .build();
+                });
+    }
+
+    private void apply(AppSyncPlan plan) {
+        List<AppSyncChange> changes = readChanges(plan);
+        List<String> errors = new ArrayList<>(readErrors(plan));
+        Set<UUID> localIds = changes.stream()
+                .map(AppSyncChange::getLocalAppId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, App> localById = appRepository.findAllById(localIds).stream()
+                .collect(Collectors.toMap(App::getId, Function.identity()));
+
+        // Changes saved before an earlier attempt stopped were committed with the progress
+        int processed = Math.min(plan.getAppliedChanges(), changes.size());
+        if (touchedAppsChanged(plan, changes.subList(processed, changes.size()), localById)) {
+            log.info("Apps changed after app sync plan {} was made; superseding it", plan.getId());
+            appSyncPlanRepository.releaseApply(plan.getId(), AppSyncPlanStatus.APPLYING, instanceId,
+                    AppSyncPlanStatus.SUPERSEDED,
+                    "Apps changed after this sync was planned. Sync the apps again to see the latest changes.");
+            return;
+        }
+
+        Map<AppDto.ChangeType, Integer> applied = new EnumMap<>(AppDto.ChangeType.class);
+        changes.subList(0, processed).forEach(change -> applied.merge(change.getChangeType(), 1, Integer::sum));
+        for (int from = processed; from < changes.size(); from += applyBatchSize) {
+            List<AppSyncChange> batch = changes.subList(from, Math.min(from + applyBatchSize, changes.size()));
+            processed += batch.size();
+            persistBatch(plan.getId(), batch, localById, errors, processed)
+                    .forEach(change -> applied.merge(change.getChangeType(), 1, Integer::sum));
+        }
+
+        int newApps = applied.getOrDefault(AppDto.ChangeType.ADDED, 0);
+        int updatedApps = applied.getOrDefault(AppDto.ChangeType.UPDATED, 0)
+                + applied.getOrDefault(AppDto.ChangeType.REVIEW, 0);
+        int deletedApps = applied.getOrDefault(AppDto.ChangeType.DELETED, 0);
+        int noChanges = plan.getUnchangedApps() + changes.size() - newApps - updatedApps - deletedApps;
+
+        String auditMessage = logSynchronization(appliedBy(plan), plan.getAppliedByUserProfileId(), plan.getTotalApps(),
+                noChanges, newApps, updatedApps, deletedApps, errors.size());
+
+        if (newApps + updatedApps + deletedApps > 0) {
+            appCatalogueVersionRepository.incrementVersion();
+        }
+
+        if (appSyncPlanRepository.completeApply(plan.getId(), AppSyncPlanStatus.APPLYING, instanceId,
+                AppSyncPlanStatus.APPLIED, changes.size(), writeJson(errors), auditMessage, currentCatalogueVersion(),
+                LocalDateTime.now()) == 0) {
+            log.warn("Lost the lease on app sync plan {} before recording its outcome", plan.getId());
+        }
+    }
+
+    /**
+     * Whether an app the remaining changes touch has changed since the plan was made: an app to
+     * update or disable no longer matches its fingerprint, or an app to add has been created
+     * since. A plan made before fingerprints were recorded falls back to the catalogue version,
+     * which moves with a change to any app. An app deleted since is reported when its change is
+     * applied.
+     */
+    private boolean touchedAppsChanged(AppSyncPlan plan, List<AppSyncChange> remaining, Map<UUID, App> localById) {
+        Set<String> added = new HashSet<>();
+        for (AppSyncChange change : remaining) {
+            if (change.getChangeType() == AppDto.ChangeType.ADDED) {
+                added.add(change.getEntraAppId());
+            } else if (change.getLocalFingerprint() == null) {
+                return currentCatalogueVersion() != plan.getCatalogueVersion();
+            } else {
+                App local = localById.get(change.getLocalAppId());
+                if (local != null && !change.getLocalFingerprint().equals(fingerprint(local))) {
+                    return true;
+                }
+            }
+        }
+        return !added.isEmpty() && appRepository.existsByEntraAppIdIn(added);
+    }
+
+    /**
+     * Saves one batch of changes along with the plan's progress.
+     *
+     * @return the changes that were saved
+     */
+    private List<AppSyncChange> persistBatch(UUID planId, List<AppSyncChange> batch, Map<UUID, App> localById,
+                                             List<String> errors, int progress) {
+        List<AppSyncChange> applicable = new ArrayList<>(batch.size());
+        List<App> apps = new ArrayList<>(batch.size());
+        for (AppSyncChange change : batch) {
+            App app = toEntity(change, localById);
+            if (app == null) {
+                errors.add(buildErrorMessage(change, "App no longer exists locally"));
+                continue;
+            }
+            applicable.add(change);
+            apps.add(app);
+        }
+
+        try {
+            newTransaction().executeWithoutResult(status -> {
+                appRepository.saveAll(apps);
+                recordProgress(planId, progress);
+            });
+            applicable.forEach(change -> log.info("{}: Applied app sync change (app id={}, name={})",
+                    change.getChangeType(), safe(change.getEntraAppId()), safe(change.getName())));
+            return applicable;
+        } catch (DataAccessException e) {
+            log.warn("Failed to save a batch of {} synced apps, saving them one at a time: {}", apps.size(), e.getMessage());
+        }
+
+        List<AppSyncChange> saved = new ArrayList<>(applicable.size());
+        for (AppSyncChange change : applicable) {
+            if (persistApp(toEntity(change, localById), change, errors)) {
+                saved.add(change);
+            }
+        }
+        recordProgress(planId, progress);
+        return saved;
+    }
+
+    /**
+     * Records the plan's progress and renews its lease. Throws if another instance has claimed
+     * the plan since, rolling back the batch being saved with it.
+     */
+    private void recordProgress(UUID planId, int progress) {
+        if (appSyncPlanRepository.updateAppliedChanges(planId, instanceId, progress, leaseFrom(LocalDateTime.now())) == 0) {
+            throw new IllegalStateException("Lost the lease on app sync plan " + planId);
+        }
+    }
+
+    /**
+     * Persists a single app change in its own transaction so one bad row cannot roll back others.
+     *
+     * @return true if the app was saved successfully, false if persistence failed
+     */
+    private boolean persistApp(App app, AppSyncChange change, List<String> errors) {
+        try {
+            newTransaction().executeWithoutResult(status -> appRepository.save(app));
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Failed to persist app (name={}): {}", safe(app.getName()), e.getMessage());
+            errors.add(buildErrorMessage(change, "Failed to save app due to a persistence error"));
+            return false;
+        }
+    }
+
+    private String logSynchronization(CurrentUserDto currentUserDto, UUID userProfileId, int totalApps, int noChanges,
+                                      int newApps, int updatedApps, int deletedApps, int errors) {
+        log.info("Finished synchronization. Total: {}, No changes: {}, New: {}, Updated: {}, Deleted: {}, Errors: {}",
+                totalApps, noChanges, newApps, updatedApps, deletedApps, errors);
+
+        String auditMessage = String.format(
+                "Total apps processed: %s, No changes: %s, New apps: %s, Updated apps: %s, Deleted apps: %s, Errors: %s",
+                totalApps, noChanges, newApps, updatedApps, deletedApps, errors
+        );
+        eventService.logEvent(new AppSynchronizationAuditEvent(currentUserDto, userProfileId, auditMessage));
+        return auditMessage;
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    /**
+     * Builds the entity to save for a change; new apps are built afresh each time so that a
+     * failed batch can be retried.
+     */
+    private App toEntity(AppSyncChange change, Map<UUID, App> localById) {
+        if (change.getChangeType() == AppDto.ChangeType.ADDED) {
+            return createLocalFromRemote(toRemote(change), change.getOrdinal());
+        }
+        App local = localById.get(change.getLocalAppId());
+        if (local == null) {
+            return null;
+        }
+        if (change.getChangeType() == AppDto.ChangeType.DELETED) {
+            local.setEnabled(false);
+        } else {
+            applyRemoteFieldsToLocal(toRemote(change), local);
+        }
+        return local;
+    }
+
+    /**
+     * Reconciles the remote and local apps into {@code changes}, adding the apps as they would
+     * look after the sync and any validation errors to {@code syncResult}.
+     *
+     * @return how many apps were compared and how many of them have nothing to change
+     */
+    private DiffCounts diff(List<GetAllApplicationsResponse.TechServicesApplication> remoteApps, List<App> localApps,
+                     List<AppSyncChange> changes, AppSyncResultDto syncResult) {
+        Map<String, GetAllApplicationsResponse.TechServicesApplication> remoteById = remoteApps.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(GetAllApplicationsResponse.TechServicesApplication::getAppId,
+                        a -> a, (a, b) -> a));
+
+        Map<String, App> localById = localApps.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(App::getEntraAppId, a -> a, (a, b) -> a));
+        int maxOrdinal = localApps.stream().mapToInt(App::getOrdinal).max().orElse(0);
+
+        Set<String> allIds = new HashSet<>();
+        allIds.addAll(remoteById.keySet());
+        allIds.addAll(localById.keySet());
+
+        // Duplicate counts computed across the whole remote batch, so two clashing apps are both flagged
+        Map<String, Long> securityGroupOidCounts = countByRemoteField(remoteApps, this::remoteSecurityGroupOid);
+        Map<String, Long> appOidCounts = countByRemoteField(remoteApps, GetAllApplicationsResponse.TechServicesApplication::getAppId);
+        Map<String, Long> securityGroupNameCounts = countByRemoteField(remoteApps, this::remoteSecurityGroupName);
+
+        boolean syncUpdates = Boolean.parseBoolean(syncAppUpdatesFromEntra);
+        List<AppDto> result = syncResult.getApps();
+        int noChanges = 0;
+
+        for (String id : allIds) {
+            GetAllApplicationsResponse.TechServicesApplication remote = remoteById.get(id);
+            App local = localById.get(id);
+
+            if (!syncUpdates && local != null) {
+                log.info("Synchronizing app updates has been disabled. Entra app updates not synchronized with local.");
+                result.add(toDtoWithChangeType(local, AppDto.ChangeType.NONE));
+                noChanges++;
+                continue;
+            }
+
+            if (remote != null && local != null) {
+                AppDto.ChangeType changeType = getChangeType(remote, local);
+                if (changeType == AppDto.ChangeType.NONE) {
+                    result.add(toDtoWithChangeType(local, changeType));
+                    noChanges++;
+                    log.info("NONE: No changes for app (id={}, name={})", id, safe(local.getName()));
+                    continue;
+                }
+                Optional<String> validationError = validateRemoteApp(remote, securityGroupOidCounts, appOidCounts, securityGroupNameCounts);
+                if (validationError.isPresent()) {
+                    syncResult.addError(buildErrorMessage(remote, validationError.get()));
+                    result.add(toDtoWithChangeType(local, AppDto.ChangeType.NONE));
+                    log.warn("SKIPPED: Invalid remote app data (id={}, name={}): {}", id, safe(remote.getName()), validationError.get());
+                    continue;
+                }
+                changes.add(toChange(changeType, local, remote, local.getOrdinal()));
+                result.add(previewUpdate(local, remote, changeType));
+                log.info("{}: Planned remote updates (id={}, name={})", changeType, id, safe(remote.getName()));
+
+            } else if (remote != null) {
+                Optional<String> validationError = validateRemoteApp(remote, securityGroupOidCounts, appOidCounts, securityGroupNameCounts);
+                if (validationError.isPresent()) {
+                    syncResult.addError(buildErrorMessage(remote, validationError.get()));
+                    log.warn("SKIPPED: Invalid new remote app data (app id={}, name={}): {}", remote.getAppId(), safe(remote.getName()), validationError.get());
+                    continue;
+                }
+                int ordinal = ++maxOrdinal;
+                changes.add(toChange(AppDto.ChangeType.ADDED, null, remote, ordinal));
+                result.add(toDtoWithChangeType(createLocalFromRemote(remote, ordinal), AppDto.ChangeType.ADDED));
+                log.info("ADDED: Planned new app (oid={}, app id={} and name={})", remote.getId(), remote.getAppId(), safe(remote.getName()));
+
+            } else if (local.isEnabled()) {
+                changes.add(AppSyncChange.builder()
+                        .changeType(AppDto.ChangeType.DELETED)
+                        .localAppId(local.getId())
+                        .entraAppId(local.getEntraAppId())
+                        .name(local.getName())
+                        .localFingerprint(fingerprint(local))
+                        .build());
+                AppDto dto = toDtoWithChangeType(local, AppDto.ChangeType.DELETED);
+                dto.setEnabled(false);
+                result.add(dto);
+                log.info("DELETED: App missing from remote; planned to disable locally (id={}, name={})", id, safe(local.getName()));
+
+            } else {
+                result.add(toDtoWithChangeType(local, AppDto.ChangeType.NONE));
+                noChanges++;
+                log.info("Already DELETED: No changes for app (id={}, name={})", id, safe(local.getName()));
+            }
+        }
+        return new DiffCounts(allIds.size(), noChanges);
+    }
+
+    private record DiffCounts(int totalApps, int unchangedApps) {
+    }
+
+    private AppSyncChange toChange(AppDto.ChangeType changeType, App local,
+                                   GetAllApplicationsResponse.TechServicesApplication remote, int ordinal) {
+        return AppSyncChange.builder()
+                .changeType(changeType)
+                .localAppId(local != null ? local.getId() : null)
+                .localFingerprint(local != null ? fingerprint(local) : null)
+                .entraAppId(remote.getAppId())
+                .entraOid(remote.getId())
+                .name(remote.getName())
+                .url(remote.getUrl())
+                .securityGroupOid(remoteSecurityGroupOid(remote))
+                .securityGroupName(remoteSecurityGroupName(remote))
+                .ordinal(ordinal)
+                .build();
+    }
+
+    private GetAllApplicationsResponse.TechServicesApplication toRemote(AppSyncChange change) {
+        return GetAllApplicationsResponse.TechServicesApplication.builder()
+                .appId(change.getEntraAppId())
+                .id(change.getEntraOid())
+                .name(change.getName())
+                .url(change.getUrl())
+                .securityGroups(List.of(GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup.builder()
+                        .id(change.getSecurityGroupOid())
+                        .name(change.getSecurityGroupName())
+                        .build()))
+                .build();
+    }
+
+    private AppDto previewUpdate(App local, GetAllApplicationsResponse.TechServicesApplication remote, AppDto.ChangeType changeType) {
+        AppDto dto = toDtoWithChangeType(local, changeType);
+        dto.setName(remote.getName());
+        if (StringUtils.isEmpty(remote.getUrl())) {
+            dto.setUrl("#");
+            dto.setEnabled(false);
+        } else {
+            dto.setUrl(remote.getUrl());
+        }
+        return dto;
+    }
+
+    private List<AppDto> unchanged(List<App> localApps) {
+        return localApps.stream()
+                .map(app -> toDtoWithChangeType(app, AppDto.ChangeType.NONE))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * A SHA-256 of the fields the sync reads from each remote app, in app id order, so the same
+     * content in a different order hashes the same.
+     */
+    String contentHash(List<GetAllApplicationsResponse.TechServicesApplication> remoteApps) {
+        StringBuilder content = new StringBuilder("updates=").append(Boolean.parseBoolean(syncAppUpdatesFromEntra)).append('\n');
+        remoteApps.stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(GetAllApplicationsResponse.TechServicesApplication::getAppId,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(remote -> content
+                        .append(remote.getAppId()).append('\u001f')
+                        .append(remote.getId()).append('\u001f')
+                        .append(remote.getName()).append('\u001f')
+                        .append(remote.getUrl()).append('\u001f')
+                        .append(remoteSecurityGroupOid(remote)).append('\u001f')
+                        .append(remoteSecurityGroupName(remote)).append('\n'));
+        return sha256(content.toString());
+    }
+
+    /**
+     * A SHA-256 of the fields of a local app that a sync reads or writes.
+     */
+    private String fingerprint(App local) {
+        return sha256(String.join("\u001f", String.valueOf(local.getId()), local.getEntraAppId(),
+                local.getEntraOid(), local.getName(), local.getUrl(), local.getSecurityGroupOid(),
+                String.valueOf(local.isEnabled()), String.valueOf(local.getOrdinal())));
+    }
+
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private long currentCatalogueVersion() {
+        return appCatalogueVersionRepository.findCurrentVersion().orElse(0L);
+    }
+
+    private LocalDateTime leaseFrom(LocalDateTime now) {
+        return now.plusSeconds(applyLeaseSeconds);
+    }
+
+    private static boolean isStalled(AppSyncPlan plan, LocalDateTime now) {
+        return plan.getStatus() == AppSyncPlanStatus.APPLYING && plan.getLockedUntil() != null
+                && plan.getLockedUntil().isBefore(now);
+    }
+
+    private CurrentUserDto appliedBy(AppSyncPlan plan) {
+        CurrentUserDto currentUserDto = new CurrentUserDto();
+        currentUserDto.setUserId(plan.getAppliedByUserId());
+        currentUserDto.setName(plan.getAppliedByName());
+        return currentUserDto;
+    }
+
+    private List<AppSyncChange> readChanges(AppSyncPlan plan) {
+        return readJson(plan.getChanges(), CHANGES_TYPE);
+    }
+
+    private List<String> readErrors(AppSyncPlan plan) {
+        return readJson(plan.getErrors(), ERRORS_TYPE);
+    }
+
+    private <T> List<T> readJson(String json, TypeReference<List<T>> type) {
+        if (StringUtils.isBlank(json)) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable app sync plan", e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write app sync plan", e);
+        }
+    }
+
+    private String buildErrorMessage(GetAllApplicationsResponse.TechServicesApplication remote, String reason) {
+        return String.format("App '%s' (app id: %s): %s", safe(remote.getName()), safe(remote.getAppId()), reason);
+    }
+
+    private String buildErrorMessage(AppSyncChange change, String reason) {
+        return String.format("App '%s' (app id: %s): %s", safe(change.getName()), safe(change.getEntraAppId()), reason);
+    }
+
+    private <T> Map<T, Long> countByRemoteField(List<GetAllApplicationsResponse.TechServicesApplication> remoteApps,
+            Function<GetAllApplicationsResponse.TechServicesApplication, T> fieldExtractor) {
+        return remoteApps.stream()
+                .filter(Objects::nonNull)
+                .map(fieldExtractor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(v -> v, Collectors.counting()));
+    }
+
+    private String remoteSecurityGroupOid(GetAllApplicationsResponse.TechServicesApplication remote) {
+        var securityGroups = remote.getSecurityGroups();
+        return (securityGroups != null && !securityGroups.isEmpty()) ? securityGroups.getFirst().getId() : null;
+    }
+
+    private String remoteSecurityGroupName(GetAllApplicationsResponse.TechServicesApplication remote) {
+        var securityGroups = remote.getSecurityGroups();
+        return (securityGroups != null && !securityGroups.isEmpty()) ? securityGroups.getFirst().getName() : null;
+    }
+
+    /**
+     * Validates a remote app's data integrity using application logic only (not DB constraints):
+     * security group OID, app OID and security group name must each be present, unique across the batch, and OIDs must be valid UUIDs.
+     */
+    private Optional<String> validateRemoteApp(GetAllApplicationsResponse.TechServicesApplication remote,
+            Map<String, Long> securityGroupOidCounts, Map<String, Long> appOidCounts, Map<String, Long> securityGroupNameCounts) {
+        String securityGroupOid = remoteSecurityGroupOid(remote);
+        String securityGroupName = remoteSecurityGroupName(remote);
+        String appOid = remote.getAppId();
+
+        if (StringUtils.isBlank(securityGroupOid)) {
+            return Optional.of("Security group OID is missing");
+        }
+        if (StringUtils.isBlank(appOid)) {
+            return Optional.of("App OID is missing");
+        }
+        if (StringUtils.isBlank(securityGroupName)) {
+            return Optional.of("Security group name is missing");
+        }
+        if (!isValidUuid(securityGroupOid)) {
+            return Optional.of("Security group OID is not a valid UUID: " + securityGroupOid);
+        }
+        if (!isValidUuid(appOid)) {
+            return Optional.of("App OID is not a valid UUID: " + appOid);
+        }
+        if (securityGroupOidCounts.getOrDefault(securityGroupOid, 0L) > 1) {
+            return Optional.of("Security group OID is duplicated across apps: " + securityGroupOid);
+        }
+        if (appOidCounts.getOrDefault(appOid, 0L) > 1) {
+            return Optional.of("App OID is duplicated across apps: " + appOid);
+        }
+        if (securityGroupNameCounts.getOrDefault(securityGroupName, 0L) > 1) {
+            return Optional.of("Security group name is duplicated across apps: " + securityGroupName);
+        }
+
+        return Optional.empty();
+    }
+
+    private boolean isValidUuid(String value) {
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void applyRemoteFieldsToLocal(GetAllApplicationsResponse.TechServicesApplication remote, App local) {
+        local.setName(remote.getName());
+        if (StringUtils.isEmpty(remote.getUrl())) {
+            local.setUrl("#");
+            local.setEnabled(false);
+        } else {
+            local.setUrl(remote.getUrl());
+        }
+
+        var securityGroups = remote.getSecurityGroups();
+
+        var appSecurityGroup = (securityGroups != null && !securityGroups.isEmpty())
+                ? securityGroups.getFirst()
+                : null;
+
+        if (appSecurityGroup == null) {
+            applyDefaultSecurityGroup(local);
+            return;
+        }
+
+        if (appSecurityGroup.getId() == null) {
+            local.setSecurityGroupOid(local.getName());
+            local.setEnabled(false);
+        } else {
+            local.setSecurityGroupOid(appSecurityGroup.getId());
+        }
+
+    }
+
+    private void applyDefaultSecurityGroup(App local) {
+        local.setSecurityGroupOid(local.getName());
+        local.setEnabled(false);
+    }
+
+    /**
+     * Creates a new local App from a remote application; new entries start disabled.
+     */
+    private App createLocalFromRemote(GetAllApplicationsResponse.TechServicesApplication remote, int ordinal) {
+        String sgId = remote.getName();
+        String url = StringUtils.isEmpty(remote.getUrl()) ? "#" : remote.getUrl();
+
+        if (remote.getSecurityGroups() != null && !remote.getSecurityGroups().isEmpty()) {
+            sgId = remote.getSecurityGroups().getFirst().getId();
+        }
+
+        return App.builder()
+                .entraAppId(remote.getAppId())
+                .entraOid(remote.getId())
+                .name(remote.getName())
+                .description(remote.getName())
+                .url(url)
+                .securityGroupOid(sgId)
+                .appType(AppType.LAA)
+                .enabled(false)
+                .ordinal(ordinal)
+                .build();
+    }
+
+    private AppDto toDtoWithChangeType(App entity, AppDto.ChangeType changeType) {
+        AppDto dto = mapper.map(entity, AppDto.class);
+        dto.setChangeType(changeType);
+        return dto;
+    }
+
+    private String safe(String s) {
+        return s == null ? "(null)" : s;
+    }
+
+    private AppDto.ChangeType getChangeType(GetAllApplicationsResponse.TechServicesApplication remote, App local) {
+        if (remote == null && local != null && local.isEnabled()) {
+            return AppDto.ChangeType.DELETED;
+        } else if (local == null && remote != null) {
+            return AppDto.ChangeType.ADDED;
+        } else if (remote != null && !local.isEnabled()) {
+            return AppDto.ChangeType.REVIEW;
+        } else if (remote != null
+                && (!Strings.CS.equals(remote.getName(), local.getName())
+                || (!(remote.getUrl() == null && "#".equals(local.getUrl()))
+                    && (!Strings.CS.equals(remote.getUrl(), local.getUrl())))
+                || !areSecurityGroupsEqual(remote.getSecurityGroups(), local))) {
+            return AppDto.ChangeType.UPDATED;
+        }
+
+        return AppDto.ChangeType.NONE;
+    }
+
+    private boolean areSecurityGroupsEqual(List<GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup> remoteSecGroups, App local) {
+        String remoteSecGroupId = remoteSecGroups == null || remoteSecGroups.isEmpty() ? null : remoteSecGroups.getFirst().getId();
+        return Objects.equals(remoteSecGroupId, local.getSecurityGroupOid());
+    }
+}
@@ -0,0 +1,441 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
+import uk.gov.justice.laa.portal.landingpage.dto.BulkAssignmentAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItem;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItemStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
+import uk.gov.justice.laa.portal.landingpage.entity.Office;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+import uk.gov.justice.laa.portal.landingpage.forms.BulkAssignmentForm;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.BulkAssignmentItemRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.BulkAssignmentJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.OfficeRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.projection.BulkAssignmentItemView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Adds and removes roles and offices for many users of a firm at once.
+ *
+ * <p>{@link #requestAssignment} records a job and the users it applies to. The
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.BulkAssignmentWorker} leases due jobs and
+ * calls {@link #applyNextChunk} until every user has been processed. Each chunk changes the role
+ * and office assignments of all its users with a handful of set-based statements, records the
+ * CCMS and tech services updates for them in the outbox, and writes a result per user, all in
+ * one short transaction.</p>
+ *
+ * <p>Only non-SiLAS roles open to external users of the firm's type can be changed in bulk, so a
+ * job can never take away a firm's last user manager, and only those the requester is allowed to
+ * assign under the role assignment restrictions. Office changes leave users with access to all
+ * offices alone.</p>
+ */
+@Slf4j
+@Service
+public class BulkAssignmentService extends LeasedJobService<BulkAssignmentJob> {
+
+    private static final Set<BulkAssignmentJobStatus> ACTIVE_STATUSES =
+            EnumSet.of(BulkAssignmentJobStatus.PENDING, BulkAssignmentJobStatus.RUNNING);
+
+    private final BulkAssignmentJobRepository jobRepository;
+    private final BulkAssignmentItemRepository itemRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final AppRoleRepository appRoleRepository;
+    private final OfficeRepository officeRepository;
+    private final AppRoleDeletionService appRoleDeletionService;
+    private final RoleAssignmentService roleAssignmentService;
+    private final OutboxService outboxService;
+    private final EventService eventService;
+    private final MeterRegistry meterRegistry;
+    private final ModelMapper mapper;
+
+    public BulkAssignmentService(BulkAssignmentJobRepository jobRepository, BulkAssignmentItemRepository itemRepository,
+                                 UserProfileRepository userProfileRepository, AppRoleRepository appRoleRepository,
+                                 OfficeRepository officeRepository, AppRoleDeletionService appRoleDeletionService,
+                                 RoleAssignmentService roleAssignmentService, OutboxService outboxService, EventService eventService, MeterRegistry meterRegistry,
+                                 ModelMapper mapper,
+                                 @Value("${app.bulk.assignment.lease.seconds:120}") long leaseSeconds,
+                                 @Value("${app.bulk.assignment.max.attempts:5}") int maxAttempts,
+                                 @Value("${app.bulk.assignment.backoff.seconds:60}") long backoffSeconds) {
+        super("Bulk assignment job", "bulk.assignment", jobRepository, meterRegistry,
+                Duration.ofSeconds(leaseSeconds), maxAttempts, Duration.ofSeconds(backoffSeconds));
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.appRoleRepository = appRoleRepository;
+        this.officeRepository = officeRepository;
+        this.appRoleDeletionService = appRoleDeletionService;
+        this.roleAssignmentService = roleAssignmentService;
+        this.outboxService = outboxService;
+        this.eventService = eventService;
+        this.meterRegistry = meterRegistry;
+        this.mapper = mapper;
+    }
+
+    /**
+     * The roles the requester can add to or remove from the external users of a firm in bulk.
+     */
+    public List<AppRoleDto> getAssignableRoles(FirmDto firm, UserProfile requestedBy) {
+        List<AppRole> roles = findAssignableRoles(firm.getType());
+        Set<UUID> permittedRoleIds = findPermittedRoleIds(requestedBy,
+                roles.stream().map(AppRole::getId).collect(Collectors.toSet()));
+        return roles.stream()
+                .filter(role -> permittedRoleIds.contains(role.getId()))
+                .sorted(Comparator.comparing((AppRole role) -> role.getApp() != null ? role.getApp().getName() : "")
+                        .thenComparingInt(AppRole::getOrdinal)
+                        .thenComparing(AppRole::getName))
+                .map(role -> mapper.map(role, AppRoleDto.class))
+                .toList();
+    }
+
+    /**
+     * The number of users a job requested now with this search would change.
+     */
+    @Transactional(readOnly = true)
+    public long countMatchingUsers(UUID firmId, String search, UUID requestedByUserProfileId) {
+        return itemRepository.countMatchingFirmProfiles(firmId, OfficeService.toPrefixSearch(search),
+                requestedByUserProfileId);
+    }
+
+    /**
+     * Queues the role and office changes for every external user of the firm matching the
+     * form's search, other than the requester. Asking while another bulk change for the same
+     * firm is still running returns nothing rather than queueing a second job.
+     *
+     * @throws IllegalArgumentException if nothing would change, a role cannot be changed in
+     *                                  bulk, by the requester or is being deleted, an office
+     *                                  belongs to another firm or the same role or office is both
+     *                                  added and removed
+     */
+    @Transactional
+    public Optional<BulkAssignmentJob> requestAssignment(FirmDto firm, BulkAssignmentForm form,
+                                                         UserProfile requestedBy, UUID requestedByEntraOid) {
+        Set<UUID> addRoleIds = toIds(form.getAddRoles());
+        Set<UUID> removeRoleIds = toIds(form.getRemoveRoles());
+        Set<UUID> addOfficeIds = toIds(form.getAddOffices());
+        Set<UUID> removeOfficeIds = toIds(form.getRemoveOffices());
+        validate(firm, requestedBy, addRoleIds, removeRoleIds, addOfficeIds, removeOfficeIds);
+
+        UUID requestedByUserProfileId = requestedBy.getId();
+
+        if (jobRepository.existsByFirmIdAndStatusIn(firm.getId(), ACTIVE_STATUSES)) {
+            log.info("A bulk assignment for firm {} is already in progress", firm.getId());
+            return Optional.empty();
+        }
+        String search = form.getSearch() == null ? "" : form.getSearch().trim();
+        LocalDateTime now = LocalDateTime.now();
+        BulkAssignmentJob job = jobRepository.save(BulkAssignmentJob.builder()
+                .firmId(firm.getId())
+                .firmName(firm.getName())
+                .searchTerm(search.isEmpty() ? null : search)
+                .addRoleIds(addRoleIds.toArray(UUID[]::new))
+                .removeRoleIds(removeRoleIds.toArray(UUID[]::new))
+                .addOfficeIds(addOfficeIds.toArray(UUID[]::new))
+                .removeOfficeIds(removeOfficeIds.toArray(UUID[]::new))
+                .requestedByUserProfileId(requestedByUserProfileId)
+                .requestedByEntraOid(requestedByEntraOid)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        int users = itemRepository.insertMatchingFirmProfiles(job.getId(), firm.getId(),
+                OfficeService.toPrefixSearch(search), requestedByUserProfileId);
+        job.setTotalUsers(users);
+        BulkAssignmentJob saved = jobRepository.save(job);
+        log.info("Queued bulk assignment {} for {} users of firm {} (roles +{} -{}, offices +{} -{})", saved.getId(),
+                users, firm.getId(), addRoleIds.size(), removeRoleIds.size(), addOfficeIds.size(),
+                removeOfficeIds.size());
+        return Optional.of(saved);
+    }
+
+    private void validate(FirmDto firm, UserProfile requestedBy, Set<UUID> addRoleIds, Set<UUID> removeRoleIds,
+                          Set<UUID> addOfficeIds, Set<UUID> removeOfficeIds) {
+        if (addRoleIds.isEmpty() && removeRoleIds.isEmpty() && addOfficeIds.isEmpty() && removeOfficeIds.isEmpty()) {
+            throw new IllegalArgumentException("Select at least one role or office to add or remove");
+        }
+        if (!disjoint(addRoleIds, removeRoleIds) || !disjoint(addOfficeIds, removeOfficeIds)) {
+            throw new IllegalArgumentException("A role or office cannot be both added and removed");
+        }
+        Set<UUID> assignableRoleIds = findAssignableRoles(firm.getType()).stream()
+                .map(AppRole::getId)
+                .collect(Collectors.toSet());
+        if (!assignableRoleIds.containsAll(addRoleIds) || !assignableRoleIds.containsAll(removeRoleIds)) {
+            throw new IllegalArgumentException("One or more of the selected roles cannot be changed in bulk");
+        }
+        Set<UUID> roleIds = union(addRoleIds, removeRoleIds);
+        if (!findPermittedRoleIds(requestedBy, roleIds).containsAll(roleIds)) {
+            throw new IllegalArgumentException("You are not allowed to change one or more of the selected roles");
+        }
+        if (!addRoleIds.isEmpty() && !disjoint(addRoleIds, appRoleDeletionService.getRoleIdsBeingDeleted())) {
+            throw new IllegalArgumentException("One or more of the selected roles is being deleted");
+        }
+        Set<UUID> officeIds = new HashSet<>(addOfficeIds);
+        officeIds.addAll(removeOfficeIds);
+        if (!officeIds.isEmpty()) {
+            List<Office> offices = officeRepository.findAllById(officeIds);
+            boolean allInFirm = offices.size() == officeIds.size() && offices.stream()
+                    .allMatch(office -> office.getFirm() != null && firm.getId().equals(office.getFirm().getId()));
+            if (!allInFirm) {
+                throw new IllegalArgumentException("One or more of the selected offices do not belong to "
+                        + firm.getName());
+            }
+        }
+    }
+
+    private List<AppRole> findAssignableRoles(FirmType firmType) {
+        return appRoleRepository.findByUserTypeRestrictionContains(UserType.EXTERNAL.name()).stream()
+                .filter(role -> !role.isAuthzRole())
+                .filter(role -> role.getFirmTypeRestriction() == null || role.getFirmTypeRestriction().length == 0
+                        || Arrays.asList(role.getFirmTypeRestriction()).contains(firmType))
+                .toList();
+    }
+
+    /**
+     * The ones of {@code roleIds} the requester's roles allow them to assign.
+     */
+    private Set<UUID> findPermittedRoleIds(UserProfile requestedBy, Set<UUID> roleIds) {
+        if (roleIds.isEmpty()) {
+            return Set.of();
+        }
+        return roleAssignmentService.filterRoles(requestedBy.getAppRoles(), new ArrayList<>(roleIds)).stream()
+                .map(role -> UUID.fromString(role.getId()))
+                .collect(Collectors.toSet());
+    }
+
+    public Optional<BulkAssignmentJob> getJob(UUID jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * One page of the job's per-user results, grouped by outcome and then by user name.
+     */
+    @Transactional(readOnly = true)
+    public Page<BulkAssignmentItemView> getResults(UUID jobId, int page, int pageSize) {
+        return itemRepository.findViewsByJobId(jobId, PageRequest.of(Math.max(page, 1) - 1, pageSize));
+    }
+
+    /**
+     * Applies the job to up to {@code chunkSize} of its pending users, records the CCMS and
+     * tech services updates for the users whose roles changed, and writes each user's result.
+     *
+     * @return the number of users processed; zero once none are pending
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int applyNextChunk(UUID jobId, int chunkSize) {
+        BulkAssignmentJob job = requireLease(jobId);
+        List<BulkAssignmentItem> items = itemRepository.findPendingByJobId(jobId, chunkSize);
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> userProfileIds = items.stream().map(BulkAssignmentItem::getUserProfileId).toList();
+        Map<UUID, UserProfile> profiles = userProfileRepository.findAllByIdInWithAppRoles(userProfileIds).stream()
+                .collect(Collectors.toMap(UserProfile::getId, Function.identity()));
+        userProfileRepository.findAllByIdInWithOffices(userProfileIds);
+
+        // A role whose deletion started after the job was queued is no longer added
+        Set<UUID> rolesBeingDeleted = appRoleDeletionService.getRoleIdsBeingDeleted();
+        Map<UUID, AppRole> addRoles = appRoleRepository.findAllById(toSet(job.getAddRoleIds())).stream()
+                .filter(role -> !rolesBeingDeleted.contains(role.getId()))
+                .collect(Collectors.toMap(AppRole::getId, Function.identity()));
+        Set<UUID> removeRoleIds = toSet(job.getRemoveRoleIds());
+        Set<UUID> addOfficeIds = toSet(job.getAddOfficeIds());
+        Set<UUID> removeOfficeIds = toSet(job.getRemoveOfficeIds());
+        Map<UUID, String> officeCodes = new HashMap<>();
+        officeRepository.findAllById(union(addOfficeIds, removeOfficeIds))
+                .forEach(office -> officeCodes.put(office.getId(), office.getCode()));
+
+        Set<UUID> roleProfileIds = new LinkedHashSet<>();
+        Set<UUID> officeProfileIds = new LinkedHashSet<>();
+        Set<UUID> rolesChangedProfileIds = new LinkedHashSet<>();
+        Set<UUID> entraUserIds = new LinkedHashSet<>();
+        int changed = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (BulkAssignmentItem item : items) {
+            item.setProcessedAt(now);
+            UserProfile profile = profiles.get(item.getUserProfileId());
+            if (profile == null || profile.getFirm() == null || !job.getFirmId().equals(profile.getFirm().getId())
+                    || profile.getUserType() != UserType.EXTERNAL) {
+                item.setStatus(BulkAssignmentItemStatus.SKIPPED);
+                item.setDetail("No longer an external user of " + job.getFirmName());
+                continue;
+            }
+
+            List<String> changes = new ArrayList<>();
+            Set<AppRole> currentRoles = profile.getAppRoles() == null ? Set.of() : profile.getAppRoles();
+            Set<UUID> currentRoleIds = currentRoles.stream().map(AppRole::getId).collect(Collectors.toSet());
+            List<AppRole> rolesAdded = addRoles.values().stream()
+                    .filter(role -> !currentRoleIds.contains(role.getId()))
+                    .toList();
+            List<AppRole> rolesRemoved = currentRoles.stream()
+                    .filter(role -> removeRoleIds.contains(role.getId()))
+                    .toList();
+            roleProfileIds.add(profile.getId());
+            if (!rolesAdded.isEmpty() || !rolesRemoved.isEmpty()) {
+                addChange(changes, "Added roles", rolesAdded.stream().map(AppRole::getName).toList());
+                addChange(changes, "Removed roles", rolesRemoved.stream().map(AppRole::getName).toList());
+                rolesChangedProfileIds.add(profile.getId());
+                entraUserIds.add(profile.getEntraUser().getId());
+                Set<AppRole> newRoles = new HashSet<>(currentRoles);
+                newRoles.removeAll(rolesRemoved);
+                newRoles.addAll(rolesAdded);
+                outboxService.enqueueCcmsRoleChanges(profile, puiRoles(newRoles), puiRoles(currentRoles));
+            }
+
+            boolean officesChanged = false;
+            boolean officeChangeRequested = !addOfficeIds.isEmpty() || !removeOfficeIds.isEmpty();
+            if (officeChangeRequested && profile.isUnrestrictedOfficeAccess()) {
+                changes.add("Offices not changed, user has access to all offices");
+            } else if (officeChangeRequested) {
+                Set<UUID> currentOfficeIds = profile.getOffices() == null ? Set.of()
+                        : profile.getOffices().stream().map(Office::getId).collect(Collectors.toSet());
+                List<String> officesAdded = addOfficeIds.stream()
+                        .filter(id -> !currentOfficeIds.contains(id))
+                        .map(officeCodes::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+                List<String> officesRemoved = removeOfficeIds.stream()
+                        .filter(currentOfficeIds::contains)
+                        .map(officeCodes::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+                addChange(changes, "Added offices", officesAdded);
+                addChange(changes, "Removed offices", officesRemoved);
+                officesChanged = !officesAdded.isEmpty() || !officesRemoved.isEmpty();
+                officeProfileIds.add(profile.getId());
+            }
+
+            boolean profileChanged = rolesChangedProfileIds.contains(profile.getId()) || officesChanged;
+            item.setStatus(profileChanged ? BulkAssignmentItemStatus.APPLIED : BulkAssignmentItemStatus.UNCHANGED);
+            item.setDetail(changes.isEmpty() ? null : String.join("; ", changes));
+            if (profileChanged) {
+                changed++;
+            }
+        }
+
+        if (!roleProfileIds.isEmpty() && !addRoles.isEmpty()) {
+            userProfileRepository.insertAppRoleAssignments(roleProfileIds, addRoles.keySet());
+        }
+        if (!roleProfileIds.isEmpty() && !removeRoleIds.isEmpty()) {
+            userProfileRepository.deleteAppRoleAssignmentsIn(roleProfileIds, removeRoleIds);
+        }
+        if (!officeProfileIds.isEmpty() && !officeCodes.isEmpty()) {
+            Set<UUID> existingAddOfficeIds = new HashSet<>(addOfficeIds);
+            existingAddOfficeIds.retainAll(officeCodes.keySet());
+            if (!existingAddOfficeIds.isEmpty()) {
+                userProfileRepository.insertOfficeAssignments(officeProfileIds, existingAddOfficeIds);
+            }
+            if (!removeOfficeIds.isEmpty()) {
+                userProfileRepository.deleteOfficeAssignmentsIn(officeProfileIds, removeOfficeIds);
+            }
+        }
+        if (!rolesChangedProfileIds.isEmpty()) {
+            userProfileRepository.refreshSilasStatuses(rolesChangedProfileIds);
+        }
+        entraUserIds.forEach(outboxService::enqueueRoleAssignmentUpdate);
+        itemRepository.saveAll(items);
+
+        job.setProcessedUsers(job.getProcessedUsers() + items.size());
+        job.setChangedUsers(job.getChangedUsers() + changed);
+        extendLease(job);
+        jobRepository.save(job);
+        meterRegistry.counter("bulk.assignment.users.processed").increment(items.size());
+        meterRegistry.counter("bulk.assignment.users.changed").increment(changed);
+        log.debug("Bulk assignment {} processed {} users ({} of {})", jobId, items.size(), job.getProcessedUsers(),
+                job.getTotalUsers());
+        return items.size();
+    }
+
+    private static void addChange(List<String> changes, String label, Collection<String> names) {
+        if (!names.isEmpty()) {
+            changes.add(label + ": " + names.stream().sorted().collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static Map<String, Set<String>> puiRoles(Collection<AppRole> roles) {
+        return roles.stream()
+                .filter(AppRole::isLegacySync)
+                .filter(role -> role.getApp() != null && role.getApp().getEntraOid() != null)
+                .filter(role -> role.getCcmsCode() != null)
+                .collect(Collectors.groupingBy(role -> role.getApp().getEntraOid(),
+                        Collectors.mapping(AppRole::getCcmsCode, Collectors.toSet())));
+    }
+
+    /**
+     * Marks the job completed once none of its users are pending and logs the audit event for
+     * it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void completeJob(UUID jobId) {
+        BulkAssignmentJob job = requireLease(jobId);
+        markCompleted(job);
+        jobRepository.save(job);
+
+        eventService.logEvent(new BulkAssignmentAuditEvent(job.getRequestedByEntraOid(), job.getId(), job.getFirmId(),
+                job.getTotalUsers(), job.getChangedUsers()));
+        meterRegistry.counter("bulk.assignment.jobs.completed").increment();
+        log.info("User profile {} bulk updated {} of {} users of firm {} (job {})", job.getRequestedByUserProfileId(),
+                job.getChangedUsers(), job.getTotalUsers(), job.getFirmId(), jobId);
+    }
+
+    private static Set<UUID> toIds(Collection<String> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        try {
+            return values.stream()
+                    .filter(Objects::nonNull)
+                    .filter(value -> !value.isBlank())
+                    .map(UUID::fromString)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role or office selected", e);
+        }
+    }
+
+    private static Set<UUID> toSet(UUID[] ids) {
+        return ids == null ? Set.of() : new HashSet<>(Arrays.asList(ids));
+    }
+
+    private static boolean disjoint(Set<UUID> first, Set<UUID> second) {
+        return first.stream().noneMatch(second::contains);
+    }
+
+    private static Set<UUID> union(Set<UUID> first, Set<UUID> second) {
+        Set<UUID> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
@@ -3,38 +3,45 @@ package uk.gov.justice.laa.portal.landingpage.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import tools.jackson.databind.SequenceWriter;
-import tools.jackson.dataformat.csv.CsvMapper;
 import tools.jackson.dataformat.csv.CsvSchema;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CcmsUsersMonthlyExtractService {
 
+    private static final CsvSchema SCHEMA = CsvSchema.builder()
+            .addColumn("First Name")
+            .addColumn("Last Name")
+            .addColumn("Email")
+            .addColumn("Created Date")
+            .setUseHeader(true)
+            .build();
+
     private final EntraUserRepository entraUserRepository;
-    private final ReportUploadService reportUploadService;
+    private final ReportStreamingService reportStreamingService;
     private final String folderPath = "CCMS_users_monthly_extract";
     private final DateTimeFormatter fileTimestamp = DateTimeFormatter.ofPattern("MM-yyyy");
 
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     public void downloadCcmsUsersMonthlyExtract() {
+        downloadCcmsUsersMonthlyExtract(() -> { });
+    }
+
+    /**
+     * As {@link #downloadCcmsUsersMonthlyExtract()}, running {@code beforeUpload} once the report is
+     * written and just before it is uploaded. It can throw to stop the upload.
+     */
+    public void downloadCcmsUsersMonthlyExtract(Runnable beforeUpload) {
         LocalDate referenceDate = LocalDate.now();
 
         LocalDate endBoundary = referenceDate.withDayOfMonth(21);
@@ -43,61 +50,20 @@ public class CcmsUsersMonthlyExtractService {
         LocalDateTime start = startBoundary.atStartOfDay();
         LocalDateTime end = endBoundary.atStartOfDay();
 
-        List<Object[]> rows = entraUserRepository.findCcmsUsersWithAppInPeriod(
-                UserType.EXTERNAL, "CCMS PUI", start, end);
-
-        File csv = writeToCsv(rows, startBoundary, endBoundary);
-
-        try {
-            reportUploadService.uploadCsvToSharePoint(csv, folderPath);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        String baseName = "ccms_users_" + LocalDateTime.now().format(fileTimestamp);
+
+        reportStreamingService.upload("ccms-users-monthly-extract", baseName, folderPath, SCHEMA, writer -> {
+            try (Stream<Object[]> rows = entraUserRepository.findCcmsUsersWithAppInPeriod(
+                    UserType.EXTERNAL, "CCMS PUI", start, end)) {
+                rows.forEach(row -> writer.accept(List.of(
+                        row[0] == null ? "" : row[0],
+                        row[1] == null ? "" : row[1],
+                        row[2] == null ? "" : row[2],
+                        row[3] == null ? "" : ((LocalDateTime) row[3]).format(formatter)
+                )));
+            }
+        }, beforeUpload);
 
         log.info("Ccms user monthly report written to CSV successfully for window {} -> {}", startBoundary, endBoundary.minusDays(1));
     }
-
-    private File writeToCsv(List<Object[]> rows, LocalDate startBoundary, LocalDate endBoundary) {
-
-        String timestamp = LocalDateTime.now().format(fileTimestamp);
-        String filename = "ccms_users_" + timestamp + ".csv";
-
-        try {
-            CsvMapper mapper = CsvMapper.builder().build();
-
-            CsvSchema schema = CsvSchema.builder()
-                    .addColumn("First Name")
-                    .addColumn("Last Name")
-                    .addColumn("Email")
-                    .addColumn("Created Date")
-                    .setUseHeader(true)
-                    .build();
-
-            Path tempFile = Paths.get(
-                    System.getProperty("java.io.tmpdir"),
-                    filename
-            );
-            Files.deleteIfExists(tempFile);
-            Files.createFile(tempFile);
-
-            try (BufferedWriter writer = Files.newBufferedWriter(tempFile);
-                 SequenceWriter sequenceWriter = mapper
-                         .writer(schema)
-                         .writeValues(writer)) {
-
-                for (Object[] row : rows) {
-                    List<Object> csvRow = List.of(
-                            row[0] == null ? "" : row[0],
-                            row[1] == null ? "" : row[1],
-                            row[2] == null ? "" : row[2],
-                            row[3] == null ? "" : ((LocalDateTime) row[3]).format(formatter)
-                    );
-                    sequenceWriter.write(csvRow);
-                }
-                return tempFile.toFile();
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to write ccms users monthly extract to CSV", e);
-        }
-    }
 }
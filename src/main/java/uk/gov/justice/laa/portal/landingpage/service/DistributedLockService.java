@@ -2,20 +2,42 @@ package uk.gov.justice.laa.portal.landingpage.service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import uk.gov.justice.laa.portal.landingpage.repository.DistributedLockRepository;
 
+/**
+ * Cluster-wide locks held as leases in the {@code distributed_lock} table.
+ *
+ * <p>A lease lasts for the duration the caller asks for, and is renewed by a background heartbeat
+ * for as long as the task is running, so a job that runs past its lease is not started again on
+ * another instance. Each acquisition increments the lock's fencing token; tasks that need to guard
+ * their writes against a holder that has lost its lease can take a {@link LockLease} through
+ * {@link #withLease}. If a renewal finds the lock has been taken over, the lease is marked as no
+ * longer held, and {@link LockLease#ensureHeld} stops the task before its next side effect.</p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -23,22 +45,34 @@ import uk.gov.justice.laa.portal.landingpage.repository.DistributedLockRepositor
 public class DistributedLockService {
 
     private final DistributedLockRepository lockRepository;
+    private final MeterRegistry meterRegistry;
     private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, LockLease> activeLeases = new ConcurrentHashMap<>();
+
+    @Value("${app.distributed.lock.heartbeat.seconds:5}")
+    private long heartbeatSeconds = 5;
+
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    void startHeartbeat() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("lock-heartbeat-"));
+        heartbeat.scheduleWithFixedDelay(this::extendActiveLocks, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+    }
 
     @Retryable(retryFor = LockAcquisitionException.class,
             maxAttempts = 3,
             backoff = @Backoff(delay = 10000, multiplier = 2))
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public <T> T withLock(String lockKey, Duration lockDuration, Supplier<T> task) {
-        if (acquireLock(lockKey, lockDuration)) {
-            try {
-                return task.get();
-            } finally {
-                releaseLock(lockKey);
-            }
-        } else {
-            throw new LockAcquisitionException("Failed to acquire lock for key: " + lockKey);
-        }
+        return withLease(lockKey, lockDuration, lease -> task.get());
     }
 
     @Retryable(retryFor = LockAcquisitionException.class,
@@ -52,52 +86,158 @@ public class DistributedLockService {
         });
     }
 
+    /**
+     * Runs the task holding the lock, passing it the lease so it can read the fencing token and
+     * check the lock is still held before writing.
+     */
+    @Retryable(retryFor = LockAcquisitionException.class,
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 10000, multiplier = 2))
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public <T> T withLease(String lockKey, Duration lockDuration, Function<LockLease, T> task) {
+        LockLease lease = acquireLock(lockKey, lockDuration);
+        if (lease == null) {
+            throw new LockAcquisitionException("Failed to acquire lock for key: " + lockKey);
+        }
+        return runHolding(lease, task);
+    }
+
     /**
      * Attempts to acquire the lock once without retrying.
      * Returns true if the lock was acquired and the task executed, false otherwise.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public boolean tryOnceWithLock(String lockKey, Duration lockDuration, Runnable task) {
-        if (acquireLock(lockKey, lockDuration)) {
+        LockLease lease = acquireLock(lockKey, lockDuration);
+        if (lease == null) {
+            return false;
+        }
+        runHolding(lease, held -> {
+            task.run();
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Renews the leases held by this instance that have used up a third of their duration.
+     * Called by the heartbeat.
+     */
+    public void extendActiveLocks() {
+        long now = System.nanoTime();
+        for (LockLease lease : activeLeases.values()) {
+            if (now - lease.lastRenewedNanos < lease.duration.toNanos() / 3) {
+                continue;
+            }
             try {
-                task.run();
-            } finally {
-                releaseLock(lockKey);
+                int renewed = lockRepository.renewLock(lease.key, LocalDateTime.now().plus(lease.duration),
+                        instanceId, lease.fencingToken);
+                if (renewed == 0) {
+                    lease.held = false;
+                    activeLeases.remove(lease.key, lease);
+                    meterRegistry.counter("distributed.lock.lost", "key", lease.key).increment();
+                    log.error("Lost lock for key: {} (fencing token {}); another instance may now hold it",
+                            lease.key, lease.fencingToken);
+                } else {
+                    lease.lastRenewedNanos = now;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew lock for key: {}", lease.key, e);
             }
-            return true;
         }
-        return false;
     }
 
-    private boolean acquireLock(String key, Duration lockDuration) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime lockedUntil = now.plus(lockDuration);
-
+    private LockLease acquireLock(String key, Duration lockDuration) {
+        long start = System.nanoTime();
+        Optional<Long> fencingToken;
         try {
-            int updated = lockRepository.acquireLock(key, lockedUntil, instanceId);
-            if (updated == 0) {
-                return false;
-            }
+            fencingToken = lockRepository.acquireLock(key, LocalDateTime.now().plus(lockDuration), instanceId);
         } catch (Exception e) {
             log.debug("Failed to acquire lock for key: {}", key, e);
-            return false;
+            fencingToken = Optional.empty();
         }
-        return true;
+        Timer.builder("distributed.lock.wait")
+                .description("Time taken to try to acquire a distributed lock")
+                .tag("key", key)
+                .tag("result", fencingToken.isPresent() ? "acquired" : "busy")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return fencingToken.map(token -> new LockLease(key, token, lockDuration)).orElse(null);
     }
 
-    public void releaseLock(String key) {
+    private <T> T runHolding(LockLease lease, Function<LockLease, T> task) {
+        log.debug("Acquired lock for key: {} (fencing token {})", lease.key, lease.fencingToken);
+        activeLeases.put(lease.key, lease);
+        long start = System.nanoTime();
         try {
-            lockRepository.releaseLock(key, instanceId);
+            return task.apply(lease);
+        } finally {
+            activeLeases.remove(lease.key, lease);
+            Timer.builder("distributed.lock.hold")
+                    .description("Time a distributed lock was held")
+                    .tag("key", lease.key)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            releaseLock(lease);
+        }
+    }
+
+    private void releaseLock(LockLease lease) {
+        try {
+            lockRepository.releaseLock(lease.key, instanceId, lease.fencingToken);
         } catch (Exception e) {
-            log.warn("Failed to release lock for key: {}", key, e);
+            log.warn("Failed to release lock for key: {}", lease.key, e);
         }
     }
 
-    @Scheduled(fixedDelay = 30000) // Extend lock every 30 seconds
-    @Transactional
-    public void extendActiveLocks() {
-        // This would be called periodically to extend active locks
-        // Implementation depends on your specific requirements
+    /**
+     * A distributed lock held by a running task.
+     */
+    public static final class LockLease {
+
+        private final String key;
+        private final long fencingToken;
+        private final Duration duration;
+        private volatile long lastRenewedNanos = System.nanoTime();
+        private volatile boolean held = true;
+
+        LockLease(String key, long fencingToken, Duration duration) {
+            this.key = key;
+            this.fencingToken = fencingToken;
+            this.duration = duration;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Increases every time the lock is acquired, so a write tagged with an older token can be
+         * recognised as coming from a holder that has since lost the lock.
+         */
+        public long getFencingToken() {
+            return fencingToken;
+        }
+
+        /**
+         * False once a renewal has found that another instance has taken the lock.
+         */
+        public boolean isHeld() {
+            return held;
+        }
+
+        /**
+         * Throws if the lock is no longer held. A task calls this just before a side effect, such
+         * as an upload, that must not be repeated by the instance that has taken the lock over.
+         *
+         * @throws LockLostException if a renewal has found that another instance has the lock
+         */
+        public void ensureHeld() {
+            if (!held) {
+                throw new LockLostException("Lock for key: " + key + " (fencing token " + fencingToken
+                        + ") is no longer held");
+            }
+        }
     }
 
     public static class LockAcquisitionException extends RuntimeException {
@@ -105,4 +245,10 @@ public class DistributedLockService {
             super(message);
         }
     }
+
+    public static class LockLostException extends RuntimeException {
+        public LockLostException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,230 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatch;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatchStatus;
+import uk.gov.justice.laa.portal.landingpage.repository.EmailDispatchRepository;
+import uk.gov.service.notify.NotificationClient;
+import uk.gov.service.notify.NotificationClientException;
+import uk.gov.service.notify.SendEmailResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Persistent queue of GOV.UK Notify emails.
+ *
+ * <p>{@link #enqueue} only writes a row, so request threads never wait on Notify. The
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.EmailDispatchWorker} leases due rows and
+ * calls {@link #send} at a rate Notify accepts. Throttling and server errors are retried with
+ * jittered exponential backoff; errors Notify will never accept (bad template, bad address, bad
+ * key) go straight to {@code DEAD_LETTER}, as do emails that run out of attempts.</p>
+ */
+@Slf4j
+@Service
+public class EmailDispatchService {
+
+    private static final int MAX_ERROR_LENGTH = 4000;
+    static final String REDACTED = "[redacted]";
+    private static final TypeReference<Map<String, String>> PERSONALISATION_TYPE = new TypeReference<>() {
+    };
+
+    private final EmailDispatchRepository emailDispatchRepository;
+    private final NotificationClient notificationClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.email.dispatch.lease.seconds:120}")
+    private long leaseSeconds = 120;
+
+    @Value("${app.email.dispatch.max.attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${app.email.dispatch.backoff.initial.seconds:10}")
+    private long initialBackoffSeconds = 10;
+
+    @Value("${app.email.dispatch.backoff.max.seconds:1800}")
+    private long maxBackoffSeconds = 1800;
+
+    public EmailDispatchService(EmailDispatchRepository emailDispatchRepository, NotificationClient notificationClient,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.emailDispatchRepository = emailDispatchRepository;
+        this.notificationClient = notificationClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues an email for dispatch. Joins the caller's transaction when there is one, so an email
+     * about a change is only sent if the change commits, and a failure to queue it rolls the
+     * change back.
+     */
+    @Transactional
+    public EmailDispatch enqueue(String recipient, String templateId, Map<String, String> personalisation, String reference) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailDispatch dispatch = EmailDispatch.builder()
+                .recipient(recipient)
+                .templateId(templateId)
+                .personalisation(writePersonalisation(personalisation))
+                .reference(reference)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        EmailDispatch saved = emailDispatchRepository.save(dispatch);
+        meterRegistry.counter("notify.emails", "template", templateId, "outcome", "queued").increment();
+        return saved;
+    }
+
+    /**
+     * Leases the next batch of due emails to this instance, committing the lease straight away.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<EmailDispatch> leaseDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailDispatch> due = emailDispatchRepository.findDueForUpdateSkipLocked(now, batchSize);
+        for (EmailDispatch dispatch : due) {
+            dispatch.setStatus(EmailDispatchStatus.SENDING);
+            dispatch.setLockedBy(instanceId);
+            dispatch.setLockedUntil(now.plusSeconds(leaseSeconds));
+            dispatch.setAttempts(dispatch.getAttempts() + 1);
+        }
+        return emailDispatchRepository.saveAll(due);
+    }
+
+    /**
+     * Sends a leased email through Notify. The caller records the outcome with
+     * {@link #markSent(UUID, UUID)} or {@link #recordFailure(UUID, Exception)}.
+     *
+     * @return the Notify notification id
+     */
+    public UUID send(EmailDispatch leased) throws NotificationClientException, JsonProcessingException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            SendEmailResponse response = notificationClient.sendEmail(leased.getTemplateId(), leased.getRecipient(),
+                    readPersonalisation(leased.getPersonalisation()), leased.getReference());
+            outcome = "sent";
+            return response != null ? response.getNotificationId() : null;
+        } finally {
+            sample.stop(meterRegistry.timer("notify.email.send", "template", leased.getTemplateId(), "outcome", outcome));
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSent(UUID dispatchId, UUID notificationId) {
+        emailDispatchRepository.findById(dispatchId).ifPresent(dispatch -> {
+            dispatch.setStatus(EmailDispatchStatus.SENT);
+            dispatch.setNotificationId(notificationId);
+            dispatch.setProcessedAt(LocalDateTime.now());
+            dispatch.setLockedBy(null);
+            dispatch.setLockedUntil(null);
+            dispatch.setLastError(null);
+            emailDispatchRepository.save(dispatch);
+            log.info("Email {} sent with template {}, notification id: {}", dispatchId, dispatch.getTemplateId(), notificationId);
+            meterRegistry.counter("notify.emails", "template", dispatch.getTemplateId(), "outcome", "sent").increment();
+        });
+    }
+
+    /**
+     * Records a failed send, either scheduling a jittered retry or dead-lettering the email when
+     * the failure is permanent or the attempts are used up.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(UUID dispatchId, Exception cause) {
+        emailDispatchRepository.findById(dispatchId).ifPresent(dispatch -> {
+            dispatch.setLockedBy(null);
+            dispatch.setLockedUntil(null);
+            dispatch.setLastError(truncate(String.valueOf(cause.getMessage())));
+
+            if (!isRetryable(cause) || dispatch.getAttempts() >= maxAttempts) {
+                dispatch.setStatus(EmailDispatchStatus.DEAD_LETTER);
+                dispatch.setProcessedAt(LocalDateTime.now());
+                log.error("Email {} with template {} dead-lettered after {} attempts: {}",
+                        dispatchId, dispatch.getTemplateId(), dispatch.getAttempts(), cause.getMessage());
+                meterRegistry.counter("notify.emails", "template", dispatch.getTemplateId(), "outcome", "dead_letter").increment();
+            } else {
+                dispatch.setStatus(EmailDispatchStatus.PENDING);
+                dispatch.setNextAttemptAt(LocalDateTime.now().plus(backoff(dispatch.getAttempts())));
+                log.warn("Email {} with template {} failed on attempt {}, retrying at {}: {}",
+                        dispatchId, dispatch.getTemplateId(), dispatch.getAttempts(), dispatch.getNextAttemptAt(),
+                        cause.getMessage());
+                meterRegistry.counter("notify.emails", "template", dispatch.getTemplateId(), "outcome", "retried").increment();
+            }
+            emailDispatchRepository.save(dispatch);
+        });
+    }
+
+    @Transactional
+    public int purgeSent(Duration retention) {
+        return emailDispatchRepository.deleteByStatusAndProcessedAtBefore(EmailDispatchStatus.SENT,
+                LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Removes the recipient and personalisation of emails dead-lettered longer ago than the
+     * retention, so that the record of the failure does not keep the user's details.
+     */
+    @Transactional
+    public int redactDeadLetters(Duration retention) {
+        return emailDispatchRepository.redactDeadLettersProcessedBefore(REDACTED, LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Notify rejects bad requests, unknown templates and bad keys with 400 and 403; sending the
+     * same email again will not help. Rate limiting (429), server errors and anything that is
+     * not a Notify response at all (e.g. a connection failure) are worth another try, apart
+     * from personalisation that cannot be read back.
+     */
+    static boolean isRetryable(Exception cause) {
+        if (cause instanceof JsonProcessingException) {
+            return false;
+        }
+        if (cause instanceof NotificationClientException notifyException) {
+            int status = notifyException.getHttpResult();
+            return status == 429 || status >= 500 || status == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the delay is fixed and half is random, so that
+     * emails throttled together do not all come back at the same instant.
+     */
+    Duration backoff(int attempts) {
+        long exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        long millis = Math.min(initialBackoffSeconds << exponent, maxBackoffSeconds) * 1000;
+        long half = millis / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private String writePersonalisation(Map<String, String> personalisation) {
+        try {
+            return objectMapper.writeValueAsString(personalisation != null ? personalisation : Collections.emptyMap());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialise email personalisation", e);
+        }
+    }
+
+    private Map<String, String> readPersonalisation(String personalisation) throws JsonProcessingException {
+        return personalisation == null ? Collections.emptyMap() : objectMapper.readValue(personalisation, PERSONALISATION_TYPE);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
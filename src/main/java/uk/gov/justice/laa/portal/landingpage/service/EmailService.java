@@ -4,19 +4,20 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import uk.gov.service.notify.NotificationClient;
-import uk.gov.service.notify.NotificationClientException;
 
 import java.util.Map;
 
 /**
- * A service to send email notifications to users
+ * A service to send email notifications to users. Emails are queued and sent by the
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.EmailDispatchWorker}, so callers never
+ * wait on GOV.UK Notify. An email that cannot be queued fails the caller, as the queue joins the
+ * caller's transaction.
  */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final NotificationClient notificationClient;
+    private final EmailDispatchService emailDispatchService;
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
 
     public void sendMail(
@@ -27,9 +28,10 @@ public class EmailService {
     )  {
         try {
             log.info("EmailService::sendMail::templateID: {}", emailTemplate);
-            notificationClient.sendEmail(emailTemplate, targetEmail, parameters, reference);
-        } catch (Exception e) {
-            log.error("Error sending mail: {}", e.getMessage());
+            emailDispatchService.enqueue(targetEmail, emailTemplate, parameters, reference);
+        } catch (RuntimeException e) {
+            log.error("Error queueing mail: {}", e.getMessage());
+            throw e;
         }
     }
 }
@@ -1,34 +1,69 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.portal.landingpage.validation.BlocklistedEmailDomains;
+import uk.gov.justice.laa.portal.landingpage.validation.MxRecordResolver;
+import uk.gov.justice.laa.portal.landingpage.validation.MxRecordResolver.MxLookup;
 
-import javax.naming.NamingException;
-import javax.naming.NameNotFoundException;
-import javax.naming.directory.Attribute;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
-import java.util.Hashtable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+/**
+ * Validates email domains against the blocklist and DNS.
+ *
+ * <p>MX lookups are cached per domain: answers with MX records for the DNS TTL (capped at
+ * {@code positiveTtlSeconds}, or that long when the resolver cannot tell), answers without for
+ * {@code negativeTtlSeconds}. Lookups that fail outright are not cached. Concurrent validations of the
+ * same uncached domain share one lookup, which runs on a virtual thread and is abandoned after
+ * {@code lookupTimeoutSeconds} whether or not anyone is still waiting for it.</p>
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class EmailValidationService {
 
-    private static final ExecutorService executor = new ThreadPoolExecutor(10, 100, 3600,
-            TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000));
+    private static final int MAX_CACHED_DOMAINS = 10_000;
 
     private final BlocklistedEmailDomains blocklistedEmailDomains;
+    private final MxRecordResolver mxRecordResolver;
+    private final Clock clock;
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CachedLookup> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.email.validation.mx.positive.ttl.seconds:3600}")
+    private long positiveTtlSeconds = 3600;
+
+    @Value("${app.email.validation.mx.negative.ttl.seconds:300}")
+    private long negativeTtlSeconds = 300;
+
+    @Value("${app.email.validation.mx.lookup.timeout.seconds:10}")
+    private long lookupTimeoutSeconds = 10;
+
+    @Autowired
+    public EmailValidationService(BlocklistedEmailDomains blocklistedEmailDomains, MxRecordResolver mxRecordResolver) {
+        this(blocklistedEmailDomains, mxRecordResolver, Clock.systemUTC());
+    }
+
+    EmailValidationService(BlocklistedEmailDomains blocklistedEmailDomains, MxRecordResolver mxRecordResolver, Clock clock) {
+        this.blocklistedEmailDomains = blocklistedEmailDomains;
+        this.mxRecordResolver = mxRecordResolver;
+        this.clock = clock;
+    }
 
     public boolean isValidEmailDomain(String email) {
         return isValidEmailDomain(email, 30);
@@ -50,59 +85,98 @@ public class EmailValidationService {
             return false;
         }
 
-        Future<Boolean> future = executor.submit(() -> hasMxRecords(email));
+        CachedLookup cached = cache.get(domain);
+        if (cached != null && cached.expiresAt().isAfter(clock.instant())) {
+            return cached.hasMxRecords();
+        }
 
         try {
-            return future.get(timeout, TimeUnit.SECONDS);
+            return lookup(domain).get(timeout, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                log.error("The email domain validation took longer than expected. Possibly the email domain is invalid!", ex);
+                throw new RuntimeException("The email domain validation took longer than expected. Possibly the email domain is invalid!");
+            }
+            log.error("Error while performing email domain validation. Possibly the email domain is invalid!", ex);
+            throw new RuntimeException("Error while performing email domain validation. Possibly the email domain is invalid!");
         } catch (TimeoutException timeoutEx) {
             log.error("The email domain validation took longer than expected. Possibly the email domain is invalid!", timeoutEx);
             throw new RuntimeException("The email domain validation took longer than expected. Possibly the email domain is invalid!");
         } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error while performing email domain validation. Possibly the email domain is invalid!", ex);
             throw new RuntimeException("Error while performing email domain validation. Possibly the email domain is invalid!");
         }
-
     }
 
     /**
-     * Checks if the domain of a given email address has valid MX records.
-     *
-     * @param email The email address to validate.
-     * @return true if MX records are found, false otherwise.
+     * Returns the in-flight lookup for a domain, starting one if there is none.
      */
-    protected boolean hasMxRecords(String email) {
-        if (email == null || !email.contains("@")) {
-            return false;
+    private CompletableFuture<Boolean> lookup(String domain) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Boolean> existing = inFlight.putIfAbsent(domain, result);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isDone()) {
+                log.debug("Joining in-flight MX lookup for domain: {}", domain);
+                return existing;
+            }
+            // A finished lookup whose clean-up has not run yet; don't hand out its stale outcome
+            inFlight.remove(domain, existing);
         }
 
-        String domain = email.substring(email.lastIndexOf('@') + 1);
+        Future<?> task = lookupExecutor.submit(() -> result.complete(resolve(domain)));
+        result.orTimeout(lookupTimeoutSeconds, TimeUnit.SECONDS)
+                .whenComplete((hasMxRecords, failure) -> {
+                    inFlight.remove(domain, result);
+                    if (failure != null) {
+                        task.cancel(true);
+                    }
+                });
+        return result;
+    }
 
+    private boolean resolve(String domain) {
+        MxLookup lookup;
         try {
-            log.debug("Performing MX record lookup for domain: {}", domain);
-            Hashtable<String, String> env = new Hashtable<>();
-            env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
-            env.put("java.naming.provider.url", "dns:");
-
-            DirContext dirContext = new InitialDirContext(env);
-            Attributes attrs = dirContext.getAttributes(domain, new String[]{"MX"});
-            Attribute mxAttr = attrs.get("MX");
-
-            boolean recordsFound = mxAttr != null && mxAttr.size() > 0;
-            if (recordsFound) {
-                log.debug("Successfully found MX records for domain: {}", domain);
-            } else {
-                log.debug("No MX records found for domain: {}", domain);
-            }
-            return recordsFound;
-
-        } catch (NameNotFoundException e) {
-            // Non-existent domain
-            log.debug("DNS name not found (response code 3) for domain: {}", domain, e);
-            return false;
-        } catch (NamingException e) {
-            // Other DNS issues
+            lookup = mxRecordResolver.lookup(domain);
+        } catch (Exception e) {
+            // DNS could not answer; treat as invalid for now but ask again next time
             log.debug("DNS lookup failed for domain: {}", domain, e);
             return false;
         }
+
+        Duration ttl = Duration.ofSeconds(lookup.hasMxRecords() ? positiveTtlSeconds : negativeTtlSeconds);
+        if (lookup.ttl() != null && lookup.ttl().compareTo(ttl) < 0) {
+            ttl = lookup.ttl();
+        }
+        if (cache.size() >= MAX_CACHED_DOMAINS) {
+            evictExpired();
+        }
+        cache.put(domain, new CachedLookup(lookup.hasMxRecords(), clock.instant().plus(ttl)));
+        return lookup.hasMxRecords();
+    }
+
+    private void evictExpired() {
+        Instant now = clock.instant();
+        cache.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        if (cache.size() >= MAX_CACHED_DOMAINS) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Abandons the lookups still running, so that none outlive the application context.
+     */
+    @PreDestroy
+    public void onShutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    private record CachedLookup(boolean hasMxRecords, Instant expiresAt) {
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,16 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -47,11 +54,31 @@ public class ExternalUserPollingService {
     private final DeleteUserReasonRepository deleteUserReasonRepository;
     private final UserAccountStatusAuditRepository userAccountStatusAuditRepository;
     private final TechServicesClient techServicesClient;
-    private final UserService userService;
 
     @Value("${app.entra.sync.buffer.minutes:5}")
     private int bufferMinutes;
 
+    @Value("${app.entra.sync.batch.size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.entra.sync.window.minutes:30}")
+    private int baseWindowMinutes = 30;
+
+    @Value("${app.entra.sync.window.max.minutes:720}")
+    private int maxWindowMinutes = 720;
+
+    @Value("${app.entra.sync.window.target.users:2000}")
+    private int targetUsersPerWindow = 2000;
+
+    /**
+     * Width of the next polling window. Starts at {@code baseWindowMinutes} and doubles after each
+     * run that was behind and came back well under {@code targetUsersPerWindow}, so a backlog
+     * after an outage drains in a few runs rather than one 30 minute slice per run.
+     */
+    private volatile long windowMinutes;
+
+    private volatile Map<String, DisableUserReason> disableReasonsByKey;
+
     /**
      * Updates the sync metadata with current timestamp and last successful sync time.
      * This method is called by the scheduler to track sync operations.
@@ -72,9 +99,11 @@ public class ExternalUserPollingService {
                     ? lastTo.minusMinutes(bufferMinutes)
                     : toTime.minusMonths(1);
 
-            // Cap the time gap to 30 minutes
-            if (ChronoUnit.MINUTES.between(fromTime, toTime) > 30) {
-                toTime = fromTime.plusMinutes(30);
+            // Cap the time gap to the current window
+            long window = currentWindowMinutes();
+            boolean behind = ChronoUnit.MINUTES.between(fromTime, toTime) > window;
+            if (behind) {
+                toTime = fromTime.plusMinutes(window);
             }
 
             String fromDateTime = fromTime.truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + ".00Z";
@@ -94,10 +123,12 @@ public class ExternalUserPollingService {
                 }
 
                 updateSyncMetadataOnSuccess(existingMetadata, toTime, "Successfully saved EntraLastSyncMetadata: updatedAt={}, lastSuccessfulTo={}");
+                adaptWindow(window, behind, userCount);
             } else {
                 String errorMessage = response.getError().getMessage();
                 if ("Users not found.".equals(errorMessage)) {
                     log.info("No users updated in the specified time range");
+                    adaptWindow(window, behind, 0);
                     updateSyncMetadataOnSuccess(existingMetadata, toTime, "Successfully saved EntraLastSyncMetadata after 'Users not found to update' response: updatedAt={}, lastSuccessfulTo={}");
                 } else {
                     log.warn("Failed to retrieve users from Tech Services: {}", errorMessage);
@@ -110,9 +141,32 @@ public class ExternalUserPollingService {
         }
     }
 
+    private long currentWindowMinutes() {
+        return Math.max(windowMinutes, baseWindowMinutes);
+    }
+
+    private void adaptWindow(long window, boolean behind, int userCount) {
+        long next;
+        if (!behind) {
+            next = baseWindowMinutes;
+        } else if (userCount > targetUsersPerWindow) {
+            next = Math.max(window / 2, baseWindowMinutes);
+        } else if (userCount < targetUsersPerWindow / 2) {
+            next = Math.min(window * 2, Math.max(maxWindowMinutes, baseWindowMinutes));
+        } else {
+            next = window;
+        }
+        if (next != window) {
+            log.info("External user sync window changed from {} to {} minutes", window, next);
+        }
+        windowMinutes = next;
+    }
+
     /**
      * Synchronizes user data from Tech Services API response to local EntraUser records.
      * Updates firstName, lastName, enabled, mailOnly, and lastSyncedOn fields.
+     * Users are looked up and written back {@code batchSize} at a time, in JDBC batches, and the
+     * SiLAS status of their profiles is then recomputed with a single update per batch.
      *
      * @param users List of users from Tech Services API
      * @param syncTime The sync time to set as lastSyncedOn
@@ -121,73 +175,112 @@ public class ExternalUserPollingService {
     void synchronizeUsers(List<TechServicesUser> users, LocalDateTime syncTime) {
         int updatedCount = 0;
 
-        for (TechServicesUser user : users) {
+        for (int start = 0; start < users.size(); start += batchSize) {
+            List<TechServicesUser> batch = users.subList(start, Math.min(start + batchSize, users.size()));
             try {
-                Optional<EntraUser> entraUserOptional = entraUserRepository.findByEntraOid(user.getId());
+                updatedCount += synchronizeBatch(batch, syncTime);
+            } catch (Exception e) {
+                log.error("Error synchronizing batch of {} users: {}", batch.size(), e.getMessage(), e);
+            }
+        }
 
-                if (entraUserOptional.isPresent()) {
-                    EntraUser entraUser = entraUserOptional.get();
+        log.info("User synchronization completed: {} users updated",
+                updatedCount);
+    }
 
-                    if (user.isDeleted()) {
-                        deleteUser(entraUser);
-                        updatedCount++;
-                        log.info("Deleted entra user: {}  - marked as deleted in Entra",
-                                entraUser.getEntraOid());
-                        continue;
-                    }
+    private int synchronizeBatch(List<TechServicesUser> users, LocalDateTime syncTime) {
+        Set<String> entraOids = users.stream()
+                .map(TechServicesUser::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, EntraUser> entraUsersByOid = new HashMap<>();
+        for (EntraUser entraUser : entraUserRepository.findWithProfilesByEntraOidIn(entraOids)) {
+            entraUsersByOid.put(entraUser.getEntraOid(), entraUser);
+        }
 
-                    boolean isEnabledInSilas = entraUser.isEnabled();
-
-                    // Update user fields if not deleted
-                    if (user.getAccountEnabled() != null) {
-                        if (user.getAccountEnabled() && !isEnabledInSilas) {
-                            // user account enabled in entra, re-enabling in silas
-                            enableUserWithReason(user, entraUser);
-                        } else if (!user.getAccountEnabled() && isEnabledInSilas) {
-                            //user account has disabled reason in entra, disabling in silas
-                            disableUserWithReason(user, entraUser);
-                        }
-                    } else {
-                        log.warn("Could not update enabled status of user with ID {} when polling external users. Tech Services returned null for enabled status", entraUser.getId());
-                    }
+        Map<String, EntraUser> changedUsers = new LinkedHashMap<>();
+        List<UserAccountStatusAudit> audits = new ArrayList<>();
+        int updatedCount = 0;
 
-                    updateAccountActivationStatus(user, entraUser);
+        for (TechServicesUser user : users) {
+            EntraUser entraUser = entraUsersByOid.get(user.getId());
+            if (entraUser == null) {
+                continue;
+            }
+            try {
+                if (user.isDeleted()) {
+                    changedUsers.remove(entraUser.getEntraOid());
+                    entraUsersByOid.remove(user.getId());
+                    deleteUser(entraUser);
+                    updatedCount++;
+                    log.info("Deleted entra user: {}  - marked as deleted in Entra",
+                            entraUser.getEntraOid());
+                    continue;
+                }
 
-                    if (user.getGivenName() != null && !user.getGivenName().equals(entraUser.getFirstName())) {
-                        entraUser.setFirstName(user.getGivenName());
+                boolean isEnabledInSilas = entraUser.isEnabled();
+
+                // Update user fields if not deleted
+                if (user.getAccountEnabled() != null) {
+                    if (user.getAccountEnabled() && !isEnabledInSilas) {
+                        // user account enabled in entra, re-enabling in silas
+                        audits.add(markEnabled(entraUser));
+                    } else if (!user.getAccountEnabled() && isEnabledInSilas) {
+                        //user account has disabled reason in entra, disabling in silas
+                        markDisabled(entraUser);
+                        disableAudit(user, entraUser).ifPresent(audits::add);
                     }
+                } else {
+                    log.warn("Could not update enabled status of user with ID {} when polling external users. Tech Services returned null for enabled status", entraUser.getId());
+                }
 
-                    if (user.getSurname() != null && !user.getSurname().equals(entraUser.getLastName())) {
-                        entraUser.setLastName(user.getSurname());
-                    }
+                updateAccountActivationStatus(user, entraUser);
 
-                    if (user.getEmail() != null && !user.getEmail().equals(entraUser.getEmail())) {
-                        entraUser.setEmail(user.getEmail());
-                    }
+                if (user.getGivenName() != null && !user.getGivenName().equals(entraUser.getFirstName())) {
+                    entraUser.setFirstName(user.getGivenName());
+                }
 
-                    if (user.getIsMailOnly() != null) {
-                        if (user.getIsMailOnly() != entraUser.isMailOnly()) {
-                            entraUser.setMailOnly(user.getIsMailOnly());
-                        }
-                    }
+                if (user.getSurname() != null && !user.getSurname().equals(entraUser.getLastName())) {
+                    entraUser.setLastName(user.getSurname());
+                }
 
+                if (user.getEmail() != null && !user.getEmail().equals(entraUser.getEmail())) {
+                    entraUser.setEmail(user.getEmail());
+                }
 
-                    // Update Silas Status for the user
-                    userService.refreshAndUpdatedUserProfilesStatus(entraUser.isEnabled(), entraUser.getInvitationStatus(), entraUser.getUserProfiles());
+                if (user.getIsMailOnly() != null) {
+                    if (user.getIsMailOnly() != entraUser.isMailOnly()) {
+                        entraUser.setMailOnly(user.getIsMailOnly());
+                    }
+                }
 
-                    entraUser.setLastSyncedOn(syncTime);
+                entraUser.setLastSyncedOn(syncTime);
 
-                    entraUserRepository.save(entraUser);
-                    updatedCount++;
-                    log.info("Updated user: {} with entra oid {}", user.getId(), entraUser.getEntraOid());
-                }
+                changedUsers.put(entraUser.getEntraOid(), entraUser);
+                updatedCount++;
+                log.info("Updated user: {} with entra oid {}", user.getId(), entraUser.getEntraOid());
             } catch (Exception e) {
                 log.error("Error synchronizing user {}: {}", user.getId(), e.getMessage(), e);
             }
         }
 
-        log.info("User synchronization completed: {} users updated",
-                updatedCount);
+        if (!changedUsers.isEmpty()) {
+            entraUserRepository.saveAll(changedUsers.values());
+            // Bring the SiLAS status of the batch's profiles in line in one update, once the users are written
+            Set<UUID> profileIds = changedUsers.values().stream()
+                    .filter(entraUser -> entraUser.getUserProfiles() != null)
+                    .flatMap(entraUser -> entraUser.getUserProfiles().stream())
+                    .map(UserProfile::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            if (!profileIds.isEmpty()) {
+                userProfileRepository.refreshSilasStatuses(profileIds);
+            }
+        }
+        if (!audits.isEmpty()) {
+            userAccountStatusAuditRepository.saveAll(audits);
+        }
+        return updatedCount;
     }
 
     private void updateAccountActivationStatus(TechServicesUser user, EntraUser entraUser) {
@@ -320,30 +413,9 @@ public class ExternalUserPollingService {
 
     public void disableUserWithReason(TechServicesUser user, EntraUser entraUser) {
         try {
-            entraUser.setEnabled(false);
-            entraUser.setDisableType(DisableType.SYNC);
+            markDisabled(entraUser);
             entraUserRepository.save(entraUser);
-            log.info("Disabled user: {} from API sync",
-                    entraUser.getEntraOid());
-            if (user.getCustomSecurityAttributes() != null
-                    && user.getCustomSecurityAttributes().getGuestUserStatus() != null
-                    && user.getCustomSecurityAttributes().getGuestUserStatus().getDisabledReason() != null) {
-                String disabledReasonFromApi = user.getCustomSecurityAttributes()
-                        .getGuestUserStatus().getDisabledReason();
-                DisableUserReason disableReason = findOrCreateDisableReason(disabledReasonFromApi);
-                UserAccountStatusAudit audit = UserAccountStatusAudit.builder()
-                        .entraUser(entraUser)
-                        .disableUserReason(disableReason)
-                        .statusChange(UserAccountStatus.DEACTIVATED)
-                        .statusChangedBy("External user sync") // Automated disable from API sync
-                        .statusChangedDate(LocalDateTime.now())
-                        .build();
-
-                userAccountStatusAuditRepository.save(audit);
-                log.info("Disabled user: {} - Reason: {} from API sync",
-                        entraUser.getEntraOid(), disableReason.getName());
-            }
-
+            disableAudit(user, entraUser).ifPresent(userAccountStatusAuditRepository::save);
         } catch (Exception e) {
             log.error("Error disabling entra user {}: {}",
                     entraUser.getEntraOid(), e.getMessage(), e);
@@ -352,40 +424,99 @@ public class ExternalUserPollingService {
 
     public void enableUserWithReason(TechServicesUser user, EntraUser entraUser) {
         try {
-            entraUser.setEnabled(true);
+            UserAccountStatusAudit audit = markEnabled(entraUser);
             entraUserRepository.save(entraUser);
+            userAccountStatusAuditRepository.save(audit);
+        } catch (Exception e) {
+            log.error("Error enabling entra user {}: {}",
+                    entraUser.getEntraOid(), e.getMessage(), e);
+        }
+    }
+
+    private void markDisabled(EntraUser entraUser) {
+        entraUser.setEnabled(false);
+        entraUser.setDisableType(DisableType.SYNC);
+        log.info("Disabled user: {} from API sync",
+                entraUser.getEntraOid());
+    }
+
+    /**
+     * Audit record for a sync disable, if Entra gave a reason. A reason that is not in the database
+     * is logged and the user stays disabled without an audit record.
+     */
+    private Optional<UserAccountStatusAudit> disableAudit(TechServicesUser user, EntraUser entraUser) {
+        if (user.getCustomSecurityAttributes() == null
+                || user.getCustomSecurityAttributes().getGuestUserStatus() == null
+                || user.getCustomSecurityAttributes().getGuestUserStatus().getDisabledReason() == null) {
+            return Optional.empty();
+        }
+        try {
+            String disabledReasonFromApi = user.getCustomSecurityAttributes()
+                    .getGuestUserStatus().getDisabledReason();
+            DisableUserReason disableReason = findOrCreateDisableReason(disabledReasonFromApi);
             UserAccountStatusAudit audit = UserAccountStatusAudit.builder()
                     .entraUser(entraUser)
-                    .statusChange(UserAccountStatus.ACTIVATED)
-                    .statusChangedBy("External user sync") // Automated enable from API sync
+                    .disableUserReason(disableReason)
+                    .statusChange(UserAccountStatus.DEACTIVATED)
+                    .statusChangedBy("External user sync") // Automated disable from API sync
                     .statusChangedDate(LocalDateTime.now())
                     .build();
-
-            userAccountStatusAuditRepository.save(audit);
-
-            log.info("Enabled entra user: {} from external user API sync", entraUser.getEntraOid());
-
+            log.info("Disabled user: {} - Reason: {} from API sync",
+                    entraUser.getEntraOid(), disableReason.getName());
+            return Optional.of(audit);
         } catch (Exception e) {
-            log.error("Error enabling entra user {}: {}",
+            log.error("Error disabling entra user {}: {}",
                     entraUser.getEntraOid(), e.getMessage(), e);
+            return Optional.empty();
         }
     }
 
+    private UserAccountStatusAudit markEnabled(EntraUser entraUser) {
+        entraUser.setEnabled(true);
+        log.info("Enabled entra user: {} from external user API sync", entraUser.getEntraOid());
+        return UserAccountStatusAudit.builder()
+                .entraUser(entraUser)
+                .statusChange(UserAccountStatus.ACTIVATED)
+                .statusChangedBy("External user sync") // Automated enable from API sync
+                .statusChangedDate(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Looks a reason up by name or Entra description, case-insensitively. Reasons are reference
+     * data, so they are loaded once and only reloaded when an unknown reason turns up.
+     */
     private DisableUserReason findOrCreateDisableReason(String reasonFromApi) {
-        Optional<DisableUserReason> existingReason = disableUserReasonRepository.findAll()
-                .stream()
-                .filter(reason -> reason.getName().equalsIgnoreCase(reasonFromApi)
-                        || reason.getEntraDescription().equalsIgnoreCase(reasonFromApi))
-                .findFirst();
-
-        if (existingReason.isPresent()) {
-            return existingReason.get();
+        String key = reasonFromApi.toLowerCase(Locale.ROOT);
+        Map<String, DisableUserReason> reasons = disableReasonsByKey;
+        DisableUserReason reason = reasons != null ? reasons.get(key) : null;
+        if (reason == null) {
+            reasons = loadDisableReasons();
+            reason = reasons.get(key);
+        }
+
+        if (reason != null) {
+            return reason;
         }
 
         log.warn("Disable reason '{}' not found in database. This indicates a configuration issue.", reasonFromApi);
         throw new IllegalStateException("Disable reason not found: " + reasonFromApi);
     }
 
+    private Map<String, DisableUserReason> loadDisableReasons() {
+        Map<String, DisableUserReason> reasons = new HashMap<>();
+        for (DisableUserReason reason : disableUserReasonRepository.findAll()) {
+            if (reason.getName() != null) {
+                reasons.putIfAbsent(reason.getName().toLowerCase(Locale.ROOT), reason);
+            }
+            if (reason.getEntraDescription() != null) {
+                reasons.putIfAbsent(reason.getEntraDescription().toLowerCase(Locale.ROOT), reason);
+            }
+        }
+        disableReasonsByKey = reasons;
+        return reasons;
+    }
+
     private void updateSyncMetadataOnSuccess(Optional<EntraLastSyncMetadata> existingMetadata, LocalDateTime toTime, String logMessage) {
         LocalDateTime syncCompletedTime = LocalDateTime.now();
 
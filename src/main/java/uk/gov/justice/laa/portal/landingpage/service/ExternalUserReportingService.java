@@ -1,106 +1,73 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
-import tools.jackson.databind.SequenceWriter;
-import tools.jackson.dataformat.csv.CsvMapper;
 import tools.jackson.dataformat.csv.CsvSchema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ExternalUserReportingService {
 
+    private static final CsvSchema SCHEMA = CsvSchema.builder()
+            .addColumn("Firm Name")
+            .addColumn("Firm Code")
+            .addColumn("Firm Type")
+            .addColumn("Parent Firm Code")
+            .addColumn("Total User Count")
+            .addColumn("Admin User Count")
+            .addColumn("Multi-Firm User Count")
+            .addColumn("Complete User Count")
+            .addColumn("Activation Pending User Count")
+            .addColumn("Incomplete User Count")
+            .addColumn("No Roles Assigned User Count")
+            .addColumn("Disabled User Count")
+            .setUseHeader(true)
+            .build();
+
     private final FirmRepository firmRepository;
-    private final ReportUploadService reportUploadService;
+    private final ReportStreamingService reportStreamingService;
     private final String folderPath = "external_user_reports";
     private final DateTimeFormatter fileTimestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmm");
 
     public void downloadExternalUserCsv() {
-        List<Object[]> reportRows = new ArrayList<>(firmRepository.findAllFirmExternalUserCount());
-        File csv = writeToCsv(reportRows);
-
-        try {
-            reportUploadService.uploadCsvToSharePoint(csv, folderPath);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-
-        log.info("External user report written to CSV successfully");
+        downloadExternalUserCsv(() -> { });
     }
 
-    private File writeToCsv(List<Object[]> rows) {
-
+    /**
+     * As {@link #downloadExternalUserCsv()}, running {@code beforeUpload} once the report is
+     * written and just before it is uploaded. It can throw to stop the upload.
+     */
+    public void downloadExternalUserCsv(Runnable beforeUpload) {
         String timestamp = LocalDateTime.now().format(fileTimestamp);
-        String filename = "SiLAS-external-user-report-" + timestamp + ".csv";
-
-        try {
-            CsvMapper mapper = CsvMapper.builder().build();
+        String baseName = "SiLAS-external-user-report-" + timestamp;
 
-            CsvSchema schema = CsvSchema.builder()
-                    .addColumn("Firm Name")
-                    .addColumn("Firm Code")
-                    .addColumn("Firm Type")
-                    .addColumn("Parent Firm Code")
-                    .addColumn("Total User Count")
-                    .addColumn("Admin User Count")
-                    .addColumn("Multi-Firm User Count")
-                    .addColumn("Complete User Count")
-                    .addColumn("Activation Pending User Count")
-                    .addColumn("Incomplete User Count")
-                    .addColumn("No Roles Assigned User Count")
-                    .addColumn("Disabled User Count")
-                    .setUseHeader(true)
-                    .build();
-
-            Path tempFile = Paths.get(
-                    System.getProperty("java.io.tmpdir"),
-                    filename
-            );
-            Files.createFile(tempFile);
-            try (BufferedWriter writer = Files.newBufferedWriter(tempFile);
-                 SequenceWriter sequenceWriter = mapper
-                         .writer(schema)
-                         .writeValues(writer)) {
-
-                for (Object[] row : rows) {
-
-                    List<Object> csvRow = List.of(
-                            row[0],
-                            row[1] == null ? "" : row[1],
-                            row[2],
-                            row[3] == null ? "" : row[3],
-                            row[4],
-                            row[5],
-                            row[6],
-                            row[7],
-                            row[8],
-                            row[9],
-                            row[10],
-                            row[11]
-                    );
-                    sequenceWriter.write(csvRow);
-                }
-                return tempFile.toFile();
+        reportStreamingService.upload("external-user", baseName, folderPath, SCHEMA, writer -> {
+            try (Stream<Object[]> rows = firmRepository.findAllFirmExternalUserCount()) {
+                rows.forEach(row -> writer.accept(List.of(
+                        row[0],
+                        row[1] == null ? "" : row[1],
+                        row[2],
+                        row[3] == null ? "" : row[3],
+                        row[4],
+                        row[5],
+                        row[6],
+                        row[7],
+                        row[8],
+                        row[9],
+                        row[10],
+                        row[11]
+                )));
             }
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to write external users to CSV", e);
-        }
+        }, beforeUpload);
+
+        log.info("External user report written to CSV successfully");
     }
 }
-
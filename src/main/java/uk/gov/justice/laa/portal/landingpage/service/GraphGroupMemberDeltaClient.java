@@ -0,0 +1,79 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.graph.serviceclient.GraphServiceClient;
+import com.microsoft.kiota.ApiException;
+import com.microsoft.kiota.HttpMethod;
+import com.microsoft.kiota.RequestInformation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link GroupMemberDeltaClient} backed by {@code GET /groups/delta}, filtered to one group and
+ * selecting only its members.
+ *
+ * <p>The SDK has no typed model for {@code members@delta}, so pages are fetched through the
+ * client's request adapter (which still handles authentication and retries) and read as JSON.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphGroupMemberDeltaClient implements GroupMemberDeltaClient {
+
+    private static final String USER_TYPE = "#microsoft.graph.user";
+    private static final int GONE = 410;
+
+    private final GraphServiceClient graphClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String initialUrl(String groupId) {
+        String filter = URLEncoder.encode("id eq '" + groupId + "'", StandardCharsets.UTF_8).replace("+", "%20");
+        return graphClient.getRequestAdapter().getBaseUrl() + "/groups/delta?$filter=" + filter + "&$select=members";
+    }
+
+    @Override
+    public DeltaPage fetch(String url) {
+        RequestInformation request = new RequestInformation();
+        request.httpMethod = HttpMethod.GET;
+        request.setUri(URI.create(url));
+        request.headers.tryAdd("Accept", "application/json");
+        try (InputStream body = graphClient.getRequestAdapter().sendPrimitive(request, null, InputStream.class)) {
+            if (body == null) {
+                throw new IllegalStateException("Empty response from Graph group delta query");
+            }
+            return parse(objectMapper.readTree(body));
+        } catch (ApiException e) {
+            if (e.getResponseStatusCode() == GONE) {
+                throw new DeltaTokenExpiredException("Graph rejected group delta token", e);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read Graph group delta response", e);
+        }
+    }
+
+    static DeltaPage parse(JsonNode page) {
+        List<MemberChange> changes = new ArrayList<>();
+        for (JsonNode group : page.path("value")) {
+            for (JsonNode member : group.path("members@delta")) {
+                String type = member.path("@odata.type").asText(USER_TYPE);
+                String id = member.path("id").asText(null);
+                if (USER_TYPE.equals(type) && id != null) {
+                    changes.add(new MemberChange(UUID.fromString(id), member.has("@removed")));
+                }
+            }
+        }
+        return new DeltaPage(changes, page.path("@odata.nextLink").asText(null), page.path("@odata.deltaLink").asText(null));
+    }
+}
@@ -0,0 +1,239 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads a file to a Microsoft Graph upload session in fixed-size chunks.
+ *
+ * <p>Upload URLs are pre-authenticated, so chunks are sent with a plain HTTP client rather than
+ * the Graph SDK. A chunk that fails with a network error, throttling or a server error is retried
+ * up to {@code maxChunkAttempts} times; before each retry the session is asked which bytes it
+ * still expects, so the upload resumes from where Graph got to rather than from the start. The
+ * attempts only start again once the upload gets further through the file, so a session that
+ * keeps accepting chunks without moving on cannot keep the upload going for ever.</p>
+ */
+@Slf4j
+@Component
+public class GraphUploadSessionClient {
+
+    /**
+     * Graph requires every chunk but the last to be a multiple of 320 KiB.
+     */
+    static final int CHUNK_MULTIPLE = 320 * 1024;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int chunkSize;
+    private final int maxChunkAttempts;
+    private final long retryDelayMillis;
+
+    @Autowired
+    public GraphUploadSessionClient(@Value("${report.sharepoint.upload.chunk.bytes:3276800}") int chunkBytes,
+                                    @Value("${report.sharepoint.upload.chunk.max.attempts:4}") int maxChunkAttempts) {
+        this(HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build(), chunkBytes, maxChunkAttempts, 1000);
+    }
+
+    GraphUploadSessionClient(HttpClient httpClient, int chunkBytes, int maxChunkAttempts, long retryDelayMillis) {
+        this.httpClient = httpClient;
+        this.chunkSize = Math.max(CHUNK_MULTIPLE, chunkBytes / CHUNK_MULTIPLE * CHUNK_MULTIPLE);
+        this.maxChunkAttempts = Math.max(1, maxChunkAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sends the whole file to the upload session.
+     *
+     * @return the id of the drive item Graph created
+     * @throws UploadSessionExpiredException if the session no longer exists and a new one is needed
+     */
+    public String upload(String uploadUrl, Path file) throws IOException, InterruptedException {
+        long size = Files.size(file);
+        long offset = 0;
+        int attempts = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (true) {
+                int length = (int) Math.min(chunkSize, size - offset);
+                byte[] chunk = read(channel, offset, length);
+                HttpResponse<String> response;
+                try {
+                    response = putChunk(uploadUrl, chunk, offset, size);
+                } catch (IOException e) {
+                    log.warn("Chunk at offset {} of {} failed: {}", offset, file.getFileName(), e.getMessage());
+                    attempts = failedAttempt(uploadUrl, attempts, e, null);
+                    offset = nextExpectedOffset(uploadUrl).orElse(offset);
+                    continue;
+                }
+
+                int status = response.statusCode();
+                if (status == 200 || status == 201) {
+                    return objectMapper.readTree(response.body()).path("id").asText(null);
+                }
+                if (status == 202) {
+                    long next = firstExpectedOffset(objectMapper.readTree(response.body())).orElse(offset + length);
+                    if (next > offset) {
+                        attempts = 0;
+                    } else {
+                        log.warn("Chunk at offset {} of {} was accepted but Graph still expects offset {}", offset,
+                                file.getFileName(), next);
+                        attempts = failedAttempt(uploadUrl, attempts,
+                                new IOException("Upload session made no progress at offset " + offset), response);
+                    }
+                    offset = next;
+                } else if (status == 404) {
+                    throw new UploadSessionExpiredException("Upload session for " + file.getFileName() + " no longer exists");
+                } else if (status == 416) {
+                    // Graph does not expect this range; carry on from whatever it is still waiting for
+                    log.warn("Chunk at offset {} of {} was not the range Graph expected", offset, file.getFileName());
+                    attempts = failedAttempt(uploadUrl, attempts,
+                            new IOException("Upload session returned 416: " + response.body()), response);
+                    offset = nextExpectedOffset(uploadUrl).orElse(offset);
+                } else if (isRetryable(status)) {
+                    log.warn("Chunk at offset {} of {} failed with status {}", offset, file.getFileName(), status);
+                    attempts = failedAttempt(uploadUrl, attempts,
+                            new IOException("Upload session returned " + status + ": " + response.body()), response);
+                    offset = nextExpectedOffset(uploadUrl).orElse(offset);
+                } else {
+                    cancel(uploadUrl);
+                    throw new IOException("Upload session rejected chunk with status " + status + ": " + response.body());
+                }
+            }
+        }
+    }
+
+    private HttpResponse<String> putChunk(String uploadUrl, byte[] chunk, long offset, long size)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uploadUrl))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Range", "bytes " + offset + "-" + (offset + chunk.length - 1) + "/" + size)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(chunk))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Counts a failed attempt at the current chunk and waits before the next one, giving up (and
+     * cancelling the session) once the attempts are used up.
+     */
+    private int failedAttempt(String uploadUrl, int attempts, IOException failure, HttpResponse<String> response)
+            throws IOException, InterruptedException {
+        int made = attempts + 1;
+        if (made >= maxChunkAttempts) {
+            cancel(uploadUrl);
+            throw new IOException("Chunk upload failed after " + made + " attempts", failure);
+        }
+        long delay = retryDelayMillis * (1L << (made - 1));
+        if (response != null) {
+            delay = Math.max(delay, retryAfterMillis(response));
+        }
+        Thread.sleep(delay);
+        return made;
+    }
+
+    /**
+     * How long the {@code Retry-After} header asks us to wait, given either as a number of
+     * seconds or as an HTTP date. Zero, so the backoff applies, when it is missing or unreadable.
+     */
+    private static long retryAfterMillis(HttpResponse<?> response) {
+        String retryAfter = response.headers().firstValue("Retry-After").map(String::trim).orElse("");
+        if (retryAfter.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds; try an HTTP date
+        }
+        try {
+            ZonedDateTime until = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(until.getZone()), until).toMillis());
+        } catch (DateTimeParseException e) {
+            log.warn("Ignoring unreadable Retry-After header: {}", retryAfter);
+            return 0;
+        }
+    }
+
+    /**
+     * Asks the session which bytes it is still waiting for.
+     */
+    private OptionalLong nextExpectedOffset(String uploadUrl) throws InterruptedException {
+        try {
+            HttpResponse<String> status = httpClient.send(HttpRequest.newBuilder(URI.create(uploadUrl))
+                    .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (status.statusCode() == 200) {
+                return firstExpectedOffset(objectMapper.readTree(status.body()));
+            }
+            log.warn("Upload session status returned {}", status.statusCode());
+        } catch (IOException e) {
+            log.warn("Unable to read upload session status: {}", e.getMessage());
+        }
+        return OptionalLong.empty();
+    }
+
+    private void cancel(String uploadUrl) throws InterruptedException {
+        try {
+            httpClient.send(HttpRequest.newBuilder(URI.create(uploadUrl)).timeout(Duration.ofSeconds(30)).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.warn("Unable to cancel upload session: {}", e.getMessage());
+        }
+    }
+
+    private static OptionalLong firstExpectedOffset(JsonNode session) {
+        JsonNode ranges = session.path("nextExpectedRanges");
+        if (!ranges.isArray() || ranges.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        String range = ranges.get(0).asText();
+        int dash = range.indexOf('-');
+        return OptionalLong.of(Long.parseLong(dash < 0 ? range : range.substring(0, dash)));
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    private static byte[] read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("File ended before offset " + (offset + length));
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * The upload session has expired or been deleted; the upload has to start again in a new one.
+     */
+    public static class UploadSessionExpiredException extends IOException {
+        public UploadSessionExpiredException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads changes to a security group's membership through Graph delta queries.
+ *
+ * <p>Walking {@link #initialUrl} to the end returns every current member as an addition and
+ * finishes with a delta link. Fetching that delta link later returns only the members added or
+ * removed since, again finishing with a fresh delta link.</p>
+ */
+public interface GroupMemberDeltaClient {
+
+    /**
+     * @return the URL of the first page of a delta query that enumerates the whole group
+     */
+    String initialUrl(String groupId);
+
+    /**
+     * Fetches one page of a delta query.
+     *
+     * @param url the initial URL, a next link or a delta link
+     * @throws DeltaTokenExpiredException if Graph no longer recognises the delta token
+     */
+    DeltaPage fetch(String url);
+
+    record MemberChange(UUID id, boolean removed) {
+    }
+
+    /**
+     * One page of changes. Exactly one of {@code nextLink} (more pages to come) and
+     * {@code deltaLink} (the changes are complete) is set.
+     */
+    record DeltaPage(List<MemberChange> changes, String nextLink, String deltaLink) {
+    }
+
+    /**
+     * Graph has discarded the delta state behind a token and the group has to be read in full.
+     */
+    class DeltaTokenExpiredException extends RuntimeException {
+        public DeltaTokenExpiredException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
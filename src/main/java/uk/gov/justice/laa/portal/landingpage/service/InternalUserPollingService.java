@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 import com.microsoft.graph.serviceclient.GraphServiceClient;
+import com.microsoft.kiota.ApiException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,19 +12,43 @@ import com.microsoft.graph.models.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraLastSyncMetadata;
 import uk.gov.justice.laa.portal.landingpage.entity.UserStatus;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraLastSyncMetadataRepository;
+import uk.gov.justice.laa.portal.landingpage.service.GroupMemberDeltaClient.DeltaPage;
+import uk.gov.justice.laa.portal.landingpage.service.GroupMemberDeltaClient.DeltaTokenExpiredException;
+import uk.gov.justice.laa.portal.landingpage.service.GroupMemberDeltaClient.MemberChange;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Keeps internal users in step with the internal Entra security group.
+ *
+ * <p>Each poll reads the group's membership changes since the last poll through a Graph delta
+ * query, starting from the delta link stored in {@code entra_last_sync_metadata}. Without a stored
+ * link, or when Graph has expired it, the whole group is read and diffed against the database
+ * instead, and the delta link from that read is stored for next time.</p>
+ */
 @Service
 @RequiredArgsConstructor
 
 public class InternalUserPollingService {
 
+    static final String DELTA_SYNC_ID = "INTERNAL_USER_GROUP_DELTA";
+    private static final int MAX_DELTA_PAGES = 10_000;
+
     private final GraphServiceClient graphClient;
     private final UserService userService;
+    private final GroupMemberDeltaClient groupMemberDeltaClient;
+    private final EntraLastSyncMetadataRepository entraLastSyncMetadataRepository;
 
     @Value("${internal.user.polling.group.id}")
     private String pollingGroupId;
@@ -32,14 +57,111 @@ public class InternalUserPollingService {
     Logger logger = LoggerFactory.getLogger(InternalUserPollingService.class);
 
     public void pollForNewUsers() {
-        List<UUID> existingUserOids = userService.getInternalUserEntraIds();
+        Optional<EntraLastSyncMetadata> syncState = entraLastSyncMetadataRepository.findById(DELTA_SYNC_ID);
+        String deltaLink = syncState.map(EntraLastSyncMetadata::getDeltaLink).orElse(null);
+
+        if (deltaLink != null) {
+            try {
+                applyChanges(readDelta(deltaLink), syncState);
+                return;
+            } catch (DeltaTokenExpiredException e) {
+                logger.warn("Delta token for internal user group has expired, running a full resync");
+            }
+        }
+        fullResync(syncState);
+    }
+
+    /**
+     * Applies the adds and removes since the last poll. Only the last change seen for each member
+     * counts, so a user added and removed again in between is left alone.
+     */
+    private void applyChanges(DeltaResult delta, Optional<EntraLastSyncMetadata> syncState) {
+        Map<UUID, Boolean> latest = new LinkedHashMap<>();
+        for (MemberChange change : delta.changes()) {
+            latest.put(change.id(), change.removed());
+        }
+        logger.info("Internal user group delta returned {} membership changes", latest.size());
+
+        if (!latest.isEmpty()) {
+            Set<UUID> existingUserOids = new HashSet<>(userService.getInternalUserEntraIds());
+            List<UUID> usersToDelete = new ArrayList<>();
+            List<UUID> usersToAdd = new ArrayList<>();
+            latest.forEach((oid, removed) -> {
+                if (removed && existingUserOids.contains(oid)) {
+                    usersToDelete.add(oid);
+                } else if (!removed && !existingUserOids.contains(oid)) {
+                    usersToAdd.add(oid);
+                }
+            });
+
+            deleteInternalUsers(usersToDelete);
+            createInternalUsers(fetchUsers(usersToAdd));
+        }
+        saveDeltaLink(syncState, delta.deltaLink());
+    }
+
+    /**
+     * Reads the whole group through a fresh delta query and diffs it against the database using
+     * hashed sets. User details for new members come from the paged members listing.
+     */
+    private void fullResync(Optional<EntraLastSyncMetadata> syncState) {
+        DeltaResult delta = readDelta(groupMemberDeltaClient.initialUrl(pollingGroupId));
+        Set<UUID> groupMemberOids = new HashSet<>();
+        for (MemberChange change : delta.changes()) {
+            if (change.removed()) {
+                groupMemberOids.remove(change.id());
+            } else {
+                groupMemberOids.add(change.id());
+            }
+        }
+        Set<UUID> existingUserOids = new HashSet<>(userService.getInternalUserEntraIds());
+        logger.info("Full resync of internal user group: {} members in Entra, {} internal users in Silas",
+                groupMemberOids.size(), existingUserOids.size());
+
+        List<UUID> usersToDelete = existingUserOids.stream()
+                .filter(existingUserOid -> !groupMemberOids.contains(existingUserOid))
+                .toList();
+        deleteInternalUsers(usersToDelete);
+
+        Set<UUID> usersToAdd = new HashSet<>(groupMemberOids);
+        usersToAdd.removeAll(existingUserOids);
+        if (!usersToAdd.isEmpty()) {
+            List<DirectoryObject> newUsers = listGroupMembers().stream()
+                    .filter(u -> usersToAdd.contains(UUID.fromString(u.getId())))
+                    .toList();
+            createInternalUsers(newUsers);
+        } else {
+            logger.info("No new users found to add.");
+        }
+        saveDeltaLink(syncState, delta.deltaLink());
+    }
+
+    private DeltaResult readDelta(String url) {
+        List<MemberChange> changes = new ArrayList<>();
+        String link = url;
+        for (int page = 1; page <= MAX_DELTA_PAGES; page++) {
+            DeltaPage deltaPage = groupMemberDeltaClient.fetch(link);
+            changes.addAll(deltaPage.changes());
+            if (deltaPage.deltaLink() != null) {
+                logger.debug("Read {} pages of internal user group delta", page);
+                return new DeltaResult(changes, deltaPage.deltaLink());
+            }
+            if (deltaPage.nextLink() == null) {
+                throw new IllegalStateException("Graph group delta page had neither a next link nor a delta link");
+            }
+            link = deltaPage.nextLink();
+        }
+        throw new IllegalStateException("Graph group delta did not finish within " + MAX_DELTA_PAGES + " pages");
+    }
+
+    private List<DirectoryObject> listGroupMembers() {
         DirectoryObjectCollectionResponse response = graphClient.groups()
                 .byGroupId(pollingGroupId)
                 .members().get();
 
         if (response == null || response.getValue() == null) {
             logger.warn("No response for users in internal group");
-            return;
+            return List.of();
         }
 
         List<DirectoryObject> allUsers = new ArrayList<>(response.getValue());
@@ -62,17 +184,29 @@ public class InternalUserPollingService {
                 break;
             }
         }
-
-        deleteInternalUsers(allUsers, existingUserOids);
-
-        createInternalUsers(allUsers, existingUserOids);
+        return allUsers;
     }
 
-    private void createInternalUsers(List<DirectoryObject> allUsers, List<UUID> existingUserOids) {
-        List<DirectoryObject> newUsers = allUsers.stream()
-                .filter(u -> !existingUserOids.contains(UUID.fromString(u.getId())))
-                .toList();
+    private List<DirectoryObject> fetchUsers(List<UUID> oids) {
+        List<DirectoryObject> users = new ArrayList<>();
+        for (UUID oid : oids) {
+            try {
+                User user = graphClient.users().byUserId(oid.toString()).get(requestConfiguration ->
+                        requestConfiguration.queryParameters.select = new String[]{"id", "mail", "givenName", "surname"});
+                if (user != null) {
+                    users.add(user);
+                }
+            } catch (ApiException e) {
+                if (e.getResponseStatusCode() != 404) {
+                    throw e;
+                }
+                logger.info("User {} added to internal group no longer exists in Entra", oid);
+            }
+        }
+        return users;
+    }
 
+    private void createInternalUsers(List<DirectoryObject> newUsers) {
         if (!newUsers.isEmpty()) {
             List<EntraUserDto> entraUserDtoList = extractEntraUserDtos(newUsers);
             if (!entraUserDtoList.isEmpty()) {
@@ -85,15 +219,7 @@ public class InternalUserPollingService {
         }
     }
 
-    private void deleteInternalUsers(List<DirectoryObject> allUsers, List<UUID> existingUserOids) {
-        List<UUID> graphApiUserOids = allUsers.stream()
-                .map(u -> UUID.fromString(u.getId()))
-                .toList();
-
-        List<UUID> usersToDelete = existingUserOids.stream()
-                .filter(existingUserOid -> !graphApiUserOids.contains(existingUserOid))
-                .toList();
-
+    private void deleteInternalUsers(List<UUID> usersToDelete) {
         if (!usersToDelete.isEmpty()) {
             logger.info("Deleting {} internal users in Silas that no longer exist in internal SG", usersToDelete.size());
             int deletedUserCount = userService.deleteInternalUsersByEntraIds(usersToDelete);
@@ -103,6 +229,15 @@ public class InternalUserPollingService {
         }
     }
 
+    private void saveDeltaLink(Optional<EntraLastSyncMetadata> syncState, String deltaLink) {
+        EntraLastSyncMetadata metadata = syncState.orElseGet(() -> EntraLastSyncMetadata.builder()
+                .id(DELTA_SYNC_ID)
+                .build());
+        metadata.setDeltaLink(deltaLink);
+        metadata.setUpdatedAt(LocalDateTime.now());
+        entraLastSyncMetadataRepository.save(metadata);
+    }
+
     private List<EntraUserDto> extractEntraUserDtos(List<DirectoryObject> directoryObjects) {
         List<EntraUserDto> userDtos = new ArrayList<>();
         for (DirectoryObject obj : directoryObjects) {
@@ -118,5 +253,7 @@ public class InternalUserPollingService {
         }
         return userDtos;
     }
-}
 
+    private record DeltaResult(List<MemberChange> changes, String deltaLink) {
+    }
+}
@@ -0,0 +1,145 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.entity.LeasedJob;
+import uk.gov.justice.laa.portal.landingpage.repository.LeasedJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The lease shared by the background jobs that a
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.LeasedJobWorker} works through a chunk
+ * at a time.
+ *
+ * <p>{@link #leaseDue} hands due jobs to this instance for a while. Every chunk checks that this
+ * instance still holds the lease, with the job row locked, and moves the lease on; a job whose
+ * lease runs out, because its instance died for example, becomes due again and another instance
+ * carries on from where it stopped. {@link #recordFailure} retries a failed job after a back off
+ * that grows with each attempt and parks it as failed once the attempts are used up, unless
+ * another instance has leased it in the meantime.</p>
+ */
+@Slf4j
+public abstract class LeasedJobService<J extends LeasedJob> {
+
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private final String jobName;
+    private final String metricPrefix;
+    private final LeasedJobRepository<J> jobRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * @param jobName      how the job type is named in log messages, e.g. {@code "Bulk assignment job"}
+     * @param metricPrefix the prefix of the job type's {@code .jobs.failed} counter
+     */
+    protected LeasedJobService(String jobName, String metricPrefix, LeasedJobRepository<J> jobRepository,
+                               MeterRegistry meterRegistry, Duration lease, int maxAttempts, Duration backoff) {
+        this.jobName = jobName;
+        this.metricPrefix = metricPrefix;
+        this.jobRepository = jobRepository;
+        this.meterRegistry = meterRegistry;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Leases the next batch of due jobs to this instance. The lease is committed straight away
+     * so that the row locks are released before any chunk is processed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<J> leaseDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<J> jobs = jobRepository.findDueForUpdateSkipLocked(now, batchSize);
+        for (J job : jobs) {
+            job.markRunning();
+            job.setLockedBy(instanceId);
+            job.setLockedUntil(now.plus(lease));
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobRepository.saveAll(jobs);
+    }
+
+    /**
+     * Records a failed run, releasing the lease so the job is retried after a back off, or
+     * parking it as failed once the attempts are used up. Nothing is recorded if another
+     * instance has leased the job since this one lost it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(UUID jobId, Exception cause) {
+        Optional<J> optionalJob = jobRepository.findByIdForUpdate(jobId);
+        if (optionalJob.isEmpty()) {
+            return;
+        }
+        J job = optionalJob.get();
+        if (!instanceId.equals(job.getLockedBy())) {
+            log.warn("Not recording failure of {} {} now held by {}", jobName.toLowerCase(), jobId, job.getLockedBy(),
+                    cause);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(truncate(String.valueOf(cause.getMessage())));
+        if (job.getAttempts() >= maxAttempts) {
+            job.markFailed();
+            job.setCompletedAt(now);
+            onFailed(job, now);
+            log.error("{} {} failed after {} attempts", jobName, jobId, job.getAttempts(), cause);
+            meterRegistry.counter(metricPrefix + ".jobs.failed").increment();
+        } else {
+            job.markRetrying();
+            job.setNextAttemptAt(now.plus(backoff.multipliedBy(job.getAttempts())));
+            log.warn("{} {} failed on attempt {}, retrying at {}", jobName, jobId, job.getAttempts(),
+                    job.getNextAttemptAt(), cause);
+        }
+        jobRepository.save(job);
+    }
+
+    /**
+     * Called in the transaction that parks the job as failed, for job types that need to close
+     * off work the job will now never do.
+     */
+    protected void onFailed(J job, LocalDateTime now) {
+    }
+
+    /**
+     * Loads and locks the job for the calling transaction.
+     *
+     * @throws IllegalStateException if this instance no longer holds the job's lease
+     */
+    protected J requireLease(UUID jobId) {
+        J job = jobRepository.findByIdForUpdate(jobId).orElseThrow();
+        if (!instanceId.equals(job.getLockedBy())) {
+            throw new IllegalStateException("Lease on " + jobName.toLowerCase() + " " + jobId + " has been lost");
+        }
+        return job;
+    }
+
+    protected void extendLease(J job) {
+        job.setLockedUntil(LocalDateTime.now().plus(lease));
+    }
+
+    protected void markCompleted(J job) {
+        job.markCompleted();
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(null);
+    }
+
+    protected static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -27,8 +27,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 
+import com.azure.core.credential.TokenCredential;
 import com.azure.core.credential.TokenRequestContext;
-import com.azure.identity.ClientSecretCredential;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import uk.gov.justice.laa.portal.landingpage.config.CachingConfig;
@@ -61,12 +61,13 @@ public class LiveTechServicesClient implements TechServicesClient {
     private static final String TECH_SERVICES_GET_USERS_ENDPOINT = "%s/%s/users";
     private static final String TECH_SERVICES_GET_APPLICATIONS_ENDPOINT = "%s/applications";
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
-    private final ClientSecretCredential clientSecretCredential;
+    private final TokenCredential clientSecretCredential;
     private final RestClient restClient;
     private final CacheManager cacheManager;
     private final JwtDecoder jwtDecoder;
     private final EntraUserRepository entraUserRepository;
     private final ObjectMapper objectMapper;
+    private final TechServicesUserCache techServicesUserCache;
     @Value("${app.tech.services.laa.verification.method}")
     public String techServicesVerificationMethod;
     @Value("${app.tech.services.laa.business.unit}")
@@ -76,24 +77,27 @@ public class LiveTechServicesClient implements TechServicesClient {
     @Value("${app.laa.default.user.access.security.group}")
     private String defaultSecurityGroup;
 
-    public LiveTechServicesClient(ClientSecretCredential clientSecretCredential, RestClient restClient,
+    public LiveTechServicesClient(TokenCredential clientSecretCredential, RestClient restClient,
                                   EntraUserRepository entraUserRepository, CacheManager cacheManager,
-                                  @Qualifier("tokenExpiryJwtDecoder") JwtDecoder jwtDecoder, ObjectMapper objectMapper) {
+                                  @Qualifier("tokenExpiryJwtDecoder") JwtDecoder jwtDecoder, ObjectMapper objectMapper,
+                                  TechServicesUserCache techServicesUserCache) {
         this.clientSecretCredential = clientSecretCredential;
         this.restClient = restClient;
         this.entraUserRepository = entraUserRepository;
         this.cacheManager = cacheManager;
         this.jwtDecoder = jwtDecoder;
         this.objectMapper = objectMapper;
+        this.techServicesUserCache = techServicesUserCache;
     }
 
     @Override
     public void updateRoleAssignment(UUID userId) {
-
+        String entraOid = null;
         try {
             String accessToken = getAccessToken();
 
             EntraUser entraUser = entraUserRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+            entraOid = entraUser.getEntraOid();
 
             UpdateSecurityGroupsRequest.UpdateSecurityGroupsRequestBuilder builder = UpdateSecurityGroupsRequest.builder();
 
@@ -139,6 +143,9 @@ public class LiveTechServicesClient implements TechServicesClient {
         } catch (Exception ex) {
             logger.error("Error while sending security group changes to Tech Services.", ex);
             throw new TechServicesClientException("Error while sending security group changes to Tech Services.", ex);
+        } finally {
+            // A failed update may still have reached Tech Services, so the cached user is dropped either way
+            techServicesUserCache.invalidate(entraOid);
         }
 
     }
@@ -193,6 +200,10 @@ public class LiveTechServicesClient implements TechServicesClient {
         } catch (Exception ex) {
             logger.error("Error while sending security group removal to Tech Services.", ex);
             throw new RuntimeException("Error while sending security group removal to Tech Services.", ex);
+        } finally {
+            if (entraUser != null) {
+                techServicesUserCache.invalidate(entraUser.getEntraOid());
+            }
         }
 
     }
@@ -396,6 +407,10 @@ public class LiveTechServicesClient implements TechServicesClient {
         } catch (Exception ex) {
             logger.error("Error while disable user request to Tech Services.", ex);
             throw new RuntimeException("Error while disable user request to Tech Services.", ex);
+        } finally {
+            if (user != null) {
+                techServicesUserCache.invalidate(user.getEntraOid());
+            }
         }
     }
 
@@ -456,6 +471,10 @@ public class LiveTechServicesClient implements TechServicesClient {
         } catch (Exception ex) {
             logger.error("Error while enable user request to Tech Services.", ex);
             throw new RuntimeException("Error while enable user request to Tech Services.", ex);
+        } finally {
+            if (user != null) {
+                techServicesUserCache.invalidate(user.getEntraOid());
+            }
         }
     }
 
@@ -727,6 +746,8 @@ public class LiveTechServicesClient implements TechServicesClient {
             logger.error("Unexpected error while Update users details from Tech Services. Response body: {}",
                     responseBody, ex);
             throw new RuntimeException("Unexpected error while updating users details from Tech Services.", ex);
+        } finally {
+            techServicesUserCache.invalidate(entraOid);
         }
     }
 
@@ -5,91 +5,59 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import tools.jackson.dataformat.csv.CsvMapper;
 import tools.jackson.dataformat.csv.CsvSchema;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.Writer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MultifirmUserReportService {
 
+    private static final CsvSchema SCHEMA = CsvSchema.builder()
+            .addColumn("Firm Name")
+            .addColumn("Firm Code")
+            .addColumn("Count")
+            .setUseHeader(true)
+            .build();
+
     private final FirmRepository firmRepository;
     private final EntraUserRepository entraUserRepository;
-    private final ReportUploadService reportUploadService;
+    private final ReportStreamingService reportStreamingService;
     private final String folderPath = "multifirm_user_reports";
     private final DateTimeFormatter fileTimestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmm");
 
     public void getMultifirmUsers() {
-
-        List<Object[]> reportRows = new ArrayList<>();
-
-        reportRows.addAll(firmRepository.findMultiFirmUserCountsByFirm());
-        reportRows.addAll(entraUserRepository.findUnlinkedMultifirmUsersCount());
-        reportRows.addAll(entraUserRepository.findTotalMultiFirmUsersCount());
-        File multifirmUserCsv = writeToCsv(reportRows);
-
-        try {
-            reportUploadService.uploadCsvToSharePoint(multifirmUserCsv, folderPath);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        getMultifirmUsers(() -> { });
     }
 
-    private File writeToCsv(List<Object[]> rows) {
-
+    /**
+     * As {@link #getMultifirmUsers()}, running {@code beforeUpload} once the report is
+     * written and just before it is uploaded. It can throw to stop the upload.
+     */
+    public void getMultifirmUsers(Runnable beforeUpload) {
         String timestamp = LocalDateTime.now().format(fileTimestamp);
-        String fileName = "SiLAS-multifirm-user-report-" + timestamp + ".csv";
-
-        try {
-            CsvMapper csvMapper = CsvMapper.builder().build();
-
+        String baseName = "SiLAS-multifirm-user-report-" + timestamp;
 
-            Path tempFile = Paths.get(
-                    System.getProperty("java.io.tmpdir"),
-                    fileName
-            );
-            Files.createFile(tempFile);
-
-
-            CsvSchema schema = CsvSchema.builder()
-                    .addColumn("Firm Name")
-                    .addColumn("Firm Code")
-                    .addColumn("Count")
-                    .setUseHeader(true)
-                    .build();
-
-            List<ReportRow> reportRows = new ArrayList<>(rows.size());
-            for (Object[] row : rows) {
-                String firmName = String.valueOf(row[0]);
-                String firmCode = row[1] == null ? "" : String.valueOf(row[1]);
-                long count = ((Number) row[2]).longValue();
-                reportRows.add(new ReportRow(firmName, firmCode, count));
+        reportStreamingService.upload("multifirm-user", baseName, folderPath, SCHEMA, writer -> {
+            try (Stream<Object[]> rows = firmRepository.findMultiFirmUserCountsByFirm()) {
+                rows.forEach(row -> write(row, writer));
             }
+            entraUserRepository.findUnlinkedMultifirmUsersCount().forEach(row -> write(row, writer));
+            entraUserRepository.findTotalMultiFirmUsersCount().forEach(row -> write(row, writer));
+        }, beforeUpload);
+    }
 
-            try (Writer writer = Files.newBufferedWriter(tempFile)) {
-                csvMapper.writer(schema).writeValues(writer).writeAll(reportRows);
-                writer.write(System.lineSeparator());
-            }
-
-            return tempFile.toFile();
-
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to write multifirm users to CSV", e);
-        }
+    private static void write(Object[] row, Consumer<Object> writer) {
+        String firmName = String.valueOf(row[0]);
+        String firmCode = row[1] == null ? "" : String.valueOf(row[1]);
+        long count = ((Number) row[2]).longValue();
+        writer.accept(new ReportRow(firmName, firmCode, count));
     }
 
     private record ReportRow(
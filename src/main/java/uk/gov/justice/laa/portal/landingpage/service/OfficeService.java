@@ -19,6 +19,7 @@ import uk.gov.justice.laa.portal.landingpage.repository.OfficeRepository;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -81,19 +82,7 @@ public class OfficeService {
         // Map to DTOs
 
         List<OfficeDto> officeDtos =
-                officesPage.getContent().stream()
-                        .map(office -> OfficeDto.builder()
-                                .code(office.getCode())
-                                .id(office.getId())
-                                .address(office.getAddress() == null ? null :
-                                        OfficeDto.AddressDto.builder()
-                                                .addressLine1(office.getAddress().getAddressLine1())
-                                                .addressLine2(office.getAddress().getAddressLine2())
-                                                .addressLine3(office.getAddress().getAddressLine3())
-                                                .city(office.getAddress().getCity())
-                                                .postcode(office.getAddress().getPostcode())
-                                                .build())
-                                .build()).toList();
+                officesPage.getContent().stream().map(OfficeService::toOfficeDto).toList();
 
         return PaginatedOffices.builder()
                 .offices(officeDtos)
@@ -101,4 +90,56 @@ public class OfficeService {
                 .totalElements(officesPage.getTotalElements())
                 .currentPage(page).pageSize(pageSize).build();
     }
+
+    /**
+     * One page of the offices of the given firms for an office picker, optionally narrowed to
+     * offices whose code, postcode or city starts with {@code search}.
+     *
+     * @param page one-based page number
+     */
+    public PaginatedOffices searchFirmOffices(List<UUID> firmIds, String search, int page, int pageSize) {
+        if (firmIds == null || firmIds.isEmpty()) {
+            return PaginatedOffices.builder()
+                    .offices(List.of())
+                    .currentPage(1).pageSize(pageSize).build();
+        }
+        int currentPage = Math.max(page, 1);
+        Page<Office> officesPage = officeRepository.searchFirmOffices(firmIds, toPrefixSearch(search),
+                PageRequest.of(currentPage - 1, pageSize));
+
+        return PaginatedOffices.builder()
+                .offices(officesPage.getContent().stream().map(OfficeService::toOfficeDto).toList())
+                .totalPages(officesPage.getTotalPages())
+                .totalElements(officesPage.getTotalElements())
+                .currentPage(currentPage).pageSize(pageSize).build();
+    }
+
+    /**
+     * Lower cases a search term and escapes the LIKE wildcards in it, for the prefix searches
+     * that append {@code '%'} in SQL. A blank search becomes the empty string.
+     */
+    static String toPrefixSearch(String search) {
+        if (search == null || search.isBlank()) {
+            return "";
+        }
+        return search.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private static OfficeDto toOfficeDto(Office office) {
+        return OfficeDto.builder()
+                .code(office.getCode())
+                .id(office.getId())
+                .address(office.getAddress() == null ? null :
+                        OfficeDto.AddressDto.builder()
+                                .addressLine1(office.getAddress().getAddressLine1())
+                                .addressLine2(office.getAddress().getAddressLine2())
+                                .addressLine3(office.getAddress().getAddressLine3())
+                                .city(office.getAddress().getCity())
+                                .postcode(office.getAddress().getPostcode())
+                                .build())
+                .build();
+    }
 }
@@ -0,0 +1,287 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventType;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.model.CcmsRoleChangeMessage;
+import uk.gov.justice.laa.portal.landingpage.repository.OutboxEventRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transactional outbox for side effects of user edits.
+ *
+ * <p>Callers record side effects with the {@code enqueue*} methods inside the same transaction
+ * as the entity change, so the side effect is durable if and only if the change commits. The
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.OutboxRelay} then leases due events
+ * with {@code FOR UPDATE SKIP LOCKED} and publishes them, retrying with exponential backoff
+ * until {@code maxAttempts} is reached, at which point the event is parked as {@code FAILED}.</p>
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TechServicesClient techServicesClient;
+    private final RoleChangeNotificationService roleChangeNotificationService;
+    private final UserProfileRepository userProfileRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.outbox.relay.lease.seconds:60}")
+    private long leaseSeconds = 60;
+
+    @Value("${app.outbox.relay.max.attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${app.outbox.relay.backoff.initial.seconds:5}")
+    private long initialBackoffSeconds = 5;
+
+    @Value("${app.outbox.relay.backoff.max.seconds:900}")
+    private long maxBackoffSeconds = 900;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, TechServicesClient techServicesClient,
+                         RoleChangeNotificationService roleChangeNotificationService,
+                         UserProfileRepository userProfileRepository, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.techServicesClient = techServicesClient;
+        this.roleChangeNotificationService = roleChangeNotificationService;
+        this.userProfileRepository = userProfileRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records that the security groups of an entra user need pushing to tech services. An event is
+     * always written, even when one is already pending for the user: the relay may lease and
+     * publish that one before this transaction commits, reading the roles as they were before it.
+     * Events for the same user are coalesced when they are leased instead.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueRoleAssignmentUpdate(UUID entraUserId) {
+        save(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT, entraUserId, null);
+    }
+
+    /**
+     * Records the CCMS role change messages for every legacy-synced app whose PUI roles changed.
+     * The messages are rendered now, from the state being committed, so a later publish does not
+     * depend on the profile still looking the same.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCcmsRoleChanges(UserProfile userProfile, Map<String, Set<String>> newPuiRoles,
+                                       Map<String, Set<String>> oldPuiRoles) {
+        Set<String> allPuiAppOids = new HashSet<>(oldPuiRoles.keySet());
+        allPuiAppOids.addAll(newPuiRoles.keySet());
+
+        for (String appEntraOid : allPuiAppOids) {
+            try {
+                Optional<CcmsRoleChangeMessage> message = roleChangeNotificationService.buildRoleChangeMessage(userProfile,
+                        appEntraOid, newPuiRoles.getOrDefault(appEntraOid, Collections.emptySet()),
+                        oldPuiRoles.getOrDefault(appEntraOid, Collections.emptySet()));
+                if (message.isPresent()) {
+                    save(OutboxEventType.CCMS_ROLE_CHANGE, userProfile.getId(), objectMapper.writeValueAsString(message.get()));
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialise CCMS role change for user profile " + userProfile.getId(), e);
+            }
+        }
+    }
+
+    private void save(OutboxEventType eventType, UUID aggregateId, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .payload(payload)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        outboxEventRepository.save(event);
+        log.debug("Outbox event {} recorded for aggregate: {}", eventType, aggregateId);
+    }
+
+    /**
+     * Leases the next batch of due events to this instance. The lease is committed straight away
+     * so that the row locks are released before any remote call is made.
+     *
+     * <p>The tech services call sends the user's roles as they are when it is made, so of several
+     * role assignment events for the same user in the batch only the newest is leased; the older
+     * ones are marked as sent along with it.</p>
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<OutboxEvent> leaseDueEvents(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDueEventsForUpdateSkipLocked(now, batchSize);
+        Map<UUID, OutboxEvent> newestRoleAssignments = new HashMap<>();
+        for (OutboxEvent event : events) {
+            if (event.getEventType() == OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT) {
+                newestRoleAssignments.merge(event.getAggregateId(), event, OutboxService::newer);
+            }
+        }
+        List<OutboxEvent> leased = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            if (event.getEventType() == OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT
+                    && newestRoleAssignments.get(event.getAggregateId()) != event) {
+                event.setStatus(OutboxEventStatus.SENT);
+                event.setProcessedAt(now);
+                event.setLockedBy(null);
+                event.setLockedUntil(null);
+                meterRegistry.counter("outbox.events.coalesced", "type", event.getEventType().name()).increment();
+                continue;
+            }
+            event.setStatus(OutboxEventStatus.PROCESSING);
+            event.setLockedBy(instanceId);
+            event.setLockedUntil(now.plusSeconds(leaseSeconds));
+            event.setAttempts(event.getAttempts() + 1);
+            leased.add(event);
+        }
+        outboxEventRepository.saveAll(events);
+        return leased;
+    }
+
+    private static OutboxEvent newer(OutboxEvent first, OutboxEvent second) {
+        return second.getCreatedAt().isBefore(first.getCreatedAt()) ? first : second;
+    }
+
+    /**
+     * Publishes a leased event and marks it as sent. Runs in its own transaction because the
+     * tech services client resolves the user's current roles lazily from the database.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void publish(OutboxEvent leased) throws JsonProcessingException {
+        switch (leased.getEventType()) {
+            case TECH_SERVICES_ROLE_ASSIGNMENT -> {
+                techServicesClient.updateRoleAssignment(leased.getAggregateId());
+                markSent(leased);
+            }
+            case CCMS_ROLE_CHANGE -> completeCcmsRoleChange(leased, submitCcmsRoleChange(leased).join());
+            default -> throw new IllegalStateException("Unsupported outbox event type: " + leased.getEventType());
+        }
+    }
+
+    /**
+     * Hands a leased CCMS role change to the SQS batch publisher without waiting for it, so the
+     * relay can submit a whole lease before collecting the results with
+     * {@link #completeCcmsRoleChange(OutboxEvent, Optional)}.
+     */
+    public CompletableFuture<Optional<String>> submitCcmsRoleChange(OutboxEvent leased) throws JsonProcessingException {
+        CcmsRoleChangeMessage message = objectMapper.readValue(leased.getPayload(), CcmsRoleChangeMessage.class);
+        // The idempotency key doubles as the SQS FIFO deduplication id. SQS only remembers it for five
+        // minutes, which covers a resend once the lease of a relay that crashed between the send and
+        // the status update runs out, but not a retry after a longer back off, so CCMS may still see
+        // the odd duplicate. The roles are the same in both, as later changes wait for this one.
+        return roleChangeNotificationService.submitRoleChangeMessage(message, leased.getIdempotencyKey());
+    }
+
+    /**
+     * Marks a CCMS role change as sent once SQS has accepted it.
+     *
+     * @param messageId the SQS message id, or empty when no queue is configured for the app
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void completeCcmsRoleChange(OutboxEvent leased, Optional<String> messageId) {
+        if (messageId.isEmpty()) {
+            log.info("No CCMS queue configured, skipping outbox event: {}", leased.getId());
+        } else {
+            log.info("CCMS role change message sent to queue for user profile: {}, messageId: {}",
+                    leased.getAggregateId(), messageId.get());
+            userProfileRepository.findById(leased.getAggregateId()).ifPresent(profile -> {
+                profile.setLastCcmsSyncSuccessful(true);
+                userProfileRepository.save(profile);
+            });
+        }
+        markSent(leased);
+    }
+
+    private void markSent(OutboxEvent leased) {
+        OutboxEvent event = outboxEventRepository.findById(leased.getId()).orElseThrow();
+        event.setStatus(OutboxEventStatus.SENT);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLockedBy(null);
+        event.setLockedUntil(null);
+        event.setLastError(null);
+        outboxEventRepository.save(event);
+        meterRegistry.counter("outbox.events.sent", "type", leased.getEventType().name()).increment();
+    }
+
+    /**
+     * Records a failed publish attempt, scheduling the next attempt with exponential backoff or
+     * parking the event as {@code FAILED} once the attempts are used up.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(UUID eventId, Exception cause) {
+        Optional<OutboxEvent> optionalEvent = outboxEventRepository.findById(eventId);
+        if (optionalEvent.isEmpty()) {
+            return;
+        }
+        OutboxEvent event = optionalEvent.get();
+        event.setLockedBy(null);
+        event.setLockedUntil(null);
+        event.setLastError(truncate(String.valueOf(cause.getMessage())));
+
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxEventStatus.FAILED);
+            event.setProcessedAt(LocalDateTime.now());
+            log.error("Outbox event {} of type {} for aggregate {} failed after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateId(), event.getAttempts(), cause);
+            if (event.getEventType() == OutboxEventType.CCMS_ROLE_CHANGE) {
+                // Leave the profile to be picked up by the manual CCMS role sync
+                userProfileRepository.findById(event.getAggregateId()).ifPresent(profile -> {
+                    profile.setLastCcmsSyncSuccessful(false);
+                    userProfileRepository.save(profile);
+                });
+            }
+            meterRegistry.counter("outbox.events.failed", "type", event.getEventType().name()).increment();
+        } else {
+            event.setStatus(OutboxEventStatus.PENDING);
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+            log.warn("Outbox event {} of type {} for aggregate {} failed on attempt {}, retrying at {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), event.getAttempts(),
+                    event.getNextAttemptAt(), cause);
+            meterRegistry.counter("outbox.events.retried", "type", event.getEventType().name()).increment();
+        }
+        outboxEventRepository.save(event);
+    }
+
+    @Transactional
+    public int purgeSentEvents(Duration retention) {
+        return outboxEventRepository.deleteByStatusAndProcessedAtBefore(OutboxEventStatus.SENT,
+                LocalDateTime.now().minus(retention));
+    }
+
+    Duration backoff(int attempts) {
+        long exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        long seconds = Math.min(initialBackoffSeconds << exponent, maxBackoffSeconds);
+        return Duration.ofSeconds(seconds);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,167 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes reports as CSV one row at a time, straight from a database cursor.
+ *
+ * <p>Rows are pulled from the {@link ReportRows} source only as fast as the CSV writer can take
+ * them, and are zipped on the way out unless {@code report.compression.enabled} is false, so memory
+ * use does not depend on how many rows a report has. Reports for SharePoint are staged in a
+ * temporary file, which is deleted once uploaded; Graph needs to know the size of an upload
+ * before it starts. Each run records its duration, row count and rows per second, tagged with
+ * the report name.</p>
+ */
+@Slf4j
+@Service
+public class ReportStreamingService {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder().build();
+
+    private final ReportUploadService reportUploadService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${report.compression.enabled:true}")
+    private boolean compressionEnabled = true;
+
+    public ReportStreamingService(ReportUploadService reportUploadService,
+                                  MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        this.reportUploadService = reportUploadService;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams the report into a file named after {@code baseName} and uploads it to the given
+     * SharePoint folder.
+     *
+     * @return the number of rows written
+     */
+    public long upload(String reportName, String baseName, String folderPath, CsvSchema schema, ReportRows rows) {
+        return upload(reportName, baseName, folderPath, schema, rows, () -> { });
+    }
+
+    /**
+     * As {@link #upload(String, String, String, CsvSchema, ReportRows)}, running {@code beforeUpload}
+     * once the file is written and just before it is uploaded. A report run under a distributed
+     * lock uses it to check the lock is still held; if it throws, nothing is uploaded.
+     *
+     * @return the number of rows written
+     */
+    public long upload(String reportName, String baseName, String folderPath, CsvSchema schema, ReportRows rows,
+                       Runnable beforeUpload) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("report-");
+            Path file = directory.resolve(baseName + (compressionEnabled ? ".zip" : ".csv"));
+            long written;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                written = write(reportName, baseName + ".csv", schema, rows, out);
+            }
+            log.info("{} report written: {} rows, {} bytes", reportName, written, Files.size(file));
+            beforeUpload.run();
+            reportUploadService.uploadCsvToSharePoint(file.toFile(), folderPath);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate " + reportName + " report", e);
+        } finally {
+            deleteQuietly(directory);
+        }
+    }
+
+    /**
+     * Streams the report to {@code out}, for example an HTTP response, zipped as a single entry
+     * named {@code csvName} when compression is enabled. The stream is flushed but not closed.
+     *
+     * @return the number of rows written
+     */
+    public long write(String reportName, String csvName, CsvSchema schema, ReportRows rows, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+
+        OutputStream target = StreamUtils.nonClosing(out);
+        if (compressionEnabled) {
+            ZipOutputStream zip = new ZipOutputStream(target, StandardCharsets.UTF_8);
+            zip.putNextEntry(new ZipEntry(csvName));
+            target = zip;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+             SequenceWriter sequenceWriter = CSV_MAPPER.writer(schema).writeValues(writer)) {
+            readOnlyTransaction.executeWithoutResult(status -> rows.forEach(row -> {
+                sequenceWriter.write(row);
+                written.incrementAndGet();
+            }));
+        }
+        out.flush();
+
+        record(reportName, written.get(), System.nanoTime() - start);
+        return written.get();
+    }
+
+    private void record(String reportName, long rows, long elapsedNanos) {
+        Timer.builder("report.generation")
+                .description("Time taken to stream a report")
+                .tag("report", reportName)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("report.rows", "report", reportName).increment(rows);
+        DistributionSummary.builder("report.rows.per.second")
+                .description("Rows written per second while streaming a report")
+                .baseUnit("rows")
+                .tag("report", reportName)
+                .register(meterRegistry)
+                .record(rows * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1));
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary report directory {}", directory, e);
+        }
+    }
+
+    /**
+     * The rows of a report, passed one at a time to the writer. Runs in a read-only transaction,
+     * so repository methods returning a {@code Stream} can be used to read from a cursor.
+     */
+    @FunctionalInterface
+    public interface ReportRows {
+        void forEach(Consumer<Object> writer);
+    }
+}
@@ -1,30 +1,58 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import com.microsoft.graph.drives.item.items.item.createuploadsession.CreateUploadSessionPostRequestBody;
 import com.microsoft.graph.models.Drive;
 import com.microsoft.graph.models.DriveItem;
+import com.microsoft.graph.models.DriveItemUploadableProperties;
 import com.microsoft.graph.models.Site;
+import com.microsoft.graph.models.UploadSession;
+import com.microsoft.graph.serviceclient.GraphServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.portal.landingpage.config.GraphClientConfig;
+import uk.gov.justice.laa.portal.landingpage.service.GraphUploadSessionClient.UploadSessionExpiredException;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uploads generated reports to SharePoint.
+ *
+ * <p>The SharePoint drive id is looked up once and reused for later uploads. Reports up to
+ * {@code report.sharepoint.upload.simple.max.bytes} are sent in a single request; larger ones go
+ * through a Graph upload session in chunks, which is restarted once if the session expires
+ * part-way through.</p>
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ReportUploadService {
 
+    private static final int MAX_UPLOAD_SESSIONS = 2;
+
     @Value("${report.sharepoint.site.id}")
     private String sharepointUrl;
 
     @Value("${report.sharepoint.base.folder}")
     private String baseFolder;
 
+    @Value("${report.sharepoint.upload.simple.max.bytes:4194304}")
+    private long simpleUploadMaxBytes = 4 * 1024 * 1024;
+
     private final GraphClientConfig graphClientConfig;
+    private final GraphUploadSessionClient graphUploadSessionClient;
+
+    private volatile String driveId;
+
+    // A lock rather than a monitor, as the lookup blocks on Graph and may run on a virtual thread
+    private final ReentrantLock driveIdLock = new ReentrantLock();
 
     public void uploadCsvToSharePoint(File file, String folderPath) throws FileNotFoundException {
 
@@ -34,31 +62,21 @@ public class ReportUploadService {
             return;
         }
 
-        FileInputStream fileInputStream = new FileInputStream(file);
-
-        Site site = graphClientConfig.graphUploadClient()
-            .sites()
-            .bySiteId(sharepointUrl)
-            .get();
-
-        final String siteId = site.getId();
-
-        Drive drive = graphClientConfig.graphUploadClient()
-                .sites()
-                .bySiteId(siteId)
-                .drive()
-                .get();
-
-        String driveId = drive.getId();
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath() + " (No such file)");
+        }
 
+        GraphServiceClient graphClient = graphClientConfig.graphUploadClient();
+        String driveId = resolveDriveId(graphClient);
         String fullFolderPath = baseFolder + "/" + folderPath;
+        String itemPath = "root:/" + fullFolderPath + "/" + file.getName() + ":";
 
         try {
-            DriveItem existing = graphClientConfig.graphUploadClient()
+            DriveItem existing = graphClient
                 .drives()
                 .byDriveId(driveId)
                 .items()
-                .byDriveItemId("root:/" + fullFolderPath + "/" + file.getName() + ":")
+                .byDriveItemId(itemPath)
                 .get();
 
             if (existing != null) {
@@ -67,28 +85,106 @@ public class ReportUploadService {
             }
 
         } catch (Exception ex) {
-            if (ex.getMessage().contains("404")) {
+            if (ex.getMessage() != null && ex.getMessage().contains("404")) {
                 log.info("File '{}' does not exist in SharePoint. Proceeding with upload.", file.getName());
             }
         }
 
+        log.info("Uploading report to SharePoint: {} ({} bytes)", file.getName(), file.length());
 
-        log.info("Uploading report to SharePoint: {}", file.getName());
-
-        DriveItem uploadCsv =
-                graphClientConfig.graphUploadClient()
-                        .drives()
-                        .byDriveId(driveId)
-                        .items()
-                        .byDriveItemId("root:/" + fullFolderPath + "/" + file.getName() + ":")
-                        .content()
-                        .put(fileInputStream);
+        String uploadedId;
+        try {
+            uploadedId = file.length() <= simpleUploadMaxBytes
+                    ? uploadInOneRequest(graphClient, driveId, itemPath, file)
+                    : uploadInChunks(graphClient, driveId, itemPath, file);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to upload " + file.getName() + " to SharePoint", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted uploading " + file.getName() + " to SharePoint", e);
+        } catch (RuntimeException e) {
+            // The drive may have moved; look it up again next time
+            this.driveId = null;
+            throw e;
+        }
 
-        if (uploadCsv != null) {
+        if (uploadedId != null) {
             log.info("File uploaded successfully");
         } else {
             log.error("File upload failed");
         }
     }
-}
 
+    private String resolveDriveId(GraphServiceClient graphClient) {
+        String cached = driveId;
+        if (cached != null) {
+            return cached;
+        }
+        driveIdLock.lock();
+        try {
+            if (driveId == null) {
+                Site site = graphClient
+                    .sites()
+                    .bySiteId(sharepointUrl)
+                    .get();
+
+                Drive drive = graphClient
+                        .sites()
+                        .bySiteId(site.getId())
+                        .drive()
+                        .get();
+
+                driveId = drive.getId();
+                log.info("Resolved SharePoint drive {} for site {}", driveId, site.getId());
+            }
+            return driveId;
+        } finally {
+            driveIdLock.unlock();
+        }
+    }
+
+    private String uploadInOneRequest(GraphServiceClient graphClient, String driveId, String itemPath, File file)
+            throws IOException {
+        try (InputStream content = new FileInputStream(file)) {
+            DriveItem uploaded = graphClient
+                    .drives()
+                    .byDriveId(driveId)
+                    .items()
+                    .byDriveItemId(itemPath)
+                    .content()
+                    .put(content);
+            return uploaded != null ? String.valueOf(uploaded.getId()) : null;
+        }
+    }
+
+    private String uploadInChunks(GraphServiceClient graphClient, String driveId, String itemPath, File file)
+            throws IOException, InterruptedException {
+        for (int session = 1; ; session++) {
+            UploadSession uploadSession = createUploadSession(graphClient, driveId, itemPath);
+            try {
+                return graphUploadSessionClient.upload(uploadSession.getUploadUrl(), file.toPath());
+            } catch (UploadSessionExpiredException e) {
+                if (session >= MAX_UPLOAD_SESSIONS) {
+                    throw e;
+                }
+                log.warn("Upload session for '{}' expired, starting a new one", file.getName());
+            }
+        }
+    }
+
+    private UploadSession createUploadSession(GraphServiceClient graphClient, String driveId, String itemPath) {
+        DriveItemUploadableProperties item = new DriveItemUploadableProperties();
+        item.getAdditionalData().put("@microsoft.graph.conflictBehavior", "fail");
+        CreateUploadSessionPostRequestBody body = new CreateUploadSessionPostRequestBody();
+        body.setItem(item);
+        return graphClient
+                .drives()
+                .byDriveId(driveId)
+                .items()
+                .byDriveItemId(itemPath)
+                .createUploadSession()
+                .post(body);
+    }
+}
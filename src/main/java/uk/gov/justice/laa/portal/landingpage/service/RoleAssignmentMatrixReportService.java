@@ -1,32 +1,25 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 
-import tools.jackson.databind.SequenceWriter;
-import tools.jackson.dataformat.csv.CsvMapper;
 import tools.jackson.dataformat.csv.CsvSchema;
 import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.io.Writer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -35,96 +28,88 @@ public class RoleAssignmentMatrixReportService {
 
     private final FirmRepository firmRepository;
     private final AppRoleRepository appRoleRepository;
-    private final ReportUploadService reportUploadService;
+    private final ReportStreamingService reportStreamingService;
     private final String folderPath = "role_assignment_matrix_reports";
     private final DateTimeFormatter fileTimestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmm");
 
     public void getRoleAssignmentMatrixReport() {
+        getRoleAssignmentMatrixReport(() -> { });
+    }
+
+    /**
+     * As {@link #getRoleAssignmentMatrixReport()}, running {@code beforeUpload} once the report is
+     * written and just before it is uploaded. It can throw to stop the upload.
+     */
+    public void getRoleAssignmentMatrixReport(Runnable beforeUpload) {
 
         List<String> allRoles = appRoleRepository.getExternalRoleNames();
-        List<Tuple> rows = firmRepository.findRoleCountsByFirm();
-        Map<FirmDto, Map<String, Integer>> matrix = buildRoleMatrix(rows);
-        File matrixCsv = writeToCsv(allRoles, matrix);
-
-        try {
-            reportUploadService.uploadCsvToSharePoint(matrixCsv, folderPath);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        // Upload code goes here
+        String timestamp = LocalDateTime.now().format(fileTimestamp);
+        String baseName = "SiLAS-role-assignment-matrix-report-" + timestamp;
+
+        reportStreamingService.upload("role-assignment-matrix", baseName, folderPath, buildSchema(allRoles),
+                writer -> {
+                    try (Stream<Tuple> rows = firmRepository.findRoleCountsByFirm()) {
+                        writeMatrix(allRoles, rows.iterator(), writer);
+                    }
+                }, beforeUpload);
         log.info("Role assignment matrix report successfully written to file");
     }
 
-    private Map<FirmDto, Map<String, Integer>> buildRoleMatrix(List<Tuple> rows) {
-        Map<FirmDto, Map<String, Integer>> matrix = new LinkedHashMap<>();
+    private CsvSchema buildSchema(List<String> allRoles) {
+        CsvSchema.Builder schemaBuilder = CsvSchema.builder()
+                .addColumn("Firm Name")
+                .addColumn("Firm Code");
 
-        for (Tuple t : rows) {
-            FirmDto firm = FirmDto.builder()
-                    .id(t.get("firmId", UUID.class))
-                    .name(t.get("firmName", String.class))
-                    .code(t.get("firmCode", String.class))
-                    .build();
-
-            matrix.putIfAbsent(firm, new HashMap<>());
-            Map<String, Integer> roleMap = matrix.get(firm);
-            String roleName = t.get("roleName", String.class);
-            Number userCountNumber = t.get("userCount", Number.class);
-            int userCount = (userCountNumber == null) ? 0 : userCountNumber.intValue();
-
-            roleMap.put(roleName, userCount);
+        for (String role : allRoles) {
+            schemaBuilder.addColumn(role);
         }
 
-        return matrix;
+        return schemaBuilder
+                .setUseHeader(true)
+                .build();
     }
 
-    public File writeToCsv(List<String> allRoles, Map<FirmDto, Map<String, Integer>> matrix) {
-
-        String timestamp = LocalDateTime.now().format(fileTimestamp);
-        String fileName = "SiLAS-role-assignment-matrix-report-" + timestamp + ".csv";
-
-        try {
-
-            CsvSchema.Builder schemaBuilder = CsvSchema.builder()
-                    .addColumn("Firm Name")
-                    .addColumn("Firm Code");
-
-            for (String role : allRoles) {
-                schemaBuilder.addColumn(role);
+    /**
+     * Pivots the role counts into one row per firm. The rows arrive ordered by firm, so only the
+     * current firm's counts are held at a time.
+     */
+    private void writeMatrix(List<String> allRoles, Iterator<Tuple> rows, Consumer<Object> writer) {
+        UUID currentFirmId = null;
+        Map<String, Object> row = null;
+        Map<String, Integer> roleCounts = new HashMap<>();
+
+        while (rows.hasNext()) {
+            Tuple t = rows.next();
+            UUID firmId = t.get("firmId", UUID.class);
+
+            if (row == null || !Objects.equals(firmId, currentFirmId)) {
+                if (row != null) {
+                    writer.accept(completeRow(row, allRoles, roleCounts));
+                }
+                currentFirmId = firmId;
+                row = new LinkedHashMap<>();
+                row.put("Firm Name", t.get("firmName", String.class));
+                row.put("Firm Code", t.get("firmCode", String.class));
+                roleCounts.clear();
             }
 
-            CsvSchema schema = schemaBuilder
-                    .setUseHeader(true)
-                    .build();
-
-            CsvMapper csvMapper = CsvMapper.builder().build();
-
-            Path tempFile = Paths.get(
-                    System.getProperty("java.io.tmpdir"),
-                    fileName
-            );
-            Files.createFile(tempFile);
-
-            try (Writer writer = Files.newBufferedWriter(tempFile);
-                 SequenceWriter sequenceWriter = csvMapper.writer(schema).writeValues(writer)) {
-
-                for (Map.Entry<FirmDto, Map<String, Integer>> entry : matrix.entrySet()) {
-                    FirmDto firm = entry.getKey();
-                    Map<String, Integer> roleCounts = entry.getValue();
+            String roleName = t.get("roleName", String.class);
+            Number userCountNumber = t.get("userCount", Number.class);
+            int userCount = (userCountNumber == null) ? 0 : userCountNumber.intValue();
 
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    row.put("Firm Name", firm.getName());
-                    row.put("Firm Code", firm.getCode());
+            roleCounts.put(roleName, userCount);
+        }
 
-                    for (String role : allRoles) {
-                        row.put(role, roleCounts.getOrDefault(role, 0));
-                    }
+        if (row != null) {
+            writer.accept(completeRow(row, allRoles, roleCounts));
+        }
+    }
 
-                    sequenceWriter.write(row);
-                }
-            }
-            return tempFile.toFile();
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to write role assignment matrix csv", e);
+    private static Map<String, Object> completeRow(Map<String, Object> row, List<String> allRoles,
+                                                   Map<String, Integer> roleCounts) {
+        for (String role : allRoles) {
+            row.put(role, roleCounts.getOrDefault(role, 0));
         }
+        return row;
     }
 }
@@ -14,6 +14,7 @@ import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
 import uk.gov.justice.laa.portal.landingpage.entity.BaseEntity;
 import uk.gov.justice.laa.portal.landingpage.entity.RoleAssignment;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
@@ -42,6 +43,7 @@ public class RoleAssignmentService {
     private final AppRoleRepository appRoleRepository;
     private final ModelMapper mapper;
     private final EventService eventService;
+    private final AppCatalogueVersionRepository appCatalogueVersionRepository;
 
     public boolean canAssignRole(Set<AppRole> editorRoles, Collection<String> targetRoles) {
         List<UUID> targetRoleIds = targetRoles.stream().map(UUID::fromString).distinct().toList();
@@ -172,6 +174,7 @@ public class RoleAssignmentService {
 
             roleAssignmentRepository.saveAll(newRows);
         }
+        appCatalogueVersionRepository.incrementVersion();
 
         UpdateAppRoleAssignRestrictionsAuditEvent event =
                 new UpdateAppRoleAssignRestrictionsAuditEvent(currentUserDto, targetRole.getId(), targetRole.getName());
@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.model.CcmsMessage;
+import uk.gov.justice.laa.portal.landingpage.model.CcmsRoleChangeMessage;
 import uk.gov.justice.laa.portal.landingpage.registry.SqsClientRegistry;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
@@ -29,6 +31,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -40,6 +43,7 @@ public class RoleChangeNotificationService {
     private final SqsClientRegistry sqsClientRegistry;
     private final ObjectMapper objectMapper;
     private final UserProfileRepository userProfileRepository;
+    private final SqsBatchPublisher sqsBatchPublisher;
 
     private static final String USER_TYPE_ATTRIBUTE = "userType";
 
@@ -86,46 +90,105 @@ public class RoleChangeNotificationService {
             return;
         }
 
-        SqsClient sqsClient = sqsClientOpt.get();
-        String sqsQueueUrl = sqsQueueUrlOpt.get();
+        Optional<CcmsRoleChangeMessage> message = buildRoleChangeMessage(userProfile, appEntraOid, newPuiRoles, oldPuiRoles);
+        if (message.isEmpty()) {
+            log.info("No CCMS roles updated for user: {} with entra oid: {}, skipping", userProfile.getId(), userProfile.getEntraUser().getEntraOid());
+            return;
+        }
+        Optional<String> messageId = publishRoleChangeMessage(message.get(), generateDeduplicationId(userProfile, newPuiRoles));
+        if (messageId.isEmpty()) {
+            log.info("Skipping CCMS update for user: {}", userProfile.getEntraUser().getEntraOid());
+            return;
+        }
+        log.info("CCMS role change message sent to queue for user: {} with entra oid: {}, messageId: {}",
+                userProfile.getId(), userProfile.getEntraUser().getEntraOid(), messageId.get());
+    }
+
+    /**
+     * Renders the CCMS role change message for a user profile.
+     *
+     * @return the message, or empty when the PUI roles have not changed
+     */
+    public Optional<CcmsRoleChangeMessage> buildRoleChangeMessage(UserProfile userProfile, String appEntraOid,
+                                                                  Set<String> newPuiRoles, Set<String> oldPuiRoles) throws JsonProcessingException {
+        if (newPuiRoles.equals(oldPuiRoles)) {
+            return Optional.empty();
+        }
         EntraUser entraUser = userProfile.getEntraUser();
-        if (!newPuiRoles.equals(oldPuiRoles)) {
-            log.info("CCMS roles updated for user: {} with entra oid: {}, generating message", userProfile.getId(), userProfile.getEntraUser().getEntraOid());
-            CcmsMessage.CcmsMessageBuilder ccmsMessageBuilder = CcmsMessage.builder()
-                    .userName(userProfile.getLegacyUserId().toString())
-                    .firstName(entraUser.getFirstName())
-                    .lastName(entraUser.getLastName())
-                    .timestamp(LocalDateTime.now())
-                    .email(entraUser.getEmail())
-                    .responsibilityKey(newPuiRoles.stream().toList());
-
-            if (UserType.EXTERNAL.equals(userProfile.getUserType())) {
-                ccmsMessageBuilder.vendorNumber(userProfile.getFirm().getCode());
-            }
+        log.info("CCMS roles updated for user: {} with entra oid: {}, generating message", userProfile.getId(), entraUser.getEntraOid());
+        CcmsMessage.CcmsMessageBuilder ccmsMessageBuilder = CcmsMessage.builder()
+                .userName(userProfile.getLegacyUserId().toString())
+                .firstName(entraUser.getFirstName())
+                .lastName(entraUser.getLastName())
+                .timestamp(LocalDateTime.now())
+                .email(entraUser.getEmail())
+                .responsibilityKey(newPuiRoles.stream().toList());
 
-            String messageBody = objectMapper.writeValueAsString(ccmsMessageBuilder.build());
-            log.info("CCMS role change generated for user profile: {} with entra oid: {} and legacy profile id: {} containing CCMS roles: {}",
-                    userProfile.getId(), userProfile.getEntraUser().getEntraOid(), userProfile.getLegacyUserId().toString(), newPuiRoles);
-
-            Map<String, MessageAttributeValue> userTypeAttribute = Map.of(USER_TYPE_ATTRIBUTE, MessageAttributeValue.builder()
-                    .stringValue(userProfile.getUserType().toString())
-                    .dataType("String")
-                    .build());
-
-            SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                    .queueUrl(sqsQueueUrl)
-                    .messageBody(messageBody)
-                    .messageAttributes(userTypeAttribute)
-                    .messageGroupId(userProfile.getLegacyUserId().toString())
-                    .messageDeduplicationId(generateDeduplicationId(userProfile, newPuiRoles))
-                    .build();
-
-            SendMessageResponse response = sqsClient.sendMessage(sendMessageRequest);
-            log.info("CCMS role change message sent to queue for user: {} with entra oid: {}, messageId: {}",
-                    userProfile.getId(), entraUser.getEntraOid(), response.messageId());
-        } else {
-            log.info("No CCMS roles updated for user: {} with entra oid: {}, skipping", userProfile.getId(), userProfile.getEntraUser().getEntraOid());
+        if (UserType.EXTERNAL.equals(userProfile.getUserType())) {
+            ccmsMessageBuilder.vendorNumber(userProfile.getFirm().getCode());
         }
+
+        String messageBody = objectMapper.writeValueAsString(ccmsMessageBuilder.build());
+        log.info("CCMS role change generated for user profile: {} with entra oid: {} and legacy profile id: {} containing CCMS roles: {}",
+                userProfile.getId(), entraUser.getEntraOid(), userProfile.getLegacyUserId().toString(), newPuiRoles);
+
+        return Optional.of(new CcmsRoleChangeMessage(appEntraOid, userProfile.getUserType().toString(),
+                userProfile.getLegacyUserId().toString(), messageBody));
+    }
+
+    /**
+     * Sends a rendered CCMS role change message to the queue configured for its app.
+     *
+     * @param message         the rendered message
+     * @param deduplicationId SQS FIFO deduplication id, stable across retries of the same change
+     * @return the SQS message id, or empty when no queue is configured for the app
+     */
+    public Optional<String> publishRoleChangeMessage(CcmsRoleChangeMessage message, String deduplicationId) {
+        Optional<SqsClient> sqsClientOpt = sqsClientRegistry.getSqsClient(message.appEntraOid());
+        Optional<String> sqsQueueUrlOpt = sqsClientRegistry.getSqsQueueUrl(message.appEntraOid());
+        if (sqsClientOpt.isEmpty() || sqsQueueUrlOpt.isEmpty() || "NONE".equalsIgnoreCase(sqsQueueUrlOpt.get())) {
+            return Optional.empty();
+        }
+
+        SendMessageResponse response = sqsClientOpt.get().sendMessage(
+                buildSendMessageRequest(sqsQueueUrlOpt.get(), message, deduplicationId));
+        return Optional.of(response.messageId());
+    }
+
+    /**
+     * Queues a rendered CCMS role change message to be sent in a {@code SendMessageBatch} with other
+     * messages for the same queue. Use this when publishing many messages; a single caller waiting
+     * on the result pays the batch linger.
+     *
+     * @param message         the rendered message
+     * @param deduplicationId SQS FIFO deduplication id, stable across retries of the same change
+     * @return a future of the SQS message id, or of empty when no queue is configured for the app
+     */
+    public CompletableFuture<Optional<String>> submitRoleChangeMessage(CcmsRoleChangeMessage message, String deduplicationId) {
+        Optional<SqsClient> sqsClientOpt = sqsClientRegistry.getSqsClient(message.appEntraOid());
+        Optional<String> sqsQueueUrlOpt = sqsClientRegistry.getSqsQueueUrl(message.appEntraOid());
+        if (sqsClientOpt.isEmpty() || sqsQueueUrlOpt.isEmpty() || "NONE".equalsIgnoreCase(sqsQueueUrlOpt.get())) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return sqsBatchPublisher.submit(sqsClientOpt.get(),
+                        buildSendMessageRequest(sqsQueueUrlOpt.get(), message, deduplicationId))
+                .thenApply(Optional::of);
+    }
+
+    private SendMessageRequest buildSendMessageRequest(String queueUrl, CcmsRoleChangeMessage message, String deduplicationId) {
+        Map<String, MessageAttributeValue> userTypeAttribute = Map.of(USER_TYPE_ATTRIBUTE, MessageAttributeValue.builder()
+                .stringValue(message.userType())
+                .dataType("String")
+                .build());
+
+        return SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(message.messageBody())
+                .messageAttributes(userTypeAttribute)
+                .messageGroupId(message.messageGroupId())
+                .messageDeduplicationId(deduplicationId)
+                .build();
     }
 
     @Recover
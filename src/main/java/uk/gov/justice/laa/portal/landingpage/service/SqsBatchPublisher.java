@@ -0,0 +1,250 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces SQS sends per queue into {@code SendMessageBatch} requests.
+ *
+ * <p>Messages are buffered per queue URL and flushed as soon as {@value #MAX_BATCH_SIZE} are
+ * waiting, or once the first buffered message has lingered for {@code lingerMillis}. Entries the
+ * batch response reports as failed through no fault of the sender are retried one at a time with
+ * {@code SendMessage}; sender faults and whole-batch failures complete the caller's future
+ * exceptionally so the caller's own retry policy applies.</p>
+ *
+ * <p>Failed entries are retried in the order they were submitted. Once an entry of a FIFO message
+ * group cannot be sent, the failed entries after it in the same group are not sent either, so
+ * they are never delivered ahead of it; their futures fail and they are retried in order by the
+ * caller.</p>
+ */
+@Slf4j
+@Component
+public class SqsBatchPublisher {
+
+    static final int MAX_BATCH_SIZE = 10;
+    private static final long ENTRY_RETRY_DELAY_MILLIS = 100;
+
+    private final MeterRegistry meterRegistry;
+    private final long lingerMillis;
+    private final int maxEntryAttempts;
+    private final ScheduledExecutorService flushExecutor;
+    private final Map<String, QueueBuffer> buffers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SqsBatchPublisher(MeterRegistry meterRegistry,
+                             @Value("${app.ccms.sqs.batch.linger.ms:50}") long lingerMillis,
+                             @Value("${app.ccms.sqs.batch.entry.max.attempts:3}") int maxEntryAttempts) {
+        this(meterRegistry, lingerMillis, maxEntryAttempts,
+                Executors.newScheduledThreadPool(2, new CustomizableThreadFactory("sqs-batch-")));
+    }
+
+    SqsBatchPublisher(MeterRegistry meterRegistry, long lingerMillis, int maxEntryAttempts,
+                      ScheduledExecutorService flushExecutor) {
+        this.meterRegistry = meterRegistry;
+        this.lingerMillis = lingerMillis;
+        this.maxEntryAttempts = maxEntryAttempts;
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * Buffers a message for its queue.
+     *
+     * @param sqsClient the client for the queue in {@code request}
+     * @param request   the message as it would be sent on its own
+     * @return a future completed with the SQS message id once the message has been accepted
+     */
+    public CompletableFuture<String> submit(SqsClient sqsClient, SendMessageRequest request) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        buffers.computeIfAbsent(request.queueUrl(), queueUrl -> new QueueBuffer(sqsClient, queueUrl))
+                .add(new PendingMessage(request, result));
+        return result;
+    }
+
+    /**
+     * Sends everything that is currently buffered on the calling thread.
+     */
+    public void flush() {
+        buffers.values().forEach(QueueBuffer::flushNow);
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        log.info("SqsBatchPublisher shutdown initiated - flushing buffered messages");
+        flush();
+        flushExecutor.shutdown();
+    }
+
+    private record PendingMessage(SendMessageRequest request, CompletableFuture<String> result) {
+    }
+
+    private final class QueueBuffer {
+
+        private final SqsClient sqsClient;
+        private final String queueUrl;
+        private final List<PendingMessage> pending = new ArrayList<>(MAX_BATCH_SIZE);
+        private ScheduledFuture<?> lingerFlush;
+
+        private QueueBuffer(SqsClient sqsClient, String queueUrl) {
+            this.sqsClient = sqsClient;
+            this.queueUrl = queueUrl;
+        }
+
+        synchronized void add(PendingMessage message) {
+            pending.add(message);
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                List<PendingMessage> batch = drain();
+                flushExecutor.execute(() -> send(batch));
+            } else if (lingerFlush == null) {
+                lingerFlush = flushExecutor.schedule(this::flushNow, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void flushNow() {
+            List<PendingMessage> batch;
+            synchronized (this) {
+                batch = drain();
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        }
+
+        private List<PendingMessage> drain() {
+            if (lingerFlush != null) {
+                lingerFlush.cancel(false);
+                lingerFlush = null;
+            }
+            List<PendingMessage> batch = new ArrayList<>(pending);
+            pending.clear();
+            return batch;
+        }
+
+        private void send(List<PendingMessage> batch) {
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                entries.add(toBatchEntry(Integer.toString(i), batch.get(i).request()));
+            }
+
+            SendMessageBatchResponse response;
+            try {
+                response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build());
+                meterRegistry.counter("sqs.batch.requests", "result", "sent").increment();
+            } catch (RuntimeException e) {
+                log.warn("SQS batch of {} messages to queue {} failed: {}", batch.size(), queueUrl, e.getMessage());
+                meterRegistry.counter("sqs.batch.requests", "result", "failed").increment();
+                batch.forEach(message -> message.result().completeExceptionally(e));
+                return;
+            }
+
+            for (SendMessageBatchResultEntry successful : response.successful()) {
+                batch.get(Integer.parseInt(successful.id())).result().complete(successful.messageId());
+            }
+            Map<Integer, BatchResultErrorEntry> failures = new TreeMap<>();
+            response.failed().forEach(failed -> failures.put(Integer.parseInt(failed.id()), failed));
+            Set<String> blockedGroups = new HashSet<>();
+            failures.forEach((index, failed) -> {
+                PendingMessage message = batch.get(index);
+                String groupId = message.request().messageGroupId();
+                boolean sent;
+                if (groupId != null && blockedGroups.contains(groupId)) {
+                    holdBack(message, groupId);
+                    sent = false;
+                } else if (Boolean.TRUE.equals(failed.senderFault())) {
+                    log.warn("SQS rejected message for queue {}: {} {}", queueUrl, failed.code(), failed.message());
+                    meterRegistry.counter("sqs.batch.entries.failed").increment();
+                    message.result().completeExceptionally(new IllegalStateException(
+                            "SQS rejected message: " + failed.code() + " " + failed.message()));
+                    sent = false;
+                } else {
+                    sent = retryIndividually(message, failed);
+                }
+                if (!sent && groupId != null) {
+                    blockedGroups.add(groupId);
+                }
+            });
+        }
+
+        /**
+         * Fails a message without sending it, because an earlier message in its group could not be sent.
+         */
+        private void holdBack(PendingMessage message, String groupId) {
+            log.warn("Holding back SQS message for queue {} behind an earlier failed message in group {}", queueUrl, groupId);
+            meterRegistry.counter("sqs.batch.entries.failed").increment();
+            message.result().completeExceptionally(new IllegalStateException(
+                    "SQS message not sent as an earlier message in group " + groupId + " failed"));
+        }
+
+        /**
+         * @return whether the message was sent
+         */
+        private boolean retryIndividually(PendingMessage message, BatchResultErrorEntry failed) {
+            RuntimeException lastFailure = new IllegalStateException(
+                    "SQS batch entry failed: " + failed.code() + " " + failed.message());
+            for (int attempt = 1; attempt <= maxEntryAttempts; attempt++) {
+                meterRegistry.counter("sqs.batch.entries.retried").increment();
+                try {
+                    message.result().complete(sqsClient.sendMessage(message.request()).messageId());
+                    return true;
+                } catch (RuntimeException e) {
+                    lastFailure = e;
+                    log.warn("Retry {} of SQS message for queue {} failed: {}", attempt, queueUrl, e.getMessage());
+                }
+                if (attempt < maxEntryAttempts && !pauseBeforeRetry(attempt)) {
+                    break;
+                }
+            }
+            meterRegistry.counter("sqs.batch.entries.failed").increment();
+            message.result().completeExceptionally(lastFailure);
+            return false;
+        }
+
+        private boolean pauseBeforeRetry(int attempt) {
+            try {
+                Thread.sleep(ENTRY_RETRY_DELAY_MILLIS * attempt);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static SendMessageBatchRequestEntry toBatchEntry(String id, SendMessageRequest request) {
+        return SendMessageBatchRequestEntry.builder()
+                .id(id)
+                .messageBody(request.messageBody())
+                .messageAttributes(request.messageAttributes())
+                .messageGroupId(request.messageGroupId())
+                .messageDeduplicationId(request.messageDeduplicationId())
+                .delaySeconds(request.delaySeconds())
+                .build();
+    }
+}
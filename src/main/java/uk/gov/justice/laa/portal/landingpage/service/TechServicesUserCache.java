@@ -0,0 +1,185 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetUserResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesApiResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of Tech Services user lookups, keyed by entra oid, for pages that show live
+ * Entra status.
+ *
+ * <p>Successful lookups are served as they are for {@code freshSeconds}. For a further
+ * {@code staleSeconds} the cached answer is still served, but the first request in that window
+ * starts a background reload. After that the next request waits for a new lookup; concurrent
+ * requests for the same user share it. Errors are never cached, and a lookup that fails drops any
+ * answer already cached for the user, so a stale one is not served while Tech Services is failing.</p>
+ *
+ * <p>{@link LiveTechServicesClient} invalidates a user whenever it changes them in Tech Services,
+ * even when the change fails part way, as it may still have been applied. A lookup that was
+ * already running when a user was invalidated is not cached, so it cannot put the old state
+ * back.</p>
+ *
+ * <p>The cache is held in memory by each instance and invalidation only reaches the instance that
+ * made the change. Another instance can go on serving the user as they were for up to
+ * {@code freshSeconds + staleSeconds} after the change, 330 seconds with the defaults, so the
+ * windows should be kept short wherever the status shown has to be current across instances.</p>
+ */
+@Component
+@Slf4j
+public class TechServicesUserCache {
+
+    private final Clock clock;
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TechServicesApiResponse<GetUserResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Value("${app.tech.services.user.cache.fresh.seconds:30}")
+    private long freshSeconds = 30;
+
+    @Value("${app.tech.services.user.cache.stale.seconds:300}")
+    private long staleSeconds = 300;
+
+    @Value("${app.tech.services.user.cache.max.entries:1000}")
+    private int maxEntries = 1000;
+
+    public TechServicesUserCache() {
+        this(Clock.systemUTC());
+    }
+
+    TechServicesUserCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the user with the given entra oid, using {@code loader} to look them up when there is
+     * no usable cached answer.
+     */
+    public TechServicesApiResponse<GetUserResponse> getUser(String entraOid,
+                                                            Function<String, TechServicesApiResponse<GetUserResponse>> loader) {
+        if (entraOid == null) {
+            return loader.apply(null);
+        }
+        CachedUser cached = cache.get(entraOid);
+        Instant now = clock.instant();
+        if (cached != null && now.isBefore(cached.staleAt())) {
+            return cached.response();
+        }
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            log.debug("Serving stale Tech Services user {} while it is reloaded", entraOid);
+            load(entraOid, loader, true);
+            return cached.response();
+        }
+        try {
+            return load(entraOid, loader, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(String entraOid) {
+        if (entraOid != null) {
+            invalidations.incrementAndGet();
+            cache.remove(entraOid);
+        }
+    }
+
+    /**
+     * Stops the background reloads on shutdown; a reload cut short is simply not cached, and any
+     * requested after this run on the caller's thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the in-flight lookup for a user, starting one if there is none. Background reloads run
+     * on a virtual thread; foreground ones run on the caller's thread.
+     */
+    private CompletableFuture<TechServicesApiResponse<GetUserResponse>> load(
+            String entraOid, Function<String, TechServicesApiResponse<GetUserResponse>> loader, boolean background) {
+        CompletableFuture<TechServicesApiResponse<GetUserResponse>> result = new CompletableFuture<>();
+        CompletableFuture<TechServicesApiResponse<GetUserResponse>> existing = inFlight.putIfAbsent(entraOid, result);
+        if (existing != null) {
+            return existing;
+        }
+
+        long generation = invalidations.get();
+        Runnable lookup = () -> {
+            try {
+                TechServicesApiResponse<GetUserResponse> response = loader.apply(entraOid);
+                if (response == null || !response.isSuccess()) {
+                    cache.remove(entraOid);
+                } else if (invalidations.get() == generation) {
+                    store(entraOid, response);
+                }
+                result.complete(response);
+            } catch (RuntimeException e) {
+                cache.remove(entraOid);
+                result.completeExceptionally(e);
+            } finally {
+                inFlight.remove(entraOid, result);
+            }
+        };
+        if (background) {
+            try {
+                refreshExecutor.execute(lookup);
+            } catch (RejectedExecutionException e) {
+                lookup.run();
+            }
+        } else {
+            lookup.run();
+        }
+        return result;
+    }
+
+    private void store(String entraOid, TechServicesApiResponse<GetUserResponse> response) {
+        if (cache.size() >= maxEntries && !cache.containsKey(entraOid)) {
+            evict();
+        }
+        Instant now = clock.instant();
+        Instant staleAt = now.plus(Duration.ofSeconds(freshSeconds));
+        cache.put(entraOid, new CachedUser(response, staleAt, staleAt.plus(Duration.ofSeconds(staleSeconds))));
+    }
+
+    /**
+     * Drops expired entries, then the ones closest to expiry until there is room for one more.
+     */
+    private void evict() {
+        Instant now = clock.instant();
+        cache.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        int excess = cache.size() - maxEntries + 1;
+        if (excess > 0) {
+            cache.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparing(CachedUser::expiresAt)))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cache::remove);
+        }
+    }
+
+    private record CachedUser(TechServicesApiResponse<GetUserResponse> response, Instant staleAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,382 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+import uk.gov.justice.laa.portal.landingpage.dto.CreateUserAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.exception.TechServicesClientException;
+import uk.gov.justice.laa.portal.landingpage.repository.UserImportJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserImportRowRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates the users of a firm listed in an uploaded CSV file.
+ *
+ * <p>{@link #createImport} reads and checks the whole file up front and records it as a job
+ * waiting to be confirmed, so the uploader can see which rows cannot be imported before any user
+ * is created. Once confirmed, the
+ * {@link uk.gov.justice.laa.portal.landingpage.scheduler.UserImportWorker} leases the job and
+ * calls {@link #createNextUsers} until no rows are pending. Each user is created exactly as the
+ * create user journey does it, registering them with Tech Services and logging the same audit
+ * event, and the outcome is written to the row straight away, so a retried job carries on from
+ * the first row not yet attempted.</p>
+ *
+ * <p>Tech Services rejecting a user, or anything else going wrong with one row, fails that row
+ * only. Tech Services or the database being unavailable fails the run, which is retried after a
+ * back off, as the rows after it would fail in the same way.</p>
+ */
+@Slf4j
+@Service
+public class UserImportService extends LeasedJobService<UserImportJob> {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder().build();
+    private static final Set<UserImportJobStatus> ACTIVE_STATUSES =
+            EnumSet.of(UserImportJobStatus.PENDING, UserImportJobStatus.RUNNING);
+
+    private final UserImportJobRepository jobRepository;
+    private final UserImportRowRepository rowRepository;
+    private final UserImportValidationService validationService;
+    private final UserService userService;
+    private final FirmService firmService;
+    private final EventService eventService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transaction;
+
+    public UserImportService(UserImportJobRepository jobRepository, UserImportRowRepository rowRepository,
+                             UserImportValidationService validationService, UserService userService,
+                             FirmService firmService, EventService eventService, MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.user.import.lease.seconds:120}") long leaseSeconds,
+                             @Value("${app.user.import.max.attempts:5}") int maxAttempts,
+                             @Value("${app.user.import.backoff.seconds:60}") long backoffSeconds) {
+        super("User import job", "user.import", jobRepository, meterRegistry, Duration.ofSeconds(leaseSeconds),
+                maxAttempts, Duration.ofSeconds(backoffSeconds));
+        this.jobRepository = jobRepository;
+        this.rowRepository = rowRepository;
+        this.validationService = validationService;
+        this.userService = userService;
+        this.firmService = firmService;
+        this.eventService = eventService;
+        this.meterRegistry = meterRegistry;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public int getMaxRows() {
+        return validationService.getMaxRows();
+    }
+
+    /**
+     * Reads and checks the file and records it, with every row and what is wrong with it, as an
+     * import waiting to be confirmed. The file is checked before the transaction starts, as
+     * checking email domains can take a while.
+     *
+     * @throws IllegalArgumentException if the file cannot be read or has no users
+     */
+    public UserImportJob createImport(FirmDto firm, String fileName, InputStream file, CurrentUserDto requestedBy) {
+        List<UserImportRow> rows = validationService.readAndValidate(file);
+        int valid = (int) rows.stream().filter(row -> row.getStatus() == UserImportRowStatus.PENDING).count();
+        meterRegistry.counter("user.import.rows.read").increment(rows.size());
+        meterRegistry.counter("user.import.rows.invalid").increment(rows.size() - valid);
+
+        return transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            UserImportJob job = jobRepository.save(UserImportJob.builder()
+                    .firmId(firm.getId())
+                    .firmName(firm.getName())
+                    .fileName(fileName)
+                    .requestedByEntraOid(requestedBy.getUserId())
+                    .requestedByName(requestedBy.getName())
+                    .totalRows(rows.size())
+                    .validRows(valid)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build());
+            rows.forEach(row -> row.setJobId(job.getId()));
+            rowRepository.saveAll(rows);
+            log.info("User import {} for firm {} read {} rows, {} valid", job.getId(), firm.getId(), rows.size(), valid);
+            return job;
+        });
+    }
+
+    public Optional<UserImportJob> getJob(UUID jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * One page of the rows of an import in file order, only those with the given status unless
+     * it is {@code null}.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserImportRow> getRows(UUID jobId, UserImportRowStatus status, int page, int pageSize) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 1) - 1, pageSize);
+        return status == null
+                ? rowRepository.findByJobIdOrderByRowNumber(jobId, pageRequest)
+                : rowRepository.findByJobIdAndStatusOrderByRowNumber(jobId, status, pageRequest);
+    }
+
+    /**
+     * Queues the valid rows of a checked import to be created. Returns false, leaving the import
+     * waiting, while another import for the same firm is still creating users.
+     *
+     * @throws IllegalArgumentException if the import has already been confirmed or has no valid
+     *                                  rows
+     */
+    @Transactional
+    public boolean confirmImport(UUID jobId) {
+        UserImportJob job = jobRepository.findById(jobId).orElseThrow();
+        if (job.getStatus() != UserImportJobStatus.VALIDATED) {
+            throw new IllegalArgumentException("These users have already been imported");
+        }
+        if (job.getValidRows() == 0) {
+            throw new IllegalArgumentException("There are no users in the file that can be imported");
+        }
+        if (jobRepository.existsByFirmIdAndStatusIn(job.getFirmId(), ACTIVE_STATUSES)) {
+            log.info("A user import for firm {} is already in progress", job.getFirmId());
+            return false;
+        }
+        job.setStatus(UserImportJobStatus.PENDING);
+        job.setNextAttemptAt(LocalDateTime.now());
+        jobRepository.save(job);
+        log.info("User import {} confirmed, creating {} users for firm {}", jobId, job.getValidRows(), job.getFirmId());
+        return true;
+    }
+
+    /**
+     * Throws away an import that has not been confirmed yet. Confirmed imports are left alone.
+     */
+    @Transactional
+    public void cancelImport(UUID jobId) {
+        jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == UserImportJobStatus.VALIDATED)
+                .ifPresent(jobRepository::delete);
+    }
+
+    /**
+     * Every row of the import with its outcome, as a CSV file for the uploader to keep.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getResultsCsv(UUID jobId) {
+        CsvSchema schema = CsvSchema.builder()
+                .setUseHeader(true)
+                .setColumnSeparator(',')
+                .setLineSeparator("\n")
+                .addColumn("Row")
+                .addColumn("First name")
+                .addColumn("Last name")
+                .addColumn("Email")
+                .addColumn("User manager")
+                .addColumn("Outcome")
+                .addColumn("Detail")
+                .build();
+        List<ResultCsvRow> rows = rowRepository.findByJobIdOrderByRowNumber(jobId).stream()
+                .map(row -> new ResultCsvRow(
+                        row.getRowNumber(),
+                        row.getFirstName(),
+                        row.getLastName(),
+                        row.getEmail(),
+                        row.isUserManager() ? "Yes" : "No",
+                        outcome(row.getStatus()),
+                        row.getDetail() == null ? "" : row.getDetail()))
+                .toList();
+        try (StringWriter out = new StringWriter()) {
+            CSV_MAPPER.writer(schema)
+                    .writeValues(out)
+                    .writeAll(rows);
+            return out.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to build user import results CSV", e);
+        }
+    }
+
+    private static String outcome(UserImportRowStatus status) {
+        return switch (status) {
+            case INVALID -> "Not imported";
+            case PENDING -> "Waiting";
+            case CREATED -> "Created";
+            case FAILED -> "Failed";
+        };
+    }
+
+    /**
+     * Creates the users for up to {@code limit} of the import's pending rows, one after the
+     * other, and then records the progress and extends the lease. Not transactional itself: each
+     * user is created and each row's outcome saved in a transaction of its own, so one user's
+     * failure does not undo another's, and the job row is only locked to check the lease.
+     *
+     * @return the number of rows attempted; zero once none are pending
+     */
+    public int createNextUsers(UUID jobId, int limit) {
+        UserImportJob job = transaction.execute(status -> requireLease(jobId));
+        List<UserImportRow> rows = rowRepository.findPendingByJobId(jobId, limit);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        FirmDto firm = firmService.getFirm(job.getFirmId());
+        CurrentUserDto requestedBy = new CurrentUserDto();
+        requestedBy.setUserId(job.getRequestedByEntraOid());
+        requestedBy.setName(job.getRequestedByName());
+        int created = 0;
+        int failed = 0;
+        for (UserImportRow row : rows) {
+            if (createUser(firm, requestedBy, row)) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+
+        int attempted = rows.size();
+        int createdRows = created;
+        int failedRows = failed;
+        UserImportJob progress = transaction.execute(status -> {
+            UserImportJob leased = requireLease(jobId);
+            leased.setProcessedRows(leased.getProcessedRows() + attempted);
+            leased.setCreatedRows(leased.getCreatedRows() + createdRows);
+            leased.setFailedRows(leased.getFailedRows() + failedRows);
+            extendLease(leased);
+            jobRepository.save(leased);
+            return leased;
+        });
+        meterRegistry.counter("user.import.users.created").increment(created);
+        meterRegistry.counter("user.import.users.failed").increment(failed);
+        log.debug("User import {} attempted {} rows ({} of {})", jobId, attempted, progress.getProcessedRows(),
+                progress.getValidRows());
+        return attempted;
+    }
+
+    /**
+     * Creates the user for one row and saves the outcome.
+     *
+     * @return whether the user was created
+     */
+    private boolean createUser(FirmDto firm, CurrentUserDto requestedBy, UserImportRow row) {
+        row.setProcessedAt(LocalDateTime.now());
+        if (userService.userExistsByEmail(row.getEmail())) {
+            return failRow(row, "Email address already exists");
+        }
+
+        EntraUserDto user = new EntraUserDto();
+        user.setFirstName(row.getFirstName());
+        user.setLastName(row.getLastName());
+        user.setFullName(row.getFirstName() + " " + row.getLastName());
+        user.setEmail(row.getEmail());
+        EntraUser entraUser;
+        try {
+            entraUser = userService.createUser(user, firm, row.isUserManager(), requestedBy.getName(), false);
+        } catch (TechServicesClientException e) {
+            log.info("Tech Services rejected row {} of user import {}: {}", row.getRowNumber(), row.getJobId(),
+                    e.getMessage());
+            return failRow(row, String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            if (isUnavailable(e)) {
+                throw e;
+            }
+            log.warn("Failed to create row {} of user import {}", row.getRowNumber(), row.getJobId(), e);
+            return failRow(row, "The user could not be created");
+        }
+        eventService.logEvent(new CreateUserAuditEvent(requestedBy, entraUser, firm.getId().toString(),
+                row.isUserManager()));
+        row.setStatus(UserImportRowStatus.CREATED);
+        row.setEntraUserId(entraUser.getId());
+        row.setDetail(null);
+        rowRepository.save(row);
+        return true;
+    }
+
+    private boolean failRow(UserImportRow row, String detail) {
+        row.setStatus(UserImportRowStatus.FAILED);
+        row.setDetail(truncate(detail));
+        rowRepository.save(row);
+        return false;
+    }
+
+    /**
+     * Whether creating a user failed because Tech Services or the database could not be reached
+     * rather than because of something about the user. Tech Services rejecting a request is
+     * reported as an error response, so any other failure to talk to it means it is unavailable.
+     */
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if ((cause instanceof RestClientException && !(cause instanceof HttpClientErrorException))
+                    || cause instanceof IOException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the import completed once none of its rows are pending.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void completeJob(UUID jobId) {
+        UserImportJob job = requireLease(jobId);
+        markCompleted(job);
+        jobRepository.save(job);
+        meterRegistry.counter("user.import.jobs.completed").increment();
+        log.info("User import {} for firm {} created {} of {} users", jobId, job.getFirmId(), job.getCreatedRows(),
+                job.getValidRows());
+    }
+
+    /**
+     * Fails the rows not attempted by the time the import gives up, so that the results file says
+     * what happened to every row.
+     */
+    @Override
+    protected void onFailed(UserImportJob job, LocalDateTime now) {
+        int notAttempted = rowRepository.failPending(job.getId(),
+                "Not created, the import stopped before reaching this user", now);
+        job.setProcessedRows(job.getProcessedRows() + notAttempted);
+        job.setFailedRows(job.getFailedRows() + notAttempted);
+    }
+
+    @JsonPropertyOrder({ "Row", "First name", "Last name", "Email", "User manager", "Outcome", "Detail" })
+    private record ResultCsvRow(
+            @JsonProperty("Row") int row,
+            @JsonProperty("First name") String firstName,
+            @JsonProperty("Last name") String lastName,
+            @JsonProperty("Email") String email,
+            @JsonProperty("User manager") String userManager,
+            @JsonProperty("Outcome") String outcome,
+            @JsonProperty("Detail") String detail) {
+    }
+}
@@ -0,0 +1,323 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.forms.UserDetailsForm;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the users to import from a CSV file and checks each of them the way the create user
+ * journey would: name and email format, that the email domain is not blocklisted and can receive
+ * email, that nobody else in the file has the same email and that no user with it exists yet.
+ *
+ * <p>The file is read one row at a time. Domains are checked in parallel on virtual threads, at
+ * most {@code parallelism} at once, while existing users are looked up in batches of
+ * {@value #EMAIL_LOOKUP_BATCH_SIZE} emails rather than one query per row. Whether a user already
+ * exists in Entra is only checked when the user is created, as it takes a Graph call per user.</p>
+ */
+@Slf4j
+@Service
+public class UserImportValidationService {
+
+    static final int EMAIL_LOOKUP_BATCH_SIZE = 500;
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder().build();
+    private static final List<String> FIELD_ORDER = List.of("firstName", "lastName", "email", "userManager");
+    private static final String FIRST_NAME = "firstname";
+    private static final String LAST_NAME = "lastname";
+    private static final String EMAIL = "email";
+    private static final String EMAIL_ADDRESS = "emailaddress";
+    private static final String USER_MANAGER = "usermanager";
+    private static final int MAX_VALUE_LENGTH = 255;
+    private static final String DOMAIN_NOT_CHECKED = "The email address domain could not be checked. Try again later";
+
+    private final EntraUserRepository entraUserRepository;
+    private final EmailValidationService emailValidationService;
+    private final Validator validator;
+    private final ExecutorService domainCheckExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.user.import.max.rows:1000}")
+    private int maxRows = 1000;
+
+    @Value("${app.user.import.validation.parallelism:16}")
+    private int parallelism = 16;
+
+    @Value("${app.user.import.validation.timeout.seconds:30}")
+    private int timeoutSeconds = 30;
+
+    public UserImportValidationService(EntraUserRepository entraUserRepository,
+                                       EmailValidationService emailValidationService, Validator validator) {
+        this.entraUserRepository = entraUserRepository;
+        this.emailValidationService = emailValidationService;
+        this.validator = validator;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Stops the domain checks still running, so that none outlive the application context.
+     */
+    @PreDestroy
+    public void onShutdown() {
+        domainCheckExecutor.shutdownNow();
+    }
+
+    /**
+     * Reads and checks every row of the file. Rows that can be imported come back
+     * {@code PENDING}, the rest {@code INVALID} with the reasons why. Row numbers are the row in
+     * the file, counting the header as row 1.
+     *
+     * @throws IllegalArgumentException if the file cannot be read as CSV, is missing a column,
+     *                                  has no users or has more than the maximum allowed
+     */
+    public List<UserImportRow> readAndValidate(InputStream file) {
+        List<ReadRow> rows = read(file);
+        rows.forEach(this::checkFormat);
+        checkDuplicatesInFile(rows);
+
+        Map<String, CompletableFuture<Boolean>> domainChecks = startDomainChecks(rows);
+        checkExistingUsers(rows);
+        applyDomainChecks(rows, domainChecks);
+
+        return rows.stream()
+                .map(read -> {
+                    UserImportRow row = read.row();
+                    row.setStatus(read.errors().isEmpty() ? UserImportRowStatus.PENDING : UserImportRowStatus.INVALID);
+                    row.setDetail(read.errors().isEmpty() ? null : String.join("; ", read.errors()));
+                    return row;
+                })
+                .toList();
+    }
+
+    private List<ReadRow> read(InputStream file) {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        List<ReadRow> rows = new ArrayList<>();
+        try (Reader reader = new BufferedReader(new InputStreamReader(file, StandardCharsets.UTF_8));
+             MappingIterator<Map<String, String>> values = CSV_MAPPER.readerForMapOf(String.class)
+                     .with(schema)
+                     .readValues(reader)) {
+            int rowNumber = 1;
+            boolean headerChecked = false;
+            while (values.hasNext()) {
+                Map<String, String> columns = normaliseColumns(values.next());
+                rowNumber++;
+                if (!headerChecked) {
+                    checkHeader(columns.keySet());
+                    headerChecked = true;
+                }
+                if (columns.values().stream().allMatch(value -> value == null || value.isBlank())) {
+                    continue;
+                }
+                if (rows.size() == maxRows) {
+                    throw new IllegalArgumentException("The file has more than " + maxRows
+                            + " users. Split it into smaller files");
+                }
+                String userManager = columns.get(USER_MANAGER);
+                UserImportRow row = UserImportRow.builder()
+                        .rowNumber(rowNumber)
+                        .firstName(clean(columns.get(FIRST_NAME)))
+                        .lastName(clean(columns.get(LAST_NAME)))
+                        .email(clean(columns.containsKey(EMAIL) ? columns.get(EMAIL) : columns.get(EMAIL_ADDRESS)))
+                        .userManager(Boolean.TRUE.equals(parseYesNo(userManager)))
+                        .build();
+                rows.add(new ReadRow(row, userManager, new ArrayList<>()));
+            }
+        } catch (JacksonException e) {
+            log.debug("Could not read user import file", e);
+            throw new IllegalArgumentException("The file could not be read. Check it is saved as a CSV file");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The file could not be read", e);
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("The file does not have any users in it");
+        }
+        return rows;
+    }
+
+    /**
+     * Keys columns by their header in lower case without spaces or punctuation, so "First name",
+     * "first_name" and "FirstName" are all the same column. Also drops the byte order mark
+     * spreadsheet programs put at the start of the file.
+     */
+    private static Map<String, String> normaliseColumns(Map<String, String> columns) {
+        Map<String, String> normalised = new HashMap<>();
+        columns.forEach((header, value) -> normalised.put(
+                header.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), value));
+        return normalised;
+    }
+
+    private static void checkHeader(Set<String> headers) {
+        if (!headers.contains(FIRST_NAME) || !headers.contains(LAST_NAME)
+                || !(headers.contains(EMAIL) || headers.contains(EMAIL_ADDRESS))) {
+            throw new IllegalArgumentException("The file must have First name, Last name and Email columns");
+        }
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() > MAX_VALUE_LENGTH ? trimmed.substring(0, MAX_VALUE_LENGTH) : trimmed;
+    }
+
+    /**
+     * Yes/no as a spreadsheet user might write it; blank is no.
+     *
+     * @return {@code null} if the value is neither
+     */
+    static Boolean parseYesNo(String value) {
+        if (value == null || value.isBlank()) {
+            return false;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "yes", "y", "true" -> true;
+            case "no", "n", "false" -> false;
+            default -> null;
+        };
+    }
+
+    /**
+     * Checks the row against the same constraints as the create user form.
+     */
+    private void checkFormat(ReadRow read) {
+        UserImportRow row = read.row();
+        UserDetailsForm form = new UserDetailsForm();
+        form.setFirstName(row.getFirstName());
+        form.setLastName(row.getLastName());
+        form.setEmail(row.getEmail());
+        form.setUserManager(row.isUserManager());
+        validator.validate(form).stream()
+                .sorted(Comparator.comparingInt((ConstraintViolation<UserDetailsForm> violation) ->
+                        FIELD_ORDER.indexOf(violation.getPropertyPath().toString())))
+                .map(ConstraintViolation::getMessage)
+                .forEach(read.errors()::add);
+        if (parseYesNo(read.userManager()) == null) {
+            read.errors().add("User manager must be Yes or No");
+        }
+    }
+
+    private static void checkDuplicatesInFile(List<ReadRow> rows) {
+        Map<String, Integer> firstRowByEmail = new HashMap<>();
+        for (ReadRow read : rows) {
+            String email = read.row().getEmail();
+            if (email == null || email.isEmpty()) {
+                continue;
+            }
+            Integer firstRow = firstRowByEmail.putIfAbsent(email.toLowerCase(Locale.ROOT), read.row().getRowNumber());
+            if (firstRow != null) {
+                read.errors().add("Email address is also on row " + firstRow);
+            }
+        }
+    }
+
+    private void checkExistingUsers(List<ReadRow> rows) {
+        List<ReadRow> candidates = rows.stream().filter(read -> read.errors().isEmpty()).toList();
+        List<String> emails = candidates.stream()
+                .map(read -> read.row().getEmail().toLowerCase(Locale.ROOT))
+                .toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_BATCH_SIZE) {
+            existing.addAll(entraUserRepository.findExistingLowerCaseEmails(
+                    emails.subList(from, Math.min(from + EMAIL_LOOKUP_BATCH_SIZE, emails.size()))));
+        }
+        candidates.stream()
+                .filter(read -> existing.contains(read.row().getEmail().toLowerCase(Locale.ROOT)))
+                .forEach(read -> read.errors().add("Email address already exists"));
+    }
+
+    /**
+     * Starts one check per distinct domain among the rows that are otherwise valid so far.
+     */
+    private Map<String, CompletableFuture<Boolean>> startDomainChecks(List<ReadRow> rows) {
+        Semaphore permits = new Semaphore(Math.max(parallelism, 1));
+        Map<String, CompletableFuture<Boolean>> checks = new HashMap<>();
+        for (ReadRow read : rows) {
+            if (!read.errors().isEmpty()) {
+                continue;
+            }
+            String email = read.row().getEmail();
+            checks.computeIfAbsent(domain(email), domain -> CompletableFuture.supplyAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    return emailValidationService.isValidEmailDomain(email, timeoutSeconds);
+                } finally {
+                    permits.release();
+                }
+            }, domainCheckExecutor));
+        }
+        return checks;
+    }
+
+    /**
+     * Waits for the domain checks, all of them within one {@code timeoutSeconds}, and fails the
+     * rows whose domain failed. Rows already failed for another reason before the checks were
+     * started were not checked.
+     */
+    private void applyDomainChecks(List<ReadRow> rows, Map<String, CompletableFuture<Boolean>> checks) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        Map<String, String> domainErrors = new HashMap<>();
+        checks.forEach((domain, check) -> {
+            try {
+                long remaining = Math.max(deadline - System.nanoTime(), 0);
+                if (!check.get(remaining, TimeUnit.NANOSECONDS)) {
+                    domainErrors.put(domain, "The email address domain is not valid or cannot receive emails.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                domainErrors.put(domain, DOMAIN_NOT_CHECKED);
+            } catch (Exception e) {
+                log.debug("Email domain check failed for {}", domain, e);
+                domainErrors.put(domain, DOMAIN_NOT_CHECKED);
+            }
+        });
+        for (ReadRow read : rows) {
+            String domain = domain(read.row().getEmail());
+            if (checks.containsKey(domain) && domainErrors.containsKey(domain)) {
+                read.errors().add(domainErrors.get(domain));
+            }
+        }
+    }
+
+    private static String domain(String email) {
+        return email == null ? "" : email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A row as read from the file, with its raw user manager value and the problems found with
+     * it so far.
+     */
+    private record ReadRow(UserImportRow row, String userManager, List<String> errors) {
+    }
+}
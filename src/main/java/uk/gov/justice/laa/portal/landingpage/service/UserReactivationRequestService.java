@@ -4,13 +4,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -29,12 +24,13 @@ import uk.gov.justice.laa.portal.landingpage.entity.AuthzRole;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.ReactivationRoleType;
 import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequest;
-import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequestHead;
 import uk.gov.justice.laa.portal.landingpage.model.PaginatedReactivationRequests;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestListItem;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestPageMode;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserActivationRequestHeadRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserActivationRequestRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
@@ -43,11 +39,11 @@ import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 @Slf4j
 public class UserReactivationRequestService {
     private static final int DEFAULT_PAGE_SIZE = 10;
-    private static final String UNKNOWN_USER_NAME = "Unknown user";
 
     private final LoginService loginService;
     private final FirmService firmService;
     private final UserActivationRequestRepository userActivationRequestRepository;
+    private final UserActivationRequestHeadRepository userActivationRequestHeadRepository;
     private final UserProfileRepository userProfileRepository;
     private final EntraUserRepository entraUserRepository;
     private final ReactivationTypeResolver roleTypeResolver;
@@ -56,6 +52,7 @@ public class UserReactivationRequestService {
     public UserReactivationRequestService(LoginService loginService,
                                           FirmService firmService,
                                           UserActivationRequestRepository userActivationRequestRepository,
+                                          UserActivationRequestHeadRepository userActivationRequestHeadRepository,
                                           UserProfileRepository userRepository,
                                           EntraUserRepository entraUserRepository,
                                           ReactivationTypeResolver roleTypeResolver,
@@ -63,6 +60,7 @@ public class UserReactivationRequestService {
         this.loginService = loginService;
         this.firmService = firmService;
         this.userActivationRequestRepository = userActivationRequestRepository;
+        this.userActivationRequestHeadRepository = userActivationRequestHeadRepository;
         this.userProfileRepository = userRepository;
         this.entraUserRepository = entraUserRepository;
         this.roleTypeResolver = roleTypeResolver;
@@ -157,6 +155,10 @@ public class UserReactivationRequestService {
                                                            String actorEntraOid, ReactivationRequestStatus status, boolean isApproved) {
         EntraUser entraUser = entraUserRepository.findByEntraOid(actorEntraOid).orElseThrow();
         ReactivationRoleType roleType = roleTypeResolver.resolve(entraUser);
+
+        // Takes the head lock first, so a second approval or rejection waits for this one and then fails
+        validateActiveReactivationRequestPresent(requestId);
+
         UserActivationRequest initialRequest = userActivationRequestRepository.findFirstByRequestIdOrderByVersionAsc(parseUuid(requestId)).orElseThrow();
 
         final UserActivationRequest result = createReactivationRequestEntry(requestId, userProfileId, status, comments, actorEntraOid, roleType);
@@ -203,9 +205,10 @@ public class UserReactivationRequestService {
         UUID activeRequestId = requestId != null ? parseUuid(requestId) : UUID.randomUUID();
 
         if (requestId != null) {
-            UserActivationRequest firstByRequestIdOrderByVersionDesc = userActivationRequestRepository
-                    .findFirstByRequestIdOrderByVersionDesc(parseUuid(requestId)).orElseThrow();
-            nextVersion = firstByRequestIdOrderByVersionDesc.getVersion() + 1;
+            // Locking the head makes concurrent updates to the same request append one after another
+            UserActivationRequestHead head = userActivationRequestHeadRepository
+                    .findByRequestIdForUpdate(parseUuid(requestId)).orElseThrow();
+            nextVersion = head.getVersion() + 1;
         }
 
         log.debug("Creating reactivation request entry. Request ID: {}, Profile ID: {}, Version: {}, Status: {}",
@@ -226,7 +229,7 @@ public class UserReactivationRequestService {
 
     private void validateActiveReactivationRequestPresent(String requestId) {
         log.debug("Validating active reactivation request for ID: {}", requestId);
-        UserActivationRequest request = userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(parseUuid(requestId))
+        UserActivationRequestHead request = userActivationRequestHeadRepository.findByRequestIdForUpdate(parseUuid(requestId))
                 .orElseThrow(() -> {
                     log.error("Reactivation request not found for ID: {}", requestId);
                     return new EntityNotFoundException("Reactivation request not found for ID: " + requestId);
@@ -292,15 +295,15 @@ public class UserReactivationRequestService {
                 ? List.of()
                 : List.copyOf(selectedActorRoleTypes);
 
-        List<ReactivationRequestListItem> requests = filterAndSortRequests(
-                buildRequests(currentUser, pageMode),
+        PaginatedReactivationRequests paginated = findRequests(
+                resolveFirmScope(currentUser, pageMode),
                 normalizeSearch(search),
                 effectiveStatuses,
                 effectiveActorRoleTypes,
+                page,
+                size,
                 sort,
                 direction);
-
-        PaginatedReactivationRequests paginated = paginate(requests, page, size);
         log.debug("Returning {} filtered items across {} pages for mode: {}",
                 paginated.getTotalRequests(), paginated.getTotalPages(), pageMode);
 
@@ -331,196 +334,86 @@ public class UserReactivationRequestService {
         return resolvedMode;
     }
 
-    private List<ReactivationRequestListItem> buildRequests(EntraUser currentUser, ReactivationRequestPageMode pageMode) {
-        List<UserActivationRequest> latestRequests = userActivationRequestRepository.findAllLatestRequests();
-
-        if (latestRequests.isEmpty()) {
-            log.debug("No latest reactivation requests found in database");
-            return List.of();
-        }
-
-        Set<UUID> profileIds = latestRequests.stream()
-                .map(UserActivationRequest::getUserProfileId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Map<UUID, UserProfile> profilesById = userProfileRepository.findAllByIdInWithFirm(profileIds).stream()
-                .collect(Collectors.toMap(UserProfile::getId, profile -> profile));
-
-        Set<String> actorEntraOids = latestRequests.stream()
-                .map(UserActivationRequest::getActorEntraOid)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Map<String, EntraUser> actorsByEntraOid = new HashMap<>();
-        if (!actorEntraOids.isEmpty()) {
-            entraUserRepository.findByEntraOidIn(actorEntraOids)
-                    .forEach(actor -> actorsByEntraOid.put(actor.getEntraOid(), actor));
+    /**
+     * Firms whose requests a TRACK mode user can see, or null when the list is not scoped by firm.
+     */
+    private Set<UUID> resolveFirmScope(EntraUser currentUser, ReactivationRequestPageMode pageMode) {
+        if (pageMode != ReactivationRequestPageMode.TRACK || currentUser == null) {
+            return null;
         }
 
-        Set<UUID> requestIds = latestRequests.stream()
-                .map(UserActivationRequest::getRequestId)
-                .filter(Objects::nonNull)
+        Set<UUID> allowedFirmIds = firmService.getUserActiveAllFirms(currentUser).stream()
+                .map(FirmDto::getId)
                 .collect(Collectors.toSet());
-        Map<UUID, Instant> submittedAtByRequestId = userActivationRequestRepository
-                .findAllFirstVersionsByRequestIdIn(requestIds).stream()
-                .collect(Collectors.toMap(UserActivationRequest::getRequestId, UserActivationRequest::getCreatedAt));
-
-        List<ReactivationRequestListItem> items = latestRequests.stream()
-                .map(request -> toListItem(request, profilesById.get(request.getUserProfileId()),
-                        actorsByEntraOid.get(request.getActorEntraOid()),
-                        submittedAtByRequestId.get(request.getRequestId())))
-                .toList();
-
-        if (pageMode == ReactivationRequestPageMode.TRACK && currentUser != null) {
-            Set<UUID> allowedFirmIds = firmService.getUserActiveAllFirms(currentUser).stream()
-                    .map(FirmDto::getId)
-                    .collect(Collectors.toSet());
-
-            if (allowedFirmIds.isEmpty()) {
-                log.debug("User {} has no active firms; returning empty request list in TRACK mode", currentUser.getId());
-                return List.of();
-            }
-
-            return items.stream()
-                    .filter(item -> item.firmId() != null && allowedFirmIds.contains(item.firmId()))
-                    .toList();
+        if (allowedFirmIds.isEmpty()) {
+            log.debug("User {} has no active firms; returning empty request list in TRACK mode", currentUser.getId());
         }
-
-        return items;
+        return allowedFirmIds;
     }
 
-    private ReactivationRequestListItem toListItem(UserActivationRequest request, UserProfile profile, EntraUser actor,
-                                                   Instant submittedAt) {
-        UUID firmId = profile != null && profile.getFirm() != null ? profile.getFirm().getId() : null;
-        String actorName = actor != null
-                ? (nullToEmpty(actor.getFirstName()) + " " + nullToEmpty(actor.getLastName())).trim()
-                : UNKNOWN_USER_NAME;
-        String actorEmail = actor != null ? actor.getEmail() : null;
-        EntraUser targetUser = profile != null ? profile.getEntraUser() : null;
-        String userName = targetUser != null
-                ? (nullToEmpty(targetUser.getFirstName()) + " " + nullToEmpty(targetUser.getLastName())).trim()
-                : UNKNOWN_USER_NAME;
-        String userEmail = targetUser != null ? targetUser.getEmail() : null;
-        String actorRoleType = request.getActorRoleType() != null ? request.getActorRoleType().getDisplayName() : null;
-        ReactivationRequestStatus status = ReactivationRequestStatus.valueOf(request.getStatus().name());
-        // dateSubmitted reflects when the request was originally raised (version 1),
-        // while lastActivity reflects the most recent version's timestamp (this row).
-        Instant originalSubmission = submittedAt != null ? submittedAt : request.getCreatedAt();
-        LocalDate dateSubmitted = originalSubmission != null
-                ? LocalDate.ofInstant(originalSubmission, ZoneId.systemDefault())
-                : null;
-        LocalDate lastActivity = request.getCreatedAt() != null
-                ? LocalDate.ofInstant(request.getCreatedAt(), ZoneId.systemDefault())
-                : null;
-
-        return new ReactivationRequestListItem(
-                request.getId(),
-                request.getRequestId(),
-                request.getUserProfileId(),
-                request.getVersion(),
-                status,
-                request.getComments(),
-                request.getActorEntraOid(),
-                actorRoleType,
-                actorName.isBlank() ? UNKNOWN_USER_NAME : actorName,
-                actorEmail,
-                userName.isBlank() ? UNKNOWN_USER_NAME : userName,
-                userEmail,
-                dateSubmitted,
-                lastActivity,
-                firmId);
-    }
-
-    private String nullToEmpty(String value) {
-        return value == null ? "" : value;
-    }
-
-    private List<ReactivationRequestListItem> filterAndSortRequests(
-            List<ReactivationRequestListItem> requests,
+    /**
+     * Filters, sorts and pages the latest version of each request in the database, loading only
+     * the rows for the requested page.
+     */
+    private PaginatedReactivationRequests findRequests(
+            Set<UUID> firmIds,
             String search,
             List<ReactivationRequestStatus> selectedStatuses,
             List<ReactivationRoleType> selectedActorRoleTypes,
+            int page,
+            int requestedSize,
             String sort,
             String direction) {
 
-        Set<ReactivationRequestStatus> statusFilter = selectedStatuses == null
-                ? Set.of()
-                : new HashSet<>(selectedStatuses);
-        Set<String> actorRoleTypeLabelFilter = selectedActorRoleTypes == null || selectedActorRoleTypes.isEmpty()
-                ? Set.of()
-                : selectedActorRoleTypes.stream().map(ReactivationRoleType::getDisplayName).collect(Collectors.toSet());
-
-        Comparator<ReactivationRequestListItem> comparator = resolveComparator(sort);
-        if (!"asc".equalsIgnoreCase(direction)) {
-            comparator = comparator.reversed();
-        }
-
-        return requests.stream()
-                .filter(item -> search.isBlank() || matchesSearch(item, search))
-                .filter(item -> statusFilter.isEmpty() || statusFilter.contains(item.requestStatus()))
-                .filter(item -> actorRoleTypeLabelFilter.isEmpty() || actorRoleTypeLabelFilter.contains(item.actorRoleType()))
-                .sorted(comparator)
-                .toList();
-    }
-
-    private boolean matchesSearch(ReactivationRequestListItem item, String search) {
-        return containsIgnoreCase(item.requestId(), search)
-                || containsIgnoreCase(item.userProfileId(), search)
-                || containsIgnoreCase(item.userName(), search)
-                || containsIgnoreCase(item.userEmail(), search)
-                || containsIgnoreCase(item.actorName(), search)
-                || containsIgnoreCase(item.actorEntraOid(), search)
-                || containsIgnoreCase(item.comments(), search);
-    }
-
-    private boolean containsIgnoreCase(Object value, String search) {
-        return value != null && value.toString().toLowerCase(Locale.UK).contains(search);
-    }
-
-    private PaginatedReactivationRequests paginate(List<ReactivationRequestListItem> requests, int page, int requestedSize) {
         int pageSize = requestedSize > 0 ? requestedSize : DEFAULT_PAGE_SIZE;
         int safePage = Math.max(1, page);
 
-        int totalItems = requests.size();
+        long totalItems = firmIds != null && firmIds.isEmpty()
+                ? 0
+                : userActivationRequestRepository.countLatestRequests(search, selectedStatuses, selectedActorRoleTypes, firmIds);
         int totalPages = totalItems == 0 ? 0 : (int) Math.ceil((double) totalItems / pageSize);
         int boundedPage = totalPages == 0 ? 0 : Math.min(safePage, totalPages);
-        int startIndex = boundedPage == 0 ? 0 : (boundedPage - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalItems);
 
-        List<ReactivationRequestListItem> pageItems = startIndex >= totalItems
+        List<ReactivationRequestListItem> pageItems = boundedPage == 0
                 ? List.of()
-                : requests.subList(startIndex, endIndex);
+                : userActivationRequestRepository.findLatestRequests(search, selectedStatuses, selectedActorRoleTypes,
+                                firmIds, sort, "asc".equalsIgnoreCase(direction), (boundedPage - 1) * pageSize, pageSize)
+                        .stream()
+                        .map(this::toListItem)
+                        .toList();
 
         PaginatedReactivationRequests paginated = new PaginatedReactivationRequests();
         paginated.setRequests(pageItems);
-        paginated.setTotalRequests(totalItems);
+        paginated.setTotalRequests((int) totalItems);
         paginated.setTotalPages(totalPages);
         paginated.setCurrentPage(boundedPage);
         paginated.setPageSize(pageSize);
         return paginated;
     }
 
-    private Comparator<ReactivationRequestListItem> resolveComparator(String sort) {
-        if (sort == null) {
-            return Comparator.comparing(ReactivationRequestListItem::dateSubmitted, Comparator.nullsLast(LocalDate::compareTo));
-        }
+    private ReactivationRequestListItem toListItem(Object[] row) {
+        // dateSubmitted reflects when the request was originally raised (version 1),
+        // while lastActivity reflects the most recent version's timestamp (this row).
+        return new ReactivationRequestListItem(
+                (UUID) row[0],
+                (UUID) row[1],
+                (UUID) row[2],
+                row[3] != null ? ((Number) row[3]).intValue() : null,
+                ReactivationRequestStatus.valueOf(row[4].toString()),
+                (String) row[5],
+                (String) row[6],
+                row[7] != null ? ReactivationRoleType.valueOf(row[7].toString()).getDisplayName() : null,
+                (String) row[8],
+                (String) row[9],
+                (String) row[10],
+                (String) row[11],
+                toLocalDate((Instant) row[12]),
+                toLocalDate((Instant) row[13]),
+                (UUID) row[14]);
+    }
 
-        return switch (sort) {
-            case "requestId" -> Comparator.comparing(item -> item.requestId().toString(), String.CASE_INSENSITIVE_ORDER);
-            case "userProfileId" -> Comparator.comparing(item -> item.userProfileId().toString(), String.CASE_INSENSITIVE_ORDER);
-            case "version" -> Comparator.comparing(ReactivationRequestListItem::version, Comparator.nullsLast(Integer::compareTo));
-            case "requestStatus" -> Comparator.comparing(item -> item.requestStatus().name(), String.CASE_INSENSITIVE_ORDER);
-            case "actorName" -> Comparator.comparing(ReactivationRequestListItem::actorName, String.CASE_INSENSITIVE_ORDER);
-            case "actorRoleType" -> Comparator.comparing(ReactivationRequestListItem::actorRoleType,
-                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
-            case "lastActivity" -> Comparator.comparing(ReactivationRequestListItem::lastActivity,
-                    Comparator.nullsLast(LocalDate::compareTo));
-            case "userName" -> Comparator.comparing(ReactivationRequestListItem::userName,
-                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
-            case "userEmail" -> Comparator.comparing(ReactivationRequestListItem::userEmail,
-                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
-            default -> Comparator.comparing(ReactivationRequestListItem::dateSubmitted,
-                    Comparator.nullsLast(LocalDate::compareTo));
-        };
+    private LocalDate toLocalDate(Instant instant) {
+        return instant != null ? LocalDate.ofInstant(instant, ZoneId.systemDefault()) : null;
     }
 
     private String normalizeSearch(String search) {
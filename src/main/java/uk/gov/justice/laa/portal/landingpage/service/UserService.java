@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
@@ -29,6 +30,7 @@ import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -125,8 +127,20 @@ public class UserService {
     private final NotificationService notificationService;
     private final AccessControlService accessControlService;
     private final DeleteUserReasonRepository deleteUserReasonRepository;
+    private final OutboxService outboxService;
+    private final AppRoleDeletionService appRoleDeletionService;
     Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    @Value("${refresh.user.silas.status.full.interval.hours:24}")
+    private long silasStatusFullRefreshHours = 24;
+
+    @Value("${refresh.user.silas.status.overlap.minutes:5}")
+    private long silasStatusOverlapMinutes = 5;
+
+    // Start of the last successful refresh, and of the last full one; null until the first run
+    private volatile LocalDateTime silasStatusRefreshedFrom;
+    private volatile LocalDateTime silasStatusFullyRefreshedAt;
+
     public UserService(@Qualifier("graphServiceClient") GraphServiceClient graphClient,
            EntraUserRepository entraUserRepository, AppRepository appRepository,
            AppRoleRepository appRoleRepository, ModelMapper mapper,
@@ -137,7 +151,8 @@ public class UserService {
            FirmRepository firmRepository, EventService eventService,
            NotificationService notificationService,
            @Lazy AccessControlService accessControlService,
-           DeleteUserReasonRepository deleteUserReasonRepository) {
+           DeleteUserReasonRepository deleteUserReasonRepository,
+           OutboxService outboxService, AppRoleDeletionService appRoleDeletionService) {
         this.graphClient = graphClient;
         this.entraUserRepository = entraUserRepository;
         this.appRepository = appRepository;
@@ -154,6 +169,8 @@ public class UserService {
         this.notificationService = notificationService;
         this.accessControlService = accessControlService;
         this.deleteUserReasonRepository = deleteUserReasonRepository;
+        this.outboxService = outboxService;
+        this.appRoleDeletionService = appRoleDeletionService;
     }
 
     public boolean hasUserFirmAlreadyAssigned(String email, UUID firmId) {
@@ -271,6 +288,16 @@ public class UserService {
         Map<String, String> result = new HashMap<>();
         UserProfile userProfile = optionalUserProfile.get();
 
+        // A role with a deletion queued or running can be kept until the deletion reaches the user, but not given
+        Set<UUID> rolesBeingDeleted = appRoleDeletionService.getRoleIdsBeingDeleted();
+        Set<UUID> heldRoleIds = Objects.isNull(userProfile.getAppRoles()) ? Set.of()
+                : userProfile.getAppRoles().stream().map(AppRole::getId).collect(Collectors.toSet());
+        boolean addingRoleBeingDeleted = assignableAppRoles.stream()
+                .anyMatch(appRole -> rolesBeingDeleted.contains(appRole.getId()) && !heldRoleIds.contains(appRole.getId()));
+        if (addingRoleBeingDeleted) {
+            throw new RuntimeException("One or more of the selected roles is being deleted");
+        }
+
         boolean self = userProfile.getEntraUser().getEntraOid().equals(modifierId.toString());
         List<UserType> modifierTypes = findUserTypeByUserEntraId(modifierId.toString());
         boolean internal = modifierTypes.contains(UserType.INTERNAL);
@@ -296,30 +323,16 @@ public class UserService {
         Map<String, Set<String>> oldPuiRoles = filterByPuiRoles(userProfile.getAppRoles());
         Map<String, Set<String>> newPuiRoles = filterByPuiRoles(newRoles);
 
-        Set<String> allPuiAppOids = new HashSet<>(oldPuiRoles.keySet());
-        allPuiAppOids.addAll(newPuiRoles.keySet());
-
         // Update roles
         userProfile.setAppRoles(newRoles);
-        boolean notificationSuccess = userProfile.isLastCcmsSyncSuccessful();
-        boolean ccmsSyncResult = true;
-
-        for (String ccmsAppEntraOid : allPuiAppOids) {
-            // Try to send role change notification with retry logic before saving
-            boolean currentSyncResult = roleChangeNotificationService.sendMessage(userProfile,
-                    ccmsAppEntraOid, newPuiRoles.getOrDefault(ccmsAppEntraOid, Collections.emptySet()),
-                    oldPuiRoles.getOrDefault(ccmsAppEntraOid, Collections.emptySet()));
-            ccmsSyncResult = ccmsSyncResult && currentSyncResult;
-            notificationSuccess = ccmsSyncResult;
-        }
-
-        userProfile.setLastCcmsSyncSuccessful(notificationSuccess);
 
         refreshAndUpdatedUserProfileStatus(userProfile.getEntraUser().isEnabled(), userProfile.getEntraUser().getInvitationStatus(), userProfile);
 
-        // Save user profile with ccms sync status
         userProfileRepository.save(userProfile);
-        techServicesClient.updateRoleAssignment(userProfile.getEntraUser().getId());
+
+        // CCMS and tech services are updated by the outbox relay once this transaction commits
+        outboxService.enqueueCcmsRoleChanges(userProfile, newPuiRoles, oldPuiRoles);
+        outboxService.enqueueRoleAssignmentUpdate(userProfile.getEntraUser().getId());
         String diff = diffRole(oldRoles, newRoles);
         result.put("diff", diff);
 
@@ -1313,7 +1326,9 @@ public class UserService {
         List<AppRoleDto> appRoles = new ArrayList<>();
         if (optionalApp.isPresent()) {
             App app = optionalApp.get();
+            Set<UUID> rolesBeingDeleted = appRoleDeletionService.getRoleIdsBeingDeleted();
             appRoles = app.getAppRoles().stream()
+                    .filter(appRole -> !rolesBeingDeleted.contains(appRole.getId()))
                     .filter(appRole -> Arrays.stream(appRole.getUserTypeRestriction())
                             .anyMatch(roleUserType -> roleUserType == userType))
                     .filter(appRole -> appRole.getFirmTypeRestriction() == null
@@ -2622,27 +2637,37 @@ public class UserService {
             .build();
     }
 
+    /**
+     * Brings the stored SiLAS status of each profile in line with its roles, profile status and
+     * invitation status, in a single update that only writes profiles whose status has changed.
+     *
+     * <p>Runs over every profile the first time and then every
+     * {@code refresh.user.silas.status.full.interval.hours}; in between, only profiles that were
+     * created or modified, or whose user was, since the previous run are considered. The window
+     * overlaps the previous run by {@code refresh.user.silas.status.overlap.minutes} to pick up
+     * changes committed while it ran. Role assignments removed in bulk without touching the profile
+     * are picked up by the next full run.</p>
+     */
     @Scheduled(cron = "${refresh.user.silas.status.schedule}")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void updateUserProfileSilasStatus() {
-        logger.info("Starting user profile status update task");
-        int pageSize = 500;
-        int pageNumber = 0;
-
-        Page<UserProfile> page;
-
-        do {
-            page = userProfileRepository.findAll(PageRequest.of(pageNumber, pageSize));
-
-            for (UserProfile userProfile : page.getContent()) {
-                userProfile.setSilasStatus(calculateSilasStatusForUserProfile(userProfile));
-            }
-
-            userProfileRepository.saveAll(page.getContent());
-
-            pageNumber++;
-        } while (page.hasNext());
-        logger.info("User profile status update task completed");
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = silasStatusRefreshedFrom;
+        LocalDateTime lastFull = silasStatusFullyRefreshedAt;
+        boolean fullRefresh = since == null || lastFull == null
+                || Duration.between(lastFull, startedAt).toHours() >= silasStatusFullRefreshHours;
+
+        int updated;
+        if (fullRefresh) {
+            logger.info("Starting full user profile status update task");
+            updated = userProfileRepository.refreshAllSilasStatuses();
+            silasStatusFullyRefreshedAt = startedAt;
+        } else {
+            logger.debug("Starting user profile status update task for changes since {}", since);
+            updated = userProfileRepository.refreshSilasStatusesChangedSince(since);
+        }
+        silasStatusRefreshedFrom = startedAt.minusMinutes(silasStatusOverlapMinutes);
+        logger.info("User profile status update task completed, {} profile(s) updated", updated);
     }
 
     @Transactional
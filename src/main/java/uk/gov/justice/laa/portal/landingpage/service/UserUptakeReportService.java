@@ -3,11 +3,12 @@ package uk.gov.justice.laa.portal.landingpage.service;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import tools.jackson.dataformat.csv.CsvMapper;
 import tools.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
-import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -27,68 +28,37 @@ public class UserUptakeReportService {
 
     private final ReportUploadService reportUploadService;
     private final EntraUserRepository entraUserRepository;
-    private final FirmRepository firmRepository;
+    private final MeterRegistry meterRegistry;
 
     private static final String FOLDER_PATH = "user_uptake_reports";
     private static final DateTimeFormatter FILE_TIMESTAMP =
             DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmm");
 
+    /**
+     * Refreshes the uptake summary and uploads it as a CSV, so the report reflects the data at the
+     * time it runs.
+     */
     public void getUserUptakeReport() {
+        getUserUptakeReport(() -> { });
+    }
 
-        List<ReportRow> rows = List.of(
-                new ReportRow(
-                        "Internal Users",
-                        entraUserRepository.countInternalUsers(),
-                        null
-                ),
-                new ReportRow(
-                        "Total External Users",
-                        entraUserRepository.countTotalExternalUsers(),
-                        entraUserRepository.countTotalExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "Active External Users",
-                        entraUserRepository.countActiveExternalUsers(),
-                        entraUserRepository.countActiveExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "Complete External Users",
-                        entraUserRepository.countCompleteExternalUsers(),
-                        entraUserRepository.countCompleteExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "External Users with No Roles Assigned",
-                        entraUserRepository.countExternalUsersWithNoRoles(),
-                        entraUserRepository.countExternalMultiFirmUsersWithNoRoles()
-                ),
-                new ReportRow(
-                        "Disabled External Users",
-                        entraUserRepository.countDisabledExternalUsers(),
-                        entraUserRepository.countDisabledExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "Incomplete External Users",
-                        entraUserRepository.countIncompleteExternalUsers(),
-                        entraUserRepository.countIncompleteExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "Activation Pending External Users",
-                        entraUserRepository.countActivationPendingExternalUsers(),
-                        entraUserRepository.countActivationPendingExternalMultiFirmUsers()
-                ),
-                new ReportRow(
-                        "Total Firms with External Users",
-                        firmRepository.countFirmsWithExternalUsers(),
-                        firmRepository.countFirmsWithMultiFirmExternalUsers()
-                ),
-                new ReportRow(
-                        "Total Firms with Active External Users",
-                        firmRepository.countFirmsWithActiveExternalUsers(),
-                        firmRepository.countFirmsWithActiveMultiFirmExternalUsers()
-                )
-        );
+    /**
+     * As {@link #getUserUptakeReport()}, running {@code beforeUpload} once the report is written
+     * and just before it is uploaded. It can throw to stop the upload.
+     */
+    public void getUserUptakeReport(Runnable beforeUpload) {
+        refreshUserUptakeSummary();
+
+        List<ReportRow> rows = entraUserRepository.findUserUptakeSummary().stream()
+                .map(row -> new ReportRow(
+                        (String) row[0],
+                        toLong(row[1]),
+                        toLong(row[2])
+                ))
+                .toList();
 
         File csv = writeToCsv(rows);
+        beforeUpload.run();
 
         try {
             reportUploadService.uploadCsvToSharePoint(csv, FOLDER_PATH);
@@ -97,6 +67,20 @@ public class UserUptakeReportService {
         }
     }
 
+    /**
+     * Recomputes the {@code user_uptake_summary} view, recording how long the refresh took.
+     */
+    public void refreshUserUptakeSummary() {
+        Timer.builder("user.uptake.summary.refresh")
+                .description("Time taken to refresh the user uptake summary view")
+                .register(meterRegistry)
+                .record(entraUserRepository::refreshUserUptakeSummary);
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
     private File writeToCsv(List<ReportRow> rows) {
 
         String timestamp = LocalDateTime.now().format(FILE_TIMESTAMP);
@@ -211,9 +211,11 @@ public class DemoDataPopulator {
             log.info("Attempting to populate demo data...");
             if (enableDistributedDbLocking) {
                 try {
-                    lockService.withLock(DEMO_DATA_LOCK_KEY, Duration.ofSeconds(distributedDbLockingPeriod), () -> {
+                    lockService.withLease(DEMO_DATA_LOCK_KEY, Duration.ofSeconds(distributedDbLockingPeriod), lease -> {
                         log.info("Acquired lock for demo data population");
                         initialTestData();
+                        // Rolls the data back rather than commit it alongside another instance's
+                        lease.ensureHeld();
                         log.info("Completed demo data population");
                         return null;
                     });
@@ -0,0 +1,72 @@
+package uk.gov.justice.laa.portal.landingpage.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe token bucket. Holds up to {@code capacity} permits and refills at
+ * {@code permitsPerSecond}, so short bursts are allowed while the long-run rate is capped.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private final LongSupplier nanoClock;
+    private double available;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+        this.available = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return true if a permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (available >= 1) {
+            available -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Blocks until a permit is available and takes it.
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (available >= 1) {
+                    available -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - available) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1));
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        available = Math.min(capacity, available + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -1,43 +1,116 @@
 package uk.gov.justice.laa.portal.landingpage.validation;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * Disposable email domain blocklist. A domain is blocklisted if it, or any domain it is a
+ * subdomain of, is on the list.
+ *
+ * <p>The list is read from a plain or gzipped text resource with one domain per line and
+ * {@code #} comments. When {@code app.email.blocklist.location} points at a different resource
+ * (for example a mounted {@code file:} path) it is checked for changes on a schedule and swapped
+ * in without a redeploy.</p>
+ */
+@Slf4j
 @Component
 public class BlocklistedEmailDomains {
 
-    private static final Set<String> DEFAULT_BLOCKLIST = BlocklistedEmailDomainsData.ALL;
+    static final String DEFAULT_LOCATION = "classpath:email/disposable_email_blocklist.conf.gz";
 
-    private final Set<String> domains;
+    private volatile DomainSuffixTrie domains;
+    private volatile long loadedLastModified;
+
+    @Value("${app.email.blocklist.location:" + DEFAULT_LOCATION + "}")
+    private String location = DEFAULT_LOCATION;
 
     public BlocklistedEmailDomains() {
-        this.domains = new HashSet<>(DEFAULT_BLOCKLIST);
+        this.domains = load(new DefaultResourceLoader().getResource(DEFAULT_LOCATION));
     }
 
     public BlocklistedEmailDomains(Set<String> predefinedDomains) {
-        this.domains = new HashSet<>();
+        List<String> nonNull = new ArrayList<>();
         if (predefinedDomains != null) {
             for (String d : predefinedDomains) {
                 if (d != null) {
-                    this.domains.add(d.trim().toLowerCase());
+                    nonNull.add(d);
                 }
             }
         }
+        this.domains = DomainSuffixTrie.of(nonNull);
     }
 
     public boolean isBlocklisted(String domain) {
         if (domain == null) {
             return false;
         }
-        return domains.contains(domain.trim().toLowerCase());
+        return domains.matches(domain);
     }
 
-    public Set<String> getDomains() {
-        return Collections.unmodifiableSet(domains);
+    public int size() {
+        return domains.size();
     }
-}
 
+    /**
+     * Reloads the list from {@code app.email.blocklist.location} if the resource has changed since
+     * it was last read. A list that fails to load leaves the current one in place.
+     */
+    @Scheduled(fixedDelayString = "${app.email.blocklist.reload.interval:300000}")
+    public void reloadIfChanged() {
+        if (DEFAULT_LOCATION.equals(location)) {
+            return;
+        }
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try {
+            long lastModified = resource.lastModified();
+            if (lastModified == loadedLastModified) {
+                return;
+            }
+            DomainSuffixTrie reloaded = load(resource);
+            domains = reloaded;
+            loadedLastModified = lastModified;
+            log.info("Reloaded {} blocklisted email domains from {}", reloaded.size(), location);
+        } catch (Exception e) {
+            log.error("Failed to reload blocklisted email domains from {}, keeping current list", location, e);
+        }
+    }
 
+    static DomainSuffixTrie load(Resource resource) {
+        try (InputStream in = open(resource);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Collection<String> entries = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String entry = line.strip();
+                if (!entry.isEmpty() && !entry.startsWith("#")) {
+                    entries.add(entry);
+                }
+            }
+            return DomainSuffixTrie.of(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read email domain blocklist from " + resource, e);
+        }
+    }
+
+    private static InputStream open(Resource resource) throws IOException {
+        InputStream in = resource.getInputStream();
+        String name = resource.getFilename();
+        return name != null && name.endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.justice.laa.portal.landingpage.validation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable trie of domain names keyed on their labels from right to left, so that
+ * {@code mail.example.com} is stored as {@code com -> example -> mail}. A lookup walks at most one
+ * node per label and matches a listed domain as well as any subdomain of it. Matching subdomains
+ * is what it is for: an exact lookup in a flat set of domains is several times faster.
+ */
+public final class DomainSuffixTrie {
+
+    private final Node root;
+    private final int size;
+
+    private DomainSuffixTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static DomainSuffixTrie of(Collection<String> domains) {
+        Node root = new Node();
+        int size = 0;
+        for (String domain : domains) {
+            String normalised = normalise(domain);
+            if (normalised.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            int end = normalised.length();
+            while (end > 0) {
+                int start = normalised.lastIndexOf('.', end - 1) + 1;
+                String label = normalised.substring(start, end);
+                if (!label.isEmpty()) {
+                    node = node.child(label);
+                }
+                end = start - 1;
+            }
+            if (node != root && !node.terminal) {
+                node.terminal = true;
+                size++;
+            }
+        }
+        return new DomainSuffixTrie(root, size);
+    }
+
+    /**
+     * @return true if the domain, or any domain it is a subdomain of, is in the trie
+     */
+    public boolean matches(String domain) {
+        if (domain == null) {
+            return false;
+        }
+        String normalised = normalise(domain);
+        Node node = root;
+        int end = normalised.length();
+        while (end > 0) {
+            int start = normalised.lastIndexOf('.', end - 1) + 1;
+            Map<String, Node> children = node.children;
+            node = children == null ? null : children.get(normalised.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+            end = start - 1;
+        }
+        return false;
+    }
+
+    /**
+     * @return true only if this exact domain is in the trie
+     */
+    public boolean contains(String domain) {
+        if (domain == null) {
+            return false;
+        }
+        String normalised = normalise(domain);
+        Node node = root;
+        int end = normalised.length();
+        while (end > 0 && node != null) {
+            int start = normalised.lastIndexOf('.', end - 1) + 1;
+            node = node.children == null ? null : node.children.get(normalised.substring(start, end));
+            end = start - 1;
+        }
+        return node != null && node != root && node.terminal;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String normalise(String domain) {
+        String trimmed = domain.trim().toLowerCase(Locale.ROOT);
+        return trimmed.endsWith(".") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static final class Node {
+
+        private Map<String, Node> children;
+        private boolean terminal;
+
+        private Node child(String label) {
+            if (children == null) {
+                children = new HashMap<>(2);
+            }
+            return children.computeIfAbsent(label, l -> new Node());
+        }
+    }
+}
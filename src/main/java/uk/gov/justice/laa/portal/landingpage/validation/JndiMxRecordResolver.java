@@ -0,0 +1,55 @@
+package uk.gov.justice.laa.portal.landingpage.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.util.Hashtable;
+
+/**
+ * Resolves MX records through the JDK's JNDI DNS provider. JNDI does not expose record TTLs, so
+ * answers from this resolver are cached for the configured default TTLs.
+ */
+@Slf4j
+@Component
+public class JndiMxRecordResolver implements MxRecordResolver {
+
+    // Bound the provider's own retries (default 1s initial timeout doubling over 4 retries)
+    private static final String INITIAL_TIMEOUT_MILLIS = "1000";
+    private static final String RETRIES = "2";
+
+    @Override
+    public MxLookup lookup(String domain) throws NamingException {
+        log.debug("Performing MX record lookup for domain: {}", domain);
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
+        env.put("java.naming.provider.url", "dns:");
+        env.put("com.sun.jndi.dns.timeout.initial", INITIAL_TIMEOUT_MILLIS);
+        env.put("com.sun.jndi.dns.timeout.retries", RETRIES);
+
+        DirContext dirContext = new InitialDirContext(env);
+        try {
+            Attributes attrs = dirContext.getAttributes(domain, new String[]{"MX"});
+            Attribute mxAttr = attrs.get("MX");
+
+            boolean recordsFound = mxAttr != null && mxAttr.size() > 0;
+            if (recordsFound) {
+                log.debug("Successfully found MX records for domain: {}", domain);
+            } else {
+                log.debug("No MX records found for domain: {}", domain);
+            }
+            return new MxLookup(recordsFound, null);
+        } catch (NameNotFoundException e) {
+            // Non-existent domain
+            log.debug("DNS name not found (response code 3) for domain: {}", domain);
+            return MxLookup.notFound(null);
+        } finally {
+            dirContext.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package uk.gov.justice.laa.portal.landingpage.validation;
+
+import javax.naming.NamingException;
+import java.time.Duration;
+
+/**
+ * Looks up the MX records of an email domain.
+ */
+public interface MxRecordResolver {
+
+    /**
+     * @param domain the lower-case domain to look up
+     * @return whether the domain has MX records, with the DNS TTL of the answer when known
+     * @throws NamingException when DNS could not give an answer either way
+     */
+    MxLookup lookup(String domain) throws NamingException;
+
+    /**
+     * @param hasMxRecords whether any MX record was returned
+     * @param ttl          the TTL of the DNS answer, or null when the resolver cannot tell
+     */
+    record MxLookup(boolean hasMxRecords, Duration ttl) {
+
+        public static MxLookup found(Duration ttl) {
+            return new MxLookup(true, ttl);
+        }
+
+        public static MxLookup notFound(Duration ttl) {
+            return new MxLookup(false, ttl);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedDirectory;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedTokenCredential;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationProperties;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationServer;
+
+/**
+ * Runs simulated Tech Services and Graph back-ends inside the application, for load testing user
+ * management flows locally. Only on the classpath of the {@code bootRunSimulation} task, and enabled
+ * by the {@code simulation} profile, which also points the Tech Services and Graph clients at the
+ * simulation server.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.simulation.enabled", havingValue = "true")
+public class SimulationConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.simulation")
+    public SimulationProperties simulationProperties() {
+        return new SimulationProperties();
+    }
+
+    /**
+     * Stands in for the Entra client credentials used to call Tech Services.
+     */
+    @Bean("techServicesClientSecretCredential")
+    public SimulatedTokenCredential simulatedTokenCredential() {
+        return new SimulatedTokenCredential();
+    }
+
+    @Bean
+    public SimulatedDirectory simulatedDirectory(EntraUserRepository entraUserRepository) {
+        return new SimulatedDirectory(entraUserRepository);
+    }
+
+    @Bean
+    public SimulationServer simulationServer(SimulationProperties simulationProperties, SimulatedDirectory simulatedDirectory,
+                                             AppRepository appRepository, SimulatedTokenCredential simulatedTokenCredential) {
+        return new SimulationServer(simulationProperties, simulatedDirectory, appRepository, simulatedTokenCredential,
+                new ObjectMapper());
+    }
+}
@@ -0,0 +1,119 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationProperties.Backend;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationProperties.Latency;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides how a simulated back-end misbehaves for each request: how long it takes, and whether it
+ * is throttled or fails instead of being answered.
+ */
+public class FaultInjector {
+
+    /**
+     * z-score of the 99th percentile of a standard normal distribution.
+     */
+    private static final double Z_99 = 2.326;
+
+    private final Backend settings;
+    private final LongSupplier clockMillis;
+    private final AtomicLong window = new AtomicLong(packWindow(0, 0));
+
+    public FaultInjector(Backend settings) {
+        this(settings, System::currentTimeMillis);
+    }
+
+    FaultInjector(Backend settings, LongSupplier clockMillis) {
+        this.settings = settings;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Returns the fault to answer this request with, if any. Requests over the rate limit fail
+     * straight away; the others are first held for a sampled latency, as a slow upstream would.
+     */
+    public Optional<Fault> nextFault() throws InterruptedException {
+        if (overRateLimit()) {
+            return Optional.of(new Fault(429, settings.getRetryAfterSeconds()));
+        }
+        long delay = sampleLatencyMillis();
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < settings.getThrottleRate()) {
+            return Optional.of(new Fault(429, settings.getRetryAfterSeconds()));
+        }
+        if (roll < settings.getThrottleRate() + settings.getErrorRate()) {
+            return Optional.of(new Fault(503, 0));
+        }
+        return Optional.empty();
+    }
+
+    long sampleLatencyMillis() {
+        Latency latency = settings.getLatency();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (latency.getDistribution()) {
+            case FIXED -> latency.getMedianMs();
+            case UNIFORM -> latency.getMaxMs() > latency.getMinMs()
+                    ? random.nextLong(latency.getMinMs(), latency.getMaxMs() + 1)
+                    : latency.getMinMs();
+            case LOG_NORMAL -> {
+                if (latency.getMedianMs() <= 0) {
+                    yield 0;
+                }
+                double mu = Math.log(latency.getMedianMs());
+                double sigma = latency.getP99Ms() > latency.getMedianMs()
+                        ? Math.log((double) latency.getP99Ms() / latency.getMedianMs()) / Z_99
+                        : 0;
+                yield Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    /**
+     * Counts the request against the current one-second window. The window start and count share
+     * one atomic long so the check needs no lock.
+     */
+    private boolean overRateLimit() {
+        int limit = settings.getMaxRequestsPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long second = clockMillis.getAsLong() / 1000;
+        while (true) {
+            long current = window.get();
+            long next = windowSecond(current) == second
+                    ? packWindow(second, windowCount(current) + 1)
+                    : packWindow(second, 1);
+            if (window.compareAndSet(current, next)) {
+                return windowCount(next) > limit;
+            }
+        }
+    }
+
+    private static long packWindow(long second, int count) {
+        return (second << 24) | Math.min(count, 0xFFFFFF);
+    }
+
+    private static long windowSecond(long packed) {
+        return packed >>> 24;
+    }
+
+    private static int windowCount(long packed) {
+        return (int) (packed & 0xFFFFFF);
+    }
+
+    /**
+     * A response to send instead of the real one.
+     *
+     * @param status HTTP status, 429 or 503
+     * @param retryAfterSeconds value for the {@code Retry-After} header, or 0 for none
+     */
+    public record Fault(int status, long retryAfterSeconds) {
+    }
+}
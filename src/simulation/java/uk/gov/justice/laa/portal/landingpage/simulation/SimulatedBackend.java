@@ -0,0 +1,94 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.justice.laa.portal.landingpage.simulation.FaultInjector.Fault;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Base for the simulated back-ends: applies fault injection, then hands the request to
+ * {@link #route}, with the context prefix stripped from the path.
+ */
+@Slf4j
+abstract class SimulatedBackend implements HttpHandler {
+
+    protected final ObjectMapper objectMapper;
+    private final FaultInjector faultInjector;
+
+    SimulatedBackend(ObjectMapper objectMapper, FaultInjector faultInjector) {
+        this.objectMapper = objectMapper;
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Optional<Fault> fault = faultInjector.nextFault();
+            if (fault.isPresent()) {
+                if (fault.get().retryAfterSeconds() > 0) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(fault.get().retryAfterSeconds()));
+                }
+                sendJson(exchange, fault.get().status(), faultBody(fault.get().status()));
+                return;
+            }
+            String path = exchange.getRequestURI().getRawPath()
+                    .substring(exchange.getHttpContext().getPath().length())
+                    .replaceAll("/{2,}", "/");
+            route(exchange, path.startsWith("/") ? path : "/" + path);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Simulated back-end failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            sendJson(exchange, 500, faultBody(500));
+        }
+    }
+
+    protected abstract void route(HttpExchange exchange, String path) throws IOException;
+
+    protected abstract Object faultBody(int status);
+
+    protected JsonNode readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readTree(body);
+        }
+    }
+
+    protected void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    protected static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new LinkedHashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    protected static String decode(String segment) {
+        return URLDecoder.decode(segment, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The users and security group memberships behind the simulated back-ends.
+ *
+ * <p>Users the directory has not seen yet are copied in from {@code entra_user} the first time they
+ * are asked for, so the simulation agrees with whatever is already in the local database. Every
+ * group membership change is also written to a log, which the simulated Graph group delta query
+ * reads from.</p>
+ */
+public class SimulatedDirectory {
+
+    private final EntraUserRepository entraUserRepository;
+    private final Map<String, SimulatedUser> usersById = new LinkedHashMap<>();
+    private final List<GroupChange> groupChanges = new ArrayList<>();
+
+    public SimulatedDirectory(EntraUserRepository entraUserRepository) {
+        this.entraUserRepository = entraUserRepository;
+    }
+
+    public synchronized Optional<SimulatedUser> findById(String id) {
+        SimulatedUser user = usersById.get(id);
+        if (user == null) {
+            user = entraUserRepository.findByEntraOid(id).map(this::importUser).orElse(null);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public synchronized Optional<SimulatedUser> findByMail(String mail) {
+        return usersById.values().stream()
+                .filter(user -> user.mail() != null && user.mail().equalsIgnoreCase(mail))
+                .findFirst()
+                .or(() -> entraUserRepository.findByEmailIgnoreCase(mail)
+                        .filter(entraUser -> entraUser.getEntraOid() != null)
+                        .map(this::importUser));
+    }
+
+    /**
+     * Returns the user with the given mail, creating them if there is none.
+     *
+     * @return the user, and whether they were created by this call
+     */
+    public synchronized Registration register(String givenName, String surname, String mail, Set<String> groups) {
+        Optional<SimulatedUser> existing = findByMail(mail);
+        if (existing.isPresent()) {
+            return new Registration(existing.get(), false);
+        }
+        Instant now = Instant.now();
+        SimulatedUser user = new SimulatedUser(UUID.randomUUID().toString(), givenName, surname, mail,
+                true, null, Set.of(), now, now);
+        usersById.put(user.id(), user);
+        return new Registration(setGroups(user.id(), groups).orElseThrow(), true);
+    }
+
+    public synchronized Optional<SimulatedUser> setEnabled(String id, boolean enabled, String disabledReason) {
+        return findById(id).map(user -> save(new SimulatedUser(user.id(), user.givenName(), user.surname(), user.mail(),
+                enabled, enabled ? null : disabledReason, user.groups(), user.createdAt(), Instant.now())));
+    }
+
+    public synchronized Optional<SimulatedUser> updateDetails(String id, String givenName, String surname, String mail) {
+        return findById(id).map(user -> save(new SimulatedUser(user.id(),
+                givenName != null ? givenName : user.givenName(),
+                surname != null ? surname : user.surname(),
+                mail != null ? mail : user.mail(),
+                user.enabled(), user.disabledReason(), user.groups(), user.createdAt(), Instant.now())));
+    }
+
+    /**
+     * Replaces the user's security groups and logs the memberships that changed.
+     */
+    public synchronized Optional<SimulatedUser> setGroups(String id, Set<String> groups) {
+        return findById(id).map(user -> {
+            Set<String> target = groups != null ? Set.copyOf(groups) : Set.of();
+            for (String group : target) {
+                if (!user.groups().contains(group)) {
+                    groupChanges.add(new GroupChange(group, user.id(), false));
+                }
+            }
+            for (String group : user.groups()) {
+                if (!target.contains(group)) {
+                    groupChanges.add(new GroupChange(group, user.id(), true));
+                }
+            }
+            return save(new SimulatedUser(user.id(), user.givenName(), user.surname(), user.mail(),
+                    user.enabled(), user.disabledReason(), target, user.createdAt(), Instant.now()));
+        });
+    }
+
+    public synchronized List<SimulatedUser> modifiedBetween(Instant from, Instant to) {
+        return usersById.values().stream()
+                .filter(user -> !user.modifiedAt().isBefore(from) && user.modifiedAt().isBefore(to))
+                .sorted(Comparator.comparing(SimulatedUser::modifiedAt))
+                .toList();
+    }
+
+    public synchronized List<SimulatedUser> allUsers() {
+        return List.copyOf(usersById.values());
+    }
+
+    public synchronized List<SimulatedUser> membersOf(String groupId) {
+        return usersById.values().stream()
+                .filter(user -> user.groups().contains(groupId))
+                .toList();
+    }
+
+    /**
+     * Position of the end of the group change log, for use as a delta token.
+     */
+    public synchronized int groupChangeLogSize() {
+        return groupChanges.size();
+    }
+
+    /**
+     * Membership changes for one group since the given log position. Only the latest change for
+     * each user is returned.
+     */
+    public synchronized List<GroupChange> groupChangesSince(String groupId, int position) {
+        Map<String, GroupChange> latest = new LinkedHashMap<>();
+        for (GroupChange change : groupChanges.subList(Math.min(position, groupChanges.size()), groupChanges.size())) {
+            if (change.groupId().equals(groupId)) {
+                latest.remove(change.userId());
+                latest.put(change.userId(), change);
+            }
+        }
+        return List.copyOf(latest.values());
+    }
+
+    private SimulatedUser importUser(EntraUser entraUser) {
+        Instant created = entraUser.getCreatedDate() != null
+                ? entraUser.getCreatedDate().atZone(ZoneId.systemDefault()).toInstant()
+                : Instant.EPOCH;
+        SimulatedUser user = new SimulatedUser(entraUser.getEntraOid(), entraUser.getFirstName(), entraUser.getLastName(),
+                entraUser.getEmail() != null ? entraUser.getEmail().toLowerCase(Locale.ROOT) : null,
+                entraUser.isEnabled(), null, Set.of(), created, created);
+        usersById.put(user.id(), user);
+        return user;
+    }
+
+    private SimulatedUser save(SimulatedUser user) {
+        usersById.put(user.id(), user);
+        return user;
+    }
+
+    public record SimulatedUser(String id, String givenName, String surname, String mail, boolean enabled,
+                                String disabledReason, Set<String> groups, Instant createdAt, Instant modifiedAt) {
+    }
+
+    public record GroupChange(String groupId, String userId, boolean removed) {
+    }
+
+    public record Registration(SimulatedUser user, boolean created) {
+    }
+}
@@ -0,0 +1,187 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedDirectory.GroupChange;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedDirectory.SimulatedUser;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates the Microsoft Graph endpoints used for user management: listing and reading users,
+ * their group memberships, group members and the group member delta query. Collections are paged
+ * with {@code $skiptoken}, and the delta query hands out the group change log position as its
+ * {@code $deltatoken}.
+ */
+class SimulatedGraphHandler extends SimulatedBackend {
+
+    private static final Pattern USERS = Pattern.compile("^/users$");
+    private static final Pattern USER = Pattern.compile("^/users/([^/]+)$");
+    private static final Pattern MEMBER_OF = Pattern.compile("^/users/([^/]+)/memberOf$");
+    private static final Pattern GROUP_MEMBERS = Pattern.compile("^/groups/([^/]+)/members$");
+    private static final Pattern GROUPS_DELTA = Pattern.compile("^/groups/delta$");
+    private static final Pattern DELTA_FILTER = Pattern.compile("id eq '([^']+)'");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final SimulatedDirectory directory;
+    private final String baseUrl;
+
+    SimulatedGraphHandler(ObjectMapper objectMapper, FaultInjector faultInjector, SimulatedDirectory directory, String baseUrl) {
+        super(objectMapper, faultInjector);
+        this.directory = directory;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    protected void route(HttpExchange exchange, String path) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendJson(exchange, 405, graphError("methodNotAllowed", "Only GET is simulated"));
+            return;
+        }
+        Matcher user = USER.matcher(path);
+        Matcher memberOf = MEMBER_OF.matcher(path);
+        Matcher groupMembers = GROUP_MEMBERS.matcher(path);
+        if (USERS.matcher(path).matches()) {
+            sendPage(exchange, path, directory.allUsers());
+        } else if (GROUPS_DELTA.matcher(path).matches()) {
+            groupDelta(exchange, path);
+        } else if (memberOf.matches()) {
+            getMemberOf(exchange, decode(memberOf.group(1)));
+        } else if (groupMembers.matches()) {
+            sendPage(exchange, path, directory.membersOf(decode(groupMembers.group(1))));
+        } else if (user.matches()) {
+            getUser(exchange, decode(user.group(1)));
+        } else {
+            sendJson(exchange, 404, graphError("Request_ResourceNotFound", "No simulated endpoint for " + path));
+        }
+    }
+
+    @Override
+    protected Object faultBody(int status) {
+        return status == 429
+                ? graphError("TooManyRequests", "Too many requests")
+                : graphError("serviceNotAvailable", "Simulated Graph failure");
+    }
+
+    /**
+     * Users can be addressed by object id or by mail, as with user principal names in Graph.
+     */
+    private void getUser(HttpExchange exchange, String idOrMail) throws IOException {
+        Optional<SimulatedUser> user = idOrMail.contains("@")
+                ? directory.findByMail(idOrMail)
+                : directory.findById(idOrMail);
+        if (user.isEmpty()) {
+            sendJson(exchange, 404, graphError("Request_ResourceNotFound", "Resource '" + idOrMail + "' does not exist"));
+            return;
+        }
+        sendJson(exchange, 200, userNode(user.get()));
+    }
+
+    private void getMemberOf(HttpExchange exchange, String id) throws IOException {
+        Optional<SimulatedUser> user = directory.findById(id);
+        if (user.isEmpty()) {
+            sendJson(exchange, 404, graphError("Request_ResourceNotFound", "Resource '" + id + "' does not exist"));
+            return;
+        }
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode value = page.putArray("value");
+        for (String group : user.get().groups()) {
+            value.addObject()
+                    .put("@odata.type", "#microsoft.graph.group")
+                    .put("id", group);
+        }
+        sendJson(exchange, 200, page);
+    }
+
+    private void sendPage(HttpExchange exchange, String path, List<SimulatedUser> users) throws IOException {
+        Map<String, String> query = query(exchange);
+        int offset = Integer.parseInt(query.getOrDefault("$skiptoken", "0"));
+        int pageSize = Integer.parseInt(query.getOrDefault("$top", String.valueOf(DEFAULT_PAGE_SIZE)));
+        int end = Math.min(offset + pageSize, users.size());
+
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode value = page.putArray("value");
+        users.subList(Math.min(offset, end), end).forEach(user -> value.add(userNode(user)));
+        if (end < users.size()) {
+            page.put("@odata.nextLink", baseUrl + path + "?$top=" + pageSize + "&$skiptoken=" + end);
+        }
+        sendJson(exchange, 200, page);
+    }
+
+    /**
+     * A delta query without a token returns every current member as an add; with one it returns
+     * the changes logged since. Paging uses an offset into that list.
+     */
+    private void groupDelta(HttpExchange exchange, String path) throws IOException {
+        Map<String, String> query = query(exchange);
+        Matcher filter = DELTA_FILTER.matcher(query.getOrDefault("$filter", ""));
+        if (!filter.find()) {
+            sendJson(exchange, 400, graphError("Request_BadRequest", "Simulated group delta needs a $filter on id"));
+            return;
+        }
+        String groupId = filter.group(1);
+        String deltaToken = query.get("$deltatoken");
+        int logPosition = query.containsKey("$logposition")
+                ? Integer.parseInt(query.get("$logposition"))
+                : directory.groupChangeLogSize();
+        List<GroupChange> changes = deltaToken != null
+                ? directory.groupChangesSince(groupId, Integer.parseInt(deltaToken))
+                : directory.membersOf(groupId).stream().map(user -> new GroupChange(groupId, user.id(), false)).toList();
+
+        int offset = Integer.parseInt(query.getOrDefault("$skiptoken", "0"));
+        int end = Math.min(offset + DEFAULT_PAGE_SIZE, changes.size());
+
+        ObjectNode page = objectMapper.createObjectNode();
+        ObjectNode group = page.putArray("value").addObject();
+        group.put("id", groupId);
+        ArrayNode members = group.putArray("members@delta");
+        for (GroupChange change : changes.subList(Math.min(offset, end), end)) {
+            ObjectNode member = members.addObject()
+                    .put("@odata.type", "#microsoft.graph.user")
+                    .put("id", change.userId());
+            if (change.removed()) {
+                member.putObject("@removed").put("reason", "deleted");
+            }
+        }
+
+        String filterParam = "$filter=" + URLEncoder.encode("id eq '" + groupId + "'", StandardCharsets.UTF_8).replace("+", "%20")
+                + "&$select=members";
+        if (end < changes.size()) {
+            page.put("@odata.nextLink", baseUrl + path + "?" + filterParam
+                    + (deltaToken != null ? "&$deltatoken=" + deltaToken : "")
+                    + "&$logposition=" + logPosition + "&$skiptoken=" + end);
+        } else {
+            page.put("@odata.deltaLink", baseUrl + path + "?" + filterParam + "&$deltatoken=" + logPosition);
+        }
+        sendJson(exchange, 200, page);
+    }
+
+    private ObjectNode userNode(SimulatedUser user) {
+        return objectMapper.createObjectNode()
+                .put("@odata.type", "#microsoft.graph.user")
+                .put("id", user.id())
+                .put("givenName", user.givenName())
+                .put("surname", user.surname())
+                .put("displayName", user.givenName() + " " + user.surname())
+                .put("mail", user.mail())
+                .put("userPrincipalName", user.mail())
+                .put("accountEnabled", user.enabled());
+    }
+
+    private ObjectNode graphError(String code, String message) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error")
+                .put("code", code)
+                .put("message", message);
+        return body;
+    }
+}
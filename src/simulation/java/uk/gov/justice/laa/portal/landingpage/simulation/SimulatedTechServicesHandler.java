@@ -0,0 +1,260 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppType;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedDirectory.Registration;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulatedDirectory.SimulatedUser;
+import uk.gov.justice.laa.portal.landingpage.techservices.ChangeAccountEnabledResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetAllApplicationsResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetUserResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetUsersResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.RegisterUserResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.SendUserVerificationEmailResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesErrorResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesUser;
+import uk.gov.justice.laa.portal.landingpage.techservices.UpdateSecurityGroupsResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Simulates the Tech Services user and application endpoints that {@code LiveTechServicesClient}
+ * calls, backed by a {@link SimulatedDirectory}.
+ */
+class SimulatedTechServicesHandler extends SimulatedBackend {
+
+    private static final Pattern USERS = Pattern.compile("^/[^/]+/users$");
+    private static final Pattern USER = Pattern.compile("^/[^/]+/users/([^/]+)$");
+    private static final Pattern VERIFY = Pattern.compile("^/[^/]+/users/([^/]+)/verify$");
+    private static final Pattern APPLICATIONS = Pattern.compile("^/[^/]+/applications$");
+
+    private final SimulatedDirectory directory;
+    private final AppRepository appRepository;
+
+    SimulatedTechServicesHandler(ObjectMapper objectMapper, FaultInjector faultInjector,
+                                 SimulatedDirectory directory, AppRepository appRepository) {
+        super(objectMapper, faultInjector);
+        this.directory = directory;
+        this.appRepository = appRepository;
+    }
+
+    @Override
+    protected void route(HttpExchange exchange, String path) throws IOException {
+        String method = exchange.getRequestMethod();
+        Matcher user = USER.matcher(path);
+        Matcher verify = VERIFY.matcher(path);
+        if (USERS.matcher(path).matches() && "GET".equals(method)) {
+            getUsers(exchange);
+        } else if (USERS.matcher(path).matches() && "POST".equals(method)) {
+            registerUser(exchange);
+        } else if (user.matches() && "GET".equals(method)) {
+            getUser(exchange, decode(user.group(1)));
+        } else if (user.matches() && "PATCH".equals(method)) {
+            patchUser(exchange, decode(user.group(1)));
+        } else if (verify.matches() && "POST".equals(method)) {
+            sendVerification(exchange, decode(verify.group(1)));
+        } else if (APPLICATIONS.matcher(path).matches() && "GET".equals(method)) {
+            getApplications(exchange);
+        } else {
+            sendJson(exchange, 404, error("NOT_FOUND", "No simulated endpoint for " + method + " " + path));
+        }
+    }
+
+    @Override
+    protected Object faultBody(int status) {
+        return status == 429
+                ? error("TOO_MANY_REQUESTS", "Rate limit exceeded")
+                : error("SERVICE_UNAVAILABLE", "Simulated Tech Services failure");
+    }
+
+    private void getUsers(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        Instant from;
+        Instant to;
+        try {
+            from = Instant.parse(query.getOrDefault("fromDateTime", Instant.EPOCH.toString()));
+            to = query.containsKey("toDateTime") ? Instant.parse(query.get("toDateTime")) : Instant.now();
+        } catch (DateTimeParseException e) {
+            sendJson(exchange, 400, error("BAD_REQUEST", "Invalid date range"));
+            return;
+        }
+        List<TechServicesUser> users = directory.modifiedBetween(from, to).stream()
+                .map(SimulatedTechServicesHandler::toTechServicesUser)
+                .toList();
+        if (users.isEmpty()) {
+            sendJson(exchange, 404, error("NOT_FOUND", "Users not found."));
+            return;
+        }
+        sendJson(exchange, 200, GetUsersResponse.builder()
+                .success(true)
+                .message("Users retrieved successfully")
+                .users(users)
+                .build());
+    }
+
+    private void getUser(HttpExchange exchange, String oid) throws IOException {
+        Optional<SimulatedUser> user = directory.findById(oid);
+        if (user.isEmpty()) {
+            sendJson(exchange, 404, error("USER_NOT_FOUND", "User not found"));
+            return;
+        }
+        sendJson(exchange, 200, GetUserResponse.builder()
+                .success(true)
+                .message("User retrieved successfully")
+                .user(toTechServicesUser(user.get()))
+                .build());
+    }
+
+    private void registerUser(HttpExchange exchange) throws IOException {
+        JsonNode body = readJson(exchange);
+        Registration registration = directory.register(body.path("givenName").asText(null),
+                body.path("surname").asText(null), body.path("mail").asText(null), groups(body.path("groups")));
+        sendJson(exchange, registration.created() ? 201 : 200, RegisterUserResponse.builder()
+                .success(true)
+                .message(registration.created() ? "User created" : "User already exists")
+                .user(toTechServicesUser(registration.user()))
+                .build());
+    }
+
+    /**
+     * One endpoint covers security group, account enabled and user details updates; the body says
+     * which.
+     */
+    private void patchUser(HttpExchange exchange, String oid) throws IOException {
+        JsonNode body = readJson(exchange);
+        Optional<SimulatedUser> before = directory.findById(oid);
+        if (before.isEmpty()) {
+            sendJson(exchange, 404, error("USER_NOT_FOUND", "User not found"));
+            return;
+        }
+
+        if (body.has("groups")) {
+            Set<String> groups = groups(body.get("groups"));
+            directory.setGroups(oid, groups);
+            sendJson(exchange, 200, UpdateSecurityGroupsResponse.builder()
+                    .success(true)
+                    .message("Security groups updated")
+                    .groupsAdded(uuids(groups, before.get().groups()))
+                    .groupsRemoved(uuids(before.get().groups(), groups))
+                    .build());
+        } else if (body.has("accountEnabled")) {
+            JsonNode accountEnabled = body.get("accountEnabled");
+            boolean enabled = accountEnabled.path("enabled").asBoolean();
+            directory.setEnabled(oid, enabled, accountEnabled.path("disabledReason").asText(null));
+            sendJson(exchange, 200, ChangeAccountEnabledResponse.builder()
+                    .success(true)
+                    .message(enabled ? "User enabled" : "User disabled")
+                    .build());
+        } else if (body.has("userDetails")) {
+            JsonNode details = body.get("userDetails");
+            directory.updateDetails(oid, details.path("givenName").asText(null),
+                    details.path("surname").asText(null), details.path("mail").asText(null));
+            sendJson(exchange, 200, ChangeAccountEnabledResponse.builder()
+                    .success(true)
+                    .message("User details updated")
+                    .build());
+        } else {
+            sendJson(exchange, 400, error("BAD_REQUEST", "Nothing to update"));
+        }
+    }
+
+    private void sendVerification(HttpExchange exchange, String oid) throws IOException {
+        if (directory.findById(oid).isEmpty()) {
+            sendJson(exchange, 404, error("USER_NOT_FOUND", "User not found"));
+            return;
+        }
+        sendJson(exchange, 200, SendUserVerificationEmailResponse.builder()
+                .success(true)
+                .message("Activation code has been generated and sent successfully via email.")
+                .build());
+    }
+
+    /**
+     * Lists the LAA apps already in the database, so an app sync against the simulation changes
+     * nothing.
+     */
+    private void getApplications(HttpExchange exchange) throws IOException {
+        List<GetAllApplicationsResponse.TechServicesApplication> apps = appRepository.findAppsByAppType(AppType.LAA).stream()
+                .map(SimulatedTechServicesHandler::toTechServicesApp)
+                .toList();
+        sendJson(exchange, 200, GetAllApplicationsResponse.builder().apps(apps).build());
+    }
+
+    private static TechServicesUser toTechServicesUser(SimulatedUser user) {
+        return TechServicesUser.builder()
+                .id(user.id())
+                .givenName(user.givenName())
+                .surname(user.surname())
+                .displayName(user.givenName() + " " + user.surname())
+                .mail(user.mail())
+                .email(user.mail())
+                .accountEnabled(user.enabled())
+                .createdDateTime(Date.from(user.createdAt()))
+                .groups(user.groups())
+                .customSecurityAttributes(user.disabledReason() == null ? null
+                        : TechServicesUser.CustomSecurityAttributes.builder()
+                                .guestUserStatus(TechServicesUser.GuestUserStatus.builder()
+                                        .disabledReason(user.disabledReason())
+                                        .build())
+                                .build())
+                .build();
+    }
+
+    private static GetAllApplicationsResponse.TechServicesApplication toTechServicesApp(App app) {
+        return GetAllApplicationsResponse.TechServicesApplication.builder()
+                .id(app.getEntraOid())
+                .appId(app.getEntraAppId())
+                .name(app.getName())
+                .url(app.getUrl())
+                .securityGroups(List.of(GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup.builder()
+                        .id(app.getSecurityGroupOid())
+                        .build()))
+                .build();
+    }
+
+    private static Set<String> groups(JsonNode node) {
+        Set<String> groups = new HashSet<>();
+        node.forEach(group -> groups.add(group.asText()));
+        return groups;
+    }
+
+    /**
+     * Group ids in {@code from} but not in {@code excluding}. Ids that are not UUIDs are left out,
+     * as the real response only carries Entra object ids.
+     */
+    private static List<UUID> uuids(Set<String> from, Set<String> excluding) {
+        return from.stream()
+                .filter(group -> !excluding.contains(group))
+                .flatMap(group -> {
+                    try {
+                        return Stream.of(UUID.fromString(group));
+                    } catch (IllegalArgumentException e) {
+                        return Stream.empty();
+                    }
+                })
+                .toList();
+    }
+
+    private static TechServicesErrorResponse error(String code, String message) {
+        return TechServicesErrorResponse.builder()
+                .success(false)
+                .code(code)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.credential.TokenRequestContext;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.springframework.security.oauth2.jose.jws.SignatureAlgorithm.RS256;
+
+/**
+ * Issues signed access tokens for the simulated Tech Services back-end, in place of the Entra
+ * client credentials flow. The signing key is made up at startup and published by the
+ * simulation server, so token expiry checks work as they do against Entra.
+ */
+public class SimulatedTokenCredential implements TokenCredential {
+
+    private static final long TOKEN_LIFETIME_MINUTES = 60;
+
+    private final RSAKey signingKey;
+    private final NimbusJwtEncoder encoder;
+
+    public SimulatedTokenCredential() {
+        try {
+            this.signingKey = new RSAKeyGenerator(2048)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .keyID(UUID.randomUUID().toString())
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unable to generate simulated token signing key", e);
+        }
+        this.encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+    }
+
+    @Override
+    public Mono<AccessToken> getToken(TokenRequestContext request) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(TOKEN_LIFETIME_MINUTES, ChronoUnit.MINUTES);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("simulation")
+                .subject("laa-landing-page")
+                .audience(request.getScopes())
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .build();
+        String token = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(RS256).keyId(signingKey.getKeyID()).build(), claims))
+                .getTokenValue();
+        return Mono.just(new AccessToken(token, expiresAt.atOffset(ZoneOffset.UTC)));
+    }
+
+    /**
+     * The public half of the signing key, as a JSON Web Key Set.
+     */
+    public String jwkSetJson() {
+        return new JWKSet(signingKey.toPublicJWK()).toString();
+    }
+}
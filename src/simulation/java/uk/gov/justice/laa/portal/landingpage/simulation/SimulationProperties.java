@@ -0,0 +1,57 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import lombok.Data;
+
+/**
+ * Settings for the simulated Tech Services and Graph back-ends, bound from {@code app.simulation.*}.
+ */
+@Data
+public class SimulationProperties {
+
+    private boolean enabled;
+    /**
+     * Port the simulated back-ends listen on; 0 picks a free port.
+     */
+    private int port = 8089;
+    private Backend techServices = new Backend();
+    private Backend graph = new Backend();
+
+    @Data
+    public static class Backend {
+        private Latency latency = new Latency();
+        /**
+         * Fraction of requests answered with a 503.
+         */
+        private double errorRate;
+        /**
+         * Fraction of requests answered with a 429, on top of any rate limit.
+         */
+        private double throttleRate;
+        /**
+         * Requests allowed per second before further requests get a 429; 0 means no limit.
+         */
+        private int maxRequestsPerSecond;
+        private long retryAfterSeconds = 1;
+    }
+
+    @Data
+    public static class Latency {
+        private Distribution distribution = Distribution.FIXED;
+        /**
+         * Delay for {@code FIXED}, and the median for {@code LOG_NORMAL}.
+         */
+        private long medianMs;
+        /**
+         * 99th percentile for {@code LOG_NORMAL}.
+         */
+        private long p99Ms;
+        private long minMs;
+        private long maxMs;
+    }
+
+    public enum Distribution {
+        FIXED,
+        UNIFORM,
+        LOG_NORMAL
+    }
+}
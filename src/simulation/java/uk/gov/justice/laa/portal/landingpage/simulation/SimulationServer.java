@@ -0,0 +1,82 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server hosting the simulated back-ends on one port:
+ *
+ * <ul>
+ *     <li>{@code /tech-services/} - Tech Services users and applications</li>
+ *     <li>{@code /graph/v1.0/} - the Microsoft Graph user and group endpoints</li>
+ *     <li>{@code /simulation/keys} - the key set that simulated access tokens are signed with</li>
+ * </ul>
+ *
+ * <p>Each request runs on its own virtual thread, so injected latency holds a request without
+ * holding a platform thread, much as a slow remote service would.</p>
+ */
+@Slf4j
+public class SimulationServer {
+
+    public static final String TECH_SERVICES_PATH = "/tech-services";
+    public static final String GRAPH_PATH = "/graph/v1.0";
+    public static final String KEYS_PATH = "/simulation/keys";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SimulationServer(SimulationProperties properties, SimulatedDirectory directory, AppRepository appRepository,
+                            SimulatedTokenCredential tokenCredential, ObjectMapper objectMapper) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.getPort()), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start simulation server on port " + properties.getPort(), e);
+        }
+        server.createContext(TECH_SERVICES_PATH, new SimulatedTechServicesHandler(objectMapper,
+                new FaultInjector(properties.getTechServices()), directory, appRepository));
+        server.createContext(GRAPH_PATH, new SimulatedGraphHandler(objectMapper,
+                new FaultInjector(properties.getGraph()), directory, baseUrl() + GRAPH_PATH));
+        server.createContext(KEYS_PATH, exchange -> sendKeys(exchange, tokenCredential.jwkSetJson()));
+        server.setExecutor(executor);
+        server.start();
+        log.warn("Simulated Tech Services and Graph back-ends listening on {}", baseUrl());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void sendKeys(HttpExchange exchange, String jwkSet) throws IOException {
+        try (exchange) {
+            byte[] bytes = jwkSet.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package uk.gov.justice.laa.portal.landingpage.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.Test;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * Tests for AsyncConfig - verifying thread pool configuration for PDA sync operations.
@@ -167,4 +170,23 @@ class AsyncConfigTest {
         // Cleanup
         threadPoolExecutor.shutdown();
     }
+
+    @Test
+    void shouldRunSyncOnVirtualThreadWhenEnabled() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(asyncConfig, "virtualThreads", true);
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) asyncConfig.pdaSyncExecutor();
+
+        // When
+        Future<Thread> worker = executor.submit(Thread::currentThread);
+
+        // Then - still a single worker, but a virtual one
+        Thread thread = worker.get(5, TimeUnit.SECONDS);
+        assertThat(thread.isVirtual()).isTrue();
+        assertThat(thread.getName()).startsWith("pda-sync-");
+        assertThat(executor.getMaxPoolSize()).isEqualTo(1);
+
+        // Cleanup
+        executor.shutdown();
+    }
 }
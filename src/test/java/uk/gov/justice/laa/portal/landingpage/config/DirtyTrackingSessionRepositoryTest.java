@@ -0,0 +1,152 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DirtyTrackingSessionRepositoryTest {
+
+    private static final Instant LAST_ACCESSED = Instant.parse("2026-10-19T09:00:00Z");
+
+    @Mock
+    private FindByIndexNameSessionRepository<MapSession> delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DirtyTrackingSessionRepository<MapSession> repository;
+    private MapSession stored;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new DirtyTrackingSessionRepository<>(delegate,
+                new MeteredSessionConversionService(meterRegistry, getClass().getClassLoader()), Duration.ofSeconds(60),
+                meterRegistry);
+        stored = new MapSession("session-1");
+        stored.setLastAccessedTime(LAST_ACCESSED);
+        stored.setAttribute("offices", new ArrayList<>(List.of("office1")));
+    }
+
+    @Test
+    void save_skipsTheWriteWhenAnAttributeIsSetBackUnchanged() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+
+        List<String> offices = session.getAttribute("offices");
+        session.setAttribute("offices", new ArrayList<>(offices));
+        session.setLastAccessedTime(LAST_ACCESSED.plusSeconds(30));
+        repository.save(session);
+
+        verify(delegate, never()).save(stored);
+        assertThat(writesAvoided(DirtyTrackingSessionRepository.ATTRIBUTE)).isEqualTo(1);
+        assertThat(writesAvoided(DirtyTrackingSessionRepository.LAST_ACCESS)).isEqualTo(1);
+        assertThat(stored.getLastAccessedTime()).isEqualTo(LAST_ACCESSED);
+    }
+
+    @Test
+    void save_writesAnAttributeChangedInPlaceAndSetAgain() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+
+        List<String> offices = session.getAttribute("offices");
+        offices.add("office2");
+        session.setAttribute("offices", offices);
+        repository.save(session);
+
+        verify(delegate).save(stored);
+        assertThat(stored.<List<String>>getAttribute("offices")).containsExactly("office1", "office2");
+        assertThat(writes(DirtyTrackingSessionRepository.ATTRIBUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void save_comparesAnAttributeSetWithoutBeingReadWithTheStoredValue() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+
+        session.setAttribute("offices", new ArrayList<>(List.of("office1")));
+        session.setAttribute("page", 2);
+        repository.save(session);
+
+        verify(delegate).save(stored);
+        assertThat(stored.<Integer>getAttribute("page")).isEqualTo(2);
+        assertThat(writes(DirtyTrackingSessionRepository.ATTRIBUTE)).isEqualTo(1);
+        assertThat(writesAvoided(DirtyTrackingSessionRepository.ATTRIBUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void save_writesTheLastAccessTimeOnceTheGranularityHasPassed() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+
+        session.setLastAccessedTime(LAST_ACCESSED.plusSeconds(60));
+        repository.save(session);
+
+        verify(delegate).save(stored);
+        assertThat(stored.getLastAccessedTime()).isEqualTo(LAST_ACCESSED.plusSeconds(60));
+        assertThat(writes(DirtyTrackingSessionRepository.LAST_ACCESS)).isEqualTo(1);
+    }
+
+    @Test
+    void save_writesRemovedAttributesButIgnoresOnesThatWereNeverThere() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+
+        session.removeAttribute("missing");
+        repository.save(session);
+        verify(delegate, never()).save(stored);
+
+        session.removeAttribute("offices");
+        repository.save(session);
+        verify(delegate).save(stored);
+        assertThat(stored.getAttributeNames()).isEmpty();
+    }
+
+    @Test
+    void save_alwaysWritesNewSessions() {
+        MapSession created = new MapSession("session-2");
+        when(delegate.createSession()).thenReturn(created);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.createSession();
+
+        session.setAttribute("offices", List.of("office1"));
+        repository.save(session);
+
+        verify(delegate).save(created);
+        assertThat(created.<List<String>>getAttribute("offices")).containsExactly("office1");
+    }
+
+    @Test
+    void getAttribute_returnsWhatWasSetEvenWhenItWasNotWritten() {
+        when(delegate.findById("session-1")).thenReturn(stored);
+        DirtyTrackingSessionRepository<MapSession>.TrackedSession session = repository.findById("session-1");
+        List<String> offices = new ArrayList<>(List.of("office1"));
+
+        session.setAttribute("offices", offices);
+        repository.save(session);
+
+        assertThat(session.<List<String>>getAttribute("offices")).isSameAs(offices);
+        assertThat(session.getAttributeNames()).containsExactly("offices");
+    }
+
+    private double writes(String write) {
+        return meterRegistry.get(DirtyTrackingSessionRepository.WRITES_METRIC).tag("write", write).counter().count();
+    }
+
+    private double writesAvoided(String write) {
+        return meterRegistry.get(DirtyTrackingSessionRepository.WRITES_AVOIDED_METRIC).tag("write", write).counter().count();
+    }
+}
@@ -37,6 +37,15 @@ class GraphClientConfigTest {
         verify(credentialFactory).createCredential();
     }
 
+    @Test
+    void graphServiceClient_shouldUseConfiguredBaseUrl() {
+        ReflectionTestUtils.setField(graphClientConfig, "graphBaseUrl", "http://localhost:8089/graph/v1.0");
+
+        GraphServiceClient client = graphClientConfig.graphServiceClient();
+
+        assertThat(client.getRequestAdapter().getBaseUrl()).isEqualTo("http://localhost:8089/graph/v1.0");
+    }
+
     @Test
     void graphUploadClient_shouldReturnGraphServiceClientInstance() {
         ReflectionTestUtils.setField(graphClientConfig, "reportClientId", "test-client-id");
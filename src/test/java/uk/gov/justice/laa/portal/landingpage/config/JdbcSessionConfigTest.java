@@ -0,0 +1,53 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that the session repository wrapped by {@link JdbcSessionConfig} is the one the session
+ * filter and the other session consumers are given.
+ */
+class JdbcSessionConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(DataSource.class, () -> mock(DataSource.class))
+            .withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(JdbcSessionConfig.class);
+
+    @Test
+    void sessionFilterUsesTheDirtyTrackingRepositoryWhenJdbcSessionsAreEnabled() {
+        contextRunner
+                .withPropertyValues("SPRING_SESSION_JDBC_ENABLED=true")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBean(FindByIndexNameSessionRepository.class))
+                            .isInstanceOf(DirtyTrackingSessionRepository.class);
+                    SessionRepositoryFilter<?> filter = context.getBean(SessionRepositoryFilter.class);
+                    assertThat(ReflectionTestUtils.getField(filter, "sessionRepository"))
+                            .isInstanceOf(DirtyTrackingSessionRepository.class);
+                });
+    }
+
+    @Test
+    void nothingIsWrappedWhenJdbcSessionsAreDisabled() {
+        contextRunner
+                .withPropertyValues("SPRING_SESSION_JDBC_ENABLED=false")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).doesNotHaveBean(SessionRepositoryFilter.class);
+                    assertThat(context).doesNotHaveBean(FindByIndexNameSessionRepository.class);
+                });
+    }
+}
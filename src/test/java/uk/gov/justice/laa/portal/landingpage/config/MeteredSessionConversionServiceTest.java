@@ -0,0 +1,74 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.TypeDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredSessionConversionServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredSessionConversionService conversionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        conversionService = new MeteredSessionConversionService(meterRegistry, getClass().getClassLoader());
+    }
+
+    @Test
+    void convert_roundTripsAttributesAndRecordsTheirSizeAndTimings() {
+        ArrayList<String> offices = new ArrayList<>(List.of("office1", "office2"));
+
+        byte[] bytes = (byte[]) conversionService.convert(offices, TypeDescriptor.valueOf(Object.class),
+                TypeDescriptor.valueOf(byte[].class));
+        Object value = conversionService.convert(bytes, TypeDescriptor.valueOf(byte[].class),
+                TypeDescriptor.valueOf(Object.class));
+
+        assertThat(value).isEqualTo(offices);
+        DistributionSummary size = meterRegistry.get(MeteredSessionConversionService.SIZE_METRIC)
+                .tag("type", "ArrayList").summary();
+        assertThat(size.count()).isEqualTo(1);
+        assertThat(size.totalAmount()).isEqualTo(bytes.length);
+        assertThat(meterRegistry.get(MeteredSessionConversionService.SERIALIZE_METRIC)
+                .tag("type", "ArrayList").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MeteredSessionConversionService.DESERIALIZE_METRIC)
+                .tag("type", "ArrayList").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void convert_tagsEachAttributeWithItsOwnType() {
+        conversionService.convert("a string", TypeDescriptor.valueOf(Object.class), TypeDescriptor.valueOf(byte[].class));
+        conversionService.convert(Boolean.TRUE, TypeDescriptor.valueOf(Object.class), TypeDescriptor.valueOf(byte[].class));
+
+        assertThat(meterRegistry.get(MeteredSessionConversionService.SIZE_METRIC).summaries())
+                .extracting(summary -> summary.getId().getTag("type"))
+                .containsExactlyInAnyOrder("String", "Boolean");
+    }
+
+    @Test
+    void takeBytesRead_returnsTheBytesTheLastAttributeWasDeserialisedFromOnce() {
+        byte[] bytes = (byte[]) conversionService.convert("step-1", TypeDescriptor.valueOf(Object.class),
+                TypeDescriptor.valueOf(byte[].class));
+        Object value = conversionService.convert(bytes, TypeDescriptor.valueOf(byte[].class),
+                TypeDescriptor.valueOf(Object.class));
+
+        assertThat(conversionService.takeBytesRead(value)).isSameAs(bytes);
+        assertThat(conversionService.takeBytesRead(value)).isNull();
+    }
+
+    @Test
+    void takeBytesRead_returnsNothingForAValueItDidNotDeserialiseLast() {
+        byte[] bytes = (byte[]) conversionService.convert(new ArrayList<>(List.of("office1")),
+                TypeDescriptor.valueOf(Object.class), TypeDescriptor.valueOf(byte[].class));
+        conversionService.convert(bytes, TypeDescriptor.valueOf(byte[].class), TypeDescriptor.valueOf(Object.class));
+
+        assertThat(conversionService.takeBytesRead(new ArrayList<>(List.of("office1")))).isNull();
+    }
+}
@@ -0,0 +1,42 @@
+package uk.gov.justice.laa.portal.landingpage.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollingConfigTest {
+
+    private final PollingConfig pollingConfig = new PollingConfig();
+
+    @Test
+    void workerSchedulerHasAThreadForEachWorker() {
+        TaskScheduler scheduler = pollingConfig.workerTaskScheduler(5);
+
+        assertThat(scheduler).isInstanceOf(ThreadPoolTaskScheduler.class);
+        ThreadPoolTaskScheduler pool = (ThreadPoolTaskScheduler) scheduler;
+        assertThat(pool.getPoolSize()).isEqualTo(5);
+        assertThat(pool.getThreadNamePrefix()).isEqualTo("worker-");
+    }
+
+    @Test
+    void defaultSchedulerUsesThePoolSizeOnPlatformThreads() {
+        TaskScheduler scheduler = pollingConfig.taskScheduler(2, 4);
+
+        assertThat(scheduler).isInstanceOf(ThreadPoolTaskScheduler.class);
+        assertThat(((ThreadPoolTaskScheduler) scheduler).getPoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    void defaultSchedulerUsesTheConcurrencyLimitOnVirtualThreads() {
+        ReflectionTestUtils.setField(pollingConfig, "virtualThreads", true);
+
+        TaskScheduler scheduler = pollingConfig.taskScheduler(2, 4);
+
+        assertThat(scheduler).isInstanceOf(SimpleAsyncTaskScheduler.class);
+        assertThat(((SimpleAsyncTaskScheduler) scheduler).getConcurrencyLimit()).isEqualTo(4);
+    }
+}
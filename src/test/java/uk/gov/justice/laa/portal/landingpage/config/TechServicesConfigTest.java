@@ -17,6 +17,7 @@ import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.service.DoNothingTechServicesClient;
 import uk.gov.justice.laa.portal.landingpage.service.TechServicesClient;
+import uk.gov.justice.laa.portal.landingpage.service.TechServicesUserCache;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -53,7 +54,8 @@ public class TechServicesConfigTest {
     void techServicesConfig_shouldCreateTechServicesNotifierInstance() {
         RestClient client = techServicesConfig.restClient("http://localhost");
         TechServicesClient techServicesClient = techServicesConfig.liveTechServicesClient(
-                clientSecretCredential, client, entraUserRepository, cacheManager, jwtDecoder, objectMapper);
+                clientSecretCredential, client, entraUserRepository, cacheManager, jwtDecoder, objectMapper,
+                new TechServicesUserCache());
 
         assertThat(techServicesClient).isNotNull();
         assertThat(techServicesClient).isInstanceOf(TechServicesClient.class);
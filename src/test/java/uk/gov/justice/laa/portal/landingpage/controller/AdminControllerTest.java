@@ -2,12 +2,13 @@ package uk.gov.justice.laa.portal.landingpage.controller;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -48,6 +49,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.AppCatalogue;
 import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
@@ -57,6 +59,8 @@ import uk.gov.justice.laa.portal.landingpage.dto.RoleCreationDto;
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
 import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
 import uk.gov.justice.laa.portal.landingpage.entity.Permission;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
@@ -68,8 +72,10 @@ import uk.gov.justice.laa.portal.landingpage.forms.AppsOrderForm;
 import uk.gov.justice.laa.portal.landingpage.forms.DeleteAppRoleReasonForm;
 import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.service.AccessControlService;
+import uk.gov.justice.laa.portal.landingpage.service.AppCatalogueService;
 import uk.gov.justice.laa.portal.landingpage.service.AppRoleService;
 import uk.gov.justice.laa.portal.landingpage.service.AppService;
+import uk.gov.justice.laa.portal.landingpage.service.AppSyncService;
 import uk.gov.justice.laa.portal.landingpage.service.EventService;
 import uk.gov.justice.laa.portal.landingpage.service.LoginService;
 import uk.gov.justice.laa.portal.landingpage.service.RoleAssignmentService;
@@ -93,6 +99,10 @@ class AdminControllerTest {
     private ModelMapper mapper;
     @Mock
     private RoleAssignmentService roleAssignmentService;
+    @Mock
+    private AppCatalogueService appCatalogueService;
+    @Mock
+    private AppSyncService appSyncService;
 
     private AdminController adminController;
     private Model model;
@@ -103,7 +113,7 @@ class AdminControllerTest {
     void setUp() {
         mapper = new ModelMapper();
         adminController = new AdminController(mapper, loginService, eventService,
-                appService, appRoleService, accessControlService, roleAssignmentService);
+                appService, appRoleService, accessControlService, roleAssignmentService, appCatalogueService, appSyncService);
         model = new ExtendedModelMap();
     }
 
@@ -114,9 +124,7 @@ class AdminControllerTest {
         List<AppDto> apps = createMockApps();
         List<AppRoleAdminDto> roles = createMockRoles();
 
-        when(appService.getAllAuthzApps()).thenReturn(adminApps);
-        when(appService.getAllLaaApps()).thenReturn(apps);
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(roles);
+        when(appCatalogueService.getCatalogue()).thenReturn(catalogue(adminApps, apps, roles));
 
         // Act
         String viewName = adminController.showAdministration("admin-apps", null, null, model, mockHttpSession);
@@ -130,10 +138,8 @@ class AdminControllerTest {
         assertThat(model.getAttribute("apps")).isEqualTo(apps);
         assertThat(model.getAttribute("roles")).isEqualTo(roles);
 
-        verify(appService).getAllAuthzApps();
-        // getAllApps is called twice - once for apps data and once for app names filter
-        verify(appService, times(1)).getAllLaaApps();
-        verify(appRoleService).getAllLaaAppRoles();
+        verify(appCatalogueService).getCatalogue();
+        verifyNoInteractions(appService, appRoleService, roleAssignmentService);
     }
 
     @Test
@@ -143,9 +149,7 @@ class AdminControllerTest {
         List<AppDto> apps = createMockApps();
         List<AppRoleAdminDto> roles = createMockRoles();
 
-        when(appService.getAllAuthzApps()).thenReturn(adminApps);
-        when(appService.getAllLaaApps()).thenReturn(apps);
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(roles);
+        when(appCatalogueService.getCatalogue()).thenReturn(catalogue(adminApps, apps, roles));
 
         // Act
         String viewName = adminController.showAdministration("roles", null, null, model, mockHttpSession);
@@ -155,8 +159,6 @@ class AdminControllerTest {
         assertEquals("roles", model.getAttribute("activeTab"));
 
         assertThat(model.getAttribute("roles")).isEqualTo(roles);
-
-        verify(appRoleService).getAllLaaAppRoles();
     }
 
     @Test
@@ -175,9 +177,10 @@ class AdminControllerTest {
         List<AppDto> apps = createMockApps();
         String appFilter = "CCMS case transfer requests";
 
-        when(appService.getAllAuthzApps()).thenReturn(adminApps);
-        when(appService.getAllLaaApps()).thenReturn(apps);
-        when(appRoleService.getLaaAppRolesByAppName(appFilter)).thenReturn(filteredRoles);
+        List<AppRoleAdminDto> allRoles = new ArrayList<>(filteredRoles);
+        allRoles.add(AppRoleAdminDto.builder().name("Crime Viewer").parentApp("Submit a crime form").build());
+
+        when(appCatalogueService.getCatalogue()).thenReturn(catalogue(adminApps, apps, allRoles));
 
         // Act
         String viewName = adminController.showAdministration("roles", appFilter, null, model, mockHttpSession);
@@ -186,8 +189,6 @@ class AdminControllerTest {
         assertEquals("silas-administration/administration", viewName);
         assertThat(model.getAttribute("roles")).isEqualTo(filteredRoles);
         assertThat(model.getAttribute("appFilter")).isEqualTo(appFilter);
-
-        verify(appRoleService).getLaaAppRolesByAppName(appFilter);
     }
 
     @Test
@@ -195,19 +196,17 @@ class AdminControllerTest {
 
         AppRoleAdminDto externalRole = new AppRoleAdminDto();
         externalRole.setUserTypeRestriction("EXTERNAL");
+        externalRole.setParentApp("Submit a crime form");
 
         AppRoleAdminDto internalRole = new AppRoleAdminDto();
         internalRole.setUserTypeRestriction("INTERNAL");
+        internalRole.setParentApp("Submit a crime form");
 
         List<AppRoleAdminDto> allRoles = List.of(externalRole, internalRole);
         List<AppDto> adminApps = createMockAdminApps();
         List<AppDto> apps = createMockApps();
 
-        when(appService.getAllAuthzApps()).thenReturn(adminApps);
-        when(appService.getAllLaaApps()).thenReturn(apps);
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(allRoles);
-        when(roleAssignmentService.getLaaAppRoleAssignmentRestrictions())
-                .thenReturn(Collections.emptyMap());
+        when(appCatalogueService.getCatalogue()).thenReturn(catalogue(adminApps, apps, allRoles));
 
         String userTypeFilter = "EXTERNAL";
 
@@ -465,9 +464,8 @@ class AdminControllerTest {
         session.setAttribute("appId", "test-id");
         session.setAttribute("appsOrderForm", new AppsOrderForm());
 
-        when(appService.getAllAuthzApps()).thenReturn(createMockAdminApps());
-        when(appService.getAllLaaApps()).thenReturn(createMockApps());
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(createMockRoles());
+        when(appCatalogueService.getCatalogue())
+                .thenReturn(catalogue(createMockAdminApps(), createMockApps(), createMockRoles()));
 
         adminController.showAdministration("admin-apps", null, null, model, session);
 
@@ -481,14 +479,12 @@ class AdminControllerTest {
     void showAdministration_withNullAppFilter_loadsAllRoles() {
         List<AppRoleAdminDto> allRoles = createMockRoles();
 
-        when(appService.getAllAuthzApps()).thenReturn(createMockAdminApps());
-        when(appService.getAllLaaApps()).thenReturn(createMockApps());
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(allRoles);
+        when(appCatalogueService.getCatalogue())
+                .thenReturn(catalogue(createMockAdminApps(), createMockApps(), allRoles));
 
         adminController.showAdministration("roles", null, null, model, mockHttpSession);
 
         assertThat(model.getAttribute("roles")).isEqualTo(allRoles);
-        verify(appRoleService).getAllLaaAppRoles();
     }
 
 
@@ -557,9 +553,8 @@ class AdminControllerTest {
 
     @Test
     void showAdministration_loadsAppNamesForFilter_sorted() {
-        when(appService.getAllAuthzApps()).thenReturn(createMockAdminApps());
-        when(appService.getAllLaaApps()).thenReturn(createMockApps());
-        when(appRoleService.getAllLaaAppRoles()).thenReturn(createMockRoles());
+        when(appCatalogueService.getCatalogue())
+                .thenReturn(catalogue(createMockAdminApps(), createMockApps(), createMockRoles()));
 
         adminController.showAdministration("roles", null, null, model, mockHttpSession);
 
@@ -1542,6 +1537,14 @@ class AdminControllerTest {
         );
     }
 
+    private AppCatalogue catalogue(List<AppDto> adminApps, List<AppDto> apps, List<AppRoleAdminDto> roles) {
+        Map<String, List<AppRoleAdminDto>> rolesByAppName = roles.stream()
+                .collect(Collectors.groupingBy(AppRoleAdminDto::getParentApp));
+        return new AppCatalogue(1L, adminApps, apps,
+                apps.stream().map(AppDto::getName).distinct().sorted().toList(),
+                roles, rolesByAppName, Map.of(), Map.of());
+    }
+
     private List<AppRoleAdminDto> createMockRoles() {
         return Arrays.asList(
                 AppRoleAdminDto.builder()
@@ -3030,6 +3033,8 @@ class AdminControllerTest {
 
             when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
             when(loginService.getCurrentProfile(authentication)).thenReturn(UserProfile.builder().id(profileId).build());
+            when(appRoleService.deleteAppRole(profileId, entraOid, appName, roleId, reason))
+                    .thenReturn(Optional.of(AppRoleDeletionJob.builder().build()));
 
             String view = adminController.submitDeleteAppRoleCheckAnswersPage(roleId, mockHttpSession, model, authentication);
 
@@ -3037,6 +3042,8 @@ class AdminControllerTest {
             verify(appRoleService).deleteAppRole(profileId, entraOid, appName, roleId, reason);
 
             assertThat(view).isEqualTo("silas-administration/delete-app-roles-confirmation");
+            assertThat(model.getAttribute("roleName")).isEqualTo(roleName);
+            assertThat(model.getAttribute("deletionAlreadyInProgress")).isEqualTo(false);
         }
 
     }
@@ -3087,7 +3094,7 @@ class AdminControllerTest {
             List<AppDto> apps = new ArrayList<>();
             apps.add(app("2", "Beta"));
             apps.add(app("1", "Alpha"));
-            when(appService.synchronizeAndGetApplicationsFromTechServices(eq(currentUser), eq(userProfileDto)))
+            when(appSyncService.plan(eq(currentUser), eq(userProfileDto)))
                     .thenReturn(AppSyncResultDto.builder().apps(apps).build());
 
             // Given: roles
@@ -3125,7 +3132,7 @@ class AdminControllerTest {
             verify(appService, times(1)).getAllAuthzApps();
             verify(loginService, times(1)).getCurrentUser(authentication);
             verify(loginService, times(1)).getCurrentProfile(authentication);
-            verify(appService, times(1)).synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
+            verify(appSyncService, times(1)).plan(currentUser, userProfileDto);
             verify(appRoleService, times(1)).getAllLaaAppRoles();
             verify(accessControlService, times(1)).authenticatedUserHasPermission(Permission.TRIGGER_LAA_APP_SYNC);
             verifyNoMoreInteractions(appService, appRoleService, accessControlService, loginService);
@@ -3152,7 +3159,7 @@ class AdminControllerTest {
 
             UserProfileDto userProfileDto = mapper.map(userProfile, UserProfileDto.class);
 
-            when(appService.synchronizeAndGetApplicationsFromTechServices(eq(currentUser), eq(userProfileDto)))
+            when(appSyncService.plan(eq(currentUser), eq(userProfileDto)))
                     .thenReturn(AppSyncResultDto.builder().apps(List.of()).build());
             when(appRoleService.getAllLaaAppRoles()).thenReturn(List.of());
 
@@ -3206,7 +3213,7 @@ class AdminControllerTest {
                     app("A3", "beta"),
                     app("A4", "Alpha") // duplicate name
             );
-            when(appService.synchronizeAndGetApplicationsFromTechServices(eq(currentUser), eq(userProfileDto)))
+            when(appSyncService.plan(eq(currentUser), eq(userProfileDto)))
                     .thenReturn(AppSyncResultDto.builder().apps(apps).build());
 
             when(appRoleService.getAllLaaAppRoles()).thenReturn(List.of());
@@ -3238,7 +3245,7 @@ class AdminControllerTest {
 
             UserProfileDto userProfileDto = mapper.map(userProfile, UserProfileDto.class);
 
-            when(appService.synchronizeAndGetApplicationsFromTechServices(eq(currentUser), eq(userProfileDto)))
+            when(appSyncService.plan(eq(currentUser), eq(userProfileDto)))
                     .thenThrow(new RuntimeException("Error while getting applications from Tech Services. Status=502"));
 
             List<AppDto> fallbackApps = List.of(app("F1", "Existing App"));
@@ -3258,11 +3265,146 @@ class AdminControllerTest {
             verify(appService, times(1)).getAllLaaApps();
         }
 
+        @Test
+        @DisplayName("Changes to apply: plan shown for review instead of the success banner")
+        void syncLaaApps_changesPlanned_showsPlanForReview() {
+            CurrentUserDto currentUser = new CurrentUserDto();
+            currentUser.setUserId(UUID.randomUUID());
+            UserProfile userProfile = UserProfile.builder().id(UUID.randomUUID()).build();
+            when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
+            when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
+            AppSyncResultDto plan = AppSyncResultDto.builder()
+                    .planId(UUID.randomUUID())
+                    .status(AppSyncPlanStatus.PLANNED)
+                    .totalChanges(2)
+                    .apps(List.of(app("1", "Alpha")))
+                    .build();
+            when(appSyncService.plan(eq(currentUser), any(UserProfileDto.class))).thenReturn(plan);
+
+            String view = adminController.syncLaaApps(authentication, model, mockHttpSession);
+
+            assertThat(view).isEqualTo(VIEW);
+            assertThat(model.getAttribute("syncPlan")).isEqualTo(plan);
+            assertThat(model.getAttribute("successMessage")).isNull();
+        }
+
+        @Test
+        void showLaaAppSyncProgress_applying_showsProgress() {
+            UUID planId = UUID.randomUUID();
+            AppSyncResultDto progress = AppSyncResultDto.builder()
+                    .planId(planId)
+                    .status(AppSyncPlanStatus.APPLYING)
+                    .totalChanges(120)
+                    .appliedChanges(50)
+                    .build();
+            when(appSyncService.getPlan(planId)).thenReturn(Optional.of(progress));
+            when(appService.getAllLaaApps()).thenReturn(List.of(app("1", "Alpha")));
+
+            String view = adminController.showLaaAppSyncProgress(planId, model);
+
+            assertThat(view).isEqualTo(VIEW);
+            assertThat(model.getAttribute("syncProgress")).isEqualTo(progress);
+            assertThat(model.getAttribute("successMessage")).isNull();
+        }
+
+        @Test
+        void showLaaAppSyncProgress_applied_showsSuccessAndErrors() {
+            UUID planId = UUID.randomUUID();
+            AppSyncResultDto progress = AppSyncResultDto.builder()
+                    .planId(planId)
+                    .status(AppSyncPlanStatus.APPLIED)
+                    .errors(new ArrayList<>(List.of("App 'X' (app id: 1): Security group OID is missing")))
+                    .build();
+            when(appSyncService.getPlan(planId)).thenReturn(Optional.of(progress));
+            when(appService.getAllLaaApps()).thenReturn(List.of());
+
+            adminController.showLaaAppSyncProgress(planId, model);
+
+            assertThat(model.getAttribute("successMessage")).isEqualTo("App Syncing successful");
+            assertThat(model.getAttribute("syncErrors")).isEqualTo(progress.getErrors());
+        }
+
+        @Test
+        void showLaaAppSyncProgress_superseded_showsFailureMessage() {
+            UUID planId = UUID.randomUUID();
+            when(appSyncService.getPlan(planId)).thenReturn(Optional.of(AppSyncResultDto.builder()
+                    .planId(planId)
+                    .status(AppSyncPlanStatus.SUPERSEDED)
+                    .build()));
+            when(appService.getAllLaaApps()).thenReturn(List.of());
+
+            adminController.showLaaAppSyncProgress(planId, model);
+
+            assertThat(model.getAttribute("syncFailureMessage")).isNotNull();
+        }
+
         private AppDto app(String id, String name) {
             return AppDto.builder().name(name).build();
         }
     }
 
+    @Nested
+    class AdministrationControllerApplyLaaAppSyncTest {
+
+        private final Authentication auth = mock(Authentication.class);
+        private final CurrentUserDto currentUser = new CurrentUserDto();
+        private final UUID userProfileId = UUID.randomUUID();
+
+        @Test
+        void applyLaaAppSync_startsApplyingClaimedPlanForTheSignedInAdmin() {
+            UUID planId = UUID.randomUUID();
+            stubCurrentAdmin();
+            when(appSyncService.startApply(planId, currentUser, userProfileId)).thenReturn(true);
+
+            String view = adminController.applyLaaAppSync(planId, auth, new RedirectAttributesModelMap());
+
+            assertThat(view).isEqualTo("redirect:/admin/silas-administration/sync/apps/" + planId);
+            verify(appSyncService).applyPlan(planId);
+        }
+
+        @Test
+        void applyLaaAppSync_doesNotApplyPlanTwice() {
+            UUID planId = UUID.randomUUID();
+            stubCurrentAdmin();
+            when(appSyncService.startApply(planId, currentUser, userProfileId)).thenReturn(false);
+
+            String view = adminController.applyLaaAppSync(planId, auth, new RedirectAttributesModelMap());
+
+            assertThat(view).isEqualTo("redirect:/admin/silas-administration/sync/apps/" + planId);
+            verify(appSyncService, never()).applyPlan(any());
+        }
+
+        @Test
+        void applyLaaAppSync_handsPlanBackWhenAnotherSyncIsRunning() {
+            UUID planId = UUID.randomUUID();
+            stubCurrentAdmin();
+            when(appSyncService.startApply(planId, currentUser, userProfileId)).thenReturn(true);
+            doThrow(new RejectedExecutionException("busy")).when(appSyncService).applyPlan(planId);
+            RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+
+            adminController.applyLaaAppSync(planId, auth, redirectAttributes);
+
+            verify(appSyncService).cancelApply(planId);
+            assertThat(redirectAttributes.getFlashAttributes()).containsKey("syncFailureMessage");
+        }
+
+        @Test
+        void showLaaAppSyncProgress_unknownPlan_notFound() {
+            UUID planId = UUID.randomUUID();
+            when(appSyncService.getPlan(planId)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> adminController.showLaaAppSyncProgress(planId, model))
+                    .isInstanceOf(ResponseStatusException.class);
+        }
+
+        private void stubCurrentAdmin() {
+            currentUser.setUserId(UUID.randomUUID());
+            currentUser.setName("Admin User");
+            when(loginService.getCurrentUser(auth)).thenReturn(currentUser);
+            when(loginService.getCurrentProfile(auth)).thenReturn(UserProfile.builder().id(userProfileId).build());
+        }
+    }
+
     @Nested
     class RoleAssignmentRestrictionControllerUnitTest {
 
@@ -3328,12 +3470,7 @@ class AdminControllerTest {
 
             MockHttpSession session = new MockHttpSession();
             // Session already has selections: A and C selected
-            List<AppRoleViewModel> sessionVms = List.of(
-                    vm(dtoA, true),
-                    vm(dtoB, false),
-                    vm(dtoC, true)
-            );
-            session.setAttribute("appRoleSelections", sessionVms);
+            session.setAttribute("appRoleSelections", new ArrayList<>(List.of(dtoA.getId(), dtoC.getId())));
 
             when(appRoleService.findById(targetId)).thenReturn(Optional.of(targetDto));
             when(appRoleService.getAssigningRolesFor(targetId)).thenReturn(List.of());
@@ -3369,16 +3506,25 @@ class AdminControllerTest {
             assertThat(view).isEqualTo("redirect:/admin/silas-administration/role/assignRestrictions/check-answers");
             assertThat(session.getAttribute("assignableAppRoleId")).isEqualTo(targetId);
 
+            // Only the ids of the picked roles are kept in session
             @SuppressWarnings("unchecked")
-            List<AppRoleViewModel> stored =
-                    (List<AppRoleViewModel>) session.getAttribute("appRoleSelections");
-            assertThat(stored).isNotNull().hasSize(3);
-            Map<String, Boolean> selectedById = new HashMap<>();
-            stored.forEach(vm -> selectedById.put(vm.getId(), vm.isSelected()));
+            List<String> stored = (List<String>) session.getAttribute("appRoleSelections");
+            assertThat(stored).containsExactly(dtoA.getId(), dtoC.getId());
+            assertThat(model.getAttribute("assigningRoleViewModels")).isNull();
+        }
 
-            assertThat(selectedById.get(dtoA.getId())).isTrue();
-            assertThat(selectedById.get(dtoB.getId())).isFalse();
-            assertThat(selectedById.get(dtoC.getId())).isTrue();
+        @Test
+        void postFirstPage_ignoresSubmittedIdsThatAreNotAuthzRoles() {
+            when(appRoleService.findById(targetId)).thenReturn(Optional.of(targetDto));
+            when(appRoleService.getAllAuthzRoles()).thenReturn(List.of(dtoA, dtoB));
+
+            RolesForm form = new RolesForm();
+            form.setRoles(List.of(dtoB.getId(), UUID.randomUUID().toString()));
+
+            MockHttpSession session = new MockHttpSession();
+            adminController.roleAssignmentRestrictionPost(targetId, form, model, session);
+
+            assertThat(session.getAttribute("appRoleSelections")).isEqualTo(List.of(dtoB.getId()));
         }
 
         @Test
@@ -3393,19 +3539,9 @@ class AdminControllerTest {
 
         @Test
         void getCheckAnswers_withSession_populatesModel_andFiltersSelf() {
-            List<AppRoleViewModel> vms = new ArrayList<>();
-            vms.add(vm(dtoA, true));
-            vms.add(vm(dtoB, false));
-            vms.add(AppRoleViewModel.builder()
-                    .id(targetId)
-                    .name("Target Role")
-                    .selected(true)
-                    .build()
-            );
-
             MockHttpSession session = new MockHttpSession();
             session.setAttribute("assignableAppRoleId", targetId);
-            session.setAttribute("appRoleSelections", vms);
+            session.setAttribute("appRoleSelections", new ArrayList<>(List.of(dtoA.getId(), targetId)));
 
             when(appRoleService.findById(targetId)).thenReturn(Optional.of(targetDto));
             when(appRoleService.getAssigningRolesFor(targetId)).thenReturn(List.of(dtoB)); // original
@@ -3446,21 +3582,10 @@ class AdminControllerTest {
         @Test
         void postCheckAnswers_withSession_callsServiceWithDistinctFilteredIds_andClearsSession() {
             // Selected include duplicates and self
-            List<AppRoleViewModel> vms = new ArrayList<>();
-            vms.add(vm(dtoA, true));
-            vms.add(vm(dtoA, true));     // duplicate
-            vms.add(vm(dtoB, true));
-            vms.add(vm(dtoC, false));
-            vms.add(AppRoleViewModel.builder()
-                    .id(targetId)        // self
-                    .name("Target Role")
-                    .selected(true)
-                    .build()
-            );
-
             MockHttpSession session = new MockHttpSession();
             session.setAttribute("assignableAppRoleId", targetId);
-            session.setAttribute("appRoleSelections", vms);
+            session.setAttribute("appRoleSelections",
+                    new ArrayList<>(List.of(dtoA.getId(), dtoA.getId(), dtoB.getId(), targetId)));
 
             Authentication auth = mock(Authentication.class);
             CurrentUserDto currentUser = new CurrentUserDto();
@@ -3485,13 +3610,5 @@ class AdminControllerTest {
             assertThat(session.getAttribute("assignableAppRoleId")).isNull();
             assertThat(session.getAttribute("appRoleSelections")).isNull();
         }
-
-        private AppRoleViewModel vm(AppRoleDto dto, boolean selected) {
-            return AppRoleViewModel.builder()
-                    .id(dto.getId())
-                    .name(dto.getName())
-                    .selected(selected)
-                    .build();
-        }
     }
 }
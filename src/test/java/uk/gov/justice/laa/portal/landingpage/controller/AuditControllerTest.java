@@ -68,6 +68,7 @@ import uk.gov.justice.laa.portal.landingpage.service.ExternalUserPollingService;
 import uk.gov.justice.laa.portal.landingpage.service.FirmService;
 import uk.gov.justice.laa.portal.landingpage.service.LoginService;
 import uk.gov.justice.laa.portal.landingpage.service.TechServicesClient;
+import uk.gov.justice.laa.portal.landingpage.service.TechServicesUserCache;
 import uk.gov.justice.laa.portal.landingpage.service.UserAccountStatusService;
 import uk.gov.justice.laa.portal.landingpage.service.UserService;
 import uk.gov.justice.laa.portal.landingpage.techservices.GetUserResponse;
@@ -124,7 +125,7 @@ class AuditControllerTest {
     @BeforeEach
     void setUp() {
         auditController = new AuditController(userService, loginService, eventService, accessControlService,
-                auditExportService, firmService, authenticatedUser, techServicesClient, userAccountStatusService, externalUserPollingService,
+                auditExportService, firmService, authenticatedUser, techServicesClient, new TechServicesUserCache(), userAccountStatusService, externalUserPollingService,
                 entraUserRepository);
         model = new ExtendedModelMap();
 
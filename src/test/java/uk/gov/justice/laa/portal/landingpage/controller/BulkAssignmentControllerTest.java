@@ -0,0 +1,231 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.dto.OfficeDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItemStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.forms.BulkAssignmentForm;
+import uk.gov.justice.laa.portal.landingpage.repository.projection.BulkAssignmentItemView;
+import uk.gov.justice.laa.portal.landingpage.service.BulkAssignmentService;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.OfficeService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkAssignmentControllerTest {
+
+    @Mock
+    private BulkAssignmentService bulkAssignmentService;
+    @Mock
+    private FirmService firmService;
+    @Mock
+    private OfficeService officeService;
+    @Mock
+    private LoginService loginService;
+    @Mock
+    private Authentication authentication;
+
+    private BulkAssignmentController controller;
+    private Model model;
+    private UUID firmId;
+    private FirmDto firm;
+
+    @BeforeEach
+    void setUp() {
+        controller = new BulkAssignmentController(bulkAssignmentService, firmService, officeService, loginService);
+        model = new ExtendedModelMap();
+        firmId = UUID.randomUUID();
+        firm = FirmDto.builder().id(firmId).code("F1").name("Firm One").build();
+    }
+
+    @Nested
+    class Form {
+
+        private UUID userProfileId;
+        private UserProfile userProfile;
+
+        @BeforeEach
+        void setUp() {
+            userProfileId = UUID.randomUUID();
+            userProfile = UserProfile.builder().id(userProfileId).build();
+            when(firmService.getFirm(firmId)).thenReturn(firm);
+            when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
+        }
+
+        private void mockOffices(String search, int page, OfficeDto... offices) {
+            when(officeService.searchFirmOffices(List.of(firmId), search, page, 20)).thenReturn(PaginatedOffices.builder()
+                    .offices(List.of(offices)).currentPage(page).totalPages(3).pageSize(20).build());
+        }
+
+        @Test
+        void bulkAssign_showsMatchingUsersRolesAndFirstPageOfOffices() {
+            OfficeDto office = OfficeDto.builder().id(UUID.randomUUID()).code("A1").build();
+            mockOffices(null, 1, office);
+            when(bulkAssignmentService.countMatchingUsers(firmId, "smith", userProfileId)).thenReturn(12L);
+            when(bulkAssignmentService.getAssignableRoles(firm, userProfile)).thenReturn(List.of());
+
+            String view = controller.bulkAssign(firmId, " smith ", model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/bulk-assign");
+            assertThat(model.getAttribute("firm")).isEqualTo(firm);
+            assertThat(model.getAttribute("matchingUsers")).isEqualTo(12L);
+            assertThat(((BulkAssignmentForm) model.getAttribute("bulkAssignmentForm")).getSearch()).isEqualTo("smith");
+            assertThat(model.getAttribute("offices")).isEqualTo(List.of(office));
+            assertThat(((PaginatedOffices) model.getAttribute("officePage")).getCurrentPage()).isEqualTo(1);
+            assertThat(model.getAttribute(ModelAttributes.PAGE_TITLE)).isEqualTo("Change roles and offices - Firm One");
+        }
+
+        @Test
+        void bulkAssignPost_pagesOfficesKeepingOfficesPickedOnOtherPages() {
+            OfficeDto shown = OfficeDto.builder().id(UUID.randomUUID()).code("B2").build();
+            String pickedElsewhere = UUID.randomUUID().toString();
+            mockOffices("b", 2, shown);
+            BulkAssignmentForm form = BulkAssignmentForm.builder().search("").officeSearch("b")
+                    .addOffices(List.of(pickedElsewhere, shown.getId().toString()))
+                    .removeOffices(List.of(pickedElsewhere)).build();
+
+            String view = controller.bulkAssignPost(firmId, form, null, 2, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/bulk-assign");
+            assertThat(model.getAttribute("offices")).isEqualTo(List.of(shown));
+            assertThat(model.getAttribute("otherAddOffices")).isEqualTo(List.of(pickedElsewhere));
+            assertThat(model.getAttribute("otherRemoveOffices")).isEqualTo(List.of(pickedElsewhere));
+            verify(bulkAssignmentService, never()).requestAssignment(any(), any(), any(), any());
+        }
+
+        @Test
+        void bulkAssignPost_officeSearchStartsAtFirstPage() {
+            mockOffices("sw1", 1);
+            BulkAssignmentForm form = BulkAssignmentForm.builder().search("").officeSearch("sw1").officePage(3).build();
+
+            String view = controller.bulkAssignPost(firmId, form, "officeSearch", null, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/bulk-assign");
+            assertThat(form.getOfficePage()).isEqualTo(1);
+            verify(bulkAssignmentService, never()).requestAssignment(any(), any(), any(), any());
+        }
+
+        @Test
+        void bulkAssignPost_reRendersWithErrorWhenRejected() {
+            mockOffices(null, 1);
+            mockCurrentUser();
+            BulkAssignmentForm form = BulkAssignmentForm.builder().search("").build();
+            when(bulkAssignmentService.requestAssignment(any(), any(), any(), any()))
+                    .thenThrow(new IllegalArgumentException("Select at least one role or office to add or remove"));
+
+            String view = controller.bulkAssignPost(firmId, form, "confirm", null, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/bulk-assign");
+            assertThat(model.getAttribute("errorMessage")).isEqualTo("Select at least one role or office to add or remove");
+            assertThat(model.getAttribute("bulkAssignmentForm")).isEqualTo(form);
+        }
+
+        @Test
+        void bulkAssignPost_reRendersWithErrorWhenAlreadyRunning() {
+            mockOffices(null, 1);
+            mockCurrentUser();
+            BulkAssignmentForm form = BulkAssignmentForm.builder().search("").build();
+            when(bulkAssignmentService.requestAssignment(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+            String view = controller.bulkAssignPost(firmId, form, "confirm", null, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/bulk-assign");
+            assertThat((String) model.getAttribute("errorMessage")).contains("already being made");
+        }
+
+        private void mockCurrentUser() {
+            CurrentUserDto currentUser = new CurrentUserDto();
+            currentUser.setUserId(UUID.randomUUID());
+            when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
+        }
+    }
+
+    @Test
+    void bulkAssignPost_searchRedirectsWithEncodedSearch() {
+        BulkAssignmentForm form = BulkAssignmentForm.builder().search(" jo smith ").build();
+
+        String view = controller.bulkAssignPost(firmId, form, "search", null, model, authentication);
+
+        assertThat(view).isEqualTo("redirect:/admin/firmDirectory/" + firmId + "/bulk-assign?search=jo%20smith");
+        verifyNoInteractions(bulkAssignmentService, firmService);
+    }
+
+    @Test
+    void bulkAssignPost_redirectsToProgressPageWhenQueued() {
+        UUID entraOid = UUID.randomUUID();
+        UserProfile userProfile = UserProfile.builder().id(UUID.randomUUID()).build();
+        CurrentUserDto currentUser = new CurrentUserDto();
+        currentUser.setUserId(entraOid);
+        BulkAssignmentForm form = BulkAssignmentForm.builder().addRoles(List.of(UUID.randomUUID().toString())).build();
+        BulkAssignmentJob job = BulkAssignmentJob.builder().id(UUID.randomUUID()).firmId(firmId).build();
+        when(firmService.getFirm(firmId)).thenReturn(firm);
+        when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
+        when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
+        when(bulkAssignmentService.requestAssignment(firm, form, userProfile, entraOid)).thenReturn(Optional.of(job));
+
+        String view = controller.bulkAssignPost(firmId, form, "confirm", null, model, authentication);
+
+        assertThat(view).isEqualTo("redirect:/admin/firmDirectory/" + firmId + "/bulk-assign/" + job.getId());
+    }
+
+    @Test
+    void bulkAssignProgress_showsJobAndResults() {
+        UUID jobId = UUID.randomUUID();
+        BulkAssignmentJob job = BulkAssignmentJob.builder().id(jobId).firmId(firmId).firmName("Firm One").build();
+        BulkAssignmentItemView item = new BulkAssignmentItemView(UUID.randomUUID(), "Jo", "Smith", "jo@firm.com",
+                BulkAssignmentItemStatus.APPLIED, "Added roles: Role A");
+        when(bulkAssignmentService.getJob(jobId)).thenReturn(Optional.of(job));
+        when(bulkAssignmentService.getResults(jobId, 2, 50))
+                .thenReturn(new PageImpl<>(List.of(item), PageRequest.of(1, 50), 51));
+
+        String view = controller.bulkAssignProgress(firmId, jobId, 2, model);
+
+        assertThat(view).isEqualTo("firm-directory/bulk-assign-progress");
+        assertThat(model.getAttribute("job")).isEqualTo(job);
+        assertThat(model.getAttribute("results")).isEqualTo(List.of(item));
+        assertThat(model.getAttribute("page")).isEqualTo(2);
+        assertThat(model.getAttribute("totalPages")).isEqualTo(2);
+    }
+
+    @Test
+    void bulkAssignProgress_notFoundForAnotherFirmsJob() {
+        UUID jobId = UUID.randomUUID();
+        BulkAssignmentJob job = BulkAssignmentJob.builder().id(jobId).firmId(UUID.randomUUID()).build();
+        when(bulkAssignmentService.getJob(jobId)).thenReturn(Optional.of(job));
+
+        assertThatThrownBy(() -> controller.bulkAssignProgress(firmId, jobId, 1, model))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(bulkAssignmentService, never()).getResults(any(), anyInt(), anyInt());
+    }
+}
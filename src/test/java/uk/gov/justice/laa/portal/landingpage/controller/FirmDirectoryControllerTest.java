@@ -231,6 +231,8 @@ class FirmDirectoryControllerTest {
         when(firmService.getFirm(id)).thenReturn(firm);
         when(accessControlService.authenticatedUserHasPermission(Permission.BULK_DISABLE_FIRM_USERS)).thenReturn(true);
         when(userAccountStatusService.hasActiveUserByFirmId(any())).thenReturn(true);
+        when(accessControlService.canBulkAssignFirmUsers()).thenReturn(true);
+        when(accessControlService.canImportFirmUsers()).thenReturn(true);
         String result = firmDirectoryController.displayFirmDetails(id, model, criteria, authentication);
 
         assertThat(result).isEqualTo("firm-directory/firm-offices");
@@ -238,6 +240,8 @@ class FirmDirectoryControllerTest {
         assertThat(model.getAttribute("criteria")).isEqualTo(criteria);
         assertThat(model.getAttribute("firm")).isEqualTo(firm);
         assertThat(model.getAttribute("showDisableAllButton")).isEqualTo(true);
+        assertThat(model.getAttribute("showBulkAssignButton")).isEqualTo(true);
+        assertThat(model.getAttribute("showImportUsersButton")).isEqualTo(true);
     }
 
     @Test
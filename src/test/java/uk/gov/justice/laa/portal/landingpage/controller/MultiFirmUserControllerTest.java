@@ -25,6 +25,7 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -37,6 +38,7 @@ import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
@@ -55,6 +57,7 @@ import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
 import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
 import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.dto.OfficeDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
@@ -70,6 +73,7 @@ import uk.gov.justice.laa.portal.landingpage.forms.MultiFirmUserForm;
 import uk.gov.justice.laa.portal.landingpage.forms.OfficesForm;
 import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.model.OfficeModel;
+import uk.gov.justice.laa.portal.landingpage.model.OfficesJourneyState;
 import uk.gov.justice.laa.portal.landingpage.model.UserRole;
 import uk.gov.justice.laa.portal.landingpage.service.AppRoleService;
 import uk.gov.justice.laa.portal.landingpage.service.AppService;
@@ -85,6 +89,7 @@ import uk.gov.justice.laa.portal.landingpage.viewmodel.AppRoleViewModel;
 @ExtendWith(MockitoExtension.class)
 public class MultiFirmUserControllerTest {
     public static final String INTERNAL_USER_FIRM_PAGE = "multi-firm-user/select-admin-firm";
+    private static final String USER_ID = "8a6b3f0e-55b2-4c1e-9d2c-2f4b8f1f4a11";
     private MultiFirmUserController controller;
 
     @Mock
@@ -491,7 +496,7 @@ public class MultiFirmUserControllerTest {
         assertThat(model.getAttribute("entraUser")).isEqualTo(entraUser);
         String pageTitle = (String) model.getAttribute(ModelAttributes.PAGE_TITLE);
         assertThat(pageTitle).contains("John Doe");
-        assertThat(session.getAttribute("addProfileUserAppsModel")).isEqualTo(model);
+        assertThat(session.getAttribute("addProfileUserAppsModel")).isNull();
         List modelApps = (List) model.getAttribute("apps");
         assertThat(modelApps).containsExactly(app1);
     }
@@ -527,7 +532,7 @@ public class MultiFirmUserControllerTest {
         assertThat(model.getAttribute("entraUser")).isEqualTo(entraUser);
         String pageTitle = (String) model.getAttribute(ModelAttributes.PAGE_TITLE);
         assertThat(pageTitle).contains("John Doe");
-        assertThat(session.getAttribute("addProfileUserAppsModel")).isEqualTo(model);
+        assertThat(session.getAttribute("addProfileUserAppsModel")).isNull();
         List modelApps = (List) model.getAttribute("apps");
         assertThat(modelApps).containsExactly(app2);
     }
@@ -606,30 +611,34 @@ public class MultiFirmUserControllerTest {
     }
 
     @Test
-    void testValidationErrors_NoModelInSession() {
+    void testValidationErrors_NoUserInSession() {
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, model, session);
-
-        assertThat(view).isEqualTo("multi-firm-user/select-user-apps");
-        assertThat(model.getAttribute("addProfileUserAppsModel")).isNull();
+        assertThatThrownBy(() -> controller.selectUserAppsPost(applicationsForm, bindingResult, authentication, model,
+                session)).isInstanceOf(NoSuchElementException.class);
     }
 
     @Test
-    void testValidationErrors_WithModelInSession() {
+    void testValidationErrors_RebuildsTheAppsPage() {
         when(bindingResult.hasErrors()).thenReturn(true);
+        EntraUserDto entraUser = EntraUserDto.builder().fullName("John Doe").build();
+        session.setAttribute("entraUser", entraUser);
+        AppDto app1 = AppDto.builder().id("app1").enabled(true).selected(true).build();
+        AppDto app2 = AppDto.builder().id("app2").enabled(true).build();
+        UserProfile profile = UserProfile.builder().build();
+        when(userService.getAppsByUserType(UserType.EXTERNAL)).thenReturn(List.of(app1, app2));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(roleAssignmentService.canUserAssignRolesForApp(profile, app1)).thenReturn(true);
+        when(roleAssignmentService.canUserAssignRolesForApp(profile, app2)).thenReturn(true);
 
-        Model modelFromSession = mock(Model.class);
-        session.setAttribute("addProfileUserAppsModel", modelFromSession);
-        when(modelFromSession.getAttribute("entraUser")).thenReturn("user");
-        when(modelFromSession.getAttribute("apps")).thenReturn(List.of("app1", "app2"));
-
-        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, model, session);
+        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, authentication, model, session);
 
         assertThat(view).isEqualTo("multi-firm-user/select-user-apps");
-        assertThat(model.getAttribute("entraUser")).isEqualTo("user");
-        List modelApps = (List) model.getAttribute("apps");
-        assertThat(modelApps).containsAll(List.of("app1", "app2"));
+        assertThat(model.getAttribute("entraUser")).isEqualTo(entraUser);
+        List<AppDto> modelApps = (List<AppDto>) model.getAttribute("apps");
+        assertThat(modelApps).containsExactly(app1, app2);
+        assertThat(modelApps).noneMatch(AppDto::isSelected);
+        assertThat(session.getAttribute("addProfileUserAppsModel")).isNull();
     }
 
     @Test
@@ -637,7 +646,7 @@ public class MultiFirmUserControllerTest {
         when(bindingResult.hasErrors()).thenReturn(false);
         when(applicationsForm.getApps()).thenReturn(List.of("app1", "app2"));
 
-        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, model, session);
+        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, authentication, model, session);
 
         assertThat(view).startsWith("redirect:/admin/multi-firm/user/add/profile/select/roles");
         assertThat(session.getAttribute("applicationsForm")).isEqualTo(applicationsForm);
@@ -651,7 +660,7 @@ public class MultiFirmUserControllerTest {
         when(bindingResult.hasErrors()).thenReturn(false);
         when(applicationsForm.getApps()).thenReturn(null);
 
-        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, model, session);
+        String view = controller.selectUserAppsPost(applicationsForm, bindingResult, authentication, model, session);
 
         assertThat(view).startsWith("redirect:/admin/multi-firm/user/add/profile/select/roles");
         assertThat(session.getAttribute("applicationsForm")).isEqualTo(applicationsForm);
@@ -949,31 +958,33 @@ public class MultiFirmUserControllerTest {
     }
 
     @Test
-    void shouldRedirectIfSessionModelMissing() {
+    void shouldRedirectIfSelectedAppsMissing() {
         String view = controller.selectUserAppRolesPost(new RolesForm(), null, 0, authentication, model, session);
         assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/select/roles");
     }
 
     @Test
-    void shouldHandleValidationErrorsAndDeselectUnselectedRoles() {
-        AppRoleViewModel role1 = new AppRoleViewModel();
-        role1.setId("role1");
-        role1.setSelected(true);
-
-        AppRoleViewModel role2 = new AppRoleViewModel();
-        role2.setId("role2");
-        role2.setSelected(true);
-
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("roles", List.of(role1, role2));
-        sessionModel.addAttribute("entraUser", EntraUserDto.builder().fullName("Test User").build());
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 0);
-        sessionModel.addAttribute("addProfileCurrentApp", AppDto.builder().name("app-id").build());
+    void shouldRebuildRolesPageOnValidationErrorsWithOnlySubmittedRolesSelected() {
+        String appId = "app-id";
+        session.setAttribute("addProfileSelectedApps", List.of(appId));
+        EntraUserDto entraUser = EntraUserDto.builder().fullName("Test User").build();
+        session.setAttribute("entraUser", entraUser);
 
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
+        AppDto appDto = AppDto.builder().id(appId).name("App One").build();
+        AppRoleDto role1 = new AppRoleDto();
+        role1.setId(UUID.randomUUID().toString());
+        role1.setApp(appDto);
+        AppRoleDto role2 = new AppRoleDto();
+        role2.setId(UUID.randomUUID().toString());
+        role2.setApp(appDto);
+        UserProfile userProfile = UserProfile.builder().appRoles(Set.of()).build();
+        when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
+        when(userService.getAppRolesByAppIdAndUserType(appId, UserType.EXTERNAL, null)).thenReturn(List.of(role1, role2));
+        when(roleAssignmentService.filterRoles(any(), any())).thenReturn(List.of(role1, role2));
+        when(userService.getAppByAppId(appId)).thenReturn(Optional.of(appDto));
 
         RolesForm form = new RolesForm();
-        form.setRoles(List.of("role1")); // role2 should be deselected
+        form.setRoles(List.of(role1.getId()));
 
         BindingResult result = mock(BindingResult.class);
         when(result.hasErrors()).thenReturn(true);
@@ -984,17 +995,17 @@ public class MultiFirmUserControllerTest {
 
         List<AppRoleViewModel> updatedRoles = (List<AppRoleViewModel>) model.getAttribute("roles");
         assertThat(updatedRoles).hasSize(2);
-        assertThat(updatedRoles).anyMatch(r -> r.getId().equals("role1") && r.isSelected());
-        assertThat(updatedRoles).anyMatch(r -> r.getId().equals("role2") && !r.isSelected());
-
+        assertThat(updatedRoles).anyMatch(r -> r.getId().equals(role1.getId()) && r.isSelected());
+        assertThat(updatedRoles).anyMatch(r -> r.getId().equals(role2.getId()) && !r.isSelected());
+        assertThat(model.getAttribute("entraUser")).isEqualTo(entraUser);
+        assertThat(model.getAttribute("addProfileSelectedAppIndex")).isEqualTo(0);
+        assertThat(model.getAttribute("addProfileCurrentApp")).isEqualTo(appDto);
         assertThat(model.getAttribute("backUrl")).isEqualTo("/admin/multi-firm/user/add/profile/select/apps");
+        assertThat(session.getAttribute("addProfileUserRolesModel")).isNull();
     }
 
     @Test
     void shouldRedirectToOfficesIfLastAppAndRolesAreAssignable() {
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 1);
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
         session.setAttribute("addProfileSelectedApps", List.of("app1", "app2"));
 
         RolesForm form = new RolesForm();
@@ -1020,9 +1031,6 @@ public class MultiFirmUserControllerTest {
 
     @Test
     void shouldStayOnPageIfRolesNotAssignable() {
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 0);
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
         session.setAttribute("addProfileSelectedApps", List.of("app1"));
 
         RolesForm form = new RolesForm();
@@ -1045,9 +1053,6 @@ public class MultiFirmUserControllerTest {
     void shouldRedirectToNextAppIfNotLast() {
         String appId = UUID.randomUUID().toString();
         String appId2 = UUID.randomUUID().toString();
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 0);
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
         session.setAttribute("addProfileSelectedApps", List.of(appId, appId2));
 
         RolesForm form = new RolesForm();
@@ -1083,16 +1088,10 @@ public class MultiFirmUserControllerTest {
         Map<Integer, List<String>> storedRoles = (Map<Integer, List<String>>) session
                 .getAttribute("addUserProfileAllSelectedRoles");
         assertThat(storedRoles).containsEntry(0, List.of(appId));
-
-        Model updatedModel = (Model) session.getAttribute("addProfileUserRolesModel");
-        assertThat(updatedModel.getAttribute("addProfileSelectedAppIndex")).isEqualTo(1);
     }
 
     @Test
     void shouldHandleNoRolesSelectedGracefully() {
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 0);
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
         session.setAttribute("addProfileSelectedApps", List.of("app1"));
 
         RolesForm form = new RolesForm(); // roles is null
@@ -1115,9 +1114,6 @@ public class MultiFirmUserControllerTest {
 
     @Test
     void shouldStayOnPageIfRoleAssignmentFails() {
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("addProfileSelectedAppIndex", 0);
-        session.setAttribute("addProfileUserRolesModel", sessionModel);
         session.setAttribute("addProfileSelectedApps", List.of("app1"));
 
         RolesForm form = new RolesForm();
@@ -1238,30 +1234,30 @@ public class MultiFirmUserControllerTest {
                 .build();
         session.setAttribute("officesForm", officesForm);
 
-        Office.Address address = Office.Address.builder().addressLine1("Line1").addressLine2("Line2")
-                .addressLine3("Line3").city("City").postcode("12345").build();
-        Office office = Office.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000001")).code("office1")
-                .address(address).build();
-        Firm firm = Firm.builder().offices(Set.of(office)).build();
-        UserProfile profile = UserProfile.builder().firm(firm).build();
-
+        UUID firmId = UUID.randomUUID();
+        UserProfile profile = UserProfile.builder().firm(Firm.builder().id(firmId).build()).build();
         when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(officePage(officeDto()));
 
-        String view = controller.addProfileSelectOffices(model, session, authentication);
+        String view = controller.addProfileSelectOffices("", 1, model, session, authentication);
 
         assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
 
         List<OfficeModel> officeData = (List<OfficeModel>) model.getAttribute("officeData");
         assertThat(officeData).hasSize(1);
         assertThat(officeData.get(0).isSelected()).isTrue();
+        assertThat(officeData.get(0).getAddress().getCity()).isEqualTo("City");
 
         assertThat(model.getAttribute("hasAllOffices")).isEqualTo(false);
-        assertThat(model.getAttribute("officesForm")).isEqualTo(officesForm);
+        assertThat(model.getAttribute("selectedOfficeCount")).isEqualTo(1);
+        assertThat(((OfficesForm) model.getAttribute("officesForm")).getOffices())
+                .containsExactly("00000000-0000-0000-0000-000000000001");
         assertThat(model.getAttribute("entraUser")).isEqualTo(user);
         assertThat(model.getAttribute(ModelAttributes.PAGE_TITLE))
                 .isEqualTo("Add profile - Select offices - Test User");
 
-        assertThat(session.getAttribute("addProfileUserOfficesModel")).isEqualTo(model);
+        assertThat(session.getAttribute("officeSelection")).isInstanceOf(OfficesJourneyState.class);
+        assertThat(session.getAttribute("addProfileUserOfficesModel")).isNull();
     }
 
     @Test
@@ -1269,16 +1265,12 @@ public class MultiFirmUserControllerTest {
         EntraUserDto user = EntraUserDto.builder().fullName("Test User").build();
         session.setAttribute("entraUser", user);
 
-        Office.Address address = Office.Address.builder().addressLine1("Line1").addressLine2("Line2")
-                .addressLine3("Line3").city("City").postcode("12345").build();
-        Office office = Office.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000001")).code("office1")
-                .address(address).build();
-        Firm firm = Firm.builder().offices(Set.of(office)).build();
-        UserProfile profile = UserProfile.builder().firm(firm).build();
-
+        UUID firmId = UUID.randomUUID();
+        UserProfile profile = UserProfile.builder().firm(Firm.builder().id(firmId).build()).build();
         when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(officePage(officeDto()));
 
-        String view = controller.addProfileSelectOffices(model, session, authentication);
+        String view = controller.addProfileSelectOffices("", 1, model, session, authentication);
 
         assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
 
@@ -1298,24 +1290,36 @@ public class MultiFirmUserControllerTest {
         OfficesForm officesForm = OfficesForm.builder().offices(List.of("ALL")).build();
         session.setAttribute("officesForm", officesForm);
 
-        Office.Address address = Office.Address.builder().addressLine1("Line1").addressLine2("Line2")
-                .addressLine3("Line3").city("City").postcode("12345").build();
-        Office office = Office.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000001")).code("office1")
-                .address(address).build();
-        Firm firm = Firm.builder().offices(Set.of(office)).build();
-        UserProfile profile = UserProfile.builder().firm(firm).build();
-
+        UUID firmId = UUID.randomUUID();
+        UserProfile profile = UserProfile.builder().firm(Firm.builder().id(firmId).build()).build();
         when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(officePage(officeDto()));
 
-        String view = controller.addProfileSelectOffices(model, session, authentication);
+        String view = controller.addProfileSelectOffices("", 1, model, session, authentication);
 
         assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
         assertThat(model.getAttribute("hasAllOffices")).isEqualTo(true);
     }
 
+    @Test
+    void shouldSearchOfficesOfDelegateTargetFirm() {
+        EntraUserDto user = EntraUserDto.builder().fullName("Test User").build();
+        session.setAttribute("entraUser", user);
+        UUID targetFirmId = UUID.randomUUID();
+        session.setAttribute("delegateTargetFirmId", targetFirmId.toString());
+        PaginatedOffices page = officePage(officeDto());
+        when(officeService.searchFirmOffices(List.of(targetFirmId), "sw1", 3, 20)).thenReturn(page);
+
+        controller.addProfileSelectOffices("sw1", 3, model, session, authentication);
+
+        assertThat(model.getAttribute("officePage")).isEqualTo(page);
+        assertThat(model.getAttribute("search")).isEqualTo("sw1");
+        verify(loginService, never()).getCurrentProfile(any());
+    }
+
     @Test
     void shouldThrowIfEntraUserMissing() {
-        assertThatThrownBy(() -> controller.addProfileSelectOffices(model, session, authentication))
+        assertThatThrownBy(() -> controller.addProfileSelectOffices("", 1, model, session, authentication))
                 .isInstanceOf(NoSuchElementException.class);
     }
 
@@ -1324,95 +1328,127 @@ public class MultiFirmUserControllerTest {
         EntraUserDto user = EntraUserDto.builder().fullName("Test User").build();
         session.setAttribute("entraUser", user);
 
-        // Form contains an office ID not present in the firm
+        // Form contains a value that is not an office id
         OfficesForm officesForm = OfficesForm.builder().offices(List.of("invalid-office-id")).build();
         session.setAttribute("officesForm", officesForm);
 
-        Office.Address address = Office.Address.builder().addressLine1("Line1").addressLine2("Line2")
-                .addressLine3("Line3").city("City").postcode("12345").build();
-        Office office = Office.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000001")).code("office1")
-                .address(address).build();
-        Firm firm = Firm.builder().offices(Set.of(office)).build();
-        UserProfile profile = UserProfile.builder().firm(firm).build();
-
+        UUID firmId = UUID.randomUUID();
+        UserProfile profile = UserProfile.builder().firm(Firm.builder().id(firmId).build()).build();
         when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(officePage(officeDto()));
 
-        String view = controller.addProfileSelectOffices(model, session, authentication);
+        String view = controller.addProfileSelectOffices("", 1, model, session, authentication);
 
         assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
 
         List<OfficeModel> officeData = (List<OfficeModel>) model.getAttribute("officeData");
         assertThat(officeData).hasSize(1);
         assertThat(officeData.getFirst().isSelected()).isFalse(); // invalid ID should not match
+        assertThat(model.getAttribute("selectedOfficeCount")).isEqualTo(0);
     }
 
     @Test
-    void shouldRedirectIfValidationErrorsAndNoSessionModel() {
-        BindingResult result = mock(BindingResult.class);
-        when(result.hasErrors()).thenReturn(true);
-
-        OfficesForm form = OfficesForm.builder().offices(List.of("office1")).build();
+    void shouldKeepOfficesTickedOnOtherPagesWhenMovingPage() {
+        UUID otherPageOffice = UUID.randomUUID();
+        UUID shownTicked = UUID.randomUUID();
+        UUID shownUnticked = UUID.randomUUID();
+        session.setAttribute("entraUser", EntraUserDto.builder().id(USER_ID).build());
+        session.setAttribute("officeSelection", new OfficesJourneyState(USER_ID, false,
+                List.of(otherPageOffice.toString(), shownUnticked.toString())));
+        OfficesForm form = OfficesForm.builder().offices(List.of(shownTicked.toString())).build();
 
-        String view = controller.addProfileSelectOfficesPost(form, result, model, session);
+        String view = controller.addProfileSelectOfficesPost(form, bindingResult, List.of(shownTicked, shownUnticked),
+                "sw1 ", 1, 2, null, model, session, authentication);
 
-        assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/select/offices");
+        assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/select/offices?search=sw1&page=2");
+        OfficesJourneyState selection = (OfficesJourneyState) session.getAttribute("officeSelection");
+        assertThat(selection.getOfficeIds()).containsExactlyInAnyOrder(otherPageOffice, shownTicked);
+        assertThat(session.getAttribute("userOffices")).isNull();
     }
 
     @Test
-    void shouldHandleValidationErrorsAndDeselectUnselectedOffices() {
-        BindingResult result = mock(BindingResult.class);
-        when(result.hasErrors()).thenReturn(true);
+    void shouldGoBackToFirstPageWhenSearching() {
+        session.setAttribute("entraUser", EntraUserDto.builder().id(USER_ID).build());
+        OfficesForm form = OfficesForm.builder().build();
 
-        OfficeModel office1 = new OfficeModel("office1", null, "office1", true);
-        OfficeModel office2 = new OfficeModel("office2", null, "office2", true);
+        String view = controller.addProfileSelectOfficesPost(form, bindingResult, null, "London", 4, null, "search",
+                model, session, authentication);
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("officeData", List.of(office1, office2));
-        sessionModel.addAttribute("entraUser", EntraUserDto.builder().fullName("Test User").build());
-        session.setAttribute("addProfileUserOfficesModel", sessionModel);
-        OfficesForm form = OfficesForm.builder().offices(List.of("office1")).build();
+        assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/select/offices?search=London&page=1");
+    }
 
-        String view = controller.addProfileSelectOfficesPost(form, result, model, session);
+    @Test
+    void shouldRejectContinueWithNoOfficesSelected() {
+        EntraUserDto user = EntraUserDto.builder().fullName("Test User").build();
+        session.setAttribute("entraUser", user);
+        UUID firmId = UUID.randomUUID();
+        UserProfile profile = UserProfile.builder().firm(Firm.builder().id(firmId).build()).build();
+        when(loginService.getCurrentProfile(authentication)).thenReturn(profile);
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(officePage(officeDto()));
+        OfficesForm form = OfficesForm.builder().offices(null).build();
+        BindingResult result = new BeanPropertyBindingResult(form, "officesForm");
 
-        assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
+        String view = controller.addProfileSelectOfficesPost(form, result,
+                List.of(UUID.fromString("00000000-0000-0000-0000-000000000001")), "", 1, null, null,
+                model, session, authentication);
 
-        List<OfficeModel> updatedOfficeData = (List<OfficeModel>) model.getAttribute("officeData");
-        assertThat(updatedOfficeData).hasSize(2);
-        assertThat(updatedOfficeData).anyMatch(o -> o.getId().equals("office1") && o.isSelected());
-        assertThat(updatedOfficeData).anyMatch(o -> o.getId().equals("office2") && !o.isSelected());
+        assertThat(view).isEqualTo("multi-firm-user/select-user-offices");
+        assertThat(result.hasFieldErrors("offices")).isTrue();
+        assertThat((List<OfficeModel>) model.getAttribute("officeData")).hasSize(1);
+        assertThat(session.getAttribute("userOffices")).isNull();
     }
 
     @Test
     void shouldStoreSelectedOfficesAndRedirectToCheckAnswers() {
-        BindingResult result = mock(BindingResult.class);
-        when(result.hasErrors()).thenReturn(false);
-
-        OfficesForm form = OfficesForm.builder().offices(List.of("office1", "office2")).build();
+        UUID office1 = UUID.randomUUID();
+        UUID office2 = UUID.randomUUID();
+        session.setAttribute("entraUser", EntraUserDto.builder().id(USER_ID).build());
+        session.setAttribute("officeSelection", new OfficesJourneyState(USER_ID, false, List.of(office1.toString())));
+        OfficesForm form = OfficesForm.builder().offices(List.of(office2.toString())).build();
 
-        String view = controller.addProfileSelectOfficesPost(form, result, model, session);
+        String view = controller.addProfileSelectOfficesPost(form, bindingResult, List.of(office2), "", 2, null, null,
+                model, session, authentication);
 
         assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/check-answers");
 
         List<String> storedOffices = (List<String>) session.getAttribute("userOffices");
-        assertThat(storedOffices).containsExactly("office1", "office2");
+        assertThat(storedOffices).containsExactlyInAnyOrder(office1.toString(), office2.toString());
 
         OfficesForm storedForm = (OfficesForm) session.getAttribute("officesForm");
-        assertThat(storedForm.getOffices()).containsExactly("office1", "office2");
+        assertThat(storedForm.getOffices()).containsExactlyInAnyOrder(office1.toString(), office2.toString());
     }
 
     @Test
-    void shouldHandleEmptyOfficeSelectionGracefully() {
-        BindingResult result = mock(BindingResult.class);
-        when(result.hasErrors()).thenReturn(false);
+    void shouldStoreAllOfficesWhenAllTicked() {
+        session.setAttribute("entraUser", EntraUserDto.builder().id(USER_ID).build());
+        session.setAttribute("officeSelection", new OfficesJourneyState(USER_ID, false,
+                List.of(UUID.randomUUID().toString())));
+        OfficesForm form = OfficesForm.builder().offices(List.of("ALL")).build();
 
-        OfficesForm form = OfficesForm.builder().offices(null).build();
-
-        String view = controller.addProfileSelectOfficesPost(form, result, model, session);
+        String view = controller.addProfileSelectOfficesPost(form, bindingResult, List.of(), "", 1, null, null,
+                model, session, authentication);
 
         assertThat(view).isEqualTo("redirect:/admin/multi-firm/user/add/profile/check-answers");
+        assertThat((List<String>) session.getAttribute("userOffices")).containsExactly("ALL");
+    }
 
-        List<String> storedOffices = (List<String>) session.getAttribute("userOffices");
-        assertThat(storedOffices).isEmpty();
+    private OfficeDto officeDto() {
+        return OfficeDto.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .code("office1")
+                .address(OfficeDto.AddressDto.builder().addressLine1("Line1").addressLine2("Line2")
+                        .addressLine3("Line3").city("City").postcode("12345").build())
+                .build();
+    }
+
+    private PaginatedOffices officePage(OfficeDto... offices) {
+        return PaginatedOffices.builder()
+                .offices(List.of(offices))
+                .totalElements(offices.length)
+                .totalPages(1)
+                .currentPage(1)
+                .pageSize(20)
+                .build();
     }
 
     @Test
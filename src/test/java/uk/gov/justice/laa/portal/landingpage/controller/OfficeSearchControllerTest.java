@@ -0,0 +1,102 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.service.AccessControlService;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.OfficeService;
+
+@ExtendWith(MockitoExtension.class)
+class OfficeSearchControllerTest {
+
+    private OfficeSearchController officeSearchController;
+
+    @Mock
+    private LoginService loginService;
+    @Mock
+    private FirmService firmService;
+    @Mock
+    private OfficeService officeService;
+    @Mock
+    private AccessControlService accessControlService;
+    @Mock
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        officeSearchController = new OfficeSearchController(loginService, firmService, officeService, accessControlService);
+    }
+
+    @Test
+    void searchOffices_internalUserCanSearchAnyFirm() {
+        UUID firmId = UUID.randomUUID();
+        PaginatedOffices page = PaginatedOffices.builder().offices(List.of()).build();
+        when(accessControlService.authenticatedUserIsInternal()).thenReturn(true);
+        when(officeService.searchFirmOffices(List.of(firmId), "sw1", 2, 20)).thenReturn(page);
+
+        PaginatedOffices result = officeSearchController.searchOffices(authentication, firmId, "sw1", 2, 20);
+
+        assertThat(result).isEqualTo(page);
+        verifyNoInteractions(firmService);
+    }
+
+    @Test
+    void searchOffices_externalUserCanSearchOwnFirm() {
+        UUID firmId = UUID.randomUUID();
+        EntraUser entraUser = EntraUser.builder().id(UUID.randomUUID()).build();
+        PaginatedOffices page = PaginatedOffices.builder().offices(List.of()).build();
+        when(accessControlService.authenticatedUserIsInternal()).thenReturn(false);
+        when(loginService.getCurrentEntraUser(authentication)).thenReturn(entraUser);
+        when(firmService.getUserActiveAllFirms(entraUser)).thenReturn(List.of(FirmDto.builder().id(firmId).build()));
+        when(officeService.searchFirmOffices(List.of(firmId), "", 1, 20)).thenReturn(page);
+
+        assertThat(officeSearchController.searchOffices(authentication, firmId, "", 1, 20)).isEqualTo(page);
+    }
+
+    @Test
+    void searchOffices_externalUserCannotSearchAnotherFirm() {
+        UUID firmId = UUID.randomUUID();
+        EntraUser entraUser = EntraUser.builder().id(UUID.randomUUID()).build();
+        when(accessControlService.authenticatedUserIsInternal()).thenReturn(false);
+        when(loginService.getCurrentEntraUser(authentication)).thenReturn(entraUser);
+        when(firmService.getUserActiveAllFirms(entraUser)).thenReturn(List.of(FirmDto.builder().id(UUID.randomUUID()).build()));
+
+        assertThatThrownBy(() -> officeSearchController.searchOffices(authentication, firmId, "", 1, 20))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(officeService, never()).searchFirmOffices(any(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchOffices_limitsPageSize() {
+        UUID firmId = UUID.randomUUID();
+        when(accessControlService.authenticatedUserIsInternal()).thenReturn(true);
+
+        officeSearchController.searchOffices(authentication, firmId, "", 1, 5000);
+        officeSearchController.searchOffices(authentication, firmId, "", 1, 0);
+
+        verify(officeService).searchFirmOffices(List.of(firmId), "", 1, OfficeSearchController.MAX_PAGE_SIZE);
+        verify(officeService).searchFirmOffices(List.of(firmId), "", 1, 1);
+    }
+}
@@ -79,6 +79,7 @@ import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
 import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.dto.OfficeData;
 import uk.gov.justice.laa.portal.landingpage.dto.OfficeDto;
+import uk.gov.justice.laa.portal.landingpage.dto.PaginatedOffices;
 import uk.gov.justice.laa.portal.landingpage.dto.UpdateUserAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.dto.UserSearchCriteria;
@@ -109,6 +110,7 @@ import uk.gov.justice.laa.portal.landingpage.forms.RolesForm;
 import uk.gov.justice.laa.portal.landingpage.forms.UserDetailsForm;
 import uk.gov.justice.laa.portal.landingpage.model.DeletedUser;
 import uk.gov.justice.laa.portal.landingpage.model.OfficeModel;
+import uk.gov.justice.laa.portal.landingpage.model.OfficesJourneyState;
 import uk.gov.justice.laa.portal.landingpage.model.PaginatedUsers;
 import uk.gov.justice.laa.portal.landingpage.model.UserRole;
 import uk.gov.justice.laa.portal.landingpage.service.AccessControlService;
@@ -2430,7 +2432,7 @@ class UserControllerTest {
 
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         UserProfile userProfile = UserProfile.builder()
                 .id(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"))
@@ -2444,7 +2446,7 @@ class UserControllerTest {
         MockHttpSession testSession = new MockHttpSession();
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -2487,7 +2489,7 @@ class UserControllerTest {
 
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         MockHttpSession testSession = new MockHttpSession();
         UserProfile userProfile = UserProfile.builder()
@@ -2500,7 +2502,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -2543,7 +2545,7 @@ class UserControllerTest {
 
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         MockHttpSession testSession = new MockHttpSession();
         UserProfile userProfile = UserProfile.builder()
@@ -2556,7 +2558,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -2604,7 +2606,7 @@ class UserControllerTest {
 
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         MockHttpSession testSession = new MockHttpSession();
         UserProfile userProfile = UserProfile.builder()
@@ -2618,7 +2620,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -2666,7 +2668,7 @@ class UserControllerTest {
 
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("allSelectedRoles", Set.of(FIRM_USER_MANAGER.getDescription()));
@@ -2681,7 +2683,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -2705,44 +2707,116 @@ class UserControllerTest {
         form.setOffices(List.of("ALL")); // Special value for "Access to all offices"
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(false);
         MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("editUserOffices", new OfficesJourneyState(userId, false, null));
         // When
-        String view = userController.updateUserOffices(userId, form, bindingResult, model, testSession);
+        String view = userController.updateUserOffices(userId, form, bindingResult, List.of(), "", 1, null, null,
+                model, testSession);
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/offices-check-answer");
-        assertThat(testSession.getAttribute("officesForm")).isNotNull();
+        OfficesJourneyState journey = (OfficesJourneyState) testSession.getAttribute("editUserOffices");
+        assertThat(journey.isFor(userId)).isTrue();
+        assertThat(journey.getOffices()).containsExactly("ALL");
     }
 
     @Test
-    void updateUserOffices_shouldReturnToFormOnValidationErrors() {
+    void updateUserOffices_shouldKeepOfficesTickedOnOtherPages() {
         // Given
         final String userId = "user123";
+        UUID otherPageOfficeId = UUID.randomUUID();
+        UUID shownOfficeId = UUID.randomUUID();
+        UUID untickedOfficeId = UUID.randomUUID();
         OfficesForm form = new OfficesForm();
-        form.setOffices(List.of("office1"));
+        form.setOffices(List.of(shownOfficeId.toString()));
 
-        EntraUserDto user = new EntraUserDto();
-        OfficeModel.Address address = OfficeModel.Address.builder().addressLine1("addressLine1").city("city")
-                .postcode("pst_code").build();
-        List<OfficeModel> officeData = List.of(new OfficeModel("Test Office", address, "office1", true));
+        MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("editUserOffices", new OfficesJourneyState(userId, false,
+                List.of(otherPageOfficeId.toString(), untickedOfficeId.toString())));
+
+        // When
+        String view = userController.updateUserOffices(userId, form, Mockito.mock(BindingResult.class),
+                List.of(shownOfficeId, untickedOfficeId), "", 2, null, null, model, testSession);
+
+        // Then
+        assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/offices-check-answer");
+        OfficesJourneyState journey = (OfficesJourneyState) testSession.getAttribute("editUserOffices");
+        assertThat(journey.getOffices()).containsExactlyInAnyOrder(otherPageOfficeId.toString(), shownOfficeId.toString());
+    }
+
+    @Test
+    void updateUserOffices_shouldRedirectToRequestedPageWithoutChoosingOffices() {
+        // Given
+        final String userId = "user123";
+        UUID officeId = UUID.randomUUID();
+        OfficesForm form = new OfficesForm();
+        form.setOffices(List.of(officeId.toString()));
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("user", user);
-        sessionModel.addAttribute("officeData", officeData);
+        MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("editUserOffices", new OfficesJourneyState(userId, false, null));
+
+        // When
+        String view = userController.updateUserOffices(userId, form, Mockito.mock(BindingResult.class),
+                List.of(officeId), " sw1 ", 1, 2, null, model, testSession);
+
+        // Then
+        assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/offices?search=sw1&page=2");
+        OfficesJourneyState journey = (OfficesJourneyState) testSession.getAttribute("editUserOffices");
+        assertThat(journey.isSelected(officeId)).isTrue();
+        assertThat(journey.getOffices()).isNull();
+    }
+
+    @Test
+    void updateUserOffices_shouldReturnToFormWhenNoOfficesSelected() {
+        // Given
+        final String userId = "user123";
+        UUID office1Id = UUID.randomUUID();
+        UUID office2Id = UUID.randomUUID();
+        OfficesForm form = new OfficesForm();
+
+        UserProfileDto user = new UserProfileDto();
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
+        when(firmService.getUserFirmsByUserId(userId)).thenReturn(List.of(FirmDto.builder().id(UUID.randomUUID()).build()));
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(List.of(
+                Office.builder().id(office1Id).code("Office 1")
+                        .address(Office.Address.builder().addressLine1("addressLine1").city("city").build()).build(),
+                Office.builder().id(office2Id).code("Office 2").build())));
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(true);
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("editUserOfficesModel", sessionModel);
+        testSession.setAttribute("editUserOffices", new OfficesJourneyState(userId, true, List.of(office1Id.toString())));
 
         // When
-        String view = userController.updateUserOffices(userId, form, bindingResult, model, testSession);
+        String view = userController.updateUserOffices(userId, form, bindingResult, List.of(office1Id, office2Id), "", 1,
+                null, null, model, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
+        verify(bindingResult).rejectValue("offices", "offices.required", "Office selection is required");
         assertThat(model.getAttribute("user")).isEqualTo(user);
-        assertThat(model.getAttribute("officeData")).isEqualTo(officeData);
+        assertThat(model.getAttribute("shouldShowNoOffice")).isEqualTo(true);
+        assertThat(model.getAttribute("selectedOfficeCount")).isEqualTo(0);
+        @SuppressWarnings("unchecked")
+        List<OfficeModel> officeData = (List<OfficeModel>) model.getAttribute("officeData");
+        assertThat(officeData).extracting(OfficeModel::getId)
+                .containsExactly(office1Id.toString(), office2Id.toString());
+        assertThat(officeData).extracting(OfficeModel::isSelected).containsExactly(false, false);
+    }
+
+    @Test
+    void updateUserOffices_shouldRestartJourneyWithoutState() {
+        // Given
+        final String userId = "user123";
+        BindingResult bindingResult = Mockito.mock(BindingResult.class);
+        MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("editUserOffices", new OfficesJourneyState("another-user", true, null));
+
+        // When
+        String view = userController.updateUserOffices(userId, new OfficesForm(), bindingResult, List.of(), "", 1, null,
+                null, model, testSession);
+
+        // Then
+        assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/offices");
     }
 
     @Test
@@ -2761,12 +2835,8 @@ class UserControllerTest {
         // Given
         final String userId = "user123";
         MockHttpSession testSession = new MockHttpSession();
-        OfficesForm form = new OfficesForm();
-        form.setOffices(List.of("ALL"));
-        testSession.setAttribute("officesForm", form);
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("user", UserProfile.builder().build());
-        testSession.setAttribute("editUserOfficesModel", modelFromSession);
+        testSession.setAttribute("editUserOffices", chosenOffices(userId, List.of("ALL")));
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(new UserProfileDto()));
         // When
         String view = userController.updateUserOfficesCheck(userId, model, testSession);
         // Then
@@ -2774,29 +2844,22 @@ class UserControllerTest {
         assertThat(model.getAttribute("user")).isNotNull();
         assertThat(model.getAttribute("userOffices")).isNotNull();
         assertThat((List) model.getAttribute("userOffices")).isEmpty();
+        verify(officeService, never()).getOfficesByIds(anyList());
     }
 
     @Test
     void updateUserOfficesCheck_Selected_shouldDisplay() {
         // Given
-        OfficeModel.Address address = OfficeModel.Address.builder().addressLine1("addressLine1").city("city")
+        Office.Address address = Office.Address.builder().addressLine1("addressLine1").city("city")
                 .postcode("pst_code").build();
-        OfficeModel of1 = new OfficeModel();
-        of1.setId("office1");
-        of1.setAddress(address);
-        OfficeModel of2 = new OfficeModel();
-        of2.setId("office2");
-        of2.setAddress(address);
+        Office of1 = Office.builder().id(UUID.randomUUID()).code("Office 1").address(address).build();
         final String userId = "user123";
         MockHttpSession testSession = new MockHttpSession();
-        OfficesForm form = new OfficesForm();
-        form.setOffices(List.of("office1"));
-        testSession.setAttribute("officesForm", form);
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("user", UserProfile.builder().build());
-        List<OfficeModel> officeData = List.of(of1, of2);
-        modelFromSession.addAttribute("officeData", officeData);
-        testSession.setAttribute("editUserOfficesModel", modelFromSession);
+        testSession.setAttribute("editUserOffices",
+                chosenOffices(userId, List.of(of1.getId().toString())));
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(new UserProfileDto()));
+        when(officeService.getOfficesByIds(List.of(of1.getId().toString())))
+                .thenReturn(officePage(List.of(of1)).getOffices());
         // When
         String view = userController.updateUserOfficesCheck(userId, model, testSession);
         // Then
@@ -2804,39 +2867,32 @@ class UserControllerTest {
         assertThat(model.getAttribute("user")).isNotNull();
         assertThat(model.getAttribute("userOffices")).isNotNull();
         List<OfficeModel> selectOfficesDisplay = (List<OfficeModel>) model.getAttribute("userOffices");
-        assertThat(selectOfficesDisplay).isNotEmpty();
-        assertThat(selectOfficesDisplay.getFirst().getId()).isEqualTo(of1.getId());
+        assertThat(selectOfficesDisplay).extracting(OfficeModel::getId).containsExactly(of1.getId().toString());
+        assertThat(selectOfficesDisplay).extracting(OfficeModel::isSelected).containsExactly(true);
         Map<String, List<OfficeModel>> officesByCity = (Map<String, List<OfficeModel>>) model
                 .getAttribute("officesByCity");
         assertThat(officesByCity).isNotNull();
         assertThat(officesByCity).containsKey("city");
-        assertThat(officesByCity.get("city")).containsExactly(of1);
+        assertThat(officesByCity.get("city")).extracting(OfficeModel::getId).containsExactly(of1.getId().toString());
+        verify(officeService, never()).getOfficesByFirms(anyList());
     }
 
     @Test
     void updateUserOfficesCheck_Selected_shouldSortCitiesAlphabeticallyWithOtherCitiesLast() {
         // Given
-        OfficeModel.Address londonAddress = OfficeModel.Address.builder().city("London").build();
-        OfficeModel londonOffice = new OfficeModel();
-        londonOffice.setId("office-london");
-        londonOffice.setAddress(londonAddress);
-        OfficeModel.Address birminghamAddress = OfficeModel.Address.builder().city("Birmingham").build();
-        OfficeModel birminghamOffice = new OfficeModel();
-        birminghamOffice.setId("office-birmingham");
-        birminghamOffice.setAddress(birminghamAddress);
-        OfficeModel.Address noCity = OfficeModel.Address.builder().build();
-        OfficeModel noCityOffice = new OfficeModel();
-        noCityOffice.setId("office-no-city");
-        noCityOffice.setAddress(noCity);
+        Office londonOffice = Office.builder().id(UUID.randomUUID())
+                .address(Office.Address.builder().city("London").build()).build();
+        Office birminghamOffice = Office.builder().id(UUID.randomUUID())
+                .address(Office.Address.builder().city("Birmingham").build()).build();
+        Office noCityOffice = Office.builder().id(UUID.randomUUID())
+                .address(Office.Address.builder().build()).build();
         final String userId = "user123";
         MockHttpSession testSession = new MockHttpSession();
-        OfficesForm form = new OfficesForm();
-        form.setOffices(List.of("office-london", "office-birmingham", "office-no-city"));
-        testSession.setAttribute("officesForm", form);
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("user", UserProfile.builder().build());
-        modelFromSession.addAttribute("officeData", List.of(londonOffice, birminghamOffice, noCityOffice));
-        testSession.setAttribute("editUserOfficesModel", modelFromSession);
+        testSession.setAttribute("editUserOffices", chosenOffices(userId, List.of(
+                londonOffice.getId().toString(), birminghamOffice.getId().toString(), noCityOffice.getId().toString())));
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(new UserProfileDto()));
+        when(officeService.getOfficesByIds(anyList()))
+                .thenReturn(officePage(List.of(londonOffice, birminghamOffice, noCityOffice)).getOffices());
         // When
         userController.updateUserOfficesCheck(userId, model, testSession);
         // Then
@@ -2860,17 +2916,15 @@ class UserControllerTest {
     @Test
     void updateUserOfficesSubmit_shouldUpdateAndRedirectToConfirmation() throws IOException {
         // Given
-        OfficesForm form = new OfficesForm();
-        form.setOffices(List.of("office1", "office2"));
-
+        String userId = "user123";
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("officesForm", form);
-        testSession.setAttribute("editUserOfficesModel", model);
+        final String office1 = UUID.randomUUID().toString();
+        final String office2 = UUID.randomUUID().toString();
+        testSession.setAttribute("editUserOffices", chosenOffices(userId, List.of(office1, office2)));
         CurrentUserDto currentUserDto = new CurrentUserDto();
         currentUserDto.setUserId(UUID.randomUUID());
         currentUserDto.setName("tester");
         when(loginService.getCurrentUser(authentication)).thenReturn(currentUserDto);
-        String userId = "user123";
         EntraUserDto entraUser = new EntraUserDto();
         entraUser.setId(userId);
 
@@ -2884,13 +2938,15 @@ class UserControllerTest {
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/confirmation");
-        verify(userService).updateUserOffices(userId, List.of("office1", "office2"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> officesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userService).updateUserOffices(eq(userId), officesCaptor.capture());
+        assertThat(officesCaptor.getValue()).containsExactlyInAnyOrder(office1, office2);
         ArgumentCaptor<UpdateUserAuditEvent> captor = ArgumentCaptor.forClass(UpdateUserAuditEvent.class);
         verify(eventService).logEvent(captor.capture());
         UpdateUserAuditEvent updateUserAuditEvent = captor.getValue();
         assertThat(updateUserAuditEvent.getField()).isEqualTo("office");
-        assertThat(testSession.getAttribute("editUserOfficesModel")).isNull();
-        assertThat(testSession.getAttribute("officesForm")).isNull();
+        assertThat(testSession.getAttribute("editUserOffices")).isNull();
     }
 
     @Test
@@ -2899,9 +2955,8 @@ class UserControllerTest {
         String userId = "user123";
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("selectedApps", List.of("app1"));
-        testSession.setAttribute("editUserOfficesModel", new ExtendedModelMap());
+        testSession.setAttribute("editUserOffices", chosenOffices(userId, List.of("ALL")));
         testSession.setAttribute("user", UserProfile.builder().build());
-        testSession.setAttribute("officesForm", new OfficesForm());
         testSession.setAttribute("editUserAllSelectedRoles", new HashMap<>());
         testSession.setAttribute("editUserDetailsForm", new EditUserDetailsForm());
         // When
@@ -2911,7 +2966,7 @@ class UserControllerTest {
         assertThat(view).isEqualTo("redirect:/admin/users/manage/" + userId);
         assertThat(testSession.getAttribute("selectedApps")).isNull();
         assertThat(testSession.getAttribute("user")).isNull();
-        assertThat(testSession.getAttribute("officesForm")).isNull();
+        assertThat(testSession.getAttribute("editUserOffices")).isNull();
         assertThat(testSession.getAttribute("editUserAllSelectedRoles")).isNull();
         assertThat(testSession.getAttribute("editUserDetailsForm")).isNull();
     }
@@ -3142,20 +3197,14 @@ class UserControllerTest {
         RolesForm rolesForm = new RolesForm();
         rolesForm.setRoles(List.of("role1", "role2"));
 
-        Model sessionModel = new ExtendedModelMap();
-        AppRoleViewModel role = new AppRoleViewModel();
-        role.setId("role1");
-        sessionModel.addAttribute("roles", List.of(role));
-
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("selectedApps", List.of("app1", "app2"));
-        testSession.setAttribute("editProfileUserRolesModel", sessionModel);
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
 
         // When - updating roles for first app (index 0)
         String view = userController.updateUserRoles(userId, rolesForm, bindingResult,
-                0, testSession, model);
+                0, authentication, testSession, model);
 
         // Then - should redirect to next app (index 1)
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/roles?selectedAppIndex=1");
@@ -3174,14 +3223,8 @@ class UserControllerTest {
         RolesForm rolesForm = new RolesForm();
         rolesForm.setRoles(List.of("role3"));
 
-        Model sessionModel = new ExtendedModelMap();
-        AppRoleViewModel role = new AppRoleViewModel();
-        role.setId("role3");
-        sessionModel.addAttribute("roles", List.of(role));
-
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("selectedApps", List.of("app1", "app2"));
-        testSession.setAttribute("editProfileUserRolesModel", sessionModel);
 
         // Simulate roles for previous apps already selected
         Map<Integer, List<String>> existingRoles = new HashMap<>();
@@ -3192,7 +3235,7 @@ class UserControllerTest {
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         // When - updating roles for last app (index 1)
         String view = userController.updateUserRoles(userId, rolesForm, bindingResult,
-                1, testSession, model);
+                1, authentication, testSession, model);
 
         // Then - should complete editing and redirect to manage user
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/roles-check-answer");
@@ -3205,21 +3248,19 @@ class UserControllerTest {
 
     @Test
     void updateUserRoles_whenNoRolesAvailableAndValidationErrors_shouldProceedToNextApp() {
-        // Given - no roles available for this app (empty list in session)
+        // Given - no roles the editor can assign for this app
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("roles", Collections.emptyList());
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("editProfileUserRolesModel", modelFromSession);
         testSession.setAttribute("selectedApps", List.of("app1", "app2"));
 
         String userId = "550e8400-e29b-41d4-a716-446655440000";
         RolesForm rolesForm = new RolesForm();
+        stubNoAssignableRoles(userId);
 
         // When
-        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, testSession, model);
+        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, authentication, testSession, model);
 
         // Then - should skip validation and proceed to next app rather than
         // re-rendering the empty form
@@ -3228,42 +3269,39 @@ class UserControllerTest {
 
     @Test
     void updateUserRoles_whenNoRolesAvailableOnLastApp_shouldRedirectToCheckAnswer() {
-        // Given - no roles available for last app (empty list in session)
+        // Given - no roles the editor can assign for the last app
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("roles", Collections.emptyList());
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("editProfileUserRolesModel", modelFromSession);
         testSession.setAttribute("selectedApps", List.of("app1"));
 
         String userId = "550e8400-e29b-41d4-a716-446655440000";
         RolesForm rolesForm = new RolesForm();
+        stubNoAssignableRoles(userId);
 
         // When
-        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, testSession, model);
+        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, authentication, testSession, model);
 
         // Then - last app, so should redirect to check-answer
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/roles-check-answer");
     }
 
     @Test
-    void updateUserRoles_whenSessionModelMissingAndValidationErrors_shouldProceedRatherThanThrow() {
-        // Given - session model is absent entirely (e.g. session expired or user posted
+    void updateUserRoles_whenSelectedAppsMissing_shouldRedirectRatherThanThrow() {
+        // Given - the apps picked are absent (e.g. session expired or user posted
         // directly)
         String userId = "550e8400-e29b-41d4-a716-446655440000";
         RolesForm rolesForm = new RolesForm();
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
 
-        MockHttpSession testSession = new MockHttpSession(); // no editProfileUserRolesModel in session
-        testSession.setAttribute("selectedApps", List.of("app1", "app2"));
+        MockHttpSession testSession = new MockHttpSession(); // no selectedApps in session
 
         // When
-        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, testSession, model);
+        String view = userController.updateUserRoles(userId, rolesForm, bindingResult, 0, authentication, testSession, model);
 
-        // Then - redirects back to GET to rebuild the session model safely
+        // Then - redirects back to GET to start the roles step again
         assertThat(view).isEqualTo("redirect:/admin/users/edit/" + userId + "/roles?selectedAppIndex=0");
     }
 
@@ -3277,34 +3315,42 @@ class UserControllerTest {
         when(bindingResult.hasErrors()).thenReturn(true);
         when(bindingResult.getAllErrors()).thenReturn(Collections.emptyList());
 
-        AppRoleViewModel role1 = AppRoleViewModel.builder().name("role1").selected(true).build();
-        AppRoleViewModel role2 = AppRoleViewModel.builder().name("role2").selected(true).build();
-        List<AppRoleViewModel> roles = List.of(role1, role2);
+        AppRoleDto role1 = createAppRoleDto("role1", "role1", null);
+        AppRoleDto role2 = createAppRoleDto("role2", "role2", null);
+        AppRoleDto role3 = createAppRoleDto(UUID.randomUUID().toString(), "role3", null);
+        AppDto currentApp = AppDto.builder().id("app2").name("App Two").build();
 
-        Model modelFromSession = new ExtendedModelMap();
-        modelFromSession.addAttribute("roles", roles);
-        modelFromSession.addAttribute("entraUser", "entraUserMock");
-        modelFromSession.addAttribute("editUserRolesCurrentApp", "currentAppMock");
         HttpSession mockHttpSession = new MockHttpSession();
-        mockHttpSession.setAttribute("editProfileUserRolesModel", modelFromSession);
+        mockHttpSession.setAttribute("selectedApps", List.of("app1", "app2"));
         mockHttpSession.setAttribute("roleSelectableAppIndexes", Set.of(0, 1));
 
         int selectedAppIndex = 1;
         String userId = "123e4567-e89b-12d3-a456-426614174000";
-        UserProfileDto userProfileDto = new UserProfileDto(); // populate as needed
+        UserProfileDto userProfileDto = UserProfileDto.builder().userType(UserType.EXTERNAL).build();
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(createUserProfile());
+        when(userService.getAppRolesByAppIdAndUserType("app2", UserType.EXTERNAL, null))
+                .thenReturn(List.of(role1, role2, role3));
+        when(roleAssignmentService.filterRoles(any(), any())).thenReturn(List.of(role1, role2, role3));
+        when(userService.getAppByAppId("app2")).thenReturn(Optional.of(currentApp));
+        when(accessControlService.canAssignAppRoles(userId)).thenReturn(true);
+        when(accessControlService.canRemoveAppRoles(userId)).thenReturn(true);
 
         // Act
         String viewName = userController.updateUserRoles(userId, rolesForm, bindingResult,
-                selectedAppIndex, mockHttpSession, model);
+                selectedAppIndex, authentication, mockHttpSession, model);
 
-        // Assert
+        // Assert - the page is built again from the app's roles with just the submitted ones ticked
         assertThat(viewName).isEqualTo("edit-user-roles");
         assertThat(model.getAttribute("user")).isEqualTo(userProfileDto);
-        assertThat(model.getAttribute("roles")).isEqualTo(roles);
-        assertThat(model.getAttribute("entraUser")).isEqualTo("entraUserMock");
+        @SuppressWarnings("unchecked")
+        List<AppRoleViewModel> roles = (List<AppRoleViewModel>) model.getAttribute("roles");
+        assertThat(roles).extracting(AppRoleViewModel::getName).containsExactly("role1", "role2", "role3");
+        assertThat(roles).extracting(AppRoleViewModel::isSelected).containsExactly(true, true, false);
+        assertThat(model.getAttribute("isCcmsApp")).isEqualTo(false);
         assertThat(model.getAttribute("editUserRolesSelectedAppIndex")).isEqualTo(selectedAppIndex);
-        assertThat(model.getAttribute("editUserRolesCurrentApp")).isEqualTo("currentAppMock");
+        assertThat(model.getAttribute("editUserRolesCurrentApp")).isEqualTo(currentApp);
+        assertThat(mockHttpSession.getAttribute("editProfileUserRolesModel")).isNull();
         assertThat(model.getAttribute("backUrl"))
                 .isEqualTo("/admin/users/edit/123e4567-e89b-12d3-a456-426614174000/roles?selectedAppIndex=0");
     }
@@ -3888,11 +3934,8 @@ class UserControllerTest {
     void postUser_shouldHandleValidationErrors() {
         BindingResult result = Mockito.mock(BindingResult.class);
         when(result.hasErrors()).thenReturn(true);
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("userTypes", List.of());
-        sessionModel.addAttribute("selectedUserType", null);
-        sessionModel.addAttribute("user", new EntraUserDto());
-        Mockito.lenient().when(session.getAttribute("createUserDetailsModel")).thenReturn(sessionModel);
+        EntraUserDto user = new EntraUserDto();
+        when(session.getAttribute("user")).thenReturn(user);
 
         final Model model = new ExtendedModelMap();
         UserDetailsForm form = new UserDetailsForm();
@@ -3900,8 +3943,7 @@ class UserControllerTest {
         String view = userController.postUser(form, result, session, model);
 
         assertThat(view).isEqualTo("add-user-details");
-        assertThat(model.getAttribute("userTypes")).isNotNull();
-        assertThat(model.getAttribute("user")).isNotNull();
+        assertThat(model.getAttribute("user")).isEqualTo(user);
     }
 
     @Test
@@ -4197,11 +4239,6 @@ class UserControllerTest {
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("userTypes", List.of());
-        sessionModel.addAttribute("user", user);
-        testSession.setAttribute("createUserDetailsModel", sessionModel);
-
         // When
         String result = userController.postUser(userDetailsForm, bindingResult, testSession, model);
 
@@ -4264,11 +4301,6 @@ class UserControllerTest {
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("userTypes", List.of());
-        sessionModel.addAttribute("user", user);
-        testSession.setAttribute("createUserDetailsModel", sessionModel);
-
         // When
         String result = userController.postUser(userDetailsForm, bindingResult, testSession, model);
 
@@ -4296,11 +4328,6 @@ class UserControllerTest {
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("userTypes", List.of());
-        sessionModel.addAttribute("user", user);
-        testSession.setAttribute("createUserDetailsModel", sessionModel);
-
         // When
         String result = userController.postUser(userDetailsForm, bindingResult, testSession, model);
 
@@ -4474,7 +4501,7 @@ class UserControllerTest {
                 .build();
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         UserProfile userProfile = UserProfile.builder()
                 .id(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"))
@@ -4488,7 +4515,7 @@ class UserControllerTest {
         MockHttpSession testSession = new MockHttpSession();
 
         // When
-        String view = userController.editUserOffices(userId, model, authentication, testSession);
+        String view = userController.editUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("edit-user-offices");
@@ -4665,7 +4692,7 @@ class UserControllerTest {
     }
 
     @Test
-    void grantAccessSetSelectedApps_shouldRedirectToManageUserWhenNoAppsSelected() {
+    void grantAccessSetSelectedApps_shouldShowAppsPageWithNothingTickedWhenNoAppsSelected() {
         // Given
         final String userId = "550e8400-e29b-41d4-a716-446655440000";
         ApplicationsForm applicationsForm = new ApplicationsForm();
@@ -4674,21 +4701,20 @@ class UserControllerTest {
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        UserProfileDto userProfileDto = new UserProfileDto();
-        EntraUserDto entraUser = new EntraUserDto();
-        userProfileDto.setEntraUser(entraUser);
-        CurrentUserDto currentUserDto = new CurrentUserDto();
-        currentUserDto.setUserId(UUID.randomUUID());
-        currentUserDto.setName("test user");
-
-        testSession.setAttribute("grantAccessUserAppsModel", null);
+        UserProfileDto userProfileDto = UserProfileDto.builder().userType(UserType.EXTERNAL).build();
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(userProfileDto));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(createUserProfile());
+        when(userService.getAppsByUserType(UserType.EXTERNAL)).thenReturn(List.of());
 
         // When
         String result = userController.grantAccessSetSelectedApps(userId, applicationsForm, bindingResult,
                 authentication, model, testSession);
 
         // Then
-        assertThat(result).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/apps");
+        assertThat(result).isEqualTo("grant-access-user-apps");
+        assertThat(model.getAttribute("user")).isEqualTo(userProfileDto);
+        assertThat((List<?>) model.getAttribute("apps")).isEmpty();
+        assertThat(testSession.getAttribute("grantAccessUserAppsModel")).isNull();
     }
 
     @Test
@@ -4697,56 +4723,40 @@ class UserControllerTest {
         ApplicationsForm applicationsForm = new ApplicationsForm();
         applicationsForm.setApps(null); // This will trigger validation error
 
-        // Mock session model with apps data
+        // The apps page is built again from the user's type and the editor's permissions
+        String userId = "550e8400-e29b-41d4-a716-446655440000";
         UserProfileDto user = new UserProfileDto();
         user.setId(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"));
+        user.setUserType(UserType.EXTERNAL);
 
-        AppDto app1 = new AppDto();
-        app1.setId("app1");
-        app1.setName("App 1");
-        app1.setEnabled(true);
-        List<AppDto> apps = List.of(app1);
+        AppDto app1 = AppDto.builder().id("app1").name("App 1").enabled(true).selected(true).ordinal(1).build();
+        AppDto app2 = AppDto.builder().id("app2").name("App 2").enabled(false).ordinal(2).build();
+        AppDto app3 = AppDto.builder().id("app3").name("App 3").enabled(true).ordinal(3).build();
+        UserProfile editor = createUserProfile();
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("user", user);
-        sessionModel.addAttribute("apps", apps);
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(editor);
+        when(userService.getAppsByUserType(UserType.EXTERNAL)).thenReturn(List.of(app1, app2, app3));
+        when(roleAssignmentService.canUserAssignRolesForApp(editor, app1)).thenReturn(true);
+        when(roleAssignmentService.canUserAssignRolesForApp(editor, app3)).thenReturn(false);
 
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("grantAccessUserAppsModel", sessionModel);
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
 
         // When
-        String userId = "550e8400-e29b-41d4-a716-446655440000";
         String result = userController.grantAccessSetSelectedApps(userId, applicationsForm, bindingResult,
                 authentication, model, testSession);
 
         // Then
         assertThat(result).isEqualTo("grant-access-user-apps");
         assertThat(model.getAttribute("user")).isEqualTo(user);
-        assertThat(model.getAttribute("apps")).isEqualTo(apps);
-    }
-
-    @Test
-    void grantAccessSetSelectedApps_shouldRedirectWhenValidationErrorsAndNoSessionModel() {
-        // Given
-        String userId = "550e8400-e29b-41d4-a716-446655440000";
-        ApplicationsForm applicationsForm = new ApplicationsForm();
-        applicationsForm.setApps(null); // This will trigger validation error
-
-        MockHttpSession testSession = new MockHttpSession();
-        // No session model present
-
-        BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(true);
-
-        // When
-        String result = userController.grantAccessSetSelectedApps(userId, applicationsForm, bindingResult,
-                authentication, model, testSession);
-
-        // Then
-        assertThat(result).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/apps");
+        @SuppressWarnings("unchecked")
+        List<AppDto> apps = (List<AppDto>) model.getAttribute("apps");
+        assertThat(apps).extracting(AppDto::getId).containsExactly("app1");
+        assertThat(apps.getFirst().isSelected()).isFalse();
+        verify(appService).buildGroupedApps(apps);
     }
 
     @Test
@@ -4765,15 +4775,9 @@ class UserControllerTest {
         AppRoleDto role2 = AppRoleDto.builder().app(app2).id("role2").name("Role 2").ordinal(2).build();
         AppDto app3 = AppDto.builder().id("app3").name("App 3").enabled(true).ordinal(3).build();
         AppRoleDto role3 = AppRoleDto.builder().app(app3).id("role3").name("Role 3").ordinal(3).build();
-        List<AppDto> apps = List.of(app1, app2, app3);
         final List<AppRoleDto> roles = List.of(role1, role2, role3);
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("user", user);
-        sessionModel.addAttribute("apps", apps);
-
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("grantAccessUserAppsModel", sessionModel);
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(false);
@@ -4835,7 +4839,7 @@ class UserControllerTest {
         assertThat(model.getAttribute("user")).isEqualTo(user);
         assertThat(model.getAttribute("grantAccessSelectedAppIndex")).isEqualTo(0);
         assertThat(model.getAttribute("grantAccessCurrentApp")).isEqualTo(currentApp);
-        assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNotNull();
+        assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
     }
 
     @Test
@@ -4904,10 +4908,6 @@ class UserControllerTest {
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("grantAccessSelectedApps", List.of("app1", "app2"));
 
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("grantAccessSelectedAppIndex", 0);
-        testSession.setAttribute("grantAccessUserRolesModel", sessionModel);
-
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(false);
 
@@ -4948,12 +4948,8 @@ class UserControllerTest {
         existingRoles.put(0, List.of("role1"));
         testSession.setAttribute("grantAccessAllSelectedRoles", existingRoles);
 
-        Model sessionModel = new ExtendedModelMap();
-        testSession.setAttribute("grantAccessUserRolesModel", sessionModel);
-
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
 
         // When - updating roles for last app (index 1)
         String view = userController.grantAccessUpdateUserRoles(
@@ -4966,7 +4962,6 @@ class UserControllerTest {
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/offices");
-        assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNotNull();
         assertThat(testSession.getAttribute("grantAccessAllSelectedRoles")).isNotNull();
     }
 
@@ -4997,14 +4992,10 @@ class UserControllerTest {
         existingRoles.put(0, List.of("role1"));
         testSession.setAttribute("grantAccessAllSelectedRoles", existingRoles);
 
-        Model sessionModel = new ExtendedModelMap();
-        testSession.setAttribute("grantAccessUserRolesModel", sessionModel);
-
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(false);
         when(userService.getUserAppRolesByUserId(userId)).thenReturn(List.of(role1, role2));
         when(roleAssignmentService.canUserAssignRolesForApp(any(), any())).thenReturn(false).thenReturn(false);
-        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
 
         // When - updating roles for last app (index 1)
         String view = userController.grantAccessUpdateUserRoles(
@@ -5017,7 +5008,6 @@ class UserControllerTest {
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/offices");
-        assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNotNull();
         assertThat(testSession.getAttribute("grantAccessAllSelectedRoles")).isNotNull();
         List<String> nonEditableAppRoles = (List<String>) testSession.getAttribute("nonEditableRoles");
         assertThat(nonEditableAppRoles).isNotEmpty();
@@ -5031,15 +5021,17 @@ class UserControllerTest {
         RolesForm rolesForm = new RolesForm();
         rolesForm.setRoles(null); // Validation error
 
-        Model sessionModel = new ExtendedModelMap();
-        AppRoleViewModel role1 = AppRoleViewModel.builder().name("role1").selected(true).build();
-        sessionModel.addAttribute("roles", List.of(role1));
-        sessionModel.addAttribute("user", new UserProfileDto());
-        sessionModel.addAttribute("grantAccessSelectedAppIndex", 0);
-        sessionModel.addAttribute("grantAccessCurrentApp", new AppDto());
+        UserProfileDto user = UserProfileDto.builder().userType(UserType.EXTERNAL).build();
+        AppDto currentApp = AppDto.builder().id("app1").name("App 1").build();
+        AppRoleDto role1 = createAppRoleDto(UUID.randomUUID().toString(), "role1", null);
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(createUserProfile());
+        when(userService.getAppRolesByAppIdAndUserType("app1", UserType.EXTERNAL, null)).thenReturn(List.of(role1));
+        when(roleAssignmentService.filterRoles(any(), any())).thenReturn(List.of(role1));
+        when(userService.getAppByAppId("app1")).thenReturn(Optional.of(currentApp));
 
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("grantAccessUserRolesModel", sessionModel);
+        testSession.setAttribute("grantAccessSelectedApps", List.of("app1"));
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
         when(bindingResult.hasErrors()).thenReturn(true);
@@ -5054,6 +5046,23 @@ class UserControllerTest {
         List<AppRoleViewModel> roles = (List<AppRoleViewModel>) model.getAttribute("roles");
         assertThat(roles).hasSize(1);
         assertThat(roles.getFirst().isSelected()).isFalse(); // Should be deselected due to validation error
+        assertThat(model.getAttribute("user")).isEqualTo(user);
+        assertThat(model.getAttribute("grantAccessSelectedAppIndex")).isEqualTo(0);
+        assertThat(model.getAttribute("grantAccessCurrentApp")).isEqualTo(currentApp);
+    }
+
+    @Test
+    void grantAccessUpdateUserRoles_shouldRedirectWhenSelectedAppsMissing() {
+        // Given
+        final String userId = "550e8400-e29b-41d4-a716-446655440005";
+        BindingResult bindingResult = Mockito.mock(BindingResult.class);
+
+        // When
+        String view = userController.grantAccessUpdateUserRoles(userId, new RolesForm(), bindingResult, 0, authentication,
+                model, new MockHttpSession());
+
+        // Then
+        assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/roles");
     }
 
     @Test
@@ -5096,10 +5105,10 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5115,7 +5124,7 @@ class UserControllerTest {
 
         OfficesForm form = (OfficesForm) model.getAttribute("officesForm");
         assertThat(form.getOffices()).contains(office1Id.toString());
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNotNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isInstanceOf(OfficesJourneyState.class);
     }
 
     @Test
@@ -5145,7 +5154,6 @@ class UserControllerTest {
 
         testSession.setAttribute("selectedOffices", selectedOffices);
 
-        when(officeService.getOfficesByIds(selectedOffices)).thenReturn(userOffices);
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
 
         List<FirmDto> userFirms = List.of(FirmDto.builder().id(UUID.randomUUID()).build());
@@ -5161,11 +5169,11 @@ class UserControllerTest {
                                 .name("Firm User Manager")
                                 .build()))
                 .build();
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(loginService.getCurrentProfile(authentication)).thenReturn(userProfile);
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5182,7 +5190,7 @@ class UserControllerTest {
 
         OfficesForm form = (OfficesForm) model.getAttribute("officesForm");
         assertThat(form.getOffices()).contains(office1Id.toString());
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNotNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isInstanceOf(OfficesJourneyState.class);
     }
 
     @Test
@@ -5221,10 +5229,10 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5272,10 +5280,10 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5323,7 +5331,7 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(appRoleService.getByIds(any())).thenReturn(List.of(AppRoleDto.builder()
                 .name("other role")
                 .build()));
@@ -5331,7 +5339,7 @@ class UserControllerTest {
         testSession.setAttribute("allSelectedRoles", Set.of("other role"));
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5379,7 +5387,7 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(appRoleService.getByIds(any())).thenReturn(List.of(AppRoleDto.builder()
                 .name("other role")
                 .build()));
@@ -5387,7 +5395,7 @@ class UserControllerTest {
         testSession.setAttribute("allSelectedRoles", Set.of("other role"));
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5435,7 +5443,7 @@ class UserControllerTest {
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getUserOfficesByUserId(userId)).thenReturn(userOffices);
         when(firmService.getUserFirmsByUserId(userId)).thenReturn(userFirms);
-        when(officeService.getOfficesByFirms(anyList())).thenReturn(allOffices);
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(allOffices));
         when(appRoleService.getByIds(any())).thenReturn(List.of(AppRoleDto.builder()
                 .name(FIRM_USER_MANAGER.getDescription())
                 .build()));
@@ -5443,7 +5451,7 @@ class UserControllerTest {
         testSession.setAttribute("allSelectedRoles", Set.of(FIRM_USER_MANAGER.getDescription()));
 
         // When
-        String view = userController.grantAccessEditUserOffices(userId, model, authentication, testSession);
+        String view = userController.grantAccessEditUserOffices(userId, "", 1, model, authentication, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
@@ -5456,33 +5464,31 @@ class UserControllerTest {
     }
 
     @Test
-    void grantAccessUpdateUserOffices_shouldUpdateOfficesAndRedirectToCheckAnswers() throws IOException {
+    void grantAccessUpdateUserOffices_shouldUpdateOfficesAndRedirectToCheckAnswers() {
         // Given
         final String userId = "550e8400-e29b-41d4-a716-446655440008";
+        final String office1 = UUID.randomUUID().toString();
+        final String office2 = UUID.randomUUID().toString();
         OfficesForm officesForm = new OfficesForm();
-        officesForm.setOffices(List.of("office1", "office2"));
-
-        UserProfileDto userProfileDto = new UserProfileDto();
-        EntraUserDto entraUser = new EntraUserDto();
-        userProfileDto.setEntraUser(entraUser);
-        CurrentUserDto currentUserDto = new CurrentUserDto();
-        currentUserDto.setUserId(UUID.randomUUID());
-        currentUserDto.setName("test user");
+        officesForm.setOffices(List.of(office1, office2));
 
         MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("grantAccessUserOffices", new OfficesJourneyState(userId, false, null));
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(false);
 
         // When
-        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, authentication,
-                model, testSession);
+        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult,
+                List.of(UUID.fromString(office1), UUID.fromString(office2)), "", 1, null, null, model, testSession);
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/check-answers");
+        @SuppressWarnings("unchecked")
+        List<String> selectedOffices = (List<String>) testSession.getAttribute("selectedOffices");
+        assertThat(selectedOffices).containsExactlyInAnyOrder(office1, office2);
 
         // Verify session cleanup
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isNull();
         assertThat(testSession.getAttribute("grantAccessSelectedApps")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRoles")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
@@ -5490,79 +5496,94 @@ class UserControllerTest {
     }
 
     @Test
-    void grantAccessUpdateUserOffices_shouldHandleAllOfficesSelection() throws IOException {
+    void grantAccessUpdateUserOffices_shouldHandleAllOfficesSelection() {
         // Given
         final String userId = "550e8400-e29b-41d4-a716-446655440009";
         OfficesForm officesForm = new OfficesForm();
         officesForm.setOffices(List.of("ALL")); // Special "ALL" value
 
-        UserProfileDto userProfileDto = new UserProfileDto();
-        EntraUserDto entraUser = new EntraUserDto();
-        userProfileDto.setEntraUser(entraUser);
-        CurrentUserDto currentUserDto = new CurrentUserDto();
-        currentUserDto.setUserId(UUID.randomUUID());
-        currentUserDto.setName("test user");
-
         MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("grantAccessUserOffices", new OfficesJourneyState(userId, false,
+                List.of(UUID.randomUUID().toString())));
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(false);
 
         // When
-        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, authentication,
-                model, testSession);
+        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, List.of(), "", 1,
+                null, null, model, testSession);
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/check-answers");
+        assertThat(testSession.getAttribute("selectedOffices")).isEqualTo(List.of("ALL"));
+    }
+
+    @Test
+    void grantAccessUpdateUserOffices_shouldRedirectToSearchedOfficesKeepingTickedOffices() {
+        // Given
+        final String userId = "550e8400-e29b-41d4-a716-446655440009";
+        UUID officeId = UUID.randomUUID();
+        OfficesForm officesForm = new OfficesForm();
+        officesForm.setOffices(List.of(officeId.toString()));
+
+        MockHttpSession testSession = new MockHttpSession();
+        testSession.setAttribute("grantAccessUserOffices", new OfficesJourneyState(userId, false, null));
+
+        // When
+        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, Mockito.mock(BindingResult.class),
+                List.of(officeId), "London", 3, null, "search", model, testSession);
 
+        // Then
+        assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/offices?search=London&page=1");
+        OfficesJourneyState journey = (OfficesJourneyState) testSession.getAttribute("grantAccessUserOffices");
+        assertThat(journey.isSelected(officeId)).isTrue();
+        assertThat(testSession.getAttribute("selectedOffices")).isNull();
     }
 
     @Test
-    void grantAccessUpdateUserOffices_shouldReturnToFormOnValidationErrors() throws IOException {
+    void grantAccessUpdateUserOffices_shouldReturnToFormWhenNoOfficesSelected() {
         // Given
         final String userId = "550e8400-e29b-41d4-a716-446655440010";
         OfficesForm officesForm = new OfficesForm();
-        officesForm.setOffices(null); // Validation error
+        officesForm.setOffices(null);
 
-        Model sessionModel = new ExtendedModelMap();
-        OfficeModel office1 = new OfficeModel("Office 1",
-                OfficeModel.Address.builder().addressLine1("Address 1").build(), "office1", true);
-        sessionModel.addAttribute("user", new UserProfileDto());
-        sessionModel.addAttribute("officeData", List.of(office1));
+        Office office1 = Office.builder().id(UUID.randomUUID()).code("Office 1")
+                .address(Office.Address.builder().addressLine1("Address 1").build()).build();
+        when(userService.getUserProfileById(userId)).thenReturn(Optional.of(new UserProfileDto()));
+        when(firmService.getUserFirmsByUserId(userId)).thenReturn(List.of(FirmDto.builder().id(UUID.randomUUID()).build()));
+        when(officeService.searchFirmOffices(anyList(), eq(""), eq(1), eq(20))).thenReturn(officePage(List.of(office1)));
 
         MockHttpSession testSession = new MockHttpSession();
-        testSession.setAttribute("grantAccessUserOfficesModel", sessionModel);
+        testSession.setAttribute("grantAccessUserOffices", new OfficesJourneyState(userId, false, null));
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(true);
 
         // When
-        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, authentication,
-                model, testSession);
+        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult,
+                List.of(office1.getId()), "", 1, null, null, model, testSession);
 
         // Then
         assertThat(view).isEqualTo("grant-access-user-offices");
+        verify(bindingResult).rejectValue("offices", "offices.required", "Office selection is required");
         assertThat(model.getAttribute("user")).isNotNull();
         assertThat(model.getAttribute("officeData")).isNotNull();
+        assertThat(testSession.getAttribute("selectedOffices")).isNull();
         verify(userService, Mockito.never()).updateUserOffices(anyString(), anyList());
     }
 
     @Test
-    void grantAccessUpdateUserOffices_shouldReturnToOfficeSelectionIfSessionIsEmptyOnValidationErrors()
-            throws IOException {
+    void grantAccessUpdateUserOffices_shouldReturnToOfficeSelectionIfSessionIsEmpty() {
         // Given
         final String userId = "550e8400-e29b-41d4-a716-446655440010";
         OfficesForm officesForm = new OfficesForm();
-        officesForm.setOffices(null); // Validation error
+        officesForm.setOffices(null);
 
         MockHttpSession testSession = new MockHttpSession();
 
         BindingResult bindingResult = Mockito.mock(BindingResult.class);
-        when(bindingResult.hasErrors()).thenReturn(true);
 
         // When
-        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, authentication,
-                model, testSession);
+        String view = userController.grantAccessUpdateUserOffices(userId, officesForm, bindingResult, List.of(), "", 1,
+                null, null, model, testSession);
 
         // Then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/offices");
@@ -6221,17 +6242,11 @@ class UserControllerTest {
         assertThat(rolesInModel).hasSize(2);
         assertThat(rolesInModel.stream().map(AppRoleViewModel::getName))
                 .containsExactlyInAnyOrder("CCMS Role 1", "CCMS Role 2");
-
-        Model sessionModel = (Model) testSession.getAttribute("grantAccessUserRolesModel");
-        @SuppressWarnings("unchecked")
-        List<AppRoleViewModel> sessionRoles = (List<AppRoleViewModel>) sessionModel.getAttribute("roles");
-        assertThat(sessionRoles).hasSize(2);
-        assertThat(sessionRoles.stream().map(AppRoleViewModel::getName))
-                .containsExactlyInAnyOrder("CCMS Role 1", "CCMS Role 2");
+        assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
     }
 
     @Test
-    void grantAccessEditUserRoles_shouldUseSessionModelAppIndex() {
+    void grantAccessEditUserRoles_shouldUseRequestedAppIndex() {
         // Given
         final String userId = "user123";
         UserProfileDto user = new UserProfileDto();
@@ -6261,11 +6276,6 @@ class UserControllerTest {
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("grantAccessSelectedApps", List.of("app1", "app2"));
 
-        // Session model with app index 1 (second app)
-        Model sessionModel = new ExtendedModelMap();
-        sessionModel.addAttribute("grantAccessSelectedAppIndex", 1);
-        testSession.setAttribute("grantAccessUserRolesModel", sessionModel);
-
         when(userService.getUserProfileById(userId)).thenReturn(Optional.of(user));
         when(userService.getAppByAppId("app2")).thenReturn(Optional.of(ccmsApp));
         when(userService.getAppRolesByAppIdAndUserType(eq("app2"), any(), eq(null))).thenReturn(roles);
@@ -6525,7 +6535,7 @@ class UserControllerTest {
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/confirmation");
 
         // Verify session cleanup
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isNull();
         assertThat(testSession.getAttribute("grantAccessSelectedApps")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRoles")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
@@ -6561,7 +6571,7 @@ class UserControllerTest {
         // then
         assertThat(view).isEqualTo("redirect:/admin/journey-completed");
         // Verify session cleanup
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isNull();
         assertThat(testSession.getAttribute("grantAccessSelectedApps")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRoles")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
@@ -6600,7 +6610,7 @@ class UserControllerTest {
         // then
         assertThat(view).isEqualTo("redirect:/admin/users/grant-access/" + userId + "/confirmation");
         // Verify session cleanup
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isNull();
         assertThat(testSession.getAttribute("grantAccessSelectedApps")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRoles")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
@@ -6726,9 +6736,8 @@ class UserControllerTest {
         MockHttpSession testSession = new MockHttpSession();
         testSession.setAttribute("grantAccessSelectedApps", List.of("app1"));
         testSession.setAttribute("grantAccessUserRoles", List.of("role1"));
-        testSession.setAttribute("grantAccessUserRolesModel", new ExtendedModelMap());
         testSession.setAttribute("grantAccessAllSelectedRoles", new HashMap<>());
-        testSession.setAttribute("grantAccessUserOfficesModel", new ExtendedModelMap());
+        testSession.setAttribute("grantAccessUserOffices", new OfficesJourneyState(userId, false, null));
         testSession.setAttribute("successMessage", "test message");
 
         // When
@@ -6740,7 +6749,7 @@ class UserControllerTest {
         assertThat(testSession.getAttribute("grantAccessUserRoles")).isNull();
         assertThat(testSession.getAttribute("grantAccessUserRolesModel")).isNull();
         assertThat(testSession.getAttribute("grantAccessAllSelectedRoles")).isNull();
-        assertThat(testSession.getAttribute("grantAccessUserOfficesModel")).isNull();
+        assertThat(testSession.getAttribute("grantAccessUserOffices")).isNull();
         assertThat(testSession.getAttribute("successMessage")).isNull();
     }
 
@@ -6973,7 +6982,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication))
                 .thenReturn(UserProfile.builder().appRoles(new HashSet<>()).build());
 
-        String view = userController.disableUserReasonsGet(userId.toString(), form, model, session, authentication,
+        String view = userController.disableUserReasonsGet(userId.toString(), form, model, authentication,
                 referer, profileId);
 
         Assertions.assertEquals("disable-user-reason", view);
@@ -7017,7 +7026,7 @@ class UserControllerTest {
                 .thenReturn(UserProfile.builder().appRoles(new HashSet<>()).build());
         when(disableUserService.getDisableUserReasons(UserTypeReasonDisable.DEFAULT)).thenReturn(List.of(reason));
 
-        String view = userController.disableUserReasonsGet(userId.toString(), form, model, session, authentication,
+        String view = userController.disableUserReasonsGet(userId.toString(), form, model, authentication,
                 referer, profileId);
 
         Assertions.assertEquals("disable-user-reason", view);
@@ -7066,7 +7075,7 @@ class UserControllerTest {
         String referer = "audit";
         String profileId = UUID.randomUUID().toString();
 
-        String view = userController.disableUserReasonsGet(userId.toString(), form, model, session, authentication,
+        String view = userController.disableUserReasonsGet(userId.toString(), form, model, authentication,
                 referer, profileId);
 
         Assertions.assertEquals("disable-user-reason", view);
@@ -7112,7 +7121,7 @@ class UserControllerTest {
         when(loginService.getCurrentProfile(authentication))
                 .thenReturn(UserProfile.builder().appRoles(editorRoles).build());
 
-        String view = userController.disableUserReasonsGet(userId.toString(), form, model, session, authentication,
+        String view = userController.disableUserReasonsGet(userId.toString(), form, model, authentication,
                 referer, profileId);
 
         Assertions.assertEquals("disable-user-reason", view);
@@ -7163,7 +7172,7 @@ class UserControllerTest {
 
         String referer = "manage";
         String view = userController.disableUserReasonsPost(userId.toString(), form, result, authentication, model,
-                session, referer);
+                referer);
 
         Assertions.assertEquals("disable-user-completed", view);
         Assertions.assertEquals(returnedUser, model.getAttribute("user"));
@@ -7193,14 +7202,24 @@ class UserControllerTest {
         when(result.hasErrors()).thenReturn(true);
         when(result.getAllErrors()).thenReturn(errors);
 
-        when(session.getAttribute(eq("disableUserReasonModel"))).thenReturn(model);
+        UUID userId = UUID.randomUUID();
+        EntraUserDto returnedUser = EntraUserDto.builder()
+                .id(userId.toString())
+                .fullName("Test User")
+                .build();
+        when(userService.getEntraUserById(userId.toString())).thenReturn(Optional.of(returnedUser));
+        when(loginService.getCurrentProfile(authentication))
+                .thenReturn(UserProfile.builder().appRoles(new HashSet<>()).build());
+        when(disableUserService.getDisableUserReasons(UserTypeReasonDisable.DEFAULT)).thenReturn(List.of(reason));
 
         String referer = "manage";
-        String view = userController.disableUserReasonsPost(UUID.randomUUID().toString(), form, result, authentication,
-                model, session, referer);
+        String view = userController.disableUserReasonsPost(userId.toString(), form, result, authentication,
+                model, referer);
 
         Assertions.assertEquals("disable-user-reason", view);
         Assertions.assertEquals("There was an error\nThere was another error", model.getAttribute("errorMessage"));
+        Assertions.assertEquals(returnedUser, model.getAttribute("user"));
+        Assertions.assertEquals(1, ((List<?>) model.getAttribute("reasons")).size());
     }
 
     private AppRoleDto createAppRoleDto(String id, String name, String ccmsCode) {
@@ -7212,6 +7231,41 @@ class UserControllerTest {
         return role;
     }
 
+    private void stubNoAssignableRoles(String userId) {
+        when(userService.getUserProfileById(userId))
+                .thenReturn(Optional.of(UserProfileDto.builder().userType(UserType.EXTERNAL).build()));
+        when(loginService.getCurrentProfile(authentication)).thenReturn(createUserProfile());
+        when(userService.getAppRolesByAppIdAndUserType(any(), any(), any())).thenReturn(List.of());
+        when(roleAssignmentService.filterRoles(any(), any())).thenReturn(List.of());
+    }
+
+    private static PaginatedOffices officePage(List<Office> offices) {
+        List<OfficeDto> officeDtos = offices.stream()
+                .map(office -> OfficeDto.builder()
+                        .id(office.getId())
+                        .code(office.getCode())
+                        .address(office.getAddress() == null ? null : OfficeDto.AddressDto.builder()
+                                .addressLine1(office.getAddress().getAddressLine1())
+                                .city(office.getAddress().getCity())
+                                .postcode(office.getAddress().getPostcode())
+                                .build())
+                        .build())
+                .toList();
+        return PaginatedOffices.builder()
+                .offices(officeDtos)
+                .totalElements(officeDtos.size())
+                .totalPages(1)
+                .currentPage(1)
+                .pageSize(20)
+                .build();
+    }
+
+    private static OfficesJourneyState chosenOffices(String userId, List<String> offices) {
+        OfficesJourneyState journey = new OfficesJourneyState(userId, false, null);
+        journey.setOffices(offices);
+        return journey;
+    }
+
     private UserProfile createUserProfile() {
         return UserProfile.builder()
                 .id(UUID.randomUUID())
@@ -8233,13 +8287,7 @@ class UserControllerTest {
             assertThat(rolesInModel).hasSize(2); // Only 2 CCMS roles
             assertThat(rolesInModel.stream().map(AppRoleViewModel::getName))
                     .containsExactlyInAnyOrder("CCMS Role 1", "CCMS Role 2");
-
-            Model sessionModel = (Model) testSession.getAttribute("editProfileUserRolesModel");
-            @SuppressWarnings("unchecked")
-            List<AppRoleViewModel> sessionRoles = (List<AppRoleViewModel>) sessionModel.getAttribute("roles");
-            assertThat(sessionRoles).hasSize(2); // Session should also have filtered roles
-            assertThat(sessionRoles.stream().map(AppRoleViewModel::getName))
-                    .containsExactlyInAnyOrder("CCMS Role 1", "CCMS Role 2");
+            assertThat(testSession.getAttribute("editProfileUserRolesModel")).isNull();
         }
 
         @Test
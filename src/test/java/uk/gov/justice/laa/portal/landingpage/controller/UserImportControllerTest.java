@@ -0,0 +1,257 @@
+package uk.gov.justice.laa.portal.landingpage.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.Authentication;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+import uk.gov.justice.laa.portal.landingpage.constants.ModelAttributes;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.service.FirmService;
+import uk.gov.justice.laa.portal.landingpage.service.LoginService;
+import uk.gov.justice.laa.portal.landingpage.service.UserImportService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportControllerTest {
+
+    @Mock
+    private UserImportService userImportService;
+    @Mock
+    private FirmService firmService;
+    @Mock
+    private LoginService loginService;
+    @Mock
+    private Authentication authentication;
+
+    private UserImportController controller;
+    private Model model;
+    private UUID firmId;
+    private FirmDto firm;
+
+    @BeforeEach
+    void setUp() {
+        controller = new UserImportController(userImportService, firmService, loginService);
+        model = new ExtendedModelMap();
+        firmId = UUID.randomUUID();
+        firm = FirmDto.builder().id(firmId).code("F1").name("Firm One").build();
+    }
+
+    @Nested
+    class Upload {
+
+        @BeforeEach
+        void setUp() {
+            when(firmService.getFirm(firmId)).thenReturn(firm);
+        }
+
+        @Test
+        void importUsers_showsTheUploadPage() {
+            when(userImportService.getMaxRows()).thenReturn(1000);
+
+            String view = controller.importUsers(firmId, model);
+
+            assertThat(view).isEqualTo("firm-directory/import-users");
+            assertThat(model.getAttribute("firm")).isEqualTo(firm);
+            assertThat(model.getAttribute("maxRows")).isEqualTo(1000);
+            assertThat(model.getAttribute(ModelAttributes.PAGE_TITLE)).isEqualTo("Import users - Firm One");
+        }
+
+        @Test
+        void importUsersPost_asksForAFileWhenNoneIsSelected() {
+            when(userImportService.getMaxRows()).thenReturn(1000);
+            MockMultipartFile empty = new MockMultipartFile("file", "users.csv", "text/csv", new byte[0]);
+
+            String view = controller.importUsersPost(firmId, empty, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/import-users");
+            assertThat(model.getAttribute("errorMessage")).isEqualTo("Select a CSV file");
+            verify(userImportService, never()).createImport(any(), any(), any(), any());
+        }
+
+        @Test
+        void importUsersPost_rejectsFilesThatAreNotCsv() {
+            when(userImportService.getMaxRows()).thenReturn(1000);
+            MockMultipartFile spreadsheet = new MockMultipartFile("file", "users.xlsx", "application/octet-stream",
+                    new byte[] {1, 2, 3});
+
+            String view = controller.importUsersPost(firmId, spreadsheet, model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/import-users");
+            assertThat(model.getAttribute("errorMessage")).isEqualTo("The selected file must be a CSV file");
+        }
+
+        @Test
+        void importUsersPost_showsWhyTheFileCannotBeImported() {
+            when(userImportService.getMaxRows()).thenReturn(1000);
+            CurrentUserDto currentUser = new CurrentUserDto();
+            when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
+            when(userImportService.createImport(eq(firm), eq("users.csv"), any(), eq(currentUser)))
+                    .thenThrow(new IllegalArgumentException("The file does not have any users in it"));
+
+            String view = controller.importUsersPost(firmId, csv(), model, authentication);
+
+            assertThat(view).isEqualTo("firm-directory/import-users");
+            assertThat(model.getAttribute("errorMessage")).isEqualTo("The file does not have any users in it");
+        }
+
+        @Test
+        void importUsersPost_redirectsToTheCheckedFile() {
+            CurrentUserDto currentUser = new CurrentUserDto();
+            UUID jobId = UUID.randomUUID();
+            when(loginService.getCurrentUser(authentication)).thenReturn(currentUser);
+            when(userImportService.createImport(eq(firm), eq("users.csv"), any(), eq(currentUser)))
+                    .thenReturn(UserImportJob.builder().id(jobId).firmId(firmId).build());
+
+            String view = controller.importUsersPost(firmId, csv(), model, authentication);
+
+            assertThat(view).isEqualTo("redirect:/admin/firmDirectory/" + firmId + "/import-users/" + jobId);
+        }
+
+        private MockMultipartFile csv() {
+            return new MockMultipartFile("file", "users.csv", "text/csv",
+                    "First name,Last name,Email\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Nested
+    class Job {
+
+        private UUID jobId;
+        private UserImportJob job;
+
+        @BeforeEach
+        void setUp() {
+            jobId = UUID.randomUUID();
+            job = UserImportJob.builder().id(jobId).firmId(firmId).firmName("Firm One")
+                    .createdAt(LocalDateTime.of(2026, 10, 19, 9, 30)).build();
+            when(userImportService.getJob(jobId)).thenReturn(Optional.of(job));
+        }
+
+        @Test
+        void importUsersJob_previewsTheRowsThatCannotBeImported() {
+            List<UserImportRow> invalid = List.of(UserImportRow.builder().rowNumber(3)
+                    .status(UserImportRowStatus.INVALID).build());
+            when(userImportService.getRows(jobId, UserImportRowStatus.INVALID, 1, 50))
+                    .thenReturn(new PageImpl<>(invalid, PageRequest.of(0, 50), 1));
+
+            String view = controller.importUsersJob(firmId, jobId, 1, model);
+
+            assertThat(view).isEqualTo("firm-directory/import-users-job");
+            assertThat(model.getAttribute("preview")).isEqualTo(true);
+            assertThat(model.getAttribute("rows")).isEqualTo(invalid);
+            assertThat(model.getAttribute("totalPages")).isEqualTo(1);
+            assertThat(model.getAttribute(ModelAttributes.PAGE_TITLE)).isEqualTo("Import users - Firm One");
+        }
+
+        @Test
+        void importUsersJob_showsEveryRowOnceConfirmed() {
+            job.setStatus(UserImportJobStatus.RUNNING);
+            when(userImportService.getRows(jobId, null, 2, 50))
+                    .thenReturn(new PageImpl<>(List.of(), PageRequest.of(1, 50), 60));
+
+            controller.importUsersJob(firmId, jobId, 2, model);
+
+            assertThat(model.getAttribute("preview")).isEqualTo(false);
+            assertThat(model.getAttribute("page")).isEqualTo(2);
+            assertThat(model.getAttribute("totalPages")).isEqualTo(2);
+        }
+
+        @Test
+        void importUsersJob_isNotFoundForAnotherFirm() {
+            UUID otherFirmId = UUID.randomUUID();
+
+            assertThatThrownBy(() -> controller.importUsersJob(otherFirmId, jobId, 1, model))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                    .isEqualTo(HttpStatus.NOT_FOUND);
+            verify(userImportService, never()).getRows(any(), any(), anyInt(), anyInt());
+        }
+
+        @Test
+        void confirmImport_queuesTheImport() {
+            RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+            when(userImportService.confirmImport(jobId)).thenReturn(true);
+
+            String view = controller.confirmImport(firmId, jobId, redirectAttributes);
+
+            assertThat(view).isEqualTo("redirect:/admin/firmDirectory/" + firmId + "/import-users/" + jobId);
+            assertThat(redirectAttributes.getFlashAttributes()).isEmpty();
+        }
+
+        @Test
+        void confirmImport_saysWhenAnotherImportIsInProgress() {
+            RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+            when(userImportService.confirmImport(jobId)).thenReturn(false);
+
+            controller.confirmImport(firmId, jobId, redirectAttributes);
+
+            assertThat(redirectAttributes.getFlashAttributes().get("errorMessage"))
+                    .isEqualTo("Users are already being imported for Firm One. Try again once they have been created.");
+        }
+
+        @Test
+        void confirmImport_showsWhyTheImportCannotBeConfirmed() {
+            RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+            when(userImportService.confirmImport(jobId))
+                    .thenThrow(new IllegalArgumentException("These users have already been imported"));
+
+            controller.confirmImport(firmId, jobId, redirectAttributes);
+
+            assertThat(redirectAttributes.getFlashAttributes().get("errorMessage"))
+                    .isEqualTo("These users have already been imported");
+        }
+
+        @Test
+        void cancelImport_returnsToTheFirm() {
+            String view = controller.cancelImport(firmId, jobId);
+
+            assertThat(view).isEqualTo("redirect:/admin/firmDirectory/" + firmId);
+            verify(userImportService).cancelImport(jobId);
+        }
+
+        @Test
+        void downloadResults_returnsTheResultsAsAnAttachment() {
+            byte[] csv = "Row\n".getBytes(StandardCharsets.UTF_8);
+            when(userImportService.getResultsCsv(jobId)).thenReturn(csv);
+
+            ResponseEntity<byte[]> response = controller.downloadResults(firmId, jobId);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(csv);
+            assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                    .isEqualTo("attachment; filename=\"user-import-results_2026-10-19_" + jobId + ".csv\"");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package uk.gov.justice.laa.portal.landingpage.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfficesJourneyStateTest {
+
+    @Test
+    void isFor_matchesTheUserTheJourneyWasStartedFor() {
+        OfficesJourneyState state = new OfficesJourneyState("user-1", true, null);
+
+        assertThat(state.isFor("user-1")).isTrue();
+        assertThat(state.isFor("user-2")).isFalse();
+    }
+
+    @Test
+    void isFor_ignoresStateSavedByAnotherVersion() {
+        OfficesJourneyState state = new OfficesJourneyState(OfficesJourneyState.CURRENT_VERSION - 1, "user-1", true,
+                null);
+
+        assertThat(state.isFor("user-1")).isFalse();
+    }
+
+    @Test
+    void setOffices_choosesTheSubmittedOffices() {
+        UUID officeId = UUID.randomUUID();
+        List<String> submitted = new ArrayList<>(List.of(officeId.toString()));
+        OfficesJourneyState state = new OfficesJourneyState("user-1", false, List.of(UUID.randomUUID().toString()));
+        assertThat(state.getOffices()).isNull();
+
+        state.setOffices(submitted);
+        submitted.add(UUID.randomUUID().toString());
+
+        assertThat(state.getOffices()).containsExactly(officeId.toString());
+        assertThat(state.isChosen()).isTrue();
+    }
+
+    @Test
+    void newState_keepsOfficeIdsAllAndNoOfficesAndIgnoresAnythingElse() {
+        UUID officeId = UUID.randomUUID();
+
+        OfficesJourneyState state = new OfficesJourneyState("user-1", false,
+                Arrays.asList(officeId.toString(), "not-an-id", null));
+
+        assertThat(state.getOfficeIds()).containsExactly(officeId);
+        assertThat(state.isAllOffices()).isFalse();
+        assertThat(new OfficesJourneyState("user-1", false, List.of("ALL")).isAllOffices()).isTrue();
+        assertThat(new OfficesJourneyState("user-1", true, List.of("NO_OFFICES")).toOffices())
+                .containsExactly("NO_OFFICES");
+        assertThat(new OfficesJourneyState("user-1", false, null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void update_replacesChoicesForShownOfficesOnly() {
+        UUID otherPage = UUID.randomUUID();
+        UUID unticked = UUID.randomUUID();
+        UUID ticked = UUID.randomUUID();
+        OfficesJourneyState state = new OfficesJourneyState("user-1", false,
+                List.of(otherPage.toString(), unticked.toString()));
+
+        state.update(List.of(unticked, ticked), List.of(ticked.toString()));
+
+        assertThat(state.getOfficeIds()).containsExactlyInAnyOrder(otherPage, ticked);
+        assertThat(state.isSelected(unticked)).isFalse();
+        assertThat(state.isChosen()).isFalse();
+    }
+
+    @Test
+    void update_untickingAllOfficesClearsIt() {
+        OfficesJourneyState state = new OfficesJourneyState("user-1", false, List.of("ALL"));
+
+        state.update(List.of(), null);
+
+        assertThat(state.isAllOffices()).isFalse();
+        assertThat(state.isEmpty()).isTrue();
+    }
+
+    @Test
+    void toOffices_isAllOnlyWhenAllOfficesTicked() {
+        UUID officeId = UUID.randomUUID();
+
+        assertThat(new OfficesJourneyState("user-1", false, List.of("ALL", officeId.toString())).toOffices())
+                .containsExactly("ALL");
+        assertThat(new OfficesJourneyState("user-1", false, List.of(officeId.toString())).toOffices())
+                .containsExactly(officeId.toString());
+    }
+
+    @Test
+    void serialisedState_staysSmallWhateverTheNumberOfOffices() throws IOException, ClassNotFoundException {
+        OfficesJourneyState state = new OfficesJourneyState("550e8400-e29b-41d4-a716-446655440000", true, null);
+        state.setOffices(List.of("ALL"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        OfficesJourneyState read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (OfficesJourneyState) in.readObject();
+        }
+
+        assertThat(bytes.size()).isLessThan(1024);
+        assertThat(read.isFor("550e8400-e29b-41d4-a716-446655440000")).isTrue();
+        assertThat(read.isShowNoOffice()).isTrue();
+        assertThat(read.getOffices()).containsExactly("ALL");
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.polling;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +12,7 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.InternalUserPollingService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +36,7 @@ class InternalUserPollingTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         internalUserPolling = new InternalUserPolling(internalUserPollingService, lockService);
         setPollingEnabled(true);
         ReflectionTestUtils.setField(internalUserPolling, "enableDistributedDbLocking", true);
@@ -43,7 +45,7 @@ class InternalUserPollingTest {
     @Test
     void shouldAcquireLockAndCallPollForNewUsers_whenPollingEnabled() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         internalUserPolling.poll();
 
         // Then
@@ -90,7 +92,7 @@ class InternalUserPollingTest {
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
         // Given
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         setPollingEnabled(true);
         InternalUserPolling anotherInstance = new InternalUserPolling(internalUserPollingService, lockService);
 
@@ -111,7 +113,7 @@ class InternalUserPollingTest {
     @Test
     void shouldReleaseLockAfterPolling() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         internalUserPolling.poll();
 
         // Then
@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.reports;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +12,7 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.ExternalUserReportingService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -19,6 +21,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +37,7 @@ public class ExternalUserReportSchedulerTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         externalUserReportScheduler = new ExternalUserReportScheduler(externalUserReportingService, lockService);
         setReportingEnabled(true);
         ReflectionTestUtils.setField(externalUserReportScheduler, "enableDistributedDbLocking", true);
@@ -43,11 +46,11 @@ public class ExternalUserReportSchedulerTest {
     @Test
     void shouldAcquireLockAndCallReportForNewUsers_whenReportEnabled() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         externalUserReportScheduler.getReport();
 
         // Then
-        verify(externalUserReportingService).downloadExternalUserCsv();
+        verify(externalUserReportingService).downloadExternalUserCsv(any());
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
     }
 
@@ -72,7 +75,7 @@ public class ExternalUserReportSchedulerTest {
         externalUserReportScheduler.getReport();
 
         // Then
-        verify(externalUserReportingService, never()).downloadExternalUserCsv();
+        verifyNoInteractions(externalUserReportingService);
     }
 
     @Test
@@ -84,13 +87,13 @@ public class ExternalUserReportSchedulerTest {
 
         // When/Then
         assertDoesNotThrow(() -> externalUserReportScheduler.getReport());
-        verify(externalUserReportingService, never()).downloadExternalUserCsv();
+        verifyNoInteractions(externalUserReportingService);
     }
 
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
         // Given
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         setReportingEnabled(true);
         ExternalUserReportScheduler anotherInstance = new ExternalUserReportScheduler(externalUserReportingService, lockService);
 
@@ -98,20 +101,20 @@ public class ExternalUserReportSchedulerTest {
         externalUserReportScheduler.getReport();
 
         // Then
-        verify(externalUserReportingService).downloadExternalUserCsv();
+        verify(externalUserReportingService).downloadExternalUserCsv(any());
 
         // When
         anotherInstance.getReport();
 
         // Then
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
-        verify(externalUserReportingService).downloadExternalUserCsv();
+        verify(externalUserReportingService).downloadExternalUserCsv(any());
     }
 
     @Test
     void shouldReleaseLockAfterReporting() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         externalUserReportScheduler.getReport();
 
         // Then
@@ -120,7 +123,7 @@ public class ExternalUserReportSchedulerTest {
                 any(LocalDateTime.class),
                 anyString()
         );
-        verify(externalUserReportingService).downloadExternalUserCsv();
+        verify(externalUserReportingService).downloadExternalUserCsv(any());
     }
 
     private void setReportingEnabled(boolean enabled) {
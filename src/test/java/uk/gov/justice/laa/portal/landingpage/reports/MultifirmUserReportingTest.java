@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.reports;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +13,7 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.MultifirmUserReportService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +22,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +38,7 @@ public class MultifirmUserReportingTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         multifirmUserReporting = new MultifirmUserReporting(multifirmUserReportService, lockService);
         setreportingEnabled(true);
         ReflectionTestUtils.setField(multifirmUserReporting, "enableDistributedDbLocking", true);
@@ -44,11 +47,11 @@ public class MultifirmUserReportingTest {
     @Test
     void shouldAcquireLockAndCallgetMultifirmUsers_whenreportingEnabled() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         multifirmUserReporting.getReport();
 
         // Then
-        verify(multifirmUserReportService).getMultifirmUsers();
+        verify(multifirmUserReportService).getMultifirmUsers(any());
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
     }
 
@@ -73,7 +76,7 @@ public class MultifirmUserReportingTest {
         multifirmUserReporting.getReport();
 
         // Then
-        verify(multifirmUserReportService, never()).getMultifirmUsers();
+        verifyNoInteractions(multifirmUserReportService);
     }
 
     @Test
@@ -85,13 +88,13 @@ public class MultifirmUserReportingTest {
 
         // When/Then
         assertDoesNotThrow(() -> multifirmUserReporting.getReport());
-        verify(multifirmUserReportService, never()).getMultifirmUsers();
+        verifyNoInteractions(multifirmUserReportService);
     }
 
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
         // Given
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         setreportingEnabled(true);
         MultifirmUserReporting anotherInstance = new MultifirmUserReporting(multifirmUserReportService, lockService);
 
@@ -99,20 +102,20 @@ public class MultifirmUserReportingTest {
         multifirmUserReporting.getReport();
 
         // Then
-        verify(multifirmUserReportService).getMultifirmUsers();
+        verify(multifirmUserReportService).getMultifirmUsers(any());
 
         // When
         anotherInstance.getReport();
 
         // Then
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
-        verify(multifirmUserReportService).getMultifirmUsers();
+        verify(multifirmUserReportService).getMultifirmUsers(any());
     }
 
     @Test
     void shouldReleaseLockAfterReporting() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         multifirmUserReporting.getReport();
 
         // Then
@@ -121,7 +124,7 @@ public class MultifirmUserReportingTest {
                 any(LocalDateTime.class),
                 anyString()
         );
-        verify(multifirmUserReportService).getMultifirmUsers();
+        verify(multifirmUserReportService).getMultifirmUsers(any());
     }
 
     // Helper method to set reporting enabled state
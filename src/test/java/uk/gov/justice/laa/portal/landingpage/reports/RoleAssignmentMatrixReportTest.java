@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.reports;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +13,7 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.RoleAssignmentMatrixReportService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +22,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +39,7 @@ public class RoleAssignmentMatrixReportTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         roleAssignmentMatrixReport = new RoleAssignmentMatrixReport(matrixReportService, lockService);
         setReportingEnabled(true);
         ReflectionTestUtils.setField(roleAssignmentMatrixReport, "enableDistributedDbLocking", true);
@@ -45,11 +48,11 @@ public class RoleAssignmentMatrixReportTest {
     @Test
     void shouldAcquireLockAndCallgetRoleAssignmentMatrixReport_whenEnabled() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         roleAssignmentMatrixReport.getReport();
 
         // Then
-        verify(matrixReportService).getRoleAssignmentMatrixReport();
+        verify(matrixReportService).getRoleAssignmentMatrixReport(any());
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
     }
 
@@ -74,7 +77,7 @@ public class RoleAssignmentMatrixReportTest {
         roleAssignmentMatrixReport.getReport();
 
         // Then
-        verify(matrixReportService, never()).getRoleAssignmentMatrixReport();
+        verifyNoInteractions(matrixReportService);
     }
 
     @Test
@@ -86,13 +89,13 @@ public class RoleAssignmentMatrixReportTest {
 
         // When/Then
         assertDoesNotThrow(() -> roleAssignmentMatrixReport.getReport());
-        verify(matrixReportService, never()).getRoleAssignmentMatrixReport();
+        verifyNoInteractions(matrixReportService);
     }
 
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
         // Given
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         setReportingEnabled(true);
         RoleAssignmentMatrixReport anotherInstance = new RoleAssignmentMatrixReport(matrixReportService, lockService);
 
@@ -100,20 +103,20 @@ public class RoleAssignmentMatrixReportTest {
         roleAssignmentMatrixReport.getReport();
 
         // Then
-        verify(matrixReportService).getRoleAssignmentMatrixReport();
+        verify(matrixReportService).getRoleAssignmentMatrixReport(any());
 
         // When
         anotherInstance.getReport();
 
         // Then
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
-        verify(matrixReportService).getRoleAssignmentMatrixReport();
+        verify(matrixReportService).getRoleAssignmentMatrixReport(any());
     }
 
     @Test
     void shouldReleaseLockAfterReportGeneration() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         roleAssignmentMatrixReport.getReport();
 
         // Then
@@ -122,7 +125,7 @@ public class RoleAssignmentMatrixReportTest {
                 any(LocalDateTime.class),
                 anyString()
         );
-        verify(matrixReportService).getRoleAssignmentMatrixReport();
+        verify(matrixReportService).getRoleAssignmentMatrixReport(any());
     }
 
     private void setReportingEnabled(boolean enabled) {
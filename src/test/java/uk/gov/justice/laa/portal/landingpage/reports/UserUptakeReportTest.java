@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.reports;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,14 +12,17 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.UserUptakeReportService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +39,7 @@ public class UserUptakeReportTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         userUptakeReport = new UserUptakeReport(lockService, userUptakeReportService);
         setReportingEnabled(true);
         ReflectionTestUtils.setField(userUptakeReport, "enableDistributedDbLocking", true);
@@ -44,11 +48,11 @@ public class UserUptakeReportTest {
     @Test
     void shouldAcquireLockAndCallgetUserUptakeReport_whenEnabled() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         userUptakeReport.getReport();
 
         // Then
-        verify(userUptakeReportService).getUserUptakeReport();
+        verify(userUptakeReportService).getUserUptakeReport(any());
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
     }
 
@@ -73,7 +77,7 @@ public class UserUptakeReportTest {
         userUptakeReport.getReport();
 
         // Then
-        verify(userUptakeReportService, never()).getUserUptakeReport();
+        verifyNoInteractions(userUptakeReportService);
     }
 
     @Test
@@ -85,13 +89,13 @@ public class UserUptakeReportTest {
 
         // When/Then
         assertDoesNotThrow(() -> userUptakeReport.getReport());
-        verify(userUptakeReportService, never()).getUserUptakeReport();
+        verifyNoInteractions(userUptakeReportService);
     }
 
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
         // Given
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         setReportingEnabled(true);
         UserUptakeReport anotherInstance = new UserUptakeReport(lockService, userUptakeReportService);
 
@@ -99,20 +103,20 @@ public class UserUptakeReportTest {
         userUptakeReport.getReport();
 
         // Then
-        verify(userUptakeReportService).getUserUptakeReport();
+        verify(userUptakeReportService).getUserUptakeReport(any());
 
         // When
         anotherInstance.getReport();
 
         // Then
         verify(lockRepository, times(1)).acquireLock(any(), any(), any());
-        verify(userUptakeReportService).getUserUptakeReport();
+        verify(userUptakeReportService).getUserUptakeReport(any());
     }
 
     @Test
     void shouldReleaseLockAfterReportGeneration() {
         // When
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         userUptakeReport.getReport();
 
         // Then
@@ -121,7 +125,30 @@ public class UserUptakeReportTest {
                 any(LocalDateTime.class),
                 anyString()
         );
-        verify(userUptakeReportService).getUserUptakeReport();
+        verify(userUptakeReportService).getUserUptakeReport(any());
+    }
+
+    @Test
+    void shouldRefreshSummaryUnderLock() {
+        // When
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
+        userUptakeReport.refreshSummary();
+
+        // Then
+        verify(userUptakeReportService).refreshUserUptakeSummary();
+        verify(lockRepository).acquireLock(eq("USER_UPTAKE_SUMMARY_REFRESH_LOCK"), any(), any());
+    }
+
+    @Test
+    void shouldSkipSummaryRefresh_whenAnotherInstanceHoldsTheLock() {
+        // Given
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        assertDoesNotThrow(() -> userUptakeReport.refreshSummary());
+
+        // Then
+        verify(userUptakeReportService, never()).refreshUserUptakeSummary();
     }
 
     private void setReportingEnabled(boolean enabled) {
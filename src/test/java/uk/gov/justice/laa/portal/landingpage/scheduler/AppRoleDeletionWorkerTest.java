@@ -0,0 +1,38 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.service.AppRoleDeletionService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppRoleDeletionWorkerTest {
+
+    @Mock
+    private AppRoleDeletionService appRoleDeletionService;
+
+    @Test
+    void run_deletesChunksUntilNoneLeftThenCompletesTheDeletion() {
+        AppRoleDeletionJob job = AppRoleDeletionJob.builder().id(UUID.randomUUID()).build();
+        when(appRoleDeletionService.leaseDue(1)).thenReturn(List.of(job));
+        when(appRoleDeletionService.deleteNextChunk(job.getId(), 2)).thenReturn(2, 0, 1, 0);
+        when(appRoleDeletionService.completeDeletion(job.getId())).thenReturn(false, true);
+
+        new AppRoleDeletionWorker(appRoleDeletionService, true, 2, 0).run();
+
+        verify(appRoleDeletionService, times(4)).deleteNextChunk(job.getId(), 2);
+        verify(appRoleDeletionService, times(2)).completeDeletion(job.getId());
+        verify(appRoleDeletionService, never()).recordFailure(any(), any());
+    }
+}
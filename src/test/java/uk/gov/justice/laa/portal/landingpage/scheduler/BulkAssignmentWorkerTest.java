@@ -0,0 +1,37 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.service.BulkAssignmentService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkAssignmentWorkerTest {
+
+    @Mock
+    private BulkAssignmentService bulkAssignmentService;
+
+    @Test
+    void run_appliesChunksUntilNoUsersLeftThenCompletes() {
+        BulkAssignmentJob job = BulkAssignmentJob.builder().id(UUID.randomUUID()).build();
+        when(bulkAssignmentService.leaseDue(1)).thenReturn(List.of(job));
+        when(bulkAssignmentService.applyNextChunk(job.getId(), 2)).thenReturn(2, 1, 0);
+
+        new BulkAssignmentWorker(bulkAssignmentService, true, 2, 0).run();
+
+        verify(bulkAssignmentService, times(3)).applyNextChunk(job.getId(), 2);
+        verify(bulkAssignmentService).completeJob(job.getId());
+        verify(bulkAssignmentService, never()).recordFailure(any(), any());
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatch;
+import uk.gov.justice.laa.portal.landingpage.service.EmailDispatchService;
+import uk.gov.justice.laa.portal.landingpage.utils.TokenBucketRateLimiter;
+import uk.gov.service.notify.NotificationClientException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatchWorkerTest {
+
+    @Mock
+    private EmailDispatchService emailDispatchService;
+
+    private ExecutorService workers;
+    private EmailDispatchWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        workers = Executors.newFixedThreadPool(2);
+        worker = new EmailDispatchWorker(emailDispatchService, new TokenBucketRateLimiter(1000, 100), workers);
+        ReflectionTestUtils.setField(worker, "dispatchEnabled", true);
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "retentionDays", 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void dispatch_sendsEveryLeasedEmailAndRecordsOutcome() throws Exception {
+        EmailDispatch first = email();
+        EmailDispatch second = email();
+        EmailDispatch third = email();
+        UUID notificationId = UUID.randomUUID();
+        when(emailDispatchService.leaseDue(2)).thenReturn(List.of(first, second), List.of(third));
+        when(emailDispatchService.send(any())).thenReturn(notificationId);
+
+        worker.dispatch();
+
+        verify(emailDispatchService, times(2)).leaseDue(2);
+        verify(emailDispatchService).markSent(first.getId(), notificationId);
+        verify(emailDispatchService).markSent(second.getId(), notificationId);
+        verify(emailDispatchService).markSent(third.getId(), notificationId);
+        verify(emailDispatchService, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void dispatch_recordsNotifyFailures() throws Exception {
+        EmailDispatch failing = email();
+        NotificationClientException failure = mock(NotificationClientException.class);
+        when(emailDispatchService.leaseDue(2)).thenReturn(List.of(failing));
+        when(emailDispatchService.send(failing)).thenThrow(failure);
+
+        worker.dispatch();
+
+        verify(emailDispatchService).recordFailure(failing.getId(), failure);
+        verify(emailDispatchService, never()).markSent(any(), any());
+    }
+
+    @Test
+    void dispatch_doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(worker, "dispatchEnabled", false);
+
+        worker.dispatch();
+
+        verify(emailDispatchService, never()).leaseDue(anyInt());
+    }
+
+    @Test
+    void dispatch_stopsWhenNothingIsDue() throws Exception {
+        when(emailDispatchService.leaseDue(2)).thenReturn(Collections.emptyList());
+
+        worker.dispatch();
+
+        verify(emailDispatchService).leaseDue(2);
+        verify(emailDispatchService, never()).send(any());
+    }
+
+    @Test
+    void purge_deletesSentEmailsAndRedactsDeadLettersOlderThanRetention() {
+        worker.purge();
+
+        verify(emailDispatchService).purgeSent(Duration.ofDays(30));
+        verify(emailDispatchService).redactDeadLetters(Duration.ofDays(30));
+    }
+
+    private EmailDispatch email() {
+        return EmailDispatch.builder().id(UUID.randomUUID()).templateId("template").build();
+    }
+}
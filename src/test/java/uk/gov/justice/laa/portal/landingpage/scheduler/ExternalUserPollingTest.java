@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.portal.landingpage.scheduler;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +12,7 @@ import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 import uk.gov.justice.laa.portal.landingpage.service.ExternalUserPollingService;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +36,7 @@ class ExternalUserPollingTest {
 
     @BeforeEach
     void setUp() {
-        lockService = new DistributedLockService(lockRepository);
+        lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         externalUserPolling = new ExternalUserPolling(externalUserPollingService, lockService);
         ReflectionTestUtils.setField(externalUserPolling, "enableDistributedDbLocking", true);
         ReflectionTestUtils.setField(externalUserPolling, "distributedDbLockingPeriod", 5);
@@ -43,7 +45,7 @@ class ExternalUserPollingTest {
 
     @Test
     void shouldAcquireLockAndCallUpdateSyncMetadata_whenLockingEnabled() {
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         externalUserPolling.poll();
 
         verify(externalUserPollingService).updateSyncMetadata();
@@ -72,7 +74,7 @@ class ExternalUserPollingTest {
 
     @Test
     void shouldOnlyAllowOneInstanceToAcquireLock() {
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1).thenReturn(0);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L)).thenReturn(Optional.empty());
         ExternalUserPolling anotherInstance = new ExternalUserPolling(externalUserPollingService, lockService);
         ReflectionTestUtils.setField(anotherInstance, "enableDistributedDbLocking", true);
         ReflectionTestUtils.setField(anotherInstance, "distributedDbLockingPeriod", 5);
@@ -90,7 +92,7 @@ class ExternalUserPollingTest {
 
     @Test
     void shouldReleaseLockAfterPolling() {
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         externalUserPolling.poll();
 
         verify(lockRepository).acquireLock(
@@ -114,7 +116,7 @@ class ExternalUserPollingTest {
 
     @Test
     void shouldHandleServiceExceptionWithLocking_gracefully() {
-        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(1);
+        when(lockRepository.acquireLock(any(), any(), any())).thenReturn(Optional.of(1L));
         doThrow(new RuntimeException("Service error"))
                 .when(externalUserPollingService)
                 .updateSyncMetadata();
@@ -0,0 +1,135 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.service.AppRoleDeletionService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeasedJobWorkerTest {
+
+    @Mock
+    private AppRoleDeletionService service;
+    @Mock
+    private ToIntBiFunction<UUID, Integer> chunks;
+    @Mock
+    private Predicate<UUID> completions;
+
+    private final AppRoleDeletionJob job = AppRoleDeletionJob.builder().id(UUID.randomUUID()).build();
+
+    @Test
+    void runDueJob_processesChunksUntilNoneLeftThenCompletes() {
+        when(service.leaseDue(1)).thenReturn(List.of(job));
+        when(chunks.applyAsInt(job.getId(), 2)).thenReturn(2, 1, 0);
+        when(completions.test(job.getId())).thenReturn(true);
+
+        worker(true).runDueJob();
+
+        verify(chunks, times(3)).applyAsInt(job.getId(), 2);
+        verify(completions).test(job.getId());
+        verify(service, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void runDueJob_carriesOnWhenMoreWorkTurnsUpBeforeCompleting() {
+        when(service.leaseDue(1)).thenReturn(List.of(job));
+        when(chunks.applyAsInt(job.getId(), 2)).thenReturn(0, 1, 0);
+        when(completions.test(job.getId())).thenReturn(false, true);
+
+        worker(true).runDueJob();
+
+        verify(chunks, times(3)).applyAsInt(job.getId(), 2);
+        verify(completions, times(2)).test(job.getId());
+    }
+
+    @Test
+    void runDueJob_recordsFailure() {
+        RuntimeException failure = new RuntimeException("boom");
+        when(service.leaseDue(1)).thenReturn(List.of(job));
+        when(chunks.applyAsInt(job.getId(), 2)).thenThrow(failure);
+
+        worker(true).runDueJob();
+
+        verify(service).recordFailure(job.getId(), failure);
+        verifyNoInteractions(completions);
+    }
+
+    @Test
+    void runDueJob_recordsFailureWhenInterruptedDuringAPause() throws Exception {
+        when(service.leaseDue(1)).thenReturn(List.of(job));
+        when(chunks.applyAsInt(job.getId(), 2)).thenReturn(1);
+        LeasedJobWorker<AppRoleDeletionJob> worker = new TestWorker(true, 60_000);
+
+        Thread thread = new Thread(worker::runDueJob);
+        thread.start();
+        thread.interrupt();
+        thread.join(5_000);
+
+        assertThat(thread.isAlive()).isFalse();
+        verify(service).recordFailure(any(), any(InterruptedException.class));
+    }
+
+    @Test
+    void runDueJob_doesNothingWhenNothingIsDue() {
+        when(service.leaseDue(1)).thenReturn(Collections.emptyList());
+
+        worker(true).runDueJob();
+
+        verify(chunks, never()).applyAsInt(any(), anyInt());
+    }
+
+    @Test
+    void runDueJob_doesNothingWhenLeasingFails() {
+        when(service.leaseDue(1)).thenThrow(new RuntimeException("database unavailable"));
+
+        worker(true).runDueJob();
+
+        verifyNoInteractions(chunks);
+        verify(service, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void runDueJob_doesNothingWhenDisabled() {
+        worker(false).runDueJob();
+
+        verify(service, never()).leaseDue(anyInt());
+    }
+
+    private LeasedJobWorker<AppRoleDeletionJob> worker(boolean enabled) {
+        return new TestWorker(enabled, 0);
+    }
+
+    private class TestWorker extends LeasedJobWorker<AppRoleDeletionJob> {
+
+        TestWorker(boolean enabled, long chunkPauseMillis) {
+            super("test", service, enabled, 2, chunkPauseMillis);
+        }
+
+        @Override
+        protected int processNextChunk(UUID jobId, int chunkSize) {
+            return chunks.applyAsInt(jobId, chunkSize);
+        }
+
+        @Override
+        protected boolean complete(UUID jobId) {
+            return completions.test(jobId);
+        }
+    }
+}
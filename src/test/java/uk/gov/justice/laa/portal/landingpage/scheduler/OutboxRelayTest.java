@@ -0,0 +1,119 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventType;
+import uk.gov.justice.laa.portal.landingpage.service.OutboxService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxService);
+        ReflectionTestUtils.setField(outboxRelay, "relayEnabled", true);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "retentionDays", 7);
+    }
+
+    @Test
+    void relay_publishesLeasedEventsUntilBatchIsNotFull() throws Exception {
+        OutboxEvent first = event();
+        OutboxEvent second = event();
+        OutboxEvent third = event();
+        when(outboxService.leaseDueEvents(2)).thenReturn(List.of(first, second), List.of(third));
+
+        outboxRelay.relay();
+
+        verify(outboxService, times(2)).leaseDueEvents(2);
+        verify(outboxService).publish(first);
+        verify(outboxService).publish(second);
+        verify(outboxService).publish(third);
+        verify(outboxService, never()).recordFailure(any(), any());
+    }
+
+    @Test
+    void relay_recordsFailureAndContinuesWithBatch() throws Exception {
+        OutboxEvent failing = event();
+        OutboxEvent succeeding = event();
+        when(outboxService.leaseDueEvents(2)).thenReturn(List.of(failing, succeeding), Collections.emptyList());
+        RuntimeException failure = new RuntimeException("tech services down");
+        doThrow(failure).when(outboxService).publish(failing);
+
+        outboxRelay.relay();
+
+        verify(outboxService).recordFailure(failing.getId(), failure);
+        verify(outboxService).publish(succeeding);
+    }
+
+    @Test
+    void relay_submitsAllCcmsEventsBeforeWaitingForResults() throws Exception {
+        OutboxEvent sent = ccmsEvent();
+        OutboxEvent rejected = ccmsEvent();
+        CompletableFuture<Optional<String>> pending = new CompletableFuture<>();
+        RuntimeException rejection = new RuntimeException("rejected");
+        when(outboxService.leaseDueEvents(2)).thenReturn(List.of(sent, rejected));
+        when(outboxService.submitCcmsRoleChange(sent)).thenReturn(pending);
+        when(outboxService.submitCcmsRoleChange(rejected)).thenAnswer(invocation -> {
+            // Both messages are in flight before any result is collected
+            pending.complete(Optional.of("message-id"));
+            return CompletableFuture.failedFuture(rejection);
+        });
+
+        outboxRelay.relay();
+
+        verify(outboxService).completeCcmsRoleChange(sent, Optional.of("message-id"));
+        verify(outboxService).recordFailure(rejected.getId(), rejection);
+        verify(outboxService, never()).publish(any());
+    }
+
+    @Test
+    void relay_doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(outboxRelay, "relayEnabled", false);
+
+        outboxRelay.relay();
+
+        verify(outboxService, never()).leaseDueEvents(anyInt());
+    }
+
+    @Test
+    void relay_stopsWhenLeasingFails() throws Exception {
+        when(outboxService.leaseDueEvents(2)).thenThrow(new RuntimeException("db down"));
+
+        outboxRelay.relay();
+
+        verify(outboxService, never()).publish(any());
+    }
+
+    private OutboxEvent ccmsEvent() {
+        return OutboxEvent.builder().id(UUID.randomUUID()).eventType(OutboxEventType.CCMS_ROLE_CHANGE).build();
+    }
+
+    private OutboxEvent event() {
+        return OutboxEvent.builder().id(UUID.randomUUID()).build();
+    }
+}
@@ -0,0 +1,37 @@
+package uk.gov.justice.laa.portal.landingpage.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.service.UserImportService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportWorkerTest {
+
+    @Mock
+    private UserImportService userImportService;
+
+    @Test
+    void run_createsUsersUntilNoRowsLeftThenCompletes() {
+        UserImportJob job = UserImportJob.builder().id(UUID.randomUUID()).build();
+        when(userImportService.leaseDue(1)).thenReturn(List.of(job));
+        when(userImportService.createNextUsers(job.getId(), 2)).thenReturn(2, 1, 0);
+
+        new UserImportWorker(userImportService, true, 2, 0).run();
+
+        verify(userImportService, times(3)).createNextUsers(job.getId(), 2);
+        verify(userImportService).completeJob(job.getId());
+        verify(userImportService, never()).recordFailure(any(), any());
+    }
+}
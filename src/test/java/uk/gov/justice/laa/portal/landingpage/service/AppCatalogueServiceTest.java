@@ -0,0 +1,132 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import uk.gov.justice.laa.portal.landingpage.dto.AppCatalogue;
+import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AppCatalogueServiceTest {
+
+    @Mock
+    private AppService appService;
+    @Mock
+    private AppRoleService appRoleService;
+    @Mock
+    private RoleAssignmentService roleAssignmentService;
+    @Mock
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
+
+    @InjectMocks
+    private AppCatalogueService appCatalogueService;
+
+    private final AppDto crimeApp = AppDto.builder().id("app-1").name("Submit a crime form").build();
+    private final AppDto applyApp = AppDto.builder().id("app-2").name("Apply for criminal legal aid").build();
+    private final AppRoleAdminDto crimeViewer = AppRoleAdminDto.builder()
+            .id("role-1").name("Viewer").parentApp("Submit a crime form").userTypeRestriction("EXTERNAL").build();
+    private final AppRoleAdminDto crimeAdmin = AppRoleAdminDto.builder()
+            .id("role-2").name("Admin").parentApp("Submit a crime form").userTypeRestriction("INTERNAL").build();
+    private final AppRoleAdminDto applyUser = AppRoleAdminDto.builder()
+            .id("role-3").name("User").parentApp("Apply for criminal legal aid").build();
+
+    @Test
+    void getCatalogue_buildsOnceAndServesFromMemoryWhileVersionIsUnchanged() {
+        stubSources();
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(3L));
+
+        AppCatalogue first = appCatalogueService.getCatalogue();
+        AppCatalogue second = appCatalogueService.getCatalogue();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.version()).isEqualTo(3L);
+        verify(appService, times(1)).getAllAuthzApps();
+        verify(appService, times(1)).getAllLaaApps();
+        verify(appRoleService, times(1)).getAllLaaAppRoles();
+        verify(roleAssignmentService, times(1)).getLaaAppRoleAssignmentRestrictions();
+    }
+
+    @Test
+    void getCatalogue_rebuildsWhenVersionMovesOn() {
+        stubSources();
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(1L), Optional.of(2L));
+
+        AppCatalogue first = appCatalogueService.getCatalogue();
+        AppCatalogue second = appCatalogueService.getCatalogue();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.version()).isEqualTo(2L);
+        verify(appRoleService, times(2)).getAllLaaAppRoles();
+    }
+
+    @Test
+    void getCatalogue_treatsMissingVersionAsZero() {
+        stubSources();
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.empty());
+
+        assertThat(appCatalogueService.getCatalogue().version()).isZero();
+    }
+
+    @Test
+    void getCatalogue_groupsRolesAndRestrictionsByApp() {
+        stubSources();
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(1L));
+
+        AppCatalogue catalogue = appCatalogueService.getCatalogue();
+
+        assertThat(catalogue.laaAppNames()).containsExactly("Apply for criminal legal aid", "Submit a crime form");
+        assertThat(catalogue.laaAppRolesFor(null)).containsExactly(crimeViewer, crimeAdmin, applyUser);
+        assertThat(catalogue.laaAppRolesFor("Submit a crime form")).containsExactly(crimeViewer, crimeAdmin);
+        assertThat(catalogue.laaAppRolesFor("Unknown app")).isEmpty();
+        assertThat(catalogue.roleAssignmentRestrictionsFor("")).hasSize(2);
+        assertThat(catalogue.roleAssignmentRestrictionsFor("Submit a crime form").keySet())
+                .extracting(AppRoleDto::getId)
+                .containsExactly("role-1");
+        assertThat(catalogue.roleAssignmentRestrictionsFor("Apply for criminal legal aid").keySet())
+                .extracting(AppRoleDto::getId)
+                .containsExactly("role-3");
+    }
+
+    @Test
+    void getCatalogue_returnsUnmodifiableSnapshot() {
+        stubSources();
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(1L));
+
+        AppCatalogue catalogue = appCatalogueService.getCatalogue();
+
+        assertThatThrownBy(() -> catalogue.laaApps().add(crimeApp)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> catalogue.laaAppRolesFor("Submit a crime form").clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> catalogue.roleAssignmentRestrictions().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private void stubSources() {
+        Map<AppRoleDto, List<AppRoleDto>> restrictions = new LinkedHashMap<>();
+        AppRoleDto all = AppRoleDto.builder().id("ALL").name("ALL").build();
+        restrictions.put(AppRoleDto.builder().id("role-1").name("Viewer").build(), List.of(all));
+        restrictions.put(AppRoleDto.builder().id("role-3").name("User").build(), List.of(all));
+
+        when(appService.getAllAuthzApps()).thenReturn(List.of());
+        when(appService.getAllLaaApps()).thenReturn(List.of(crimeApp, applyApp));
+        when(appRoleService.getAllLaaAppRoles()).thenReturn(List.of(crimeViewer, crimeAdmin, applyUser));
+        when(roleAssignmentService.getLaaAppRoleAssignmentRestrictions()).thenReturn(restrictions);
+    }
+}
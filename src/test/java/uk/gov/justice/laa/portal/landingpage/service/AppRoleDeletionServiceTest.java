@@ -0,0 +1,333 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.dto.DeleteAppRoleEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleDeletionJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppRoleDeletionServiceTest {
+
+    private static final String INSTANCE_ID = "this-instance";
+
+    @Mock
+    private AppRoleDeletionJobRepository jobRepository;
+    @Mock
+    private AppRoleRepository appRoleRepository;
+    @Mock
+    private UserProfileRepository userProfileRepository;
+    @Mock
+    private RoleAssignmentRepository roleAssignmentRepository;
+    @Mock
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private EventService eventService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AppRoleDeletionService appRoleDeletionService;
+
+    private final App app = App.builder().id(UUID.randomUUID()).name("CCMS").entraOid("ccms-app-oid").build();
+    private final AppRole role = AppRole.builder().id(UUID.randomUUID()).name("Case Worker").app(app)
+            .ccmsCode("XXCCMS_CASE_WORKER").legacySync(true).build();
+    private final AppRole otherRole = AppRole.builder().id(UUID.randomUUID()).name("Viewer").app(app)
+            .ccmsCode("XXCCMS_VIEWER").legacySync(true).build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        appRoleDeletionService = new AppRoleDeletionService(jobRepository, appRoleRepository, userProfileRepository,
+                roleAssignmentRepository, appCatalogueVersionRepository, outboxService, eventService, meterRegistry,
+                120, 5, 60);
+        ReflectionTestUtils.setField(appRoleDeletionService, "instanceId", INSTANCE_ID);
+    }
+
+    @Test
+    void requestDeletion_returnsEmptyWhenDeletionAlreadyInProgress() {
+        when(jobRepository.existsByAppRoleIdAndStatusIn(eq(role.getId()), any())).thenReturn(true);
+
+        Optional<AppRoleDeletionJob> job = appRoleDeletionService.requestDeletion(role, "CCMS",
+                UUID.randomUUID(), UUID.randomUUID(), "reason");
+
+        assertThat(job).isEmpty();
+        verify(jobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void requestDeletion_returnsEmptyWhenAnotherRequestQueuedTheDeletionFirst() {
+        when(jobRepository.existsByAppRoleIdAndStatusIn(eq(role.getId()), any())).thenReturn(false);
+        when(jobRepository.saveAndFlush(any(AppRoleDeletionJob.class)))
+                .thenThrow(new DataIntegrityViolationException("uix_app_role_deletion_job_active_app_role"));
+
+        Optional<AppRoleDeletionJob> job = appRoleDeletionService.requestDeletion(role, "CCMS",
+                UUID.randomUUID(), UUID.randomUUID(), "reason");
+
+        assertThat(job).isEmpty();
+    }
+
+    @Test
+    void requestDeletion_queuesPendingJobWithAssignmentCount() {
+        UUID requestedBy = UUID.randomUUID();
+        UUID requestedByOid = UUID.randomUUID();
+        when(jobRepository.existsByAppRoleIdAndStatusIn(eq(role.getId()), any())).thenReturn(false);
+        when(userProfileRepository.countUserProfilesByAppRoleId(role.getId())).thenReturn(1200L);
+        when(jobRepository.saveAndFlush(any(AppRoleDeletionJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<AppRoleDeletionJob> job = appRoleDeletionService.requestDeletion(role, "CCMS",
+                requestedBy, requestedByOid, "  no longer used  ");
+
+        assertThat(job).isPresent();
+        assertThat(job.get().getStatus()).isEqualTo(AppRoleDeletionJobStatus.PENDING);
+        assertThat(job.get().getAppRoleId()).isEqualTo(role.getId());
+        assertThat(job.get().getAppRoleName()).isEqualTo("Case Worker");
+        assertThat(job.get().getRequestedByUserProfileId()).isEqualTo(requestedBy);
+        assertThat(job.get().getRequestedByEntraOid()).isEqualTo(requestedByOid);
+        assertThat(job.get().getReason()).isEqualTo("no longer used");
+        assertThat(job.get().getTotalAssignments()).isEqualTo(1200L);
+        verify(appRoleRepository, never()).delete(any());
+    }
+
+    @Test
+    void leaseDue_marksJobsRunningForThisInstance() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        job.setLockedBy(null);
+        when(jobRepository.findDueForUpdateSkipLocked(any(), eq(1))).thenReturn(List.of(job));
+        when(jobRepository.saveAll(List.of(job))).thenReturn(List.of(job));
+
+        List<AppRoleDeletionJob> leased = appRoleDeletionService.leaseDue(1);
+
+        assertThat(leased).containsExactly(job);
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.RUNNING);
+        assertThat(job.getLockedBy()).isEqualTo(INSTANCE_ID);
+        assertThat(job.getLockedUntil()).isAfter(LocalDateTime.now());
+        assertThat(job.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteNextChunk_failsWhenLeaseHasBeenLost() {
+        AppRoleDeletionJob job = job("another-instance");
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        assertThatThrownBy(() -> appRoleDeletionService.deleteNextChunk(job.getId(), 500))
+                .isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(userProfileRepository, outboxService);
+    }
+
+    @Test
+    void deleteNextChunk_returnsZeroWhenNoProfileHoldsRole() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.of(role));
+        when(userProfileRepository.findUserProfileIdsByAppRoleId(role.getId(), 500)).thenReturn(List.of());
+
+        int deleted = appRoleDeletionService.deleteNextChunk(job.getId(), 500);
+
+        assertThat(deleted).isZero();
+        verify(userProfileRepository, never()).deleteAppRoleAssignments(any(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void deleteNextChunk_removesRoleAndQueuesOneTechServicesUpdatePerUser() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        EntraUser user = EntraUser.builder().id(UUID.randomUUID()).build();
+        EntraUser otherUser = EntraUser.builder().id(UUID.randomUUID()).build();
+        UserProfile firstProfile = profile(user, role, otherRole);
+        UserProfile secondProfile = profile(user, role);
+        UserProfile thirdProfile = profile(otherUser, role);
+        List<UUID> ids = List.of(firstProfile.getId(), secondProfile.getId(), thirdProfile.getId());
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.of(role));
+        when(userProfileRepository.findUserProfileIdsByAppRoleId(role.getId(), 500)).thenReturn(ids);
+        when(userProfileRepository.findAllByIdInWithAppRoles(ids))
+                .thenReturn(List.of(firstProfile, secondProfile, thirdProfile));
+        when(userProfileRepository.deleteAppRoleAssignments(role.getId(), ids)).thenReturn(3);
+
+        int deleted = appRoleDeletionService.deleteNextChunk(job.getId(), 500);
+
+        assertThat(deleted).isEqualTo(3);
+        verify(userProfileRepository).refreshSilasStatuses(ids);
+        verify(outboxService).enqueueRoleAssignmentUpdate(user.getId());
+        verify(outboxService).enqueueRoleAssignmentUpdate(otherUser.getId());
+        verify(outboxService).enqueueCcmsRoleChanges(firstProfile,
+                Map.of("ccms-app-oid", Set.of("XXCCMS_VIEWER")),
+                Map.of("ccms-app-oid", Set.of("XXCCMS_CASE_WORKER", "XXCCMS_VIEWER")));
+        verify(outboxService).enqueueCcmsRoleChanges(secondProfile,
+                Map.of("ccms-app-oid", Set.of()),
+                Map.of("ccms-app-oid", Set.of("XXCCMS_CASE_WORKER")));
+        assertThat(job.getDeletedAssignments()).isEqualTo(3);
+        verify(jobRepository).save(job);
+        assertThat(meterRegistry.counter("app.role.deletion.assignments.deleted").count()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteNextChunk_skipsCcmsChangesForRolesNotSyncedToCcms() {
+        AppRole localRole = AppRole.builder().id(role.getId()).name("Local").app(app).legacySync(false).build();
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        UserProfile profile = profile(EntraUser.builder().id(UUID.randomUUID()).build(), localRole);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.of(localRole));
+        when(userProfileRepository.findUserProfileIdsByAppRoleId(eq(role.getId()), anyInt()))
+                .thenReturn(List.of(profile.getId()));
+        when(userProfileRepository.findAllByIdInWithAppRoles(List.of(profile.getId()))).thenReturn(List.of(profile));
+        when(userProfileRepository.deleteAppRoleAssignments(role.getId(), List.of(profile.getId()))).thenReturn(1);
+
+        appRoleDeletionService.deleteNextChunk(job.getId(), 500);
+
+        verify(outboxService).enqueueRoleAssignmentUpdate(profile.getEntraUser().getId());
+        verify(outboxService, never()).enqueueCcmsRoleChanges(any(), any(), any());
+    }
+
+    @Test
+    void completeDeletion_returnsFalseWhileProfilesStillHoldRole() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.of(role));
+        when(userProfileRepository.countUserProfilesByAppRoleId(role.getId())).thenReturn(2L);
+
+        boolean completed = appRoleDeletionService.completeDeletion(job.getId());
+
+        assertThat(completed).isFalse();
+        verify(appRoleRepository, never()).delete(any());
+        verifyNoInteractions(eventService, appCatalogueVersionRepository);
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.RUNNING);
+    }
+
+    @Test
+    void completeDeletion_deletesRoleAndLogsEvent() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.of(role));
+        when(userProfileRepository.countUserProfilesByAppRoleId(role.getId())).thenReturn(0L);
+
+        boolean completed = appRoleDeletionService.completeDeletion(job.getId());
+
+        assertThat(completed).isTrue();
+        verify(roleAssignmentRepository).deleteByRoleIdInEitherColumn(role.getId());
+        verify(appRoleRepository).deleteRolePermissions(role.getId());
+        verify(appRoleRepository).delete(role);
+        verify(appCatalogueVersionRepository).incrementVersion();
+        ArgumentCaptor<DeleteAppRoleEvent> event = ArgumentCaptor.forClass(DeleteAppRoleEvent.class);
+        verify(eventService).logEvent(event.capture());
+        assertThat(event.getValue().getUserId()).isEqualTo(job.getRequestedByUserProfileId());
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.COMPLETED);
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(job.getLockedBy()).isNull();
+    }
+
+    @Test
+    void completeDeletion_completesJobWhenRoleAlreadyGone() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(appRoleRepository.findById(role.getId())).thenReturn(Optional.empty());
+
+        boolean completed = appRoleDeletionService.completeDeletion(job.getId());
+
+        assertThat(completed).isTrue();
+        verifyNoInteractions(eventService, roleAssignmentRepository);
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.COMPLETED);
+    }
+
+    @Test
+    void recordFailure_releasesLeaseAndBacksOff() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        job.setAttempts(2);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        appRoleDeletionService.recordFailure(job.getId(), new RuntimeException("deadlock detected"));
+
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.PENDING);
+        assertThat(job.getLockedBy()).isNull();
+        assertThat(job.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(100));
+        assertThat(job.getLastError()).isEqualTo("deadlock detected");
+        verify(jobRepository).save(job);
+    }
+
+    @Test
+    void recordFailure_marksJobFailedAfterMaxAttempts() {
+        AppRoleDeletionJob job = job(INSTANCE_ID);
+        job.setAttempts(5);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        appRoleDeletionService.recordFailure(job.getId(), new RuntimeException("still failing"));
+
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.FAILED);
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(meterRegistry.counter("app.role.deletion.jobs.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFailure_leavesAJobLeasedByAnotherInstanceAlone() {
+        AppRoleDeletionJob job = job("other-instance");
+        job.setAttempts(5);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        appRoleDeletionService.recordFailure(job.getId(), new RuntimeException("lease lost"));
+
+        assertThat(job.getStatus()).isEqualTo(AppRoleDeletionJobStatus.RUNNING);
+        assertThat(job.getLockedBy()).isEqualTo("other-instance");
+        assertThat(job.getLastError()).isNull();
+        verify(jobRepository, never()).save(any());
+    }
+
+    private AppRoleDeletionJob job(String lockedBy) {
+        return AppRoleDeletionJob.builder()
+                .id(UUID.randomUUID())
+                .appRoleId(role.getId())
+                .appRoleName(role.getName())
+                .appName(app.getName())
+                .requestedByUserProfileId(UUID.randomUUID())
+                .requestedByEntraOid(UUID.randomUUID())
+                .reason("reason")
+                .status(AppRoleDeletionJobStatus.RUNNING)
+                .lockedBy(lockedBy)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private UserProfile profile(EntraUser entraUser, AppRole... roles) {
+        return UserProfile.builder()
+                .id(UUID.randomUUID())
+                .entraUser(entraUser)
+                .appRoles(new HashSet<>(List.of(roles)))
+                .build();
+    }
+}
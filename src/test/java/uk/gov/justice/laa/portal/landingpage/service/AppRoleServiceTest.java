@@ -1,14 +1,11 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
-import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,20 +16,20 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleAdminDto;
 import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
 import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
-import uk.gov.justice.laa.portal.landingpage.dto.DeleteAppRoleEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.RoleCreationAuditEvent;
 import uk.gov.justice.laa.portal.landingpage.dto.RoleCreationDto;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRoleDeletionJob;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.Permission;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 import uk.gov.justice.laa.portal.landingpage.forms.AppRolesOrderForm;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
-import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
 import java.util.Arrays;
@@ -49,7 +46,6 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -82,13 +78,12 @@ class AppRoleServiceTest {
     @Mock
     private SecurityContext securityContext;
 
-    @Mock
-    private RoleAssignmentRepository roleAssignmentRepository;
     @Mock
     private UserProfileRepository userProfileRepository;
-
     @Mock
-    private EntityManager entityManager;
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
+    @Mock
+    private AppRoleDeletionService appRoleDeletionService;
 
     @InjectMocks
     private AppRoleService appRoleService;
@@ -96,7 +91,7 @@ class AppRoleServiceTest {
     @BeforeEach
     void setUp() {
         appRoleService = new AppRoleService(appRoleRepository, appRepository, eventService, loginService,
-                modelMapper, roleAssignmentRepository, userProfileRepository, entityManager);
+                modelMapper, userProfileRepository, appCatalogueVersionRepository, appRoleDeletionService);
         SecurityContextHolder.setContext(securityContext);
     }
 
@@ -258,6 +253,7 @@ class AppRoleServiceTest {
         appRoleService.updateAppRolesOrder(List.of(form));
 
         assertThat(entity.getOrdinal()).isEqualTo(2);
+        verify(appCatalogueVersionRepository).incrementVersion();
     }
 
     @Test
@@ -334,7 +330,7 @@ class AppRoleServiceTest {
     class DeleteAppRoleTests {
 
         @Test
-        @DisplayName("deleteAppRole: happy path deletes dependents in order, deletes role, logs event with trimmed reason")
+        @DisplayName("deleteAppRole: queues a deletion job rather than deleting in the request")
         void deleteAppRole_happyPath() {
             // Arrange
             UUID userProfileId = UUID.randomUUID();
@@ -344,39 +340,20 @@ class AppRoleServiceTest {
             UUID roleId = UUID.randomUUID();
             String roleIdStr = roleId.toString();
             AppRole role = mkRole(roleId, "ADMIN");
+            AppRoleDeletionJob job = AppRoleDeletionJob.builder().appRoleId(roleId).build();
 
             when(appRoleRepository.findById(roleId)).thenReturn(Optional.of(role));
+            when(appRoleDeletionService.requestDeletion(role, appName, userProfileId, entraOid, reason))
+                    .thenReturn(Optional.of(job));
 
             // Act
-            appRoleService.deleteAppRole(userProfileId, entraOid, appName, roleIdStr, reason);
-
-            // Assert: verify delete order
-            InOrder inOrder = inOrder(
-                    userProfileRepository,
-                    roleAssignmentRepository,
-                    appRoleRepository,
-                    appRoleRepository // deleteRolePermissions + delete(appRole)
-            );
-
-            inOrder.verify(userProfileRepository).deleteAllByAppRoleId(roleId);
-            inOrder.verify(roleAssignmentRepository).deleteByRoleIdInEitherColumn(roleId);
-            inOrder.verify(appRoleRepository).deleteRolePermissions(roleId);
-            inOrder.verify(appRoleRepository).delete(role);
-
-            // Assert: verify event payload (trimmed reason)
-            ArgumentCaptor<DeleteAppRoleEvent> evtCap = ArgumentCaptor.forClass(DeleteAppRoleEvent.class);
-            verify(eventService).logEvent(evtCap.capture());
-
-            DeleteAppRoleEvent evt = evtCap.getValue();
-            assertThat(evt).isNotNull();
-            assertThat(evt.getUserId()).isEqualTo(userProfileId);
-            assertThat(evt.getEntraUserId()).isEqualTo(entraOid);
-            assertThat(evt.getAppName()).isEqualTo(appName);
-            assertThat(evt.getAppRoleName()).isEqualTo("ADMIN");
-            assertThat(evt.getReason()).isEqualTo("housekeeping");
-
-            // No more interactions beyond what we expect
-            verifyNoMoreInteractions(eventService);
+            Optional<AppRoleDeletionJob> result = appRoleService.deleteAppRole(userProfileId, entraOid, appName, roleIdStr, reason);
+
+            // Assert
+            assertThat(result).contains(job);
+            verify(appRoleRepository).findById(roleId);
+            verifyNoMoreInteractions(appRoleRepository);
+            verifyNoInteractions(userProfileRepository, appCatalogueVersionRepository, eventService);
         }
 
         @Test
@@ -390,7 +367,7 @@ class AppRoleServiceTest {
                     appRoleService.deleteAppRole(UUID.randomUUID(), UUID.randomUUID(), "App", badRoleId, "reason")
             ).isInstanceOf(IllegalArgumentException.class);
 
-            verifyNoInteractions(userProfileRepository, roleAssignmentRepository, appRoleRepository, eventService);
+            verifyNoInteractions(appRoleDeletionService, appRoleRepository, eventService);
         }
 
         @Test
@@ -407,7 +384,7 @@ class AppRoleServiceTest {
 
             verify(appRoleRepository).findById(roleId);
             verifyNoMoreInteractions(appRoleRepository);
-            verifyNoInteractions(userProfileRepository, roleAssignmentRepository, eventService);
+            verifyNoInteractions(appRoleDeletionService, eventService);
         }
 
     }
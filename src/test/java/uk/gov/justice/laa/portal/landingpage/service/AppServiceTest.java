@@ -6,89 +6,42 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.Mock;
-import org.mockito.Mockito;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
-import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
-import uk.gov.justice.laa.portal.landingpage.dto.AppSyncResultDto;
-import uk.gov.justice.laa.portal.landingpage.dto.AppSynchronizationAuditEvent;
-import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
-import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
 import uk.gov.justice.laa.portal.landingpage.entity.App;
 import uk.gov.justice.laa.portal.landingpage.entity.AppType;
 import uk.gov.justice.laa.portal.landingpage.forms.AppsOrderForm;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
-import uk.gov.justice.laa.portal.landingpage.techservices.GetAllApplicationsResponse;
-import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesApiResponse;
-import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesErrorResponse;
 
 @ExtendWith(MockitoExtension.class)
 class AppServiceTest {
 
-    @Mock
-    private TechServicesClient techServicesClient;
     @Mock
     private AppRepository appRepository;
     @Mock
     private ModelMapper mapper;
     @Mock
-    private EventService eventService;
-
-    private final PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
 
     private AppService appService;
-    private CurrentUserDto currentUser;
-    private UserProfileDto userProfileDto;
     private App app;
     private AppDto appDto;
 
-    private static class NoOpTransactionManager implements PlatformTransactionManager {
-        @Override
-        public TransactionStatus getTransaction(TransactionDefinition definition) {
-            return new SimpleTransactionStatus();
-        }
-
-        @Override
-        public void commit(TransactionStatus status) {
-            // no-op: tests don't need real transactional behaviour
-        }
-
-        @Override
-        public void rollback(TransactionStatus status) {
-            // no-op: tests don't need real transactional behaviour
-        }
-    }
-
     @BeforeEach
     void setUp() {
-        currentUser = new CurrentUserDto();
-        currentUser.setUserId(UUID.randomUUID());
-        currentUser.setName("user-1");
-        userProfileDto = UserProfileDto.builder().id(UUID.randomUUID()).build();
-
         mapper = new ModelMapper();
-        appService = new AppService(appRepository, techServicesClient, mapper, eventService, transactionManager);
+        appService = new AppService(appRepository, mapper, appCatalogueVersionRepository);
         UUID id = UUID.randomUUID();
         app = App.builder()
                 .id(id)
@@ -100,11 +53,8 @@ class AppServiceTest {
                 .name("Test App")
                 .description("Sample description")
                 .build();
-        ReflectionTestUtils.setField(appService, "syncAppsFromEntra", "true");
-        ReflectionTestUtils.setField(appService, "syncAppUpdatesFromEntra", "true");
     }
 
-
     @Test
     void getById_ReturnsApp_WhenFound() {
         // Arrange
@@ -203,6 +153,7 @@ class AppServiceTest {
 
         verify(appRepository).findAppsByAppType(AppType.LAA);
         verify(appRepository).saveAll(List.of(app));
+        verify(appCatalogueVersionRepository).incrementVersion();
     }
 
     @Test
@@ -224,6 +175,7 @@ class AppServiceTest {
 
         verify(appRepository).findById(appId);
         verify(appRepository).save(app);
+        verify(appCatalogueVersionRepository).incrementVersion();
     }
 
     @Test
@@ -459,304 +411,4 @@ class AppServiceTest {
         assertThat(dto.getName()).isEqualTo("Test App");
         assertThat(dto.getDescription()).isEqualTo("Test Description");
     }
-
-
-    private TechServicesApiResponse<GetAllApplicationsResponse> successResponseWithApps(List<GetAllApplicationsResponse.TechServicesApplication> apps) {
-        GetAllApplicationsResponse data = GetAllApplicationsResponse.builder().apps(apps).build();
-        return TechServicesApiResponse.success(data);
-    }
-
-    private TechServicesApiResponse<GetAllApplicationsResponse> failureResponse(String message) {
-        TechServicesErrorResponse techServicesErrorResponse = TechServicesErrorResponse.builder().message(message).build();
-        return TechServicesApiResponse.error(techServicesErrorResponse);
-    }
-
-    private GetAllApplicationsResponse.TechServicesApplication remoteApp(
-            String appId, String oid, String name, String url, String sgId, String sgName
-    ) {
-        GetAllApplicationsResponse.TechServicesApplication app = GetAllApplicationsResponse.TechServicesApplication.builder()
-                .id(oid)
-                .appId(appId)
-                .name(name)
-                .url(url)
-                .build();
-
-        if (sgId != null && sgName != null) {
-            GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup sg = GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup.builder()
-                    .id(sgId)
-                    .name(sgName)
-                    .build();
-            app.setSecurityGroups(List.of(sg));
-        }
-        return app;
-    }
-
-    private App localApp(
-            String appId, String oid, String name, String url, String sgId, String sgName, boolean enabled
-    ) {
-        return App.builder()
-                .id(UUID.randomUUID())
-                .entraAppId(appId)
-                .entraOid(oid)
-                .name(name)
-                .url(url)
-                .securityGroupOid(sgId)
-                .appType(AppType.LAA)
-                .enabled(enabled)
-                .build();
-    }
-
-    // simulate your existing "getAllLaaAppEntities" called by service
-    // We'll spy the service to stub that method without hitting DB
-    private void stubLocalApps(List<App> locals) throws Exception {
-        AppService spyService = Mockito.spy(appService);
-        doReturn(locals).when(spyService).getAllLaaAppEntities();
-        // swap the spy into field (since @InjectMocks created original)
-        this.appService = spyService;
-    }
-
-    @Test
-    @DisplayName("ADDED: present only in remote → new local app (disabled), saved and returned with changeType=ADDED")
-    void added_whenOnlyRemote() throws Exception {
-        String appId = UUID.randomUUID().toString();
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "Remote One", "https://r1", UUID.randomUUID().toString(), "Group 1");
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1)));
-
-        stubLocalApps(List.of());
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-
-        assertThat(syncResult.getErrors()).isEmpty();
-        assertThat(out).hasSize(1);
-        assertThat(out.get(0).getId()).isEqualTo(appId);
-        assertThat(out.get(0).getName()).isEqualTo("Remote One");
-        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.ADDED);
-
-        // saved once with new entity enabled=false
-        ArgumentCaptor<App> captor = ArgumentCaptor.forClass(App.class);
-        verify(appRepository, times(1)).save(captor.capture());
-        assertThat(captor.getValue().isEnabled()).isFalse();
-
-        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
-    }
-
-    @Test
-    @DisplayName("DELETED: present only in local (enabled) → disabled and returned with changeType=DELETED")
-    void deleted_whenOnlyLocal_enabledGetsDisabledAndSaved() throws Exception {
-        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", "Group 1", true);
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of()));
-
-        stubLocalApps(List.of(l1));
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-        assertThat(out).hasSize(1);
-        assertThat(out.getFirst().getId()).isEqualTo("L1");
-        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.DELETED);
-
-        ArgumentCaptor<App> captor = ArgumentCaptor.forClass(App.class);
-        verify(appRepository).save(captor.capture());
-        assertThat(captor.getValue().isEnabled()).isFalse();
-
-        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
-    }
-
-    @Test
-    @DisplayName("NONE: present only in local (already disabled) → no DB write, still returned as NONE")
-    void deleted_whenOnlyLocal_alreadyDisabled_noSave() throws Exception {
-
-        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", "Group 1", false);
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of()));
-
-        stubLocalApps(List.of(l1));
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-        assertThat(out).hasSize(1);
-        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
-
-        verify(appRepository, never()).save(any());
-        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
-    }
-
-    @Test
-    @DisplayName("NONE: present in both, enabled, and identical fields (including null/empty SG) → no save")
-    void none_whenNoDifferences() throws Exception {
-
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp("AID", "OID", "Same", "https://same", null, null); // SG list null
-        App l1 = localApp("AID", "OID", "Same", "https://same", null, null, true);
-
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1)));
-        stubLocalApps(List.of(l1));
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-
-        assertThat(out).hasSize(1);
-        AppDto dto = out.get(0);
-        assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
-
-        verify(appRepository, never()).save(any());
-        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
-    }
-
-    @Test
-    @DisplayName("REVIEW: present in both but local is disabled → metadata updated, saved; changeType=REVIEW")
-    void review_whenLocalDisabled() throws Exception {
-
-        String appId = UUID.randomUUID().toString();
-        String sgOid = UUID.randomUUID().toString();
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "RemoteName", "https://remote", sgOid, "RemoteSG");
-        App l1 = localApp(appId, "OID", "OldName", "https://old", "SG0", "OldSG", false);
-
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1)));
-        stubLocalApps(List.of(l1));
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-
-        assertThat(syncResult.getErrors()).isEmpty();
-        assertThat(out).hasSize(1);
-        AppDto dto = out.get(0);
-        assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.REVIEW);
-        ArgumentCaptor<App> captor = ArgumentCaptor.forClass(App.class);
-        verify(appRepository).save(captor.capture());
-        App savedApp = captor.getValue();
-        assertThat(savedApp.getName()).isEqualTo("RemoteName");
-        assertThat(savedApp.getUrl()).isEqualTo("https://remote");
-        assertThat(savedApp.getSecurityGroupOid()).isEqualTo(sgOid);
-
-        // Verify event summary mentions Updated=1
-        ArgumentCaptor<AppSynchronizationAuditEvent> eventCaptor = ArgumentCaptor.forClass(AppSynchronizationAuditEvent.class);
-        verify(eventService).logEvent(eventCaptor.capture());
-        assertThat(eventCaptor.getValue().getDescription())
-                .contains("Updated apps: 1");
-    }
-
-    @Test
-    @DisplayName("AC2: UPDATED: present in both, enabled, valid field differences → saved and returned as UPDATED")
-    void updated_whenDifferencesAndEnabled() throws Exception {
-
-        String appId = UUID.randomUUID().toString();
-        String sgOid = UUID.randomUUID().toString();
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "NewName", "https://new", sgOid, "SG Two");
-        App l1 = localApp(appId, "OID", "OldName", "https://old", "SG1", "SG One", true);
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1)));
-        stubLocalApps(List.of(l1));
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-        List<AppDto> out = syncResult.getApps();
-
-        assertThat(syncResult.getErrors()).isEmpty();
-        assertThat(out).hasSize(1);
-        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.UPDATED);
-
-        // Must save updated local, and the update is persisted
-        verify(appRepository).save(any(App.class));
-        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
-    }
-
-    @Test
-    @DisplayName("Defensive nulls: apps list is null → treat as empty")
-    void appsNull_treatedAsEmpty() throws Exception {
-        GetAllApplicationsResponse data = GetAllApplicationsResponse.builder().build();
-        TechServicesApiResponse<GetAllApplicationsResponse> resp = TechServicesApiResponse.success(data);
-        when(techServicesClient.getAllApplications()).thenReturn(resp);
-
-
-        App l1 = localApp("L1", "OID", "Local One", "https://l1", null, null, true);
-        stubLocalApps(List.of(l1));
-
-        List<AppDto> out = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto).getApps();
-        assertThat(out).hasSize(1);
-        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.DELETED);
-    }
-
-    @Test
-    @DisplayName("Error path: failure with message → throws RuntimeException with that message")
-    void errorFromRemote_withMessage() throws Exception {
-        when(techServicesClient.getAllApplications())
-                .thenReturn(failureResponse("Bad Gateway"));
-
-        assertThatThrownBy(() ->
-                appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto)
-        )
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("Bad Gateway");
-
-        verifyNoInteractions(appRepository);
-        verify(eventService, never()).logEvent(any());
-    }
-
-    @Test
-    @DisplayName("Security group comparison: empty list on remote equals null local fields → NONE")
-    void sgEmptyEqualsNullLocal() throws Exception {
-        GetAllApplicationsResponse.TechServicesApplication r = remoteApp("AID", "OID", "Same", "https://same", null, null);
-        r.setSecurityGroups(List.of());
-
-        App l = localApp("AID", "OID", "Same", "https://same", null, null, true);
-
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r)));
-        stubLocalApps(List.of(l));
-
-        List<AppDto> out = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto).getApps();
-        assertThat(out).hasSize(1);
-        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
-    }
-
-    @Test
-    @DisplayName("AC1: two apps sharing the same security group in Entra → both flagged as errors, no DB update performed")
-    void duplicateSecurityGroup_bothAppsErrorAndNotPersisted() throws Exception {
-        String duplicateSecurityGroupOid = UUID.randomUUID().toString();
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
-                "App One", "https://one", duplicateSecurityGroupOid, "Shared Group");
-        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
-                "App Two", "https://two", duplicateSecurityGroupOid, "Shared Group");
-
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1, r2)));
-        stubLocalApps(List.of());
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-
-        assertThat(syncResult.getErrors()).hasSize(2);
-        assertThat(syncResult.getErrors()).allSatisfy(err -> assertThat(err).contains("duplicated"));
-        verify(appRepository, never()).save(any());
-    }
-
-    @Test
-    @DisplayName("AC3: two apps with duplicate security groups error out, third valid app is updated and persisted")
-    void duplicateSecurityGroup_thirdValidAppStillPersisted() throws Exception {
-        String duplicateSecurityGroupOid = UUID.randomUUID().toString();
-        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
-                "App One", "https://one", duplicateSecurityGroupOid, "Shared Group");
-        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
-                "App Two", "https://two", duplicateSecurityGroupOid, "Shared Group");
-        GetAllApplicationsResponse.TechServicesApplication r3 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
-                "App Three", "https://three", UUID.randomUUID().toString(), "Unique Group");
-
-        when(techServicesClient.getAllApplications())
-                .thenReturn(successResponseWithApps(List.of(r1, r2, r3)));
-        stubLocalApps(List.of());
-
-        AppSyncResultDto syncResult = appService.synchronizeAndGetApplicationsFromTechServices(currentUser, userProfileDto);
-
-        assertThat(syncResult.getErrors()).hasSize(2);
-        assertThat(syncResult.getApps())
-                .filteredOn(dto -> "App Three".equals(dto.getName()))
-                .singleElement()
-                .satisfies(dto -> assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.ADDED));
-
-        ArgumentCaptor<App> captor = ArgumentCaptor.forClass(App.class);
-        verify(appRepository, times(1)).save(captor.capture());
-        assertThat(captor.getValue().getName()).isEqualTo("App Three");
-    }
 }
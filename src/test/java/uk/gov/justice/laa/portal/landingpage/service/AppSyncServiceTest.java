@@ -0,0 +1,707 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.gov.justice.laa.portal.landingpage.dto.AppDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppSyncResultDto;
+import uk.gov.justice.laa.portal.landingpage.dto.AppSynchronizationAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.UserProfileDto;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlan;
+import uk.gov.justice.laa.portal.landingpage.entity.AppSyncPlanStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.AppType;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.AppSyncPlanRepository;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetAllApplicationsResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesApiResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesErrorResponse;
+
+@ExtendWith(MockitoExtension.class)
+class AppSyncServiceTest {
+
+    @Mock
+    private TechServicesClient techServicesClient;
+    @Mock
+    private AppRepository appRepository;
+    @Mock
+    private AppSyncPlanRepository appSyncPlanRepository;
+    @Mock
+    private EventService eventService;
+    @Mock
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
+
+    private final PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+
+    private AppSyncService appSyncService;
+    private CurrentUserDto currentUser;
+    private CurrentUserDto applyingAdmin;
+    private UserProfileDto userProfileDto;
+    private final List<AppSyncPlan> savedPlans = new ArrayList<>();
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            // no-op: tests don't need real transactional behaviour
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            // no-op: tests don't need real transactional behaviour
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        currentUser = new CurrentUserDto();
+        currentUser.setUserId(UUID.randomUUID());
+        currentUser.setName("user-1");
+        userProfileDto = UserProfileDto.builder().id(UUID.randomUUID()).build();
+        applyingAdmin = new CurrentUserDto();
+        applyingAdmin.setUserId(UUID.randomUUID());
+        applyingAdmin.setName("admin-2");
+
+        appSyncService = new AppSyncService(appRepository, appSyncPlanRepository, techServicesClient, new ModelMapper(),
+                eventService, transactionManager, appCatalogueVersionRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(appSyncService, "syncAppsFromEntra", "true");
+        ReflectionTestUtils.setField(appSyncService, "syncAppUpdatesFromEntra", "true");
+    }
+
+    @Test
+    @DisplayName("ADDED: present only in remote → planned without saving, then applied as a new disabled app")
+    void added_whenOnlyRemote() {
+        String appId = UUID.randomUUID().toString();
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "Remote One", "https://r1", UUID.randomUUID().toString(), "Group 1");
+        stubRemote(List.of(r1));
+        stubLocalApps(List.of());
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        List<AppDto> out = syncResult.getApps();
+
+        assertThat(syncResult.getErrors()).isEmpty();
+        assertThat(syncResult.getStatus()).isEqualTo(AppSyncPlanStatus.PLANNED);
+        assertThat(syncResult.getTotalChanges()).isEqualTo(1);
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).getId()).isEqualTo(appId);
+        assertThat(out.get(0).getName()).isEqualTo("Remote One");
+        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.ADDED);
+        verify(appRepository, never()).save(any());
+        verify(appRepository, never()).saveAll(any());
+        verify(appSyncPlanRepository).updateStatus(AppSyncPlanStatus.PLANNED, AppSyncPlanStatus.SUPERSEDED);
+
+        List<App> saved = apply(syncResult.getPlanId());
+
+        assertThat(saved).singleElement().satisfies(app -> {
+            assertThat(app.getName()).isEqualTo("Remote One");
+            assertThat(app.isEnabled()).isFalse();
+        });
+        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
+        verify(appCatalogueVersionRepository).incrementVersion();
+        assertThat(lastPlan().getStatus()).isEqualTo(AppSyncPlanStatus.APPLIED);
+        assertThat(lastPlan().getAppliedChanges()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DELETED: present only in local (enabled) → planned as DELETED, then disabled")
+    void deleted_whenOnlyLocal_enabledGetsDisabledAndSaved() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        List<AppDto> out = syncResult.getApps();
+        assertThat(out).hasSize(1);
+        assertThat(out.getFirst().getId()).isEqualTo("L1");
+        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.DELETED);
+        assertThat(l1.isEnabled()).isTrue();
+
+        List<App> saved = apply(syncResult.getPlanId(), l1);
+
+        assertThat(saved).singleElement().satisfies(app -> assertThat(app.isEnabled()).isFalse());
+        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
+    }
+
+    @Test
+    @DisplayName("NONE: present only in local (already disabled) → nothing to apply, sync audited straight away")
+    void deleted_whenOnlyLocal_alreadyDisabled_noSave() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", false);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        List<AppDto> out = syncResult.getApps();
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
+        assertThat(syncResult.getStatus()).isEqualTo(AppSyncPlanStatus.UNCHANGED);
+
+        verify(appRepository, never()).save(any());
+        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
+        assertThat(lastPlan().getAppliedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("NONE: present in both, enabled, and identical fields (including null/empty SG) → no save")
+    void none_whenNoDifferences() {
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp("AID", "OID", "Same", "https://same", null, null); // SG list null
+        App l1 = localApp("AID", "OID", "Same", "https://same", null, true);
+        stubRemote(List.of(r1));
+        stubLocalApps(List.of(l1));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        List<AppDto> out = syncResult.getApps();
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
+        assertThat(syncResult.getStatus()).isEqualTo(AppSyncPlanStatus.UNCHANGED);
+
+        verify(appRepository, never()).save(any());
+        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
+    }
+
+    @Test
+    @DisplayName("REVIEW: present in both but local is disabled → metadata applied; changeType=REVIEW")
+    void review_whenLocalDisabled() {
+        String appId = UUID.randomUUID().toString();
+        String sgOid = UUID.randomUUID().toString();
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "RemoteName", "https://remote", sgOid, "RemoteSG");
+        App l1 = localApp(appId, "OID", "OldName", "https://old", "SG0", false);
+        stubRemote(List.of(r1));
+        stubLocalApps(List.of(l1));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        assertThat(syncResult.getErrors()).isEmpty();
+        assertThat(syncResult.getApps()).singleElement().satisfies(dto -> {
+            assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.REVIEW);
+            assertThat(dto.getName()).isEqualTo("RemoteName");
+        });
+        assertThat(l1.getName()).isEqualTo("OldName");
+
+        List<App> saved = apply(syncResult.getPlanId(), l1);
+
+        App savedApp = saved.getFirst();
+        assertThat(savedApp.getName()).isEqualTo("RemoteName");
+        assertThat(savedApp.getUrl()).isEqualTo("https://remote");
+        assertThat(savedApp.getSecurityGroupOid()).isEqualTo(sgOid);
+
+        ArgumentCaptor<AppSynchronizationAuditEvent> eventCaptor = ArgumentCaptor.forClass(AppSynchronizationAuditEvent.class);
+        verify(eventService).logEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getDescription())
+                .contains("Updated apps: 1");
+        assertThat(eventCaptor.getValue().getUserId()).isEqualTo(applyingAdmin.getUserId());
+        assertThat(eventCaptor.getValue().getUserName()).isEqualTo(applyingAdmin.getName());
+    }
+
+    @Test
+    @DisplayName("AC2: UPDATED: present in both, enabled, valid field differences → applied and returned as UPDATED")
+    void updated_whenDifferencesAndEnabled() {
+        String appId = UUID.randomUUID().toString();
+        String sgOid = UUID.randomUUID().toString();
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(appId, UUID.randomUUID().toString(), "NewName", "https://new", sgOid, "SG Two");
+        App l1 = localApp(appId, "OID", "OldName", "https://old", "SG1", true);
+        stubRemote(List.of(r1));
+        stubLocalApps(List.of(l1));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        assertThat(syncResult.getErrors()).isEmpty();
+        assertThat(syncResult.getApps()).singleElement()
+                .satisfies(dto -> assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.UPDATED));
+
+        List<App> saved = apply(syncResult.getPlanId(), l1);
+
+        assertThat(saved).singleElement().satisfies(app -> assertThat(app.getName()).isEqualTo("NewName"));
+        verify(eventService).logEvent(any(AppSynchronizationAuditEvent.class));
+    }
+
+    @Test
+    @DisplayName("Defensive nulls: apps list is null → treat as empty")
+    void appsNull_treatedAsEmpty() {
+        GetAllApplicationsResponse data = GetAllApplicationsResponse.builder().build();
+        when(techServicesClient.getAllApplications()).thenReturn(TechServicesApiResponse.success(data));
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", null, true);
+        stubLocalApps(List.of(l1));
+
+        List<AppDto> out = appSyncService.plan(currentUser, userProfileDto).getApps();
+        assertThat(out).hasSize(1);
+        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.DELETED);
+    }
+
+    @Test
+    @DisplayName("Error path: failure with message → throws RuntimeException with that message")
+    void errorFromRemote_withMessage() {
+        TechServicesErrorResponse error = TechServicesErrorResponse.builder().message("Bad Gateway").build();
+        when(techServicesClient.getAllApplications()).thenReturn(TechServicesApiResponse.error(error));
+
+        assertThatThrownBy(() -> appSyncService.plan(currentUser, userProfileDto))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Bad Gateway");
+
+        verify(appRepository, never()).save(any());
+        verifyNoInteractions(appSyncPlanRepository);
+        verify(eventService, never()).logEvent(any());
+    }
+
+    @Test
+    @DisplayName("Security group comparison: empty list on remote equals null local fields → NONE")
+    void sgEmptyEqualsNullLocal() {
+        GetAllApplicationsResponse.TechServicesApplication r = remoteApp("AID", "OID", "Same", "https://same", null, null);
+        r.setSecurityGroups(List.of());
+        App l = localApp("AID", "OID", "Same", "https://same", null, true);
+        stubRemote(List.of(r));
+        stubLocalApps(List.of(l));
+
+        List<AppDto> out = appSyncService.plan(currentUser, userProfileDto).getApps();
+        assertThat(out).hasSize(1);
+        assertThat(out.getFirst().getChangeType()).isEqualTo(AppDto.ChangeType.NONE);
+    }
+
+    @Test
+    @DisplayName("AC1: two apps sharing the same security group in Entra → both flagged as errors, nothing planned")
+    void duplicateSecurityGroup_bothAppsErrorAndNotPersisted() {
+        String duplicateSecurityGroupOid = UUID.randomUUID().toString();
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                "App One", "https://one", duplicateSecurityGroupOid, "Shared Group");
+        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                "App Two", "https://two", duplicateSecurityGroupOid, "Shared Group");
+        stubRemote(List.of(r1, r2));
+        stubLocalApps(List.of());
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        assertThat(syncResult.getErrors()).hasSize(2);
+        assertThat(syncResult.getErrors()).allSatisfy(err -> assertThat(err).contains("duplicated"));
+        assertThat(syncResult.getTotalChanges()).isZero();
+        assertThat(lastPlan().getTotalApps()).isEqualTo(2);
+        verify(appRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("AC3: two apps with duplicate security groups error out, third valid app is planned and applied")
+    void duplicateSecurityGroup_thirdValidAppStillPersisted() {
+        String duplicateSecurityGroupOid = UUID.randomUUID().toString();
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                "App One", "https://one", duplicateSecurityGroupOid, "Shared Group");
+        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                "App Two", "https://two", duplicateSecurityGroupOid, "Shared Group");
+        GetAllApplicationsResponse.TechServicesApplication r3 = remoteApp(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                "App Three", "https://three", UUID.randomUUID().toString(), "Unique Group");
+        stubRemote(List.of(r1, r2, r3));
+        stubLocalApps(List.of());
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        assertThat(syncResult.getErrors()).hasSize(2);
+        assertThat(syncResult.getApps())
+                .filteredOn(dto -> "App Three".equals(dto.getName()))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.getChangeType()).isEqualTo(AppDto.ChangeType.ADDED));
+
+        List<App> saved = apply(syncResult.getPlanId());
+
+        assertThat(saved).singleElement().satisfies(app -> assertThat(app.getName()).isEqualTo("App Three"));
+        assertThat(appSyncService.getPlan(syncResult.getPlanId()).orElseThrow().getErrors()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Content hash unchanged since the last sync and no local edits → no diff, nothing planned")
+    void unchangedContentHash_skipsPlanning() {
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp("AID", "OID", "Same", "https://same", null, null);
+        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp("BID", "OID2", "Other", "https://other", null, null);
+        stubRemote(List.of(r2, r1));
+        when(appRepository.findAppsByAppType(AppType.LAA)).thenReturn(List.of());
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(7L));
+        AppSyncPlan lastSync = AppSyncPlan.builder()
+                .status(AppSyncPlanStatus.APPLIED)
+                .contentHash(appSyncService.contentHash(List.of(r1, r2)))
+                .catalogueVersion(7L)
+                .errors("[\"App 'Broken' (app id: X): Security group OID is missing\"]")
+                .build();
+        when(appSyncPlanRepository.findFirstByStatusInOrderByAppliedAtDesc(any())).thenReturn(Optional.of(lastSync));
+
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        assertThat(syncResult.getStatus()).isEqualTo(AppSyncPlanStatus.UNCHANGED);
+        assertThat(syncResult.getPlanId()).isNull();
+        assertThat(syncResult.getErrors()).hasSize(1);
+        verify(appSyncPlanRepository, never()).save(any());
+        verify(eventService, never()).logEvent(any());
+    }
+
+    @Test
+    @DisplayName("Content hash unchanged but apps edited locally since → planned again")
+    void unchangedContentHash_replansWhenCatalogueChanged() {
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp("AID", "OID", "Same", "https://same", null, null);
+        stubRemote(List.of(r1));
+        stubLocalApps(List.of(localApp("AID", "OID", "Same", "https://same", null, true)));
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(8L));
+        AppSyncPlan lastSync = AppSyncPlan.builder()
+                .status(AppSyncPlanStatus.APPLIED)
+                .contentHash(appSyncService.contentHash(List.of(r1)))
+                .catalogueVersion(7L)
+                .build();
+        when(appSyncPlanRepository.findFirstByStatusInOrderByAppliedAtDesc(any())).thenReturn(Optional.of(lastSync));
+
+        appSyncService.plan(currentUser, userProfileDto);
+
+        verify(appSyncPlanRepository).save(any(AppSyncPlan.class));
+    }
+
+    @Test
+    void contentHash_ignoresOrderButNotContent() {
+        GetAllApplicationsResponse.TechServicesApplication r1 = remoteApp("AID", "OID", "One", "https://one", "SG1", "Group 1");
+        GetAllApplicationsResponse.TechServicesApplication r2 = remoteApp("BID", "OID2", "Two", "https://two", "SG2", "Group 2");
+        GetAllApplicationsResponse.TechServicesApplication renamed = remoteApp("BID", "OID2", "Two (new)", "https://two", "SG2", "Group 2");
+
+        assertThat(appSyncService.contentHash(List.of(r1, r2))).isEqualTo(appSyncService.contentHash(List.of(r2, r1)));
+        assertThat(appSyncService.contentHash(List.of(r1, r2))).isNotEqualTo(appSyncService.contentHash(List.of(r1, renamed)));
+    }
+
+    @Test
+    void startApply_isFalseWhenPlanAlreadyClaimed() {
+        UUID planId = UUID.randomUUID();
+        when(appSyncPlanRepository.claimForApply(eq(planId), eq(AppSyncPlanStatus.PLANNED), eq(AppSyncPlanStatus.APPLYING),
+                any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThat(appSyncService.startApply(planId, applyingAdmin, UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void startApply_claimsPlanForTheApplyingAdminWithALease() {
+        UUID planId = UUID.randomUUID();
+        UUID userProfileId = UUID.randomUUID();
+        ArgumentCaptor<LocalDateTime> lockedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(appSyncPlanRepository.claimForApply(eq(planId), eq(AppSyncPlanStatus.PLANNED), eq(AppSyncPlanStatus.APPLYING),
+                eq(applyingAdmin.getUserId()), eq(applyingAdmin.getName()), eq(userProfileId), eq(instanceId()),
+                lockedUntil.capture(), now.capture())).thenReturn(1);
+
+        assertThat(appSyncService.startApply(planId, applyingAdmin, userProfileId)).isTrue();
+        assertThat(lockedUntil.getValue()).isEqualTo(now.getValue().plusSeconds(300));
+    }
+
+    @Test
+    void getPlan_offersAPlanWhoseLeaseLapsedToBeAppliedAgain() {
+        AppSyncPlan plan = AppSyncPlan.builder().id(UUID.randomUUID()).status(AppSyncPlanStatus.APPLYING)
+                .errors("[]").lockedUntil(LocalDateTime.now().minusMinutes(1)).build();
+        when(appSyncPlanRepository.findById(plan.getId())).thenReturn(Optional.of(plan));
+
+        AppSyncResultDto result = appSyncService.getPlan(plan.getId()).orElseThrow();
+
+        assertThat(result.getStatus()).isEqualTo(AppSyncPlanStatus.PLANNED);
+        assertThat(result.getErrors()).singleElement().asString().contains("Apply it again");
+    }
+
+    @Test
+    void getPlan_showsProgressWhileLeaseIsHeld() {
+        AppSyncPlan plan = AppSyncPlan.builder().id(UUID.randomUUID()).status(AppSyncPlanStatus.APPLYING)
+                .errors("[]").lockedUntil(LocalDateTime.now().plusMinutes(1)).build();
+        when(appSyncPlanRepository.findById(plan.getId())).thenReturn(Optional.of(plan));
+
+        AppSyncResultDto result = appSyncService.getPlan(plan.getId()).orElseThrow();
+
+        assertThat(result.getStatus()).isEqualTo(AppSyncPlanStatus.APPLYING);
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    void applyPlan_ignoresPlanThatIsNotBeingApplied() {
+        AppSyncPlan plan = AppSyncPlan.builder().id(UUID.randomUUID()).status(AppSyncPlanStatus.APPLIED).build();
+        when(appSyncPlanRepository.findById(plan.getId())).thenReturn(Optional.of(plan));
+
+        appSyncService.applyPlan(plan.getId());
+
+        verifyNoInteractions(appRepository, eventService);
+    }
+
+    @Test
+    @DisplayName("An app the plan changes is edited after planning → plan superseded, nothing applied")
+    void applyPlan_supersedesPlanWhenATouchedAppChanged() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        AppSyncPlan plan = lastPlan();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        when(appSyncPlanRepository.findById(syncResult.getPlanId())).thenReturn(Optional.of(plan));
+        when(appRepository.findAllById(any())).thenReturn(List.of(l1));
+        l1.setUrl("https://l1/edited");
+
+        appSyncService.applyPlan(syncResult.getPlanId());
+
+        verify(appSyncPlanRepository).releaseApply(eq(syncResult.getPlanId()), eq(AppSyncPlanStatus.APPLYING),
+                eq(instanceId()), eq(AppSyncPlanStatus.SUPERSEDED), any());
+        verify(appRepository, never()).saveAll(any());
+        verify(eventService, never()).logEvent(any());
+    }
+
+    @Test
+    @DisplayName("An app the plan adds is created after planning → plan superseded, nothing applied")
+    void applyPlan_supersedesPlanWhenAnAppToAddNowExists() {
+        String appId = UUID.randomUUID().toString();
+        stubRemote(List.of(remoteApp(appId, UUID.randomUUID().toString(), "Remote One", "https://r1",
+                UUID.randomUUID().toString(), "Group 1")));
+        stubLocalApps(List.of());
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        AppSyncPlan plan = lastPlan();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        when(appSyncPlanRepository.findById(syncResult.getPlanId())).thenReturn(Optional.of(plan));
+        when(appRepository.existsByEntraAppIdIn(Set.of(appId))).thenReturn(true);
+
+        appSyncService.applyPlan(syncResult.getPlanId());
+
+        verify(appSyncPlanRepository).releaseApply(eq(syncResult.getPlanId()), eq(AppSyncPlanStatus.APPLYING),
+                eq(instanceId()), eq(AppSyncPlanStatus.SUPERSEDED), any());
+        verify(appRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Other apps changed after planning → plan still applied")
+    void applyPlan_appliesPlanWhenOnlyOtherAppsChanged() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+        when(appCatalogueVersionRepository.findCurrentVersion()).thenReturn(Optional.of(1L), Optional.of(2L));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+
+        List<App> saved = apply(syncResult.getPlanId(), l1);
+
+        assertThat(saved).singleElement().satisfies(app -> assertThat(app.isEnabled()).isFalse());
+        assertThat(lastPlan().getStatus()).isEqualTo(AppSyncPlanStatus.APPLIED);
+        verify(appSyncPlanRepository, never()).releaseApply(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Another instance claims the plan part way → this one stops without recording progress or the outcome")
+    void applyPlan_stopsOnceTheLeaseIsLost() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        AppSyncPlan plan = lastPlan();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        when(appSyncPlanRepository.findById(syncResult.getPlanId())).thenReturn(Optional.of(plan));
+        when(appRepository.findAllById(any())).thenReturn(List.of(l1));
+        when(appSyncPlanRepository.updateAppliedChanges(eq(syncResult.getPlanId()), eq(instanceId()), anyInt(),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        appSyncService.applyPlan(syncResult.getPlanId());
+
+        verify(appSyncPlanRepository, never()).completeApply(any(), any(), any(), any(), anyInt(), any(), any(),
+                anyLong(), any());
+        verify(appSyncPlanRepository).releaseApply(eq(syncResult.getPlanId()), eq(AppSyncPlanStatus.APPLYING),
+                eq(instanceId()), eq(AppSyncPlanStatus.FAILED), eq("Lost the lease on app sync plan " + syncResult.getPlanId()));
+        verify(eventService, never()).logEvent(any());
+    }
+
+    @Test
+    @DisplayName("A failure is recorded with a targeted update rather than by saving the plan read at the start")
+    void applyPlan_recordsFailureWithoutSavingStalePlan() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        AppSyncPlan plan = lastPlan();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        when(appSyncPlanRepository.findById(syncResult.getPlanId())).thenReturn(Optional.of(plan));
+        when(appRepository.findAllById(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        appSyncService.applyPlan(syncResult.getPlanId());
+
+        verify(appSyncPlanRepository).releaseApply(syncResult.getPlanId(), AppSyncPlanStatus.APPLYING, instanceId(),
+                AppSyncPlanStatus.FAILED, "database unavailable");
+        verify(appSyncPlanRepository, times(1)).save(any(AppSyncPlan.class));
+    }
+
+    @Test
+    @DisplayName("A plan claimed again after its lease lapsed carries on after the changes already applied")
+    void applyPlan_resumesAfterChangesAlreadyApplied() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        App l2 = localApp("L2", "OID2", "Local Two", "https://l2", "SG2", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1, l2));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        ReflectionTestUtils.setField(appSyncService, "applyBatchSize", 1);
+        lastPlan().setAppliedChanges(1);
+
+        List<App> saved = apply(syncResult.getPlanId(), l1, l2);
+
+        // Only the change not yet applied is saved, the app applied before is left alone
+        assertThat(saved).hasSize(1);
+        assertThat(List.of(l1, l2)).filteredOn(App::isEnabled).hasSize(1);
+        assertThat(lastPlan().getStatus()).isEqualTo(AppSyncPlanStatus.APPLIED);
+        assertThat(lastPlan().getSummary()).contains("Deleted apps: 2");
+        assertThat(lastPlan().getLockedUntil()).isNull();
+    }
+
+    @Test
+    @DisplayName("A failing batch is retried one app at a time so the good apps are still saved")
+    void applyPlan_fallsBackToSingleSavesWhenBatchFails() {
+        App l1 = localApp("L1", "OID", "Local One", "https://l1", "SG1", true);
+        App l2 = localApp("L2", "OID2", "Local Two", "https://l2", "SG2", true);
+        stubRemote(List.of());
+        stubLocalApps(List.of(l1, l2));
+        AppSyncResultDto syncResult = appSyncService.plan(currentUser, userProfileDto);
+        AppSyncPlan plan = lastPlan();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        when(appSyncPlanRepository.findById(syncResult.getPlanId())).thenReturn(Optional.of(plan));
+        holdLease(plan);
+        when(appRepository.findAllById(any())).thenReturn(List.of(l1, l2));
+        when(appRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(appRepository.save(any(App.class))).thenAnswer(invocation -> {
+            App app = invocation.getArgument(0);
+            if (app == l2) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return app;
+        });
+
+        appSyncService.applyPlan(syncResult.getPlanId());
+
+        verify(appRepository, times(2)).save(any(App.class));
+        assertThat(plan.getStatus()).isEqualTo(AppSyncPlanStatus.APPLIED);
+        assertThat(plan.getSummary()).contains("Deleted apps: 1").contains("Errors: 1");
+        assertThat(plan.getErrors()).contains("Local Two");
+    }
+
+    private List<App> apply(UUID planId, App... locals) {
+        AppSyncPlan plan = savedPlans.stream().filter(p -> p.getId().equals(planId)).findFirst().orElseThrow();
+        plan.setStatus(AppSyncPlanStatus.APPLYING);
+        plan.setAppliedByUserId(applyingAdmin.getUserId());
+        plan.setAppliedByName(applyingAdmin.getName());
+        plan.setAppliedByUserProfileId(UUID.randomUUID());
+        when(appSyncPlanRepository.findById(planId)).thenReturn(Optional.of(plan));
+        holdLease(plan);
+        when(appRepository.findAllById(any())).thenReturn(List.of(locals));
+
+        appSyncService.applyPlan(planId);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<App>> captor = ArgumentCaptor.forClass(List.class);
+        verify(appRepository).saveAll(captor.capture());
+        verify(appSyncPlanRepository).updateAppliedChanges(eq(planId), eq(instanceId()), anyInt(), any(LocalDateTime.class));
+        return captor.getValue();
+    }
+
+    /**
+     * Stands in for the database while this instance holds the plan's lease, writing the
+     * progress and outcome recorded against the plan onto it.
+     */
+    private void holdLease(AppSyncPlan plan) {
+        when(appSyncPlanRepository.updateAppliedChanges(eq(plan.getId()), eq(instanceId()), anyInt(),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+                    plan.setAppliedChanges(invocation.getArgument(2));
+                    plan.setLockedUntil(invocation.getArgument(3));
+                    return 1;
+                });
+        when(appSyncPlanRepository.completeApply(eq(plan.getId()), eq(AppSyncPlanStatus.APPLYING), eq(instanceId()),
+                eq(AppSyncPlanStatus.APPLIED), anyInt(), any(), any(), anyLong(), any())).thenAnswer(invocation -> {
+                    plan.setStatus(AppSyncPlanStatus.APPLIED);
+                    plan.setAppliedChanges(invocation.getArgument(4));
+                    plan.setErrors(invocation.getArgument(5));
+                    plan.setSummary(invocation.getArgument(6));
+                    plan.setCatalogueVersion(invocation.getArgument(7));
+                    plan.setAppliedAt(invocation.getArgument(8));
+                    plan.setLockedUntil(null);
+                    return 1;
+                });
+    }
+
+    private String instanceId() {
+        return (String) ReflectionTestUtils.getField(appSyncService, "instanceId");
+    }
+
+    private AppSyncPlan lastPlan() {
+        return savedPlans.getLast();
+    }
+
+    private void stubRemote(List<GetAllApplicationsResponse.TechServicesApplication> apps) {
+        GetAllApplicationsResponse data = GetAllApplicationsResponse.builder().apps(apps).build();
+        when(techServicesClient.getAllApplications()).thenReturn(TechServicesApiResponse.success(data));
+    }
+
+    private void stubLocalApps(List<App> locals) {
+        when(appRepository.findAppsByAppType(AppType.LAA)).thenReturn(locals);
+        when(appSyncPlanRepository.save(any(AppSyncPlan.class))).thenAnswer(invocation -> {
+            AppSyncPlan plan = invocation.getArgument(0);
+            if (plan.getId() == null) {
+                plan.setId(UUID.randomUUID());
+                savedPlans.add(plan);
+            }
+            return plan;
+        });
+    }
+
+    private GetAllApplicationsResponse.TechServicesApplication remoteApp(
+            String appId, String oid, String name, String url, String sgId, String sgName
+    ) {
+        GetAllApplicationsResponse.TechServicesApplication app = GetAllApplicationsResponse.TechServicesApplication.builder()
+                .id(oid)
+                .appId(appId)
+                .name(name)
+                .url(url)
+                .build();
+
+        if (sgId != null && sgName != null) {
+            GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup sg = GetAllApplicationsResponse.TechServicesApplication.AppSecurityGroup.builder()
+                    .id(sgId)
+                    .name(sgName)
+                    .build();
+            app.setSecurityGroups(List.of(sg));
+        }
+        return app;
+    }
+
+    private App localApp(String appId, String oid, String name, String url, String sgId, boolean enabled) {
+        return App.builder()
+                .id(UUID.randomUUID())
+                .entraAppId(appId)
+                .entraOid(oid)
+                .name(name)
+                .url(url)
+                .securityGroupOid(sgId)
+                .appType(AppType.LAA)
+                .enabled(enabled)
+                .build();
+    }
+}
@@ -0,0 +1,438 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.config.MapperConfig;
+import uk.gov.justice.laa.portal.landingpage.dto.AppRoleDto;
+import uk.gov.justice.laa.portal.landingpage.dto.BulkAssignmentAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.App;
+import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItem;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentItemStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJob;
+import uk.gov.justice.laa.portal.landingpage.entity.BulkAssignmentJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.Firm;
+import uk.gov.justice.laa.portal.landingpage.entity.FirmType;
+import uk.gov.justice.laa.portal.landingpage.entity.Office;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+import uk.gov.justice.laa.portal.landingpage.forms.BulkAssignmentForm;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.BulkAssignmentItemRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.BulkAssignmentJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.OfficeRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkAssignmentServiceTest {
+
+    private static final String INSTANCE_ID = "this-instance";
+
+    @Mock
+    private BulkAssignmentJobRepository jobRepository;
+    @Mock
+    private BulkAssignmentItemRepository itemRepository;
+    @Mock
+    private UserProfileRepository userProfileRepository;
+    @Mock
+    private AppRoleRepository appRoleRepository;
+    @Mock
+    private OfficeRepository officeRepository;
+    @Mock
+    private AppRoleDeletionService appRoleDeletionService;
+    @Mock
+    private RoleAssignmentService roleAssignmentService;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private EventService eventService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkAssignmentService bulkAssignmentService;
+
+    private final Firm firm = Firm.builder().id(UUID.randomUUID()).name("Firm One").type(FirmType.LEGAL_SERVICES_PROVIDER).build();
+    private final FirmDto firmDto = FirmDto.builder().id(firm.getId()).name(firm.getName()).type(firm.getType()).build();
+    private final App app = App.builder().id(UUID.randomUUID()).name("CCMS").entraOid("ccms-app-oid").build();
+    private final AppRole caseWorker = AppRole.builder().id(UUID.randomUUID()).name("Case Worker").app(app)
+            .ccmsCode("XXCCMS_CASE_WORKER").legacySync(true).userTypeRestriction(new UserType[] {UserType.EXTERNAL})
+            .build();
+    private final AppRole viewer = AppRole.builder().id(UUID.randomUUID()).name("Viewer").app(app)
+            .userTypeRestriction(new UserType[] {UserType.EXTERNAL}).build();
+    private final AppRole userManager = AppRole.builder().id(UUID.randomUUID()).name("Firm User Manager").app(app)
+            .authzRole(true).userTypeRestriction(new UserType[] {UserType.EXTERNAL}).build();
+    private final Office office = Office.builder().id(UUID.randomUUID()).code("1A001A").firm(firm).build();
+    private final UserProfile requester = UserProfile.builder().id(UUID.randomUUID())
+            .appRoles(Set.of(userManager)).build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkAssignmentService = new BulkAssignmentService(jobRepository, itemRepository, userProfileRepository,
+                appRoleRepository, officeRepository, appRoleDeletionService, roleAssignmentService, outboxService, eventService,
+                meterRegistry, new MapperConfig().modelMapper(), 120, 5, 60);
+        ReflectionTestUtils.setField(bulkAssignmentService, "instanceId", INSTANCE_ID);
+    }
+
+    @Test
+    void getAssignableRoles_excludesSilasRolesAndRolesForOtherFirmTypes() {
+        AppRole advocateOnly = AppRole.builder().id(UUID.randomUUID()).name("Advocate").app(app)
+                .firmTypeRestriction(new FirmType[] {FirmType.ADVOCATE})
+                .userTypeRestriction(new UserType[] {UserType.EXTERNAL}).build();
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL"))
+                .thenReturn(List.of(viewer, userManager, advocateOnly, caseWorker));
+        allowRequesterToAssign(viewer, caseWorker);
+
+        List<AppRoleDto> roles = bulkAssignmentService.getAssignableRoles(firmDto, requester);
+
+        assertThat(roles).extracting(AppRoleDto::getName).containsExactly("Case Worker", "Viewer");
+    }
+
+    @Test
+    void getAssignableRoles_excludesRolesTheRequesterCannotAssign() {
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(viewer, caseWorker));
+        allowRequesterToAssign(viewer);
+
+        List<AppRoleDto> roles = bulkAssignmentService.getAssignableRoles(firmDto, requester);
+
+        assertThat(roles).extracting(AppRoleDto::getName).containsExactly("Viewer");
+    }
+
+    @Test
+    void requestAssignment_queuesJobForMatchingUsers() {
+        UUID requesterProfileId = requester.getId();
+        UUID requesterOid = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(caseWorker, viewer));
+        allowRequesterToAssign(caseWorker, viewer);
+        when(officeRepository.findAllById(Set.of(office.getId()))).thenReturn(List.of(office));
+        when(jobRepository.existsByFirmIdAndStatusIn(eq(firm.getId()), any())).thenReturn(false);
+        when(jobRepository.save(any(BulkAssignmentJob.class))).thenAnswer(invocation -> {
+            BulkAssignmentJob job = invocation.getArgument(0);
+            job.setId(jobId);
+            return job;
+        });
+        when(itemRepository.insertMatchingFirmProfiles(jobId, firm.getId(), "smith\\_", requesterProfileId))
+                .thenReturn(42);
+        BulkAssignmentForm form = BulkAssignmentForm.builder()
+                .search(" Smith_ ")
+                .addRoles(List.of(caseWorker.getId().toString()))
+                .removeRoles(List.of(viewer.getId().toString()))
+                .addOffices(List.of(office.getId().toString()))
+                .build();
+
+        Optional<BulkAssignmentJob> job = bulkAssignmentService.requestAssignment(firmDto, form, requester,
+                requesterOid);
+
+        assertThat(job).isPresent();
+        assertThat(job.get().getTotalUsers()).isEqualTo(42);
+        assertThat(job.get().getSearchTerm()).isEqualTo("Smith_");
+        assertThat(job.get().getAddRoleIds()).containsExactly(caseWorker.getId());
+        assertThat(job.get().getRemoveRoleIds()).containsExactly(viewer.getId());
+        assertThat(job.get().getAddOfficeIds()).containsExactly(office.getId());
+        assertThat(job.get().getRemoveOfficeIds()).isEmpty();
+        assertThat(job.get().getStatus()).isEqualTo(BulkAssignmentJobStatus.PENDING);
+        assertThat(job.get().getRequestedByEntraOid()).isEqualTo(requesterOid);
+    }
+
+    @Test
+    void requestAssignment_returnsEmptyWhenFirmAlreadyHasJobRunning() {
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(viewer));
+        allowRequesterToAssign(viewer);
+        when(jobRepository.existsByFirmIdAndStatusIn(eq(firm.getId()), any())).thenReturn(true);
+        BulkAssignmentForm form = BulkAssignmentForm.builder().addRoles(List.of(viewer.getId().toString())).build();
+
+        assertThat(bulkAssignmentService.requestAssignment(firmDto, form, requester, UUID.randomUUID()))
+                .isEmpty();
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void requestAssignment_rejectsSilasRoles() {
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(viewer, userManager));
+        BulkAssignmentForm form = BulkAssignmentForm.builder()
+                .removeRoles(List.of(userManager.getId().toString())).build();
+
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, form, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be changed in bulk");
+    }
+
+    @Test
+    void requestAssignment_rejectsRolesTheRequesterCannotAssign() {
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(viewer, caseWorker));
+        allowRequesterToAssign(viewer);
+        BulkAssignmentForm form = BulkAssignmentForm.builder()
+                .addRoles(List.of(viewer.getId().toString()))
+                .removeRoles(List.of(caseWorker.getId().toString())).build();
+
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, form, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not allowed to change");
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void requestAssignment_rejectsAddingRolesBeingDeleted() {
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of(viewer, caseWorker));
+        allowRequesterToAssign(viewer);
+        when(appRoleDeletionService.getRoleIdsBeingDeleted()).thenReturn(Set.of(viewer.getId()));
+        BulkAssignmentForm form = BulkAssignmentForm.builder().addRoles(List.of(viewer.getId().toString())).build();
+
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, form, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is being deleted");
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void requestAssignment_rejectsOfficesOfAnotherFirm() {
+        Office otherFirmOffice = Office.builder().id(UUID.randomUUID()).code("2B002B")
+                .firm(Firm.builder().id(UUID.randomUUID()).build()).build();
+        when(appRoleRepository.findByUserTypeRestrictionContains("EXTERNAL")).thenReturn(List.of());
+        when(officeRepository.findAllById(Set.of(otherFirmOffice.getId()))).thenReturn(List.of(otherFirmOffice));
+        BulkAssignmentForm form = BulkAssignmentForm.builder()
+                .addOffices(List.of(otherFirmOffice.getId().toString())).build();
+
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, form, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("do not belong to Firm One");
+    }
+
+    @Test
+    void requestAssignment_rejectsNoChangesAndContradictoryChanges() {
+        BulkAssignmentForm empty = BulkAssignmentForm.builder().search("smith").build();
+        BulkAssignmentForm contradictory = BulkAssignmentForm.builder()
+                .addRoles(List.of(viewer.getId().toString()))
+                .removeRoles(List.of(viewer.getId().toString())).build();
+
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, empty, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least one");
+        assertThatThrownBy(() -> bulkAssignmentService.requestAssignment(firmDto, contradictory, requester,
+                UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("both added and removed");
+    }
+
+    @Test
+    void applyNextChunk_changesAssignmentsInBulkAndRecordsAResultPerUser() {
+        BulkAssignmentJob job = leasedJob();
+        job.setAddRoleIds(new UUID[] {caseWorker.getId()});
+        job.setRemoveRoleIds(new UUID[] {viewer.getId()});
+        job.setAddOfficeIds(new UUID[] {office.getId()});
+        UserProfile needsChanges = profile(firm, new HashSet<>(Set.of(viewer)), false);
+        UserProfile alreadyDone = profile(firm, new HashSet<>(Set.of(caseWorker)), false);
+        alreadyDone.setOffices(new HashSet<>(Set.of(office)));
+        BulkAssignmentItem changedItem = item(job, needsChanges);
+        BulkAssignmentItem unchangedItem = item(job, alreadyDone);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(itemRepository.findPendingByJobId(job.getId(), 200)).thenReturn(List.of(changedItem, unchangedItem));
+        when(userProfileRepository.findAllByIdInWithAppRoles(List.of(needsChanges.getId(), alreadyDone.getId())))
+                .thenReturn(List.of(needsChanges, alreadyDone));
+        when(appRoleRepository.findAllById(Set.of(caseWorker.getId()))).thenReturn(List.of(caseWorker));
+        when(officeRepository.findAllById(Set.of(office.getId()))).thenReturn(List.of(office));
+
+        int processed = bulkAssignmentService.applyNextChunk(job.getId(), 200);
+
+        assertThat(processed).isEqualTo(2);
+        Set<UUID> bothProfiles = Set.of(needsChanges.getId(), alreadyDone.getId());
+        verify(userProfileRepository).insertAppRoleAssignments(bothProfiles, Set.of(caseWorker.getId()));
+        verify(userProfileRepository).deleteAppRoleAssignmentsIn(bothProfiles, Set.of(viewer.getId()));
+        verify(userProfileRepository).insertOfficeAssignments(bothProfiles, Set.of(office.getId()));
+        verify(userProfileRepository, never()).deleteOfficeAssignmentsIn(any(), any());
+        verify(userProfileRepository).refreshSilasStatuses(Set.of(needsChanges.getId()));
+        verify(outboxService).enqueueRoleAssignmentUpdate(needsChanges.getEntraUser().getId());
+        verify(outboxService, never()).enqueueRoleAssignmentUpdate(alreadyDone.getEntraUser().getId());
+        verify(outboxService).enqueueCcmsRoleChanges(needsChanges,
+                Map.of("ccms-app-oid", Set.of("XXCCMS_CASE_WORKER")), Map.of());
+
+        assertThat(changedItem.getStatus()).isEqualTo(BulkAssignmentItemStatus.APPLIED);
+        assertThat(changedItem.getDetail())
+                .isEqualTo("Added roles: Case Worker; Removed roles: Viewer; Added offices: 1A001A");
+        assertThat(unchangedItem.getStatus()).isEqualTo(BulkAssignmentItemStatus.UNCHANGED);
+        assertThat(unchangedItem.getDetail()).isNull();
+        verify(itemRepository).saveAll(List.of(changedItem, unchangedItem));
+        assertThat(job.getProcessedUsers()).isEqualTo(2);
+        assertThat(job.getChangedUsers()).isEqualTo(1);
+        assertThat(meterRegistry.counter("bulk.assignment.users.changed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void applyNextChunk_skipsUsersWhoLeftTheFirmAndLeavesAllOfficeAccessAlone() {
+        BulkAssignmentJob job = leasedJob();
+        job.setRemoveOfficeIds(new UUID[] {office.getId()});
+        UserProfile movedFirm = profile(Firm.builder().id(UUID.randomUUID()).build(), new HashSet<>(), false);
+        UserProfile allOffices = profile(firm, new HashSet<>(), true);
+        BulkAssignmentItem movedItem = item(job, movedFirm);
+        BulkAssignmentItem allOfficesItem = item(job, allOffices);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(itemRepository.findPendingByJobId(job.getId(), 200)).thenReturn(List.of(movedItem, allOfficesItem));
+        when(userProfileRepository.findAllByIdInWithAppRoles(List.of(movedFirm.getId(), allOffices.getId())))
+                .thenReturn(List.of(movedFirm, allOffices));
+        when(officeRepository.findAllById(Set.of(office.getId()))).thenReturn(List.of(office));
+
+        bulkAssignmentService.applyNextChunk(job.getId(), 200);
+
+        assertThat(movedItem.getStatus()).isEqualTo(BulkAssignmentItemStatus.SKIPPED);
+        assertThat(movedItem.getDetail()).isEqualTo("No longer an external user of Firm One");
+        assertThat(allOfficesItem.getStatus()).isEqualTo(BulkAssignmentItemStatus.UNCHANGED);
+        assertThat(allOfficesItem.getDetail()).isEqualTo("Offices not changed, user has access to all offices");
+        verify(userProfileRepository, never()).deleteOfficeAssignmentsIn(any(), any());
+        verify(userProfileRepository, never()).refreshSilasStatuses(any());
+        verify(outboxService, never()).enqueueRoleAssignmentUpdate(any());
+    }
+
+    @Test
+    void applyNextChunk_returnsZeroWhenNoUsersPending() {
+        BulkAssignmentJob job = leasedJob();
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+        when(itemRepository.findPendingByJobId(job.getId(), 200)).thenReturn(List.of());
+
+        assertThat(bulkAssignmentService.applyNextChunk(job.getId(), 200)).isZero();
+        verify(userProfileRepository, never()).findAllByIdInWithAppRoles(any());
+    }
+
+    @Test
+    void applyNextChunk_failsWhenLeaseLost() {
+        BulkAssignmentJob job = leasedJob();
+        job.setLockedBy("another-instance");
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        assertThatThrownBy(() -> bulkAssignmentService.applyNextChunk(job.getId(), 200))
+                .isInstanceOf(IllegalStateException.class);
+        verify(itemRepository, never()).findPendingByJobId(any(), anyInt());
+    }
+
+    @Test
+    void completeJob_marksJobCompletedAndLogsAuditEvent() {
+        BulkAssignmentJob job = leasedJob();
+        job.setTotalUsers(10);
+        job.setChangedUsers(7);
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        bulkAssignmentService.completeJob(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkAssignmentJobStatus.COMPLETED);
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(job.getLockedBy()).isNull();
+        ArgumentCaptor<BulkAssignmentAuditEvent> event = ArgumentCaptor.forClass(BulkAssignmentAuditEvent.class);
+        verify(eventService).logEvent(event.capture());
+        assertThat(event.getValue().getChangedUsers()).isEqualTo(7);
+        assertThat(event.getValue().getFirmId()).isEqualTo(firm.getId());
+        assertThat(event.getValue().getUserId()).isEqualTo(job.getRequestedByEntraOid());
+    }
+
+    @Test
+    void recordFailure_retriesUntilAttemptsAreUsedUp() {
+        BulkAssignmentJob retried = leasedJob();
+        retried.setAttempts(1);
+        BulkAssignmentJob failed = leasedJob();
+        failed.setAttempts(5);
+        when(jobRepository.findByIdForUpdate(retried.getId())).thenReturn(Optional.of(retried));
+        when(jobRepository.findByIdForUpdate(failed.getId())).thenReturn(Optional.of(failed));
+
+        bulkAssignmentService.recordFailure(retried.getId(), new RuntimeException("boom"));
+        bulkAssignmentService.recordFailure(failed.getId(), new RuntimeException("boom"));
+
+        assertThat(retried.getStatus()).isEqualTo(BulkAssignmentJobStatus.PENDING);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(retried.getLastError()).isEqualTo("boom");
+        assertThat(failed.getStatus()).isEqualTo(BulkAssignmentJobStatus.FAILED);
+        assertThat(meterRegistry.counter("bulk.assignment.jobs.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void recordFailure_leavesAJobLeasedByAnotherInstanceAlone() {
+        BulkAssignmentJob job = leasedJob();
+        job.setLockedBy("another-instance");
+        when(jobRepository.findByIdForUpdate(job.getId())).thenReturn(Optional.of(job));
+
+        bulkAssignmentService.recordFailure(job.getId(), new RuntimeException("lease lost"));
+
+        assertThat(job.getStatus()).isEqualTo(BulkAssignmentJobStatus.RUNNING);
+        assertThat(job.getLockedBy()).isEqualTo("another-instance");
+        verify(jobRepository, never()).save(any());
+    }
+
+    private BulkAssignmentJob leasedJob() {
+        return BulkAssignmentJob.builder()
+                .id(UUID.randomUUID())
+                .firmId(firm.getId())
+                .firmName(firm.getName())
+                .addRoleIds(new UUID[0])
+                .removeRoleIds(new UUID[0])
+                .addOfficeIds(new UUID[0])
+                .removeOfficeIds(new UUID[0])
+                .requestedByUserProfileId(UUID.randomUUID())
+                .requestedByEntraOid(UUID.randomUUID())
+                .status(BulkAssignmentJobStatus.RUNNING)
+                .lockedBy(INSTANCE_ID)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static UserProfile profile(Firm firm, Set<AppRole> roles, boolean unrestrictedOfficeAccess) {
+        EntraUser entraUser = EntraUser.builder().id(UUID.randomUUID()).build();
+        return UserProfile.builder()
+                .id(UUID.randomUUID())
+                .firm(firm)
+                .userType(UserType.EXTERNAL)
+                .entraUser(entraUser)
+                .appRoles(roles)
+                .offices(new HashSet<>())
+                .unrestrictedOfficeAccess(unrestrictedOfficeAccess)
+                .build();
+    }
+
+    private static BulkAssignmentItem item(BulkAssignmentJob job, UserProfile profile) {
+        return BulkAssignmentItem.builder()
+                .id(UUID.randomUUID())
+                .jobId(job.getId())
+                .userProfileId(profile.getId())
+                .build();
+    }
+
+    private void allowRequesterToAssign(AppRole... roles) {
+        Set<UUID> allowed = Arrays.stream(roles).map(AppRole::getId).collect(Collectors.toSet());
+        when(roleAssignmentService.filterRoles(eq(requester.getAppRoles()), any())).thenAnswer(invocation -> {
+            List<UUID> targetRoleIds = invocation.getArgument(1);
+            return targetRoleIds.stream()
+                    .filter(allowed::contains)
+                    .map(id -> AppRoleDto.builder().id(id.toString()).build())
+                    .toList();
+        });
+    }
+}
@@ -1,24 +1,28 @@
-
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
 
+import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 
@@ -31,14 +35,20 @@ class CcmsUsersMonthlyExtractServiceTest {
     @Mock
     private ReportUploadService reportUploadService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private CcmsUsersMonthlyExtractService service;
 
     @BeforeEach
     void setUp() {
-        service = Mockito.spy(new CcmsUsersMonthlyExtractService(
+        ReportStreamingService reportStreamingService =
+                new ReportStreamingService(reportUploadService, new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(reportStreamingService, "compressionEnabled", false);
+        service = new CcmsUsersMonthlyExtractService(
                 entraUserRepository,
-                reportUploadService
-        ));
+                reportStreamingService
+        );
     }
 
     @Test
@@ -48,25 +58,23 @@ class CcmsUsersMonthlyExtractServiceTest {
                 eq("CCMS PUI"),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class)
-        )).thenReturn(List.of(
+        )).thenReturn(Stream.of(
                 new Object[]{"John", "Doe", "john.doe@test.com",
                         LocalDateTime.of(2026, 3, 21, 0, 0)},
                 new Object[]{"Jane", "Smith", "jane.smith@test.com",
                         LocalDateTime.of(2026, 4, 1, 0, 0)}
         ));
 
-        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+        List<String> lines = new ArrayList<>();
+        doAnswer(invocation -> {
+            File csv = invocation.getArgument(0);
+            assertThat(csv.getName()).startsWith("ccms_users_").endsWith(".csv");
+            lines.addAll(Files.readAllLines(csv.toPath()));
+            return null;
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("CCMS_users_monthly_extract"));
 
         service.downloadCcmsUsersMonthlyExtract();
 
-        Path csv = Files.list(tempDir)
-                .filter(p -> p.getFileName().toString().startsWith("ccms_users_"))
-                .filter(p -> p.getFileName().toString().endsWith(".csv"))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("CSV not created"));
-
-        List<String> lines = Files.readAllLines(csv);
-
         assertThat(lines).isNotEmpty();
 
         assertThat(lines.get(0)).isEqualTo(
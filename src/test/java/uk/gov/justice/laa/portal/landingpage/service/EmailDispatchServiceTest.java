@@ -0,0 +1,214 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatch;
+import uk.gov.justice.laa.portal.landingpage.entity.EmailDispatchStatus;
+import uk.gov.justice.laa.portal.landingpage.repository.EmailDispatchRepository;
+import uk.gov.service.notify.NotificationClient;
+import uk.gov.service.notify.NotificationClientException;
+import uk.gov.service.notify.SendEmailResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatchServiceTest {
+
+    private static final String TEMPLATE = "template-id";
+
+    @Mock
+    private EmailDispatchRepository emailDispatchRepository;
+    @Mock
+    private NotificationClient notificationClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private EmailDispatchService emailDispatchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailDispatchService = new EmailDispatchService(emailDispatchRepository, notificationClient, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void enqueue_savesPendingEmailWithoutCallingNotify() throws Exception {
+        when(emailDispatchRepository.save(any(EmailDispatch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        emailDispatchService.enqueue("user@example.com", TEMPLATE, Map.of("first_name", "Jo"), "ref");
+
+        ArgumentCaptor<EmailDispatch> captor = ArgumentCaptor.forClass(EmailDispatch.class);
+        verify(emailDispatchRepository).save(captor.capture());
+        EmailDispatch dispatch = captor.getValue();
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.PENDING);
+        assertThat(dispatch.getRecipient()).isEqualTo("user@example.com");
+        assertThat(objectMapper.readValue(dispatch.getPersonalisation(), Map.class)).isEqualTo(Map.of("first_name", "Jo"));
+        assertThat(meterRegistry.counter("notify.emails", "template", TEMPLATE, "outcome", "queued").count()).isEqualTo(1);
+        verify(notificationClient, never()).sendEmail(any(), any(), any(), any());
+    }
+
+    @Test
+    void leaseDue_marksEmailsAsSending() {
+        EmailDispatch dispatch = dispatch(0);
+        when(emailDispatchRepository.findDueForUpdateSkipLocked(any(), eq(25))).thenReturn(List.of(dispatch));
+        when(emailDispatchRepository.saveAll(List.of(dispatch))).thenReturn(List.of(dispatch));
+
+        List<EmailDispatch> leased = emailDispatchService.leaseDue(25);
+
+        assertThat(leased).containsExactly(dispatch);
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.SENDING);
+        assertThat(dispatch.getAttempts()).isEqualTo(1);
+        assertThat(dispatch.getLockedUntil()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void send_passesStoredPersonalisationToNotify() throws Exception {
+        EmailDispatch dispatch = dispatch(1);
+        UUID notificationId = UUID.randomUUID();
+        SendEmailResponse response = mock(SendEmailResponse.class);
+        when(response.getNotificationId()).thenReturn(notificationId);
+        when(notificationClient.sendEmail(TEMPLATE, "user@example.com", Map.of("first_name", "Jo"), "ref"))
+                .thenReturn(response);
+
+        assertThat(emailDispatchService.send(dispatch)).isEqualTo(notificationId);
+        assertThat(meterRegistry.timer("notify.email.send", "template", TEMPLATE, "outcome", "sent").count()).isEqualTo(1);
+    }
+
+    @Test
+    void send_recordsFailedTimingAndRethrows() throws Exception {
+        EmailDispatch dispatch = dispatch(1);
+        NotificationClientException failure = notifyException(503);
+        when(notificationClient.sendEmail(any(), any(), any(), any())).thenThrow(failure);
+
+        assertThatThrownBy(() -> emailDispatchService.send(dispatch)).isSameAs(failure);
+        assertThat(meterRegistry.timer("notify.email.send", "template", TEMPLATE, "outcome", "failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void markSent_storesNotificationId() {
+        EmailDispatch dispatch = dispatch(1);
+        UUID notificationId = UUID.randomUUID();
+        when(emailDispatchRepository.findById(dispatch.getId())).thenReturn(Optional.of(dispatch));
+
+        emailDispatchService.markSent(dispatch.getId(), notificationId);
+
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.SENT);
+        assertThat(dispatch.getNotificationId()).isEqualTo(notificationId);
+        assertThat(dispatch.getLockedBy()).isNull();
+        assertThat(meterRegistry.counter("notify.emails", "template", TEMPLATE, "outcome", "sent").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFailure_retriesRateLimitedEmailWithJitteredBackoff() {
+        EmailDispatch dispatch = dispatch(2);
+        when(emailDispatchRepository.findById(dispatch.getId())).thenReturn(Optional.of(dispatch));
+        LocalDateTime before = LocalDateTime.now();
+
+        emailDispatchService.recordFailure(dispatch.getId(), notifyException(429));
+
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.PENDING);
+        // Second attempt backs off 20s, of which half is jitter
+        assertThat(dispatch.getNextAttemptAt()).isBetween(before.plusSeconds(10), LocalDateTime.now().plusSeconds(20));
+        assertThat(meterRegistry.counter("notify.emails", "template", TEMPLATE, "outcome", "retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFailure_deadLettersPermanentNotifyErrors() {
+        EmailDispatch dispatch = dispatch(1);
+        when(emailDispatchRepository.findById(dispatch.getId())).thenReturn(Optional.of(dispatch));
+
+        emailDispatchService.recordFailure(dispatch.getId(), notifyException(400));
+
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.DEAD_LETTER);
+        assertThat(dispatch.getProcessedAt()).isNotNull();
+        assertThat(meterRegistry.counter("notify.emails", "template", TEMPLATE, "outcome", "dead_letter").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFailure_deadLettersWhenAttemptsAreUsedUp() {
+        EmailDispatch dispatch = dispatch(6);
+        when(emailDispatchRepository.findById(dispatch.getId())).thenReturn(Optional.of(dispatch));
+
+        emailDispatchService.recordFailure(dispatch.getId(), new IOException("connection reset"));
+
+        assertThat(dispatch.getStatus()).isEqualTo(EmailDispatchStatus.DEAD_LETTER);
+        assertThat(dispatch.getLastError()).isEqualTo("connection reset");
+    }
+
+    @Test
+    void isRetryable_distinguishesTransientFromPermanentFailures() {
+        assertThat(EmailDispatchService.isRetryable(notifyException(429))).isTrue();
+        assertThat(EmailDispatchService.isRetryable(notifyException(500))).isTrue();
+        assertThat(EmailDispatchService.isRetryable(new IOException("timeout"))).isTrue();
+        assertThat(EmailDispatchService.isRetryable(notifyException(400))).isFalse();
+        assertThat(EmailDispatchService.isRetryable(notifyException(403))).isFalse();
+    }
+
+    @Test
+    void backoff_staysWithinJitterBoundsAndCap() {
+        for (int attempt = 1; attempt <= 12; attempt++) {
+            long full = Math.min(10L << (attempt - 1), 1800) * 1000;
+            assertThat(emailDispatchService.backoff(attempt).toMillis()).isBetween(full / 2, full);
+        }
+        assertThat(emailDispatchService.backoff(30)).isLessThanOrEqualTo(Duration.ofSeconds(1800));
+    }
+
+    @Test
+    void purgeSent_deletesOldSentEmails() {
+        when(emailDispatchRepository.deleteByStatusAndProcessedAtBefore(eq(EmailDispatchStatus.SENT), any())).thenReturn(4);
+
+        assertThat(emailDispatchService.purgeSent(Duration.ofDays(30))).isEqualTo(4);
+    }
+
+    @Test
+    void redactDeadLetters_redactsOldDeadLetters() {
+        when(emailDispatchRepository.redactDeadLettersProcessedBefore(eq(EmailDispatchService.REDACTED), any()))
+                .thenReturn(2);
+
+        assertThat(emailDispatchService.redactDeadLetters(Duration.ofDays(30))).isEqualTo(2);
+    }
+
+    private static NotificationClientException notifyException(int status) {
+        NotificationClientException exception = mock(NotificationClientException.class);
+        lenient().when(exception.getHttpResult()).thenReturn(status);
+        return exception;
+    }
+
+    private EmailDispatch dispatch(int attempts) {
+        return EmailDispatch.builder()
+                .id(UUID.randomUUID())
+                .templateId(TEMPLATE)
+                .recipient("user@example.com")
+                .personalisation("{\"first_name\":\"Jo\"}")
+                .reference("ref")
+                .status(EmailDispatchStatus.SENDING)
+                .attempts(attempts)
+                .lockedBy("instance")
+                .lockedUntil(LocalDateTime.now().plusSeconds(120))
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
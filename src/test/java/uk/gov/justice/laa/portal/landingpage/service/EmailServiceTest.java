@@ -9,14 +9,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import uk.gov.service.notify.NotificationClient;
-import uk.gov.service.notify.NotificationClientException;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static uk.gov.justice.laa.portal.landingpage.utils.LogMonitoring.addListAppenderToLogger;
 import static uk.gov.justice.laa.portal.landingpage.utils.LogMonitoring.getLogsByLevel;
@@ -31,10 +30,10 @@ public class EmailServiceTest {
     private EmailService emailService;
 
     @Mock
-    private NotificationClient notificationClient;
+    private EmailDispatchService emailDispatchService;
 
     @Test
-    public void checkSendingEmailRunsWithoutErrors() throws NotificationClientException {
+    public void checkSendingEmailQueuesEmailWithoutErrors() {
         // Given
         String targetEmail = "test@test.com";
         String emailTemplate = "testTemplate";
@@ -47,35 +46,31 @@ public class EmailServiceTest {
         emailService.sendMail(targetEmail, emailTemplate, parameters, reference);
 
         // Then
-        // Assert mail is sent with no error logs
-        Mockito.verify(notificationClient, Mockito.times(1)).sendEmail(any(), any(), any(), any());
+        // Assert mail is queued with no error logs
+        Mockito.verify(emailDispatchService, Mockito.times(1)).enqueue(targetEmail, emailTemplate, parameters, reference);
         List<ILoggingEvent> errorLogs = getLogsByLevel(listAppender, Level.ERROR);
         assertEquals(0, errorLogs.size());
     }
 
     @Test
-    public void checkErrorIsLoggedWhenExceptionIsThrown() throws NotificationClientException {
+    public void checkErrorIsLoggedAndThrownWhenQueueingFails() {
         // Given
         String targetEmail = "test@test.com";
         String emailTemplate = "testTemplate";
         Map<String, String> parameters = new HashMap<>();
         String reference = "testReference";
-        // Throw exception when trying to send an email
-        Mockito.when(notificationClient.sendEmail(any(), any(), any(), any())).thenThrow(NotificationClientException.class);
+        // Throw exception when trying to queue an email
+        Mockito.when(emailDispatchService.enqueue(any(), any(), any(), any())).thenThrow(new RuntimeException("db down"));
         // Add list appender to logger to capture and verify logs
         ListAppender<ILoggingEvent> listAppender = addListAppenderToLogger(EmailService.class);
 
         // When
-        emailService.sendMail(targetEmail, emailTemplate, parameters, reference);
+        assertThrows(RuntimeException.class, () -> emailService.sendMail(targetEmail, emailTemplate, parameters, reference));
 
         // Then
-        // Assert mail is attempted to be sent but throws an error.
-        Mockito.verify(notificationClient, Mockito.times(1)).sendEmail(any(), any(), any(), any());
+        // Assert mail is attempted to be queued and the error is logged and passed on.
+        Mockito.verify(emailDispatchService, Mockito.times(1)).enqueue(any(), any(), any(), any());
         List<ILoggingEvent> errorLogs = getLogsByLevel(listAppender, Level.ERROR);
         assertEquals(1, errorLogs.size());
     }
-
-
-
-
 }
@@ -3,6 +3,7 @@ package uk.gov.justice.laa.portal.landingpage.service;
 import org.junit.jupiter.api.Test;
 import uk.gov.justice.laa.portal.landingpage.validation.BlocklistedEmailDomains;
 
+import java.time.Duration;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -12,19 +13,20 @@ class EmailValidationServiceBlocklistTest {
     @Test
     void isValidEmailDomain_returnsFalse_whenDomainIsBlocklisted() {
         BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of("mailinator.com"));
-        EmailValidationService svc = new EmailValidationService(blocklist);
+        FakeMxRecordResolver resolver = new FakeMxRecordResolver().withMx("mailinator.com", Duration.ofHours(1));
+        EmailValidationService svc = new EmailValidationService(blocklist, resolver);
         boolean result = svc.isValidEmailDomain("user@mailinator.com");
         assertThat(result).isFalse();
+        assertThat(resolver.lookups("mailinator.com")).isZero();
     }
 
     @Test
     void isValidEmailDomain_proceeds_whenDomainNotBlocklisted() {
-        // Use an empty blocklist; result depends on MX but should not throw and returns boolean
         BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of());
-        EmailValidationService svc = new EmailValidationService(blocklist);
+        FakeMxRecordResolver resolver = new FakeMxRecordResolver().withMx("example.com", Duration.ofHours(1));
+        EmailValidationService svc = new EmailValidationService(blocklist, resolver);
         boolean result = svc.isValidEmailDomain("user@example.com");
-        assertThat(result == true || result == false).isTrue();
+        assertThat(result).isTrue();
+        assertThat(resolver.lookups("example.com")).isEqualTo(1);
     }
 }
-
-
@@ -2,9 +2,22 @@ package uk.gov.justice.laa.portal.landingpage.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.justice.laa.portal.landingpage.validation.BlocklistedEmailDomains;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -12,11 +25,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class EmailValidationServiceTest {
 
+    private MutableClock clock;
+    private FakeMxRecordResolver resolver;
     private EmailValidationService emailValidationService;
 
     @BeforeEach
     void setUp() {
-        emailValidationService = new EmailValidationService(new BlocklistedEmailDomains(Set.of()));
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        resolver = new FakeMxRecordResolver().withMx("example.com", Duration.ofHours(6));
+        emailValidationService = new EmailValidationService(new BlocklistedEmailDomains(Set.of()), resolver, clock);
     }
 
     @Test
@@ -50,86 +67,180 @@ class EmailValidationServiceTest {
     }
 
     @Test
-    void hasMxRecords_doesNotThrowException_whenCalledWithValidEmail() {
-        // This test verifies the method handles DNS lookups gracefully
-        // It may return true or false depending on the actual DNS resolution,
-        // but it should not throw any exceptions
-        assertDoesNotThrow(() -> {
-            emailValidationService.isValidEmailDomain("test@nonexistentdomainfortesting12345.com");
-        });
+    void isValidEmailDomain_returnsTrue_whenDomainHasMxRecords() {
+        assertThat(emailValidationService.isValidEmailDomain("user@example.com")).isTrue();
     }
 
     @Test
-    void hasMxRecords_handlesRealDomain_gracefully() {
-        // This test uses a real domain but doesn't assert the result
-        // since DNS results can vary by environment
-        assertDoesNotThrow(() -> {
-            emailValidationService.isValidEmailDomain("user@example.com");
-        });
+    void isValidEmailDomain_returnsFalse_forNonExistentDomain() {
+        boolean result = assertDoesNotThrow(() -> emailValidationService.isValidEmailDomain("user@nonexistentdomainfortesting12345.example"));
+        assertThat(result).isFalse();
     }
 
     @Test
     void hasMxRecords_extractsCorrectDomain_fromEmailWithMultipleAtSymbols() {
-        // Test with an email that has multiple @ symbols
-        // The method should extract the domain after the last @
-        assertDoesNotThrow(() -> {
-            emailValidationService.isValidEmailDomain("user@name@example.com");
-        });
+        assertThat(emailValidationService.isValidEmailDomain("user@name@Example.COM")).isTrue();
+        assertThat(resolver.lookups("example.com")).isEqualTo(1);
     }
 
     @Test
-    void hasMxRecords_handlesSubdomain_gracefully() {
-        assertDoesNotThrow(() -> {
-            emailValidationService.isValidEmailDomain("user@mail.example.com");
-        });
+    void isValidEmailDomain_returnsFalse_whenDnsLookupFails() {
+        resolver.failing("broken.example");
+
+        assertThat(emailValidationService.isValidEmailDomain("user@broken.example")).isFalse();
     }
 
     @Test
-    void hasMxRecords_handlesInvalidDomain_gracefully() {
-        // Should handle invalid domains without throwing exceptions
-        assertDoesNotThrow(() -> {
-            emailValidationService.isValidEmailDomain("user@invalid..domain");
-            // For invalid domains, we expect the method to handle it gracefully
-        });
+    void isValidEmailDomain_cachesPositiveResult() {
+        emailValidationService.isValidEmailDomain("one@example.com");
+        emailValidationService.isValidEmailDomain("two@example.com");
+        emailValidationService.isValidEmailDomain("three@example.com");
+
+        assertThat(resolver.lookups("example.com")).isEqualTo(1);
     }
 
     @Test
-    void hasMxRecords_validateEmailDomain_timeout() {
+    void isValidEmailDomain_honoursShorterDnsTtl() {
+        resolver.withMx("short.example", Duration.ofSeconds(60));
+        emailValidationService.isValidEmailDomain("user@short.example");
+
+        clock.advance(Duration.ofSeconds(59));
+        emailValidationService.isValidEmailDomain("user@short.example");
+        assertThat(resolver.lookups("short.example")).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(2));
+        emailValidationService.isValidEmailDomain("user@short.example");
+        assertThat(resolver.lookups("short.example")).isEqualTo(2);
+    }
+
+    @Test
+    void isValidEmailDomain_capsLongDnsTtlAtPositiveTtl() {
+        emailValidationService.isValidEmailDomain("user@example.com");
+
+        clock.advance(Duration.ofSeconds(3601));
+        emailValidationService.isValidEmailDomain("user@example.com");
+
+        assertThat(resolver.lookups("example.com")).isEqualTo(2);
+    }
+
+    @Test
+    void isValidEmailDomain_cachesNegativeResultForNegativeTtl() {
+        assertThat(emailValidationService.isValidEmailDomain("user@missing.example")).isFalse();
+        assertThat(emailValidationService.isValidEmailDomain("user@missing.example")).isFalse();
+        assertThat(resolver.lookups("missing.example")).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(301));
+        resolver.withMx("missing.example", Duration.ofHours(1));
+
+        assertThat(emailValidationService.isValidEmailDomain("user@missing.example")).isTrue();
+        assertThat(resolver.lookups("missing.example")).isEqualTo(2);
+    }
+
+    @Test
+    void isValidEmailDomain_doesNotCacheFailedLookups() {
+        resolver.failing("broken.example");
+
+        emailValidationService.isValidEmailDomain("user@broken.example");
+        emailValidationService.isValidEmailDomain("user@broken.example");
+
+        assertThat(resolver.lookups("broken.example")).isEqualTo(2);
+    }
 
-        EmailValidationService slowValidator = new EmailValidationService(new BlocklistedEmailDomains(Set.of())) {
-            @Override
-            public boolean hasMxRecords(String email) {
-                try {
-                    Thread.sleep(1_100); // simulate long-running task
-                } catch (InterruptedException ignored) {
-                    // Do nothing
-                }
-                return true;
+    @Test
+    void isValidEmailDomain_coalescesConcurrentLookupsOfSameDomain() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        resolver.holdUntil(gate);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                int user = i;
+                results.add(callers.submit(() -> emailValidationService.isValidEmailDomain("user" + user + "@example.com", 5)));
             }
-        };
+            // Give every caller the chance to reach the in-flight lookup before DNS answers
+            Thread.sleep(200);
+            gate.countDown();
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> slowValidator.isValidEmailDomain("user@example.com", 1));
-        assertThat(ex.getMessage()).isEqualTo("The email domain validation took longer than expected. Possibly the email domain is invalid!");
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(resolver.lookups("example.com")).isEqualTo(1);
+    }
 
+    @Test
+    void hasMxRecords_validateEmailDomain_timeout() {
+        resolver.delayedBy(1_100);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> emailValidationService.isValidEmailDomain("user@example.com", 1));
+        assertThat(ex.getMessage()).isEqualTo("The email domain validation took longer than expected. Possibly the email domain is invalid!");
     }
 
     @Test
-    void isValidEmailDomain_returnsFalse_forClearlyNonExistentDomain_withoutThrowing() {
-        EmailValidationService svc = new EmailValidationService(new BlocklistedEmailDomains(Set.of()));
-        boolean result = assertDoesNotThrow(() -> svc.isValidEmailDomain("user@nonexistentdomainfortesting12345.example"));
-        assertThat(result).isFalse();
+    void isValidEmailDomain_abandonsLookupAfterHardTimeout() {
+        ReflectionTestUtils.setField(emailValidationService, "lookupTimeoutSeconds", 1L);
+        CountDownLatch gate = new CountDownLatch(1);
+        resolver.holdUntil(gate);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> emailValidationService.isValidEmailDomain("user@example.com", 5));
+        assertThat(ex.getMessage()).isEqualTo("The email domain validation took longer than expected. Possibly the email domain is invalid!");
+
+        // The timed-out lookup no longer blocks new validations of the domain
+        resolver.holdUntil(null);
+        assertThat(emailValidationService.isValidEmailDomain("user@example.com", 5)).isTrue();
+        assertThat(resolver.lookups("example.com")).isEqualTo(2);
+        gate.countDown();
     }
 
     @Test
-    void isValidEmailDomain_returnsFalse_whenHasMxRecordsReturnsFalse() {
-        EmailValidationService svc = new EmailValidationService(new BlocklistedEmailDomains(Set.of())) {
-            @Override
-            public boolean hasMxRecords(String email) {
-                return false;
+    void onShutdown_interruptsLookupsStillRunning() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        resolver.holdUntil(gate);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> validation = caller.submit(() -> emailValidationService.isValidEmailDomain("user@example.com", 5));
+            while (resolver.lookups("example.com") == 0) {
+                Thread.sleep(10);
             }
-        };
-        boolean result = assertDoesNotThrow(() -> svc.isValidEmailDomain("user@example.com"));
-        assertThat(result).isFalse();
+
+            emailValidationService.onShutdown();
+
+            ExecutorService lookupExecutor = (ExecutorService) ReflectionTestUtils.getField(emailValidationService, "lookupExecutor");
+            assertThat(lookupExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            validation.cancel(true);
+        } finally {
+            gate.countDown();
+            caller.shutdownNow();
+        }
     }
 
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
 }
@@ -1,9 +1,14 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -20,6 +25,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -70,15 +77,42 @@ class ExternalUserPollingServiceTest {
     @Mock
     private TechServicesClient techServicesClient;
 
-    @Mock
-    private UserService userService;
-
     @InjectMocks
     private ExternalUserPollingService externalUserPollingService;
 
+    private final Map<String, EntraUser> entraUsersByOid = new HashMap<>();
+
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(externalUserPollingService, "bufferMinutes", 5);
+        lenient().when(entraUserRepository.findWithProfilesByEntraOidIn(any())).thenAnswer(invocation -> {
+            Set<String> entraOids = invocation.getArgument(0);
+            return entraUsersByOid.values().stream()
+                    .filter(entraUser -> entraOids.contains(entraUser.getEntraOid()))
+                    .toList();
+        });
+    }
+
+    private void givenEntraUsers(EntraUser... entraUsers) {
+        for (EntraUser entraUser : entraUsers) {
+            entraUsersByOid.put(entraUser.getEntraOid(), entraUser);
+        }
+    }
+
+    private List<EntraUser> savedUsers() {
+        ArgumentCaptor<Iterable<EntraUser>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(entraUserRepository, atLeastOnce()).saveAll(captor.capture());
+        List<EntraUser> saved = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(saved::add));
+        return saved;
+    }
+
+    private List<UserAccountStatusAudit> savedAudits() {
+        ArgumentCaptor<Iterable<UserAccountStatusAudit>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(userAccountStatusAuditRepository, atLeastOnce()).saveAll(captor.capture());
+        List<UserAccountStatusAudit> saved = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(saved::add));
+        return saved;
     }
 
     private static final String ENTRA_USER_SYNC_ID = "ENTRA_USER_SYNC";
@@ -281,7 +315,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         // User to be disabled
         EntraUser userToDisable = EntraUser.builder()
@@ -293,7 +327,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user456")).thenReturn(Optional.of(userToDisable));
+        givenEntraUsers(userToDisable);
 
         // Mock disable reason repository
         DisableUserReason notActiveReason = DisableUserReason.builder()
@@ -337,9 +371,9 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(existingUser);
-        verify(entraUserRepository, times(2)).save(userToDisable);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class));
+        assertThat(savedUsers()).contains(existingUser);
+        assertThat(savedUsers()).contains(userToDisable);
+        assertThat(savedAudits()).hasSize(1);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -347,7 +381,6 @@ class ExternalUserPollingServiceTest {
     void shouldSkipUserUpdate_whenUserNotFoundInDatabase() {
         when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
 
-        when(entraUserRepository.findByEntraOid("nonexistent123")).thenReturn(Optional.empty());
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("nonexistent123")
@@ -367,7 +400,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, never()).save(any(EntraUser.class));
+        verify(entraUserRepository, never()).saveAll(any());
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -395,8 +428,8 @@ class ExternalUserPollingServiceTest {
                 .mailOnly(true)
                 .build();
 
-        when(entraUserRepository.findByEntraOid("user1")).thenReturn(Optional.of(user1));
-        when(entraUserRepository.findByEntraOid("user2")).thenReturn(Optional.of(user2));
+        givenEntraUsers(user1);
+        givenEntraUsers(user2);
 
         TechServicesUser apiUser1 = TechServicesUser.builder()
                 .id("user1")
@@ -424,9 +457,9 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(user1);
-        verify(entraUserRepository, times(2)).save(user2);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class));
+        assertThat(savedUsers()).contains(user1);
+        assertThat(savedUsers()).contains(user2);
+        assertThat(savedAudits()).hasSize(1);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -457,7 +490,7 @@ class ExternalUserPollingServiceTest {
         profile1.setEntraUser(existingUser);
         profile2.setEntraUser(existingUser);
 
-        when(entraUserRepository.findByEntraOid("deleted-user-with-profiles")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
         when(userAccountStatusAuditRepository.findByEntraUser(existingUser)).thenReturn(Collections.emptyList());
 
@@ -517,7 +550,7 @@ class ExternalUserPollingServiceTest {
         profile1.setEntraUser(existingUser);
         profile2.setEntraUser(existingUser);
 
-        when(entraUserRepository.findByEntraOid("deleted-user-with-profiles")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
         when(userAccountStatusAuditRepository.findByEntraUser(existingUser)).thenReturn(Collections.emptyList());
 
@@ -553,7 +586,6 @@ class ExternalUserPollingServiceTest {
     void shouldSkipDeletion_whenUserNotFoundInDatabase() {
         when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
 
-        when(entraUserRepository.findByEntraOid("nonexistent-deleted-user")).thenReturn(Optional.empty());
 
         TechServicesUser deletedUser = TechServicesUser.builder()
                 .id("nonexistent-deleted-user")
@@ -592,7 +624,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user-to-update")).thenReturn(Optional.of(userToUpdate));
+        givenEntraUsers(userToUpdate);
 
         // User to be deleted
         EntraUser userToDelete = EntraUser.builder()
@@ -604,7 +636,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user-to-delete")).thenReturn(Optional.of(userToDelete));
+        givenEntraUsers(userToDelete);
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
         when(userAccountStatusAuditRepository.findByEntraUser(userToDelete)).thenReturn(Collections.emptyList());
 
@@ -635,7 +667,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(userToUpdate);
+        assertThat(savedUsers()).contains(userToUpdate);
 
         verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class));
         verify(entraUserRepository).delete(userToDelete);
@@ -711,7 +743,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -731,7 +763,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository).save(existingUser);
+        assertThat(savedUsers()).contains(existingUser);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -748,7 +780,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(userToDelete));
+        givenEntraUsers(userToDelete);
 
         UserAccountStatusAudit auditRecord = UserAccountStatusAudit.builder()
                 .id(java.util.UUID.randomUUID())
@@ -797,7 +829,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(userToDelete));
+        givenEntraUsers(userToDelete);
         when(userAccountStatusAuditRepository.findByEntraUser(userToDelete)).thenThrow(new RuntimeException("Test exception"));
 
         TechServicesUser apiUser = TechServicesUser.builder()
@@ -867,7 +899,6 @@ class ExternalUserPollingServiceTest {
                 .build();
         TechServicesApiResponse<GetUsersResponse> apiResponse = TechServicesApiResponse.success(response);
         when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(apiResponse);
-        when(entraUserRepository.findByEntraOid("nonexistent123")).thenReturn(Optional.empty());
 
         externalUserPollingService.updateSyncMetadata();
 
@@ -888,7 +919,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(false)
                 .mailOnly(true)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -908,8 +939,8 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(existingUser);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class)); // Enable audit is created
+        assertThat(savedUsers()).contains(existingUser);
+        assertThat(savedAudits()).hasSize(1); // Enable audit is created
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -926,7 +957,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -946,7 +977,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository).save(existingUser);
+        assertThat(savedUsers()).contains(existingUser);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -954,7 +985,7 @@ class ExternalUserPollingServiceTest {
     void shouldHandleUserSynchronizationException() {
         when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
 
-        when(entraUserRepository.findByEntraOid("user123")).thenThrow(new RuntimeException("Database error"));
+        when(entraUserRepository.findWithProfilesByEntraOidIn(any())).thenThrow(new RuntimeException("Database error"));
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -989,8 +1020,8 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
-        when(entraUserRepository.save(existingUser)).thenThrow(new RuntimeException("Database error"));
+        givenEntraUsers(existingUser);
+        when(entraUserRepository.saveAll(any())).thenThrow(new RuntimeException("Database error"));
 
         DisableUserReason notActiveReason = DisableUserReason.builder()
                 .id(java.util.UUID.randomUUID())
@@ -1035,7 +1066,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(false)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1060,8 +1091,8 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(existingUser);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class)); // Enable audit is created
+        assertThat(savedUsers()).contains(existingUser);
+        assertThat(savedAudits()).hasSize(1); // Enable audit is created
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1079,7 +1110,7 @@ class ExternalUserPollingServiceTest {
         externalUserPollingService.updateSyncMetadata();
 
         verify(techServicesClient).getUsers(anyString(), anyString());
-        verify(entraUserRepository, never()).save(any(EntraUser.class));
+        verify(entraUserRepository, never()).saveAll(any());
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1097,7 +1128,7 @@ class ExternalUserPollingServiceTest {
         externalUserPollingService.updateSyncMetadata();
 
         verify(techServicesClient).getUsers(anyString(), anyString());
-        verify(entraUserRepository, never()).save(any(EntraUser.class));
+        verify(entraUserRepository, never()).saveAll(any());
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1177,7 +1208,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true)
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(silasUser));
+        givenEntraUsers(silasUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1197,9 +1228,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        ArgumentCaptor<EntraUser> userCaptor = ArgumentCaptor.forClass(EntraUser.class);
-        verify(entraUserRepository).save(userCaptor.capture());
-        EntraUser savedUser = userCaptor.getValue();
+        EntraUser savedUser = savedUsers().get(0);
         assertThat(savedUser.getEmail()).isEqualTo("emailUpdated@example.com");
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
@@ -1217,7 +1246,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(false) // Disabled in SILAS
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(disabledUser));
+        givenEntraUsers(disabledUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1236,8 +1265,8 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(disabledUser);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class));
+        assertThat(savedUsers()).contains(disabledUser);
+        assertThat(savedAudits()).hasSize(1);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1254,7 +1283,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(true) // Enabled in SILAS
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(enabledUser));
+        givenEntraUsers(enabledUser);
 
         DisableUserReason notActiveReason = DisableUserReason.builder()
                 .id(java.util.UUID.randomUUID())
@@ -1288,8 +1317,8 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository, times(2)).save(enabledUser);
-        verify(userAccountStatusAuditRepository).save(any(UserAccountStatusAudit.class));
+        assertThat(savedUsers()).contains(enabledUser);
+        assertThat(savedAudits()).hasSize(1);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1306,7 +1335,7 @@ class ExternalUserPollingServiceTest {
                 .enabled(false) // Already disabled in SILAS
                 .mailOnly(false)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(alreadyDisabledUser));
+        givenEntraUsers(alreadyDisabledUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1331,8 +1360,9 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        verify(entraUserRepository).save(alreadyDisabledUser);
+        assertThat(savedUsers()).contains(alreadyDisabledUser);
         verify(userAccountStatusAuditRepository, never()).save(any(UserAccountStatusAudit.class));
+        verify(userAccountStatusAuditRepository, never()).saveAll(any());
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
 
@@ -1350,7 +1380,7 @@ class ExternalUserPollingServiceTest {
                 .mailOnly(false)
                 .invitationStatus(null)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1375,9 +1405,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        ArgumentCaptor<EntraUser> userCaptor = ArgumentCaptor.forClass(EntraUser.class);
-        verify(entraUserRepository).save(userCaptor.capture());
-        EntraUser savedUser = userCaptor.getValue();
+        EntraUser savedUser = savedUsers().get(0);
         assertThat(savedUser.getInvitationStatus()).isEqualTo(InvitationStatus.INVITE_SENT);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
@@ -1396,7 +1424,7 @@ class ExternalUserPollingServiceTest {
                 .mailOnly(false)
                 .invitationStatus(InvitationStatus.INVITE_SENT)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1421,9 +1449,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        ArgumentCaptor<EntraUser> userCaptor = ArgumentCaptor.forClass(EntraUser.class);
-        verify(entraUserRepository).save(userCaptor.capture());
-        EntraUser savedUser = userCaptor.getValue();
+        EntraUser savedUser = savedUsers().get(0);
         assertThat(savedUser.getInvitationStatus()).isEqualTo(InvitationStatus.AWAITING_MFA);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
@@ -1442,7 +1468,7 @@ class ExternalUserPollingServiceTest {
                 .mailOnly(false)
                 .invitationStatus(InvitationStatus.INVITE_SENT)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1467,9 +1493,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        ArgumentCaptor<EntraUser> userCaptor = ArgumentCaptor.forClass(EntraUser.class);
-        verify(entraUserRepository).save(userCaptor.capture());
-        EntraUser savedUser = userCaptor.getValue();
+        EntraUser savedUser = savedUsers().get(0);
         assertThat(savedUser.getInvitationStatus()).isEqualTo(InvitationStatus.INVITE_SENT);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
@@ -1488,7 +1512,7 @@ class ExternalUserPollingServiceTest {
                 .mailOnly(false)
                 .invitationStatus(InvitationStatus.AWAITING_VERIFICATION)
                 .build();
-        when(entraUserRepository.findByEntraOid("user123")).thenReturn(Optional.of(existingUser));
+        givenEntraUsers(existingUser);
 
         TechServicesUser apiUser = TechServicesUser.builder()
                 .id("user123")
@@ -1513,9 +1537,7 @@ class ExternalUserPollingServiceTest {
 
         externalUserPollingService.updateSyncMetadata();
 
-        ArgumentCaptor<EntraUser> userCaptor = ArgumentCaptor.forClass(EntraUser.class);
-        verify(entraUserRepository).save(userCaptor.capture());
-        EntraUser savedUser = userCaptor.getValue();
+        EntraUser savedUser = savedUsers().get(0);
         assertThat(savedUser.getInvitationStatus()).isEqualTo(InvitationStatus.AWAITING_VERIFICATION);
         verify(entraLastSyncMetadataRepository).save(any(EntraLastSyncMetadata.class));
     }
@@ -1557,7 +1579,7 @@ class ExternalUserPollingServiceTest {
         DeleteUserReason expiredInvitationReason = DeleteUserReason.builder()
                 .code("ExpiredInvitation").label("Expired Invitation").systemGenerated(true).build();
 
-        when(entraUserRepository.findByEntraOid("oid-expired-invite")).thenReturn(Optional.of(entraUser));
+        givenEntraUsers(entraUser);
         when(userAccountStatusAuditRepository.findByEntraUser(entraUser)).thenReturn(List.of(auditRecord));
         when(deleteUserReasonRepository.findByCode("ExpiredInvitation")).thenReturn(Optional.of(expiredInvitationReason));
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
@@ -1594,7 +1616,7 @@ class ExternalUserPollingServiceTest {
         DeleteUserReason notActiveDeleteReason = DeleteUserReason.builder()
                 .code("NotActiveAfterMaxLifetime").label("Not Active After Max Lifetime").systemGenerated(true).build();
 
-        when(entraUserRepository.findByEntraOid("oid-not-active")).thenReturn(Optional.of(entraUser));
+        givenEntraUsers(entraUser);
         when(userAccountStatusAuditRepository.findByEntraUser(entraUser)).thenReturn(List.of(auditRecord));
         when(deleteUserReasonRepository.findByCode("NotActiveAfterMaxLifetime")).thenReturn(Optional.of(notActiveDeleteReason));
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
@@ -1627,7 +1649,7 @@ class ExternalUserPollingServiceTest {
         DeleteUserReason noGroupsReason = DeleteUserReason.builder()
                 .code("NoGroupsDelete").label("No Groups Delete").systemGenerated(true).build();
 
-        when(entraUserRepository.findByEntraOid("oid-no-roles")).thenReturn(Optional.of(entraUser));
+        givenEntraUsers(entraUser);
         when(userAccountStatusAuditRepository.findByEntraUser(entraUser)).thenReturn(Collections.emptyList());
         when(deleteUserReasonRepository.findByCode("NoGroupsDelete")).thenReturn(Optional.of(noGroupsReason));
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
@@ -1658,7 +1680,7 @@ class ExternalUserPollingServiceTest {
                 .build();
         profileWithRoles.setEntraUser(entraUser);
 
-        when(entraUserRepository.findByEntraOid("oid-has-roles")).thenReturn(Optional.of(entraUser));
+        givenEntraUsers(entraUser);
         when(userAccountStatusAuditRepository.findByEntraUser(entraUser)).thenReturn(Collections.emptyList());
         when(userAccountStatusAuditRepository.save(any(UserAccountStatusAudit.class))).thenAnswer(i -> i.getArgument(0));
         when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(deletedUserApiResponse("oid-has-roles"));
@@ -1669,4 +1691,160 @@ class ExternalUserPollingServiceTest {
         verify(userAccountStatusAuditRepository).save(auditCaptor.capture());
         assertThat(auditCaptor.getValue().getDeleteUserReason()).isNull();
     }
+
+    @Test
+    void shouldLookUpAndSaveUsersInBatches() {
+        ReflectionTestUtils.setField(externalUserPollingService, "batchSize", 2);
+        when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
+        List<TechServicesUser> apiUsers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            givenEntraUsers(EntraUser.builder()
+                    .id(UUID.randomUUID())
+                    .entraOid("user" + i)
+                    .firstName("Old")
+                    .lastName("Name")
+                    .enabled(true)
+                    .build());
+            apiUsers.add(TechServicesUser.builder()
+                    .id("user" + i)
+                    .givenName("New")
+                    .accountEnabled(true)
+                    .build());
+        }
+        GetUsersResponse response = GetUsersResponse.builder()
+                .message("Success")
+                .users(apiUsers)
+                .build();
+        when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(TechServicesApiResponse.success(response));
+
+        externalUserPollingService.updateSyncMetadata();
+
+        verify(entraUserRepository, times(3)).findWithProfilesByEntraOidIn(any());
+        verify(entraUserRepository, never()).findByEntraOid(anyString());
+        verify(entraUserRepository, times(3)).saveAll(any());
+        assertThat(savedUsers()).hasSize(5).allMatch(user -> "New".equals(user.getFirstName()));
+    }
+
+    @Test
+    void shouldRefreshSilasStatusesOfEachBatchInOneUpdate() {
+        ReflectionTestUtils.setField(externalUserPollingService, "batchSize", 2);
+        when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
+        List<TechServicesUser> apiUsers = new ArrayList<>();
+        List<UUID> profileIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserProfile profile = UserProfile.builder().id(UUID.randomUUID()).build();
+            profileIds.add(profile.getId());
+            givenEntraUsers(EntraUser.builder()
+                    .id(UUID.randomUUID())
+                    .entraOid("user" + i)
+                    .enabled(true)
+                    .userProfiles(new HashSet<>(Set.of(profile)))
+                    .build());
+            apiUsers.add(TechServicesUser.builder()
+                    .id("user" + i)
+                    .accountEnabled(true)
+                    .build());
+        }
+        GetUsersResponse response = GetUsersResponse.builder()
+                .message("Success")
+                .users(apiUsers)
+                .build();
+        when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(TechServicesApiResponse.success(response));
+
+        externalUserPollingService.updateSyncMetadata();
+
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(userProfileRepository, times(2)).refreshSilasStatuses(captor.capture());
+        assertThat(captor.getAllValues().get(0)).containsExactlyInAnyOrder(profileIds.get(0), profileIds.get(1));
+        assertThat(captor.getAllValues().get(1)).containsExactly(profileIds.get(2));
+    }
+
+    @Test
+    void shouldLoadDisableReasonsOnce_whenSeveralUsersAreDisabled() {
+        when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.empty());
+        DisableUserReason notActiveReason = DisableUserReason.builder()
+                .id(UUID.randomUUID())
+                .name("Not Active")
+                .entraDescription("NotActive")
+                .build();
+        when(disableUserReasonRepository.findAll()).thenReturn(List.of(notActiveReason));
+        List<TechServicesUser> apiUsers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            givenEntraUsers(EntraUser.builder()
+                    .id(UUID.randomUUID())
+                    .entraOid("user" + i)
+                    .enabled(true)
+                    .build());
+            apiUsers.add(TechServicesUser.builder()
+                    .id("user" + i)
+                    .accountEnabled(false)
+                    .customSecurityAttributes(TechServicesUser.CustomSecurityAttributes.builder()
+                            .guestUserStatus(TechServicesUser.GuestUserStatus.builder()
+                                    .disabledReason(i == 0 ? "NotActive" : "not active")
+                                    .build())
+                            .build())
+                    .build());
+        }
+        GetUsersResponse response = GetUsersResponse.builder()
+                .message("Success")
+                .users(apiUsers)
+                .build();
+        when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(TechServicesApiResponse.success(response));
+
+        externalUserPollingService.updateSyncMetadata();
+
+        verify(disableUserReasonRepository, times(1)).findAll();
+        assertThat(savedAudits()).hasSize(3)
+                .allMatch(audit -> audit.getDisableUserReason() == notActiveReason);
+    }
+
+    @Test
+    void shouldWidenWindow_whileCatchingUpOnBacklog() {
+        LocalDateTime lastSuccessfulTo = LocalDateTime.now().minusHours(10);
+        EntraLastSyncMetadata existingMetadata = EntraLastSyncMetadata.builder()
+                .id(ENTRA_USER_SYNC_ID)
+                .lastSuccessfulTo(lastSuccessfulTo)
+                .build();
+        when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.of(existingMetadata));
+        GetUsersResponse response = GetUsersResponse.builder()
+                .message("Success")
+                .users(Collections.emptyList())
+                .build();
+        ArgumentCaptor<String> fromCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> toCaptor = ArgumentCaptor.forClass(String.class);
+        when(techServicesClient.getUsers(fromCaptor.capture(), toCaptor.capture()))
+                .thenReturn(TechServicesApiResponse.success(response));
+
+        externalUserPollingService.updateSyncMetadata();
+        externalUserPollingService.updateSyncMetadata();
+        externalUserPollingService.updateSyncMetadata();
+
+        assertThat(windowMinutes(fromCaptor.getAllValues().get(0), toCaptor.getAllValues().get(0))).isEqualTo(30);
+        assertThat(windowMinutes(fromCaptor.getAllValues().get(1), toCaptor.getAllValues().get(1))).isEqualTo(60);
+        assertThat(windowMinutes(fromCaptor.getAllValues().get(2), toCaptor.getAllValues().get(2))).isEqualTo(120);
+    }
+
+    @Test
+    void shouldReturnToBaseWindow_onceCaughtUp() {
+        ReflectionTestUtils.setField(externalUserPollingService, "windowMinutes", 240L);
+        EntraLastSyncMetadata existingMetadata = EntraLastSyncMetadata.builder()
+                .id(ENTRA_USER_SYNC_ID)
+                .lastSuccessfulTo(LocalDateTime.now().minusMinutes(10))
+                .build();
+        when(entraLastSyncMetadataRepository.findById(eq(ENTRA_USER_SYNC_ID))).thenReturn(Optional.of(existingMetadata));
+        GetUsersResponse response = GetUsersResponse.builder()
+                .message("Success")
+                .users(Collections.emptyList())
+                .build();
+        when(techServicesClient.getUsers(anyString(), anyString())).thenReturn(TechServicesApiResponse.success(response));
+
+        externalUserPollingService.updateSyncMetadata();
+
+        assertThat(ReflectionTestUtils.getField(externalUserPollingService, "windowMinutes")).isEqualTo(30L);
+    }
+
+    private static long windowMinutes(String from, String to) {
+        return ChronoUnit.MINUTES.between(
+                LocalDateTime.parse(from.substring(0, 19)), LocalDateTime.parse(to.substring(0, 19)));
+    }
 }
@@ -1,18 +1,25 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
+import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,38 +31,37 @@ class ExternalUserReportingServiceTest {
     @Mock
     private ReportUploadService reportUploadService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ExternalUserReportingService externalUserReportingService;
 
     @BeforeEach
     void setUp() {
-        externalUserReportingService = Mockito.spy(new ExternalUserReportingService(firmRepository, reportUploadService));
+        ReportStreamingService reportStreamingService =
+                new ReportStreamingService(reportUploadService, new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(reportStreamingService, "compressionEnabled", false);
+        externalUserReportingService = new ExternalUserReportingService(firmRepository, reportStreamingService);
     }
 
     @Test
     void createsCsvWithFullHeaderAndRows() throws Exception {
 
-        when(firmRepository.findAllFirmExternalUserCount()).thenReturn(List.of(
+        when(firmRepository.findAllFirmExternalUserCount()).thenReturn(Stream.of(
                 new Object[]{"Firm A", "FRA", "TypeA", "PARENT1", 5L, 1L, 0L, 2L, 1L, 0L, 1L, 1L},
                 new Object[]{"Firm B", null, "TypeB", "PARENT2", 2L, 0L, 0L, 0L, 0L, 1L, 0L, 0L}
         ));
 
-        Path systemTemp = Path.of(System.getProperty("java.io.tmpdir"));
-
-        List<Path> before = Files.list(systemTemp).toList();
+        List<String> lines = new ArrayList<>();
+        doAnswer(invocation -> {
+            File csv = invocation.getArgument(0);
+            assertThat(csv.getName()).startsWith("SiLAS-external-user-report-").endsWith(".csv");
+            lines.addAll(Files.readAllLines(csv.toPath()));
+            return null;
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("external_user_reports"));
 
         externalUserReportingService.downloadExternalUserCsv();
 
-        List<Path> after = Files.list(systemTemp).toList();
-
-        Path csv = after.stream()
-                .filter(p -> !before.contains(p))
-                .filter(p -> p.getFileName().toString().startsWith("SiLAS-external-user-report-"))
-                .filter(p -> p.getFileName().toString().endsWith(".csv"))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("CSV not created"));
-
-        List<String> lines = Files.readAllLines(csv);
-
         assertThat(lines).isNotEmpty();
 
         assertThat(lines.get(0)).isEqualTo(
@@ -0,0 +1,153 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for a Microsoft Graph upload session URL. Chunks must arrive in order; failures
+ * can be queued up to be returned for the next chunks, optionally after the bytes have been kept.
+ */
+class FakeGraphUploadSession implements AutoCloseable {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    private final HttpServer server;
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final Deque<Fault> faults = new ArrayDeque<>();
+    private int chunkRequests;
+    private int statusRequests;
+    private boolean expired;
+    private boolean cancelled;
+
+    FakeGraphUploadSession() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/upload/session-1", this::handle);
+        server.start();
+    }
+
+    String uploadUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/upload/session-1";
+    }
+
+    synchronized void failNextChunk(int status, boolean keepBytes) {
+        failNextChunk(status, keepBytes, null);
+    }
+
+    /**
+     * Queues a failure for the next chunk. A 202 answers with the ranges still expected, as
+     * Graph does, so a 202 without keeping the bytes is a chunk accepted without progress.
+     */
+    synchronized void failNextChunk(int status, boolean keepBytes, String retryAfter) {
+        faults.add(new Fault(status, keepBytes, retryAfter));
+    }
+
+    synchronized void expire() {
+        expired = true;
+    }
+
+    synchronized byte[] received() {
+        return received.toByteArray();
+    }
+
+    synchronized int chunkRequests() {
+        return chunkRequests;
+    }
+
+    synchronized int statusRequests() {
+        return statusRequests;
+    }
+
+    synchronized boolean cancelled() {
+        return cancelled;
+    }
+
+    private synchronized void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            if (expired) {
+                respond(exchange, 404, "{\"error\":{\"code\":\"itemNotFound\"}}");
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> {
+                    statusRequests++;
+                    respond(exchange, 200, nextExpected());
+                }
+                case "DELETE" -> {
+                    cancelled = true;
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                case "PUT" -> putChunk(exchange, body);
+                default -> respond(exchange, 405, "");
+            }
+        }
+    }
+
+    private void putChunk(HttpExchange exchange, byte[] body) throws IOException {
+        chunkRequests++;
+        Matcher range = CONTENT_RANGE.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Content-Range")));
+        if (!range.matches()) {
+            respond(exchange, 400, "{\"error\":{\"code\":\"invalidRange\"}}");
+            return;
+        }
+        long start = Long.parseLong(range.group(1));
+        long total = Long.parseLong(range.group(3));
+        if (start != received.size()) {
+            respond(exchange, 416, "{\"error\":{\"code\":\"invalidRange\"}}");
+            return;
+        }
+        Fault fault = faults.poll();
+        if (fault == null || fault.keepBytes()) {
+            received.write(body);
+        }
+        if (fault != null) {
+            if (fault.retryAfter() != null) {
+                exchange.getResponseHeaders().set("Retry-After", fault.retryAfter());
+            }
+            respond(exchange, fault.status(), fault.status() == 202 ? nextExpected()
+                    : "{\"error\":{\"code\":\"serviceNotAvailable\"}}");
+        } else if (received.size() >= total) {
+            respond(exchange, 201, "{\"id\":\"item-1\",\"size\":" + total + "}");
+        } else {
+            respond(exchange, 202, nextExpected());
+        }
+    }
+
+    private String nextExpected() {
+        return "{\"nextExpectedRanges\":[\"" + received.size() + "-\"]}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private record Fault(int status, boolean keepBytes, String retryAfter) {
+    }
+}
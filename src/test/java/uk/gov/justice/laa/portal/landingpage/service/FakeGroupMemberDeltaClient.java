@@ -0,0 +1,90 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory stand-in for the Graph group delta endpoint. Membership changes are recorded in a log;
+ * a delta link remembers how far into the log it has read, results come back in pages of
+ * {@code pageSize}, and {@link #expireTokens()} makes every delta link issued so far fail the way
+ * Graph does once it has discarded the sync state.
+ */
+class FakeGroupMemberDeltaClient implements GroupMemberDeltaClient {
+
+    private final Set<UUID> members = new LinkedHashSet<>();
+    private final List<MemberChange> changeLog = new ArrayList<>();
+    private final int pageSize;
+    private int epoch;
+    private int fetches;
+
+    FakeGroupMemberDeltaClient(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    void add(UUID... oids) {
+        for (UUID oid : oids) {
+            members.add(oid);
+            changeLog.add(new MemberChange(oid, false));
+        }
+    }
+
+    void remove(UUID... oids) {
+        for (UUID oid : oids) {
+            members.remove(oid);
+            changeLog.add(new MemberChange(oid, true));
+        }
+    }
+
+    void expireTokens() {
+        epoch++;
+    }
+
+    int fetches() {
+        return fetches;
+    }
+
+    @Override
+    public String initialUrl(String groupId) {
+        return "fake://groups/delta?group=" + groupId + "&offset=0";
+    }
+
+    @Override
+    public DeltaPage fetch(String url) {
+        fetches++;
+        Map<String, String> query = query(url);
+        int offset = Integer.parseInt(query.get("offset"));
+
+        List<MemberChange> changes;
+        if (query.containsKey("token")) {
+            if (Integer.parseInt(query.get("epoch")) != epoch) {
+                throw new DeltaTokenExpiredException("Graph rejected group delta token", null);
+            }
+            changes = changeLog.subList(Integer.parseInt(query.get("token")), changeLog.size());
+        } else {
+            changes = members.stream().map(oid -> new MemberChange(oid, false)).toList();
+        }
+
+        int end = Math.min(offset + pageSize, changes.size());
+        List<MemberChange> page = List.copyOf(changes.subList(offset, end));
+        if (end < changes.size()) {
+            String next = url.substring(0, url.indexOf("offset=")) + "offset=" + end;
+            return new DeltaPage(page, next, null);
+        }
+        return new DeltaPage(page, null,
+                "fake://groups/delta?token=" + changeLog.size() + "&epoch=" + epoch + "&offset=0");
+    }
+
+    private static Map<String, String> query(String url) {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : url.substring(url.indexOf('?') + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            query.put(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,71 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import uk.gov.justice.laa.portal.landingpage.validation.MxRecordResolver;
+
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process DNS for email validation tests. Domains answer with MX records only when registered
+ * with {@link #withMx}; anything else is treated as a non-existent domain.
+ */
+class FakeMxRecordResolver implements MxRecordResolver {
+
+    private final Map<String, Duration> mxDomains = new ConcurrentHashMap<>();
+    private final Set<String> failingDomains = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+    private volatile CountDownLatch gate;
+    private volatile long delayMillis;
+
+    FakeMxRecordResolver withMx(String domain, Duration ttl) {
+        mxDomains.put(domain, ttl);
+        return this;
+    }
+
+    FakeMxRecordResolver failing(String domain) {
+        failingDomains.add(domain);
+        return this;
+    }
+
+    FakeMxRecordResolver holdUntil(CountDownLatch gate) {
+        this.gate = gate;
+        return this;
+    }
+
+    FakeMxRecordResolver delayedBy(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    int lookups(String domain) {
+        AtomicInteger count = lookups.get(domain);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public MxLookup lookup(String domain) throws NamingException {
+        lookups.computeIfAbsent(domain, d -> new AtomicInteger()).incrementAndGet();
+        try {
+            if (gate != null) {
+                gate.await();
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("interrupted");
+        }
+        if (failingDomains.contains(domain)) {
+            throw new ServiceUnavailableException("SERVFAIL");
+        }
+        Duration ttl = mxDomains.get(domain);
+        return ttl != null ? MxLookup.found(ttl) : MxLookup.notFound(Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,112 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for SQS that records what was sent per queue. Message bodies can be marked to
+ * fail inside a batch, either as a sender fault or as a transient server-side failure, and to fail
+ * when sent on their own.
+ */
+class FakeSqsClient implements SqsClient {
+
+    private final Map<String, List<String>> deliveredBodies = new ConcurrentHashMap<>();
+    private final List<SendMessageBatchRequest> batchRequests = new CopyOnWriteArrayList<>();
+    private final List<SendMessageRequest> singleRequests = new CopyOnWriteArrayList<>();
+    private final Set<String> transientBatchFailures = ConcurrentHashMap.newKeySet();
+    private final Set<String> senderFaults = ConcurrentHashMap.newKeySet();
+    private final Set<String> singleFailures = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger messageIds = new AtomicInteger();
+    private volatile RuntimeException batchFailure;
+
+    void failInBatch(String messageBody) {
+        transientBatchFailures.add(messageBody);
+    }
+
+    void rejectAsSenderFault(String messageBody) {
+        senderFaults.add(messageBody);
+    }
+
+    void failIndividually(String messageBody) {
+        singleFailures.add(messageBody);
+    }
+
+    void failEveryBatch(RuntimeException failure) {
+        this.batchFailure = failure;
+    }
+
+    List<SendMessageBatchRequest> batchRequests() {
+        return batchRequests;
+    }
+
+    List<SendMessageRequest> singleRequests() {
+        return singleRequests;
+    }
+
+    List<String> deliveredBodies(String queueUrl) {
+        return deliveredBodies.getOrDefault(queueUrl, Collections.emptyList());
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+        batchRequests.add(request);
+        if (batchFailure != null) {
+            throw batchFailure;
+        }
+        List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        for (SendMessageBatchRequestEntry entry : request.entries()) {
+            if (senderFaults.contains(entry.messageBody())) {
+                failed.add(BatchResultErrorEntry.builder().id(entry.id()).senderFault(true)
+                        .code("InvalidParameterValue").message("rejected").build());
+            } else if (transientBatchFailures.contains(entry.messageBody())) {
+                failed.add(BatchResultErrorEntry.builder().id(entry.id()).senderFault(false)
+                        .code("InternalError").message("try again").build());
+            } else {
+                successful.add(SendMessageBatchResultEntry.builder().id(entry.id())
+                        .messageId(deliver(request.queueUrl(), entry.messageBody())).build());
+            }
+        }
+        // SQS does not promise to report failures in the order they were sent
+        Collections.reverse(failed);
+        return SendMessageBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest request) {
+        singleRequests.add(request);
+        if (singleFailures.contains(request.messageBody())) {
+            throw new IllegalStateException("send failed: " + request.messageBody());
+        }
+        return SendMessageResponse.builder().messageId(deliver(request.queueUrl(), request.messageBody())).build();
+    }
+
+    private String deliver(String queueUrl, String messageBody) {
+        deliveredBodies.computeIfAbsent(queueUrl, url -> new CopyOnWriteArrayList<>()).add(messageBody);
+        return "message-" + messageIds.incrementAndGet();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
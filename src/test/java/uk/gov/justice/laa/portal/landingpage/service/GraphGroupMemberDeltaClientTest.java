@@ -0,0 +1,56 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.laa.portal.landingpage.service.GroupMemberDeltaClient.DeltaPage;
+import uk.gov.justice.laa.portal.landingpage.service.GroupMemberDeltaClient.MemberChange;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphGroupMemberDeltaClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesUserMemberChangesAndNextLink() throws Exception {
+        UUID added = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        String json = """
+                {
+                  "@odata.nextLink": "https://graph.microsoft.com/v1.0/groups/delta?$skiptoken=abc",
+                  "value": [{
+                    "id": "group-1",
+                    "members@delta": [
+                      {"@odata.type": "#microsoft.graph.user", "id": "%s"},
+                      {"@odata.type": "#microsoft.graph.user", "id": "%s", "@removed": {"reason": "deleted"}},
+                      {"@odata.type": "#microsoft.graph.group", "id": "%s"}
+                    ]
+                  }]
+                }
+                """.formatted(added, removed, UUID.randomUUID());
+
+        DeltaPage page = GraphGroupMemberDeltaClient.parse(objectMapper.readTree(json));
+
+        assertThat(page.changes()).containsExactly(new MemberChange(added, false), new MemberChange(removed, true));
+        assertThat(page.nextLink()).isEqualTo("https://graph.microsoft.com/v1.0/groups/delta?$skiptoken=abc");
+        assertThat(page.deltaLink()).isNull();
+    }
+
+    @Test
+    void parsesFinalPageWithDeltaLink() throws Exception {
+        String json = """
+                {
+                  "@odata.deltaLink": "https://graph.microsoft.com/v1.0/groups/delta?$deltatoken=xyz",
+                  "value": []
+                }
+                """;
+
+        DeltaPage page = GraphGroupMemberDeltaClient.parse(objectMapper.readTree(json));
+
+        assertThat(page.changes()).isEmpty();
+        assertThat(page.nextLink()).isNull();
+        assertThat(page.deltaLink()).isEqualTo("https://graph.microsoft.com/v1.0/groups/delta?$deltatoken=xyz");
+    }
+}
@@ -0,0 +1,177 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.justice.laa.portal.landingpage.service.GraphUploadSessionClient.UploadSessionExpiredException;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphUploadSessionClientTest {
+
+    private static final int CHUNK = GraphUploadSessionClient.CHUNK_MULTIPLE;
+
+    @TempDir
+    Path tempDir;
+
+    private FakeGraphUploadSession graph;
+    private GraphUploadSessionClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        graph = new FakeGraphUploadSession();
+        client = new GraphUploadSessionClient(HttpClient.newHttpClient(), CHUNK, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        graph.close();
+    }
+
+    @Test
+    void uploadsFileInFixedSizeChunks() throws Exception {
+        byte[] content = randomBytes(CHUNK * 2 + CHUNK / 2);
+
+        String itemId = client.upload(graph.uploadUrl(), write(content));
+
+        assertThat(itemId).isEqualTo("item-1");
+        assertThat(graph.chunkRequests()).isEqualTo(3);
+        assertThat(graph.received()).isEqualTo(content);
+    }
+
+    @Test
+    void retriesChunkThatFails() throws Exception {
+        byte[] content = randomBytes(CHUNK * 2 + 10);
+        graph.failNextChunk(503, false);
+
+        String itemId = client.upload(graph.uploadUrl(), write(content));
+
+        assertThat(itemId).isEqualTo("item-1");
+        assertThat(graph.chunkRequests()).isEqualTo(4);
+        assertThat(graph.received()).isEqualTo(content);
+    }
+
+    @Test
+    void resumesFromTheBytesGraphAlreadyHas() throws Exception {
+        byte[] content = randomBytes(CHUNK * 2 + 10);
+        // Graph keeps the first chunk but the response never makes it back
+        graph.failNextChunk(500, true);
+
+        client.upload(graph.uploadUrl(), write(content));
+
+        assertThat(graph.statusRequests()).isEqualTo(1);
+        assertThat(graph.chunkRequests()).isEqualTo(3);
+        assertThat(graph.received()).isEqualTo(content);
+    }
+
+    @Test
+    void givesUpAndCancelsSessionAfterMaxAttempts() throws Exception {
+        Path file = write(randomBytes(CHUNK + 1));
+        graph.failNextChunk(503, false);
+        graph.failNextChunk(503, false);
+        graph.failNextChunk(503, false);
+
+        assertThatThrownBy(() -> client.upload(graph.uploadUrl(), file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("after 3 attempts");
+        assertThat(graph.chunkRequests()).isEqualTo(3);
+        assertThat(graph.cancelled()).isTrue();
+    }
+
+    @Test
+    void givesUpWhenGraphAcceptsChunksWithoutMakingProgress() throws Exception {
+        Path file = write(randomBytes(CHUNK + 1));
+        graph.failNextChunk(202, false);
+        graph.failNextChunk(202, false);
+        graph.failNextChunk(202, false);
+
+        assertThatThrownBy(() -> client.upload(graph.uploadUrl(), file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("after 3 attempts");
+        assertThat(graph.chunkRequests()).isEqualTo(3);
+        assertThat(graph.cancelled()).isTrue();
+    }
+
+    @Test
+    void resumesFromTheBytesGraphExpectsAfterRangeNotSatisfiable() throws Exception {
+        byte[] content = randomBytes(CHUNK * 2 + 10);
+        graph.failNextChunk(416, true);
+
+        client.upload(graph.uploadUrl(), write(content));
+
+        assertThat(graph.statusRequests()).isEqualTo(1);
+        assertThat(graph.chunkRequests()).isEqualTo(3);
+        assertThat(graph.received()).isEqualTo(content);
+    }
+
+    @Test
+    void countsRepeatedRangeNotSatisfiableAsFailedAttempts() throws Exception {
+        Path file = write(randomBytes(CHUNK + 1));
+        graph.failNextChunk(416, false);
+        graph.failNextChunk(416, false);
+        graph.failNextChunk(416, false);
+
+        assertThatThrownBy(() -> client.upload(graph.uploadUrl(), file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("after 3 attempts");
+        assertThat(graph.cancelled()).isTrue();
+    }
+
+    @Test
+    void retriesWhenRetryAfterIsAnHttpDateOrUnreadable() throws Exception {
+        byte[] content = randomBytes(CHUNK + 10);
+        graph.failNextChunk(429, false, "Wed, 21 Oct 2015 07:28:00 GMT");
+        graph.failNextChunk(503, false, "soon");
+
+        String itemId = client.upload(graph.uploadUrl(), write(content));
+
+        assertThat(itemId).isEqualTo("item-1");
+        assertThat(graph.received()).isEqualTo(content);
+    }
+
+    @Test
+    void doesNotRetryChunkGraphRejects() throws Exception {
+        Path file = write(randomBytes(CHUNK + 1));
+        graph.failNextChunk(400, false);
+
+        assertThatThrownBy(() -> client.upload(graph.uploadUrl(), file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("400");
+        assertThat(graph.chunkRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsExpiredSession() throws Exception {
+        Path file = write(randomBytes(CHUNK + 1));
+        graph.expire();
+
+        assertThatThrownBy(() -> client.upload(graph.uploadUrl(), file))
+                .isInstanceOf(UploadSessionExpiredException.class);
+    }
+
+    @Test
+    void roundsChunkSizeDownToMultipleOf320KiB() {
+        assertThat(new GraphUploadSessionClient(HttpClient.newHttpClient(), CHUNK * 3 + 1000, 3, 1).getChunkSize())
+                .isEqualTo(CHUNK * 3);
+        assertThat(new GraphUploadSessionClient(HttpClient.newHttpClient(), 1000, 3, 1).getChunkSize())
+                .isEqualTo(CHUNK);
+    }
+
+    private Path write(byte[] content) throws IOException {
+        return Files.write(tempDir.resolve("report.csv"), content);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -8,16 +8,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraLastSyncMetadata;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraLastSyncMetadataRepository;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
-import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -32,54 +35,65 @@ class InternalUserPollingServiceTest {
     private GraphServiceClient graphServiceClient;
     @Mock
     private UserService userService;
-    @InjectMocks
+    @Mock
+    private EntraLastSyncMetadataRepository entraLastSyncMetadataRepository;
+
+    private FakeGroupMemberDeltaClient deltaClient;
     private InternalUserPollingService internalUserPollingService;
+    private EntraLastSyncMetadata storedSyncState;
 
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         MockitoAnnotations.openMocks(this);
-        // Set the @Value field via reflection
-        java.lang.reflect.Field field = InternalUserPollingService.class.getDeclaredField("pollingGroupId");
-        field.setAccessible(true);
-        field.set(internalUserPollingService, "test-group-id");
+        deltaClient = new FakeGroupMemberDeltaClient(2);
+        internalUserPollingService = new InternalUserPollingService(graphServiceClient, userService, deltaClient,
+                entraLastSyncMetadataRepository);
+        ReflectionTestUtils.setField(internalUserPollingService, "pollingGroupId", "test-group-id");
+
+        when(entraLastSyncMetadataRepository.findById(InternalUserPollingService.DELTA_SYNC_ID))
+                .thenAnswer(invocation -> Optional.ofNullable(storedSyncState));
+        when(entraLastSyncMetadataRepository.save(any(EntraLastSyncMetadata.class))).thenAnswer(invocation -> {
+            storedSyncState = invocation.getArgument(0);
+            return storedSyncState;
+        });
     }
 
 
     @Test
     void shouldNotCreateNewUsers_whenNoResponseFromGraphApi() {
+        deltaClient.add(UUID.randomUUID());
         when(userService.getInternalUserEntraIds()).thenReturn(List.of());
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(null);
 
         internalUserPollingService.pollForNewUsers();
 
         verify(userService, times(1)).getInternalUserEntraIds();
+        verify(userService, never()).createInternalPolledUser(any());
     }
 
     @Test
     void shouldNotCreateNewUsers_whenNewUsersNotFound() {
-        when(userService.getInternalUserEntraIds()).thenReturn(List.of(UUID.randomUUID()));
-        DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
-        response.setValue(new ArrayList<>());
-        when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
+        UUID existingId = UUID.randomUUID();
+        deltaClient.add(existingId);
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
 
         internalUserPollingService.pollForNewUsers();
+
         verify(userService, times(1)).getInternalUserEntraIds();
+        verify(userService, never()).createInternalPolledUser(any());
+        verify(graphServiceClient, never()).groups();
     }
 
     @Test
     void shouldCreateNewUsers_whenNewUsersFound() {
         UUID existingId = UUID.randomUUID();
         UUID newId = UUID.randomUUID();
+        deltaClient.add(existingId, newId);
         when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
-        User newUser = new User();
-        newUser.setId(newId.toString());
-        newUser.setMail("test@example.com");
-        newUser.setSurname("Doe");
-        newUser.setGivenName("John");
-        newUser.setDisplayName("John Doe");
-        List<DirectoryObject> directoryObjects = List.of(newUser);
+        User newUser = user(newId, "test@example.com", "John", "Doe");
+        User existingUser = user(existingId, "existing@example.com", "Existing", "User");
         DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
-        response.setValue(directoryObjects);
+        response.setValue(List.of(existingUser, newUser));
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
 
         internalUserPollingService.pollForNewUsers();
@@ -97,27 +111,17 @@ class InternalUserPollingServiceTest {
     void shouldCreateNewUsers_whenNewUsersFound_paginated() {
         UUID existingId = UUID.randomUUID();
         UUID newId = UUID.randomUUID();
+        UUID newId2 = UUID.randomUUID();
+        deltaClient.add(existingId, newId, newId2);
         when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
-        User newUser = new User();
-        newUser.setId(newId.toString());
-        newUser.setMail("test@example.com");
-        newUser.setSurname("Doe");
-        newUser.setGivenName("John");
-        newUser.setDisplayName("John Doe");
-        User newUser2 = new User();
-        newUser2.setId(newId.toString());
-        newUser2.setMail("test2@example.com");
-        newUser2.setSurname("Doe");
-        newUser2.setGivenName("Jane");
-        newUser2.setDisplayName("Jane Doe");
-        List<DirectoryObject> directoryObjects = List.of(newUser);
+        User newUser = user(newId, "test@example.com", "John", "Doe");
+        User newUser2 = user(newId2, "test2@example.com", "Jane", "Doe");
         DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
         response.setOdataNextLink("page2");
-        response.setValue(directoryObjects);
+        response.setValue(List.of(newUser));
 
-        List<DirectoryObject> directoryObjects2 = List.of(newUser2);
         DirectoryObjectCollectionResponse page2Response = new DirectoryObjectCollectionResponse();
-        page2Response.setValue(directoryObjects2);
+        page2Response.setValue(List.of(newUser2));
 
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
         when(graphServiceClient.groups().byGroupId(anyString()).members().withUrl(anyString()).get()).thenReturn(page2Response);
@@ -142,6 +146,7 @@ class InternalUserPollingServiceTest {
         notUser1.setId(UUID.randomUUID().toString());
         DirectoryObject notUser2 = new DirectoryObject();
         notUser2.setId(UUID.randomUUID().toString());
+        deltaClient.add(UUID.fromString(notUser1.getId()), UUID.fromString(notUser2.getId()));
         DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
         response.setValue(List.of(notUser1, notUser2));
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
@@ -156,12 +161,8 @@ class InternalUserPollingServiceTest {
         UUID newId = UUID.randomUUID();
         DirectoryObject notUser = new DirectoryObject();
         notUser.setId(UUID.randomUUID().toString());
-        User user = new User();
-        user.setId(newId.toString());
-        user.setMail("user@example.com");
-        user.setSurname("Smith");
-        user.setGivenName("Jane");
-        user.setDisplayName("Jane Smith");
+        User user = user(newId, "user@example.com", "Jane", "Smith");
+        deltaClient.add(UUID.fromString(notUser.getId()), newId);
         DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
         response.setValue(List.of(notUser, user));
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
@@ -180,48 +181,125 @@ class InternalUserPollingServiceTest {
         UUID existingId1 = UUID.randomUUID();
         UUID existingId2 = UUID.randomUUID();
         UUID graphApiId = UUID.randomUUID();
-        
-        // Setup: 2 users in Silas, only 1 in Graph API
+
+        // Setup: 2 users in Silas, only 1 in the group
+        deltaClient.add(graphApiId);
         when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId1, existingId2));
-        
-        User graphUser = new User();
-        graphUser.setId(graphApiId.toString());
-        graphUser.setMail("graph@example.com");
-        graphUser.setSurname("Graph");
-        graphUser.setGivenName("User");
-        
         DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
-        response.setValue(List.of(graphUser));
+        response.setValue(List.of(user(graphApiId, "graph@example.com", "User", "Graph")));
         when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
         when(userService.deleteInternalUsersByEntraIds(any())).thenReturn(2);
 
         internalUserPollingService.pollForNewUsers();
-        
+
         ArgumentCaptor<List<UUID>> deleteCaptor = ArgumentCaptor.forClass(List.class);
         verify(userService).deleteInternalUsersByEntraIds(deleteCaptor.capture());
-        List<UUID> usersToDelete = deleteCaptor.getValue();
-        assertEquals(2, usersToDelete.size());
-        assertEquals(List.of(existingId1, existingId2), usersToDelete);
+        assertThat(deleteCaptor.getValue()).containsExactlyInAnyOrder(existingId1, existingId2);
     }
 
     @Test
     void shouldNotDeleteUsers_whenAllSilasUsersExistInGraphResponse() {
         UUID existingId = UUID.randomUUID();
-        
+        deltaClient.add(existingId);
         when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
-        
-        User graphUser = new User();
-        graphUser.setId(existingId.toString());
-        graphUser.setMail("existing@example.com");
-        graphUser.setSurname("Existing");
-        graphUser.setGivenName("User");
-        
-        DirectoryObjectCollectionResponse response = new DirectoryObjectCollectionResponse();
-        response.setValue(List.of(graphUser));
-        when(graphServiceClient.groups().byGroupId(anyString()).members().get()).thenReturn(response);
 
         internalUserPollingService.pollForNewUsers();
-        
+
+        verify(userService, never()).deleteInternalUsersByEntraIds(any());
+    }
+
+    @Test
+    void shouldStoreDeltaLink_afterFullResync() {
+        deltaClient.add(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of());
+
+        internalUserPollingService.pollForNewUsers();
+
+        // three members in pages of two
+        assertThat(deltaClient.fetches()).isEqualTo(2);
+        assertThat(storedSyncState.getId()).isEqualTo(InternalUserPollingService.DELTA_SYNC_ID);
+        assertThat(storedSyncState.getDeltaLink()).startsWith("fake://groups/delta?token=3");
+    }
+
+    @Test
+    void shouldOnlyApplyChangesSinceLastPoll_whenDeltaLinkStored() {
+        UUID existingId = UUID.randomUUID();
+        UUID leaverId = UUID.randomUUID();
+        UUID joinerId = UUID.randomUUID();
+        deltaClient.add(existingId, leaverId);
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId, leaverId));
+        internalUserPollingService.pollForNewUsers();
+
+        deltaClient.remove(leaverId);
+        deltaClient.add(joinerId);
+        when(graphServiceClient.users().byUserId(joinerId.toString()).get(any()))
+                .thenReturn(user(joinerId, "joiner@example.com", "New", "Joiner"));
+        internalUserPollingService.pollForNewUsers();
+
+        ArgumentCaptor<List<UUID>> deleteCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userService).deleteInternalUsersByEntraIds(deleteCaptor.capture());
+        assertThat(deleteCaptor.getValue()).containsExactly(leaverId);
+        ArgumentCaptor<List<EntraUserDto>> createCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userService).createInternalPolledUser(createCaptor.capture());
+        assertThat(createCaptor.getValue()).extracting(EntraUserDto::getEntraOid).containsExactly(joinerId.toString());
+        // the group is never listed in full
+        verify(graphServiceClient, never()).groups();
+    }
+
+    @Test
+    void shouldIgnoreMemberAddedAndRemovedBetweenPolls() {
+        UUID existingId = UUID.randomUUID();
+        UUID transientId = UUID.randomUUID();
+        deltaClient.add(existingId);
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
+        internalUserPollingService.pollForNewUsers();
+
+        deltaClient.add(transientId);
+        deltaClient.remove(transientId);
+        internalUserPollingService.pollForNewUsers();
+
+        verify(userService, never()).createInternalPolledUser(any());
         verify(userService, never()).deleteInternalUsersByEntraIds(any());
     }
+
+    @Test
+    void shouldSkipPollingWork_whenNothingChanged() {
+        UUID existingId = UUID.randomUUID();
+        deltaClient.add(existingId);
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId));
+        internalUserPollingService.pollForNewUsers();
+
+        internalUserPollingService.pollForNewUsers();
+
+        verify(userService, times(1)).getInternalUserEntraIds();
+    }
+
+    @Test
+    void shouldRunFullResync_whenDeltaTokenExpired() {
+        UUID existingId = UUID.randomUUID();
+        UUID leaverId = UUID.randomUUID();
+        deltaClient.add(existingId, leaverId);
+        when(userService.getInternalUserEntraIds()).thenReturn(List.of(existingId, leaverId));
+        internalUserPollingService.pollForNewUsers();
+        String firstDeltaLink = storedSyncState.getDeltaLink();
+
+        deltaClient.remove(leaverId);
+        deltaClient.expireTokens();
+        internalUserPollingService.pollForNewUsers();
+
+        ArgumentCaptor<List<UUID>> deleteCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userService).deleteInternalUsersByEntraIds(deleteCaptor.capture());
+        assertThat(deleteCaptor.getValue()).containsExactly(leaverId);
+        assertThat(storedSyncState.getDeltaLink()).isNotEqualTo(firstDeltaLink);
+    }
+
+    private static User user(UUID id, String mail, String givenName, String surname) {
+        User user = new User();
+        user.setId(id.toString());
+        user.setMail(mail);
+        user.setGivenName(givenName);
+        user.setSurname(surname);
+        user.setDisplayName(givenName + " " + surname);
+        return user;
+    }
 }
@@ -139,6 +139,8 @@ public class LiveTechServicesClientTest {
     private RestClient.ResponseSpec responseSpec;
     @Mock
     private JwtDecoder jwtDecoder;
+    @Mock
+    private TechServicesUserCache techServicesUserCache;
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -207,6 +209,7 @@ public class LiveTechServicesClientTest {
         assertLogMessage(Level.INFO, "Sending update security groups request to tech services:");
         assertLogMessage(Level.INFO, "Security Groups assigned successfully for entra user entraOid");
         verify(restClient, times(1)).patch();
+        verify(techServicesUserCache).invalidate("entraOid");
     }
 
     @Test
@@ -405,6 +408,7 @@ public class LiveTechServicesClientTest {
         Assertions.assertThat(rtEx.getMessage()).contains("Error while sending security group changes to Tech Services.");
         assertLogMessage(Level.INFO, "Sending update security groups request to tech services:");
         assertLogMessage(Level.ERROR, "Error while sending security group changes to Tech Services.");
+        verify(techServicesUserCache).invalidate("entraOid");
     }
 
     @Test
@@ -1253,6 +1257,7 @@ public class LiveTechServicesClientTest {
 
         TechServicesApiResponse<ChangeAccountEnabledResponse> response = liveTechServicesClient.disableUser(user, "Test reason");
         Assertions.assertThat(response.isSuccess()).isTrue();
+        verify(techServicesUserCache).invalidate(user.getEntraOid());
     }
 
     @Test
@@ -1302,6 +1307,7 @@ public class LiveTechServicesClientTest {
 
         assertLogMessage(Level.INFO, "Failed to disable entra user:");
         verify(restClient, times(1)).patch();
+        verify(techServicesUserCache).invalidate(user.getEntraOid());
     }
 
     @Test
@@ -1,23 +1,27 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
-import java.io.IOException;
+import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,37 +36,25 @@ class MultifirmUserReportServiceTest {
     @Mock
     private ReportUploadService reportUploadService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private MultifirmUserReportService service;
 
     private static final String REPORT_PREFIX = "SiLAS-multifirm-user-report-";
 
     @BeforeEach
     void setUp() {
-        service = new MultifirmUserReportService(firmRepository, entraUserRepository, reportUploadService);
-    }
-
-    private Path getGeneratedCsvFile() throws IOException {
-        Path systemTempDir = Path.of(System.getProperty("java.io.tmpdir"));
-        try (Stream<Path> files = Files.list(systemTempDir)) {
-            return files
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.getFileName().toString().startsWith(REPORT_PREFIX))
-                    .filter(p -> p.getFileName().toString().endsWith(".csv"))
-                    .max(Comparator.comparingLong(p -> {
-                        try {
-                            return Files.getLastModifiedTime(p).toMillis();
-                        } catch (IOException e) {
-                            return 0L;
-                        }
-                    }))
-                    .orElseThrow(() -> new AssertionError("No CSV file found in system temp"));
-        }
+        ReportStreamingService reportStreamingService =
+                new ReportStreamingService(reportUploadService, new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(reportStreamingService, "compressionEnabled", false);
+        service = new MultifirmUserReportService(firmRepository, entraUserRepository, reportStreamingService);
     }
 
     @Test
     void getMultifirmUsers_createsCsvWithAllRows() throws Exception {
         when(firmRepository.findMultiFirmUserCountsByFirm())
-                .thenReturn(List.of(
+                .thenReturn(Stream.of(
                         new Object[] { "firm1", "67", 10L },
                         new Object[] { "firm2", "21", 20L }
                 ));
@@ -75,19 +67,22 @@ class MultifirmUserReportServiceTest {
                         new Object[] { "Total multi-firm users", null, 50L }
                 ));
 
-        Instant notBefore = Instant.now();
-        service.getMultifirmUsers();
+        List<String> lines = new ArrayList<>();
+        doAnswer(invocation -> {
+            File csv = invocation.getArgument(0);
+            assertThat(csv.getName()).startsWith(REPORT_PREFIX).endsWith(".csv");
+            lines.addAll(Files.readAllLines(csv.toPath()));
+            return null;
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("multifirm_user_reports"));
 
-        Path csvPath = getGeneratedCsvFile();
-        List<String> lines = Files.readAllLines(csvPath);
+        service.getMultifirmUsers();
 
         assertThat(lines).containsExactly(
                 "\"Firm Name\",\"Firm Code\",Count",
                 "firm1,67,10",
                 "firm2,21,20",
                 "\"Unlinked multi-firm users\",,30",
-                "\"Total multi-firm users\",,50",
-                ""
+                "\"Total multi-firm users\",,50"
         );
     }
 }
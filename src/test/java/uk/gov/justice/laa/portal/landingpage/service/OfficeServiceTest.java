@@ -32,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -213,4 +214,44 @@ class OfficeServiceTest {
         assertThat(result.getPageSize()).isEqualTo(pageSize);
     }
 
-}
\ No newline at end of file
+    @Test
+    void searchFirmOffices_escapesWildcardsAndSearchesByLowerCasePrefix() {
+        UUID firmId = UUID.randomUUID();
+        Office office = Office.builder().id(UUID.randomUUID()).code("1A100B").build();
+        when(officeRepository.searchFirmOffices(eq(List.of(firmId)), eq("sw1\\_\\%"), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(office), PageRequest.of(1, 10), 11));
+
+        PaginatedOffices result = officeService.searchFirmOffices(List.of(firmId), "  SW1_% ", 2, 10);
+
+        ArgumentCaptor<PageRequest> pageRequestCaptor = ArgumentCaptor.forClass(PageRequest.class);
+        verify(officeRepository).searchFirmOffices(eq(List.of(firmId)), eq("sw1\\_\\%"), pageRequestCaptor.capture());
+        assertThat(pageRequestCaptor.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageRequestCaptor.getValue().getPageSize()).isEqualTo(10);
+        assertThat(result.getOffices()).extracting(OfficeDto::getCode).containsExactly("1A100B");
+        assertThat(result.getOffices().getFirst().getAddress()).isNull();
+        assertThat(result.getTotalElements()).isEqualTo(11);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.getCurrentPage()).isEqualTo(2);
+    }
+
+    @Test
+    void searchFirmOffices_blankSearchMatchesEveryOffice() {
+        UUID firmId = UUID.randomUUID();
+        when(officeRepository.searchFirmOffices(eq(List.of(firmId)), eq(""), any(PageRequest.class)))
+                .thenReturn(Page.empty());
+
+        PaginatedOffices result = officeService.searchFirmOffices(List.of(firmId), null, 0, 20);
+
+        assertThat(result.getOffices()).isEmpty();
+        assertThat(result.getCurrentPage()).isEqualTo(1);
+    }
+
+    @Test
+    void searchFirmOffices_noFirmsReturnsEmptyPageWithoutQuerying() {
+        PaginatedOffices result = officeService.searchFirmOffices(List.of(), "abc", 1, 20);
+
+        assertThat(result.getOffices()).isEmpty();
+        verifyNoInteractions(officeRepository);
+    }
+
+}
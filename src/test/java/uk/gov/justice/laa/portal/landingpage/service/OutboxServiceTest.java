@@ -0,0 +1,263 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEvent;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.OutboxEventType;
+import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
+import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+import uk.gov.justice.laa.portal.landingpage.model.CcmsRoleChangeMessage;
+import uk.gov.justice.laa.portal.landingpage.repository.OutboxEventRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TechServicesClient techServicesClient;
+    @Mock
+    private RoleChangeNotificationService roleChangeNotificationService;
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxService(outboxEventRepository, techServicesClient, roleChangeNotificationService,
+                userProfileRepository, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void enqueueRoleAssignmentUpdate_savesPendingEvent() {
+        UUID entraUserId = UUID.randomUUID();
+
+        outboxService.enqueueRoleAssignmentUpdate(entraUserId);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertThat(event.getEventType()).isEqualTo(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT);
+        assertThat(event.getAggregateId()).isEqualTo(entraUserId);
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getIdempotencyKey()).isNotBlank();
+        assertThat(event.getNextAttemptAt()).isNotNull();
+    }
+
+    @Test
+    void enqueueRoleAssignmentUpdate_recordsANewEventWhenThePendingOneIsLeasedBeforeTheEditCommits() {
+        UUID entraUserId = UUID.randomUUID();
+        OutboxEvent pending = roleAssignmentEvent(entraUserId, LocalDateTime.now().minusMinutes(1));
+        when(outboxEventRepository.findDueEventsForUpdateSkipLocked(any(), eq(10))).thenReturn(List.of(pending));
+
+        // The relay leases the pending event while the edit's transaction is still open
+        assertThat(outboxService.leaseDueEvents(10)).containsExactly(pending);
+        outboxService.enqueueRoleAssignmentUpdate(entraUserId);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertThat(captor.getValue().getAggregateId()).isEqualTo(entraUserId);
+        assertThat(captor.getValue().getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(pending.getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+    }
+
+    @Test
+    void leaseDueEvents_coalescesRoleAssignmentsForTheSameUserIntoTheNewest() {
+        UUID entraUserId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent oldest = roleAssignmentEvent(entraUserId, now.minusMinutes(3));
+        OutboxEvent newest = roleAssignmentEvent(entraUserId, now.minusMinutes(1));
+        OutboxEvent older = roleAssignmentEvent(entraUserId, now.minusMinutes(2));
+        OutboxEvent otherUser = roleAssignmentEvent(UUID.randomUUID(), now.minusMinutes(2));
+        when(outboxEventRepository.findDueEventsForUpdateSkipLocked(any(), eq(10)))
+                .thenReturn(List.of(oldest, older, otherUser, newest));
+
+        List<OutboxEvent> leased = outboxService.leaseDueEvents(10);
+
+        assertThat(leased).containsExactly(otherUser, newest);
+        assertThat(newest.getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+        assertThat(List.of(oldest, older)).allSatisfy(event -> {
+            assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.SENT);
+            assertThat(event.getProcessedAt()).isNotNull();
+            assertThat(event.getAttempts()).isZero();
+        });
+        verify(outboxEventRepository).saveAll(List.of(oldest, older, otherUser, newest));
+        assertThat(meterRegistry.counter("outbox.events.coalesced", "type", "TECH_SERVICES_ROLE_ASSIGNMENT").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void enqueueCcmsRoleChanges_savesOneEventPerChangedApp() throws Exception {
+        UserProfile userProfile = UserProfile.builder().id(UUID.randomUUID()).userType(UserType.EXTERNAL).build();
+        CcmsRoleChangeMessage message = new CcmsRoleChangeMessage("app-oid", "EXTERNAL", "group", "{}");
+        when(roleChangeNotificationService.buildRoleChangeMessage(userProfile, "app-oid", Set.of("NEW"), Set.of("OLD")))
+                .thenReturn(Optional.of(message));
+        when(roleChangeNotificationService.buildRoleChangeMessage(userProfile, "unchanged-oid", Set.of("SAME"), Set.of("SAME")))
+                .thenReturn(Optional.empty());
+
+        outboxService.enqueueCcmsRoleChanges(userProfile,
+                Map.of("app-oid", Set.of("NEW"), "unchanged-oid", Set.of("SAME")),
+                Map.of("app-oid", Set.of("OLD"), "unchanged-oid", Set.of("SAME")));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertThat(event.getEventType()).isEqualTo(OutboxEventType.CCMS_ROLE_CHANGE);
+        assertThat(event.getAggregateId()).isEqualTo(userProfile.getId());
+        assertThat(objectMapper.readValue(event.getPayload(), CcmsRoleChangeMessage.class)).isEqualTo(message);
+    }
+
+    @Test
+    void leaseDueEvents_marksEventsAsProcessing() {
+        OutboxEvent event = OutboxEvent.builder().id(UUID.randomUUID())
+                .eventType(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT).aggregateId(UUID.randomUUID())
+                .idempotencyKey("key").nextAttemptAt(LocalDateTime.now()).createdAt(LocalDateTime.now()).build();
+        when(outboxEventRepository.findDueEventsForUpdateSkipLocked(any(), eq(10))).thenReturn(List.of(event));
+
+        List<OutboxEvent> leased = outboxService.leaseDueEvents(10);
+
+        assertThat(leased).containsExactly(event);
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLockedBy()).isNotBlank();
+        assertThat(event.getLockedUntil()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void publish_roleAssignment_callsTechServicesAndMarksSent() throws Exception {
+        OutboxEvent event = leasedEvent(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT, null);
+        when(outboxEventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        outboxService.publish(event);
+
+        verify(techServicesClient).updateRoleAssignment(event.getAggregateId());
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.SENT);
+        assertThat(event.getProcessedAt()).isNotNull();
+        assertThat(event.getLockedBy()).isNull();
+        assertThat(meterRegistry.counter("outbox.events.sent", "type", "TECH_SERVICES_ROLE_ASSIGNMENT").count()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_ccmsRoleChange_usesIdempotencyKeyAsDeduplicationId() throws Exception {
+        CcmsRoleChangeMessage message = new CcmsRoleChangeMessage("app-oid", "EXTERNAL", "group", "{}");
+        OutboxEvent event = leasedEvent(OutboxEventType.CCMS_ROLE_CHANGE, objectMapper.writeValueAsString(message));
+        UserProfile profile = UserProfile.builder().id(event.getAggregateId()).build();
+        when(outboxEventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(roleChangeNotificationService.submitRoleChangeMessage(message, event.getIdempotencyKey()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of("message-id")));
+        when(userProfileRepository.findById(event.getAggregateId())).thenReturn(Optional.of(profile));
+
+        outboxService.publish(event);
+
+        assertThat(profile.isLastCcmsSyncSuccessful()).isTrue();
+        verify(userProfileRepository).save(profile);
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.SENT);
+    }
+
+    @Test
+    void completeCcmsRoleChange_withoutQueueMarksSentWithoutTouchingProfile() {
+        OutboxEvent event = leasedEvent(OutboxEventType.CCMS_ROLE_CHANGE, "{}");
+        when(outboxEventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        outboxService.completeCcmsRoleChange(event, Optional.empty());
+
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.SENT);
+        verify(userProfileRepository, never()).findById(any());
+    }
+
+    @Test
+    void recordFailure_reschedulesWithBackoff() {
+        OutboxEvent event = leasedEvent(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT, null);
+        event.setAttempts(2);
+        when(outboxEventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        outboxService.recordFailure(event.getId(), new RuntimeException("boom"));
+
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getLastError()).isEqualTo("boom");
+        assertThat(event.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(9));
+        assertThat(event.getLockedBy()).isNull();
+        verify(outboxEventRepository).save(event);
+    }
+
+    @Test
+    void recordFailure_parksEventAfterMaxAttempts() {
+        OutboxEvent event = leasedEvent(OutboxEventType.CCMS_ROLE_CHANGE, "{}");
+        event.setAttempts(8);
+        UserProfile profile = UserProfile.builder().id(event.getAggregateId()).lastCcmsSyncSuccessful(true).build();
+        when(outboxEventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(userProfileRepository.findById(event.getAggregateId())).thenReturn(Optional.of(profile));
+
+        outboxService.recordFailure(event.getId(), new RuntimeException("boom"));
+
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.FAILED);
+        assertThat(profile.isLastCcmsSyncSuccessful()).isFalse();
+        assertThat(meterRegistry.counter("outbox.events.failed", "type", "CCMS_ROLE_CHANGE").count()).isEqualTo(1);
+    }
+
+    @Test
+    void backoff_growsExponentiallyUpToMaximum() {
+        assertThat(outboxService.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(outboxService.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(outboxService.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(outboxService.backoff(30)).isEqualTo(Duration.ofSeconds(900));
+    }
+
+    @Test
+    void purgeSentEvents_deletesOldSentEvents() {
+        when(outboxEventRepository.deleteByStatusAndProcessedAtBefore(eq(OutboxEventStatus.SENT), any())).thenReturn(3);
+
+        assertThat(outboxService.purgeSentEvents(Duration.ofDays(7))).isEqualTo(3);
+    }
+
+    private OutboxEvent leasedEvent(OutboxEventType type, String payload) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .eventType(type)
+                .aggregateId(UUID.randomUUID())
+                .idempotencyKey(UUID.randomUUID().toString())
+                .payload(payload)
+                .status(OutboxEventStatus.PROCESSING)
+                .attempts(1)
+                .lockedBy("instance")
+                .lockedUntil(LocalDateTime.now().plusSeconds(60))
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static OutboxEvent roleAssignmentEvent(UUID entraUserId, LocalDateTime createdAt) {
+        return OutboxEvent.builder().id(UUID.randomUUID())
+                .eventType(OutboxEventType.TECH_SERVICES_ROLE_ASSIGNMENT).aggregateId(entraUserId)
+                .idempotencyKey(UUID.randomUUID().toString()).nextAttemptAt(createdAt).createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,143 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ReportStreamingServiceTest {
+
+    private static final CsvSchema SCHEMA = CsvSchema.builder()
+            .addColumn("Name")
+            .addColumn("Count")
+            .setUseHeader(true)
+            .build();
+
+    @Mock
+    private ReportUploadService reportUploadService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReportStreamingService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ReportStreamingService(reportUploadService, meterRegistry, transactionManager);
+    }
+
+    @Test
+    void writesZippedCsvToTheOutputStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.write("test", "test-report.csv", SCHEMA, writer -> {
+            writer.accept(List.of("Firm A", 5));
+            writer.accept(List.of("Firm B", 0));
+        }, out);
+
+        assertThat(rows).isEqualTo(2L);
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry = zip.getNextEntry();
+            assertThat(entry.getName()).isEqualTo("test-report.csv");
+            assertThat(new String(zip.readAllBytes(), StandardCharsets.UTF_8).lines())
+                    .containsExactly("Name,Count", "\"Firm A\",5", "\"Firm B\",0");
+            assertThat(zip.getNextEntry()).isNull();
+        }
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void writesPlainCsvWhenCompressionIsDisabled() throws Exception {
+        ReflectionTestUtils.setField(service, "compressionEnabled", false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.write("test", "test-report.csv", SCHEMA, writer -> writer.accept(List.of("Firm A", 5)), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly("Name,Count", "\"Firm A\",5");
+    }
+
+    @Test
+    void recordsRowsAndThroughputPerReport() throws Exception {
+        service.write("test", "test-report.csv", SCHEMA, writer -> {
+            for (int i = 0; i < 100; i++) {
+                writer.accept(List.of("Firm " + i, i));
+            }
+        }, new ByteArrayOutputStream());
+
+        assertThat(meterRegistry.get("report.rows").tag("report", "test").counter().count()).isEqualTo(100.0);
+        assertThat(meterRegistry.get("report.generation").tag("report", "test").timer().count()).isEqualTo(1L);
+        assertThat(meterRegistry.get("report.rows.per.second").tag("report", "test").summary().totalAmount())
+                .isPositive();
+    }
+
+    @Test
+    void uploadsTheZipAndDeletesItAfterwards() throws Exception {
+        AtomicReference<File> uploaded = new AtomicReference<>();
+        doAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            assertThat(file).exists().hasName("test-report.zip");
+            uploaded.set(file);
+            return null;
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("test_reports"));
+
+        long rows = service.upload("test", "test-report", "test_reports", SCHEMA,
+                writer -> writer.accept(List.of("Firm A", 5)));
+
+        assertThat(rows).isEqualTo(1L);
+        assertThat(uploaded.get()).doesNotExist();
+        assertThat(uploaded.get().getParentFile()).doesNotExist();
+    }
+
+    @Test
+    void doesNotUploadWhenTheCheckBeforeUploadFails() {
+        assertThatThrownBy(() -> service.upload("test", "test-report", "test_reports", SCHEMA,
+                writer -> writer.accept(List.of("Firm A", 5)), () -> {
+                    throw new DistributedLockService.LockLostException("lost");
+                }))
+                .isInstanceOf(DistributedLockService.LockLostException.class);
+        verifyNoInteractions(reportUploadService);
+    }
+
+    @Test
+    void deletesTheFileWhenTheUploadFails() throws Exception {
+        AtomicReference<File> uploaded = new AtomicReference<>();
+        doAnswer(invocation -> {
+            uploaded.set(invocation.getArgument(0));
+            throw new FileNotFoundException("gone");
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("test_reports"));
+
+        assertThatThrownBy(() -> service.upload("test", "test-report", "test_reports", SCHEMA, writer -> { }))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Failed to generate test report");
+        assertThat(uploaded.get()).doesNotExist();
+    }
+}
@@ -1,10 +1,12 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
 import com.microsoft.graph.drives.item.items.ItemsRequestBuilder;
+import com.microsoft.graph.drives.item.items.item.createuploadsession.CreateUploadSessionRequestBuilder;
 import com.microsoft.graph.drives.item.items.item.DriveItemItemRequestBuilder;
 import com.microsoft.graph.models.Drive;
 import com.microsoft.graph.models.DriveItem;
 import com.microsoft.graph.models.Site;
+import com.microsoft.graph.models.UploadSession;
 import com.microsoft.graph.serviceclient.GraphServiceClient;
 import com.microsoft.graph.sites.SitesRequestBuilder;
 import com.microsoft.graph.sites.item.SiteItemRequestBuilder;
@@ -17,16 +19,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.justice.laa.portal.landingpage.config.GraphClientConfig;
+import uk.gov.justice.laa.portal.landingpage.service.GraphUploadSessionClient.UploadSessionExpiredException;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
@@ -40,11 +49,18 @@ class ReportUploadServiceTest {
     @Mock
     private GraphServiceClient graphClient;
 
+    @Mock
+    private GraphUploadSessionClient graphUploadSessionClient;
+
     @InjectMocks
     private ReportUploadService reportUploadService;
 
     private File testFile;
 
+    private SiteItemRequestBuilder siteItemBuilder;
+    private DriveItemItemRequestBuilder driveItemItemBuilder;
+    private com.microsoft.graph.drives.item.items.item.content.ContentRequestBuilder contentBuilder;
+
     @BeforeEach
     void setup() throws Exception {
         // Create a temporary test CSV file
@@ -163,4 +179,103 @@ class ReportUploadServiceTest {
         verify(graphClient, times(2)).sites();
         verify(graphClient, times(2)).drives();
     }
+
+    @Test
+    void uploadCsvToSharePoint_resolvesDriveOnceAcrossUploads() throws Exception {
+        stubGraph();
+        when(contentBuilder.put(any())).thenReturn(mock(DriveItem.class));
+
+        reportUploadService.uploadCsvToSharePoint(testFile, "reports");
+        reportUploadService.uploadCsvToSharePoint(testFile, "reports");
+
+        verify(graphClient, times(2)).sites();
+        verify(siteItemBuilder, times(1)).get();
+        verify(contentBuilder, times(2)).put(any());
+    }
+
+    @Test
+    void uploadCsvToSharePoint_largeFileUsesUploadSession() throws Exception {
+        ReflectionTestUtils.setField(reportUploadService, "simpleUploadMaxBytes", 10L);
+        stubGraph();
+        CreateUploadSessionRequestBuilder sessionBuilder = mock(CreateUploadSessionRequestBuilder.class);
+        when(driveItemItemBuilder.createUploadSession()).thenReturn(sessionBuilder);
+        when(sessionBuilder.post(any())).thenReturn(uploadSession("https://upload.example/session-1"));
+        when(graphUploadSessionClient.upload("https://upload.example/session-1", testFile.toPath())).thenReturn("item-1");
+
+        reportUploadService.uploadCsvToSharePoint(testFile, "reports");
+
+        verify(graphUploadSessionClient).upload("https://upload.example/session-1", testFile.toPath());
+        verify(driveItemItemBuilder, never()).content();
+    }
+
+    @Test
+    void uploadCsvToSharePoint_restartsExpiredUploadSessionOnce() throws Exception {
+        ReflectionTestUtils.setField(reportUploadService, "simpleUploadMaxBytes", 10L);
+        stubGraph();
+        CreateUploadSessionRequestBuilder sessionBuilder = mock(CreateUploadSessionRequestBuilder.class);
+        when(driveItemItemBuilder.createUploadSession()).thenReturn(sessionBuilder);
+        when(sessionBuilder.post(any()))
+                .thenReturn(uploadSession("https://upload.example/session-1"))
+                .thenReturn(uploadSession("https://upload.example/session-2"));
+        when(graphUploadSessionClient.upload(eq("https://upload.example/session-1"), any(Path.class)))
+                .thenThrow(new UploadSessionExpiredException("gone"));
+        when(graphUploadSessionClient.upload(eq("https://upload.example/session-2"), any(Path.class)))
+                .thenReturn("item-1");
+
+        reportUploadService.uploadCsvToSharePoint(testFile, "reports");
+
+        verify(sessionBuilder, times(2)).post(any());
+    }
+
+    @Test
+    void uploadCsvToSharePoint_failsWhenUploadSessionKeepsExpiring() throws Exception {
+        ReflectionTestUtils.setField(reportUploadService, "simpleUploadMaxBytes", 10L);
+        stubGraph();
+        CreateUploadSessionRequestBuilder sessionBuilder = mock(CreateUploadSessionRequestBuilder.class);
+        when(driveItemItemBuilder.createUploadSession()).thenReturn(sessionBuilder);
+        when(sessionBuilder.post(any())).thenReturn(uploadSession("https://upload.example/session-1"));
+        when(graphUploadSessionClient.upload(eq("https://upload.example/session-1"), any(Path.class)))
+                .thenThrow(new UploadSessionExpiredException("gone"));
+
+        assertThatThrownBy(() -> reportUploadService.uploadCsvToSharePoint(testFile, "reports"))
+                .isInstanceOf(java.io.UncheckedIOException.class)
+                .hasCauseInstanceOf(UploadSessionExpiredException.class);
+        verify(sessionBuilder, times(2)).post(any());
+    }
+
+    private void stubGraph() {
+        Site mockSite = mock(Site.class);
+        when(mockSite.getId()).thenReturn("site-123");
+        Drive mockDrive = mock(Drive.class);
+        when(mockDrive.getId()).thenReturn("drive-456");
+
+        SitesRequestBuilder sitesBuilder = mock(SitesRequestBuilder.class);
+        siteItemBuilder = mock(SiteItemRequestBuilder.class);
+        DriveRequestBuilder driveBuilder = mock(DriveRequestBuilder.class);
+        when(graphClient.sites()).thenReturn(sitesBuilder);
+        when(sitesBuilder.bySiteId(anyString())).thenReturn(siteItemBuilder);
+        when(siteItemBuilder.get()).thenReturn(mockSite);
+        when(siteItemBuilder.drive()).thenReturn(driveBuilder);
+        when(driveBuilder.get()).thenReturn(mockDrive);
+
+        DrivesRequestBuilder drivesBuilder = mock(DrivesRequestBuilder.class);
+        DriveItemRequestBuilder driveItemRequestBuilder = mock(DriveItemRequestBuilder.class);
+        ItemsRequestBuilder itemsBuilder = mock(ItemsRequestBuilder.class);
+        driveItemItemBuilder = mock(DriveItemItemRequestBuilder.class);
+        contentBuilder = mock(com.microsoft.graph.drives.item.items.item.content.ContentRequestBuilder.class);
+        when(graphClient.drives()).thenReturn(drivesBuilder);
+        when(drivesBuilder.byDriveId("drive-456")).thenReturn(driveItemRequestBuilder);
+        when(driveItemRequestBuilder.items()).thenReturn(itemsBuilder);
+        when(itemsBuilder.byDriveItemId(anyString())).thenReturn(driveItemItemBuilder);
+        when(driveItemItemBuilder.get()).thenThrow(new RuntimeException("404"));
+        lenient().when(driveItemItemBuilder.content()).thenReturn(contentBuilder);
+
+        when(graphClientConfig.graphUploadClient()).thenReturn(graphClient);
+    }
+
+    private static UploadSession uploadSession(String uploadUrl) {
+        UploadSession session = new UploadSession();
+        session.setUploadUrl(uploadUrl);
+        return session;
+    }
 }
@@ -1,28 +1,31 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
 import java.io.File;
-import java.io.IOException;
+import java.io.FileNotFoundException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.Mockito.anyList;
-import static org.mockito.Mockito.anyMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -30,7 +33,6 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 public class RoleAssignmentMatrixReportServiceTest {
 
-    @InjectMocks
     private RoleAssignmentMatrixReportService matrixReportService;
 
     @Mock
@@ -42,11 +44,16 @@ public class RoleAssignmentMatrixReportServiceTest {
     @Mock
     private ReportUploadService reportUploadService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
-
-        matrixReportService = Mockito.spy(new RoleAssignmentMatrixReportService(firmRepository, appRoleRepository,
-                reportUploadService));
+        ReportStreamingService reportStreamingService =
+                new ReportStreamingService(reportUploadService, new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(reportStreamingService, "compressionEnabled", false);
+        matrixReportService = new RoleAssignmentMatrixReportService(firmRepository, appRoleRepository,
+                reportStreamingService);
     }
 
     private Tuple mockResponse(
@@ -59,16 +66,27 @@ public class RoleAssignmentMatrixReportServiceTest {
         Tuple t = Mockito.mock(Tuple.class);
 
         when(t.get("firmId", UUID.class)).thenReturn(firmId);
-        when(t.get("firmName", String.class)).thenReturn(firmName);
-        when(t.get("firmCode", String.class)).thenReturn(firmCode);
+        Mockito.lenient().when(t.get("firmName", String.class)).thenReturn(firmName);
+        Mockito.lenient().when(t.get("firmCode", String.class)).thenReturn(firmCode);
         when(t.get("roleName", String.class)).thenReturn(roleName);
         when(t.get("userCount", Number.class)).thenReturn(count);
 
         return t;
     }
 
+    private List<String> captureUploadedLines() throws Exception {
+        List<String> lines = new ArrayList<>();
+        doAnswer(invocation -> {
+            File csv = invocation.getArgument(0);
+            assertThat(csv.getName()).startsWith("SiLAS-role-assignment-matrix-report-").endsWith(".csv");
+            lines.addAll(Files.readAllLines(csv.toPath()));
+            return null;
+        }).when(reportUploadService).uploadCsvToSharePoint(any(File.class), eq("role_assignment_matrix_reports"));
+        return lines;
+    }
+
     @Test
-    void generatesCorrectReport() throws IOException {
+    void generatesCorrectReport() throws Exception {
         UUID firm1 = UUID.randomUUID();
         UUID firm2 = UUID.randomUUID();
 
@@ -78,22 +96,11 @@ public class RoleAssignmentMatrixReportServiceTest {
         Tuple row2 = mockResponse(firm1, "Firm1", "F1", "ROLE_2", 1);
         Tuple row3 = mockResponse(firm2, "Firm2", "F2", "ROLE_1", 5);
 
-        when(firmRepository.findRoleCountsByFirm()).thenReturn(List.of(row1, row2, row3));
-
-        AtomicReference<File> generated = new AtomicReference<>();
-        doAnswer(invocation -> {
-            File f = (File) invocation.callRealMethod();
-            generated.set(f);
-            return f;
-        }).when(matrixReportService).writeToCsv(anyList(), anyMap());
+        when(firmRepository.findRoleCountsByFirm()).thenReturn(Stream.of(row1, row2, row3));
+        List<String> lines = captureUploadedLines();
 
         matrixReportService.getRoleAssignmentMatrixReport();
 
-        File csvFile = generated.get();
-        assertThat(csvFile).as("CSV file should be generated").isNotNull();
-        assertThat(csvFile).exists();
-
-        List<String> lines = Files.readAllLines(csvFile.toPath());
         assertThat(lines).containsExactly(
                 "\"Firm Name\",\"Firm Code\",ROLE_1,ROLE_2",
                 "Firm1,F1,2,1",
@@ -102,16 +109,35 @@ public class RoleAssignmentMatrixReportServiceTest {
     }
 
     @Test
-    void propagatesFailureWhenCsvWriteFails() {
+    void keepsFirmsWithTheSameNameApart() throws Exception {
+        when(appRoleRepository.getExternalRoleNames()).thenReturn(List.of("ROLE_1"));
+
+        Tuple row1 = mockResponse(UUID.randomUUID(), "Firm", "F1", "ROLE_1", 2);
+        Tuple row2 = mockResponse(UUID.randomUUID(), "Firm", "F2", "ROLE_1", 3);
+
+        when(firmRepository.findRoleCountsByFirm()).thenReturn(Stream.of(row1, row2));
+        List<String> lines = captureUploadedLines();
+
+        matrixReportService.getRoleAssignmentMatrixReport();
+
+        assertThat(lines).containsExactly(
+                "\"Firm Name\",\"Firm Code\",ROLE_1",
+                "Firm,F1,2",
+                "Firm,F2,3"
+        );
+    }
+
+    @Test
+    void propagatesFailureWhenUploadFails() throws Exception {
         when(appRoleRepository.getExternalRoleNames()).thenReturn(List.of("ROLE_1"));
-        when(firmRepository.findRoleCountsByFirm()).thenReturn(List.of());
+        when(firmRepository.findRoleCountsByFirm()).thenReturn(Stream.empty());
 
-        doThrow(new UncheckedIOException("Failed to write role assignment matrix csv", new IOException("boom")))
-                .when(matrixReportService)
-                .writeToCsv(anyList(), anyMap());
+        doThrow(new FileNotFoundException("boom"))
+                .when(reportUploadService)
+                .uploadCsvToSharePoint(any(File.class), eq("role_assignment_matrix_reports"));
 
         assertThatThrownBy(() -> matrixReportService.getRoleAssignmentMatrixReport())
                 .isInstanceOf(UncheckedIOException.class)
-                .hasMessageContaining("Failed to write role assignment matrix csv");
+                .hasMessageContaining("Failed to generate role-assignment-matrix report");
     }
-}
\ No newline at end of file
+}
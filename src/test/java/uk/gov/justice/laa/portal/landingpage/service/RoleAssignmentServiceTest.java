@@ -17,6 +17,7 @@ import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
 import uk.gov.justice.laa.portal.landingpage.entity.RoleAssignment;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+import uk.gov.justice.laa.portal.landingpage.repository.AppCatalogueVersionRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.AppRoleRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.RoleAssignmentRepository;
@@ -54,6 +55,8 @@ public class RoleAssignmentServiceTest {
     private AppRepository appRepository;
     @Mock
     private EventService eventService;
+    @Mock
+    private AppCatalogueVersionRepository appCatalogueVersionRepository;
 
     private final UUID gbAdminId = UUID.randomUUID();
     private final UUID exAdminId = UUID.randomUUID();
@@ -70,7 +73,8 @@ public class RoleAssignmentServiceTest {
     @BeforeEach
     void setUp() {
         mapper = new MapperConfig().modelMapper();
-        roleAssignmentService = new RoleAssignmentService(roleAssignmentRepository, appRepository, appRoleRepository, mapper, eventService);
+        roleAssignmentService = new RoleAssignmentService(roleAssignmentRepository, appRepository, appRoleRepository, mapper, eventService,
+                appCatalogueVersionRepository);
         app = App.builder().id(UUID.randomUUID()).name("app").securityGroupOid("sec_grp_oid").build();
         gbAdmin = AppRole.builder().id(gbAdminId).name("globalAdmin").description("appRole1").userTypeRestriction(new UserType[] {UserType.EXTERNAL}).app(app).authzRole(true).build();
         exAdmin = AppRole.builder().id(exAdminId).name("externalAdmin").description("appRole2").userTypeRestriction(new UserType[] {UserType.EXTERNAL}).app(app).authzRole(true).build();
@@ -308,6 +312,7 @@ public class RoleAssignmentServiceTest {
 
         verify(roleAssignmentRepository).deleteByAssignableRole(targetRole);
         verify(roleAssignmentRepository, never()).saveAll(any());
+        verify(appCatalogueVersionRepository).incrementVersion();
     }
 
     @Test
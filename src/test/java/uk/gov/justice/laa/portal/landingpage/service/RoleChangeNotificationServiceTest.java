@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
@@ -41,6 +43,7 @@ import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
 import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.entity.UserType;
+import uk.gov.justice.laa.portal.landingpage.model.CcmsRoleChangeMessage;
 import uk.gov.justice.laa.portal.landingpage.registry.SqsClientRegistry;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
@@ -59,6 +62,8 @@ class RoleChangeNotificationServiceTest {
     private ObjectMapper objectMapper;
     @Mock
     private UserProfileRepository userProfileRepository;
+    @Mock
+    private SqsBatchPublisher sqsBatchPublisher;
     private RoleChangeNotificationService roleChangeNotificationService;
     private UserProfile userProfile;
     private AppRole puiRole1;
@@ -74,7 +79,7 @@ class RoleChangeNotificationServiceTest {
         logAppender.start();
         logger.addAppender(logAppender);
         logger.setLevel(ch.qos.logback.classic.Level.DEBUG);
-        roleChangeNotificationService = new RoleChangeNotificationService(sqsClientRegistry, objectMapper, userProfileRepository);
+        roleChangeNotificationService = new RoleChangeNotificationService(sqsClientRegistry, objectMapper, userProfileRepository, sqsBatchPublisher);
         EntraUser entraUser = EntraUser.builder()
                 .id(UUID.randomUUID())
                 .entraOid("test-entra-oid")
@@ -250,6 +255,38 @@ class RoleChangeNotificationServiceTest {
         verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
     }
 
+    @Test
+    void submitRoleChangeMessage_queuesMessageOnBatchPublisher() {
+        CcmsRoleChangeMessage message = new CcmsRoleChangeMessage("test", "EXTERNAL", "group-id", "{\"body\":1}");
+        when(sqsClientRegistry.getSqsClient("test")).thenReturn(Optional.of(sqsClient));
+        when(sqsClientRegistry.getSqsQueueUrl("test")).thenReturn(Optional.of(QUEUE_URL));
+        when(sqsBatchPublisher.submit(eq(sqsClient), any(SendMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture("message-id"));
+
+        Optional<String> result = roleChangeNotificationService.submitRoleChangeMessage(message, "dedup-id").join();
+
+        assertThat(result).contains("message-id");
+        verify(sqsBatchPublisher).submit(eq(sqsClient), argThat((SendMessageRequest request) ->
+                request.queueUrl().equals(QUEUE_URL)
+                        && request.messageBody().equals("{\"body\":1}")
+                        && request.messageGroupId().equals("group-id")
+                        && request.messageDeduplicationId().equals("dedup-id")
+                        && request.messageAttributes().get("userType").stringValue().equals("EXTERNAL")));
+        verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
+    }
+
+    @Test
+    void submitRoleChangeMessage_returnsEmptyWhenQueueIsNone() {
+        CcmsRoleChangeMessage message = new CcmsRoleChangeMessage("test", "EXTERNAL", "group-id", "{}");
+        when(sqsClientRegistry.getSqsClient("test")).thenReturn(Optional.of(sqsClient));
+        when(sqsClientRegistry.getSqsQueueUrl("test")).thenReturn(Optional.of(QUEUE_URL_NONE));
+
+        Optional<String> result = roleChangeNotificationService.submitRoleChangeMessage(message, "dedup-id").join();
+
+        assertThat(result).isEmpty();
+        verify(sqsBatchPublisher, never()).submit(any(), any());
+    }
+
     @Test
     void shouldBulkProcessCcmsRoleSync() {
         // Arrange
@@ -0,0 +1,213 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqsBatchPublisherTest {
+
+    private static final String QUEUE_A = "https://sqs.eu-west-2.amazonaws.com/123456789/queue-a.fifo";
+    private static final String QUEUE_B = "https://sqs.eu-west-2.amazonaws.com/123456789/queue-b.fifo";
+
+    private FakeSqsClient sqsClient;
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledExecutorService flushExecutor;
+
+    @BeforeEach
+    void setUp() {
+        sqsClient = new FakeSqsClient();
+        meterRegistry = new SimpleMeterRegistry();
+        flushExecutor = Executors.newScheduledThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flushExecutor.shutdownNow();
+    }
+
+    @Test
+    void submit_sendsFullBatchesAsSoonAsTheyFill() {
+        SqsBatchPublisher publisher = publisher(60_000);
+
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 20);
+
+        assertThat(CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)))
+                .succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(sqsClient.batchRequests()).hasSize(2)
+                .allSatisfy(batch -> assertThat(batch.entries()).hasSize(SqsBatchPublisher.MAX_BATCH_SIZE));
+        assertThat(sqsClient.singleRequests()).isEmpty();
+        assertThat(results).allSatisfy(result -> assertThat(result.join()).startsWith("message-"));
+    }
+
+    @Test
+    void submit_flushesPartialBatchAfterLinger() {
+        SqsBatchPublisher publisher = publisher(20);
+
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 3);
+
+        assertThat(CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)))
+                .succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(sqsClient.batchRequests()).singleElement()
+                .satisfies(batch -> assertThat(batch.entries()).hasSize(3));
+        assertThat(sqsClient.deliveredBodies(QUEUE_A)).containsExactly("body-0", "body-1", "body-2");
+    }
+
+    @Test
+    void submit_keepsQueuesInSeparateBatches() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        submit(publisher, QUEUE_A, 2);
+        submit(publisher, QUEUE_B, 3);
+
+        publisher.flush();
+
+        assertThat(sqsClient.batchRequests()).extracting(SendMessageBatchRequest::queueUrl)
+                .containsExactlyInAnyOrder(QUEUE_A, QUEUE_B);
+        assertThat(sqsClient.deliveredBodies(QUEUE_A)).hasSize(2);
+        assertThat(sqsClient.deliveredBodies(QUEUE_B)).hasSize(3);
+    }
+
+    @Test
+    void submit_preservesMessageAttributesInBatchEntries() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        SendMessageRequest request = request(QUEUE_A, "body").toBuilder()
+                .messageGroupId("group")
+                .messageDeduplicationId("dedup")
+                .build();
+
+        publisher.submit(sqsClient, request);
+        publisher.flush();
+
+        assertThat(sqsClient.batchRequests()).singleElement().satisfies(batch -> {
+            assertThat(batch.entries().getFirst().messageGroupId()).isEqualTo("group");
+            assertThat(batch.entries().getFirst().messageDeduplicationId()).isEqualTo("dedup");
+        });
+    }
+
+    @Test
+    void submit_retriesTransientlyFailedEntriesIndividually() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        sqsClient.failInBatch("body-1");
+
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 3);
+        publisher.flush();
+
+        assertThat(results).allSatisfy(result -> assertThat(result).isCompleted());
+        assertThat(results.get(1).join()).startsWith("message-");
+        assertThat(sqsClient.singleRequests()).extracting(SendMessageRequest::messageBody).containsExactly("body-1");
+        assertThat(sqsClient.deliveredBodies(QUEUE_A)).containsExactlyInAnyOrder("body-0", "body-1", "body-2");
+        assertThat(meterRegistry.counter("sqs.batch.entries.retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_retriesTheFailedEntriesOfAGroupInTheOrderTheyWereSubmitted() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        sqsClient.failInBatch("body-1");
+        sqsClient.failInBatch("body-2");
+
+        List<CompletableFuture<String>> results = List.of(
+                publisher.submit(sqsClient, grouped("body-0", "group")),
+                publisher.submit(sqsClient, grouped("body-1", "group")),
+                publisher.submit(sqsClient, grouped("body-2", "group")));
+        publisher.flush();
+
+        assertThat(results).allSatisfy(result -> assertThat(result.join()).startsWith("message-"));
+        assertThat(sqsClient.singleRequests()).extracting(SendMessageRequest::messageBody)
+                .containsExactly("body-1", "body-2");
+        assertThat(sqsClient.deliveredBodies(QUEUE_A)).containsExactly("body-0", "body-1", "body-2");
+    }
+
+    @Test
+    void submit_holdsBackTheRestOfAGroupOnceAnEntryOfItCannotBeSent() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        sqsClient.failInBatch("body-0");
+        sqsClient.failIndividually("body-0");
+        sqsClient.failInBatch("body-1");
+        sqsClient.failInBatch("body-2");
+
+        CompletableFuture<String> first = publisher.submit(sqsClient, grouped("body-0", "group"));
+        CompletableFuture<String> second = publisher.submit(sqsClient, grouped("body-1", "group"));
+        CompletableFuture<String> otherGroup = publisher.submit(sqsClient, grouped("body-2", "other"));
+        publisher.flush();
+
+        assertThatThrownBy(first::join).hasMessageContaining("send failed: body-0");
+        assertThatThrownBy(second::join).hasMessageContaining("earlier message in group group failed");
+        assertThat(otherGroup.join()).startsWith("message-");
+        assertThat(sqsClient.singleRequests()).extracting(SendMessageRequest::messageBody)
+                .containsExactly("body-0", "body-0", "body-0", "body-2");
+        assertThat(sqsClient.deliveredBodies(QUEUE_A)).containsExactly("body-2");
+        assertThat(meterRegistry.counter("sqs.batch.entries.failed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_failsSenderFaultEntriesWithoutRetrying() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        sqsClient.rejectAsSenderFault("body-0");
+
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 2);
+        publisher.flush();
+
+        assertThatThrownBy(results.get(0)::join).isInstanceOf(CompletionException.class)
+                .hasMessageContaining("InvalidParameterValue");
+        assertThat(results.get(1).join()).startsWith("message-");
+        assertThat(sqsClient.singleRequests()).isEmpty();
+        assertThat(meterRegistry.counter("sqs.batch.entries.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_failsEveryEntryWhenTheBatchCallFails() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        RuntimeException failure = new RuntimeException("sqs unavailable");
+        sqsClient.failEveryBatch(failure);
+
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 2);
+        publisher.flush();
+
+        assertThat(results).allSatisfy(result -> assertThatThrownBy(result::join).hasCause(failure));
+        assertThat(meterRegistry.counter("sqs.batch.requests", "result", "failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void onShutdown_flushesBufferedMessages() {
+        SqsBatchPublisher publisher = publisher(60_000);
+        List<CompletableFuture<String>> results = submit(publisher, QUEUE_A, 1);
+
+        publisher.onShutdown();
+
+        assertThat(results.getFirst()).isCompleted();
+        assertThat(flushExecutor.isShutdown()).isTrue();
+    }
+
+    private SqsBatchPublisher publisher(long lingerMillis) {
+        return new SqsBatchPublisher(meterRegistry, lingerMillis, 3, flushExecutor);
+    }
+
+    private List<CompletableFuture<String>> submit(SqsBatchPublisher publisher, String queueUrl, int count) {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(publisher.submit(sqsClient, request(queueUrl, "body-" + i)));
+        }
+        return results;
+    }
+
+    private static SendMessageRequest request(String queueUrl, String body) {
+        return SendMessageRequest.builder().queueUrl(queueUrl).messageBody(body).build();
+    }
+
+    private static SendMessageRequest grouped(String body, String groupId) {
+        return request(QUEUE_A, body).toBuilder().messageGroupId(groupId).messageDeduplicationId(body).build();
+    }
+}
@@ -0,0 +1,233 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.techservices.GetUserResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesApiResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesErrorResponse;
+import uk.gov.justice.laa.portal.landingpage.techservices.TechServicesUser;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TechServicesUserCacheTest {
+
+    private MutableClock clock;
+    private TechServicesUserCache cache;
+    private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        cache = new TechServicesUserCache(clock);
+    }
+
+    @Test
+    void servesCachedUserWithinFreshWindow() {
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(29));
+
+        TechServicesApiResponse<GetUserResponse> response = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(response.getData().getUser().getGivenName()).isEqualTo("Alice");
+        assertThat(lookups("oid-1")).isEqualTo(1);
+    }
+
+    @Test
+    void servesStaleUserAndReloadsInBackground() {
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(60));
+
+        TechServicesApiResponse<GetUserResponse> stale = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(stale.getData().getUser().getGivenName()).isEqualTo("Alice");
+        waitUntil(() -> "Bob".equals(cache.getUser("oid-1", loader("Carol")).getData().getUser().getGivenName()));
+        assertThat(lookups("oid-1")).isEqualTo(2);
+    }
+
+    @Test
+    void reloadsOnTheCallersThreadOnceShutDown() {
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(60));
+        cache.shutdown();
+
+        TechServicesApiResponse<GetUserResponse> stale = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(stale.getData().getUser().getGivenName()).isEqualTo("Alice");
+        assertThat(lookups("oid-1")).isEqualTo(2);
+        assertThat(cache.getUser("oid-1", loader("Carol")).getData().getUser().getGivenName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void reloadsInForegroundOnceStaleWindowHasPassed() {
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(331));
+
+        TechServicesApiResponse<GetUserResponse> response = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(response.getData().getUser().getGivenName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void invalidateForcesNextLookup() {
+        cache.getUser("oid-1", loader("Alice"));
+
+        cache.invalidate("oid-1");
+        TechServicesApiResponse<GetUserResponse> response = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(response.getData().getUser().getGivenName()).isEqualTo("Bob");
+        assertThat(lookups("oid-1")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheLookupThatRacedWithInvalidation() {
+        Function<String, TechServicesApiResponse<GetUserResponse>> racingLoader = oid -> {
+            cache.invalidate(oid);
+            return loader("Alice").apply(oid);
+        };
+
+        cache.getUser("oid-1", racingLoader);
+        TechServicesApiResponse<GetUserResponse> response = cache.getUser("oid-1", loader("Bob"));
+
+        assertThat(response.getData().getUser().getGivenName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void doesNotCacheErrors() {
+        Function<String, TechServicesApiResponse<GetUserResponse>> failing = oid -> {
+            lookups.computeIfAbsent(oid, key -> new AtomicInteger()).incrementAndGet();
+            return TechServicesApiResponse.error(TechServicesErrorResponse.builder().code("500").build());
+        };
+
+        assertThat(cache.getUser("oid-1", failing).isSuccess()).isFalse();
+        assertThat(cache.getUser("oid-1", failing).isSuccess()).isFalse();
+
+        assertThat(lookups("oid-1")).isEqualTo(2);
+    }
+
+    @Test
+    void failedReloadDropsTheCachedUser() {
+        Function<String, TechServicesApiResponse<GetUserResponse>> failing = oid ->
+                TechServicesApiResponse.error(TechServicesErrorResponse.builder().code("500").build());
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(60));
+
+        cache.getUser("oid-1", failing);
+        waitUntil(() -> !cache.getUser("oid-1", loader("Bob")).getData().getUser().getGivenName().equals("Alice"));
+
+        assertThat(cache.getUser("oid-1", loader("Carol")).getData().getUser().getGivenName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void concurrentMissesShareOneLookup() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, TechServicesApiResponse<GetUserResponse>> slowLoader = oid -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader("Alice").apply(oid);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TechServicesApiResponse<GetUserResponse>>> results = List.of(
+                    executor.submit(() -> cache.getUser("oid-1", slowLoader)),
+                    executor.submit(() -> cache.getUser("oid-1", slowLoader)),
+                    executor.submit(() -> cache.getUser("oid-1", slowLoader)),
+                    executor.submit(() -> cache.getUser("oid-1", slowLoader)));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<TechServicesApiResponse<GetUserResponse>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(lookups("oid-1")).isEqualTo(1);
+    }
+
+    @Test
+    void evictsOldestEntriesWhenFull() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.getUser("oid-1", loader("Alice"));
+        clock.advance(Duration.ofSeconds(1));
+        cache.getUser("oid-2", loader("Bob"));
+        clock.advance(Duration.ofSeconds(1));
+        cache.getUser("oid-3", loader("Carol"));
+
+        cache.getUser("oid-2", loader("Bob"));
+        cache.getUser("oid-1", loader("Alice"));
+
+        assertThat(lookups("oid-2")).isEqualTo(1);
+        assertThat(lookups("oid-1")).isEqualTo(2);
+    }
+
+    private Function<String, TechServicesApiResponse<GetUserResponse>> loader(String givenName) {
+        return oid -> {
+            lookups.computeIfAbsent(oid, key -> new AtomicInteger()).incrementAndGet();
+            TechServicesUser user = TechServicesUser.builder().id(oid).givenName(givenName).build();
+            return TechServicesApiResponse.success(GetUserResponse.builder().success(true).user(user).build());
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 seconds").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private int lookups(String oid) {
+        AtomicInteger count = lookups.get(oid);
+        return count == null ? 0 : count.get();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
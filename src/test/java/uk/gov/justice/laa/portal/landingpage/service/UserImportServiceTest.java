@@ -0,0 +1,362 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+import uk.gov.justice.laa.portal.landingpage.dto.CreateUserAuditEvent;
+import uk.gov.justice.laa.portal.landingpage.dto.CurrentUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.EntraUserDto;
+import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
+import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJob;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportJobStatus;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.exception.TechServicesClientException;
+import uk.gov.justice.laa.portal.landingpage.repository.UserImportJobRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserImportRowRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserImportJobRepository jobRepository;
+    @Mock
+    private UserImportRowRepository rowRepository;
+    @Mock
+    private UserImportValidationService validationService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private FirmService firmService;
+    @Mock
+    private EventService eventService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserImportService service;
+    private UUID firmId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserImportService(jobRepository, rowRepository, validationService, userService, firmService,
+                eventService, meterRegistry, transactionManager, 120, 5, 60);
+        firmId = UUID.randomUUID();
+    }
+
+    @Test
+    void createImport_recordsEveryRowAgainstANewJob() {
+        FirmDto firm = FirmDto.builder().id(firmId).name("Firm One").build();
+        CurrentUserDto requestedBy = new CurrentUserDto();
+        requestedBy.setUserId(UUID.randomUUID());
+        requestedBy.setName("Admin User");
+        InputStream file = new ByteArrayInputStream("csv".getBytes(StandardCharsets.UTF_8));
+        UserImportRow valid = UserImportRow.builder().rowNumber(2).status(UserImportRowStatus.PENDING).build();
+        UserImportRow invalid = UserImportRow.builder().rowNumber(3).status(UserImportRowStatus.INVALID).build();
+        when(validationService.readAndValidate(file)).thenReturn(List.of(valid, invalid));
+        when(jobRepository.save(any(UserImportJob.class))).thenAnswer(invocation -> {
+            UserImportJob job = invocation.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+
+        UserImportJob job = service.createImport(firm, "users.csv", file, requestedBy);
+
+        assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.VALIDATED);
+        assertThat(job.getFirmId()).isEqualTo(firmId);
+        assertThat(job.getFileName()).isEqualTo("users.csv");
+        assertThat(job.getRequestedByName()).isEqualTo("Admin User");
+        assertThat(job.getTotalRows()).isEqualTo(2);
+        assertThat(job.getValidRows()).isEqualTo(1);
+        assertThat(valid.getJobId()).isEqualTo(job.getId());
+        assertThat(invalid.getJobId()).isEqualTo(job.getId());
+        verify(rowRepository).saveAll(List.of(valid, invalid));
+        assertThat(meterRegistry.counter("user.import.rows.invalid").count()).isEqualTo(1);
+    }
+
+    @Nested
+    class Confirm {
+
+        private UUID jobId;
+        private UserImportJob job;
+
+        @BeforeEach
+        void setUp() {
+            jobId = UUID.randomUUID();
+            job = UserImportJob.builder().id(jobId).firmId(firmId).validRows(3).build();
+            when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        }
+
+        @Test
+        void confirmImport_queuesTheJob() {
+            when(jobRepository.existsByFirmIdAndStatusIn(eq(firmId), any())).thenReturn(false);
+
+            assertThat(service.confirmImport(jobId)).isTrue();
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.PENDING);
+            assertThat(job.getNextAttemptAt()).isNotNull();
+            verify(jobRepository).save(job);
+        }
+
+        @Test
+        void confirmImport_waitsForAnotherImportForTheFirm() {
+            when(jobRepository.existsByFirmIdAndStatusIn(eq(firmId), any())).thenReturn(true);
+
+            assertThat(service.confirmImport(jobId)).isFalse();
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.VALIDATED);
+            verify(jobRepository, never()).save(any());
+        }
+
+        @Test
+        void confirmImport_rejectsImportsWithNothingToCreateOrAlreadyConfirmed() {
+            job.setValidRows(0);
+            assertThatThrownBy(() -> service.confirmImport(jobId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("There are no users in the file that can be imported");
+
+            job.setStatus(UserImportJobStatus.RUNNING);
+            assertThatThrownBy(() -> service.confirmImport(jobId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("These users have already been imported");
+        }
+
+        @Test
+        void cancelImport_deletesUnconfirmedImportsOnly() {
+            service.cancelImport(jobId);
+            verify(jobRepository).delete(job);
+
+            job.setStatus(UserImportJobStatus.PENDING);
+            service.cancelImport(jobId);
+            verify(jobRepository).delete(any());
+        }
+    }
+
+    @Nested
+    class CreateNextUsers {
+
+        private UUID jobId;
+        private UserImportJob job;
+        private FirmDto firm;
+        private UUID requestedByEntraOid;
+
+        @BeforeEach
+        void setUp() {
+            jobId = UUID.randomUUID();
+            requestedByEntraOid = UUID.randomUUID();
+            job = UserImportJob.builder().id(jobId).firmId(firmId).validRows(3).status(UserImportJobStatus.RUNNING)
+                    .requestedByEntraOid(requestedByEntraOid).requestedByName("Admin User")
+                    .lockedBy(instanceId()).build();
+            firm = FirmDto.builder().id(firmId).name("Firm One").build();
+            when(jobRepository.findByIdForUpdate(jobId)).thenReturn(Optional.of(job));
+        }
+
+        @Test
+        void createNextUsers_createsEachUserAndRecordsTheOutcome() {
+            UserImportRow created = row(2, "jo@firm.com", true);
+            UserImportRow exists = row(3, "sam@firm.com", false);
+            UserImportRow rejected = row(4, "al@firm.com", false);
+            EntraUser entraUser = EntraUser.builder().id(UUID.randomUUID()).entraOid("oid").build();
+            when(rowRepository.findPendingByJobId(jobId, 10)).thenReturn(List.of(created, exists, rejected));
+            when(firmService.getFirm(firmId)).thenReturn(firm);
+            when(userService.userExistsByEmail(anyString())).thenAnswer(invocation ->
+                    "sam@firm.com".equals(invocation.getArgument(0)));
+            when(userService.createUser(any(EntraUserDto.class), eq(firm), eq(true), eq("Admin User"), eq(false)))
+                    .thenReturn(entraUser);
+            when(userService.createUser(any(EntraUserDto.class), eq(firm), eq(false), eq("Admin User"), eq(false)))
+                    .thenThrow(new TechServicesClientException("User already invited"));
+
+            int attempted = service.createNextUsers(jobId, 10);
+
+            assertThat(attempted).isEqualTo(3);
+            assertThat(created.getStatus()).isEqualTo(UserImportRowStatus.CREATED);
+            assertThat(created.getEntraUserId()).isEqualTo(entraUser.getId());
+            assertThat(exists.getStatus()).isEqualTo(UserImportRowStatus.FAILED);
+            assertThat(exists.getDetail()).isEqualTo("Email address already exists");
+            assertThat(rejected.getStatus()).isEqualTo(UserImportRowStatus.FAILED);
+            assertThat(rejected.getDetail()).isEqualTo("User already invited");
+            verify(rowRepository).save(created);
+            verify(rowRepository).save(exists);
+            verify(rowRepository).save(rejected);
+
+            ArgumentCaptor<EntraUserDto> user = ArgumentCaptor.forClass(EntraUserDto.class);
+            verify(userService).createUser(user.capture(), eq(firm), eq(true), eq("Admin User"), eq(false));
+            assertThat(user.getValue().getEmail()).isEqualTo("jo@firm.com");
+            assertThat(user.getValue().getFullName()).isEqualTo("First Last");
+            ArgumentCaptor<CreateUserAuditEvent> event = ArgumentCaptor.forClass(CreateUserAuditEvent.class);
+            verify(eventService).logEvent(event.capture());
+            assertThat(event.getValue().getUserId()).isEqualTo(requestedByEntraOid);
+
+            assertThat(job.getProcessedRows()).isEqualTo(3);
+            assertThat(job.getCreatedRows()).isEqualTo(1);
+            assertThat(job.getFailedRows()).isEqualTo(2);
+            assertThat(job.getLockedUntil()).isAfter(LocalDateTime.now());
+            verify(jobRepository).save(job);
+        }
+
+        @Test
+        void createNextUsers_leavesTheRowPendingWhenTechServicesIsUnavailable() {
+            UserImportRow row = row(2, "jo@firm.com", false);
+            when(rowRepository.findPendingByJobId(jobId, 10)).thenReturn(List.of(row));
+            when(firmService.getFirm(firmId)).thenReturn(firm);
+            when(userService.createUser(any(EntraUserDto.class), eq(firm), eq(false), eq("Admin User"), eq(false)))
+                    .thenThrow(new RuntimeException("Unexpected error while sending new user creation request",
+                            new ResourceAccessException("Connection refused")));
+
+            assertThatThrownBy(() -> service.createNextUsers(jobId, 10)).isInstanceOf(RuntimeException.class);
+
+            assertThat(row.getStatus()).isEqualTo(UserImportRowStatus.PENDING);
+            verify(rowRepository, never()).save(any());
+        }
+
+        @Test
+        void createNextUsers_failsJustTheRowWhenItsUserCannotBeCreated() {
+            UserImportRow broken = row(2, "jo@firm.com", false);
+            UserImportRow created = row(3, "sam@firm.com", true);
+            EntraUser entraUser = EntraUser.builder().id(UUID.randomUUID()).entraOid("oid").build();
+            when(rowRepository.findPendingByJobId(jobId, 10)).thenReturn(List.of(broken, created));
+            when(firmService.getFirm(firmId)).thenReturn(firm);
+            when(userService.createUser(any(EntraUserDto.class), eq(firm), eq(false), eq("Admin User"), eq(false)))
+                    .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+            when(userService.createUser(any(EntraUserDto.class), eq(firm), eq(true), eq("Admin User"), eq(false)))
+                    .thenReturn(entraUser);
+
+            int attempted = service.createNextUsers(jobId, 10);
+
+            assertThat(attempted).isEqualTo(2);
+            assertThat(broken.getStatus()).isEqualTo(UserImportRowStatus.FAILED);
+            assertThat(broken.getDetail()).isEqualTo("The user could not be created");
+            assertThat(created.getStatus()).isEqualTo(UserImportRowStatus.CREATED);
+            verify(rowRepository).save(broken);
+            assertThat(job.getCreatedRows()).isEqualTo(1);
+            assertThat(job.getFailedRows()).isEqualTo(1);
+        }
+
+        @Test
+        void createNextUsers_returnsZeroWhenNoRowsArePending() {
+            when(rowRepository.findPendingByJobId(jobId, 10)).thenReturn(List.of());
+
+            assertThat(service.createNextUsers(jobId, 10)).isZero();
+        }
+
+        @Test
+        void createNextUsers_failsWhenTheLeaseHasBeenLost() {
+            job.setLockedBy("another-pod");
+
+            assertThatThrownBy(() -> service.createNextUsers(jobId, 10))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(rowRepository, never()).findPendingByJobId(any(), anyInt());
+        }
+
+        private UserImportRow row(int rowNumber, String email, boolean userManager) {
+            return UserImportRow.builder().id(UUID.randomUUID()).jobId(jobId).rowNumber(rowNumber)
+                    .firstName("First").lastName("Last").email(email).userManager(userManager).build();
+        }
+    }
+
+    @Nested
+    class RecordFailure {
+
+        private UUID jobId;
+        private UserImportJob job;
+
+        @BeforeEach
+        void setUp() {
+            jobId = UUID.randomUUID();
+            job = UserImportJob.builder().id(jobId).firmId(firmId).status(UserImportJobStatus.RUNNING)
+                    .lockedBy(instanceId()).processedRows(4).failedRows(1).build();
+            when(jobRepository.findByIdForUpdate(jobId)).thenReturn(Optional.of(job));
+        }
+
+        @Test
+        void recordFailure_retriesAfterABackOff() {
+            job.setAttempts(1);
+
+            service.recordFailure(jobId, new RuntimeException("Tech Services unavailable"));
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.PENDING);
+            assertThat(job.getLockedBy()).isNull();
+            assertThat(job.getNextAttemptAt()).isAfter(LocalDateTime.now());
+            assertThat(job.getLastError()).isEqualTo("Tech Services unavailable");
+            verify(rowRepository, never()).failPending(any(), any(), any());
+        }
+
+        @Test
+        void recordFailure_failsTheRemainingRowsOnceAttemptsAreUsedUp() {
+            job.setAttempts(5);
+            when(rowRepository.failPending(eq(jobId), anyString(), any(LocalDateTime.class))).thenReturn(6);
+
+            service.recordFailure(jobId, new RuntimeException("Tech Services unavailable"));
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.FAILED);
+            assertThat(job.getCompletedAt()).isNotNull();
+            assertThat(job.getProcessedRows()).isEqualTo(10);
+            assertThat(job.getFailedRows()).isEqualTo(7);
+            assertThat(meterRegistry.counter("user.import.jobs.failed").count()).isEqualTo(1);
+        }
+
+        @Test
+        void recordFailure_leavesAnImportLeasedByAnotherInstanceAlone() {
+            job.setAttempts(5);
+            job.setLockedBy("another-pod");
+
+            service.recordFailure(jobId, new IllegalStateException("Lease on user import job has been lost"));
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJobStatus.RUNNING);
+            assertThat(job.getLockedBy()).isEqualTo("another-pod");
+            verify(rowRepository, never()).failPending(any(), any(), any());
+            verify(jobRepository, never()).save(any());
+        }
+    }
+
+    private String instanceId() {
+        return (String) ReflectionTestUtils.getField(service, "instanceId");
+    }
+
+    @Test
+    void getResultsCsv_listsEveryRowWithItsOutcome() {
+        UUID jobId = UUID.randomUUID();
+        when(rowRepository.findByJobIdOrderByRowNumber(jobId)).thenReturn(List.of(
+                UserImportRow.builder().rowNumber(2).firstName("Jo").lastName("Bloggs").email("jo@firm.com")
+                        .userManager(true).status(UserImportRowStatus.CREATED).build(),
+                UserImportRow.builder().rowNumber(3).firstName("Sam").lastName("Smith").email("sam@firm")
+                        .status(UserImportRowStatus.INVALID).detail("Enter an email address in the correct format").build()));
+
+        String csv = new String(service.getResultsCsv(jobId), StandardCharsets.UTF_8);
+
+        assertThat(csv).isEqualTo("""
+                Row,"First name","Last name",Email,"User manager",Outcome,Detail
+                2,Jo,Bloggs,jo@firm.com,Yes,Created,
+                3,Sam,Smith,sam@firm,No,"Not imported","Enter an email address in the correct format"
+                """);
+    }
+}
@@ -0,0 +1,171 @@
+package uk.gov.justice.laa.portal.landingpage.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRow;
+import uk.gov.justice.laa.portal.landingpage.entity.UserImportRowStatus;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportValidationServiceTest {
+
+    @Mock
+    private EntraUserRepository entraUserRepository;
+    @Mock
+    private EmailValidationService emailValidationService;
+
+    private UserImportValidationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserImportValidationService(entraUserRepository, emailValidationService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void readAndValidate_acceptsValidRowsWhateverTheHeaderCase() {
+        when(entraUserRepository.findExistingLowerCaseEmails(anyCollection())).thenReturn(List.of());
+        when(emailValidationService.isValidEmailDomain(anyString(), anyInt())).thenReturn(true);
+
+        List<UserImportRow> rows = service.readAndValidate(csv("""
+                \uFEFFFirst Name,last_name,Email address,User manager
+                Jo,Bloggs,jo@firm.com,Yes
+                Sam,Smith,sam@firm.com,
+                """));
+
+        assertThat(rows).extracting(UserImportRow::getRowNumber).containsExactly(2, 3);
+        assertThat(rows).extracting(UserImportRow::getStatus).containsOnly(UserImportRowStatus.PENDING);
+        assertThat(rows).extracting(UserImportRow::isUserManager).containsExactly(true, false);
+        assertThat(rows.getFirst().getEmail()).isEqualTo("jo@firm.com");
+        verify(emailValidationService, times(1)).isValidEmailDomain(anyString(), anyInt());
+    }
+
+    @Test
+    void readAndValidate_reportsEveryProblemWithARow() {
+        when(entraUserRepository.findExistingLowerCaseEmails(anyCollection())).thenReturn(List.of("taken@firm.com"));
+        when(emailValidationService.isValidEmailDomain(eq("jo@firm.com"), anyInt())).thenReturn(true);
+        when(emailValidationService.isValidEmailDomain(eq("al@nomail.test"), anyInt())).thenReturn(false);
+
+        List<UserImportRow> rows = service.readAndValidate(csv("""
+                First name,Last name,Email,User manager
+                Jo,Bloggs,jo@firm.com,No
+                J0,,not-an-email,Maybe
+                Jo,Again,JO@firm.com,
+                Al,Jones,al@nomail.test,
+                Tay,Ken,taken@firm.com,
+                """));
+
+        assertThat(rows).extracting(UserImportRow::getStatus).containsExactly(UserImportRowStatus.PENDING,
+                UserImportRowStatus.INVALID, UserImportRowStatus.INVALID, UserImportRowStatus.INVALID,
+                UserImportRowStatus.INVALID);
+        assertThat(rows.get(1).getDetail()).isEqualTo("First name must not contain numbers or special characters; "
+                + "Enter a last name; "
+                + "Enter an email address in the correct format; User manager must be Yes or No");
+        assertThat(rows.get(2).getDetail()).isEqualTo("Email address is also on row 2");
+        assertThat(rows.get(3).getDetail()).isEqualTo("The email address domain is not valid or cannot receive emails.");
+        assertThat(rows.get(4).getDetail()).isEqualTo("Email address already exists");
+    }
+
+    @Test
+    void readAndValidate_looksUpExistingUsersInBatches() {
+        int users = UserImportValidationService.EMAIL_LOOKUP_BATCH_SIZE + 1;
+        when(entraUserRepository.findExistingLowerCaseEmails(anyCollection())).thenReturn(List.of());
+        when(emailValidationService.isValidEmailDomain(anyString(), anyInt())).thenReturn(true);
+
+        List<UserImportRow> rows = service.readAndValidate(csv("First name,Last name,Email\n"
+                + IntStream.range(0, users)
+                        .mapToObj(i -> "Jo,Bloggs,jo" + i + "@firm.com")
+                        .collect(Collectors.joining("\n"))));
+
+        assertThat(rows).hasSize(users);
+        verify(entraUserRepository, times(2)).findExistingLowerCaseEmails(anyCollection());
+    }
+
+    @Test
+    void readAndValidate_marksDomainsThatCouldNotBeCheckedInvalid() {
+        when(entraUserRepository.findExistingLowerCaseEmails(anyCollection())).thenReturn(List.of());
+        when(emailValidationService.isValidEmailDomain(anyString(), anyInt()))
+                .thenThrow(new RuntimeException("The email domain validation took longer than expected"));
+
+        List<UserImportRow> rows = service.readAndValidate(csv("""
+                First name,Last name,Email
+                Jo,Bloggs,jo@slow.test
+                """));
+
+        assertThat(rows.getFirst().getStatus()).isEqualTo(UserImportRowStatus.INVALID);
+        assertThat(rows.getFirst().getDetail())
+                .isEqualTo("The email address domain could not be checked. Try again later");
+    }
+
+    @Test
+    void readAndValidate_rejectsFilesWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> service.readAndValidate(csv("""
+                Name,Email
+                Jo Bloggs,jo@firm.com
+                """)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The file must have First name, Last name and Email columns");
+        verifyNoInteractions(entraUserRepository, emailValidationService);
+    }
+
+    @Test
+    void readAndValidate_rejectsEmptyAndOversizedFiles() {
+        ReflectionTestUtils.setField(service, "maxRows", 2);
+
+        assertThatThrownBy(() -> service.readAndValidate(csv("First name,Last name,Email\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The file does not have any users in it");
+        assertThatThrownBy(() -> service.readAndValidate(csv("""
+                First name,Last name,Email
+                Jo,Bloggs,jo@firm.com
+                Sam,Smith,sam@firm.com
+                Al,Jones,al@firm.com
+                """)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The file has more than 2 users. Split it into smaller files");
+    }
+
+    @Test
+    void onShutdown_stopsTheDomainCheckExecutor() {
+        service.onShutdown();
+
+        ExecutorService domainCheckExecutor = (ExecutorService) ReflectionTestUtils.getField(service, "domainCheckExecutor");
+        assertThat(domainCheckExecutor.isShutdown()).isTrue();
+    }
+
+    @Test
+    void parseYesNo_acceptsCommonSpellings() {
+        assertThat(UserImportValidationService.parseYesNo(" YES ")).isTrue();
+        assertThat(UserImportValidationService.parseYesNo("n")).isFalse();
+        assertThat(UserImportValidationService.parseYesNo("")).isFalse();
+        assertThat(UserImportValidationService.parseYesNo("maybe")).isNull();
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
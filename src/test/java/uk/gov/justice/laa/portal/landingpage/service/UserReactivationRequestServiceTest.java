@@ -12,25 +12,29 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.justice.laa.portal.landingpage.dto.FirmDto;
 import uk.gov.justice.laa.portal.landingpage.dto.ReactivationRequestsPageData;
 import uk.gov.justice.laa.portal.landingpage.dto.UserActivationRequestSummaryDto;
 import uk.gov.justice.laa.portal.landingpage.entity.AppRole;
 import uk.gov.justice.laa.portal.landingpage.entity.AuthzRole;
 import uk.gov.justice.laa.portal.landingpage.entity.EntraUser;
-import uk.gov.justice.laa.portal.landingpage.entity.Firm;
 import uk.gov.justice.laa.portal.landingpage.entity.ReactivationRoleType;
 import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequest;
+import uk.gov.justice.laa.portal.landingpage.entity.UserActivationRequestHead;
 import uk.gov.justice.laa.portal.landingpage.entity.UserProfile;
 import uk.gov.justice.laa.portal.landingpage.model.PaginatedReactivationRequests;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestListItem;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestPageMode;
 import uk.gov.justice.laa.portal.landingpage.model.ReactivationRequestStatus;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.UserActivationRequestHeadRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserActivationRequestRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -42,6 +46,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -82,6 +88,8 @@ class UserReactivationRequestServiceTest {
     @Mock
     private UserActivationRequestRepository userActivationRequestRepository;
     @Mock
+    private UserActivationRequestHeadRepository userActivationRequestHeadRepository;
+    @Mock
     private NotificationService notificationService;
     private EntraUser actorUser;
     private EntraUser initialAdminUser;
@@ -100,6 +108,15 @@ class UserReactivationRequestServiceTest {
         return UserActivationRequest.builder().id(UUID.randomUUID()).requestId(REQUEST_ID).userProfileId(USER_PROFILE_ID).status(status).version(version).actorEntraOid(ACTOR_ENTRA_OID).build();
     }
 
+    private UserActivationRequestHead headOf(UserActivationRequest latest) {
+        UserActivationRequestHead head = new UserActivationRequestHead();
+        ReflectionTestUtils.setField(head, "requestId", latest.getRequestId());
+        ReflectionTestUtils.setField(head, "latestVersion", latest);
+        ReflectionTestUtils.setField(head, "version", latest.getVersion());
+        ReflectionTestUtils.setField(head, "status", latest.getStatus());
+        return head;
+    }
+
     @Nested
     @DisplayName("findFirstByUserProfileIdOrderByVersionDesc")
     class FindFirstByUserProfileIdOrderByVersionDescTests {
@@ -231,7 +248,7 @@ class UserReactivationRequestServiceTest {
             UserActivationRequest latestRequest = new UserActivationRequest();
             latestRequest.setRequestId(REQUEST_ID);
             latestRequest.setVersion(2);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(latestRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(latestRequest)));
 
             given(entraUserRepository.findById(USER_ENTRA_ID)).willReturn(Optional.of(targetUser));
             given(entraUserRepository.findByEntraOid(INITIAL_ACTOR_ENTRA_OID)).willReturn(Optional.of(initialAdminUser));
@@ -274,7 +291,7 @@ class UserReactivationRequestServiceTest {
             latestRequest.setVersion(1);
             latestRequest.setStatus(ReactivationRequestStatus.IN_REVIEW);
             latestRequest.setActorRoleType(ReactivationRoleType.LAA_OST);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(latestRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(latestRequest)));
             given(entraUserRepository.findById(USER_ENTRA_ID)).willReturn(Optional.of(targetUser));
 
             given(userActivationRequestRepository.save(any(UserActivationRequest.class))).willAnswer(invocation -> invocation.getArgument(0));
@@ -303,6 +320,8 @@ class UserReactivationRequestServiceTest {
         void processReactivationState_WhenInitialRequestNotFound_ThrowsException() {
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(actorUser));
             given(roleTypeResolver.resolve(actorUser)).willReturn(ReactivationRoleType.LAA_USER_REGISTRATION);
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID))
+                    .willReturn(Optional.of(headOf(buildUserActivationRequest(ReactivationRequestStatus.IN_REVIEW, 1))));
             given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionAsc(REQUEST_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> service.rejectReactivationRequest(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
@@ -317,6 +336,8 @@ class UserReactivationRequestServiceTest {
 
             UserActivationRequest initialRequest = new UserActivationRequest();
             initialRequest.setRequestId(REQUEST_ID);
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID))
+                    .willReturn(Optional.of(headOf(buildUserActivationRequest(ReactivationRequestStatus.IN_REVIEW, 1))));
             given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionAsc(REQUEST_ID)).willReturn(Optional.of(initialRequest));
 
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(false);
@@ -335,11 +356,42 @@ class UserReactivationRequestServiceTest {
             initialRequest.setRequestId(REQUEST_ID);
             given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionAsc(REQUEST_ID)).willReturn(Optional.of(initialRequest));
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(true);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.empty());
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID))
+                    .willReturn(Optional.of(headOf(buildUserActivationRequest(ReactivationRequestStatus.IN_REVIEW, 1))));
 
             assertThatThrownBy(() -> service.rejectReactivationRequest(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
                     .isInstanceOf(NoSuchElementException.class);
         }
+
+        @Test
+        @DisplayName("Should refuse a second approval without adding a version or notifying anyone again")
+        void approveReactivationRequest_WhenAlreadyApproved_ThrowsWithoutNotifying() {
+            given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(actorUser));
+            given(roleTypeResolver.resolve(actorUser)).willReturn(ReactivationRoleType.LAA_USER_REGISTRATION);
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID))
+                    .willReturn(Optional.of(headOf(buildUserActivationRequest(ReactivationRequestStatus.APPROVED, 2))));
+
+            assertThatThrownBy(() -> service.approveReactivationRequest(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, ACTOR_ENTRA_OID))
+                    .isInstanceOf(IllegalStateException.class).hasMessage("Reactivation request already processed for ID: " + REQUEST_ID_STR);
+
+            verify(userActivationRequestRepository, never()).save(any());
+            verifyNoInteractions(notificationService);
+        }
+
+        @Test
+        @DisplayName("Should refuse to reject a request that has already been rejected")
+        void rejectReactivationRequest_WhenAlreadyRejected_ThrowsWithoutNotifying() {
+            given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(actorUser));
+            given(roleTypeResolver.resolve(actorUser)).willReturn(ReactivationRoleType.LAA_USER_REGISTRATION);
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID))
+                    .willReturn(Optional.of(headOf(buildUserActivationRequest(ReactivationRequestStatus.REJECTED, 2))));
+
+            assertThatThrownBy(() -> service.rejectReactivationRequest(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
+                    .isInstanceOf(IllegalStateException.class);
+
+            verify(userActivationRequestRepository, never()).save(any());
+            verifyNoInteractions(notificationService);
+        }
     }
 
     @Nested
@@ -359,7 +411,7 @@ class UserReactivationRequestServiceTest {
             latestRequest.setRequestId(REQUEST_ID);
             latestRequest.setStatus(ReactivationRequestStatus.IN_REVIEW);
             latestRequest.setVersion(1);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(latestRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(latestRequest)));
 
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(true);
 
@@ -397,7 +449,7 @@ class UserReactivationRequestServiceTest {
             latestRequest.setRequestId(REQUEST_ID);
             latestRequest.setStatus(ReactivationRequestStatus.IN_REVIEW);
             latestRequest.setVersion(1);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(latestRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(latestRequest)));
 
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(true);
 
@@ -424,7 +476,7 @@ class UserReactivationRequestServiceTest {
             latestRequest.setRequestId(REQUEST_ID);
             latestRequest.setStatus(ReactivationRequestStatus.IN_REVIEW);
             latestRequest.setVersion(1);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(latestRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(latestRequest)));
 
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(true);
 
@@ -448,7 +500,7 @@ class UserReactivationRequestServiceTest {
         void updateReactivateRequestState_WhenRequestNotFound_ThrowsException() {
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(actorUser));
             given(roleTypeResolver.resolve(actorUser)).willReturn(ReactivationRoleType.LAA_USER_REGISTRATION);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.empty());
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> service.updateReactivateRequestState(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
                     .isInstanceOf(EntityNotFoundException.class).hasMessageContaining("Reactivation request not found for ID: " + REQUEST_ID_STR);
@@ -464,7 +516,7 @@ class UserReactivationRequestServiceTest {
             approvedRequest.setRequestId(REQUEST_ID);
             approvedRequest.setStatus(ReactivationRequestStatus.APPROVED);
 
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(approvedRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(approvedRequest)));
 
             assertThatThrownBy(() -> service.updateReactivateRequestState(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
                     .isInstanceOf(IllegalStateException.class).hasMessageContaining("Reactivation request already processed for ID: " + REQUEST_ID_STR);
@@ -480,7 +532,7 @@ class UserReactivationRequestServiceTest {
             rejectedRequest.setRequestId(REQUEST_ID);
             rejectedRequest.setStatus(ReactivationRequestStatus.REJECTED);
 
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(REQUEST_ID)).willReturn(Optional.of(rejectedRequest));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(REQUEST_ID)).willReturn(Optional.of(headOf(rejectedRequest)));
 
             assertThatThrownBy(() -> service.updateReactivateRequestState(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Comments", ACTOR_ENTRA_OID))
                     .isInstanceOf(IllegalStateException.class).hasMessageContaining("Reactivation request already processed for ID: " + REQUEST_ID_STR);
@@ -504,7 +556,7 @@ class UserReactivationRequestServiceTest {
         @Test
         @DisplayName("Should return error when non-null requestId has no prior history")
         void nonNullRequestIdNoHistory_returnsError() {
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.empty());
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.empty());
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(EntraUser.builder().id(UUID.randomUUID()).build()));
             given(roleTypeResolver.resolve(any())).willReturn(ReactivationRoleType.PROVIDER_ADMIN);
 
@@ -521,7 +573,7 @@ class UserReactivationRequestServiceTest {
         @DisplayName("Should increment version when existing record is IN_REVIEW")
         void activeRequestInReview_incrementsVersion() {
             UserActivationRequest existing = buildUserActivationRequest(ReactivationRequestStatus.IN_REVIEW, 2);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(existing));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(headOf(existing)));
             given(userActivationRequestRepository.save(any(UserActivationRequest.class))).willAnswer(invocation -> invocation.getArgument(0));
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(EntraUser.builder().id(UUID.randomUUID()).build()));
             given(userProfileRepository.existsById(USER_PROFILE_ID)).willReturn(true);
@@ -540,7 +592,7 @@ class UserReactivationRequestServiceTest {
         @DisplayName("Should throw IllegalStateException when request has already been APPROVED")
         void alreadyApproved_throwsIllegalStateException() {
             UserActivationRequest existing = buildUserActivationRequest(ReactivationRequestStatus.APPROVED, 1);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(existing));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(headOf(existing)));
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(EntraUser.builder().id(UUID.randomUUID()).build()));
 
             assertThatThrownBy(() -> service.updateReactivateRequestState(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Cannot approve", ACTOR_ENTRA_OID))
@@ -553,7 +605,7 @@ class UserReactivationRequestServiceTest {
         @DisplayName("Should throw IllegalStateException when request has already been REJECTED")
         void alreadyRejected_throwsIllegalStateException() {
             UserActivationRequest existing = buildUserActivationRequest(ReactivationRequestStatus.REJECTED, 1);
-            given(userActivationRequestRepository.findFirstByRequestIdOrderByVersionDesc(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(existing));
+            given(userActivationRequestHeadRepository.findByRequestIdForUpdate(UUID.fromString(REQUEST_ID_STR))).willReturn(Optional.of(headOf(existing)));
             given(entraUserRepository.findByEntraOid(ACTOR_ENTRA_OID)).willReturn(Optional.of(EntraUser.builder().id(UUID.randomUUID()).build()));
 
             assertThatThrownBy(() -> service.updateReactivateRequestState(REQUEST_ID_STR, USER_ENTRA_ID_STR, USER_PROFILE_ID_STR, "Cannot reject", ACTOR_ENTRA_OID))
@@ -688,80 +740,49 @@ class UserReactivationRequestServiceTest {
             void shouldReturnEmptyPageDataWhenNoRequestsExist() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
-                when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of());
+                when(userActivationRequestRepository.countLatestRequests("", List.of(), List.of(), null)).thenReturn(0L);
 
                 ReactivationRequestsPageData result = service.getPage(authentication, "", null, null, 1, 10, "requestId", "asc");
 
                 assertThat(result.pageMode()).isEqualTo(ReactivationRequestPageMode.MANAGE);
                 assertThat(result.paginatedRequests().getRequests()).isEmpty();
                 assertThat(result.paginatedRequests().getTotalRequests()).isEqualTo(0);
+                verify(userActivationRequestRepository, never())
+                        .findLatestRequests(any(), any(), any(), any(), any(), anyBoolean(), anyInt(), anyInt());
             }
 
             @Test
-            @DisplayName("Should process, filter, sort and paginate requests in MANAGE mode")
-            void shouldBuildFilterSortAndPaginateRequestsInManageMode() {
+            @DisplayName("Should filter, sort and page requests in the database in MANAGE mode")
+            void shouldFilterSortAndPaginateRequestsInManageMode() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
 
-                // Set up test entities
-                UUID request1Id = UUID.randomUUID();
-                UUID profile1Id = UUID.randomUUID();
-                String actor1Oid = "actor-oid-1";
-
-                UserActivationRequest request1 = mock(UserActivationRequest.class);
-                when(request1.getId()).thenReturn(UUID.randomUUID());
-                when(request1.getRequestId()).thenReturn(request1Id);
-                when(request1.getUserProfileId()).thenReturn(profile1Id);
-                when(request1.getActorEntraOid()).thenReturn(actor1Oid);
-                when(request1.getStatus()).thenReturn(ReactivationRequestStatus.IN_REVIEW);
-                when(request1.getVersion()).thenReturn(1);
-                when(request1.getCreatedAt()).thenReturn(Instant.now());
-                when(request1.getComments()).thenReturn("Sample request comment");
-
-                when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(request1));
-
-                // Target Profile & User
-                EntraUser targetUser = mock(EntraUser.class);
-                when(targetUser.getFirstName()).thenReturn("Jane");
-                when(targetUser.getLastName()).thenReturn("Doe");
-                when(targetUser.getEmail()).thenReturn("jane.doe@example.com");
-
-                Firm targetFirm = mock(Firm.class);
                 UUID firmId = UUID.randomUUID();
-                when(targetFirm.getId()).thenReturn(firmId);
-
-                UserProfile profile1 = mock(UserProfile.class);
-                when(profile1.getId()).thenReturn(profile1Id);
-                when(profile1.getEntraUser()).thenReturn(targetUser);
-                when(profile1.getFirm()).thenReturn(targetFirm);
+                Instant submittedAt = Instant.parse("2026-01-05T10:00:00Z");
+                Instant lastActivity = Instant.parse("2026-02-10T10:00:00Z");
+                Object[] row = row(REQUEST_ID, ReactivationRequestStatus.IN_REVIEW, "John Smith", "Jane Doe",
+                        submittedAt, lastActivity, firmId);
 
-                when(userProfileRepository.findAllByIdInWithFirm(Set.of(profile1Id))).thenReturn(List.of(profile1));
+                List<ReactivationRequestStatus> statuses = List.of(ReactivationRequestStatus.IN_REVIEW);
+                when(userActivationRequestRepository.countLatestRequests("jane", statuses, List.of(), null)).thenReturn(1L);
+                when(userActivationRequestRepository.findLatestRequests("jane", statuses, List.of(), null,
+                        "actorName", true, 0, 10)).thenReturn(List.<Object[]>of(row));
 
-                // Actor User
-                EntraUser actor1 = mock(EntraUser.class);
-                when(actor1.getEntraOid()).thenReturn(actor1Oid);
-                when(actor1.getFirstName()).thenReturn("John");
-                when(actor1.getLastName()).thenReturn("Smith");
-                when(actor1.getEmail()).thenReturn("john.smith@example.com");
-
-                when(entraUserRepository.findByEntraOidIn(Set.of(actor1Oid))).thenReturn(List.of(actor1));
-
-                // Submission timestamp lookup
-                UserActivationRequest firstVerRequest = mock(UserActivationRequest.class);
-                when(firstVerRequest.getRequestId()).thenReturn(request1Id);
-                when(firstVerRequest.getCreatedAt()).thenReturn(Instant.now());
-
-                when(userActivationRequestRepository.findAllFirstVersionsByRequestIdIn(Set.of(request1Id))).thenReturn(List.of(firstVerRequest));
-
-                // Execute method call
-                ReactivationRequestsPageData result = service.getPage(authentication, "Jane", // Search string matches target user name
-                        List.of(ReactivationRequestStatus.IN_REVIEW), null, 1, 10, "actorName", "asc");
+                ReactivationRequestsPageData result = service.getPage(authentication, "  Jane ", statuses, null,
+                        1, 10, "actorName", "asc");
 
                 assertThat(result.paginatedRequests().getTotalRequests()).isEqualTo(1);
                 ReactivationRequestListItem item = result.paginatedRequests().getRequests().getFirst();
+                assertThat(item.requestId()).isEqualTo(REQUEST_ID);
+                assertThat(item.userProfileId()).isEqualTo(USER_PROFILE_ID);
+                assertThat(item.requestStatus()).isEqualTo(ReactivationRequestStatus.IN_REVIEW);
+                assertThat(item.actorRoleType()).isEqualTo(ReactivationRoleType.PROVIDER_ADMIN.getDisplayName());
                 assertThat(item.userName()).isEqualTo("Jane Doe");
                 assertThat(item.actorName()).isEqualTo("John Smith");
+                assertThat(item.dateSubmitted()).isEqualTo(LocalDate.ofInstant(submittedAt, ZoneId.systemDefault()));
+                assertThat(item.lastActivity()).isEqualTo(LocalDate.ofInstant(lastActivity, ZoneId.systemDefault()));
                 assertThat(item.firmId()).isEqualTo(firmId);
+                verifyNoInteractions(userProfileRepository, entraUserRepository);
             }
 
             @Test
@@ -772,25 +793,18 @@ class UserReactivationRequestServiceTest {
 
                 try (MockedStatic<AccessControlService> accessControlMock = mockStatic(AccessControlService.class)) {
                     accessControlMock.when(() -> AccessControlService.userHasAuthzRole(currentUser, AuthzRole.FIRM_USER_MANAGER.getRoleName())).thenReturn(true);
-
-                    UserActivationRequest request1 = UserActivationRequest
-                            .builder().userProfileId(USER_PROFILE_ID)
-                            .actorEntraOid("actor-1").requestId(UUID.fromString(REQUEST_ID_STR))
-                            .status(ReactivationRequestStatus.IN_REVIEW)
-                            .build();
-
-                    when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(request1));
                     when(firmService.getUserActiveAllFirms(currentUser)).thenReturn(List.of());
 
                     ReactivationRequestsPageData result = service.getPage(authentication, null, null, null, 1, 10, null, "asc");
 
                     assertThat(result.pageMode()).isEqualTo(ReactivationRequestPageMode.TRACK);
                     assertThat(result.paginatedRequests().getRequests()).isEmpty();
+                    verifyNoInteractions(userActivationRequestRepository);
                 }
             }
 
             @Test
-            @DisplayName("Should filter items by allowed firm IDs in TRACK mode")
+            @DisplayName("Should scope the query to allowed firm IDs in TRACK mode")
             void shouldFilterByAllowedFirmsInTrackMode() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
@@ -801,26 +815,14 @@ class UserReactivationRequestServiceTest {
                     UUID allowedFirmId = UUID.randomUUID();
                     FirmDto allowedFirmDto = mock(FirmDto.class);
                     when(allowedFirmDto.getId()).thenReturn(allowedFirmId);
-
                     when(firmService.getUserActiveAllFirms(currentUser)).thenReturn(List.of(allowedFirmDto));
 
-                    UserActivationRequest request = mock(UserActivationRequest.class);
-                    when(request.getId()).thenReturn(UUID.randomUUID());
-                    when(request.getRequestId()).thenReturn(UUID.fromString(REQUEST_ID_STR));
-                    when(request.getUserProfileId()).thenReturn(USER_PROFILE_ID);
-                    when(request.getActorEntraOid()).thenReturn("actor-oid");
-                    when(request.getStatus()).thenReturn(ReactivationRequestStatus.IN_REVIEW);
-
-                    when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(request));
-
-                    Firm allowedFirm = mock(Firm.class);
-                    when(allowedFirm.getId()).thenReturn(allowedFirmId);
-
-                    UserProfile profile = mock(UserProfile.class);
-                    when(profile.getId()).thenReturn(USER_PROFILE_ID);
-                    when(profile.getFirm()).thenReturn(allowedFirm);
-
-                    when(userProfileRepository.findAllByIdInWithFirm(Set.of(USER_PROFILE_ID))).thenReturn(List.of(profile));
+                    Object[] row = row(REQUEST_ID, ReactivationRequestStatus.IN_REVIEW, "John Smith", "Jane Doe",
+                            Instant.now(), Instant.now(), allowedFirmId);
+                    when(userActivationRequestRepository.countLatestRequests("", List.of(), List.of(), Set.of(allowedFirmId)))
+                            .thenReturn(1L);
+                    when(userActivationRequestRepository.findLatestRequests("", List.of(), List.of(), Set.of(allowedFirmId),
+                            null, true, 0, 10)).thenReturn(List.<Object[]>of(row));
 
                     ReactivationRequestsPageData result = service.getPage(authentication, "", null, null, 1, 10, null, "asc");
 
@@ -830,93 +832,82 @@ class UserReactivationRequestServiceTest {
             }
 
             @Test
-            @DisplayName("Should handle missing optional entity references cleanly and fallback to UNKNOWN_USER_NAME")
-            void shouldHandleMissingActorAndProfileGracefully() {
+            @DisplayName("Should map rows with missing optional columns")
+            void shouldHandleMissingOptionalColumns() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
 
-                UserActivationRequest request = mock(UserActivationRequest.class);
-                when(request.getId()).thenReturn(UUID.randomUUID());
-                when(request.getRequestId()).thenReturn(UUID.fromString(REQUEST_ID_STR));
-                when(request.getUserProfileId()).thenReturn(null);
-                when(request.getActorEntraOid()).thenReturn(null);
-                when(request.getStatus()).thenReturn(ReactivationRequestStatus.APPROVED);
-
-                when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(request));
+                Object[] row = row(REQUEST_ID, ReactivationRequestStatus.APPROVED, UNKNOWN_USER_NAME, UNKNOWN_USER_NAME,
+                        null, null, null);
+                row[9] = null;
+                row[11] = null;
+                when(userActivationRequestRepository.countLatestRequests("", List.of(), List.of(), null)).thenReturn(1L);
+                when(userActivationRequestRepository.findLatestRequests("", List.of(), List.of(), null, null, true, 0, 10))
+                        .thenReturn(List.<Object[]>of(row));
 
                 ReactivationRequestsPageData result = service.getPage(authentication, "", null, null, 1, 10, null, "asc");
 
-                assertThat(result.paginatedRequests().getRequests()).hasSize(1);
                 ReactivationRequestListItem item = result.paginatedRequests().getRequests().getFirst();
-
                 assertThat(item.actorName()).isEqualTo(UNKNOWN_USER_NAME);
                 assertThat(item.userName()).isEqualTo(UNKNOWN_USER_NAME);
                 assertThat(item.actorEmail()).isNull();
                 assertThat(item.userEmail()).isNull();
+                assertThat(item.dateSubmitted()).isNull();
+                assertThat(item.lastActivity()).isNull();
                 assertThat(item.firmId()).isNull();
-
-                verifyNoInteractions(entraUserRepository);
             }
         }
 
         @Nested
-        @DisplayName("Sorting & Search Branch Tests")
+        @DisplayName("Sorting & Paging Tests")
         class SortingAndSearchTests {
 
             @Test
-            @DisplayName("Should test all comparator sort branches and reverse direction")
-            void shouldTestComparatorsAndDescSorting() {
+            @DisplayName("Should pass the sort column and direction through to the query")
+            void shouldPassSortAndDirectionToQuery() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
-
-                UserActivationRequest req1 = UserActivationRequest.builder()
-                        .id(UUID.randomUUID())
-                        .requestId(UUID.randomUUID())
-                        .userProfileId(UUID.randomUUID())
-                        .status(ReactivationRequestStatus.IN_REVIEW)
-                        .version(1)
-                        .build();
-
-                UserActivationRequest req2 = UserActivationRequest.builder()
-                        .id(UUID.randomUUID())
-                        .requestId(UUID.randomUUID())
-                        .userProfileId(UUID.randomUUID())
-                        .status(ReactivationRequestStatus.REJECTED)
-                        .version(1)
-                        .build();
-
-                when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(req1, req2));
+                when(userActivationRequestRepository.countLatestRequests("", List.of(), List.of(), null)).thenReturn(2L);
 
                 String[] sortFields = {"requestId", "userProfileId", "version", "requestStatus", "actorName", "actorRoleType", "lastActivity", "invalidSortDefault"};
 
                 for (String sortField : sortFields) {
-                    ReactivationRequestsPageData data = service.getPage(authentication, "", null, null, 1, 10, sortField, "desc");
+                    service.getPage(authentication, "", null, null, 1, 10, sortField, "desc");
 
-                    assertThat(data.paginatedRequests().getRequests()).hasSize(2);
+                    verify(userActivationRequestRepository)
+                            .findLatestRequests("", List.of(), List.of(), null, sortField, false, 0, 10);
                 }
             }
 
             @Test
-            @DisplayName("Should accurately perform pagination paginatedRequests boundary checks")
+            @DisplayName("Should bound the requested page to the last page")
             void shouldHandlePaginationBoundaries() {
                 EntraUser currentUser = mock(EntraUser.class);
                 when(loginService.getCurrentEntraUser(authentication)).thenReturn(currentUser);
-
-                UserActivationRequest req1 = mock(UserActivationRequest.class);
-                when(req1.getId()).thenReturn(UUID.randomUUID());
-                when(req1.getRequestId()).thenReturn(UUID.randomUUID());
-                when(req1.getStatus()).thenReturn(ReactivationRequestStatus.IN_REVIEW);
-
-                when(userActivationRequestRepository.findAllLatestRequests()).thenReturn(List.of(req1));
+                when(userActivationRequestRepository.countLatestRequests("", List.of(), List.of(), null)).thenReturn(25L);
+                when(userActivationRequestRepository.findLatestRequests("", List.of(), List.of(), null, null, true, 20, 10))
+                        .thenReturn(List.<Object[]>of(row(REQUEST_ID, ReactivationRequestStatus.IN_REVIEW,
+                                "John Smith", "Jane Doe", Instant.now(), Instant.now(), null)));
 
                 // Request out-of-bounds paginatedRequests index (e.g., paginatedRequests 55)
                 ReactivationRequestsPageData pageData = service.getPage(authentication, "", null, null, 55, 10, null, "asc");
 
                 PaginatedReactivationRequests paginated = pageData.paginatedRequests();
-                assertThat(paginated.getCurrentPage()).isEqualTo(1); // Bounded back to max total pages (1)
+                assertThat(paginated.getCurrentPage()).isEqualTo(3); // Bounded back to max total pages (3)
+                assertThat(paginated.getTotalPages()).isEqualTo(3);
+                assertThat(paginated.getTotalRequests()).isEqualTo(25);
                 assertThat(paginated.getRequests()).hasSize(1);
             }
         }
 
+        private static Object[] row(UUID requestId, ReactivationRequestStatus status, String actorName, String userName,
+                                    Instant submittedAt, Instant lastActivity, UUID firmId) {
+            return new Object[] {
+                UUID.randomUUID(), requestId, USER_PROFILE_ID, 1, status.name(), "Sample request comment",
+                ACTOR_ENTRA_OID, ReactivationRoleType.PROVIDER_ADMIN.name(), actorName, "john.smith@example.com",
+                userName, "jane.doe@example.com", submittedAt, lastActivity, firmId
+            };
+        }
+
     }
 }
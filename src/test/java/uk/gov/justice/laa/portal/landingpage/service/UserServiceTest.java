@@ -38,12 +38,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -55,6 +57,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.microsoft.graph.models.DirectoryObject;
 import com.microsoft.graph.models.DirectoryObjectCollectionResponse;
@@ -161,6 +164,10 @@ class UserServiceTest {
     private AccessControlService accessControlService;
     @Mock
     private uk.gov.justice.laa.portal.landingpage.repository.DeleteUserReasonRepository mockDeleteUserReasonRepository;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private AppRoleDeletionService appRoleDeletionService;
 
     @BeforeEach
     void setUp() {
@@ -180,7 +187,9 @@ class UserServiceTest {
                 mockEventService,
                 notificationService,
                 accessControlService,
-                mockDeleteUserReasonRepository);
+                mockDeleteUserReasonRepository,
+                outboxService,
+                appRoleDeletionService);
     }
 
     @Test
@@ -1558,7 +1567,30 @@ class UserServiceTest {
         // Assert
         assertThat(userProfile.getAppRoles()).containsExactly(appRole);
         verify(mockUserProfileRepository, times(1)).save(userProfile);
-        verify(techServicesClient, times(1)).updateRoleAssignment(userId);
+        verify(outboxService, times(1)).enqueueRoleAssignmentUpdate(userId);
+        verify(techServicesClient, never()).updateRoleAssignment(any());
+    }
+
+    @Test
+    void updateUserRoles_rejectsNewRolesBeingDeleted() {
+        UUID roleId = UUID.randomUUID();
+        UUID profileId = UUID.randomUUID();
+        AppRole appRole = AppRole.builder().id(roleId).userTypeRestriction(new UserType[] { UserType.EXTERNAL }).build();
+        UserProfile userProfile = UserProfile.builder().id(profileId).activeProfile(true).appRoles(new HashSet<>())
+                .userProfileStatus(UserProfileStatus.COMPLETE).userType(UserType.EXTERNAL).build();
+        userProfile.setEntraUser(EntraUser.builder().id(UUID.randomUUID()).entraOid(UUID.randomUUID().toString())
+                .userProfiles(Set.of(userProfile)).build());
+
+        when(mockAppRoleRepository.findAllById(any())).thenReturn(List.of(appRole));
+        when(mockUserProfileRepository.findById(profileId)).thenReturn(Optional.of(userProfile));
+        when(accessControlService.canAssignExternalAppRoles(profileId.toString())).thenReturn(true);
+        when(accessControlService.canAssignInternalAppRoles(profileId.toString())).thenReturn(true);
+        when(appRoleDeletionService.getRoleIdsBeingDeleted()).thenReturn(Set.of(roleId));
+
+        assertThrows(RuntimeException.class, () -> userService.updateUserRoles(profileId.toString(),
+                List.of(roleId.toString()), Collections.emptyList(), UUID.randomUUID()));
+        verify(mockUserProfileRepository, never()).save(any());
+        verify(outboxService, never()).enqueueRoleAssignmentUpdate(any());
     }
 
     @Test
@@ -1859,6 +1891,35 @@ class UserServiceTest {
         Assertions.assertEquals(returnedAppRoles.get(1).getName(), externalRole.getName());
     }
 
+    @Test
+    public void testGetAppRolesByAppIdAndUserTypeHidesRolesBeingDeleted() {
+        App testApp = App.builder()
+                .name("Test App")
+                .build();
+        AppRole keptRole = AppRole.builder()
+                .id(UUID.randomUUID())
+                .name("Kept Role")
+                .ordinal(1)
+                .userTypeRestriction(new UserType[] { UserType.EXTERNAL })
+                .app(testApp)
+                .build();
+        AppRole deletedRole = AppRole.builder()
+                .id(UUID.randomUUID())
+                .name("Deleted Role")
+                .ordinal(2)
+                .userTypeRestriction(new UserType[] { UserType.EXTERNAL })
+                .app(testApp)
+                .build();
+
+        testApp.setAppRoles(Set.of(keptRole, deletedRole));
+        when(mockAppRepository.findById(any())).thenReturn(Optional.of(testApp));
+        when(appRoleDeletionService.getRoleIdsBeingDeleted()).thenReturn(Set.of(deletedRole.getId()));
+
+        List<AppRoleDto> returnedAppRoles = userService.getAppRolesByAppIdAndUserType(UUID.randomUUID().toString(),
+                UserType.EXTERNAL, null);
+        assertThat(returnedAppRoles).extracting(AppRoleDto::getName).containsExactly("Kept Role");
+    }
+
     @Test
     public void testGetAppRolesByAppIdAndUserTypeReturnsEmptyListWhenAppIdIsNotFound() {
         when(mockAppRepository.findById(any())).thenReturn(Optional.empty());
@@ -3681,7 +3742,7 @@ class UserServiceTest {
             // Assert
             assertThat(userProfile.getAppRoles()).isEmpty();
             verify(mockUserProfileRepository).save(userProfile);
-            verify(techServicesClient, times(1)).updateRoleAssignment(userId);
+            verify(outboxService, times(1)).enqueueRoleAssignmentUpdate(userId);
         }
 
         @Test
@@ -3721,8 +3782,8 @@ class UserServiceTest {
             // Assert
             assertThat(result.get("error")).isNotEmpty();
             verify(mockUserProfileRepository, never()).save(userProfile);
-            verify(techServicesClient, never()).updateRoleAssignment(userId);
-            verify(mockRoleChangeNotificationService, never()).sendMessage(any(), anyString(), any(), any());
+            verify(outboxService, never()).enqueueRoleAssignmentUpdate(any());
+            verify(outboxService, never()).enqueueCcmsRoleChanges(any(), any(), any());
         }
 
         @Test
@@ -4472,7 +4533,7 @@ class UserServiceTest {
     class RoleChangeTests {
 
         @Test
-        void updateUserRoles_successfulUpdate_sendsRoleChangeNotification() {
+        void updateUserRoles_successfulUpdate_enqueuesRoleChangeNotification() {
             String userProfileId = UUID.randomUUID().toString();
             List<String> selectedRoles = List.of(UUID.randomUUID().toString());
 
@@ -4529,32 +4590,26 @@ class UserServiceTest {
                     .thenReturn(List.of(newRole));
             when(mockUserProfileRepository.save(any(UserProfile.class)))
                     .thenReturn(userProfile);
-            when(mockRoleChangeNotificationService.sendMessage(
-                    any(UserProfile.class), anyString(), any(Set.class), any(Set.class)))
-                    .thenReturn(true);
             EntraUser modifier = EntraUser.builder().entraOid(modifierId.toString())
                     .userProfiles(Set.of(UserProfile.builder().id(UUID.randomUUID()).activeProfile(true)
                             .userType(UserType.EXTERNAL).build()))
                     .build();
             when(mockEntraUserRepository.findByEntraOid(modifierId.toString())).thenReturn(Optional.of(modifier));
 
-            Map<String, String> changed = userService.updateUserRoles(userProfileId, selectedRoles,
-                    Collections.emptyList(), modifierId);
+            userService.updateUserRoles(userProfileId, selectedRoles, Collections.emptyList(), modifierId);
 
-            ArgumentCaptor<UserProfile> userProfileCaptor = ArgumentCaptor.forClass(UserProfile.class);
-            verify(mockUserProfileRepository).save(userProfileCaptor.capture());
-            verify(mockRoleChangeNotificationService).sendMessage(
+            verify(mockUserProfileRepository).save(userProfile);
+            verify(outboxService).enqueueCcmsRoleChanges(
                     eq(userProfile),
-                    eq("test-pui-app-entra-oid"),
-                    eq(Set.of(newRole.getCcmsCode())),
-                    eq(Set.of(oldRole.getCcmsCode())));
-
-            UserProfile savedProfile = userProfileCaptor.getValue();
-            assertThat(savedProfile.isLastCcmsSyncSuccessful()).isTrue();
+                    eq(Map.of("test-pui-app-entra-oid", Set.of(newRole.getCcmsCode()))),
+                    eq(Map.of("test-pui-app-entra-oid", Set.of(oldRole.getCcmsCode()))));
+            verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
+            verify(mockRoleChangeNotificationService, never()).sendMessage(any(), anyString(), any(), any());
+            verify(techServicesClient, never()).updateRoleAssignment(any());
         }
 
         @Test
-        void updateUserRoles_roleChangeNotificationFails_updatedRolesSavedToDb() {
+        void updateUserRoles_savesRolesBeforeEnqueueingNotifications() {
             String userProfileId = UUID.randomUUID().toString();
             List<String> selectedRoles = List.of(UUID.randomUUID().toString());
 
@@ -4600,9 +4655,6 @@ class UserServiceTest {
                     .thenReturn(List.of(newRole));
             when(mockUserProfileRepository.save(any(UserProfile.class)))
                     .thenReturn(userProfile);
-            when(mockRoleChangeNotificationService.sendMessage(
-                    any(UserProfile.class), anyString(), any(Set.class), any(Set.class)))
-                    .thenReturn(false);
             UUID modifierId = UUID.randomUUID();
             EntraUser modifier = EntraUser.builder().entraOid(modifierId.toString())
                     .userProfiles(Set.of(UserProfile.builder().id(UUID.randomUUID()).activeProfile(true)
@@ -4611,12 +4663,15 @@ class UserServiceTest {
             when(mockEntraUserRepository.findByEntraOid(modifierId.toString())).thenReturn(Optional.of(modifier));
             userService.updateUserRoles(userProfileId, selectedRoles, Collections.emptyList(), modifierId);
 
-            ArgumentCaptor<UserProfile> userProfileCaptor = ArgumentCaptor.forClass(UserProfile.class);
-            verify(mockUserProfileRepository).save(userProfileCaptor.capture());
-            verify(mockRoleChangeNotificationService).sendMessage(any(), anyString(), any(), any());
-
-            UserProfile savedProfile = userProfileCaptor.getValue();
-            assertThat(savedProfile.isLastCcmsSyncSuccessful()).isFalse();
+            InOrder inOrder = inOrder(mockUserProfileRepository, outboxService);
+            inOrder.verify(mockUserProfileRepository).save(userProfile);
+            inOrder.verify(outboxService).enqueueCcmsRoleChanges(
+                    eq(userProfile),
+                    eq(Map.of("test-pui-app-entra-oid", Set.of("CCMS_NEW"))),
+                    eq(Map.of()));
+            inOrder.verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
+            assertThat(userProfile.getAppRoles()).containsExactly(newRole);
+            assertThat(userProfile.isLastCcmsSyncSuccessful()).isFalse();
         }
 
         @Test
@@ -10525,7 +10580,7 @@ class UserServiceTest {
             assertThat(result).doesNotContainKey("error");
             assertThat(userProfile.getAppRoles()).contains(newRole);
             verify(mockUserProfileRepository).save(userProfile);
-            verify(techServicesClient).updateRoleAssignment(entraUserId);
+            verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
         }
 
         @Test
@@ -10588,7 +10643,7 @@ class UserServiceTest {
             assertThat(result).doesNotContainKey("error");
             assertThat(userProfile.getAppRoles()).isEmpty();
             verify(mockUserProfileRepository).save(userProfile);
-            verify(techServicesClient).updateRoleAssignment(entraUserId);
+            verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
         }
 
         @Test
@@ -10660,7 +10715,7 @@ class UserServiceTest {
             assertThat(result).doesNotContainKey("error");
             assertThat(result.get("diff")).contains("Removed").contains("Added");
             verify(mockUserProfileRepository).save(userProfile);
-            verify(techServicesClient).updateRoleAssignment(entraUserId);
+            verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
         }
 
         @Test
@@ -10800,7 +10855,7 @@ class UserServiceTest {
             // Assert - internal role should be filtered out
             assertThat(result).doesNotContainKey("error");
             verify(mockUserProfileRepository).save(userProfile);
-            verify(techServicesClient).updateRoleAssignment(entraUserId);
+            verify(outboxService).enqueueRoleAssignmentUpdate(entraUserId);
         }
     }
 
@@ -11080,4 +11135,42 @@ class UserServiceTest {
             assertThat(result.getContent()).isEmpty();
         }
     }
+
+    @Nested
+    class UpdateUserProfileSilasStatusTests {
+
+        @Test
+        void firstRunRefreshesEveryProfile() {
+            when(mockUserProfileRepository.refreshAllSilasStatuses()).thenReturn(3);
+
+            userService.updateUserProfileSilasStatus();
+
+            verify(mockUserProfileRepository).refreshAllSilasStatuses();
+            verify(mockUserProfileRepository, never()).refreshSilasStatusesChangedSince(any());
+        }
+
+        @Test
+        void laterRunsOnlyRefreshProfilesChangedSinceThePreviousRun() {
+            LocalDateTime beforeFirstRun = LocalDateTime.now();
+            userService.updateUserProfileSilasStatus();
+
+            userService.updateUserProfileSilasStatus();
+
+            ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+            verify(mockUserProfileRepository).refreshAllSilasStatuses();
+            verify(mockUserProfileRepository).refreshSilasStatusesChangedSince(since.capture());
+            assertThat(since.getValue()).isBefore(beforeFirstRun).isAfter(beforeFirstRun.minusMinutes(6));
+        }
+
+        @Test
+        void refreshesEveryProfileAgainOnceTheFullIntervalHasPassed() {
+            userService.updateUserProfileSilasStatus();
+            ReflectionTestUtils.setField(userService, "silasStatusFullyRefreshedAt", LocalDateTime.now().minusHours(25));
+
+            userService.updateUserProfileSilasStatus();
+
+            verify(mockUserProfileRepository, times(2)).refreshAllSilasStatuses();
+            verify(mockUserProfileRepository, never()).refreshSilasStatusesChangedSince(any());
+        }
+    }
 }
@@ -1,12 +1,13 @@
 package uk.gov.justice.laa.portal.landingpage.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
-import uk.gov.justice.laa.portal.landingpage.repository.FirmRepository;
 
 import java.io.File;
 import java.io.IOException;
@@ -19,6 +20,7 @@ import java.util.stream.Stream;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,22 +30,22 @@ class UserUptakeReportServiceTest {
     @Mock
     private EntraUserRepository entraUserRepository;
 
-    @Mock
-    private FirmRepository firmRepository;
-
     @Mock
     private ReportUploadService reportUploadService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private UserUptakeReportService service;
 
     private static final String REPORT_PREFIX = "SiLAS-user-uptake-report-";
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         service = new UserUptakeReportService(
                 reportUploadService,
                 entraUserRepository,
-                firmRepository
+                meterRegistry
         );
     }
 
@@ -68,28 +70,24 @@ class UserUptakeReportServiceTest {
 
     @Test
     void getUserUptakeReport_createsCsvWithAllMetrics() throws Exception {
-        when(entraUserRepository.countInternalUsers()).thenReturn(5L);
-        when(entraUserRepository.countTotalExternalUsers()).thenReturn(20L);
-        when(entraUserRepository.countTotalExternalMultiFirmUsers()).thenReturn(8L);
-        when(entraUserRepository.countActiveExternalUsers()).thenReturn(15L);
-        when(entraUserRepository.countActiveExternalMultiFirmUsers()).thenReturn(6L);
-        when(entraUserRepository.countCompleteExternalUsers()).thenReturn(10L);
-        when(entraUserRepository.countCompleteExternalMultiFirmUsers()).thenReturn(4L);
-        when(entraUserRepository.countExternalUsersWithNoRoles()).thenReturn(3L);
-        when(entraUserRepository.countExternalMultiFirmUsersWithNoRoles()).thenReturn(2L);
-        when(entraUserRepository.countDisabledExternalUsers()).thenReturn(2L);
-        when(entraUserRepository.countDisabledExternalMultiFirmUsers()).thenReturn(1L);
-        when(entraUserRepository.countIncompleteExternalUsers()).thenReturn(5L);
-        when(entraUserRepository.countIncompleteExternalMultiFirmUsers()).thenReturn(2L);
-        when(entraUserRepository.countActivationPendingExternalUsers()).thenReturn(4L);
-        when(entraUserRepository.countActivationPendingExternalMultiFirmUsers()).thenReturn(1L);
-        when(firmRepository.countFirmsWithExternalUsers()).thenReturn(7L);
-        when(firmRepository.countFirmsWithMultiFirmExternalUsers()).thenReturn(3L);
-        when(firmRepository.countFirmsWithActiveExternalUsers()).thenReturn(5L);
-        when(firmRepository.countFirmsWithActiveMultiFirmExternalUsers()).thenReturn(2L);
+        when(entraUserRepository.findUserUptakeSummary()).thenReturn(List.of(
+                new Object[] {"Internal Users", 5L, null},
+                new Object[] {"Total External Users", 20L, 8L},
+                new Object[] {"Active External Users", 15L, 6L},
+                new Object[] {"Complete External Users", 10L, 4L},
+                new Object[] {"External Users with No Roles Assigned", 3L, 2L},
+                new Object[] {"Disabled External Users", 2L, 1L},
+                new Object[] {"Incomplete External Users", 5L, 2L},
+                new Object[] {"Activation Pending External Users", 4L, 1L},
+                new Object[] {"Total Firms with External Users", 7L, 3L},
+                new Object[] {"Total Firms with Active External Users", 5L, 2L}
+        ));
 
         service.getUserUptakeReport();
 
+        InOrder inOrder = inOrder(entraUserRepository);
+        inOrder.verify(entraUserRepository).refreshUserUptakeSummary();
+        inOrder.verify(entraUserRepository).findUserUptakeSummary();
         verify(reportUploadService)
                 .uploadCsvToSharePoint(any(File.class), eq("user_uptake_reports"));
 
@@ -110,4 +108,12 @@ class UserUptakeReportServiceTest {
                 "\"Total Firms with Active External Users\",5,2"
         );
     }
+
+    @Test
+    void refreshUserUptakeSummary_recordsRefreshTime() {
+        service.refreshUserUptakeSummary();
+
+        verify(entraUserRepository).refreshUserUptakeSummary();
+        assertThat(meterRegistry.get("user.uptake.summary.refresh").timer().count()).isEqualTo(1L);
+    }
 }
@@ -0,0 +1,93 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.laa.portal.landingpage.simulation.FaultInjector.Fault;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationProperties.Backend;
+import uk.gov.justice.laa.portal.landingpage.simulation.SimulationProperties.Distribution;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaultInjectorTest {
+
+    @Test
+    void fixedLatencyIsAlwaysTheMedian() {
+        Backend backend = new Backend();
+        backend.getLatency().setMedianMs(40);
+
+        FaultInjector injector = new FaultInjector(backend);
+
+        assertThat(LongStream.range(0, 100).map(i -> injector.sampleLatencyMillis())).containsOnly(40L);
+    }
+
+    @Test
+    void uniformLatencyStaysWithinBounds() {
+        Backend backend = new Backend();
+        backend.getLatency().setDistribution(Distribution.UNIFORM);
+        backend.getLatency().setMinMs(10);
+        backend.getLatency().setMaxMs(20);
+
+        FaultInjector injector = new FaultInjector(backend);
+
+        assertThat(LongStream.range(0, 1000).map(i -> injector.sampleLatencyMillis()))
+                .allMatch(latency -> latency >= 10 && latency <= 20);
+    }
+
+    @Test
+    void logNormalLatencyMatchesConfiguredPercentiles() {
+        Backend backend = new Backend();
+        backend.getLatency().setDistribution(Distribution.LOG_NORMAL);
+        backend.getLatency().setMedianMs(100);
+        backend.getLatency().setP99Ms(1000);
+
+        FaultInjector injector = new FaultInjector(backend);
+        long[] samples = LongStream.range(0, 20_000).map(i -> injector.sampleLatencyMillis()).toArray();
+        Arrays.sort(samples);
+
+        assertThat(samples[samples.length / 2]).isBetween(90L, 110L);
+        assertThat(samples[(int) (samples.length * 0.99)]).isBetween(800L, 1250L);
+    }
+
+    @Test
+    void throttlesRequestsOverTheRateLimitUntilTheNextSecond() throws Exception {
+        Backend backend = new Backend();
+        backend.setMaxRequestsPerSecond(2);
+        backend.setRetryAfterSeconds(3);
+        AtomicLong now = new AtomicLong(5_000);
+
+        FaultInjector injector = new FaultInjector(backend, now::get);
+
+        assertThat(injector.nextFault()).isEmpty();
+        assertThat(injector.nextFault()).isEmpty();
+        assertThat(injector.nextFault()).contains(new Fault(429, 3));
+
+        now.addAndGet(1_000);
+        assertThat(injector.nextFault()).isEmpty();
+    }
+
+    @Test
+    void injectsErrorsAndThrottlingAtConfiguredRates() throws Exception {
+        Backend backend = new Backend();
+        backend.setErrorRate(0.2);
+        backend.setThrottleRate(0.1);
+
+        FaultInjector injector = new FaultInjector(backend);
+        int errors = 0;
+        int throttled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Optional<Fault> fault = injector.nextFault();
+            if (fault.isPresent() && fault.get().status() == 503) {
+                errors++;
+            } else if (fault.isPresent() && fault.get().status() == 429) {
+                throttled++;
+            }
+        }
+
+        assertThat(errors).isBetween(1_700, 2_300);
+        assertThat(throttled).isBetween(800, 1_200);
+    }
+}
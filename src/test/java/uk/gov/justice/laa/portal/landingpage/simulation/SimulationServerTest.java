@@ -0,0 +1,167 @@
+package uk.gov.justice.laa.portal.landingpage.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.laa.portal.landingpage.repository.AppRepository;
+import uk.gov.justice.laa.portal.landingpage.repository.EntraUserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SimulationServerTest {
+
+    private static final String GROUP = UUID.randomUUID().toString();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private SimulationProperties properties;
+    private SimulationServer server;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SimulationProperties();
+        properties.setPort(0);
+        server = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void registersUpdatesAndReadsBackUsers() throws Exception {
+        HttpResponse<String> created = send("POST", "/tech-services/laa/users",
+                "{\"givenName\":\"Ada\",\"surname\":\"Lovelace\",\"mail\":\"ada@example.com\",\"groups\":[\"" + GROUP + "\"]}");
+        assertThat(created.statusCode()).isEqualTo(201);
+        String oid = objectMapper.readTree(created.body()).path("user").path("id").asText();
+
+        HttpResponse<String> again = send("POST", "/tech-services/laa/users",
+                "{\"givenName\":\"Ada\",\"surname\":\"Lovelace\",\"mail\":\"ada@example.com\"}");
+        assertThat(again.statusCode()).isEqualTo(200);
+
+        HttpResponse<String> disabled = send("PATCH", "/tech-services/laa/users/" + oid,
+                "{\"accountEnabled\":{\"enabled\":false,\"disabledReason\":\"UserRequest\"}}");
+        assertThat(disabled.statusCode()).isEqualTo(200);
+
+        JsonNode user = objectMapper.readTree(send("GET", "/tech-services//laa/users/" + oid, null).body()).path("user");
+        assertThat(user.path("accountEnabled").asBoolean()).isFalse();
+        assertThat(user.path("customSecurityAttributes").path("GuestUserStatus").path("DisabledReason").asText())
+                .isEqualTo("UserRequest");
+        assertThat(user.path("groups")).extracting(JsonNode::asText).containsExactly(GROUP);
+    }
+
+    @Test
+    void reportsUsersNotFoundForEmptyDateRange() throws Exception {
+        HttpResponse<String> response = send("GET",
+                "/tech-services/laa/users?fromDateTime=2020-01-01T00:00:00.00Z&toDateTime=2020-01-01T01:00:00.00Z", null);
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(objectMapper.readTree(response.body()).path("message").asText()).isEqualTo("Users not found.");
+    }
+
+    @Test
+    void groupDeltaReturnsMembersThenChanges() throws Exception {
+        String first = register("first@example.com");
+        String filter = "$filter=id%20eq%20'" + GROUP + "'&$select=members";
+
+        JsonNode initial = getJson("/graph/v1.0/groups/delta?" + filter);
+        assertThat(memberIds(initial)).containsExactly(first);
+        String deltaLink = initial.path("@odata.deltaLink").asText();
+        assertThat(deltaLink).contains("$deltatoken=");
+
+        String second = register("second@example.com");
+        send("PATCH", "/tech-services/laa/users/" + first, "{\"groups\":[]}");
+
+        JsonNode changes = getJson(deltaLink.substring(server.baseUrl().length()));
+        JsonNode members = changes.path("value").get(0).path("members@delta");
+        assertThat(memberIds(changes)).containsExactlyInAnyOrder(first, second);
+        for (JsonNode member : members) {
+            assertThat(member.has("@removed")).isEqualTo(member.path("id").asText().equals(first));
+        }
+    }
+
+    @Test
+    void pagesGroupMembersWithNextLinks() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            register("member" + i + "@example.com");
+        }
+
+        JsonNode page = getJson("/graph/v1.0/groups/" + GROUP + "/members?$top=2");
+        assertThat(page.path("value")).hasSize(2);
+        assertThat(page.path("value").get(0).path("@odata.type").asText()).isEqualTo("#microsoft.graph.user");
+
+        JsonNode next = getJson(page.path("@odata.nextLink").asText().substring(server.baseUrl().length()));
+        assertThat(next.path("value")).hasSize(1);
+        assertThat(next.has("@odata.nextLink")).isFalse();
+    }
+
+    @Test
+    void throttlesWithRetryAfterOverTheRateLimit() throws Exception {
+        server.stop();
+        properties.getGraph().setMaxRequestsPerSecond(1);
+        properties.getGraph().setRetryAfterSeconds(7);
+        server = start();
+
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(send("GET", "/graph/v1.0/users", null));
+        }
+
+        assertThat(responses).anySatisfy(response -> {
+            assertThat(response.statusCode()).isEqualTo(429);
+            assertThat(response.headers().firstValue("Retry-After")).contains("7");
+        });
+    }
+
+    @Test
+    void servesKeysThatVerifySimulatedTokens() throws Exception {
+        HttpResponse<String> keys = send("GET", "/simulation/keys", null);
+
+        assertThat(keys.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(keys.body()).path("keys").get(0).path("kty").asText()).isEqualTo("RSA");
+        assertThat(objectMapper.readTree(keys.body()).path("keys").get(0).has("d")).isFalse();
+    }
+
+    private SimulationServer start() {
+        SimulatedDirectory directory = new SimulatedDirectory(mock(EntraUserRepository.class));
+        return new SimulationServer(properties, directory, mock(AppRepository.class), new SimulatedTokenCredential(), objectMapper);
+    }
+
+    private String register(String mail) throws Exception {
+        HttpResponse<String> response = send("POST", "/tech-services/laa/users",
+                "{\"givenName\":\"Test\",\"surname\":\"User\",\"mail\":\"" + mail + "\",\"groups\":[\"" + GROUP + "\"]}");
+        return objectMapper.readTree(response.body()).path("user").path("id").asText();
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        HttpResponse<String> response = send("GET", path, null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private static List<String> memberIds(JsonNode deltaPage) {
+        List<String> ids = new ArrayList<>();
+        deltaPage.path("value").get(0).path("members@delta").forEach(member -> ids.add(member.path("id").asText()));
+        return ids;
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json")
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
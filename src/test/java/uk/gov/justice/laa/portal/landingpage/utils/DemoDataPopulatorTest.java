@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.portal.landingpage.utils;
 
 import com.microsoft.graph.models.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,7 @@ import uk.gov.justice.laa.portal.landingpage.repository.OfficeRepository;
 import uk.gov.justice.laa.portal.landingpage.repository.UserProfileRepository;
 import uk.gov.justice.laa.portal.landingpage.service.DistributedLockService;
 
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -67,7 +69,7 @@ class DemoDataPopulatorTest {
     @BeforeEach
     public void setUp() {
         // Initialize the service with required dependencies
-        DistributedLockService lockService = new DistributedLockService(lockRepository);
+        DistributedLockService lockService = new DistributedLockService(lockRepository, new SimpleMeterRegistry());
         this.demoDataPopulator = new DemoDataPopulator(
                 firmRepository,
                 officeRepository,
@@ -106,7 +108,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataAlreadyExists() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
         when(firmRepository.findFirmByName("Firm One")).thenReturn(Firm.builder().name("Firm One").build());
 
@@ -117,7 +119,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataErrorAddingData() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
 
         // Mocked response from Graph API
@@ -135,7 +137,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataErrorAddingCustomApps() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
 
         // Mocked response from Graph API
@@ -149,7 +151,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataErrorAddingCustomUser() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
         ReflectionTestUtils.setField(demoDataPopulator, "adminUserPrincipals", Set.of("test"));
 
@@ -164,7 +166,7 @@ class DemoDataPopulatorTest {
     @Test
     void populateDummyDataEnabled() {
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         demoDataPopulator.appReady(applicationReadyEvent);
         verifyMockCalls(1);
     }
@@ -180,7 +182,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataEnabledWithAdditionalUsers() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
         ReflectionTestUtils.setField(demoDataPopulator, "adminUserPrincipals", Set.of("testadmin@email.com:123"));
         ReflectionTestUtils.setField(demoDataPopulator, "nonAdminUserPrincipals", Set.of("testuser@email.com:1234"));
@@ -190,7 +192,7 @@ class DemoDataPopulatorTest {
 
     @Test
     void populateDummyDataEnabledWithAdditionalAppsAndUsers() {
-        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(1);
+        when(lockRepository.acquireLock(anyString(), any(), anyString())).thenReturn(Optional.of(1L));
         ReflectionTestUtils.setField(demoDataPopulator, "populateDummyData", true);
         ReflectionTestUtils.setField(demoDataPopulator, "adminUserPrincipals", Set.of("testadmin@email.com:123"));
         ReflectionTestUtils.setField(demoDataPopulator, "nonAdminUserPrincipals", Set.of("testuser@email.com:1234"));
@@ -0,0 +1,64 @@
+package uk.gov.justice.laa.portal.landingpage.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_allowsBurstUpToCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, clock::get);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_refillsAtConfiguredRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, clock::get);
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void tryAcquire_doesNotAccumulateBeyondCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 2, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void acquire_waitsForNextPermit() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 1);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(15));
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.justice.laa.portal.landingpage.validation;
+
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Rough lookup throughput comparison between the suffix trie and the exact-match set the
+ * blocklist used to be. Not part of the test suite; run {@code main} from the IDE with the test
+ * classpath. Each round checks a mix of listed domains, subdomains of listed domains and common
+ * real domains, which is what bulk user creation looks like.
+ */
+public final class BlocklistedEmailDomainsBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private BlocklistedEmailDomainsBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> listed = readBundledList();
+        Set<String> exactSet = new HashSet<>(listed);
+        DomainSuffixTrie trie = DomainSuffixTrie.of(listed);
+
+        List<String> probes = new ArrayList<>();
+        for (int i = 0; i < listed.size(); i += 7) {
+            probes.add(listed.get(i));
+            probes.add("mx" + i + "." + listed.get(i));
+        }
+        for (String real : List.of("justice.gov.uk", "digital.justice.gov.uk", "gmail.com", "outlook.com",
+                "lawfirm.co.uk", "chambers.example.org", "hotmail.co.uk", "btinternet.com")) {
+            for (int i = 0; i < 100; i++) {
+                probes.add(real);
+            }
+        }
+
+        Predicate<String> setLookup = domain -> exactSet.contains(domain.trim().toLowerCase(Locale.ROOT));
+        report("HashSet exact match", probes, setLookup);
+        report("DomainSuffixTrie", probes, trie::matches);
+    }
+
+    private static void report(String name, List<String> probes, Predicate<String> lookup) {
+        long hits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            hits += run(probes, lookup);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            hits += run(probes, lookup);
+        }
+        long elapsed = System.nanoTime() - start;
+        long lookups = (long) probes.size() * MEASURED_ROUNDS;
+        System.out.printf("%-22s %,12.0f lookups/s  %6.1f ns/lookup  (%d matched per round)%n",
+                name, lookups * 1e9 / elapsed, (double) elapsed / lookups, run(probes, lookup));
+        if (hits < 0) {
+            System.out.println(hits);
+        }
+    }
+
+    private static long run(List<String> probes, Predicate<String> lookup) {
+        long matched = 0;
+        for (String probe : probes) {
+            if (lookup.test(probe)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static List<String> readBundledList() throws IOException {
+        List<String> domains = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                new DefaultResourceLoader().getResource(BlocklistedEmailDomains.DEFAULT_LOCATION).getInputStream()),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    domains.add(line.strip());
+                }
+            }
+        }
+        return domains;
+    }
+}
@@ -1,13 +1,26 @@
 package uk.gov.justice.laa.portal.landingpage.validation;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class BlocklistedEmailDomainsTest {
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void isBlocklisted_returnsTrue_forKnownDomain() {
         BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of("mailinator.com", "yopmail.com"));
@@ -23,6 +36,57 @@ class BlocklistedEmailDomainsTest {
         assertThat(blocklist.isBlocklisted(null)).isFalse();
         assertThat(blocklist.isBlocklisted("")).isFalse();
     }
-}
 
+    @Test
+    void isBlocklisted_returnsTrue_forSubdomainOfKnownDomain() {
+        BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of("mailinator.com"));
+        assertThat(blocklist.isBlocklisted("eu.mailinator.com")).isTrue();
+        assertThat(blocklist.isBlocklisted("a.b.mailinator.com")).isTrue();
+        assertThat(blocklist.isBlocklisted("notmailinator.com")).isFalse();
+        assertThat(blocklist.isBlocklisted("com")).isFalse();
+    }
+
+    @Test
+    void defaultConstructor_loadsBundledList() {
+        BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains();
+        assertThat(blocklist.size()).isGreaterThan(4000);
+        assertThat(blocklist.isBlocklisted("mailinator.com")).isTrue();
+        assertThat(blocklist.isBlocklisted("10minutemail.com")).isTrue();
+        assertThat(blocklist.isBlocklisted("justice.gov.uk")).isFalse();
+    }
+
+    @Test
+    void reloadIfChanged_swapsInUpdatedListFromFile() throws IOException {
+        Path list = tempDir.resolve("blocklist.conf.gz");
+        writeGzipped(list, "# comment\nfirst.example\n");
+        BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of());
+        ReflectionTestUtils.setField(blocklist, "location", list.toUri().toString());
+
+        blocklist.reloadIfChanged();
+        assertThat(blocklist.isBlocklisted("first.example")).isTrue();
+        assertThat(blocklist.size()).isEqualTo(1);
 
+        writeGzipped(list, "second.example\n");
+        Files.setLastModifiedTime(list, FileTime.from(Instant.now().plusSeconds(60)));
+        blocklist.reloadIfChanged();
+
+        assertThat(blocklist.isBlocklisted("first.example")).isFalse();
+        assertThat(blocklist.isBlocklisted("mx.second.example")).isTrue();
+    }
+
+    @Test
+    void reloadIfChanged_keepsCurrentListWhenFileIsMissing() {
+        BlocklistedEmailDomains blocklist = new BlocklistedEmailDomains(Set.of("mailinator.com"));
+        ReflectionTestUtils.setField(blocklist, "location", tempDir.resolve("missing.conf").toUri().toString());
+
+        blocklist.reloadIfChanged();
+
+        assertThat(blocklist.isBlocklisted("mailinator.com")).isTrue();
+    }
+
+    private static void writeGzipped(Path path, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.justice.laa.portal.landingpage.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainSuffixTrieTest {
+
+    private final DomainSuffixTrie trie = DomainSuffixTrie.of(List.of("mailinator.com", "Temp.Co.UK", "co.cc", " spaced.org "));
+
+    @Test
+    void matches_exactDomainsCaseInsensitively() {
+        assertThat(trie.matches("mailinator.com")).isTrue();
+        assertThat(trie.matches("temp.co.uk")).isTrue();
+        assertThat(trie.matches("SPACED.ORG")).isTrue();
+        assertThat(trie.matches("mailinator.com.")).isTrue();
+    }
+
+    @Test
+    void matches_subdomainsOfListedDomains() {
+        assertThat(trie.matches("x.mailinator.com")).isTrue();
+        assertThat(trie.matches("deep.sub.temp.co.uk")).isTrue();
+        assertThat(trie.matches("anything.co.cc")).isTrue();
+    }
+
+    @Test
+    void doesNotMatch_parentsOrSiblingsOfListedDomains() {
+        assertThat(trie.matches("com")).isFalse();
+        assertThat(trie.matches("co.uk")).isFalse();
+        assertThat(trie.matches("other.co.uk")).isFalse();
+        assertThat(trie.matches("xmailinator.com")).isFalse();
+        assertThat(trie.matches("")).isFalse();
+        assertThat(trie.matches(null)).isFalse();
+    }
+
+    @Test
+    void contains_onlyMatchesExactDomains() {
+        assertThat(trie.contains("mailinator.com")).isTrue();
+        assertThat(trie.contains("x.mailinator.com")).isFalse();
+        assertThat(trie.contains("com")).isFalse();
+    }
+
+    @Test
+    void size_countsDistinctDomains() {
+        assertThat(DomainSuffixTrie.of(List.of("a.com", "A.com", "b.a.com", "")).size()).isEqualTo(2);
+        assertThat(trie.size()).isEqualTo(4);
+    }
+}